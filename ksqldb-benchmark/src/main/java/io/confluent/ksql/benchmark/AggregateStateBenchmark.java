@@ -0,0 +1,165 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.logging.processing.ProcessingLogContext;
+import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import io.confluent.ksql.serde.FormatFactory;
+import io.confluent.ksql.serde.FormatInfo;
+import io.confluent.ksql.serde.GenericRowSerDe;
+import io.confluent.ksql.serde.avro.AvroFormat;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.connect.data.ConnectSchema;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *  Runs JMH microbenchmarks of the state store round trip made by each aggregation update,
+ *  comparing the value formats with the compact state layout.
+ *  See `ksql-benchmark/README.md` for more info.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 4, time = 10)
+@Measurement(iterations = 4, time = 10)
+@Threads(4)
+@Fork(3)
+public class AggregateStateBenchmark {
+
+  private static final String TOPIC_NAME = "aggregate_state_benchmark";
+
+  private static final Schema AVG_SCHEMA = SchemaBuilder.struct().optional()
+      .field("SUM", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("COUNT", Schema.OPTIONAL_INT64_SCHEMA)
+      .build();
+
+  // State of: SELECT ID, COUNT(*), SUM(X), MAX(Y), AVG(X) ... GROUP BY ID;
+  private static final ConnectSchema STATE_SCHEMA = (ConnectSchema) SchemaBuilder.struct()
+      .field("ID", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("KSQL_AGG_VARIABLE_0", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("KSQL_AGG_VARIABLE_1", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("KSQL_AGG_VARIABLE_2", Schema.OPTIONAL_FLOAT64_SCHEMA)
+      .field("KSQL_AGG_VARIABLE_3", AVG_SCHEMA)
+      .build();
+
+  @State(Scope.Thread)
+  public static class StateSerdeState {
+
+    @Param({"JSON", "Avro", "Compact"})
+    public String stateFormat;
+
+    Serde<GenericRow> serde;
+    byte[] bytes;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      final PersistenceSchema schema = PersistenceSchema.from(STATE_SCHEMA, false);
+
+      switch (stateFormat) {
+        case "JSON":
+          serde = valueFormatSerde(FormatInfo.of(FormatFactory.JSON.name()), schema);
+          break;
+        case "Avro":
+          serde = valueFormatSerde(
+              FormatInfo.of(
+                  FormatFactory.AVRO.name(),
+                  ImmutableMap.of(AvroFormat.FULL_SCHEMA_NAME, "benchmarkSchema")),
+              schema
+          );
+          break;
+        case "Compact":
+          serde = GenericRowSerDe.compact(schema, "benchmark", ProcessingLogContext.create());
+          break;
+        default:
+          throw new RuntimeException("Invalid format: " + stateFormat);
+      }
+
+      final GenericRow row = GenericRow.genericRow(
+          "device-1234",
+          1_000L,
+          98_765L,
+          42.5,
+          new Struct(AVG_SCHEMA).put("SUM", 98_765L).put("COUNT", 1_000L)
+      );
+
+      bytes = serde.serializer().serialize(TOPIC_NAME, row);
+    }
+
+    private static Serde<GenericRow> valueFormatSerde(
+        final FormatInfo format,
+        final PersistenceSchema schema
+    ) {
+      final SchemaRegistryClient schemaRegistryClient = new MockSchemaRegistryClient();
+
+      return GenericRowSerDe.from(
+          format,
+          schema,
+          new KsqlConfig(ImmutableMap.of()),
+          () -> schemaRegistryClient,
+          "benchmark",
+          ProcessingLogContext.create()
+      );
+    }
+  }
+
+  /**
+   * Reads the current state and writes it back, as an aggregation does for each record.
+   */
+  @SuppressWarnings("MethodMayBeStatic") // Tests can not be static
+  @Benchmark
+  public byte[] roundTrip(final StateSerdeState state) {
+    final GenericRow row = state.serde.deserializer().deserialize(TOPIC_NAME, state.bytes);
+    return state.serde.serializer().serialize(TOPIC_NAME, row);
+  }
+
+  public static void main(final String[] args) throws Exception {
+
+    final Options opt = args.length != 0
+        ? new CommandLineOptions(args)
+        : new OptionsBuilder()
+            .include(AggregateStateBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .shouldFailOnError(true)
+            .build();
+
+    new Runner(opt).run();
+  }
+}
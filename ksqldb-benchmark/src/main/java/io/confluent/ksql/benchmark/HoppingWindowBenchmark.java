@@ -0,0 +1,209 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.function.udaf.HoppingWindowPanes;
+import io.confluent.ksql.execution.streams.StreamAggregateBuilder;
+import io.confluent.ksql.logging.processing.ProcessingLogContext;
+import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import io.confluent.ksql.serde.GenericRowSerDe;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.serialization.LongSerializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.connect.data.ConnectSchema;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.kstream.Aggregator;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Grouped;
+import org.apache.kafka.streams.kstream.Initializer;
+import org.apache.kafka.streams.kstream.KGroupedStream;
+import org.apache.kafka.streams.kstream.KTable;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.TimeWindows;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.state.WindowStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *  Runs JMH microbenchmarks comparing a hopping window aggregation that updates every window
+ *  containing each record with one that updates a single pane and composes the windows from
+ *  their panes.
+ *  See `ksql-benchmark/README.md` for more info.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 4, time = 10)
+@Measurement(iterations = 4, time = 10)
+@Threads(4)
+@Fork(3)
+public class HoppingWindowBenchmark {
+
+  private static final String TOPIC = "source";
+  private static final String STORE = "Aggregate-Materialize";
+  private static final int KEYS = 16;
+  private static final Duration ADVANCE = Duration.ofSeconds(1);
+  private static final Duration RECORD_INTERVAL = Duration.ofMillis(100);
+
+  private static final ConnectSchema STATE_SCHEMA = (ConnectSchema) SchemaBuilder.struct()
+      .field("KSQL_AGG_VARIABLE_0", Schema.OPTIONAL_INT64_SCHEMA)
+      .build();
+
+  private static final Initializer<GenericRow> INITIALIZER = () -> GenericRow.genericRow(0L);
+
+  private static final Aggregator<String, GenericRow, GenericRow> AGGREGATOR =
+      (key, value, aggregate) -> GenericRow.genericRow(
+          (Long) aggregate.get(0) + (Long) value.get(0));
+
+  @State(Scope.Thread)
+  public static class WindowState {
+
+    @Param({"2", "10", "60"})
+    public int windowsPerRecord;
+
+    @Param({"false", "true"})
+    public boolean panes;
+
+    @Param({"1024"})
+    public int recordsPerInvocation;
+
+    TopologyTestDriver driver;
+    TestInputTopic<String, Long> input;
+    List<KeyValue<String, Long>> records;
+    Instant nextTimestamp;
+    long output;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      final Duration windowSize = ADVANCE.multipliedBy(windowsPerRecord);
+
+      final Serde<GenericRow> stateSerde = GenericRowSerDe.compact(
+          PersistenceSchema.from(STATE_SCHEMA, false),
+          "benchmark",
+          ProcessingLogContext.create()
+      );
+
+      final Materialized<String, GenericRow, WindowStore<Bytes, byte[]>> materialized =
+          Materialized.<String, GenericRow, WindowStore<Bytes, byte[]>>as(STORE)
+              .withKeySerde(Serdes.String())
+              .withValueSerde(stateSerde);
+
+      final StreamsBuilder builder = new StreamsBuilder();
+      final KGroupedStream<String, GenericRow> grouped = builder
+          .stream(TOPIC, Consumed.with(Serdes.String(), Serdes.Long()))
+          .mapValues(v -> GenericRow.genericRow(v))
+          .groupByKey(Grouped.with(Serdes.String(), stateSerde));
+
+      final KTable<Windowed<String>, GenericRow> windows = panes
+          ? StreamAggregateBuilder.aggregateInPanes(
+              grouped,
+              new HoppingWindowPanes<>(
+                  windowSize,
+                  ADVANCE,
+                  INITIALIZER,
+                  (key, agg1, agg2) -> GenericRow.genericRow(
+                      (Long) agg1.get(0) + (Long) agg2.get(0))
+              ),
+              Duration.ZERO,
+              INITIALIZER,
+              AGGREGATOR,
+              materialized,
+              STORE,
+              "Aggregate"
+          )
+          : grouped
+              .windowedBy(TimeWindows.of(windowSize).advanceBy(ADVANCE).grace(Duration.ZERO))
+              .aggregate(INITIALIZER, AGGREGATOR, materialized);
+
+      windows.toStream().foreach((k, v) -> output++);
+
+      final Properties props = new Properties();
+      props.put(StreamsConfig.APPLICATION_ID_CONFIG, "hopping-window-benchmark");
+      props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+      props.put(StreamsConfig.CACHE_MAX_BYTES_BUFFERING_CONFIG, 0);
+
+      driver = new TopologyTestDriver(builder.build(), props);
+      input = driver.createInputTopic(TOPIC, new StringSerializer(), new LongSerializer());
+      nextTimestamp = Instant.EPOCH;
+
+      records = new ArrayList<>(recordsPerInvocation);
+      for (int i = 0; i < recordsPerInvocation; i++) {
+        records.add(KeyValue.pair("key-" + (i % KEYS), (long) i));
+      }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+      driver.close();
+    }
+  }
+
+  /**
+   * Pipes records with increasing timestamps, so that windows open and close as they would in
+   * a live stream.
+   */
+  @SuppressWarnings("MethodMayBeStatic") // Tests can not be static
+  @Benchmark
+  public long process(final WindowState state) {
+    state.input.pipeKeyValueList(state.records, state.nextTimestamp, RECORD_INTERVAL);
+    state.nextTimestamp = state.nextTimestamp
+        .plus(RECORD_INTERVAL.multipliedBy(state.recordsPerInvocation));
+    return state.output;
+  }
+
+  public static void main(final String[] args) throws Exception {
+
+    final Options opt = args.length != 0
+        ? new CommandLineOptions(args)
+        : new OptionsBuilder()
+            .include(HoppingWindowBenchmark.class.getSimpleName())
+            .shouldFailOnError(true)
+            .build();
+
+    new Runner(opt).run();
+  }
+}
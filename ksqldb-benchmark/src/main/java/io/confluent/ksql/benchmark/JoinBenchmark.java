@@ -0,0 +1,216 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.expression.tree.UnqualifiedColumnReferenceExp;
+import io.confluent.ksql.execution.plan.SelectExpression;
+import io.confluent.ksql.execution.streams.JoinParamsFactory;
+import io.confluent.ksql.execution.streams.transform.KsTransformer;
+import io.confluent.ksql.execution.transform.select.SelectValueMapper;
+import io.confluent.ksql.execution.transform.select.Selection;
+import io.confluent.ksql.function.InternalFunctionRegistry;
+import io.confluent.ksql.logging.processing.NoopProcessingLogContext;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.SchemaUtil;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.serialization.LongSerializer;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.KTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *  Runs JMH microbenchmarks of a stream-table join between a wide stream and a narrow table,
+ *  followed by a projection of a few columns from each side, comparing the projection run as a
+ *  separate processor with the projection fused into the value joiner.
+ *  See `ksql-benchmark/README.md` for more info.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 4, time = 10)
+@Measurement(iterations = 4, time = 10)
+@Threads(4)
+@Fork(3)
+public class JoinBenchmark {
+
+  private static final String LEFT_TOPIC = "left";
+  private static final String RIGHT_TOPIC = "right";
+  private static final int RIGHT_COLUMNS = 2;
+  private static final int KEYS = 16;
+  private static final int RECORDS_PER_INVOCATION = 64;
+
+  @State(Scope.Thread)
+  public static class JoinState {
+
+    @Param({"10", "100"})
+    public int leftColumns;
+
+    @Param({"false", "true"})
+    public boolean fused;
+
+    TopologyTestDriver driver;
+    TestInputTopic<String, Long> input;
+    List<KeyValue<String, Long>> records;
+    long output;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      final LogicalSchema leftSchema = schema("L", leftColumns);
+      final LogicalSchema rightSchema = schema("R", RIGHT_COLUMNS);
+
+      // Two columns from each side:
+      final List<SelectExpression> selects = new ArrayList<>();
+      for (final String column : new String[]{"L0", "L1", "R0", "R1"}) {
+        selects.add(SelectExpression.of(
+            ColumnName.of("OUT_" + column),
+            new UnqualifiedColumnReferenceExp(ColumnName.of(column))
+        ));
+      }
+
+      final KsqlConfig ksqlConfig = new KsqlConfig(ImmutableMap.of());
+      final InternalFunctionRegistry functionRegistry = new InternalFunctionRegistry();
+      final ProcessingLogger logger = NoopProcessingLogContext.NOOP_LOGGER;
+
+      final StreamsBuilder builder = new StreamsBuilder();
+      final KStream<String, GenericRow> left = builder
+          .stream(LEFT_TOPIC, Consumed.with(Serdes.String(), Serdes.Long()))
+          .mapValues(v -> row(v, leftColumns));
+      final KTable<String, GenericRow> right = builder
+          .table(RIGHT_TOPIC, Consumed.with(Serdes.String(), Serdes.Long()))
+          .mapValues(v -> row(v, RIGHT_COLUMNS));
+
+      final KStream<String, GenericRow> projected;
+      if (fused) {
+        projected = left.join(
+            right,
+            JoinParamsFactory.createWithProjection(
+                leftSchema,
+                rightSchema,
+                selects,
+                ksqlConfig,
+                functionRegistry,
+                logger
+            ).getJoiner()
+        );
+      } else {
+        final LogicalSchema joinSchema = JoinParamsFactory.createSchema(leftSchema, rightSchema);
+        final SelectValueMapper<String> mapper =
+            Selection.<String>of(joinSchema, selects, ksqlConfig, functionRegistry).getMapper();
+
+        projected = left
+            .join(right, JoinParamsFactory.create(leftSchema, rightSchema).getJoiner())
+            .transformValues(() -> new KsTransformer<>(mapper.getTransformer(logger)));
+      }
+
+      projected.foreach((k, v) -> output++);
+
+      final Properties props = new Properties();
+      props.put(StreamsConfig.APPLICATION_ID_CONFIG, "join-benchmark");
+      props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+
+      driver = new TopologyTestDriver(builder.build(), props);
+
+      final TestInputTopic<String, Long> table =
+          driver.createInputTopic(RIGHT_TOPIC, new StringSerializer(), new LongSerializer());
+      for (int i = 0; i < KEYS; i++) {
+        table.pipeInput("k" + i, (long) i);
+      }
+
+      input = driver.createInputTopic(LEFT_TOPIC, new StringSerializer(), new LongSerializer());
+
+      records = new ArrayList<>(RECORDS_PER_INVOCATION);
+      for (int i = 0; i < RECORDS_PER_INVOCATION; i++) {
+        records.add(KeyValue.pair("k" + (i % KEYS), (long) i));
+      }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+      driver.close();
+    }
+  }
+
+  @SuppressWarnings("MethodMayBeStatic") // Tests can not be static
+  @Benchmark
+  public long join(final JoinState state) {
+    state.input.pipeKeyValueList(state.records);
+    return state.output;
+  }
+
+  private static LogicalSchema schema(final String prefix, final int columns) {
+    final LogicalSchema.Builder builder = LogicalSchema.builder()
+        .keyColumn(SchemaUtil.ROWKEY_NAME, SqlTypes.STRING);
+
+    for (int i = 0; i < columns; i++) {
+      builder.valueColumn(ColumnName.of(prefix + i), SqlTypes.BIGINT);
+    }
+
+    return builder.build();
+  }
+
+  private static GenericRow row(final Long value, final int columns) {
+    final GenericRow row = new GenericRow(columns);
+    for (int i = 0; i < columns; i++) {
+      row.append(value);
+    }
+    return row;
+  }
+
+  public static void main(final String[] args) throws Exception {
+
+    final Options opt = args.length != 0
+        ? new CommandLineOptions(args)
+        : new OptionsBuilder()
+            .include(JoinBenchmark.class.getSimpleName())
+            .shouldFailOnError(true)
+            .build();
+
+    new Runner(opt).run();
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import io.confluent.ksql.KsqlExecutionContext;
+import io.confluent.ksql.KsqlExecutionContext.ExecuteResult;
+import io.confluent.ksql.engine.KsqlEngine;
+import io.confluent.ksql.engine.KsqlEngineTestUtil;
+import io.confluent.ksql.engine.KsqlPlan;
+import io.confluent.ksql.execution.ddl.commands.KsqlTopic;
+import io.confluent.ksql.function.InternalFunctionRegistry;
+import io.confluent.ksql.metastore.MetaStoreImpl;
+import io.confluent.ksql.metastore.MutableMetaStore;
+import io.confluent.ksql.metastore.model.DataSource;
+import io.confluent.ksql.metastore.model.KeyField;
+import io.confluent.ksql.metastore.model.KsqlStream;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
+import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
+import io.confluent.ksql.planner.plan.ConfiguredKsqlPlan;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.serde.FormatFactory;
+import io.confluent.ksql.serde.FormatInfo;
+import io.confluent.ksql.serde.KeyFormat;
+import io.confluent.ksql.serde.SerdeOption;
+import io.confluent.ksql.serde.ValueFormat;
+import io.confluent.ksql.services.FakeKafkaTopicClient;
+import io.confluent.ksql.services.SandboxedServiceContext;
+import io.confluent.ksql.services.ServiceContext;
+import io.confluent.ksql.services.TestServiceContext;
+import io.confluent.ksql.statement.ConfiguredStatement;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.SchemaUtil;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarks the latency of validating a statement, i.e. planning and executing it in a sandbox,
+ * as the number of sources in the meta store grows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 4, time = 10)
+@Measurement(iterations = 4, time = 10)
+@Threads(4)
+@Fork(3)
+public class MetaStoreBenchmark {
+
+  private static final LogicalSchema SCHEMA = LogicalSchema.builder()
+      .keyColumn(SchemaUtil.ROWKEY_NAME, SqlTypes.STRING)
+      .valueColumn(ColumnName.of("ID"), SqlTypes.BIGINT)
+      .valueColumn(ColumnName.of("NAME"), SqlTypes.STRING)
+      .build();
+
+  private static final KeyFormat KEY_FORMAT =
+      KeyFormat.nonWindowed(FormatInfo.of(FormatFactory.KAFKA.name()));
+
+  private static final ValueFormat VALUE_FORMAT =
+      ValueFormat.of(FormatInfo.of(FormatFactory.JSON.name()));
+
+  private static final String NEW_TOPIC = "new_source";
+  private static final String CREATE_STREAM = "CREATE STREAM NEW_SOURCE (ID BIGINT, NAME STRING)"
+      + " WITH (kafka_topic='" + NEW_TOPIC + "', value_format='JSON');";
+
+  @State(Scope.Thread)
+  public static class MetaStoreState {
+
+    @Param({"100", "1000", "10000"})
+    public int numSources;
+
+    private MutableMetaStore metaStore;
+    private DataSource newSource;
+    private ServiceContext serviceContext;
+    private ServiceContext sandboxServiceContext;
+    private KsqlEngine engine;
+    private KsqlConfig ksqlConfig;
+    private ParsedStatement createStream;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      metaStore = new MetaStoreImpl(new InternalFunctionRegistry());
+
+      for (int i = 0; i < numSources; i++) {
+        final DataSource source = stream("S" + i);
+        metaStore.putSource(source);
+        metaStore.updateForPersistentQuery(
+            "CSAS_S" + i,
+            Collections.singleton(source.getName()),
+            Collections.singleton(source.getName())
+        );
+      }
+
+      newSource = stream("NEW_SOURCE");
+
+      final FakeKafkaTopicClient topicClient = new FakeKafkaTopicClient();
+      topicClient.preconditionTopicExists(NEW_TOPIC);
+      serviceContext = TestServiceContext.create(topicClient);
+      sandboxServiceContext = SandboxedServiceContext.create(serviceContext);
+      engine = KsqlEngineTestUtil.createKsqlEngine(serviceContext, metaStore);
+      ksqlConfig = new KsqlConfig(Collections.emptyMap());
+      createStream = engine.parse(CREATE_STREAM).get(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+      engine.close();
+      serviceContext.close();
+    }
+  }
+
+  @Benchmark
+  public MutableMetaStore sandboxPutSource(final MetaStoreState state) {
+    final MutableMetaStore sandbox = state.metaStore.copy();
+    sandbox.putSource(state.newSource);
+    return sandbox;
+  }
+
+  @Benchmark
+  public ExecuteResult validateCreateStream(final MetaStoreState state) {
+    final KsqlExecutionContext sandbox = state.engine.createSandbox(state.sandboxServiceContext);
+
+    final PreparedStatement<?> prepared = sandbox.prepare(state.createStream);
+    final KsqlPlan plan = sandbox.plan(
+        state.sandboxServiceContext,
+        ConfiguredStatement.of(prepared, Collections.emptyMap(), state.ksqlConfig)
+    );
+
+    return sandbox.execute(
+        state.sandboxServiceContext,
+        ConfiguredKsqlPlan.of(plan, Collections.emptyMap(), state.ksqlConfig)
+    );
+  }
+
+  private static DataSource stream(final String name) {
+    return new KsqlStream<>(
+        "sqlexpression",
+        SourceName.of(name),
+        SCHEMA,
+        SerdeOption.none(),
+        KeyField.none(),
+        Optional.empty(),
+        false,
+        new KsqlTopic(name.toLowerCase(), KEY_FORMAT, VALUE_FORMAT)
+    );
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    final Options opt = new OptionsBuilder()
+        .include(MetaStoreBenchmark.class.getSimpleName())
+        .build();
+
+    new Runner(opt).run();
+  }
+}
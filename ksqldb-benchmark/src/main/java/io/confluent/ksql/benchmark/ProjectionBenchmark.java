@@ -0,0 +1,133 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.expression.tree.ArithmeticBinaryExpression;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.expression.tree.LongLiteral;
+import io.confluent.ksql.execution.expression.tree.UnqualifiedColumnReferenceExp;
+import io.confluent.ksql.execution.plan.SelectExpression;
+import io.confluent.ksql.execution.transform.KsqlTransformer;
+import io.confluent.ksql.execution.transform.select.SelectValueMapper;
+import io.confluent.ksql.execution.transform.select.SelectValueMapperFactory;
+import io.confluent.ksql.function.InternalFunctionRegistry;
+import io.confluent.ksql.logging.processing.NoopProcessingLogContext;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.schema.Operator;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *  Runs JMH microbenchmarks comparing the interpreted and compiled projection paths of
+ *  {@link SelectValueMapper} on wide projections.
+ *  See `ksql-benchmark/README.md` for more info.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 4, time = 10)
+@Measurement(iterations = 4, time = 10)
+@Threads(4)
+@Fork(3)
+public class ProjectionBenchmark {
+
+  @State(Scope.Thread)
+  public static class ProjectionState {
+
+    @Param({"10", "100"})
+    public int columns;
+
+    @Param({"false", "true"})
+    public boolean fused;
+
+    KsqlTransformer<Object, GenericRow> transformer;
+    GenericRow row;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      final LogicalSchema.Builder schemaBuilder = LogicalSchema.builder();
+      final List<SelectExpression> selects = new ArrayList<>(columns);
+      row = new GenericRow(columns);
+
+      for (int i = 0; i < columns; i++) {
+        final ColumnName name = ColumnName.of("COL" + i);
+        schemaBuilder.valueColumn(name, SqlTypes.BIGINT);
+        row.append((long) i);
+
+        final Expression expression = new ArithmeticBinaryExpression(
+            Operator.ADD,
+            new UnqualifiedColumnReferenceExp(name),
+            new LongLiteral(1L)
+        );
+
+        selects.add(SelectExpression.of(ColumnName.of("OUT" + i), expression));
+      }
+
+      final KsqlConfig ksqlConfig = new KsqlConfig(ImmutableMap.of(
+          KsqlConfig.KSQL_CODEGEN_FUSED_ENABLED, fused
+      ));
+
+      final SelectValueMapper<Object> mapper = SelectValueMapperFactory.create(
+          selects,
+          schemaBuilder.build(),
+          ksqlConfig,
+          new InternalFunctionRegistry()
+      );
+
+      transformer = mapper.getTransformer(NoopProcessingLogContext.NOOP_LOGGER);
+    }
+  }
+
+  @SuppressWarnings("MethodMayBeStatic") // Tests can not be static
+  @Benchmark
+  public GenericRow project(final ProjectionState state) {
+    return state.transformer.transform(null, state.row, null);
+  }
+
+  public static void main(final String[] args) throws Exception {
+
+    final Options opt = args.length != 0
+        ? new CommandLineOptions(args)
+        : new OptionsBuilder()
+            .include(ProjectionBenchmark.class.getSimpleName())
+            .shouldFailOnError(true)
+            .build();
+
+    new Runner(opt).run();
+  }
+}
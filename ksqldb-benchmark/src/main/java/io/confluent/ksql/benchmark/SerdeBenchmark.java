@@ -32,7 +32,8 @@ import io.confluent.ksql.util.Pair;
 import java.io.InputStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
@@ -57,6 +58,7 @@ import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.options.CommandLineOptions;
 import org.openjdk.jmh.runner.options.Options;
@@ -84,7 +86,7 @@ public class SerdeBenchmark {
     org.apache.kafka.connect.data.Schema schema;
     GenericRow row;
 
-    @Param({"impressions", "metrics"})
+    @Param({"impressions", "metrics", "nested"})
     public String schemaName;
 
     @Setup(Level.Iteration)
@@ -115,34 +117,103 @@ public class SerdeBenchmark {
     GenericRow row;
     byte[] bytes;
 
-    @Param({"JSON", "Avro"})
+    @Param({"JSON", "Avro", "Delimited", "Kafka"})
     public String serializationFormat;
 
+    /**
+     * Whether to read and write rows directly, rather than via a Connect Struct, for the formats
+     * that support it.
+     */
+    @Param({"false", "true"})
+    public boolean nativeRow;
+
     @Setup(Level.Iteration)
     public void setUp(final SchemaAndGenericRowState rowState) {
+      final KsqlConfig ksqlConfig = new KsqlConfig(ImmutableMap.of(
+          KsqlConfig.KSQL_SERDE_NATIVE_ROW_ENABLED, nativeRow
+      ));
+
       final Serde<GenericRow> serde;
       switch (serializationFormat) {
         case "JSON":
-          serde = getJsonSerde(rowState.schema);
+          serde = getJsonSerde(rowState.schema, ksqlConfig);
+          row = rowState.row;
           break;
         case "Avro":
-          serde = getAvroSerde(rowState.schema);
+          serde = getAvroSerde(rowState.schema, ksqlConfig);
+          row = rowState.row;
+          break;
+        case "Delimited":
+          // DELIMITED only supports primitive top level fields:
+          final List<Integer> primitives = primitiveFields(rowState.schema);
+          serde = getGenericRowSerde(
+              FormatInfo.of(FormatFactory.DELIMITED.name()),
+              project(rowState.schema, primitives),
+              ksqlConfig,
+              () -> null
+          );
+          row = project(rowState.row, primitives);
+          break;
+        case "Kafka":
+          // KAFKA only supports a single primitive field:
+          final List<Integer> first = primitiveFields(rowState.schema).subList(0, 1);
+          serde = getGenericRowSerde(
+              FormatInfo.of(FormatFactory.KAFKA.name()),
+              project(rowState.schema, first),
+              ksqlConfig,
+              () -> null
+          );
+          row = project(rowState.row, first);
           break;
         default:
           throw new RuntimeException("Invalid format: " + serializationFormat);
       }
       serializer = serde.serializer();
       deserializer = serde.deserializer();
-      row = rowState.row;
       bytes = serializer.serialize(TOPIC_NAME, row);
     }
 
+    private static List<Integer> primitiveFields(
+        final org.apache.kafka.connect.data.Schema schema
+    ) {
+      final List<Integer> indexes = new ArrayList<>();
+      for (final Field field : schema.fields()) {
+        if (field.schema().type().isPrimitive()) {
+          indexes.add(field.index());
+        }
+      }
+      return indexes;
+    }
+
+    private static org.apache.kafka.connect.data.Schema project(
+        final org.apache.kafka.connect.data.Schema schema,
+        final List<Integer> indexes
+    ) {
+      SchemaBuilder builder = SchemaBuilder.struct();
+      for (final int idx : indexes) {
+        final Field field = schema.fields().get(idx);
+        builder = builder.field(field.name(), field.schema());
+      }
+      return builder.build();
+    }
+
+    private static GenericRow project(final GenericRow row, final List<Integer> indexes) {
+      final GenericRow projected = new GenericRow(indexes.size());
+      for (final int idx : indexes) {
+        projected.append(row.get(idx));
+      }
+      return projected;
+    }
+
     private static Serde<GenericRow> getJsonSerde(
-        final org.apache.kafka.connect.data.Schema schema) {
-      final Serializer<GenericRow> serializer = getJsonSerdeHelper(schema).serializer();
+        final org.apache.kafka.connect.data.Schema schema,
+        final KsqlConfig ksqlConfig
+    ) {
+      final Serializer<GenericRow> serializer = getJsonSerdeHelper(schema, ksqlConfig)
+          .serializer();
       // KsqlJsonDeserializer requires schema field names to be uppercase
       final Deserializer<GenericRow> deserializer =
-          getJsonSerdeHelper(convertFieldNamesToUppercase(schema)).deserializer();
+          getJsonSerdeHelper(convertFieldNamesToUppercase(schema), ksqlConfig).deserializer();
       return Serdes.serdeFrom(serializer, deserializer);
     }
 
@@ -156,17 +227,20 @@ public class SerdeBenchmark {
     }
 
     private static Serde<GenericRow> getJsonSerdeHelper(
-        final org.apache.kafka.connect.data.Schema schema
+        final org.apache.kafka.connect.data.Schema schema,
+        final KsqlConfig ksqlConfig
     ) {
       return getGenericRowSerde(
           FormatInfo.of(FormatFactory.JSON.name()),
           schema,
+          ksqlConfig,
           () -> null
       );
     }
 
     private static Serde<GenericRow> getAvroSerde(
-        final org.apache.kafka.connect.data.Schema schema
+        final org.apache.kafka.connect.data.Schema schema,
+        final KsqlConfig ksqlConfig
     ) {
       final SchemaRegistryClient schemaRegistryClient = new MockSchemaRegistryClient();
 
@@ -175,6 +249,7 @@ public class SerdeBenchmark {
               FormatFactory.AVRO.name(),
               ImmutableMap.of(AvroFormat.FULL_SCHEMA_NAME, "benchmarkSchema")),
           schema,
+          ksqlConfig,
           () -> schemaRegistryClient
       );
     }
@@ -182,12 +257,13 @@ public class SerdeBenchmark {
     private static Serde<GenericRow> getGenericRowSerde(
         final FormatInfo format,
         final org.apache.kafka.connect.data.Schema schema,
+        final KsqlConfig ksqlConfig,
         final Supplier<SchemaRegistryClient> schemaRegistryClientFactory
     ) {
       return GenericRowSerDe.from(
           format,
           PersistenceSchema.from((ConnectSchema) schema, false),
-          new KsqlConfig(Collections.emptyMap()),
+          ksqlConfig,
           schemaRegistryClientFactory,
           "benchmark",
           ProcessingLogContext.create()
@@ -213,6 +289,7 @@ public class SerdeBenchmark {
         ? new CommandLineOptions(args)
         : new OptionsBuilder()
             .include(SerdeBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
             .shouldFailOnError(true)
             .build();
 
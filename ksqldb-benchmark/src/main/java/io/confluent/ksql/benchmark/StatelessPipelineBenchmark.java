@@ -0,0 +1,208 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.expression.tree.ArithmeticBinaryExpression;
+import io.confluent.ksql.execution.expression.tree.ComparisonExpression;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.expression.tree.LongLiteral;
+import io.confluent.ksql.execution.expression.tree.UnqualifiedColumnReferenceExp;
+import io.confluent.ksql.execution.plan.SelectExpression;
+import io.confluent.ksql.execution.streams.StreamFilterBuilder;
+import io.confluent.ksql.execution.streams.transform.KsTransformer;
+import io.confluent.ksql.execution.transform.select.FilterSelectTransformer;
+import io.confluent.ksql.execution.transform.select.SelectValueMapper;
+import io.confluent.ksql.execution.transform.select.SelectValueMapperFactory;
+import io.confluent.ksql.execution.transform.sqlpredicate.SqlPredicate;
+import io.confluent.ksql.function.InternalFunctionRegistry;
+import io.confluent.ksql.logging.processing.NoopProcessingLogContext;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.schema.Operator;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.serialization.LongSerializer;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.KStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *  Runs JMH microbenchmarks comparing a stateless filter and projection executed as two chained
+ *  Kafka Streams processors with the same pipeline executed as a single fused processor.
+ *  See `ksql-benchmark/README.md` for more info.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 4, time = 10)
+@Measurement(iterations = 4, time = 10)
+@Threads(4)
+@Fork(3)
+public class StatelessPipelineBenchmark {
+
+  private static final String TOPIC = "source";
+  private static final int COLUMNS = 10;
+
+  @State(Scope.Thread)
+  public static class PipelineState {
+
+    @Param({"1", "64", "1024"})
+    public int recordsPerInvocation;
+
+    @Param({"false", "true"})
+    public boolean fused;
+
+    TopologyTestDriver driver;
+    TestInputTopic<String, Long> input;
+    List<Long> values;
+    long output;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      final LogicalSchema.Builder schemaBuilder = LogicalSchema.builder();
+      final List<SelectExpression> selects = new ArrayList<>(COLUMNS);
+
+      for (int i = 0; i < COLUMNS; i++) {
+        final ColumnName name = ColumnName.of("COL" + i);
+        schemaBuilder.valueColumn(name, SqlTypes.BIGINT);
+
+        final Expression expression = new ArithmeticBinaryExpression(
+            Operator.ADD,
+            new UnqualifiedColumnReferenceExp(name),
+            new LongLiteral(1L)
+        );
+
+        selects.add(SelectExpression.of(ColumnName.of("OUT" + i), expression));
+      }
+
+      final LogicalSchema schema = schemaBuilder.build();
+      final KsqlConfig ksqlConfig = new KsqlConfig(ImmutableMap.of());
+      final InternalFunctionRegistry functionRegistry = new InternalFunctionRegistry();
+
+      // Passes every other record:
+      final SqlPredicate predicate = new SqlPredicate(
+          new ComparisonExpression(
+              ComparisonExpression.Type.GREATER_THAN,
+              new UnqualifiedColumnReferenceExp(ColumnName.of("COL0")),
+              new LongLiteral(0L)
+          ),
+          schema,
+          ksqlConfig,
+          functionRegistry
+      );
+
+      final SelectValueMapper<String> mapper = SelectValueMapperFactory.create(
+          selects,
+          schema,
+          ksqlConfig,
+          functionRegistry
+      );
+
+      final ProcessingLogger logger = NoopProcessingLogContext.NOOP_LOGGER;
+
+      final StreamsBuilder builder = new StreamsBuilder();
+      final KStream<String, GenericRow> rows = builder
+          .stream(TOPIC, Consumed.with(Serdes.String(), Serdes.Long()))
+          .mapValues(StatelessPipelineBenchmark::toRow);
+
+      final KStream<String, GenericRow> projected = fused
+          ? rows.flatTransformValues(() -> StreamFilterBuilder.toFlatMapTransformer(
+              new FilterSelectTransformer<String>(
+                  predicate.getTransformer(logger),
+                  mapper.getTransformer(logger)
+              )))
+          : rows
+              .flatTransformValues(() -> StreamFilterBuilder.toFlatMapTransformer(
+                  predicate.<String>getTransformer(logger)))
+              .transformValues(() -> new KsTransformer<>(mapper.getTransformer(logger)));
+
+      projected.foreach((k, v) -> output++);
+
+      final Properties props = new Properties();
+      props.put(StreamsConfig.APPLICATION_ID_CONFIG, "stateless-pipeline-benchmark");
+      props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+
+      driver = new TopologyTestDriver(builder.build(), props);
+      input = driver.createInputTopic(TOPIC, new StringSerializer(), new LongSerializer());
+
+      values = new ArrayList<>(recordsPerInvocation);
+      for (int i = 0; i < recordsPerInvocation; i++) {
+        values.add((long) (i % 2));
+      }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+      driver.close();
+    }
+  }
+
+  @SuppressWarnings("MethodMayBeStatic") // Tests can not be static
+  @Benchmark
+  public long process(final PipelineState state) {
+    state.input.pipeValueList(state.values);
+    return state.output;
+  }
+
+  private static GenericRow toRow(final Long value) {
+    final GenericRow row = new GenericRow(COLUMNS);
+    for (int i = 0; i < COLUMNS; i++) {
+      row.append(value);
+    }
+    return row;
+  }
+
+  public static void main(final String[] args) throws Exception {
+
+    final Options opt = args.length != 0
+        ? new CommandLineOptions(args)
+        : new OptionsBuilder()
+            .include(StatelessPipelineBenchmark.class.getSimpleName())
+            .shouldFailOnError(true)
+            .build();
+
+    new Runner(opt).run();
+  }
+}
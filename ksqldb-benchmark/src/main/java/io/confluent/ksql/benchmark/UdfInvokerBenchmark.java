@@ -32,6 +32,7 @@ import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.Options;
@@ -50,6 +51,8 @@ public class UdfInvokerBenchmark {
 
     private PluggableUdf simple;
     private PluggableUdf varargs;
+    private PluggableUdf reflectiveSimple;
+    private PluggableUdf reflectiveVarargs;
     private Method simpleMethod;
     private Method varArgsMethod;
 
@@ -57,8 +60,12 @@ public class UdfInvokerBenchmark {
     public void setUp() {
       simpleMethod = createMethod("simpleMethod", int.class);
       varArgsMethod = createMethod("varArgsMethod", int.class, long[].class);
-      simple = createPluggableUdf(simpleMethod);
-      varargs = createPluggableUdf(varArgsMethod);
+      simple = createPluggableUdf(FunctionLoaderUtils.createFunctionInvoker(simpleMethod));
+      varargs = createPluggableUdf(FunctionLoaderUtils.createFunctionInvoker(varArgsMethod));
+      reflectiveSimple = createPluggableUdf(
+          FunctionLoaderUtils.createReflectiveFunctionInvoker(simpleMethod));
+      reflectiveVarargs = createPluggableUdf(
+          FunctionLoaderUtils.createReflectiveFunctionInvoker(varArgsMethod));
     }
 
     private Method createMethod(final String methodName, final Class<?>... params) {
@@ -69,13 +76,8 @@ public class UdfInvokerBenchmark {
       }
     }
 
-    private PluggableUdf createPluggableUdf(final Method method) {
-      try {
-        final FunctionInvoker invoker = FunctionLoaderUtils.createFunctionInvoker(method);
-        return new PluggableUdf(invoker, this);
-      } catch (final Exception e) {
-        throw new RuntimeException(e);
-      }
+    private PluggableUdf createPluggableUdf(final FunctionInvoker invoker) {
+      return new PluggableUdf(invoker, this);
     }
 
     public int simpleMethod(final int x) {
@@ -115,12 +117,24 @@ public class UdfInvokerBenchmark {
     return (Integer) state.varargs.evaluate(vargs);
   }
 
+  @Benchmark
+  public int invokeSimpleReflective(final UdfInvokerState state) {
+    return (Integer) state.reflectiveSimple.evaluate(1);
+  }
+
+  @Benchmark
+  public int invokeVarargsReflective(final UdfInvokerState state) {
+    return (Integer) state.reflectiveVarargs.evaluate(vargs);
+  }
+
   static Object[] vargs = new Object[]{1, 1L, 2L, 3L, 4L, 5L};
   static long[] vargs2 = new long[] {1L, 2L, 3L, 4L, 5L};
 
   public static void main(final String[] args) throws RunnerException {
     final Options opt = new OptionsBuilder()
         .include(UdfInvokerBenchmark.class.getSimpleName())
+        // Report allocations per call, alongside the time per call:
+        .addProfiler(GCProfiler.class)
         .build();
 
     new Runner(opt).run();
@@ -19,6 +19,7 @@ import io.confluent.ksql.function.types.ParamType;
 import io.confluent.ksql.function.udf.Kudf;
 import io.confluent.ksql.name.FunctionName;
 import io.confluent.ksql.testing.EffectivelyImmutable;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 
@@ -45,7 +46,26 @@ public class KsqlTableFunction extends KsqlFunction {
     this.udtf = Objects.requireNonNull(udtf, "udtf");
   }
 
-  public List<?> apply(final Object... args) {
-    return (List<?>) udtf.evaluate(args);
+  /**
+   * Invoke the table function.
+   *
+   * <p>Table functions may return either a {@code List} or an {@code Iterator}. An iterator allows
+   * the function to produce its values on demand, rather than materializing them all up front.
+   *
+   * @param args the arguments to the function.
+   * @return an iterator over the function's results, or {@code null} if the function returned
+   *         {@code null}.
+   */
+  public Iterator<?> apply(final Object... args) {
+    final Object result = udtf.evaluate(args);
+    if (result == null) {
+      return null;
+    }
+
+    if (result instanceof Iterator) {
+      return (Iterator<?>) result;
+    }
+
+    return ((List<?>) result).iterator();
   }
 }
@@ -81,6 +81,27 @@ public class ProcessingLogConfig extends AbstractConfig {
   private static final String INCLUDE_ROWS_DOC =
       "Toggles whether or not the processing log should include rows in log messages";
 
+  public static final String SAMPLING_RATE = propertyName("sampling.records.per.second");
+  private static final int SAMPLING_RATE_DEFAULT = 10;
+  private static final String SAMPLING_RATE_DOC =
+      "If processing log rate limiting is enabled, the maximum number of full records each "
+          + "processing logger writes per second.";
+
+  public static final String SAMPLING_INTERVAL_MS = propertyName("sampling.summary.interval.ms");
+  private static final long SAMPLING_INTERVAL_MS_DEFAULT = 60000L;
+  private static final String SAMPLING_INTERVAL_MS_DOC =
+      "If processing log rate limiting is enabled, the interval, in milliseconds, over which "
+          + "suppressed errors are counted before a summary record is written.";
+
+  public static final String SAMPLING_ENABLED = propertyName("sampling.enabled");
+  private static final String SAMPLING_ENABLED_DOC = String.format(
+      "Toggles rate limiting of the processing log. If set to true, each processing logger "
+          + "writes no more full records per second than set in the \"%s\" property. Further "
+          + "errors are counted by type, and a summary record holding the count and an example "
+          + "error is written once per interval set in the \"%s\" property.",
+      SAMPLING_RATE,
+      SAMPLING_INTERVAL_MS);
+
   private static final ConfigDef CONFIG_DEF = new ConfigDef()
       .define(
           STREAM_AUTO_CREATE,
@@ -123,7 +144,27 @@ public class ProcessingLogConfig extends AbstractConfig {
           Type.BOOLEAN,
           false,
           Importance.HIGH,
-          INCLUDE_ROWS_DOC
+          INCLUDE_ROWS_DOC)
+      .define(
+          SAMPLING_ENABLED,
+          Type.BOOLEAN,
+          false,
+          Importance.LOW,
+          SAMPLING_ENABLED_DOC)
+      .define(
+          SAMPLING_RATE,
+          Type.INT,
+          SAMPLING_RATE_DEFAULT,
+          ConfigDef.Range.atLeast(1),
+          Importance.LOW,
+          SAMPLING_RATE_DOC)
+      .define(
+          SAMPLING_INTERVAL_MS,
+          Type.LONG,
+          SAMPLING_INTERVAL_MS_DEFAULT,
+          ConfigDef.Range.atLeast(1),
+          Importance.LOW,
+          SAMPLING_INTERVAL_MS_DOC
       );
 
   public static Set<String> configNames() {
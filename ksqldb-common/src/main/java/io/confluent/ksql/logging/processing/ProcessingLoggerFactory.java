@@ -29,4 +29,27 @@ public interface ProcessingLoggerFactory {
    * @return A collection of all loggers that have been created by the factory
    */
   Collection<String> getLoggers();
+
+  /**
+   * Get the number of errors logged by loggers whose names start with the supplied prefix.
+   *
+   * <p>Errors are only counted when processing log rate limiting is enabled.
+   *
+   * @param prefix the logger name prefix, e.g. the query id.
+   * @return the number of errors logged so far.
+   */
+  default long getErrorCount(final String prefix) {
+    return 0;
+  }
+
+  /**
+   * Release the logger with the supplied name and those below it, i.e. whose names start with the
+   * name followed by a dot, once the query they log for is closed.
+   *
+   * <p>Any errors whose records were suppressed by rate limiting are summarized first.
+   *
+   * @param name the logger name, e.g. the query id.
+   */
+  default void closeLoggers(final String name) {
+  }
 }
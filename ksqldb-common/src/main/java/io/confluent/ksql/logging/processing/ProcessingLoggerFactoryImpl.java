@@ -15,15 +15,28 @@
 
 package io.confluent.ksql.logging.processing;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.confluent.common.logging.StructuredLogger;
 import io.confluent.common.logging.StructuredLoggerFactory;
 import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class ProcessingLoggerFactoryImpl implements ProcessingLoggerFactory {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ProcessingLoggerFactoryImpl.class);
+
   private final ProcessingLogConfig config;
   private final StructuredLoggerFactory innerFactory;
   private final BiFunction<ProcessingLogConfig, StructuredLogger, ProcessingLogger> loggerFactory;
+  private final boolean sampling;
+  private final Map<String, SamplingProcessingLogger> samplingLoggers = new ConcurrentHashMap<>();
 
   ProcessingLoggerFactoryImpl(
       final ProcessingLogConfig config,
@@ -39,15 +52,65 @@ public class ProcessingLoggerFactoryImpl implements ProcessingLoggerFactory {
     this.config = config;
     this.innerFactory = innerFactory;
     this.loggerFactory = loggerFactory;
+    this.sampling = config.getBoolean(ProcessingLogConfig.SAMPLING_ENABLED);
+
+    if (sampling) {
+      scheduleSummaryFlush(config.getLong(ProcessingLogConfig.SAMPLING_INTERVAL_MS));
+    }
   }
 
   @Override
   public ProcessingLogger getLogger(final String name) {
-    return loggerFactory.apply(config, innerFactory.getLogger(name));
+    if (!sampling) {
+      return loggerFactory.apply(config, innerFactory.getLogger(name));
+    }
+
+    // Loggers are shared by name so that each has a single rate limit and error count:
+    return samplingLoggers.computeIfAbsent(name, n -> new SamplingProcessingLogger(
+        config,
+        loggerFactory.apply(config, innerFactory.getLogger(n))
+    ));
   }
 
   @Override
   public Collection<String> getLoggers() {
     return innerFactory.getLoggers();
   }
+
+  @Override
+  public long getErrorCount(final String prefix) {
+    return samplingLoggers.entrySet().stream()
+        .filter(e -> e.getKey().startsWith(prefix))
+        .mapToLong(e -> e.getValue().getErrorCount())
+        .sum();
+  }
+
+  @Override
+  public void closeLoggers(final String name) {
+    samplingLoggers.entrySet().removeIf(e -> {
+      if (!e.getKey().equals(name) && !e.getKey().startsWith(name + ".")) {
+        return false;
+      }
+      e.getValue().close();
+      return true;
+    });
+  }
+
+  private void scheduleSummaryFlush(final long intervalMs) {
+    // Writes the summaries of loggers that receive no more errors after their interval ends:
+    final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat("ksql-processing-log-summary-%d")
+            .build()
+    );
+
+    executor.scheduleAtFixedRate(() -> {
+      try {
+        samplingLoggers.values().forEach(SamplingProcessingLogger::flushIfDue);
+      } catch (final Exception e) {
+        LOG.warn("Failed to write processing log summaries", e);
+      }
+    }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+  }
 }
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.logging.processing;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.confluent.common.utils.SystemTime;
+import io.confluent.common.utils.Time;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.SchemaAndValue;
+import org.apache.kafka.connect.data.Struct;
+
+/**
+ * A processing logger that limits the rate at which full error records are written.
+ *
+ * <p>Each logger has a token bucket, refilled at {@link ProcessingLogConfig#SAMPLING_RATE}
+ * records per second. Errors that arrive when the bucket is empty are not written. Instead,
+ * they are counted by message type, and once per {@link ProcessingLogConfig#SAMPLING_INTERVAL_MS}
+ * a single summary record is written for each type, holding the number of suppressed errors and
+ * the first suppressed error as an exemplar. Summaries are written when the next error arrives
+ * after the interval ends, or by {@link #flushIfDue}, which the factory calls periodically, should
+ * no error arrive. Any outstanding summaries are written when the logger is closed.
+ *
+ * <p>As loggers are named after the query and the step within it, this aggregates errors by
+ * query, step and error type.
+ */
+final class SamplingProcessingLogger implements ProcessingLogger {
+
+  // All error types share the same name for their message field:
+  private static final String ERROR_MESSAGE_FIELD =
+      ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR_FIELD_MESSAGE;
+
+  private final ProcessingLogger inner;
+  private final Time time;
+  private final double ratePerMs;
+  private final double burst;
+  private final long intervalMs;
+  private final LongAdder errorCount = new LongAdder();
+  private final Map<Class<?>, Suppressed> suppressed = new LinkedHashMap<>();
+
+  private double tokens;
+  private long lastRefillMs;
+  private long intervalStartMs;
+
+  SamplingProcessingLogger(final ProcessingLogConfig config, final ProcessingLogger inner) {
+    this(
+        inner,
+        config.getInt(ProcessingLogConfig.SAMPLING_RATE),
+        config.getLong(ProcessingLogConfig.SAMPLING_INTERVAL_MS),
+        new SystemTime()
+    );
+  }
+
+  @VisibleForTesting
+  SamplingProcessingLogger(
+      final ProcessingLogger inner,
+      final int recordsPerSecond,
+      final long intervalMs,
+      final Time time
+  ) {
+    this.inner = requireNonNull(inner, "inner");
+    this.time = requireNonNull(time, "time");
+    this.ratePerMs = recordsPerSecond / 1000.0;
+    this.burst = recordsPerSecond;
+    this.intervalMs = intervalMs;
+    this.tokens = burst;
+    this.lastRefillMs = time.milliseconds();
+    this.intervalStartMs = lastRefillMs;
+  }
+
+  @Override
+  public void error(final ErrorMessage msg) {
+    errorCount.increment();
+
+    final List<ErrorMessage> toLog = new ArrayList<>(1);
+    synchronized (this) {
+      final long now = time.milliseconds();
+      if (now - intervalStartMs >= intervalMs) {
+        drainSummaries(now, toLog);
+      }
+
+      tokens = Math.min(burst, tokens + (now - lastRefillMs) * ratePerMs);
+      lastRefillMs = now;
+
+      if (tokens >= 1) {
+        tokens--;
+        toLog.add(msg);
+      } else {
+        suppressed.computeIfAbsent(msg.getClass(), k -> new Suppressed(msg)).count++;
+      }
+    }
+
+    toLog.forEach(inner::error);
+  }
+
+  /**
+   * Write the summaries of the errors suppressed in the current interval, if it has ended.
+   */
+  void flushIfDue() {
+    final List<ErrorMessage> toLog = new ArrayList<>();
+    synchronized (this) {
+      final long now = time.milliseconds();
+      if (now - intervalStartMs >= intervalMs) {
+        drainSummaries(now, toLog);
+      }
+    }
+
+    toLog.forEach(inner::error);
+  }
+
+  /**
+   * Write the summaries of any suppressed errors, as the query logging to this logger is closed.
+   */
+  void close() {
+    final List<ErrorMessage> toLog = new ArrayList<>();
+    synchronized (this) {
+      drainSummaries(time.milliseconds(), toLog);
+    }
+
+    toLog.forEach(inner::error);
+  }
+
+  private void drainSummaries(final long now, final List<ErrorMessage> toLog) {
+    suppressed.values().forEach(s -> toLog.add(s.summary(intervalMs)));
+    suppressed.clear();
+    intervalStartMs = now;
+  }
+
+  /**
+   * @return the total number of errors passed to this logger, whether written or not.
+   */
+  long getErrorCount() {
+    return errorCount.sum();
+  }
+
+  private static final class Suppressed {
+
+    private final ErrorMessage exemplar;
+    private long count;
+
+    Suppressed(final ErrorMessage exemplar) {
+      this.exemplar = exemplar;
+    }
+
+    ErrorMessage summary(final long intervalMs) {
+      final long suppressedCount = count;
+      return config -> summarize(exemplar.get(config), suppressedCount, intervalMs);
+    }
+  }
+
+  /**
+   * Rewrites the exemplar's error message to record how many errors it stands for, so summaries
+   * use the same schema as every other processing log record.
+   */
+  private static SchemaAndValue summarize(
+      final SchemaAndValue exemplar,
+      final long count,
+      final long intervalMs
+  ) {
+    final Struct record = (Struct) exemplar.value();
+    for (final Field field : record.schema().fields()) {
+      if (field.name().equals(ProcessingLogMessageSchema.TYPE)) {
+        continue;
+      }
+
+      final Struct error = record.getStruct(field.name());
+      if (error == null || error.schema().field(ERROR_MESSAGE_FIELD) == null) {
+        continue;
+      }
+
+      error.put(ERROR_MESSAGE_FIELD, String.format(
+          "Suppressed %d similar errors in the last %d ms. Example: %s",
+          count,
+          intervalMs,
+          error.getString(ERROR_MESSAGE_FIELD)
+      ));
+    }
+    return exemplar;
+  }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.metrics;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.KafkaMetric;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.CumulativeSum;
+import org.apache.kafka.common.metrics.stats.Max;
+import org.apache.kafka.common.metrics.stats.Percentile;
+import org.apache.kafka.common.metrics.stats.Percentiles;
+import org.apache.kafka.common.metrics.stats.Percentiles.BucketSizing;
+import org.apache.kafka.common.metrics.stats.Rate;
+
+/**
+ * Metrics for a single step of a query, tagged with the query id and the step's query context.
+ *
+ * <p>Instances are created when a step first processes a record, so topologies that are only
+ * built, e.g. to validate a statement, register no metrics. They are removed once the query's
+ * Kafka Streams application is closed.
+ */
+public final class StepMetrics {
+
+  public static final String GROUP = "ksql-query-steps";
+  public static final String QUERY_ID_TAG = "query-id";
+  public static final String STEP_TAG = "step";
+
+  private static final int PERCENTILES_SIZE_BYTES = 1000;
+  private static final double TIME_MAX_US = 10_000;
+
+  private static final Map<String, Map<String, StepMetrics>> QUERIES = new ConcurrentHashMap<>();
+  private static final Map<String, String> APPLICATIONS = new ConcurrentHashMap<>();
+
+  private final Metrics metrics;
+  private final String sensorPrefix;
+  private final Map<String, String> tags;
+  private final CopyOnWriteArrayList<Sensor> sensors = new CopyOnWriteArrayList<>();
+  private volatile Sensor records;
+  private volatile Sensor processingTime;
+  private volatile SerdeSensors serialized;
+  private volatile SerdeSensors deserialized;
+
+  /**
+   * Get the metrics of a step, creating them if needed.
+   *
+   * @param queryId the id of the query.
+   * @param step the formatted query context of the step.
+   * @return the step's metrics.
+   */
+  public static StepMetrics of(final String queryId, final String step) {
+    return QUERIES
+        .computeIfAbsent(queryId, k -> new ConcurrentHashMap<>())
+        .computeIfAbsent(step, k -> new StepMetrics(MetricCollectors.getMetrics(), queryId, k));
+  }
+
+  /**
+   * Associate a query with its Kafka Streams application, so its metrics can be removed on close.
+   */
+  public static void registerApplication(final String applicationId, final String queryId) {
+    APPLICATIONS.putIfAbsent(applicationId, queryId);
+  }
+
+  /**
+   * Remove the metrics of the query run by the supplied Kafka Streams application.
+   */
+  public static void notifyApplicationClose(final String applicationId) {
+    final String queryId = APPLICATIONS.remove(applicationId);
+    if (queryId == null) {
+      return;
+    }
+
+    final Map<String, StepMetrics> steps = QUERIES.remove(queryId);
+    if (steps != null) {
+      steps.values().forEach(StepMetrics::close);
+    }
+  }
+
+  /**
+   * Get the current value of each metric of a query's steps.
+   *
+   * @param queryId the id of the query.
+   * @return map of step to metric name to value. Metrics with no value yet are omitted.
+   */
+  public static Map<String, Map<String, Double>> snapshot(final String queryId) {
+    final Map<String, Map<String, Double>> result = new HashMap<>();
+    for (final Map.Entry<MetricName, KafkaMetric> e
+        : MetricCollectors.getMetrics().metrics().entrySet()) {
+      final MetricName name = e.getKey();
+      if (!name.group().equals(GROUP) || !queryId.equals(name.tags().get(QUERY_ID_TAG))) {
+        continue;
+      }
+
+      final Object value = e.getValue().metricValue();
+      if (!(value instanceof Double) || !Double.isFinite((Double) value)) {
+        continue;
+      }
+
+      result
+          .computeIfAbsent(name.tags().get(STEP_TAG), k -> new HashMap<>())
+          .put(name.name(), (Double) value);
+    }
+    return result;
+  }
+
+  private StepMetrics(final Metrics metrics, final String queryId, final String step) {
+    this.metrics = requireNonNull(metrics, "metrics");
+    this.sensorPrefix = GROUP + "-" + queryId + "-" + step + "-";
+    this.tags = ImmutableMap.of(QUERY_ID_TAG, queryId, STEP_TAG, step);
+  }
+
+  /**
+   * Record that the step has processed a number of records.
+   */
+  public void recordProcessed(final long count) {
+    Sensor sensor = records;
+    if (sensor == null) {
+      synchronized (this) {
+        if (records == null) {
+          records = sensor("records");
+          records.add(metricName("records-per-sec", "The rate the step processes records."),
+              new Rate());
+        }
+        sensor = records;
+      }
+    }
+    sensor.record(count);
+  }
+
+  /**
+   * Record the time taken by the step to process a record.
+   */
+  public void recordProcessingTime(final long nanos) {
+    Sensor sensor = processingTime;
+    if (sensor == null) {
+      synchronized (this) {
+        if (processingTime == null) {
+          processingTime = timeSensor("processing-time", "process a record");
+        }
+        sensor = processingTime;
+      }
+    }
+    sensor.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+  }
+
+  /**
+   * Record the bytes serialized by the step since the last call, and the time taken to serialize
+   * a record.
+   */
+  public void recordSerialized(final long bytes, final long nanos) {
+    SerdeSensors sensors = serialized;
+    if (sensors == null) {
+      synchronized (this) {
+        if (serialized == null) {
+          serialized = serdeSensors("serialize");
+        }
+        sensors = serialized;
+      }
+    }
+    sensors.record(bytes, nanos);
+  }
+
+  /**
+   * Record the bytes deserialized by the step since the last call, and the time taken to
+   * deserialize a record.
+   */
+  public void recordDeserialized(final long bytes, final long nanos) {
+    SerdeSensors sensors = deserialized;
+    if (sensors == null) {
+      synchronized (this) {
+        if (deserialized == null) {
+          deserialized = serdeSensors("deserialize");
+        }
+        sensors = deserialized;
+      }
+    }
+    sensors.record(bytes, nanos);
+  }
+
+  private SerdeSensors serdeSensors(final String verb) {
+    final Sensor bytes = sensor(verb + "d-bytes");
+    bytes.add(metricName(verb + "d-bytes-per-sec",
+        "The rate the step " + verb + "s bytes."), new Rate());
+    bytes.add(metricName(verb + "d-bytes-total",
+        "The total bytes the step has " + verb + "d."), new CumulativeSum());
+    return new SerdeSensors(bytes, timeSensor(verb + "-time", verb + " a record"));
+  }
+
+  private Sensor timeSensor(final String name, final String description) {
+    final Sensor sensor = sensor(name);
+    sensor.add(metricName(name + "-max-us",
+        "The max time, in microseconds, taken by the step to " + description + "."), new Max());
+    sensor.add(new Percentiles(
+        PERCENTILES_SIZE_BYTES,
+        0,
+        TIME_MAX_US,
+        BucketSizing.CONSTANT,
+        percentile(name, description, 50.0),
+        percentile(name, description, 99.0)
+    ));
+    return sensor;
+  }
+
+  private Percentile percentile(
+      final String name,
+      final String description,
+      final double percentile
+  ) {
+    return new Percentile(
+        metricName(
+            name + "-p" + (int) percentile + "-us",
+            "The " + (int) percentile + "th percentile time, in microseconds, taken by the step "
+                + "to " + description + "."
+        ),
+        percentile
+    );
+  }
+
+  private Sensor sensor(final String name) {
+    final Sensor sensor = metrics.sensor(sensorPrefix + name);
+    sensors.add(sensor);
+    return sensor;
+  }
+
+  private MetricName metricName(final String name, final String description) {
+    return metrics.metricName(name, GROUP, description, tags);
+  }
+
+  private void close() {
+    sensors.forEach(sensor -> metrics.removeSensor(sensor.name()));
+  }
+
+  private static final class SerdeSensors {
+
+    private final Sensor bytes;
+    private final Sensor time;
+
+    SerdeSensors(final Sensor bytes, final Sensor time) {
+      this.bytes = requireNonNull(bytes, "bytes");
+      this.time = requireNonNull(time, "time");
+    }
+
+    void record(final long bytes, final long nanos) {
+      this.bytes.record(bytes);
+      time.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.metrics;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Wraps a serde to record the bytes it handles, and a sample of the time it takes, in the
+ * {@link StepMetrics} of the step that uses it.
+ */
+public final class StepMetricsSerde {
+
+  private StepMetricsSerde() {
+  }
+
+  public static <T> Serde<T> wrap(
+      final Serde<T> inner,
+      final String queryId,
+      final String step,
+      final int sampleInterval
+  ) {
+    return Serdes.serdeFrom(
+        new MeteredSerializer<>(
+            inner.serializer(),
+            new Recorder(queryId, step, sampleInterval, StepMetrics::recordSerialized)
+        ),
+        new MeteredDeserializer<>(
+            inner.deserializer(),
+            new Recorder(queryId, step, sampleInterval, StepMetrics::recordDeserialized)
+        )
+    );
+  }
+
+  private interface Target {
+    void record(StepMetrics metrics, long bytes, long nanos);
+  }
+
+  /**
+   * Bytes are counted for every record, but only every {@code sampleInterval}th record is timed,
+   * at which point the bytes counted so far are recorded too. The serializer and deserializer
+   * each have their own recorder, so their samples and metrics are kept apart.
+   */
+  private static final class Recorder {
+
+    private final String queryId;
+    private final String step;
+    private final int sampleInterval;
+    private final Target target;
+    private final AtomicLong calls = new AtomicLong();
+    private final LongAdder bytes = new LongAdder();
+    private volatile StepMetrics metrics;
+
+    Recorder(
+        final String queryId,
+        final String step,
+        final int sampleInterval,
+        final Target target
+    ) {
+      this.queryId = requireNonNull(queryId, "queryId");
+      this.step = requireNonNull(step, "step");
+      this.sampleInterval = sampleInterval;
+      this.target = requireNonNull(target, "target");
+    }
+
+    boolean sample() {
+      return calls.incrementAndGet() % sampleInterval == 0;
+    }
+
+    void addBytes(final byte[] data) {
+      if (data != null) {
+        bytes.add(data.length);
+      }
+    }
+
+    void record(final long nanos) {
+      if (metrics == null) {
+        metrics = StepMetrics.of(queryId, step);
+      }
+      target.record(metrics, bytes.sumThenReset(), nanos);
+    }
+  }
+
+  private static final class MeteredSerializer<T> implements Serializer<T> {
+
+    private final Serializer<T> inner;
+    private final Recorder recorder;
+
+    MeteredSerializer(final Serializer<T> inner, final Recorder recorder) {
+      this.inner = requireNonNull(inner, "inner");
+      this.recorder = requireNonNull(recorder, "recorder");
+    }
+
+    @Override
+    public void configure(final Map<String, ?> configs, final boolean isKey) {
+      inner.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(final String topic, final T data) {
+      if (!recorder.sample()) {
+        final byte[] bytes = inner.serialize(topic, data);
+        recorder.addBytes(bytes);
+        return bytes;
+      }
+
+      final long start = System.nanoTime();
+      final byte[] bytes = inner.serialize(topic, data);
+      final long nanos = System.nanoTime() - start;
+      recorder.addBytes(bytes);
+      recorder.record(nanos);
+      return bytes;
+    }
+
+    @Override
+    public void close() {
+      inner.close();
+    }
+  }
+
+  private static final class MeteredDeserializer<T> implements Deserializer<T> {
+
+    private final Deserializer<T> inner;
+    private final Recorder recorder;
+
+    MeteredDeserializer(final Deserializer<T> inner, final Recorder recorder) {
+      this.inner = requireNonNull(inner, "inner");
+      this.recorder = requireNonNull(recorder, "recorder");
+    }
+
+    @Override
+    public void configure(final Map<String, ?> configs, final boolean isKey) {
+      inner.configure(configs, isKey);
+    }
+
+    @Override
+    public T deserialize(final String topic, final byte[] data) {
+      recorder.addBytes(data);
+      if (!recorder.sample()) {
+        return inner.deserialize(topic, data);
+      }
+
+      final long start = System.nanoTime();
+      final T result = inner.deserialize(topic, data);
+      recorder.record(System.nanoTime() - start);
+      return result;
+    }
+
+    @Override
+    public void close() {
+      inner.close();
+    }
+  }
+}
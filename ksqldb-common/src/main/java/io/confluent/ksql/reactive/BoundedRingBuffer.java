@@ -0,0 +1,154 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.reactive;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A bounded, lock-free queue backed by a ring buffer.
+ *
+ * <p>Any number of threads may offer and poll concurrently. Neither operation ever blocks: offer
+ * fails if the buffer is full and poll returns null if it is empty. Each slot carries a sequence
+ * number which tells producers and consumers whether the slot is ready for them, so the only
+ * contended operation is a compare-and-set on the head or tail counter.
+ *
+ * <p>The capacity is rounded up to the next power of two.
+ */
+public final class BoundedRingBuffer<T> {
+
+  private static final int MAX_CAPACITY = 1 << 30;
+
+  private final int mask;
+  private final AtomicLongArray sequences;
+  private final AtomicReferenceArray<T> elements;
+  private final AtomicLong head = new AtomicLong();
+  private final AtomicLong tail = new AtomicLong();
+
+  public BoundedRingBuffer(final int capacity) {
+    if (capacity <= 0 || capacity > MAX_CAPACITY) {
+      throw new IllegalArgumentException("capacity must be between 1 and " + MAX_CAPACITY);
+    }
+
+    final int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    this.mask = size - 1;
+    this.sequences = new AtomicLongArray(size);
+    this.elements = new AtomicReferenceArray<>(size);
+
+    for (int i = 0; i != size; ++i) {
+      sequences.set(i, i);
+    }
+  }
+
+  /**
+   * @return the maximum number of elements the buffer can hold.
+   */
+  public int capacity() {
+    return mask + 1;
+  }
+
+  /**
+   * Add an element to the tail of the buffer.
+   *
+   * @param element the element to add, which must not be null.
+   * @return {@code true} if the element was added, {@code false} if the buffer is full.
+   */
+  public boolean offer(final T element) {
+    Objects.requireNonNull(element, "element");
+
+    long pos = tail.get();
+    while (true) {
+      final int idx = (int) (pos & mask);
+      final long diff = sequences.get(idx) - pos;
+
+      if (diff == 0) {
+        if (tail.compareAndSet(pos, pos + 1)) {
+          elements.lazySet(idx, element);
+          sequences.set(idx, pos + 1);
+          return true;
+        }
+        pos = tail.get();
+      } else if (diff < 0) {
+        return false;
+      } else {
+        pos = tail.get();
+      }
+    }
+  }
+
+  /**
+   * Remove the element at the head of the buffer.
+   *
+   * @return the element, or {@code null} if the buffer is empty.
+   */
+  public T poll() {
+    long pos = head.get();
+    while (true) {
+      final int idx = (int) (pos & mask);
+      final long diff = sequences.get(idx) - (pos + 1);
+
+      if (diff == 0) {
+        if (head.compareAndSet(pos, pos + 1)) {
+          final T element = elements.get(idx);
+          elements.lazySet(idx, null);
+          sequences.set(idx, pos + mask + 1);
+          return element;
+        }
+        pos = head.get();
+      } else if (diff < 0) {
+        return null;
+      } else {
+        pos = head.get();
+      }
+    }
+  }
+
+  /**
+   * Remove up to {@code max} elements from the head of the buffer, passing each to the supplied
+   * {@code consumer} in order.
+   *
+   * @return the number of elements removed.
+   */
+  public int drain(final Consumer<? super T> consumer, final int max) {
+    int num = 0;
+    while (num < max) {
+      final T element = poll();
+      if (element == null) {
+        break;
+      }
+      consumer.accept(element);
+      num++;
+    }
+    return num;
+  }
+
+  /**
+   * @return the number of elements in the buffer. Only an estimate if other threads are
+   *         concurrently adding or removing elements.
+   */
+  public int size() {
+    final long consumed = head.get();
+    final long produced = tail.get();
+    return (int) Math.max(0, Math.min(capacity(), produced - consumed));
+  }
+
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+}
@@ -157,6 +157,29 @@ public final class LogicalSchema {
     return rebuild(false, false);
   }
 
+  /**
+   * Removes any value columns not in the supplied {@code columnNames}.
+   *
+   * <p>Metadata and key columns are retained. The remaining value columns keep their order.
+   *
+   * @param columnNames the names of the value columns to retain.
+   * @return the new schema.
+   */
+  public LogicalSchema withOnlyValueColumns(final Set<ColumnName> columnNames) {
+    final ImmutableList.Builder<Column> builder = ImmutableList.builder();
+
+    int valueIndex = 0;
+    for (final Column c : columns) {
+      if (c.namespace() != Namespace.VALUE) {
+        builder.add(c);
+      } else if (columnNames.contains(c.name())) {
+        builder.add(Column.of(c.name(), c.type(), Namespace.VALUE, valueIndex++));
+      }
+    }
+
+    return new LogicalSchema(builder.build());
+  }
+
   /**
    * @param columnName the column name to check
    * @return {@code true} if the column matches the name of any metadata column.
@@ -26,7 +26,15 @@ public enum SerdeOption {
    * <p>If not set, any single field value schema will be persisted within an outer object, e.g.
    * JSON Object or Avro Record.
    */
-  UNWRAP_SINGLE_VALUES;
+  UNWRAP_SINGLE_VALUES,
+
+  /**
+   * Persist the value in a compact binary layout, rather than the value format.
+   *
+   * <p>Only set on the internal state stores of aggregations, whose values are never read from
+   * outside the query.
+   */
+  COMPACT_STATE;
 
   public static Set<SerdeOption> none() {
     return ImmutableSet.of();
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A {@code List<Integer>} backed by an {@code int[]}.
+ *
+ * <p>Used to hold {@code ARRAY<INT>} values, such as aggregate state, without boxing each
+ * element. Code that knows about this class can get at the backing array with
+ * {@link #toIntArray} and update it in place, and serializers can write the elements without
+ * boxing them.
+ *
+ * <p>The list supports all optional operations, including null elements, which are tracked
+ * separately from the backing array so that lists without nulls need no extra storage.
+ */
+public final class IntArrayList extends AbstractList<Integer> implements RandomAccess {
+
+  private int[] values;
+  private boolean[] nulls;
+  private int size;
+
+  public IntArrayList(final int initialCapacity) {
+    this(new int[initialCapacity], 0);
+  }
+
+  private IntArrayList(final int[] values, final int size) {
+    this.values = values;
+    this.size = size;
+  }
+
+  /**
+   * @param array the array to wrap, which is not copied.
+   * @return a list backed by the array, or {@code null} if {@code array} is null.
+   */
+  public static IntArrayList wrap(final int[] array) {
+    return array == null ? null : new IntArrayList(array, array.length);
+  }
+
+  /**
+   * Get the elements of a list as an {@code int[]}.
+   *
+   * <p>If the list is an {@code IntArrayList} with no nulls, whose backing array has no spare
+   * capacity, the backing array is returned, so changes to the array are visible in the list.
+   * Otherwise the elements are copied into a new array.
+   *
+   * @param list the list, which must not contain nulls.
+   * @return the array, or {@code null} if {@code list} is null.
+   */
+  public static int[] toIntArray(final List<Integer> list) {
+    if (list == null) {
+      return null;
+    }
+
+    if (list instanceof IntArrayList) {
+      final IntArrayList ints = (IntArrayList) list;
+      if (ints.nulls == null && ints.values.length == ints.size) {
+        return ints.values;
+      }
+    }
+
+    final int[] array = new int[list.size()];
+    int i = 0;
+    for (final Integer element : list) {
+      array[i++] = element;
+    }
+    return array;
+  }
+
+  /**
+   * @return the element at the index, without boxing it, or 0 if the element is null.
+   */
+  public int getInt(final int index) {
+    checkIndex(index);
+    return values[index];
+  }
+
+  public boolean isNull(final int index) {
+    checkIndex(index);
+    return nulls != null && nulls[index];
+  }
+
+  /**
+   * @return {@code true} if any element of the list is null.
+   */
+  public boolean hasNulls() {
+    if (nulls == null) {
+      return false;
+    }
+
+    for (int i = 0; i < size; i++) {
+      if (nulls[i]) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public Integer get(final int index) {
+    return isNull(index) ? null : values[index];
+  }
+
+  @Override
+  public Integer set(final int index, final Integer element) {
+    final Integer old = get(index);
+    store(index, element);
+    return old;
+  }
+
+  @Override
+  public void add(final int index, final Integer element) {
+    if (index < 0 || index > size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+
+    if (size == values.length) {
+      final int capacity = Math.max(8, size + (size >> 1));
+      values = Arrays.copyOf(values, capacity);
+      if (nulls != null) {
+        nulls = Arrays.copyOf(nulls, capacity);
+      }
+    }
+
+    System.arraycopy(values, index, values, index + 1, size - index);
+    if (nulls != null) {
+      System.arraycopy(nulls, index, nulls, index + 1, size - index);
+    }
+
+    size++;
+    modCount++;
+    store(index, element);
+  }
+
+  @Override
+  public Integer remove(final int index) {
+    final Integer old = get(index);
+
+    System.arraycopy(values, index + 1, values, index, size - index - 1);
+    if (nulls != null) {
+      System.arraycopy(nulls, index + 1, nulls, index, size - index - 1);
+      nulls[size - 1] = false;
+    }
+
+    size--;
+    modCount++;
+    return old;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  private void store(final int index, final Integer element) {
+    if (element != null) {
+      values[index] = element;
+      if (nulls != null) {
+        nulls[index] = false;
+      }
+      return;
+    }
+
+    if (nulls == null) {
+      nulls = new boolean[values.length];
+    }
+    values[index] = 0;
+    nulls[index] = true;
+  }
+
+  private void checkIndex(final int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+  }
+}
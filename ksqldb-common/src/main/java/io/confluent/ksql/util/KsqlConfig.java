@@ -15,6 +15,7 @@
 
 package io.confluent.ksql.util;
 
+import static io.confluent.ksql.configdef.ConfigValidators.oneOrMore;
 import static io.confluent.ksql.configdef.ConfigValidators.zeroOrPositive;
 
 import com.google.common.base.Splitter;
@@ -208,8 +209,55 @@ public class KsqlConfig extends AbstractConfig {
   public static final String KSQL_QUERY_PULL_MAX_QPS_DOC = "The maximum qps allowed for pull "
       + "queries. Once the limit is hit, queries will fail immediately";
 
+  public static final String KSQL_QUERY_PULL_PLAN_CACHE_SIZE_CONFIG =
+      "ksql.query.pull.plan.cache.size";
+  public static final Integer KSQL_QUERY_PULL_PLAN_CACHE_SIZE_DEFAULT = 1000;
+  public static final String KSQL_QUERY_PULL_PLAN_CACHE_SIZE_DOC = "The maximum number of "
+      + "pull query plans to cache. Pull queries that differ only in the key or window bounds "
+      + "they look up share a cached plan, avoiding re-analysis and code generation. "
+      + "Setting to 0 disables the cache.";
+
+  public static final String KSQL_QUERY_PULL_FANOUT_THREADS_CONFIG =
+      "ksql.query.pull.fanout.threads";
+  public static final Integer KSQL_QUERY_PULL_FANOUT_THREADS_DEFAULT = 16;
+  public static final String KSQL_QUERY_PULL_FANOUT_THREADS_DOC = "The number of threads used "
+      + "to forward the sub-requests of multi-key pull queries, e.g. those with a "
+      + "`WHERE ROWKEY IN (...)` clause. Keys are grouped by the node that serves them, and each "
+      + "remote node is sent a single sub-request, in parallel with the others.";
+
+  public static final String KSQL_QUERY_PULL_MAX_SCAN_ROWS_CONFIG =
+      "ksql.query.pull.max.scan.rows";
+  public static final Long KSQL_QUERY_PULL_MAX_SCAN_ROWS_DEFAULT = 100_000L;
+  public static final String KSQL_QUERY_PULL_MAX_SCAN_ROWS_DOC = "The maximum number of rows "
+      + "a pull query that scans a table, e.g. one with a range of keys in its WHERE clause or "
+      + "no WHERE clause, may read from each server's state store. Queries that would read more "
+      + "rows fail, and should narrow their key range or add a LIMIT clause. The rows of all "
+      + "servers are collected before the result is returned, so the server handling a scan may "
+      + "hold up to this many rows per server in memory.";
+
+  public static final String KSQL_AGGREGATE_HOPPING_PANES_ENABLED =
+      "ksql.aggregate.hopping.panes.enabled";
+  public static final Boolean KSQL_AGGREGATE_HOPPING_PANES_ENABLED_DEFAULT = false;
+  public static final String KSQL_AGGREGATE_HOPPING_PANES_ENABLED_DOC = "If enabled, new "
+      + "hopping window aggregations aggregate each record into a single non-overlapping pane, "
+      + "rather than into every window that contains it. Panes are the size of the greatest "
+      + "common divisor of the window size and advance. The result of each window is merged "
+      + "from its panes when it is emitted or read by a pull query. Existing queries keep the "
+      + "strategy they were started with.";
+
   public static final Collection<CompatibilityBreakingConfigDef> COMPATIBLY_BREAKING_CONFIG_DEFS
-      = ImmutableList.of();
+      = ImmutableList.of(
+          // Changes the contents of the state store of hopping window aggregations:
+          new CompatibilityBreakingConfigDef(
+              KSQL_AGGREGATE_HOPPING_PANES_ENABLED,
+              Type.BOOLEAN,
+              false,
+              KSQL_AGGREGATE_HOPPING_PANES_ENABLED_DEFAULT,
+              Importance.LOW,
+              Optional.empty(),
+              KSQL_AGGREGATE_HOPPING_PANES_ENABLED_DOC
+          )
+      );
 
   public static final String KSQL_SHUTDOWN_TIMEOUT_MS_CONFIG =
       "ksql.streams.shutdown.timeout.ms";
@@ -269,6 +317,84 @@ public class KsqlConfig extends AbstractConfig {
 
   public static final String KSQL_ANY_KEY_NAME_ENABLED = "ksql.any.key.name.enabled";
 
+  public static final String KSQL_CODEGEN_FUSED_ENABLED = "ksql.codegen.fused.enabled";
+  public static final Boolean KSQL_CODEGEN_FUSED_ENABLED_DEFAULT = false;
+  public static final String KSQL_CODEGEN_FUSED_ENABLED_DOC = "If enabled, the expressions of "
+      + "a projection, or a filter, are compiled into a single generated class that reads its "
+      + "inputs directly from the row, rather than one reflectively invoked evaluator per "
+      + "expression. This does not change the physical plan of a query.";
+
+  public static final String KSQL_SERDE_NATIVE_ROW_ENABLED = "ksql.serde.native.row.enabled";
+  public static final Boolean KSQL_SERDE_NATIVE_ROW_ENABLED_DEFAULT = false;
+  public static final String KSQL_SERDE_NATIVE_ROW_ENABLED_DOC = "If enabled, value formats that "
+      + "support it, currently JSON, AVRO, DELIMITED and KAFKA, read and write rows directly "
+      + "rather than via an intermediate Connect Struct. The serialized form of the data is "
+      + "unchanged.";
+
+  public static final String KSQL_QUERY_PUSH_SCALABLE_ENABLED =
+      "ksql.query.push.scalable.enabled";
+  public static final Boolean KSQL_QUERY_PUSH_SCALABLE_ENABLED_DEFAULT = false;
+  public static final String KSQL_QUERY_PUSH_SCALABLE_ENABLED_DOC = "If enabled, persistent "
+      + "queries writing non-windowed streams publish their output rows in-process, and push "
+      + "queries that only filter and project such a stream, and that request "
+      + "auto.offset.reset=latest, subscribe to those rows rather than starting their own "
+      + "Kafka Streams application. Rows are dropped for a subscriber whose buffer is full. "
+      + "Push queries only subscribe if this server runs every task of the persistent queries "
+      + "writing the stream, and end if a task moves to another server. Delivery is "
+      + "at-least-once, even with exactly-once processing, as rows are published before they "
+      + "are written to the sink topic and outside of any transaction.";
+
+  public static final String KSQL_QUERY_PUSH_OVERFLOW_POLICY = "ksql.query.push.overflow.policy";
+  public static final String KSQL_QUERY_PUSH_OVERFLOW_PAUSE = "pause";
+  public static final String KSQL_QUERY_PUSH_OVERFLOW_DROP_OLDEST = "drop_oldest";
+  public static final String KSQL_QUERY_PUSH_OVERFLOW_ERROR = "error";
+  public static final String KSQL_QUERY_PUSH_OVERFLOW_POLICY_DOC = "What a push query served "
+      + "over the /query-stream endpoint does when the rows it has produced fill the buffer of "
+      + "rows waiting to be written to the client. '" + KSQL_QUERY_PUSH_OVERFLOW_PAUSE + "' "
+      + "blocks the query until there is space, '" + KSQL_QUERY_PUSH_OVERFLOW_DROP_OLDEST + "' "
+      + "discards the oldest buffered row, and '" + KSQL_QUERY_PUSH_OVERFLOW_ERROR + "' fails "
+      + "the query.";
+
+  public static final String KSQL_QUERY_SOURCE_PRUNING_ENABLED =
+      "ksql.query.source.pruning.enabled";
+  public static final Boolean KSQL_QUERY_SOURCE_PRUNING_ENABLED_DEFAULT = false;
+  public static final String KSQL_QUERY_SOURCE_PRUNING_ENABLED_DOC = "If enabled, new persistent "
+      + "and push queries only deserialize the value columns of their sources that the query "
+      + "uses, for value formats that match fields by name: JSON, JSON_SR, AVRO and PROTOBUF. "
+      + "Unused columns are then neither held in rows nor written to state stores.";
+
+  public static final String KSQL_QUERY_STATELESS_FUSION_ENABLED =
+      "ksql.query.stateless.fusion.enabled";
+  public static final Boolean KSQL_QUERY_STATELESS_FUSION_ENABLED_DEFAULT = false;
+  public static final String KSQL_QUERY_STATELESS_FUSION_ENABLED_DOC = "If enabled, a "
+      + "projection that directly follows a stream filter, stream-stream join or stream-table "
+      + "join is executed as part of that step, so rows are projected without being forwarded "
+      + "to another processor. Applies to queries started after the setting is changed.";
+
+  public static final String KSQL_AGGREGATE_COMPACT_STATE_ENABLED =
+      "ksql.aggregate.compact.state.enabled";
+  public static final Boolean KSQL_AGGREGATE_COMPACT_STATE_ENABLED_DEFAULT = false;
+  public static final String KSQL_AGGREGATE_COMPACT_STATE_ENABLED_DOC = "If enabled, new "
+      + "aggregations whose state is made up only of BOOLEAN, INT, BIGINT, DOUBLE, STRING, "
+      + "ARRAY<INT> and STRUCT values store that state in a compact binary layout, rather than "
+      + "the value format. This covers COUNT, SUM, MIN, MAX and AVG of these types, and "
+      + "COUNT_DISTINCT, whose registers are then updated in place. Existing queries keep the "
+      + "layout they were created with.";
+
+  public static final String KSQL_QUERY_STEP_METRICS_ENABLED =
+      "ksql.query.step.metrics.enabled";
+  public static final Boolean KSQL_QUERY_STEP_METRICS_ENABLED_DEFAULT = false;
+  public static final String KSQL_QUERY_STEP_METRICS_ENABLED_DOC = "If enabled, new queries "
+      + "record the rate at which each step processes records, the time each step takes per "
+      + "record, and the bytes each step serializes and deserializes. The metrics are exposed "
+      + "via JMX, in the ksql-query-steps group, and via the /queryMetrics/<query id> endpoint.";
+
+  public static final String KSQL_QUERY_STEP_METRICS_SAMPLE_INTERVAL =
+      "ksql.query.step.metrics.sample.interval";
+  public static final int KSQL_QUERY_STEP_METRICS_SAMPLE_INTERVAL_DEFAULT = 100;
+  public static final String KSQL_QUERY_STEP_METRICS_SAMPLE_INTERVAL_DOC = "If step metrics are "
+      + "enabled, only one in this many records is timed, bounding the overhead of the metrics.";
+
   private enum ConfigGeneration {
     LEGACY,
     CURRENT
@@ -630,6 +756,75 @@ public class KsqlConfig extends AbstractConfig {
             Importance.LOW,
             "Feature flag for removing restriction on key names - WIP, do not enable."
         )
+        .define(
+            KSQL_CODEGEN_FUSED_ENABLED,
+            Type.BOOLEAN,
+            KSQL_CODEGEN_FUSED_ENABLED_DEFAULT,
+            Importance.LOW,
+            KSQL_CODEGEN_FUSED_ENABLED_DOC
+        )
+        .define(
+            KSQL_SERDE_NATIVE_ROW_ENABLED,
+            Type.BOOLEAN,
+            KSQL_SERDE_NATIVE_ROW_ENABLED_DEFAULT,
+            Importance.LOW,
+            KSQL_SERDE_NATIVE_ROW_ENABLED_DOC
+        )
+        .define(
+            KSQL_QUERY_PUSH_SCALABLE_ENABLED,
+            Type.BOOLEAN,
+            KSQL_QUERY_PUSH_SCALABLE_ENABLED_DEFAULT,
+            Importance.LOW,
+            KSQL_QUERY_PUSH_SCALABLE_ENABLED_DOC
+        )
+        .define(
+            KSQL_QUERY_PUSH_OVERFLOW_POLICY,
+            Type.STRING,
+            KSQL_QUERY_PUSH_OVERFLOW_PAUSE,
+            ValidString.in(
+                KSQL_QUERY_PUSH_OVERFLOW_PAUSE,
+                KSQL_QUERY_PUSH_OVERFLOW_DROP_OLDEST,
+                KSQL_QUERY_PUSH_OVERFLOW_ERROR
+            ),
+            Importance.LOW,
+            KSQL_QUERY_PUSH_OVERFLOW_POLICY_DOC
+        )
+        .define(
+            KSQL_QUERY_SOURCE_PRUNING_ENABLED,
+            Type.BOOLEAN,
+            KSQL_QUERY_SOURCE_PRUNING_ENABLED_DEFAULT,
+            Importance.LOW,
+            KSQL_QUERY_SOURCE_PRUNING_ENABLED_DOC
+        )
+        .define(
+            KSQL_QUERY_STATELESS_FUSION_ENABLED,
+            Type.BOOLEAN,
+            KSQL_QUERY_STATELESS_FUSION_ENABLED_DEFAULT,
+            Importance.LOW,
+            KSQL_QUERY_STATELESS_FUSION_ENABLED_DOC
+        )
+        .define(
+            KSQL_AGGREGATE_COMPACT_STATE_ENABLED,
+            Type.BOOLEAN,
+            KSQL_AGGREGATE_COMPACT_STATE_ENABLED_DEFAULT,
+            Importance.LOW,
+            KSQL_AGGREGATE_COMPACT_STATE_ENABLED_DOC
+        )
+        .define(
+            KSQL_QUERY_STEP_METRICS_ENABLED,
+            Type.BOOLEAN,
+            KSQL_QUERY_STEP_METRICS_ENABLED_DEFAULT,
+            Importance.LOW,
+            KSQL_QUERY_STEP_METRICS_ENABLED_DOC
+        )
+        .define(
+            KSQL_QUERY_STEP_METRICS_SAMPLE_INTERVAL,
+            Type.INT,
+            KSQL_QUERY_STEP_METRICS_SAMPLE_INTERVAL_DEFAULT,
+            oneOrMore(),
+            Importance.LOW,
+            KSQL_QUERY_STEP_METRICS_SAMPLE_INTERVAL_DOC
+        )
         .define(
             KSQL_QUERY_PULL_METRICS_ENABLED,
             Type.BOOLEAN,
@@ -644,6 +839,30 @@ public class KsqlConfig extends AbstractConfig {
             Importance.LOW,
             KSQL_QUERY_PULL_MAX_QPS_DOC
         )
+        .define(
+            KSQL_QUERY_PULL_PLAN_CACHE_SIZE_CONFIG,
+            Type.INT,
+            KSQL_QUERY_PULL_PLAN_CACHE_SIZE_DEFAULT,
+            zeroOrPositive(),
+            Importance.LOW,
+            KSQL_QUERY_PULL_PLAN_CACHE_SIZE_DOC
+        )
+        .define(
+            KSQL_QUERY_PULL_FANOUT_THREADS_CONFIG,
+            Type.INT,
+            KSQL_QUERY_PULL_FANOUT_THREADS_DEFAULT,
+            oneOrMore(),
+            Importance.LOW,
+            KSQL_QUERY_PULL_FANOUT_THREADS_DOC
+        )
+        .define(
+            KSQL_QUERY_PULL_MAX_SCAN_ROWS_CONFIG,
+            Type.LONG,
+            KSQL_QUERY_PULL_MAX_SCAN_ROWS_DEFAULT,
+            oneOrMore(),
+            Importance.LOW,
+            KSQL_QUERY_PULL_MAX_SCAN_ROWS_DOC
+        )
         .withClientSslSupport();
 
     for (final CompatibilityBreakingConfigDef compatibilityBreakingConfigDef
@@ -38,6 +38,13 @@ public class KsqlRequestConfig extends AbstractConfig {
   private static final String KSQL_REQUEST_INTERNAL_REQUEST_DOC =
       "Indicates whether a KsqlRequest came from another server ";
 
+  public static final String KSQL_REQUEST_STATEMENTS_BATCH =
+      "request.ksql.statements.batch";
+  public static final boolean KSQL_REQUEST_STATEMENTS_BATCH_DEFAULT = false;
+  private static final String KSQL_REQUEST_STATEMENTS_BATCH_DOC =
+      "Controls whether the statements of a request are validated together and written to the "
+          + "command topic in a single transaction, rather than one at a time";
+
   private static ConfigDef buildConfigDef() {
     final ConfigDef configDef = new ConfigDef()
         .define(
@@ -52,6 +59,12 @@ public class KsqlRequestConfig extends AbstractConfig {
             KSQL_REQUEST_INTERNAL_REQUEST_DEFAULT,
             ConfigDef.Importance.LOW,
             KSQL_REQUEST_INTERNAL_REQUEST_DOC
+        ).define(
+            KSQL_REQUEST_STATEMENTS_BATCH,
+            Type.BOOLEAN,
+            KSQL_REQUEST_STATEMENTS_BATCH_DEFAULT,
+            ConfigDef.Importance.LOW,
+            KSQL_REQUEST_STATEMENTS_BATCH_DOC
         );
     return configDef;
   }
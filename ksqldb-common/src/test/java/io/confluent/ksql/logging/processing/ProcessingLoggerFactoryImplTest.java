@@ -16,7 +16,10 @@
 package io.confluent.ksql.logging.processing;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.verify;
@@ -25,6 +28,7 @@ import static org.mockito.Mockito.when;
 import com.google.common.collect.ImmutableList;
 import io.confluent.common.logging.StructuredLogger;
 import io.confluent.common.logging.StructuredLoggerFactory;
+import io.confluent.ksql.logging.processing.ProcessingLogger.ErrorMessage;
 import java.util.Collection;
 import java.util.function.BiFunction;
 import org.junit.Before;
@@ -45,6 +49,8 @@ public class ProcessingLoggerFactoryImplTest {
   private BiFunction<ProcessingLogConfig, StructuredLogger, ProcessingLogger> loggerFactory;
   @Mock
   private ProcessingLogger logger;
+  @Mock
+  private ErrorMessage errorMessage;
 
   private final Collection<String> loggers = ImmutableList.of("logger1", "logger2");
 
@@ -77,4 +83,64 @@ public class ProcessingLoggerFactoryImplTest {
     // Then:
     assertThat(loggers, equalTo(this.loggers));
   }
+
+  @Test
+  public void shouldShareSamplingLoggersByName() {
+    // Given:
+    givenSamplingEnabled();
+
+    // When:
+    final ProcessingLogger logger1 = factory.getLogger("foo.bar");
+    final ProcessingLogger logger2 = factory.getLogger("foo.bar");
+
+    // Then:
+    assertThat(logger1, instanceOf(SamplingProcessingLogger.class));
+    assertThat(logger1, sameInstance(logger2));
+    verify(innerFactory).getLogger("foo.bar");
+  }
+
+  @Test
+  public void shouldCountErrorsByLoggerNamePrefix() {
+    // Given:
+    givenSamplingEnabled();
+
+    // When:
+    factory.getLogger("q1.foo").error(errorMessage);
+    factory.getLogger("q1.bar").error(errorMessage);
+    factory.getLogger("q10.foo").error(errorMessage);
+
+    // Then:
+    assertThat(factory.getErrorCount("q1."), is(2L));
+  }
+
+  @Test
+  public void shouldNotCountErrorsIfSamplingDisabled() {
+    // When:
+    factory.getLogger("q1.foo").error(errorMessage);
+
+    // Then:
+    assertThat(factory.getErrorCount("q1."), is(0L));
+  }
+
+  @Test
+  public void shouldCloseLoggersOfQuery() {
+    // Given:
+    givenSamplingEnabled();
+    final ProcessingLogger logger = factory.getLogger("q1.foo");
+    factory.getLogger("q10.foo").error(errorMessage);
+
+    // When:
+    factory.closeLoggers("q1");
+
+    // Then:
+    assertThat(factory.getLogger("q1.foo"), not(sameInstance(logger)));
+    assertThat(factory.getErrorCount("q10."), is(1L));
+  }
+
+  private void givenSamplingEnabled() {
+    when(config.getBoolean(ProcessingLogConfig.SAMPLING_ENABLED)).thenReturn(true);
+    when(config.getInt(ProcessingLogConfig.SAMPLING_RATE)).thenReturn(10);
+    when(config.getLong(ProcessingLogConfig.SAMPLING_INTERVAL_MS)).thenReturn(1000L);
+    factory = new ProcessingLoggerFactoryImpl(config, innerFactory, loggerFactory);
+  }
 }
\ No newline at end of file
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.logging.processing;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.confluent.common.utils.Time;
+import io.confluent.ksql.logging.processing.ProcessingLogMessageSchema.MessageType;
+import io.confluent.ksql.logging.processing.ProcessingLogger.ErrorMessage;
+import java.util.List;
+import org.apache.kafka.connect.data.SchemaAndValue;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SamplingProcessingLoggerTest {
+
+  private static final int RATE = 2;
+  private static final long INTERVAL_MS = 1000L;
+
+  private static final ErrorMessage ERROR = config -> recordProcessingError("boom");
+
+  @Mock
+  private ProcessingLogger inner;
+  @Mock
+  private Time time;
+  @Mock
+  private ProcessingLogConfig config;
+
+  private SamplingProcessingLogger logger;
+
+  @Before
+  public void setUp() {
+    when(time.milliseconds()).thenReturn(0L);
+    logger = new SamplingProcessingLogger(inner, RATE, INTERVAL_MS, time);
+  }
+
+  @Test
+  public void shouldLogErrorsWithinRate() {
+    // When:
+    logErrors(RATE);
+
+    // Then:
+    verify(inner, times(RATE)).error(ERROR);
+  }
+
+  @Test
+  public void shouldSuppressErrorsOverRate() {
+    // When:
+    logErrors(RATE + 3);
+
+    // Then:
+    verify(inner, times(RATE)).error(ERROR);
+  }
+
+  @Test
+  public void shouldLogAgainOnceRateAllows() {
+    // Given:
+    logErrors(RATE + 1);
+    when(time.milliseconds()).thenReturn(INTERVAL_MS / RATE);
+
+    // When:
+    logger.error(ERROR);
+
+    // Then:
+    verify(inner, times(RATE + 1)).error(ERROR);
+  }
+
+  @Test
+  public void shouldNotLogSummaryBeforeIntervalEnds() {
+    // Given:
+    logErrors(RATE + 2);
+    when(time.milliseconds()).thenReturn(INTERVAL_MS - 1);
+
+    // When:
+    logger.error(ERROR);
+
+    // Then:
+    final ArgumentCaptor<ErrorMessage> captor = ArgumentCaptor.forClass(ErrorMessage.class);
+    verify(inner, times(RATE + 1)).error(captor.capture());
+    assertThat(captor.getAllValues().stream().allMatch(ERROR::equals), is(true));
+  }
+
+  @Test
+  public void shouldLogSummaryOfSuppressedErrorsOnceIntervalEnds() {
+    // Given:
+    logErrors(RATE + 2);
+    when(time.milliseconds()).thenReturn(INTERVAL_MS);
+
+    // When:
+    logger.error(ERROR);
+
+    // Then:
+    final ArgumentCaptor<ErrorMessage> captor = ArgumentCaptor.forClass(ErrorMessage.class);
+    verify(inner, times(RATE + 2)).error(captor.capture());
+
+    final List<ErrorMessage> logged = captor.getAllValues();
+    final SchemaAndValue summary = logged.get(RATE).get(config);
+    assertThat(errorMessage(summary),
+        is("Suppressed 2 similar errors in the last 1000 ms. Example: boom"));
+    assertThat(logged.get(RATE + 1), is(ERROR));
+  }
+
+  @Test
+  public void shouldNotLogSummaryIfNothingSuppressed() {
+    // Given:
+    logErrors(1);
+    when(time.milliseconds()).thenReturn(INTERVAL_MS);
+
+    // When:
+    logger.error(ERROR);
+
+    // Then:
+    verify(inner, times(2)).error(ERROR);
+  }
+
+  @Test
+  public void shouldLogSummaryOnFlushOnceIntervalEnds() {
+    // Given:
+    logErrors(RATE + 2);
+    when(time.milliseconds()).thenReturn(INTERVAL_MS);
+
+    // When:
+    logger.flushIfDue();
+
+    // Then:
+    final ArgumentCaptor<ErrorMessage> captor = ArgumentCaptor.forClass(ErrorMessage.class);
+    verify(inner, times(RATE + 1)).error(captor.capture());
+    assertThat(errorMessage(captor.getAllValues().get(RATE).get(config)),
+        is("Suppressed 2 similar errors in the last 1000 ms. Example: boom"));
+  }
+
+  @Test
+  public void shouldNotLogSummaryOnFlushBeforeIntervalEnds() {
+    // Given:
+    logErrors(RATE + 2);
+    when(time.milliseconds()).thenReturn(INTERVAL_MS - 1);
+
+    // When:
+    logger.flushIfDue();
+
+    // Then:
+    verify(inner, times(RATE)).error(ERROR);
+  }
+
+  @Test
+  public void shouldLogSummaryOnClose() {
+    // Given:
+    logErrors(RATE + 2);
+
+    // When:
+    logger.close();
+
+    // Then:
+    final ArgumentCaptor<ErrorMessage> captor = ArgumentCaptor.forClass(ErrorMessage.class);
+    verify(inner, times(RATE + 1)).error(captor.capture());
+    assertThat(errorMessage(captor.getAllValues().get(RATE).get(config)),
+        is("Suppressed 2 similar errors in the last 1000 ms. Example: boom"));
+  }
+
+  @Test
+  public void shouldCountAllErrors() {
+    // When:
+    logErrors(RATE + 3);
+
+    // Then:
+    assertThat(logger.getErrorCount(), is((long) RATE + 3));
+  }
+
+  @Test
+  public void shouldNotBuildSuppressedMessages() {
+    // Given:
+    final ErrorMessage expensive = config -> {
+      throw new AssertionError("should not be called");
+    };
+    logErrors(RATE);
+
+    // When:
+    logger.error(expensive);
+
+    // Then:
+    verify(inner, never()).error(expensive);
+  }
+
+  private void logErrors(final int count) {
+    for (int i = 0; i < count; i++) {
+      logger.error(ERROR);
+    }
+  }
+
+  private static SchemaAndValue recordProcessingError(final String message) {
+    final Struct error = new Struct(MessageType.RECORD_PROCESSING_ERROR.getSchema())
+        .put(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR_FIELD_MESSAGE, message);
+
+    final Struct record = new Struct(ProcessingLogMessageSchema.PROCESSING_LOG_SCHEMA)
+        .put(ProcessingLogMessageSchema.TYPE, MessageType.RECORD_PROCESSING_ERROR.getTypeId())
+        .put(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR, error);
+
+    return new SchemaAndValue(ProcessingLogMessageSchema.PROCESSING_LOG_SCHEMA, record);
+  }
+
+  private static String errorMessage(final SchemaAndValue record) {
+    return ((Struct) record.value())
+        .getStruct(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR)
+        .getString(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR_FIELD_MESSAGE);
+  }
+}
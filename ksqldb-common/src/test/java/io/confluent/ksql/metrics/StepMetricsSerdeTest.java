@@ -0,0 +1,104 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.metrics;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import java.util.Map;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StepMetricsSerdeTest {
+
+  private static final String QUERY_ID = "CSAS_TEST_0";
+  private static final String APPLICATION_ID = "app-id";
+  private static final String STEP = "KsqlTopic/Source";
+
+  private Serde<String> serde;
+
+  @Before
+  public void setUp() {
+    MetricCollectors.initialize();
+    StepMetrics.registerApplication(APPLICATION_ID, QUERY_ID);
+    serde = StepMetricsSerde.wrap(Serdes.String(), QUERY_ID, STEP, 2);
+  }
+
+  @After
+  public void tearDown() {
+    StepMetrics.notifyApplicationClose(APPLICATION_ID);
+    MetricCollectors.cleanUp();
+  }
+
+  @Test
+  public void shouldSerializeUsingInner() {
+    assertThat(serde.serializer().serialize("t", "abc"), is("abc".getBytes()));
+  }
+
+  @Test
+  public void shouldDeserializeUsingInner() {
+    assertThat(serde.deserializer().deserialize("t", "abc".getBytes()), is("abc"));
+  }
+
+  @Test
+  public void shouldRecordSerializedBytesOnSampledRecord() {
+    // When:
+    serde.serializer().serialize("t", "abc");
+    serde.serializer().serialize("t", "de");
+
+    // Then:
+    final Map<String, Double> metrics = StepMetrics.snapshot(QUERY_ID).get(STEP);
+    assertThat(metrics, hasEntry("serialized-bytes-total", 5.0));
+    assertThat(metrics, not(hasKey("deserialized-bytes-total")));
+  }
+
+  @Test
+  public void shouldRecordDeserializedBytesOnSampledRecord() {
+    // When:
+    serde.deserializer().deserialize("t", "abc".getBytes());
+    serde.deserializer().deserialize("t", "de".getBytes());
+
+    // Then:
+    final Map<String, Double> metrics = StepMetrics.snapshot(QUERY_ID).get(STEP);
+    assertThat(metrics, hasEntry("deserialized-bytes-total", 5.0));
+    assertThat(metrics, not(hasKey("serialized-bytes-total")));
+  }
+
+  @Test
+  public void shouldSampleSerializerAndDeserializerSeparately() {
+    // When:
+    serde.serializer().serialize("t", "abc");
+    serde.deserializer().deserialize("t", "de".getBytes());
+
+    // Then:
+    assertThat(StepMetrics.snapshot(QUERY_ID).isEmpty(), is(true));
+  }
+
+  @Test
+  public void shouldNotRecordBeforeSampledRecord() {
+    // When:
+    serde.serializer().serialize("t", "abc");
+
+    // Then:
+    assertThat(StepMetrics.snapshot(QUERY_ID).isEmpty(), is(true));
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.metrics;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StepMetricsTest {
+
+  private static final String QUERY_ID = "CSAS_TEST_0";
+  private static final String APPLICATION_ID = "app-id";
+
+  @Before
+  public void setUp() {
+    MetricCollectors.initialize();
+    StepMetrics.registerApplication(APPLICATION_ID, QUERY_ID);
+  }
+
+  @After
+  public void tearDown() {
+    StepMetrics.notifyApplicationClose(APPLICATION_ID);
+    MetricCollectors.cleanUp();
+  }
+
+  @Test
+  public void shouldReturnSameMetricsForStep() {
+    assertThat(
+        StepMetrics.of(QUERY_ID, "Project"),
+        sameInstance(StepMetrics.of(QUERY_ID, "Project"))
+    );
+  }
+
+  @Test
+  public void shouldSnapshotMetricsByStep() {
+    // Given:
+    StepMetrics.of(QUERY_ID, "Project").recordProcessingTime(5_000);
+    StepMetrics.of(QUERY_ID, "KsqlTopic/Source").recordDeserialized(100, 1_000);
+
+    // When:
+    final Map<String, Map<String, Double>> snapshot = StepMetrics.snapshot(QUERY_ID);
+
+    // Then:
+    assertThat(snapshot.get("Project"), hasEntry("processing-time-max-us", 5.0));
+    assertThat(snapshot.get("KsqlTopic/Source"), hasEntry("deserialized-bytes-total", 100.0));
+    assertThat(snapshot.get("KsqlTopic/Source"), hasEntry("deserialize-time-max-us", 1.0));
+    assertThat(snapshot.get("KsqlTopic/Source"), not(hasKey("serialized-bytes-total")));
+  }
+
+  @Test
+  public void shouldNotSnapshotOtherQueries() {
+    // Given:
+    StepMetrics.of(QUERY_ID, "Project").recordProcessed(1);
+
+    // Then:
+    assertThat(StepMetrics.snapshot("OTHER_QUERY").isEmpty(), is(true));
+  }
+
+  @Test
+  public void shouldRemoveMetricsOnApplicationClose() {
+    // Given:
+    final StepMetrics metrics = StepMetrics.of(QUERY_ID, "Project");
+    metrics.recordProcessed(1);
+
+    // When:
+    StepMetrics.notifyApplicationClose(APPLICATION_ID);
+
+    // Then:
+    assertThat(StepMetrics.snapshot(QUERY_ID), not(hasKey("Project")));
+
+    StepMetrics.registerApplication(APPLICATION_ID, QUERY_ID);
+    assertThat(StepMetrics.of(QUERY_ID, "Project"), not(sameInstance(metrics)));
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.reactive;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class BoundedRingBufferTest {
+
+  @Test
+  public void shouldRoundCapacityUpToPowerOfTwo() {
+    assertThat(new BoundedRingBuffer<>(1).capacity(), is(1));
+    assertThat(new BoundedRingBuffer<>(5).capacity(), is(8));
+    assertThat(new BoundedRingBuffer<>(512).capacity(), is(512));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowOnZeroCapacity() {
+    new BoundedRingBuffer<>(0);
+  }
+
+  @Test
+  public void shouldReturnNullWhenEmpty() {
+    // Given:
+    final BoundedRingBuffer<String> buffer = new BoundedRingBuffer<>(4);
+
+    // Then:
+    assertThat(buffer.poll(), is(nullValue()));
+    assertThat(buffer.isEmpty(), is(true));
+  }
+
+  @Test
+  public void shouldPollInOfferOrder() {
+    // Given:
+    final BoundedRingBuffer<String> buffer = new BoundedRingBuffer<>(4);
+    buffer.offer("a");
+    buffer.offer("b");
+
+    // Then:
+    assertThat(buffer.size(), is(2));
+    assertThat(buffer.poll(), is("a"));
+    assertThat(buffer.poll(), is("b"));
+    assertThat(buffer.poll(), is(nullValue()));
+  }
+
+  @Test
+  public void shouldRejectOfferWhenFull() {
+    // Given:
+    final BoundedRingBuffer<String> buffer = new BoundedRingBuffer<>(2);
+    buffer.offer("a");
+    buffer.offer("b");
+
+    // When:
+    final boolean result = buffer.offer("c");
+
+    // Then:
+    assertThat(result, is(false));
+    assertThat(buffer.size(), is(2));
+  }
+
+  @Test
+  public void shouldReuseSlotsAfterWrapping() {
+    // Given:
+    final BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(2);
+
+    // When:
+    for (int i = 0; i < 10; i++) {
+      assertThat(buffer.offer(i), is(true));
+      assertThat(buffer.poll(), is(i));
+    }
+
+    // Then:
+    assertThat(buffer.isEmpty(), is(true));
+  }
+
+  @Test
+  public void shouldDrainUpToMax() {
+    // Given:
+    final BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(8);
+    for (int i = 0; i < 5; i++) {
+      buffer.offer(i);
+    }
+    final List<Integer> drained = new ArrayList<>();
+
+    // When:
+    final int num = buffer.drain(drained::add, 3);
+
+    // Then:
+    assertThat(num, is(3));
+    assertThat(drained, contains(0, 1, 2));
+    assertThat(buffer.size(), is(2));
+  }
+
+  @Test
+  public void shouldNotLoseElementsWithConcurrentProducers() throws Exception {
+    // Given:
+    final int producers = 4;
+    final int perProducer = 10_000;
+    final BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(64);
+    final ExecutorService executor = Executors.newFixedThreadPool(producers);
+    final CountDownLatch start = new CountDownLatch(1);
+
+    try {
+      for (int p = 0; p < producers; p++) {
+        final int base = p * perProducer;
+        executor.execute(() -> {
+          try {
+            start.await();
+          } catch (InterruptedException e) {
+            return;
+          }
+          for (int i = 0; i < perProducer; i++) {
+            while (!buffer.offer(base + i)) {
+              Thread.yield();
+            }
+          }
+        });
+      }
+
+      // When:
+      start.countDown();
+      final Set<Integer> received = new HashSet<>();
+      final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+      while (received.size() < producers * perProducer
+          && System.currentTimeMillis() < deadline) {
+        final Integer element = buffer.poll();
+        if (element != null) {
+          received.add(element);
+        }
+      }
+
+      // Then:
+      assertThat(received.size(), is(producers * perProducer));
+      assertThat(buffer.isEmpty(), is(true));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
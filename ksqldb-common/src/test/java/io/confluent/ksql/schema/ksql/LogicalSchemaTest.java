@@ -158,6 +158,28 @@ public class LogicalSchemaTest {
     ));
   }
 
+  @Test
+  public void shouldRetainOnlyRequestedValueColumns() {
+    // Given:
+    final LogicalSchema schema = LogicalSchema.builder()
+        .withRowTime()
+        .keyColumn(K0, BIGINT)
+        .valueColumn(F0, STRING)
+        .valueColumn(V0, DOUBLE)
+        .valueColumn(F1, BIGINT)
+        .build();
+
+    // When:
+    final LogicalSchema result = schema.withOnlyValueColumns(ImmutableSet.of(F1, K0));
+
+    // Then:
+    assertThat(result.columns(), contains(
+        Column.of(ROWTIME_NAME, BIGINT, Namespace.META, 0),
+        Column.of(K0, BIGINT, Namespace.KEY, 0),
+        Column.of(F1, BIGINT, Namespace.VALUE, 0)
+    ));
+  }
+
   @Test
   public void shouldGetColumnByName() {
     // When:
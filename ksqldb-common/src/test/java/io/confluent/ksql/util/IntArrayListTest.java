@@ -0,0 +1,156 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class IntArrayListTest {
+
+  @Test
+  public void shouldViewArray() {
+    // Given:
+    final int[] array = {1, 2, 3};
+
+    // When:
+    final List<Integer> list = IntArrayList.wrap(array);
+    array[1] = 5;
+
+    // Then:
+    assertThat(list, contains(1, 5, 3));
+  }
+
+  @Test
+  public void shouldWriteThroughToArray() {
+    // Given:
+    final int[] array = {1, 2, 3};
+
+    // When:
+    IntArrayList.wrap(array).set(0, 7);
+
+    // Then:
+    assertThat(array[0], is(7));
+  }
+
+  @Test
+  public void shouldReturnBackingArrayWithoutCopying() {
+    // Given:
+    final int[] array = {1, 2, 3};
+
+    // Then:
+    assertThat(IntArrayList.toIntArray(IntArrayList.wrap(array)), is(sameInstance(array)));
+  }
+
+  @Test
+  public void shouldCopyBackingArrayWithSpareCapacity() {
+    // Given:
+    final IntArrayList list = new IntArrayList(4);
+    list.add(1);
+
+    // When:
+    final int[] result = IntArrayList.toIntArray(list);
+
+    // Then:
+    assertThat(result, is(new int[]{1}));
+  }
+
+  @Test
+  public void shouldCopyOtherLists() {
+    assertThat(IntArrayList.toIntArray(ImmutableList.of(4, 5)), is(new int[]{4, 5}));
+  }
+
+  @Test
+  public void shouldHandleNullArrays() {
+    assertThat(IntArrayList.wrap(null), is(nullValue()));
+    assertThat(IntArrayList.toIntArray(null), is(nullValue()));
+  }
+
+  @Test
+  public void shouldHoldNullElements() {
+    // Given:
+    final IntArrayList list = IntArrayList.wrap(new int[]{1, 2});
+
+    // When:
+    list.add(null);
+    list.set(0, null);
+
+    // Then:
+    assertThat(list, contains(null, 2, null));
+    assertThat(list.hasNulls(), is(true));
+    assertThat(list.isNull(1), is(false));
+    assertThat(list.getInt(0), is(0));
+  }
+
+  @Test
+  public void shouldNotHaveNullsOnceNullElementsAreReplaced() {
+    // Given:
+    final IntArrayList list = IntArrayList.wrap(new int[]{1});
+    list.set(0, null);
+
+    // When:
+    list.set(0, 3);
+
+    // Then:
+    assertThat(list.hasNulls(), is(false));
+  }
+
+  @Test
+  public void shouldMatchArrayListOverRandomUpdates() {
+    // Given:
+    final Random random = new Random(42);
+    final List<Integer> expected = new ArrayList<>();
+    final IntArrayList list = new IntArrayList(0);
+
+    // When:
+    for (int i = 0; i < 10_000; i++) {
+      final Integer element = random.nextInt(10) == 0 ? null : random.nextInt();
+      final int op = random.nextInt(3);
+      if (op == 0 || expected.isEmpty()) {
+        final int index = random.nextInt(expected.size() + 1);
+        expected.add(index, element);
+        list.add(index, element);
+      } else if (op == 1) {
+        final int index = random.nextInt(expected.size());
+        expected.set(index, element);
+        list.set(index, element);
+      } else {
+        final int index = random.nextInt(expected.size());
+        expected.remove(index);
+        list.remove(index);
+      }
+    }
+
+    // Then:
+    assertThat(list, is(expected));
+  }
+
+  @Test
+  public void shouldEqualOtherListsWithSameElements() {
+    assertThat(IntArrayList.wrap(new int[]{4, 5}), is(ImmutableList.of(4, 5)));
+    assertThat(IntArrayList.wrap(new int[]{4, 5}), is(not(Arrays.asList(4, null))));
+  }
+}
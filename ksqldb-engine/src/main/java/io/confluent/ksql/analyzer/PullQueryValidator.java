@@ -93,10 +93,6 @@ public class PullQueryValidator implements QueryValidator {
       Rule.of(
           analysis -> !analysis.getHavingExpression().isPresent(),
           "Pull queries don't support HAVING clauses."
-      ),
-      Rule.of(
-          analysis -> !analysis.getLimitClause().isPresent(),
-          "Pull queries don't support LIMIT clauses."
       )
   );
 
@@ -32,6 +32,7 @@ import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.parser.tree.ExecutableDdlStatement;
 import io.confluent.ksql.query.QueryExecutor;
 import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.query.ScalablePushRegistry;
 import io.confluent.ksql.query.id.QueryIdGenerator;
 import io.confluent.ksql.services.SandboxedServiceContext;
 import io.confluent.ksql.services.ServiceContext;
@@ -62,6 +63,7 @@ final class EngineContext {
   private final KsqlParser parser;
   private final BiConsumer<ServiceContext, QueryMetadata> outerOnQueryCloseCallback;
   private final Map<QueryId, PersistentQueryMetadata> persistentQueries;
+  private final ScalablePushRegistry scalablePushRegistry;
 
   static EngineContext create(
       final ServiceContext serviceContext,
@@ -76,7 +78,8 @@ final class EngineContext {
         metaStore,
         queryIdGenerator,
         onQueryCloseCallback,
-        new DefaultKsqlParser()
+        new DefaultKsqlParser(),
+        ScalablePushRegistry.create()
     );
   }
 
@@ -86,7 +89,8 @@ final class EngineContext {
       final MutableMetaStore metaStore,
       final QueryIdGenerator queryIdGenerator,
       final BiConsumer<ServiceContext, QueryMetadata> onQueryCloseCallback,
-      final KsqlParser parser
+      final KsqlParser parser,
+      final ScalablePushRegistry scalablePushRegistry
   ) {
     this.serviceContext = requireNonNull(serviceContext, "serviceContext");
     this.metaStore = requireNonNull(metaStore, "metaStore");
@@ -97,15 +101,19 @@ final class EngineContext {
     this.persistentQueries = new ConcurrentHashMap<>();
     this.processingLogContext = requireNonNull(processingLogContext, "processingLogContext");
     this.parser = requireNonNull(parser, "parser");
+    this.scalablePushRegistry = requireNonNull(scalablePushRegistry, "scalablePushRegistry");
   }
 
   EngineContext createSandbox(final ServiceContext serviceContext) {
-    final EngineContext sandBox = EngineContext.create(
+    final EngineContext sandBox = new EngineContext(
         SandboxedServiceContext.create(serviceContext),
         processingLogContext,
         metaStore.copy(),
         queryIdGenerator.createSandbox(),
-        (sc, query) -> { /* No-op */ }
+        (sc, query) -> { /* No-op */ },
+        new DefaultKsqlParser(),
+        // Sandboxed queries are never started, so never publish their rows:
+        ScalablePushRegistry.disabled()
     );
 
     persistentQueries.forEach((queryId, query) ->
@@ -136,6 +144,10 @@ final class EngineContext {
     return processingLogContext;
   }
 
+  ScalablePushRegistry getScalablePushRegistry() {
+    return scalablePushRegistry;
+  }
+
   List<ParsedStatement> parse(final String sql) {
     return parser.parse(sql);
   }
@@ -172,7 +184,8 @@ final class EngineContext {
         processingLogContext,
         serviceContext,
         metaStore,
-        this::unregisterQuery
+        this::unregisterQuery,
+        scalablePushRegistry
     );
   }
 
@@ -223,6 +236,7 @@ final class EngineContext {
       final PersistentQueryMetadata persistentQuery = (PersistentQueryMetadata) query;
       persistentQueries.remove(persistentQuery.getQueryId());
       metaStore.removePersistentQuery(persistentQuery.getQueryId().getId());
+      scalablePushRegistry.unregister(persistentQuery.getQueryId());
     }
 
     outerOnQueryCloseCallback.accept(serviceContext, query);
@@ -17,15 +17,26 @@ package io.confluent.ksql.engine;
 
 import static io.confluent.ksql.metastore.model.DataSource.DataSourceType;
 
+import com.google.common.collect.Iterables;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.KsqlExecutionContext.ExecuteResult;
+import io.confluent.ksql.execution.context.QueryContext;
+import io.confluent.ksql.execution.context.QueryLoggerUtil;
 import io.confluent.ksql.execution.ddl.commands.CreateSourceCommand;
 import io.confluent.ksql.execution.ddl.commands.CreateStreamCommand;
 import io.confluent.ksql.execution.ddl.commands.CreateTableCommand;
 import io.confluent.ksql.execution.ddl.commands.DdlCommand;
 import io.confluent.ksql.execution.plan.ExecutionStep;
 import io.confluent.ksql.execution.plan.Formats;
+import io.confluent.ksql.execution.plan.StreamFilter;
+import io.confluent.ksql.execution.plan.StreamSelect;
+import io.confluent.ksql.execution.plan.StreamSource;
+import io.confluent.ksql.execution.transform.KsqlTransformer;
+import io.confluent.ksql.execution.transform.select.Selection;
+import io.confluent.ksql.execution.transform.sqlpredicate.SqlPredicate;
+import io.confluent.ksql.function.FunctionRegistry;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.metastore.model.DataSource;
 import io.confluent.ksql.metastore.model.KeyField;
 import io.confluent.ksql.name.SourceName;
@@ -43,6 +54,8 @@ import io.confluent.ksql.planner.plan.OutputNode;
 import io.confluent.ksql.planner.plan.PlanNode;
 import io.confluent.ksql.query.QueryExecutor;
 import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.query.ScalablePushQuery;
+import io.confluent.ksql.query.ScalablePushSubscriber;
 import io.confluent.ksql.schema.ksql.Column;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.services.ServiceContext;
@@ -60,6 +73,11 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
+import org.apache.kafka.common.utils.Utils;
+import org.apache.kafka.streams.KafkaStreams.State;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.state.HostInfo;
 
 /**
  * Executor of {@code PreparedStatement} within a specific {@code EngineContext} and using a
@@ -106,17 +124,25 @@ final class EngineExecutor {
 
   @SuppressWarnings("OptionalGetWithoutIsPresent") // Known to be non-empty
   ExecuteResult execute(final KsqlPlan plan) {
-    final Optional<String> ddlResult = plan.getDdlCommand()
-        .map(ddl -> executeDdl(ddl, plan.getStatementText(), plan.getQueryPlan().isPresent()));
+    final Optional<String> ddlResult = executeDdl(plan);
 
-    final Optional<PersistentQueryMetadata> queryMetadata = plan.getQueryPlan()
-        .map(qp -> executePersistentQuery(qp, plan.getStatementText()));
+    final Optional<PersistentQueryMetadata> queryMetadata = executePersistentQuery(plan);
 
     return queryMetadata
         .map(ExecuteResult::of)
         .orElseGet(() -> ExecuteResult.of(ddlResult.get()));
   }
 
+  Optional<String> executeDdl(final KsqlPlan plan) {
+    return plan.getDdlCommand()
+        .map(ddl -> executeDdl(ddl, plan.getStatementText(), plan.getQueryPlan().isPresent()));
+  }
+
+  Optional<PersistentQueryMetadata> executePersistentQuery(final KsqlPlan plan) {
+    return plan.getQueryPlan()
+        .map(qp -> executePersistentQuery(qp, plan.getStatementText()));
+  }
+
   @SuppressWarnings("OptionalGetWithoutIsPresent") // Known to be non-empty
   TransientQueryMetadata executeQuery(final ConfiguredStatement<Query> statement) {
     final ExecutorPlans plans = planQuery(statement, statement.getStatement(), Optional.empty());
@@ -161,6 +187,104 @@ final class EngineExecutor {
     );
   }
 
+  /**
+   * Execute a push query by subscribing to the rows a persistent query publishes, if the query
+   * only filters and projects a stream that a running persistent query writes, and this server
+   * runs every task of that query.
+   *
+   * @return the push query, or empty if it must be executed as a transient query instead.
+   */
+  @SuppressWarnings("OptionalGetWithoutIsPresent") // Known to be non-empty
+  Optional<ScalablePushQuery> executeScalablePushQuery(
+      final ConfiguredStatement<Query> statement,
+      final ScalablePushSubscriber subscriber
+  ) {
+    final KsqlConfig config = ksqlConfig.cloneWithPropertyOverwrite(overriddenProperties);
+    if (!config.getBoolean(KsqlConfig.KSQL_QUERY_PUSH_SCALABLE_ENABLED)) {
+      return Optional.empty();
+    }
+
+    final ExecutorPlans plans = planQuery(statement, statement.getStatement(), Optional.empty());
+    final OutputNode outputNode = plans.logicalPlan.getNode().get();
+    final Set<SourceName> sourceNames = getSourceNames(outputNode);
+    final ExecutionStep<?> root = plans.physicalPlan.getPhysicalPlan();
+    if (sourceNames.size() != 1 || !(root instanceof StreamSelect)) {
+      return Optional.empty();
+    }
+
+    final StreamSelect<?> select = (StreamSelect<?>) root;
+    final Optional<StreamFilter<?>> filter = select.getSource() instanceof StreamFilter
+        ? Optional.of((StreamFilter<?>) select.getSource())
+        : Optional.empty();
+    final ExecutionStep<?> sourceStep = filter.isPresent()
+        ? filter.get().getSource()
+        : select.getSource();
+    if (!(sourceStep instanceof StreamSource)) {
+      return Optional.empty();
+    }
+
+    final QueryId queryId = plans.physicalPlan.getQueryId();
+    final LogicalSchema sourceSchema = ((StreamSource) sourceStep).getSourceSchema();
+    final LogicalSchema rowSchema = sourceSchema.withMetaAndKeyColsInValue(false);
+    final FunctionRegistry functionRegistry = engineContext.getMetaStore();
+
+    final Optional<KsqlTransformer<Object, Optional<GenericRow>>> predicate = filter
+        .map(f -> new SqlPredicate(f.getFilterExpression(), rowSchema, config, functionRegistry)
+            .<Object>getTransformer(
+                processingLogger(queryId, f.getProperties().getQueryContext())));
+
+    final KsqlTransformer<Object, GenericRow> mapper = Selection
+        .<Object>of(rowSchema, select.getSelectExpressions(), config, functionRegistry)
+        .getMapper()
+        .getTransformer(processingLogger(queryId, select.getProperties().getQueryContext()));
+
+    final KsqlTransformer<Object, Optional<GenericRow>> transformer = (key, row, ctx) -> predicate
+        .map(p -> p.transform(key, row, ctx))
+        .orElse(Optional.of(row))
+        .map(filtered -> mapper.transform(key, filtered, ctx));
+
+    final LogicalSchema resultSchema = LogicalSchema.builder()
+        .valueColumns(outputNode.getSchema().value())
+        .build();
+
+    return engineContext.getScalablePushRegistry().subscribe(
+        queryId,
+        Iterables.getOnlyElement(sourceNames),
+        sourceSchema,
+        runsAllTasksLocally(config),
+        resultSchema,
+        transformer,
+        subscriber
+    );
+  }
+
+  /**
+   * @return a test of whether this server runs every task of a persistent query, according to
+   *     the query's Kafka Streams metadata. Queries that are not running, or whose tasks can not
+   *     be located because {@code application.server} is not set, fail the test.
+   */
+  private Predicate<QueryId> runsAllTasksLocally(final KsqlConfig config) {
+    final Object applicationServer = config.getKsqlStreamConfigProps()
+        .get(StreamsConfig.APPLICATION_SERVER_CONFIG);
+    if (applicationServer == null) {
+      return queryId -> false;
+    }
+
+    final String host = Utils.getHost(applicationServer.toString());
+    final Integer port = Utils.getPort(applicationServer.toString());
+    if (host == null || port == null) {
+      return queryId -> false;
+    }
+
+    final HostInfo localHost = new HostInfo(host, port);
+    return queryId -> engineContext.getPersistentQuery(queryId)
+        .filter(query -> State.RUNNING.name().equals(query.getState()))
+        .map(QueryMetadata::getAllMetadata)
+        .filter(metadata -> !metadata.isEmpty())
+        .map(metadata -> metadata.stream().allMatch(m -> m.hostInfo().equals(localHost)))
+        .orElse(false);
+  }
+
   // Known to be non-empty
   @SuppressWarnings("OptionalGetWithoutIsPresent")
   KsqlPlan plan(final ConfiguredStatement<?> statement) {
@@ -388,6 +512,15 @@ final class EngineExecutor {
     }
   }
 
+  private ProcessingLogger processingLogger(
+      final QueryId queryId,
+      final QueryContext queryContext
+  ) {
+    return engineContext.getProcessingLogContext()
+        .getLoggerFactory()
+        .getLogger(QueryLoggerUtil.queryLoggerName(queryId, queryContext));
+  }
+
   private static Set<SourceName> getSourceNames(final PlanNode outputNode) {
     final PlanSourceExtractorVisitor<?, ?> visitor = new PlanSourceExtractorVisitor<>();
     visitor.process(outputNode, null);
@@ -25,6 +25,7 @@ import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.metastore.MetaStore;
 import io.confluent.ksql.metastore.MetaStoreImpl;
 import io.confluent.ksql.metastore.MutableMetaStore;
+import io.confluent.ksql.metrics.StepMetrics;
 import io.confluent.ksql.metrics.StreamsErrorCollector;
 import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
 import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
@@ -34,6 +35,8 @@ import io.confluent.ksql.parser.tree.QueryContainer;
 import io.confluent.ksql.parser.tree.Statement;
 import io.confluent.ksql.planner.plan.ConfiguredKsqlPlan;
 import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.query.ScalablePushQuery;
+import io.confluent.ksql.query.ScalablePushSubscriber;
 import io.confluent.ksql.query.id.QueryIdGenerator;
 import io.confluent.ksql.schema.registry.SchemaRegistryUtil;
 import io.confluent.ksql.services.ServiceContext;
@@ -44,16 +47,21 @@ import io.confluent.ksql.util.PersistentQueryMetadata;
 import io.confluent.ksql.util.QueryMetadata;
 import io.confluent.ksql.util.TransientQueryMetadata;
 import java.io.Closeable;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -190,6 +198,78 @@ public class KsqlEngine implements KsqlExecutionContext, Closeable {
     return result;
   }
 
+  /**
+   * Execute the plans of several independent statements, e.g. the live commands restored from a
+   * snapshot of the command topic.
+   *
+   * <p>The DDL of each plan is executed first, serially and in the order given, so that the
+   * metastore is complete before any persistent query is built. The persistent queries, whose
+   * physical topologies are expensive to build, are then built concurrently on the supplied
+   * executor. Queries are registered with the engine, but not started.
+   *
+   * <p>A plan that fails does not stop the others: its failure is returned in its result, and the
+   * queries of the other plans are still built and registered.
+   *
+   * @param serviceContext the service context.
+   * @param plans the plans to execute, in dependency order.
+   * @param executor the executor on which to build the persistent queries.
+   * @return the result of each plan, in the order given.
+   */
+  public List<PlanResult> executeAll(
+      final ServiceContext serviceContext,
+      final List<ConfiguredKsqlPlan> plans,
+      final Executor executor
+  ) {
+    final List<EngineExecutor> executors = plans.stream()
+        .map(plan -> EngineExecutor
+            .create(primaryContext, serviceContext, plan.getConfig(), plan.getOverrides()))
+        .collect(Collectors.toList());
+
+    final List<CompletableFuture<Optional<String>>> ddlResults = new ArrayList<>(plans.size());
+    for (int i = 0; i < plans.size(); i++) {
+      final CompletableFuture<Optional<String>> ddlResult = new CompletableFuture<>();
+      try {
+        ddlResult.complete(executors.get(i).executeDdl(plans.get(i).getPlan()));
+      } catch (final KsqlException e) {
+        ddlResult.completeExceptionally(e);
+      }
+      ddlResults.add(ddlResult);
+    }
+
+    final List<CompletableFuture<Optional<PersistentQueryMetadata>>> queries =
+        new ArrayList<>(plans.size());
+    for (int i = 0; i < plans.size(); i++) {
+      final EngineExecutor engineExecutor = executors.get(i);
+      final KsqlPlan plan = plans.get(i).getPlan();
+      final CompletableFuture<Optional<String>> ddlResult = ddlResults.get(i);
+      queries.add(plan.getQueryPlan().isPresent() && !ddlResult.isCompletedExceptionally()
+          ? CompletableFuture.supplyAsync(
+              () -> engineExecutor.executePersistentQuery(plan), executor)
+          : ddlResult.thenApply(ignored -> Optional.<PersistentQueryMetadata>empty()));
+    }
+
+    final ImmutableList.Builder<PlanResult> results = ImmutableList.builder();
+    for (int i = 0; i < plans.size(); i++) {
+      final Optional<PersistentQueryMetadata> query;
+      try {
+        query = queries.get(i).join();
+      } catch (final CompletionException e) {
+        results.add(PlanResult.failure(e.getCause() instanceof RuntimeException
+            ? (RuntimeException) e.getCause()
+            : new KsqlException(e.getCause())));
+        continue;
+      }
+
+      query.ifPresent(this::registerQuery);
+      final Optional<String> ddlResult = ddlResults.get(i).join();
+      results.add(PlanResult.success(query
+          .map(ExecuteResult::of)
+          .orElseGet(() -> ExecuteResult.of(ddlResult.get()))));
+    }
+
+    return results.build();
+  }
+
   @Override
   public ExecuteResult execute(
       final ServiceContext serviceContext,
@@ -246,9 +326,44 @@ public class KsqlEngine implements KsqlExecutionContext, Closeable {
     return query;
   }
 
+  /**
+   * Execute a push query as a subscriber to the rows a running persistent query publishes,
+   * rather than as a transient query with its own Kafka Streams application.
+   *
+   * <p>Only queries that filter and project a stream written by a persistent query can be
+   * executed this way, and only when {@code ksql.query.push.scalable.enabled} is set.
+   * The returned query only delivers rows published after it is started.
+   *
+   * @param serviceContext the service context to plan the query with.
+   * @param statement the push query.
+   * @param subscriber the subscriber to deliver rows to.
+   * @return the push query, or empty if it must be executed via {@code executeQuery}.
+   */
+  public Optional<ScalablePushQuery> executeScalablePushQuery(
+      final ServiceContext serviceContext,
+      final ConfiguredStatement<Query> statement,
+      final ScalablePushSubscriber subscriber
+  ) {
+    try {
+      return EngineExecutor
+          .create(
+              primaryContext,
+              serviceContext,
+              statement.getConfig(),
+              statement.getConfigOverrides())
+          .executeScalablePushQuery(statement, subscriber);
+    } catch (final KsqlStatementException e) {
+      throw e;
+    } catch (final KsqlException e) {
+      // add the statement text to the KsqlException
+      throw new KsqlStatementException(e.getMessage(), statement.getStatementText(), e.getCause());
+    }
+  }
+
   @Override
   public void close() {
     allLiveQueries.forEach(QueryMetadata::stop);
+    primaryContext.getScalablePushRegistry().close();
     engineMetrics.close();
     aggregateMetricsCollector.shutdown();
   }
@@ -291,5 +406,40 @@ public class KsqlEngine implements KsqlExecutionContext, Closeable {
     }
 
     StreamsErrorCollector.notifyApplicationClose(applicationId);
+    StepMetrics.notifyApplicationClose(applicationId);
+  }
+
+  /**
+   * The result of one of the plans passed to {@link #executeAll}: either the result of its
+   * execution or the reason it failed.
+   */
+  public static final class PlanResult {
+
+    private final Optional<ExecuteResult> result;
+    private final Optional<RuntimeException> failure;
+
+    public static PlanResult success(final ExecuteResult result) {
+      return new PlanResult(Optional.of(result), Optional.empty());
+    }
+
+    public static PlanResult failure(final RuntimeException failure) {
+      return new PlanResult(Optional.empty(), Optional.of(failure));
+    }
+
+    public Optional<ExecuteResult> getResult() {
+      return result;
+    }
+
+    public Optional<RuntimeException> getFailure() {
+      return failure;
+    }
+
+    private PlanResult(
+        final Optional<ExecuteResult> result,
+        final Optional<RuntimeException> failure
+    ) {
+      this.result = Objects.requireNonNull(result, "result");
+      this.failure = Objects.requireNonNull(failure, "failure");
+    }
   }
 }
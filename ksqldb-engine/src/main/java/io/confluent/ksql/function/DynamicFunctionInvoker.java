@@ -16,33 +16,20 @@
 package io.confluent.ksql.function;
 
 import java.lang.reflect.Array;
-import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.Method;
-import java.lang.reflect.TypeVariable;
 
 /**
- * An implementation of UdfInvoker which invokes the UDF using reflection
+ * An implementation of UdfInvoker which invokes the UDF using reflection.
+ *
+ * <p>Functions are invoked via {@link MethodHandleFunctionInvoker}. This invoker is kept as the
+ * baseline for benchmarks.
  */
 public class DynamicFunctionInvoker implements FunctionInvoker {
 
   private final Method method;
 
   DynamicFunctionInvoker(final Method method) {
-    final Class<?>[] types = method.getParameterTypes();
-    for (int i = 0; i < types.length; i++) {
-      if (method.getParameterTypes()[i].isArray()
-          && (!method.isVarArgs() || i != method.getParameterCount() - 1)) {
-        throw new KsqlFunctionException(
-            "Invalid function method signature (contains non var-arg array): " + method);
-      }
-      if (method.getGenericParameterTypes()[i] instanceof TypeVariable
-          || method.getGenericParameterTypes()[i] instanceof GenericArrayType) {
-        // this is the case where the type parameter is generic
-        continue;
-      }
-      final Class<?> type = types[i];
-      UdafTypes.checkSupportedType(method, type);
-    }
+    FunctionLoaderUtils.validateInvokerMethod(method);
     this.method = method;
   }
 
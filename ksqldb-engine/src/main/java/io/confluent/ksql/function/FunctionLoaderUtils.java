@@ -28,10 +28,12 @@ import io.confluent.ksql.schema.ksql.types.SqlType;
 import io.confluent.ksql.schema.ksql.types.SqlTypes;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.SchemaUtil;
+import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -101,9 +103,32 @@ public final class FunctionLoaderUtils {
 
   @VisibleForTesting
   public static FunctionInvoker createFunctionInvoker(final Method method) {
+    return new MethodHandleFunctionInvoker(method);
+  }
+
+  @VisibleForTesting
+  public static FunctionInvoker createReflectiveFunctionInvoker(final Method method) {
     return new DynamicFunctionInvoker(method);
   }
 
+  static void validateInvokerMethod(final Method method) {
+    final Class<?>[] types = method.getParameterTypes();
+    for (int i = 0; i < types.length; i++) {
+      if (method.getParameterTypes()[i].isArray()
+          && (!method.isVarArgs() || i != method.getParameterCount() - 1)) {
+        throw new KsqlFunctionException(
+            "Invalid function method signature (contains non var-arg array): " + method);
+      }
+      if (method.getGenericParameterTypes()[i] instanceof TypeVariable
+          || method.getGenericParameterTypes()[i] instanceof GenericArrayType) {
+        // this is the case where the type parameter is generic
+        continue;
+      }
+      final Class<?> type = types[i];
+      UdafTypes.checkSupportedType(method, type);
+    }
+  }
+
   static Object instantiateFunctionInstance(
       final Class functionClass,
       final String functionName
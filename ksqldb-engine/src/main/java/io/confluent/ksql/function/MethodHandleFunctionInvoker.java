@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * An implementation of UdfInvoker which invokes the UDF via a method handle bound once, when the
+ * function is loaded.
+ *
+ * <p>The bound handle takes the UDF instance and an {@code Object[]} of arguments, which it
+ * spreads, unboxes and, for variadic methods, collects into an array of the right type, without
+ * reflection. As a spreader is specific to the number of arguments, those for variadic methods are
+ * built on first use for each number of arguments and then reused.
+ */
+public final class MethodHandleFunctionInvoker implements FunctionInvoker {
+
+  private static final int MAX_CACHED_ARITY = 64;
+
+  private final Method method;
+  private final MethodHandle target;
+  private final MethodHandle fixedArity;
+  private final AtomicReferenceArray<MethodHandle> varArities;
+
+  MethodHandleFunctionInvoker(final Method method) {
+    FunctionLoaderUtils.validateInvokerMethod(method);
+    this.method = method;
+    this.target = bind(method);
+
+    if (method.isVarArgs()) {
+      this.fixedArity = null;
+      this.varArities = new AtomicReferenceArray<>(MAX_CACHED_ARITY);
+    } else {
+      this.fixedArity = spreader(target, method.getParameterCount());
+      this.varArities = null;
+    }
+  }
+
+  @Override
+  public Object eval(final Object udf, final Object... args) {
+    try {
+      final MethodHandle handle = fixedArity != null ? fixedArity : varArity(args.length);
+      return (Object) handle.invokeExact(udf, args);
+    } catch (final Error e) {
+      // invokeExact declares Throwable, but errors such as OutOfMemoryError are not UDF failures:
+      throw e;
+    } catch (final Exception e) {
+      throw new KsqlFunctionException("Failed to invoke function " + method, e);
+    } catch (final Throwable e) {
+      // Neither an Error nor an Exception:
+      throw new KsqlFunctionException("Failed to invoke function " + method, e);
+    }
+  }
+
+  private MethodHandle varArity(final int numArgs) {
+    if (numArgs >= MAX_CACHED_ARITY) {
+      return varArgsSpreader(numArgs);
+    }
+
+    final MethodHandle cached = varArities.get(numArgs);
+    if (cached != null) {
+      return cached;
+    }
+
+    final MethodHandle handle = varArgsSpreader(numArgs);
+    varArities.compareAndSet(numArgs, null, handle);
+    return handle;
+  }
+
+  private MethodHandle varArgsSpreader(final int numArgs) {
+    final int numFixed = method.getParameterCount() - 1;
+    if (numArgs < numFixed) {
+      throw new KsqlFunctionException("Function " + method + " requires at least "
+          + numFixed + " arguments, got " + numArgs);
+    }
+
+    final Class<?> arrayType = method.getParameterTypes()[numFixed];
+    final MethodHandle collector = target.asCollector(arrayType, numArgs - numFixed);
+    return spreader(collector, numArgs);
+  }
+
+  /**
+   * @return a handle of type {@code (Object, Object[])Object}.
+   */
+  private static MethodHandle spreader(final MethodHandle handle, final int numArgs) {
+    return handle
+        .asType(MethodType.genericMethodType(numArgs + 1))
+        .asSpreader(Object[].class, numArgs);
+  }
+
+  /**
+   * @return a handle that takes the UDF instance followed by the method's parameters.
+   */
+  private static MethodHandle bind(final Method method) {
+    final MethodHandle handle;
+    try {
+      handle = MethodHandles.publicLookup().unreflect(method).asFixedArity();
+    } catch (final IllegalAccessException e) {
+      throw new KsqlFunctionException("Function method is not accessible: " + method, e);
+    }
+
+    if (Modifier.isStatic(method.getModifiers())) {
+      // Static methods ignore the instance, as with Method.invoke:
+      return MethodHandles.dropArguments(handle, 0, Object.class);
+    }
+    return handle;
+  }
+}
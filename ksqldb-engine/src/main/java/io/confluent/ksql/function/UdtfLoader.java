@@ -26,6 +26,7 @@ import io.confluent.ksql.util.KsqlException;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import org.apache.kafka.common.metrics.Metrics;
@@ -83,9 +84,10 @@ public class UdtfLoader {
       if (method.getAnnotation(Udtf.class) != null) {
         final Udtf annotation = method.getAnnotation(Udtf.class);
         try {
-          if (method.getReturnType() != List.class) {
+          if (method.getReturnType() != List.class
+              && method.getReturnType() != Iterator.class) {
             throw new KsqlException(String
-                .format("UDTF functions must return a List. Class %s Method %s",
+                .format("UDTF functions must return a List or an Iterator. Class %s Method %s",
                     theClass.getName(), method.getName()
                 ));
           }
@@ -93,7 +95,8 @@ public class UdtfLoader {
           if (!(ret instanceof ParameterizedType)) {
             throw new KsqlException(String
                 .format(
-                    "UDTF functions must return a parameterized List. Class %s Method %s",
+                    "UDTF functions must return a parameterized List or Iterator. "
+                        + "Class %s Method %s",
                     theClass.getName(), method.getName()
                 ));
           }
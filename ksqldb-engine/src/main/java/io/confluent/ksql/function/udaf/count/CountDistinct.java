@@ -17,10 +17,10 @@ package io.confluent.ksql.function.udaf.count;
 
 import com.clearspring.analytics.stream.cardinality.HyperLogLog;
 import com.clearspring.analytics.stream.cardinality.RegisterSet;
-import com.google.common.primitives.Ints;
 import io.confluent.ksql.function.udaf.Udaf;
 import io.confluent.ksql.function.udaf.UdafDescription;
 import io.confluent.ksql.function.udaf.UdafFactory;
+import io.confluent.ksql.util.IntArrayList;
 import java.util.List;
 
 @UdafDescription(
@@ -41,17 +41,15 @@ public final class CountDistinct {
   private CountDistinct() {
   }
 
-  // NOTE: since our UDAF framework requires the aggregate values to
-  // be serializable, and we don't support serialization of native int[],
-  // this implementation can be optimized by avoiding conversions between
-  // int[] and List<Integer> - since RegisterSet requires an int[], we would
-  // need to duplicate a lot of code to get this to be zero-copy
+  // The registers are held in an IntArrayList, which the compact state serde reads back without
+  // boxing, so each value updates the registers in place. Registers read back by other serdes
+  // are copied into an array once per update
   private static <T> Udaf<T, List<Integer>, Long> countDistinct() {
     return new Udaf<T, List<Integer>, Long>() {
 
       @Override
       public List<Integer> initialize() {
-        return Ints.asList(new int[RegisterSet.getSizeForCount(M)]);
+        return IntArrayList.wrap(new int[RegisterSet.getSizeForCount(M)]);
       }
 
       @Override
@@ -60,27 +58,27 @@ public final class CountDistinct {
           return aggregate;
         }
 
-        // this operation updates the underlying bytes
-        final int[] ints = Ints.toArray(aggregate);
-        final RegisterSet set = new RegisterSet(M, ints);
+        final int[] ints = IntArrayList.toIntArray(aggregate);
 
         // this modifies the underlying ints
-        toHyperLogLog(set).offer(current);
+        toHyperLogLog(new RegisterSet(M, ints)).offer(current);
 
-        return Ints.asList(ints);
+        return IntArrayList.wrap(ints);
       }
 
       @Override
       public List<Integer> merge(final List<Integer> aggOne, final List<Integer> aggTwo) {
-        final RegisterSet registerSet = new RegisterSet(M, Ints.toArray(aggOne));
-        registerSet.merge(new RegisterSet(M, Ints.toArray(aggTwo)));
+        final int[] ints = IntArrayList.toIntArray(aggOne);
 
-        return Ints.asList(registerSet.bits());
+        // this modifies the underlying ints
+        new RegisterSet(M, ints).merge(new RegisterSet(M, IntArrayList.toIntArray(aggTwo)));
+
+        return IntArrayList.wrap(ints);
       }
 
       @Override
       public Long map(final List<Integer> agg) {
-        return toHyperLogLog(new RegisterSet(M, Ints.toArray(agg))).cardinality();
+        return toHyperLogLog(new RegisterSet(M, IntArrayList.toIntArray(agg))).cardinality();
       }
     };
   }
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udf;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Caches the value a UDF compiles from one of its arguments, e.g. a regex pattern or a JSON path.
+ *
+ * <p>Such arguments are nearly always literals, so the same argument is passed for every row.
+ * The most recently used argument is therefore checked first, without any locking. Other
+ * arguments are held in a bounded least-recently-used cache, so a non-literal argument can't grow
+ * the cache without limit.
+ *
+ * <p>Instances are thread safe.
+ *
+ * @param <K> the type of the argument.
+ * @param <V> the type of the compiled value.
+ */
+public final class ArgumentCache<K, V> {
+
+  private final Function<? super K, ? extends V> compiler;
+  private final Cache<K, V> cache;
+  private volatile Entry<K, V> last;
+
+  /**
+   * @param maxSize the maximum number of arguments to cache.
+   * @param compiler the function to compile an argument. Any exception it throws is passed to the
+   *                 caller of {@link #get}.
+   */
+  public ArgumentCache(final int maxSize, final Function<? super K, ? extends V> compiler) {
+    this.compiler = Objects.requireNonNull(compiler, "compiler");
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .build();
+  }
+
+  /**
+   * @param arg the argument, which must not be null.
+   * @return the value compiled from the argument.
+   */
+  public V get(final K arg) {
+    Objects.requireNonNull(arg, "arg");
+
+    final Entry<K, V> entry = last;
+    if (entry != null && entry.arg.equals(arg)) {
+      return entry.value;
+    }
+
+    V value = cache.getIfPresent(arg);
+    if (value == null) {
+      value = Objects.requireNonNull(compiler.apply(arg), "compiled value");
+      cache.put(arg, value);
+    }
+
+    last = new Entry<>(arg, value);
+    return value;
+  }
+
+  private static final class Entry<K, V> {
+
+    private final K arg;
+    private final V value;
+
+    Entry(final K arg, final V value) {
+      this.arg = arg;
+      this.value = value;
+    }
+  }
+}
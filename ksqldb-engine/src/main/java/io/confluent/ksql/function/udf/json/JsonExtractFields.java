@@ -0,0 +1,53 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udf.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.confluent.ksql.function.udf.Udf;
+import io.confluent.ksql.function.udf.UdfDescription;
+import io.confluent.ksql.function.udf.UdfParameter;
+import io.confluent.ksql.util.KsqlConstants;
+import java.util.ArrayList;
+import java.util.List;
+
+@UdfDescription(
+    name = "extractjsonfields",
+    author = KsqlConstants.CONFLUENT_AUTHOR,
+    description = "Given a JSON document and any number of JSON paths, returns an array holding "
+        + "the value at each path, in the order of the paths. The document is parsed only once.")
+public class JsonExtractFields {
+
+  private final JsonExtractor extractor = new JsonExtractor();
+
+  @Udf(description = "Returns the values at the given JSON paths as strings. An element is NULL "
+      + "if its path is NULL or there is no value at the path.")
+  public List<String> extractJsonFields(
+      @UdfParameter(description = "The JSON document") final String json,
+      @UdfParameter(description = "The JSON paths to extract") final String... paths
+  ) {
+    if (json == null || paths == null) {
+      return null;
+    }
+
+    final JsonNode doc = extractor.parse(json);
+
+    final List<String> result = new ArrayList<>(paths.length);
+    for (final String path : paths) {
+      result.add(path == null ? null : JsonExtractor.extract(doc, extractor.tokenize(path)));
+    }
+    return result;
+  }
+}
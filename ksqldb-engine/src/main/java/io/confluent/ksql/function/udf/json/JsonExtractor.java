@@ -0,0 +1,120 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udf.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.function.KsqlFunctionException;
+import io.confluent.ksql.function.udf.ArgumentCache;
+import io.confluent.ksql.json.JsonMapper;
+import io.confluent.ksql.util.json.JsonPathTokenizer;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Parses JSON documents and extracts the values at JSON paths, for the JSON extraction functions.
+ *
+ * <p>Each function instance has its own extractor, so cached state is released with the query
+ * that uses it. Instances are thread safe.
+ */
+final class JsonExtractor {
+
+  private static final ObjectReader OBJECT_READER = JsonMapper.INSTANCE.mapper.reader();
+  private static final int MAX_CACHED_PATHS = 1000;
+
+  private final ArgumentCache<String, List<String>> paths = new ArgumentCache<>(
+      MAX_CACHED_PATHS,
+      path -> ImmutableList.copyOf(new JsonPathTokenizer(path))
+  );
+
+  /*
+   * The last document parsed, reused if the same String instance is passed again, e.g. when the
+   * function is called more than once for the same row.
+   */
+  private volatile ParsedDoc lastParsed;
+
+  /**
+   * @param path the JSON path.
+   * @return the tokens of the path.
+   */
+  List<String> tokenize(final String path) {
+    return paths.get(path);
+  }
+
+  /**
+   * @param json the JSON document.
+   * @return the parsed document, which must not be modified.
+   */
+  JsonNode parse(final Object json) {
+    final ParsedDoc last = lastParsed;
+    if (last != null && last.json == json) {
+      return last.node;
+    }
+
+    final String jsonString = json.toString();
+    try {
+      final JsonNode node = OBJECT_READER.readTree(jsonString);
+      lastParsed = new ParsedDoc(json, node);
+      return node;
+    } catch (final IOException e) {
+      throw new KsqlFunctionException("Invalid JSON format:" + jsonString, e);
+    }
+  }
+
+  /**
+   * @param doc the parsed JSON document.
+   * @param tokens the tokens of the JSON path to extract.
+   * @return the text of the value at the path, or {@code null} if there is no such value.
+   */
+  static String extract(final JsonNode doc, final List<String> tokens) {
+    JsonNode currentNode = doc;
+    for (final String token : tokens) {
+      if (currentNode instanceof ArrayNode) {
+        try {
+          final int index = Integer.parseInt(token);
+          currentNode = currentNode.get(index);
+        } catch (final NumberFormatException e) {
+          return null;
+        }
+      } else {
+        currentNode = currentNode.get(token);
+      }
+
+      if (currentNode == null) {
+        return null;
+      }
+    }
+
+    if (currentNode.isTextual()) {
+      return currentNode.asText();
+    } else {
+      return currentNode.toString();
+    }
+  }
+
+  private static final class ParsedDoc {
+
+    private final Object json;
+    private final JsonNode node;
+
+    ParsedDoc(final Object json, final JsonNode node) {
+      this.json = json;
+      this.node = node;
+    }
+  }
+}
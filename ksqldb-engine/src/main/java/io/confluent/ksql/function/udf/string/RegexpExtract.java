@@ -15,6 +15,7 @@
 
 package io.confluent.ksql.function.udf.string;
 
+import io.confluent.ksql.function.udf.ArgumentCache;
 import io.confluent.ksql.function.udf.Udf;
 import io.confluent.ksql.function.udf.UdfDescription;
 import io.confluent.ksql.function.udf.UdfParameter;
@@ -27,6 +28,12 @@ import java.util.regex.Pattern;
     author = KsqlConstants.CONFLUENT_AUTHOR,
     description = "extract the first subtring matched by a regex pattern")
 public class RegexpExtract {
+
+  private static final int MAX_CACHED_PATTERNS = 1000;
+
+  private final ArgumentCache<String, Pattern> patterns =
+      new ArgumentCache<>(MAX_CACHED_PATTERNS, Pattern::compile);
+
   @Udf(description = "Returns first substring of the input that matches the given regex pattern")
   public String regexpExtract(
       @UdfParameter(description = "The regex pattern") final String pattern,
@@ -47,7 +54,7 @@ public class RegexpExtract {
       return null;
     }
 
-    final Pattern p = Pattern.compile(pattern);
+    final Pattern p = patterns.get(pattern);
     final Matcher m = p.matcher(input);
 
     if (group > m.groupCount()) {
@@ -16,7 +16,10 @@
 package io.confluent.ksql.internal;
 
 import io.confluent.ksql.engine.KsqlEngine;
+import io.confluent.ksql.logging.processing.ProcessingLoggerFactory;
 import io.confluent.ksql.metrics.MetricCollectors;
+import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.util.PersistentQueryMetadata;
 import io.confluent.ksql.util.QueryMetadata;
 import io.confluent.ksql.util.ReservedInternalTopics;
 import java.io.Closeable;
@@ -24,10 +27,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Supplier;
 import org.apache.kafka.common.MetricName;
 import org.apache.kafka.common.metrics.Gauge;
@@ -36,8 +42,10 @@ import org.apache.kafka.common.metrics.MetricConfig;
 import org.apache.kafka.common.metrics.Metrics;
 import org.apache.kafka.common.metrics.Sensor;
 import org.apache.kafka.common.metrics.stats.Avg;
+import org.apache.kafka.common.metrics.stats.CumulativeSum;
 import org.apache.kafka.common.metrics.stats.Max;
 import org.apache.kafka.common.metrics.stats.Min;
+import org.apache.kafka.common.metrics.stats.Rate;
 import org.apache.kafka.common.metrics.stats.Value;
 import org.apache.kafka.streams.KafkaStreams;
 import org.apache.kafka.streams.KafkaStreams.State;
@@ -58,6 +66,7 @@ public class KsqlEngineMetrics implements Closeable {
   private final Sensor numIdleQueries;
   private final Sensor messageConsumptionByQuery;
   private final Sensor errorRate;
+  private final Map<QueryId, ProcessingErrorSensor> processingErrorsByQuery = new HashMap<>();
 
   private final String ksqlServiceId;
   private final Map<String, String> customMetricsTags;
@@ -119,6 +128,10 @@ public class KsqlEngineMetrics implements Closeable {
   public void close() {
     sensors.forEach(sensor -> metrics.removeSensor(sensor.name()));
     countMetrics.forEach(countMetric -> metrics.removeMetric(countMetric.getMetricName()));
+    synchronized (processingErrorsByQuery) {
+      processingErrorsByQuery.values().forEach(sensor -> metrics.removeSensor(sensor.name()));
+      processingErrorsByQuery.clear();
+    }
   }
 
   public void updateMetrics() {
@@ -128,6 +141,7 @@ public class KsqlEngineMetrics implements Closeable {
     recordMessagesProduced(MetricCollectors.currentProductionRate());
     recordMessageConsumptionByQueryStats(MetricCollectors.currentConsumptionRateByQuery());
     recordErrorRate(MetricCollectors.currentErrorRate());
+    recordProcessingErrorsByQuery();
   }
 
   public Metrics getMetrics() {
@@ -179,6 +193,59 @@ public class KsqlEngineMetrics implements Closeable {
     this.errorRate.record(value);
   }
 
+  private void recordProcessingErrorsByQuery() {
+    synchronized (processingErrorsByQuery) {
+      final Set<QueryId> liveQueries = new HashSet<>();
+      for (final PersistentQueryMetadata query : ksqlEngine.getPersistentQueries()) {
+        final QueryId queryId = query.getQueryId();
+        liveQueries.add(queryId);
+
+        final ProcessingLoggerFactory loggerFactory =
+            ksqlEngine.getProcessingLogContext().getLoggerFactory();
+
+        // Processing loggers are named after the query id, followed by the step:
+        processingErrorsByQuery
+            .computeIfAbsent(queryId, this::configureProcessingErrors)
+            .record(loggerFactory.getErrorCount(queryId.getId() + "."));
+      }
+
+      processingErrorsByQuery.entrySet().removeIf(e -> {
+        if (liveQueries.contains(e.getKey())) {
+          return false;
+        }
+        metrics.removeSensor(e.getValue().name());
+        return true;
+      });
+    }
+  }
+
+  private ProcessingErrorSensor configureProcessingErrors(final QueryId queryId) {
+    final Sensor sensor = metrics.sensor(
+        metricGroupName + "-" + queryId.getId() + "-processing-errors");
+
+    final Map<String, String> tags = new HashMap<>(customMetricsTags);
+    tags.put("query-id", queryId.getId());
+
+    sensor.add(
+        metrics.metricName(
+            "processing-errors-per-sec",
+            ksqlServiceId + metricGroupName,
+            "The number of errors per second written to the processing log by the query. "
+                + "Only recorded if processing log rate limiting is enabled.",
+            tags),
+        new Rate());
+    sensor.add(
+        metrics.metricName(
+            "processing-errors-total",
+            ksqlServiceId + metricGroupName,
+            "The total number of errors written to the processing log by the query. "
+                + "Only recorded if processing log rate limiting is enabled.",
+            tags),
+        new CumulativeSum());
+
+    return new ProcessingErrorSensor(sensor);
+  }
+
   private Sensor configureErrorRate() {
     final String metricName = "error-rate";
     final String description =
@@ -369,6 +436,27 @@ public class KsqlEngineMetrics implements Closeable {
     customMetrics.forEach(this::createSensor);
   }
 
+  /**
+   * Records the increase in a query's error count since it was last recorded.
+   */
+  private static final class ProcessingErrorSensor {
+    private final Sensor sensor;
+    private long lastCount;
+
+    ProcessingErrorSensor(final Sensor sensor) {
+      this.sensor = Objects.requireNonNull(sensor, "sensor");
+    }
+
+    String name() {
+      return sensor.name();
+    }
+
+    void record(final long count) {
+      sensor.record(count - lastCount);
+      lastCount = count;
+    }
+  }
+
   private static class CountMetric {
     private final Gauge<Long> count;
     private final MetricName metricName;
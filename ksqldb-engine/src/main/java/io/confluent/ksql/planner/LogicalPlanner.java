@@ -88,6 +88,7 @@ public class LogicalPlanner {
   private final FunctionRegistry functionRegistry;
   private final AggregateAnalyzer aggregateAnalyzer;
   private final ColumnReferenceRewriter refRewriter;
+  private final Optional<RequiredColumns> requiredColumns;
 
   public LogicalPlanner(
       final KsqlConfig ksqlConfig,
@@ -100,6 +101,9 @@ public class LogicalPlanner {
     this.analysis = new RewrittenAnalysis(analysis, refRewriter::process);
     this.functionRegistry = Objects.requireNonNull(functionRegistry, "functionRegistry");
     this.aggregateAnalyzer = new AggregateAnalyzer(functionRegistry);
+    this.requiredColumns = ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_SOURCE_PRUNING_ENABLED)
+        ? Optional.of(RequiredColumns.of(analysis))
+        : Optional.empty();
   }
 
   public OutputNode buildPlan() {
@@ -381,7 +385,8 @@ public class LogicalPlanner {
     final DataSourceNode sourceNode = new DataSourceNode(
         new PlanNodeId("KafkaTopic_" + side),
         source.getDataSource(),
-        source.getAlias()
+        source.getAlias(),
+        requiredColumns.flatMap(required -> required.forSource(source.getAlias()))
     );
 
     // it is always safe to build the repartition node - this operation will be
@@ -466,7 +471,8 @@ public class LogicalPlanner {
     return new DataSourceNode(
         new PlanNodeId("KsqlTopic"),
         dataSource.getDataSource(),
-        dataSource.getAlias()
+        dataSource.getAlias(),
+        requiredColumns.flatMap(required -> required.forSource(dataSource.getAlias()))
     );
   }
 
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.planner;
+
+import com.google.common.collect.ImmutableSet;
+import io.confluent.ksql.analyzer.Analysis.AliasedDataSource;
+import io.confluent.ksql.analyzer.Analysis.JoinInfo;
+import io.confluent.ksql.analyzer.ImmutableAnalysis;
+import io.confluent.ksql.analyzer.SourceSchemas;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.expression.tree.QualifiedColumnReferenceExp;
+import io.confluent.ksql.execution.expression.tree.TraversalExpressionVisitor;
+import io.confluent.ksql.execution.expression.tree.UnqualifiedColumnReferenceExp;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.parser.tree.AllColumns;
+import io.confluent.ksql.parser.tree.SelectItem;
+import io.confluent.ksql.parser.tree.SingleColumn;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The columns of each source that a query references.
+ *
+ * <p>Built from the analysis before column references are rewritten for the logical plan, so
+ * that any qualified reference still identifies its source.
+ */
+final class RequiredColumns {
+
+  private final Map<SourceName, Set<ColumnName>> columns;
+  private final Set<SourceName> allColumns;
+
+  static RequiredColumns of(final ImmutableAnalysis analysis) {
+    final Map<SourceName, Set<ColumnName>> columns = new HashMap<>();
+    final Set<SourceName> allColumns = new HashSet<>();
+    final ColumnCollector collector =
+        new ColumnCollector(analysis.getFromSourceSchemas(false), columns);
+
+    for (final SelectItem selectItem : analysis.getSelectItems()) {
+      if (selectItem instanceof SingleColumn) {
+        collector.collect(((SingleColumn) selectItem).getExpression());
+      } else if (selectItem instanceof AllColumns) {
+        final Optional<SourceName> source = ((AllColumns) selectItem).getSource();
+        if (source.isPresent()) {
+          allColumns.add(source.get());
+        } else {
+          analysis.getFromDataSources().stream()
+              .map(AliasedDataSource::getAlias)
+              .forEach(allColumns::add);
+        }
+      } else {
+        throw new IllegalArgumentException(
+            "Unsupported SelectItem type: " + selectItem.getClass().getName());
+      }
+    }
+
+    analysis.getWhereExpression().ifPresent(collector::collect);
+    analysis.getPartitionBy().ifPresent(collector::collect);
+    analysis.getGroupByExpressions().forEach(collector::collect);
+    analysis.getHavingExpression().ifPresent(collector::collect);
+
+    for (final JoinInfo join : analysis.getJoin()) {
+      collector.collect(join.getLeftJoinExpression());
+      collector.collect(join.getRightJoinExpression());
+    }
+
+    return new RequiredColumns(columns, allColumns);
+  }
+
+  private RequiredColumns(
+      final Map<SourceName, Set<ColumnName>> columns,
+      final Set<SourceName> allColumns
+  ) {
+    this.columns = Objects.requireNonNull(columns, "columns");
+    this.allColumns = Objects.requireNonNull(allColumns, "allColumns");
+  }
+
+  /**
+   * @param alias the alias of the source.
+   * @return the columns of the source the query references, or {@code Optional.empty()} if the
+   *         query requires all columns of the source, e.g. because it selects {@code *}.
+   */
+  Optional<Set<ColumnName>> forSource(final SourceName alias) {
+    if (allColumns.contains(alias)) {
+      return Optional.empty();
+    }
+
+    return Optional.of(ImmutableSet.copyOf(columns.getOrDefault(alias, ImmutableSet.of())));
+  }
+
+  private static final class ColumnCollector extends TraversalExpressionVisitor<Void> {
+
+    private final SourceSchemas sourceSchemas;
+    private final Map<SourceName, Set<ColumnName>> columns;
+
+    ColumnCollector(
+        final SourceSchemas sourceSchemas,
+        final Map<SourceName, Set<ColumnName>> columns
+    ) {
+      this.sourceSchemas = Objects.requireNonNull(sourceSchemas, "sourceSchemas");
+      this.columns = Objects.requireNonNull(columns, "columns");
+    }
+
+    void collect(final Expression expression) {
+      process(expression, null);
+    }
+
+    @Override
+    public Void visitColumnReference(
+        final UnqualifiedColumnReferenceExp node,
+        final Void context
+    ) {
+      // Unqualified references are unambiguous once analyzed, but it is safe to over-collect:
+      sourceSchemas.sourcesWithField(Optional.empty(), node.getColumnName())
+          .forEach(source -> add(source, node.getColumnName()));
+      return null;
+    }
+
+    @Override
+    public Void visitQualifiedColumnReference(
+        final QualifiedColumnReferenceExp node,
+        final Void context
+    ) {
+      add(node.getQualifier(), node.getColumnName());
+      return null;
+    }
+
+    private void add(final SourceName source, final ColumnName column) {
+      columns.computeIfAbsent(source, k -> new HashSet<>()).add(column);
+    }
+  }
+}
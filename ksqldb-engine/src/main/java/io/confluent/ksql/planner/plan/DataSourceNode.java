@@ -22,6 +22,7 @@ import com.google.errorprone.annotations.Immutable;
 import io.confluent.ksql.execution.builder.KsqlQueryBuilder;
 import io.confluent.ksql.execution.context.QueryContext;
 import io.confluent.ksql.execution.context.QueryContext.Stacker;
+import io.confluent.ksql.execution.timestamp.TimestampColumn;
 import io.confluent.ksql.metastore.model.DataSource;
 import io.confluent.ksql.metastore.model.DataSource.DataSourceType;
 import io.confluent.ksql.metastore.model.KeyField;
@@ -33,9 +34,11 @@ import io.confluent.ksql.services.KafkaTopicClient;
 import io.confluent.ksql.structured.SchemaKSourceFactory;
 import io.confluent.ksql.structured.SchemaKStream;
 import io.confluent.ksql.util.SchemaUtil;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -45,6 +48,7 @@ public class DataSourceNode extends PlanNode {
   private static final String SOURCE_OP_NAME = "Source";
 
   private final DataSource dataSource;
+  private final LogicalSchema sourceSchema;
   private final KeyField keyField;
   private final SchemaKStreamFactory schemaKStreamFactory;
 
@@ -53,7 +57,21 @@ public class DataSourceNode extends PlanNode {
       final DataSource dataSource,
       final SourceName alias
   ) {
-    this(id, dataSource, alias, SchemaKSourceFactory::buildSource);
+    this(id, dataSource, alias, Optional.empty());
+  }
+
+  /**
+   * @param requiredColumns the value columns of the source the query uses, if known. If
+   *        supplied, and the source's value format supports it, only these columns, plus any
+   *        timestamp and key field columns, are deserialized.
+   */
+  public DataSourceNode(
+      final PlanNodeId id,
+      final DataSource dataSource,
+      final SourceName alias,
+      final Optional<Set<ColumnName>> requiredColumns
+  ) {
+    this(id, dataSource, alias, requiredColumns, SchemaKSourceFactory::buildSource);
   }
 
   DataSourceNode(
@@ -62,8 +80,40 @@ public class DataSourceNode extends PlanNode {
       final SourceName alias,
       final SchemaKStreamFactory schemaKStreamFactory
   ) {
-    super(id, dataSource.getDataSourceType(), buildSchema(dataSource), Optional.of(alias));
+    this(id, dataSource, alias, Optional.empty(), schemaKStreamFactory);
+  }
+
+  DataSourceNode(
+      final PlanNodeId id,
+      final DataSource dataSource,
+      final SourceName alias,
+      final Optional<Set<ColumnName>> requiredColumns,
+      final SchemaKStreamFactory schemaKStreamFactory
+  ) {
+    this(
+        id,
+        dataSource,
+        buildSourceSchema(dataSource, requiredColumns),
+        alias,
+        schemaKStreamFactory
+    );
+  }
+
+  private DataSourceNode(
+      final PlanNodeId id,
+      final DataSource dataSource,
+      final LogicalSchema sourceSchema,
+      final SourceName alias,
+      final SchemaKStreamFactory schemaKStreamFactory
+  ) {
+    super(
+        id,
+        dataSource.getDataSourceType(),
+        buildSchema(dataSource, sourceSchema),
+        Optional.of(alias)
+    );
     this.dataSource = requireNonNull(dataSource, "dataSource");
+    this.sourceSchema = requireNonNull(sourceSchema, "sourceSchema");
 
     this.keyField = dataSource.getKeyField()
         .validateKeyExistsIn(getSchema());
@@ -80,6 +130,13 @@ public class DataSourceNode extends PlanNode {
     return dataSource;
   }
 
+  /**
+   * @return the schema of the source, excluding any value columns the query does not use.
+   */
+  public LogicalSchema getSourceSchema() {
+    return sourceSchema;
+  }
+
   public SourceName getAlias() {
     return getSourceName().orElseThrow(IllegalStateException::new);
   }
@@ -113,6 +170,7 @@ public class DataSourceNode extends PlanNode {
     return schemaKStreamFactory.create(
         builder,
         dataSource,
+        sourceSchema,
         contextStacker.push(SOURCE_OP_NAME),
         keyField
     );
@@ -132,14 +190,45 @@ public class DataSourceNode extends PlanNode {
         : orderColumns(getSchema().value(), getSchema());
   }
 
-  private static LogicalSchema buildSchema(final DataSource dataSource) {
+  private static LogicalSchema buildSchema(
+      final DataSource dataSource,
+      final LogicalSchema sourceSchema
+  ) {
     // DataSourceNode copies implicit and key fields into the value schema
     // It users a KS valueMapper to add the key fields
     // and a KS transformValues to add the implicit fields
-    return dataSource.getSchema()
+    return sourceSchema
         .withMetaAndKeyColsInValue(dataSource.getKsqlTopic().getKeyFormat().isWindowed());
   }
 
+  private static LogicalSchema buildSourceSchema(
+      final DataSource dataSource,
+      final Optional<Set<ColumnName>> requiredColumns
+  ) {
+    final LogicalSchema schema = dataSource.getSchema();
+    if (!requiredColumns.isPresent()
+        || !dataSource.getKsqlTopic().getValueFormat().getFormat().supportsFieldProjection()) {
+      return schema;
+    }
+
+    final Set<ColumnName> retained = new HashSet<>(requiredColumns.get());
+    dataSource.getTimestampColumn()
+        .map(TimestampColumn::getColumn)
+        .ifPresent(retained::add);
+    dataSource.getKeyField().ref()
+        .ifPresent(retained::add);
+
+    if (!schema.valueContainsAny(retained)) {
+      // Retain one column, so that values always deserialize to a non-empty row:
+      schema.value().stream()
+          .findFirst()
+          .map(Column::name)
+          .ifPresent(retained::add);
+    }
+
+    return schema.withOnlyValueColumns(retained);
+  }
+
   private static Stream<ColumnName> orderColumns(
       final List<Column> columns,
       final LogicalSchema schema
@@ -161,6 +250,7 @@ public class DataSourceNode extends PlanNode {
     SchemaKStream<?> create(
         KsqlQueryBuilder builder,
         DataSource dataSource,
+        LogicalSchema sourceSchema,
         QueryContext.Stacker contextStacker,
         KeyField keyField
     );
@@ -81,6 +81,7 @@ public final class QueryExecutor {
   private final FunctionRegistry functionRegistry;
   private final KafkaStreamsBuilder kafkaStreamsBuilder;
   private final Consumer<QueryMetadata> queryCloseCallback;
+  private final ScalablePushRegistry scalablePushRegistry;
   private final KsMaterializationFactory ksMaterializationFactory;
   private final KsqlMaterializationFactory ksqlMaterializationFactory;
   private final StreamsBuilder streamsBuilder;
@@ -91,7 +92,8 @@ public final class QueryExecutor {
       final ProcessingLogContext processingLogContext,
       final ServiceContext serviceContext,
       final FunctionRegistry functionRegistry,
-      final Consumer<QueryMetadata> queryCloseCallback) {
+      final Consumer<QueryMetadata> queryCloseCallback,
+      final ScalablePushRegistry scalablePushRegistry) {
     this(
         ksqlConfig,
         overrides,
@@ -99,6 +101,7 @@ public final class QueryExecutor {
         serviceContext,
         functionRegistry,
         queryCloseCallback,
+        scalablePushRegistry,
         new KafkaStreamsBuilderImpl(
             Objects.requireNonNull(serviceContext, "serviceContext").getKafkaClientSupplier()),
         new StreamsBuilder(),
@@ -114,6 +117,7 @@ public final class QueryExecutor {
       final ServiceContext serviceContext,
       final FunctionRegistry functionRegistry,
       final Consumer<QueryMetadata> queryCloseCallback,
+      final ScalablePushRegistry scalablePushRegistry,
       final KafkaStreamsBuilder kafkaStreamsBuilder,
       final StreamsBuilder streamsBuilder,
       final KsqlMaterializationFactory ksqlMaterializationFactory,
@@ -130,6 +134,10 @@ public final class QueryExecutor {
         queryCloseCallback,
         "queryCloseCallback"
     );
+    this.scalablePushRegistry = Objects.requireNonNull(
+        scalablePushRegistry,
+        "scalablePushRegistry"
+    );
     this.ksMaterializationFactory = Objects.requireNonNull(
         ksMaterializationFactory,
         "ksMaterializationFactory"
@@ -177,7 +185,7 @@ public final class QueryExecutor {
         built.topology,
         streamsProperties,
         overrides,
-        queryCloseCallback,
+        closeCallback(queryId),
         ksqlConfig.getLong(KSQL_SHUTDOWN_TIMEOUT_MS_CONFIG)
     );
   }
@@ -234,7 +242,7 @@ public final class QueryExecutor {
         built.topology,
         streamsProperties,
         overrides,
-        queryCloseCallback,
+        closeCallback(queryId),
         ksqlConfig.getLong(KSQL_SHUTDOWN_TIMEOUT_MS_CONFIG)
     ) {
       @Override
@@ -262,6 +270,9 @@ public final class QueryExecutor {
     final KsqlQueryBuilder ksqlQueryBuilder = queryBuilder(queryId);
     final PlanBuilder planBuilder = new KSPlanBuilder(ksqlQueryBuilder);
     final Object result = physicalPlan.build(planBuilder);
+    if (ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PUSH_SCALABLE_ENABLED)) {
+      publishForScalablePush(queryId, sinkDataSource, result);
+    }
     final String persistenceQueryPrefix =
         ksqlConfig.getString(KsqlConfig.KSQL_PERSISTENT_QUERY_NAME_PREFIX_CONFIG);
     final String applicationId = getQueryApplicationId(
@@ -302,10 +313,28 @@ public final class QueryExecutor {
         ksqlQueryBuilder.getSchemas(),
         streamsProperties,
         overrides,
-        queryCloseCallback,
+        closeCallback(queryId),
         ksqlConfig.getLong(KSQL_SHUTDOWN_TIMEOUT_MS_CONFIG));
   }
 
+  private void publishForScalablePush(
+      final QueryId queryId,
+      final DataSource sinkDataSource,
+      final Object result
+  ) {
+    // Subscribers see rows as a source would, so only streams with record timestamps qualify:
+    if (!(result instanceof KStreamHolder<?>)
+        || sinkDataSource.getKsqlTopic().getKeyFormat().isWindowed()
+        || sinkDataSource.getTimestampColumn().isPresent()) {
+      return;
+    }
+
+    final KStream<?, GenericRow> stream = ((KStreamHolder<?>) result).getStream();
+    scalablePushRegistry
+        .register(queryId, sinkDataSource.getName(), sinkDataSource.getSchema())
+        .ifPresent(publisher -> stream.process(publisher));
+  }
+
   private TransientQueryQueue buildTransientQueryQueue(
       final QueryId queryId,
       final ExecutionStep<?> physicalPlan,
@@ -325,6 +354,14 @@ public final class QueryExecutor {
     return new TransientQueryQueue(kstream, limit);
   }
 
+  private Consumer<QueryMetadata> closeCallback(final QueryId queryId) {
+    return query -> {
+      // Summarize any suppressed errors and release the query's processing loggers:
+      processingLogContext.getLoggerFactory().closeLoggers(queryId.toString());
+      queryCloseCallback.accept(query);
+    };
+  }
+
   private KsqlQueryBuilder queryBuilder(final QueryId queryId) {
     return KsqlQueryBuilder.of(
         streamsBuilder,
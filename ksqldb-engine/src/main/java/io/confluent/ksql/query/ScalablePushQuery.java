@@ -0,0 +1,131 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import static java.util.Objects.requireNonNull;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.transform.KsqlProcessingContext;
+import io.confluent.ksql.execution.transform.KsqlTransformer;
+import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A push query served by subscribing to the rows a persistent query publishes to the
+ * {@link ScalablePushRegistry}, rather than by its own Kafka Streams application.
+ */
+public final class ScalablePushQuery {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ScalablePushQuery.class);
+
+  private final QueryId queryId;
+  private final SourceName sourceName;
+  private final LogicalSchema logicalSchema;
+  private final KsqlTransformer<Object, Optional<GenericRow>> transformer;
+  private final ScalablePushSubscriber subscriber;
+  private final Consumer<ScalablePushQuery> onStart;
+  private final Consumer<ScalablePushQuery> onClose;
+  private final AtomicBoolean started = new AtomicBoolean(false);
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+
+  ScalablePushQuery(
+      final QueryId queryId,
+      final SourceName sourceName,
+      final LogicalSchema logicalSchema,
+      final KsqlTransformer<Object, Optional<GenericRow>> transformer,
+      final ScalablePushSubscriber subscriber,
+      final Consumer<ScalablePushQuery> onStart,
+      final Consumer<ScalablePushQuery> onClose
+  ) {
+    this.queryId = requireNonNull(queryId, "queryId");
+    this.sourceName = requireNonNull(sourceName, "sourceName");
+    this.logicalSchema = requireNonNull(logicalSchema, "logicalSchema");
+    this.transformer = requireNonNull(transformer, "transformer");
+    this.subscriber = requireNonNull(subscriber, "subscriber");
+    this.onStart = requireNonNull(onStart, "onStart");
+    this.onClose = requireNonNull(onClose, "onClose");
+  }
+
+  public QueryId getQueryId() {
+    return queryId;
+  }
+
+  public SourceName getSourceName() {
+    return sourceName;
+  }
+
+  /**
+   * @return the schema of the rows passed to the subscriber, which only has value columns.
+   */
+  public LogicalSchema getLogicalSchema() {
+    return logicalSchema;
+  }
+
+  public boolean isRunning() {
+    return started.get() && !closed.get();
+  }
+
+  /**
+   * Starts delivering rows to the subscriber. Only rows published after this call are delivered.
+   */
+  public void start() {
+    if (!closed.get() && started.compareAndSet(false, true)) {
+      onStart.accept(this);
+    }
+  }
+
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      onClose.accept(this);
+    }
+  }
+
+  /**
+   * Ends the query because no persistent query publishes the rows of its source any more, and
+   * tells the subscriber that no more rows will be delivered.
+   */
+  void complete() {
+    if (closed.compareAndSet(false, true)) {
+      onClose.accept(this);
+      subscriber.onComplete();
+    }
+  }
+
+  /**
+   * Filter, project and deliver a published row.
+   *
+   * @param key the key of the row.
+   * @param row the row, with the source's timestamp and key columns appended to its values.
+   * @param ctx the processing context of the row.
+   * @return {@code false} if the row passed the filter but the subscriber dropped it.
+   */
+  boolean accept(final Object key, final GenericRow row, final KsqlProcessingContext ctx) {
+    try {
+      final Optional<GenericRow> result = transformer.transform(key, row, ctx);
+      return !result.isPresent() || subscriber.offer(result.get());
+    } catch (final RuntimeException e) {
+      // Never let one subscriber fail the persistent query publishing the rows:
+      LOG.error("Closing scalable push query {} after it failed to process a row", queryId, e);
+      close();
+      return true;
+    }
+  }
+}
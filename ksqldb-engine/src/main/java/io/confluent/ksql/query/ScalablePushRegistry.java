@@ -0,0 +1,340 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.transform.KsqlProcessingContext;
+import io.confluent.ksql.execution.transform.KsqlTransformer;
+import io.confluent.ksql.metrics.MetricCollectors;
+import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Gauge;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.Avg;
+import org.apache.kafka.common.metrics.stats.CumulativeSum;
+import org.apache.kafka.common.metrics.stats.Max;
+import org.apache.kafka.common.utils.Time;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.processor.AbstractProcessor;
+import org.apache.kafka.streams.processor.ProcessorSupplier;
+
+/**
+ * In-process fan-out of the rows persistent queries write to their sink streams.
+ *
+ * <p>Persistent queries writing a non-windowed stream register as producers for their sink and
+ * publish each output row to the registry from their {@code StreamThread}. Push queries that
+ * only filter and project such a stream subscribe as a {@link ScalablePushQuery}, so serving
+ * them needs no consumer group or Kafka Streams application of their own.
+ *
+ * <p>A subscriber only sees the rows of the tasks running in this JVM, so push queries only
+ * subscribe if this server runs every task of each producer, and subscribers are completed as
+ * soon as any task of a producer is closed, e.g. because a rebalance moved it to another server.
+ *
+ * <p>Rows are published as they are processed, before they are written to the sink topic and
+ * outside of any transaction, so delivery is at-least-once: a row may be delivered again, or be
+ * delivered although its transaction is later aborted, if the producer fails or rebalances.
+ */
+public final class ScalablePushRegistry {
+
+  private static final String METRIC_GROUP = "ksql-scalable-push-query";
+  private static final double NANOS_PER_MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private static final ScalablePushRegistry DISABLED =
+      new ScalablePushRegistry(new Metrics(), Time.SYSTEM, false);
+
+  private final Map<SourceName, SourcePublisher> publishers = new ConcurrentHashMap<>();
+  private final Metrics metrics;
+  private final Time time;
+  private final boolean enabled;
+  private final MetricName totalSubscriberCount;
+
+  public static ScalablePushRegistry create() {
+    return new ScalablePushRegistry(MetricCollectors.getMetrics(), MetricCollectors.getTime());
+  }
+
+  /**
+   * @return a registry that publishes no rows, so push queries never subscribe to it. Shared by
+   *     engine sandboxes, whose persistent queries are never started.
+   */
+  public static ScalablePushRegistry disabled() {
+    return DISABLED;
+  }
+
+  public ScalablePushRegistry(final Metrics metrics, final Time time) {
+    this(metrics, time, true);
+  }
+
+  private ScalablePushRegistry(final Metrics metrics, final Time time, final boolean enabled) {
+    this.metrics = requireNonNull(metrics, "metrics");
+    this.time = requireNonNull(time, "time");
+    this.enabled = enabled;
+    this.totalSubscriberCount = metrics.metricName(
+        "subscriber-count-total",
+        METRIC_GROUP,
+        "The number of scalable push queries on this node"
+    );
+    addGauge(totalSubscriberCount, () -> publishers.values().stream()
+        .mapToInt(publisher -> publisher.subscribers.size())
+        .sum());
+  }
+
+  /**
+   * Register a persistent query as a producer of rows for its sink.
+   *
+   * @param queryId the id of the persistent query.
+   * @param sinkName the name of the stream the query writes to.
+   * @param sinkSchema the schema of the stream the query writes to.
+   * @return the processor the query should pass its output rows to, or empty if rows of the sink
+   *     can not be published.
+   */
+  public Optional<ProcessorSupplier<Object, GenericRow>> register(
+      final QueryId queryId,
+      final SourceName sinkName,
+      final LogicalSchema sinkSchema
+  ) {
+    if (!enabled || sinkSchema.keyConnectSchema().fields().size() != 1) {
+      return Optional.empty();
+    }
+
+    final SourcePublisher publisher = publishers.compute(sinkName, (name, existing) -> {
+      final SourcePublisher result;
+      if (existing != null && existing.schema.equals(sinkSchema)) {
+        result = existing;
+      } else {
+        if (existing != null) {
+          existing.close();
+        }
+        result = new SourcePublisher(name, sinkSchema);
+      }
+      result.producers.add(queryId);
+      return result;
+    });
+
+    return Optional.of(() -> new Publisher(publisher));
+  }
+
+  /**
+   * Remove a persistent query from the producers of its sink.
+   *
+   * <p>Once the last producer of a sink is removed, its subscribers are completed, as no more
+   * rows will be published to them.
+   *
+   * @param queryId the id of the persistent query.
+   */
+  public void unregister(final QueryId queryId) {
+    for (final SourceName name : publishers.keySet()) {
+      publishers.computeIfPresent(name, (n, publisher) -> {
+        publisher.producers.remove(queryId);
+        if (!publisher.producers.isEmpty()) {
+          return publisher;
+        }
+        publisher.close();
+        return null;
+      });
+    }
+  }
+
+  /**
+   * Subscribe to the rows published for a source.
+   *
+   * <p>The returned query delivers nothing until it is started.
+   *
+   * @param queryId the id of the push query.
+   * @param sourceName the source the push query reads.
+   * @param sourceSchema the schema of the source the push query was planned against.
+   * @param runsAllTasks tests if this server runs every task of a persistent query.
+   * @param resultSchema the schema of the rows the push query produces.
+   * @param transformer the filter and projection of the push query. It is passed rows with the
+   *     timestamp and key columns appended to their values.
+   * @param subscriber the subscriber to deliver rows to.
+   * @return the push query, or empty if no running persistent query publishes rows of the source
+   *     with the supplied schema, or if any task of such a query runs on another server.
+   */
+  public Optional<ScalablePushQuery> subscribe(
+      final QueryId queryId,
+      final SourceName sourceName,
+      final LogicalSchema sourceSchema,
+      final Predicate<QueryId> runsAllTasks,
+      final LogicalSchema resultSchema,
+      final KsqlTransformer<Object, Optional<GenericRow>> transformer,
+      final ScalablePushSubscriber subscriber
+  ) {
+    final SourcePublisher publisher = publishers.get(sourceName);
+    if (publisher == null
+        || publisher.producers.isEmpty()
+        || !publisher.schema.equals(sourceSchema)
+        || !publisher.producers.stream().allMatch(runsAllTasks)) {
+      return Optional.empty();
+    }
+
+    return Optional.of(new ScalablePushQuery(
+        queryId,
+        sourceName,
+        resultSchema,
+        transformer,
+        subscriber,
+        publisher.subscribers::add,
+        publisher.subscribers::remove
+    ));
+  }
+
+  public void close() {
+    publishers.values().forEach(SourcePublisher::close);
+    publishers.clear();
+    metrics.removeMetric(totalSubscriberCount);
+  }
+
+  private void addGauge(final MetricName metricName, final Supplier<Integer> value) {
+    // Replace any metric left by another engine sharing the same metrics instance:
+    metrics.removeMetric(metricName);
+    metrics.addMetric(metricName, (Gauge<Integer>) (config, now) -> value.get());
+  }
+
+  private final class SourcePublisher {
+
+    private final SourceName name;
+    private final LogicalSchema schema;
+    private final Field keyField;
+    private final Set<QueryId> producers = ConcurrentHashMap.newKeySet();
+    private final List<ScalablePushQuery> subscribers = new CopyOnWriteArrayList<>();
+    private final MetricName subscriberCount;
+    private final Sensor fanOutLatency;
+    private final Sensor droppedRows;
+
+    SourcePublisher(final SourceName name, final LogicalSchema schema) {
+      this.name = requireNonNull(name, "name");
+      this.schema = requireNonNull(schema, "schema");
+      this.keyField = schema.keyConnectSchema().fields().get(0);
+
+      final Map<String, String> tags = ImmutableMap.of("source", name.text());
+
+      this.subscriberCount = metrics.metricName(
+          "subscriber-count",
+          METRIC_GROUP,
+          "The number of scalable push queries subscribed to the source",
+          tags
+      );
+      addGauge(subscriberCount, subscribers::size);
+
+      this.fanOutLatency = createSensor("fan-out-latency");
+      fanOutLatency.add(
+          metrics.metricName(
+              "fan-out-latency-avg",
+              METRIC_GROUP,
+              "The average time in milliseconds taken to deliver a row to all subscribers",
+              tags),
+          new Avg()
+      );
+      fanOutLatency.add(
+          metrics.metricName(
+              "fan-out-latency-max",
+              METRIC_GROUP,
+              "The maximum time in milliseconds taken to deliver a row to all subscribers",
+              tags),
+          new Max()
+      );
+
+      this.droppedRows = createSensor("dropped-rows");
+      droppedRows.add(
+          metrics.metricName(
+              "dropped-rows-total",
+              METRIC_GROUP,
+              "The number of rows dropped because a subscriber's buffer was full",
+              tags),
+          new CumulativeSum()
+      );
+    }
+
+    void publish(final Object key, final GenericRow value, final long rowTime) {
+      if (subscribers.isEmpty()) {
+        return;
+      }
+
+      final long start = time.nanoseconds();
+
+      // Lay the row out as a source would, so plans built against the source apply unchanged:
+      final GenericRow row = new GenericRow(value.size() + 2);
+      row.appendAll(value.values());
+      row.append(rowTime);
+      row.append(key instanceof Struct ? ((Struct) key).get(keyField) : null);
+
+      final KsqlProcessingContext ctx = () -> rowTime;
+      for (final ScalablePushQuery subscriber : subscribers) {
+        if (!subscriber.accept(key, row, ctx)) {
+          droppedRows.record();
+        }
+      }
+
+      fanOutLatency.record((time.nanoseconds() - start) / NANOS_PER_MS);
+    }
+
+    void completeSubscribers() {
+      subscribers.forEach(ScalablePushQuery::complete);
+    }
+
+    void close() {
+      completeSubscribers();
+      metrics.removeMetric(subscriberCount);
+      metrics.removeSensor(fanOutLatency.name());
+      metrics.removeSensor(droppedRows.name());
+    }
+
+    private Sensor createSensor(final String sensorName) {
+      final String fullName = METRIC_GROUP + "-" + name.text() + "-" + sensorName;
+      metrics.removeSensor(fullName);
+      return metrics.sensor(fullName);
+    }
+  }
+
+  private static final class Publisher extends AbstractProcessor<Object, GenericRow> {
+
+    private final SourcePublisher publisher;
+
+    Publisher(final SourcePublisher publisher) {
+      this.publisher = requireNonNull(publisher, "publisher");
+    }
+
+    @Override
+    public void process(final Object key, final GenericRow value) {
+      if (value == null) {
+        return;
+      }
+
+      publisher.publish(key, value, context().timestamp());
+    }
+
+    @Override
+    public void close() {
+      // The task may be moving to another server, whose rows subscribers would silently miss:
+      publisher.completeSubscribers();
+    }
+  }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import io.confluent.ksql.GenericRow;
+
+/**
+ * Receives the rows of a {@link ScalablePushQuery}.
+ *
+ * <p>Rows are offered from the {@code StreamThread} of the persistent query that produced them,
+ * which is shared by every subscriber of the source, so implementations must never block.
+ */
+public interface ScalablePushSubscriber {
+
+  /**
+   * Offer a row to the subscriber.
+   *
+   * @param row the row.
+   * @return {@code false} if the subscriber's buffer is full and the row was dropped.
+   */
+  boolean offer(GenericRow row);
+
+  /**
+   * Called once no persistent query publishes the rows of the source any more, e.g. because the
+   * query writing it was terminated. No more rows are offered after this call.
+   */
+  void onComplete();
+}
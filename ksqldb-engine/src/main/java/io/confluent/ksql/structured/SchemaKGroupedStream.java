@@ -20,6 +20,7 @@ import io.confluent.ksql.execution.expression.tree.FunctionCall;
 import io.confluent.ksql.execution.plan.ExecutionStep;
 import io.confluent.ksql.execution.plan.KGroupedStreamHolder;
 import io.confluent.ksql.execution.plan.KTableHolder;
+import io.confluent.ksql.execution.streams.AggregateParamsFactory;
 import io.confluent.ksql.execution.streams.ExecutionStepFactory;
 import io.confluent.ksql.execution.streams.StepSchemaResolver;
 import io.confluent.ksql.function.FunctionRegistry;
@@ -32,10 +33,12 @@ import io.confluent.ksql.serde.FormatInfo;
 import io.confluent.ksql.serde.KeyFormat;
 import io.confluent.ksql.serde.SerdeOption;
 import io.confluent.ksql.serde.ValueFormat;
+import io.confluent.ksql.serde.compact.CompactRowSerde;
 import io.confluent.ksql.util.KsqlConfig;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 public class SchemaKGroupedStream {
 
@@ -80,13 +83,14 @@ public class SchemaKGroupedStream {
   ) {
     final ExecutionStep<? extends KTableHolder<?>> step;
     final KeyFormat keyFormat;
+    final Set<SerdeOption> stateOptions = aggregateStateOptions(nonAggregateColumns, aggregations);
 
     if (windowExpression.isPresent()) {
       keyFormat = getKeyFormat(windowExpression.get());
       step = ExecutionStepFactory.streamWindowedAggregate(
           contextStacker,
           sourceStep,
-          io.confluent.ksql.execution.plan.Formats.of(keyFormat, valueFormat, SerdeOption.none()),
+          io.confluent.ksql.execution.plan.Formats.of(keyFormat, valueFormat, stateOptions),
           nonAggregateColumns,
           aggregations,
           windowExpression.get().getKsqlWindowExpression()
@@ -96,7 +100,7 @@ public class SchemaKGroupedStream {
       step = ExecutionStepFactory.streamAggregate(
           contextStacker,
           sourceStep,
-          io.confluent.ksql.execution.plan.Formats.of(keyFormat, valueFormat, SerdeOption.none()),
+          io.confluent.ksql.execution.plan.Formats.of(keyFormat, valueFormat, stateOptions),
           nonAggregateColumns,
           aggregations
       );
@@ -112,6 +116,29 @@ public class SchemaKGroupedStream {
     );
   }
 
+  /**
+   * Determine the serde options of the aggregation's state store.
+   *
+   * <p>The options are stored in the plan, so the layout of the state of existing queries does
+   * not change if the config does.
+   */
+  Set<SerdeOption> aggregateStateOptions(
+      final List<ColumnName> nonAggregateColumns,
+      final List<FunctionCall> aggregations
+  ) {
+    if (!ksqlConfig.getBoolean(KsqlConfig.KSQL_AGGREGATE_COMPACT_STATE_ENABLED)) {
+      return SerdeOption.none();
+    }
+
+    final LogicalSchema aggregateSchema = new AggregateParamsFactory()
+        .create(schema, nonAggregateColumns, functionRegistry, aggregations, false)
+        .getAggregateSchema();
+
+    return CompactRowSerde.supports(aggregateSchema.valueConnectSchema())
+        ? SerdeOption.of(SerdeOption.COMPACT_STATE)
+        : SerdeOption.none();
+  }
+
   private static KeyFormat getKeyFormat(final WindowExpression windowExpression) {
     return KeyFormat.windowed(
         FormatInfo.of(FormatFactory.KAFKA.name()),
@@ -32,7 +32,6 @@ import io.confluent.ksql.name.FunctionName;
 import io.confluent.ksql.parser.tree.WindowExpression;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.serde.KeyFormat;
-import io.confluent.ksql.serde.SerdeOption;
 import io.confluent.ksql.serde.ValueFormat;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
@@ -98,7 +97,11 @@ public class SchemaKGroupedTable extends SchemaKGroupedStream {
     final TableAggregate step = ExecutionStepFactory.tableAggregate(
         contextStacker,
         sourceTableStep,
-        Formats.of(keyFormat, valueFormat, SerdeOption.none()),
+        Formats.of(
+            keyFormat,
+            valueFormat,
+            aggregateStateOptions(nonAggregateColumns, aggregations)
+        ),
         nonAggregateColumns,
         aggregations
     );
@@ -48,6 +48,22 @@ public final class SchemaKSourceFactory {
       final DataSource dataSource,
       final QueryContext.Stacker contextStacker,
       final KeyField keyField
+  ) {
+    return buildSource(builder, dataSource, dataSource.getSchema(), contextStacker, keyField);
+  }
+
+  /**
+   * Builds a source that only deserializes the columns in the supplied {@code sourceSchema}.
+   *
+   * @param sourceSchema the schema of {@code dataSource}, optionally with some value columns
+   *        removed.
+   */
+  public static SchemaKStream<?> buildSource(
+      final KsqlQueryBuilder builder,
+      final DataSource dataSource,
+      final LogicalSchema sourceSchema,
+      final QueryContext.Stacker contextStacker,
+      final KeyField keyField
   ) {
     final boolean windowed = dataSource.getKsqlTopic().getKeyFormat().isWindowed();
     switch (dataSource.getDataSourceType()) {
@@ -56,11 +72,13 @@ public final class SchemaKSourceFactory {
             ? buildWindowedStream(
             builder,
             dataSource,
+            sourceSchema,
             contextStacker,
             keyField
         ) : buildStream(
             builder,
             dataSource,
+            sourceSchema,
             contextStacker,
             keyField
         );
@@ -70,11 +88,13 @@ public final class SchemaKSourceFactory {
             ? buildWindowedTable(
             builder,
             dataSource,
+            sourceSchema,
             contextStacker,
             keyField
         ) : buildTable(
             builder,
             dataSource,
+            sourceSchema,
             contextStacker,
             keyField
         );
@@ -87,6 +107,7 @@ public final class SchemaKSourceFactory {
   private static SchemaKStream<?> buildWindowedStream(
       final KsqlQueryBuilder builder,
       final DataSource dataSource,
+      final LogicalSchema sourceSchema,
       final Stacker contextStacker,
       final KeyField keyField
   ) {
@@ -95,7 +116,7 @@ public final class SchemaKSourceFactory {
 
     final WindowedStreamSource step = ExecutionStepFactory.streamSourceWindowed(
         contextStacker,
-        dataSource.getSchema(),
+        sourceSchema,
         dataSource.getKafkaTopicName(),
         buildFormats(dataSource),
         windowInfo,
@@ -104,7 +125,7 @@ public final class SchemaKSourceFactory {
 
     return schemaKStream(
         builder,
-        resolveSchema(builder, step, dataSource),
+        resolveSchema(builder, step, sourceSchema),
         dataSource.getKsqlTopic().getKeyFormat(),
         step,
         keyField
@@ -114,6 +135,7 @@ public final class SchemaKSourceFactory {
   private static SchemaKStream<?> buildStream(
       final KsqlQueryBuilder builder,
       final DataSource dataSource,
+      final LogicalSchema sourceSchema,
       final Stacker contextStacker,
       final KeyField keyField
   ) {
@@ -123,7 +145,7 @@ public final class SchemaKSourceFactory {
 
     final StreamSource step = ExecutionStepFactory.streamSource(
         contextStacker,
-        dataSource.getSchema(),
+        sourceSchema,
         dataSource.getKafkaTopicName(),
         buildFormats(dataSource),
         dataSource.getTimestampColumn()
@@ -131,7 +153,7 @@ public final class SchemaKSourceFactory {
 
     return schemaKStream(
         builder,
-        resolveSchema(builder, step, dataSource),
+        resolveSchema(builder, step, sourceSchema),
         dataSource.getKsqlTopic().getKeyFormat(),
         step,
         keyField
@@ -141,6 +163,7 @@ public final class SchemaKSourceFactory {
   private static SchemaKTable<?> buildWindowedTable(
       final KsqlQueryBuilder builder,
       final DataSource dataSource,
+      final LogicalSchema sourceSchema,
       final Stacker contextStacker,
       final KeyField keyField
   ) {
@@ -149,7 +172,7 @@ public final class SchemaKSourceFactory {
 
     final WindowedTableSource step = ExecutionStepFactory.tableSourceWindowed(
         contextStacker,
-        dataSource.getSchema(),
+        sourceSchema,
         dataSource.getKafkaTopicName(),
         buildFormats(dataSource),
         windowInfo,
@@ -158,7 +181,7 @@ public final class SchemaKSourceFactory {
 
     return schemaKTable(
         builder,
-        resolveSchema(builder, step, dataSource),
+        resolveSchema(builder, step, sourceSchema),
         dataSource.getKsqlTopic().getKeyFormat(),
         step,
         keyField
@@ -168,6 +191,7 @@ public final class SchemaKSourceFactory {
   private static SchemaKTable<?> buildTable(
       final KsqlQueryBuilder builder,
       final DataSource dataSource,
+      final LogicalSchema sourceSchema,
       final Stacker contextStacker,
       final KeyField keyField
   ) {
@@ -177,7 +201,7 @@ public final class SchemaKSourceFactory {
 
     final TableSource step = ExecutionStepFactory.tableSource(
         contextStacker,
-        dataSource.getSchema(),
+        sourceSchema,
         dataSource.getKafkaTopicName(),
         buildFormats(dataSource),
         dataSource.getTimestampColumn()
@@ -185,7 +209,7 @@ public final class SchemaKSourceFactory {
 
     return schemaKTable(
         builder,
-        resolveSchema(builder, step, dataSource),
+        resolveSchema(builder, step, sourceSchema),
         dataSource.getKsqlTopic().getKeyFormat(),
         step,
         keyField
@@ -237,8 +261,8 @@ public final class SchemaKSourceFactory {
   private static LogicalSchema resolveSchema(
       final KsqlQueryBuilder queryBuilder,
       final ExecutionStep<?> step,
-      final DataSource dataSource) {
+      final LogicalSchema sourceSchema) {
     return new StepSchemaResolver(queryBuilder.getKsqlConfig(), queryBuilder.getFunctionRegistry())
-        .resolve(step, dataSource.getSchema());
+        .resolve(step, sourceSchema);
   }
 }
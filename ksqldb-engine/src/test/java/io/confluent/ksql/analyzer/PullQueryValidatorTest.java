@@ -27,7 +27,6 @@ import io.confluent.ksql.parser.tree.ResultMaterialization;
 import io.confluent.ksql.parser.tree.WindowExpression;
 import io.confluent.ksql.util.KsqlException;
 import java.util.Optional;
-import java.util.OptionalInt;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -148,17 +147,4 @@ public class PullQueryValidatorTest {
     // When:
     validator.validate(analysis);
   }
-
-  @Test
-  public void shouldThrowOnLimitClause() {
-    // Given:
-    when(analysis.getLimitClause()).thenReturn(OptionalInt.of(1));
-
-    // Then:
-    expectedException.expect(KsqlException.class);
-    expectedException.expectMessage("Pull queries don't support LIMIT clauses.");
-
-    // When:
-    validator.validate(analysis);
-  }
 }
\ No newline at end of file
@@ -37,12 +37,14 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
+import com.google.common.collect.ImmutableList;
 import io.confluent.kafka.schemaregistry.avro.AvroSchema;
 import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.ksql.KsqlConfigTestUtil;
 import io.confluent.ksql.KsqlExecutionContext;
 import io.confluent.ksql.KsqlExecutionContext.ExecuteResult;
+import io.confluent.ksql.engine.KsqlEngine.PlanResult;
 import io.confluent.ksql.function.InternalFunctionRegistry;
 import io.confluent.ksql.metastore.MutableMetaStore;
 import io.confluent.ksql.name.SourceName;
@@ -53,6 +55,7 @@ import io.confluent.ksql.parser.tree.CreateStream;
 import io.confluent.ksql.parser.tree.CreateStreamAsSelect;
 import io.confluent.ksql.parser.tree.CreateTable;
 import io.confluent.ksql.parser.tree.DropTable;
+import io.confluent.ksql.planner.plan.ConfiguredKsqlPlan;
 import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.services.FakeKafkaTopicClient;
 import io.confluent.ksql.services.ServiceContext;
@@ -72,6 +75,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.apache.avro.Schema;
@@ -155,6 +160,71 @@ public class KsqlEngineTest {
     assertThat(((PersistentQueryMetadata) queries.get(1)).getSinkName(), is(SourceName.of("FOO")));
   }
 
+  @Test
+  public void shouldExecuteAllPlansBuildingQueriesConcurrently() {
+    // Given:
+    final List<ConfiguredKsqlPlan> plans = ImmutableList.of(
+        givenSandboxPlan("create stream s1 as select * from test1;"),
+        givenSandboxPlan("create stream s2 as select * from s1;"),
+        givenSandboxPlan("create table t1 as select * from test2;")
+    );
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    // When:
+    final List<PlanResult> results;
+    try {
+      results = ksqlEngine.executeAll(serviceContext, plans, executor);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // Then:
+    assertThat(results, hasSize(3));
+    assertThat(metaStore.getSource(SourceName.of("S2")), is(notNullValue()));
+    assertThat(ksqlEngine.getPersistentQueries(), hasSize(3));
+    assertThat(
+        results.stream()
+            .map(result -> ((PersistentQueryMetadata) result.getResult().get().getQuery().get())
+                .getSinkName())
+            .collect(Collectors.toList()),
+        contains(SourceName.of("S1"), SourceName.of("S2"), SourceName.of("T1"))
+    );
+  }
+
+  @Test
+  public void shouldExecuteAllOtherPlansIfOneFails() {
+    // Given:
+    final List<ConfiguredKsqlPlan> plans = ImmutableList.of(
+        givenSandboxPlan("create stream s1 as select * from test1;"),
+        givenSandboxPlan("create stream s2 as select * from test1;"),
+        givenSandboxPlan("create table t1 as select * from test2;")
+    );
+    KsqlEngineTestUtil.execute(
+        serviceContext,
+        ksqlEngine,
+        "create stream s2 as select * from test1;",
+        KSQL_CONFIG,
+        Collections.emptyMap()
+    );
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    // When:
+    final List<PlanResult> results;
+    try {
+      results = ksqlEngine.executeAll(serviceContext, plans, executor);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // Then:
+    assertThat(results, hasSize(3));
+    assertThat(results.get(0).getResult().isPresent(), is(true));
+    assertThat(results.get(1).getFailure().get().getMessage(),
+        containsString("A stream with the same name already exists"));
+    assertThat(results.get(2).getResult().isPresent(), is(true));
+    assertThat(ksqlEngine.getPersistentQueries(), hasSize(3));
+  }
+
   @Test
   public void shouldNotHaveRowTimeAndRowKeyColumnsInPersistentQueryValueSchema() {
     // When:
@@ -1337,6 +1407,21 @@ public class KsqlEngineTest {
     return ksqlEngine.prepare(stmt);
   }
 
+  private ConfiguredKsqlPlan givenSandboxPlan(final String sql) {
+    final ConfiguredStatement<?> statement = ConfiguredStatement.of(
+        sandbox.prepare(sandbox.parse(sql).get(0)),
+        Collections.emptyMap(),
+        KSQL_CONFIG
+    );
+    final ConfiguredKsqlPlan plan = ConfiguredKsqlPlan.of(
+        sandbox.plan(sandboxServiceContext, statement),
+        Collections.emptyMap(),
+        KSQL_CONFIG
+    );
+    sandbox.execute(sandboxServiceContext, plan);
+    return plan;
+  }
+
   private void givenTopicWithSchema(final String topicName, final Schema schema) {
     try {
       givenTopicsExist(1, topicName);
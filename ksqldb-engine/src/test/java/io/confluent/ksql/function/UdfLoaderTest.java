@@ -682,6 +682,40 @@ public class UdfLoaderTest {
     assertThat(udf.eval(this, "foo", "bar"), equalTo("foobar"));
   }
 
+  @Test
+  public void shouldInvokeFunctionWithVarArgsOfDifferentLengths() throws Exception {
+    final FunctionInvoker udf = FunctionLoaderUtils
+        .createFunctionInvoker(getClass().getMethod("udf", String[].class));
+    assertThat(udf.eval(this), equalTo(""));
+    assertThat(udf.eval(this, "foo"), equalTo("foo"));
+    assertThat(udf.eval(this, "foo", "bar", "baz"), equalTo("foobarbaz"));
+    assertThat(udf.eval(this, "foo", "bar"), equalTo("foobar"));
+  }
+
+  @Test
+  public void shouldInvokeStaticFunction() throws Exception {
+    final FunctionInvoker udf = FunctionLoaderUtils
+        .createFunctionInvoker(getClass().getMethod("staticUdf", String.class));
+    assertThat(udf.eval(this, "foo"), equalTo("FOO"));
+  }
+
+  @Test
+  public void shouldInvokeFunctionViaReflectiveInvoker() throws Exception {
+    final FunctionInvoker udf = FunctionLoaderUtils
+        .createReflectiveFunctionInvoker(getClass().getMethod("udf", String[].class));
+    assertThat(udf.eval(this, "foo", "bar"), equalTo("foobar"));
+  }
+
+  @Test
+  public void shouldThrowKsqlFunctionExceptionIfWrongNumberOfArguments() throws Exception {
+    expectedException.expect(KsqlFunctionException.class);
+    expectedException
+        .expectMessage("Failed to invoke function");
+    final FunctionInvoker udf = FunctionLoaderUtils
+        .createFunctionInvoker(getClass().getMethod("udf", String.class));
+    udf.eval(this, "foo", "bar");
+  }
+
   @Test
   public void shouldHandleMethodsWithMultipleArguments() throws Exception {
     final FunctionInvoker udf = FunctionLoaderUtils.createFunctionInvoker(
@@ -1117,6 +1151,10 @@ public class UdfLoaderTest {
     return String.join("", val);
   }
 
+  public static String staticUdf(final String val) {
+    return val.toUpperCase();
+  }
+
   public double multi(final int i, final long l, final double d) {
     return i * l * d;
   }
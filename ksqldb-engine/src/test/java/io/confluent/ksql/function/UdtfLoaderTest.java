@@ -18,6 +18,7 @@ package io.confluent.ksql.function;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 
 import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.function.udtf.Udtf;
@@ -32,9 +33,11 @@ import java.io.File;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.IntStream;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -227,6 +230,26 @@ public class UdtfLoaderTest {
     assertThat(function.getReturnType(args), equalTo(STRUCT_SCHEMA));
   }
 
+  @Test
+  public void shouldLoadUdtfWithIteratorReturn() {
+    // Given:
+    final MutableFunctionRegistry functionRegistry = new InternalFunctionRegistry();
+    final SqlTypeParser typeParser = SqlTypeParser.create(TypeRegistry.EMPTY);
+    final UdtfLoader udtfLoader = new UdtfLoader(
+        functionRegistry, Optional.empty(), typeParser, true
+    );
+    final List<SqlType> args = ImmutableList.of(SqlTypes.INTEGER);
+
+    // When:
+    udtfLoader.loadUdtfFromClass(IteratorReturn.class, KsqlScalarFunction.INTERNAL_PATH);
+
+    // Then:
+    final KsqlTableFunction function = functionRegistry
+        .getTableFunction(FunctionName.of("iteratorReturn"), args);
+    assertThat(function.getReturnType(args), equalTo(SqlTypes.INTEGER));
+    assertThat(ImmutableList.copyOf(function.apply(3)), contains(0, 1, 2));
+  }
+
   @Test
   public void shouldNotLoadUdtfWithWrongReturnValue() {
     // Given:
@@ -240,7 +263,7 @@ public class UdtfLoaderTest {
     expectedException.expect(KsqlException.class);
     expectedException
         .expectMessage(
-            is("UDTF functions must return a List. Class io.confluent.ksql.function.UdtfLoaderTest$UdtfBadReturnValue Method badReturn"));
+            is("UDTF functions must return a List or an Iterator. Class io.confluent.ksql.function.UdtfLoaderTest$UdtfBadReturnValue Method badReturn"));
 
     // When:
     udtfLoader.loadUdtfFromClass(UdtfBadReturnValue.class, KsqlScalarFunction.INTERNAL_PATH);
@@ -259,7 +282,7 @@ public class UdtfLoaderTest {
     expectedException.expect(KsqlException.class);
     expectedException
         .expectMessage(
-            is("UDTF functions must return a parameterized List. Class io.confluent.ksql.function.UdtfLoaderTest$RawListReturn Method badReturn"));
+            is("UDTF functions must return a parameterized List or Iterator. Class io.confluent.ksql.function.UdtfLoaderTest$RawListReturn Method badReturn"));
 
     // When:
     udtfLoader.loadUdtfFromClass(RawListReturn.class, KsqlScalarFunction.INTERNAL_PATH);
@@ -303,6 +326,15 @@ public class UdtfLoaderTest {
     }
   }
 
+  @UdtfDescription(name = "iteratorReturn", description = "whatever")
+  public static class IteratorReturn {
+
+    @Udtf
+    public Iterator<Integer> range(final int count) {
+      return IntStream.range(0, count).iterator();
+    }
+  }
+
   @UdtfDescription(name = "bigDecimalNoSchemaProvider", description = "whatever")
   static class BigDecimalNoSchemaProvider {
 
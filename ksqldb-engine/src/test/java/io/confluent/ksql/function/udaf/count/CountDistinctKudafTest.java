@@ -17,9 +17,12 @@ package io.confluent.ksql.function.udaf.count;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 
 import com.google.common.primitives.Ints;
 import io.confluent.ksql.function.udaf.Udaf;
+import io.confluent.ksql.util.IntArrayList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -105,4 +108,31 @@ public class CountDistinctKudafTest {
     assertThat(udaf.map(udaf.merge(agg1, agg2)), is(5L));
   }
 
-}
\ No newline at end of file
+  @Test
+  public void shouldUpdateRegistersInPlace() {
+    // Given:
+    final Udaf<String, List<Integer>, Long> udaf = CountDistinct.distinct();
+    final int[] registers = IntArrayList.toIntArray(udaf.initialize());
+
+    // When:
+    final List<Integer> result = udaf.aggregate("a", IntArrayList.wrap(registers));
+
+    // Then:
+    assertThat(IntArrayList.toIntArray(result), is(sameInstance(registers)));
+    assertThat(udaf.map(IntArrayList.wrap(registers)), is(1L));
+  }
+
+  @Test
+  public void shouldCountRegistersReadBackAsBoxedList() {
+    // Given:
+    final Udaf<String, List<Integer>, Long> udaf = CountDistinct.distinct();
+    final List<Integer> agg = udaf.aggregate("a", udaf.initialize());
+
+    // When:
+    final List<Integer> result = udaf.aggregate("b", new ArrayList<>(agg));
+
+    // Then:
+    assertThat(udaf.map(result), is(2L));
+  }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udf;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class ArgumentCacheTest {
+
+  private final AtomicInteger compiles = new AtomicInteger();
+
+  private final ArgumentCache<String, Integer> cache = new ArgumentCache<>(2, arg -> {
+    compiles.incrementAndGet();
+    return arg.length();
+  });
+
+  @Test
+  public void shouldCompileArgumentOnlyOnce() {
+    // When:
+    cache.get("a");
+    cache.get("a");
+    final int result = cache.get(new String("a"));
+
+    // Then:
+    assertThat(result, is(1));
+    assertThat(compiles.get(), is(1));
+  }
+
+  @Test
+  public void shouldCacheMoreThanLastArgument() {
+    // When:
+    cache.get("a");
+    cache.get("bb");
+    final int result = cache.get("a");
+
+    // Then:
+    assertThat(result, is(1));
+    assertThat(compiles.get(), is(2));
+  }
+
+  @Test
+  public void shouldRecompileEvictedArgument() {
+    // Given:
+    cache.get("a");
+    cache.get("bb");
+    cache.get("ccc");
+    cache.get("dddd");
+
+    // When:
+    final int result = cache.get("a");
+
+    // Then:
+    assertThat(result, is(1));
+    assertThat(compiles.get(), is(5));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void shouldPassOnCompileExceptions() {
+    new ArgumentCache<String, Integer>(2, arg -> {
+      throw new IllegalStateException();
+    }).get("a");
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udf.json;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import io.confluent.ksql.function.KsqlFunctionException;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JsonExtractFieldsTest {
+
+  private static final String JSON_DOC = "{"
+      + "\"thing1\":{\"thing2\":\"hello\"},"
+      + "\"array\":[101,102]"
+      + "}";
+
+  private JsonExtractFields udf;
+
+  @Before
+  public void setUp() {
+    udf = new JsonExtractFields();
+  }
+
+  @Test
+  public void shouldExtractEachPathInOrder() {
+    // When:
+    final List<String> result = udf.extractJsonFields(
+        JSON_DOC, "$.array.1", "$.thing1.thing2", "$.thing1");
+
+    // Then:
+    assertThat(result, contains("102", "hello", "{\"thing2\":\"hello\"}"));
+  }
+
+  @Test
+  public void shouldReturnNullElementForMissingOrNullPath() {
+    // When:
+    final List<String> result = udf.extractJsonFields(
+        JSON_DOC, "$.will.not.find.me", null, "$.thing1.thing2");
+
+    // Then:
+    assertThat(result, contains(null, null, "hello"));
+  }
+
+  @Test
+  public void shouldReturnNullForNullDoc() {
+    assertThat(udf.extractJsonFields(null, "$.thing1"), is(nullValue()));
+  }
+
+  @Test(expected = KsqlFunctionException.class)
+  public void shouldThrowOnInvalidJsonDoc() {
+    udf.extractJsonFields("this is NOT a JSON doc", "$.thing1");
+  }
+
+  @Test
+  public void shouldBeThreadSafe() {
+    IntStream.range(0, 10_000)
+        .parallel()
+        .forEach(idx -> shouldExtractEachPathInOrder());
+  }
+}
@@ -82,6 +82,17 @@ public class JsonExtractStringKudfTest {
     assertThat(result, is("102"));
   }
 
+  @Test
+  public void shouldExtractEachPathWhenPathsVary() {
+    // When:
+    final Object first = udf.evaluate(JSON_DOC, "$.thing1.thing2");
+    final Object second = udf.evaluate(JSON_DOC, "$.array.0");
+
+    // Then:
+    assertThat(first, is("hello"));
+    assertThat(second, is("101"));
+  }
+
   @Test
   public void shouldReturnNullIfNodeNotFound() {
     // When:
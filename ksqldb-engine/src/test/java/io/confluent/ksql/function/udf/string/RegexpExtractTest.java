@@ -21,6 +21,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 
+import java.util.regex.PatternSyntaxException;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -64,4 +65,16 @@ public class RegexpExtractTest {
   public void shouldReturnNullIfGivenGroupNumberGreaterThanAvailableGroupNumbers() {
     assertNull(udf.regexpExtract("e", "test string", 3), null);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldApplyEachPatternWhenPatternsVary() {
+    assertEquals(udf.regexpExtract("e.*", "test string"), "est string");
+    assertEquals(udf.regexpExtract(".", "test string"), "t");
+    assertEquals(udf.regexpExtract("e.*", "test string"), "est string");
+  }
+
+  @Test(expected = PatternSyntaxException.class)
+  public void shouldThrowOnInvalidPattern() {
+    udf.regexpExtract("(", "test string");
+  }
+}
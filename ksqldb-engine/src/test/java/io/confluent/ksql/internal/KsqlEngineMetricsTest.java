@@ -28,13 +28,17 @@ import static org.mockito.Mockito.when;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.engine.KsqlEngine;
+import io.confluent.ksql.logging.processing.ProcessingLogContext;
+import io.confluent.ksql.logging.processing.ProcessingLoggerFactory;
 import io.confluent.ksql.metrics.ConsumerCollector;
 import io.confluent.ksql.metrics.MetricCollectors;
 import io.confluent.ksql.metrics.ProducerCollector;
+import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.util.PersistentQueryMetadata;
 import io.confluent.ksql.util.QueryMetadata;
 import io.confluent.ksql.util.ReservedInternalTopics;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -45,6 +49,7 @@ import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.MetricName;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.metrics.MeasurableStat;
 import org.apache.kafka.common.metrics.MetricConfig;
@@ -74,6 +79,12 @@ public class KsqlEngineMetricsTest {
   private KsqlEngine ksqlEngine;
   @Mock
   private QueryMetadata query1;
+  @Mock
+  private PersistentQueryMetadata persistentQuery;
+  @Mock
+  private ProcessingLogContext processingLogContext;
+  @Mock
+  private ProcessingLoggerFactory processingLoggerFactory;
 
   @Before
   public void setUp() {
@@ -279,6 +290,55 @@ public class KsqlEngineMetricsTest {
     verify(query1).registerQueryStateListener(any());
   }
 
+  @Test
+  public void shouldRecordProcessingErrorsByQuery() {
+    // Given:
+    givenPersistentQueryWithErrors("CSAS_1");
+    when(processingLoggerFactory.getErrorCount("CSAS_1.")).thenReturn(5L, 7L);
+
+    // When:
+    engineMetrics.updateMetrics();
+    engineMetrics.updateMetrics();
+
+    // Then:
+    final Object total = engineMetrics.getMetrics()
+        .metric(processingErrorsMetricName("processing-errors-total", "CSAS_1"))
+        .metricValue();
+    assertThat(total, is(7.0));
+  }
+
+  @Test
+  public void shouldRemoveProcessingErrorSensorsOfTerminatedQueries() {
+    // Given:
+    givenPersistentQueryWithErrors("CSAS_1");
+    engineMetrics.updateMetrics();
+    when(ksqlEngine.getPersistentQueries()).thenReturn(Collections.emptyList());
+
+    // When:
+    engineMetrics.updateMetrics();
+
+    // Then:
+    assertThat(
+        engineMetrics.getMetrics()
+            .metric(processingErrorsMetricName("processing-errors-total", "CSAS_1")),
+        is(nullValue())
+    );
+  }
+
+  private void givenPersistentQueryWithErrors(final String queryId) {
+    when(persistentQuery.getQueryId()).thenReturn(new QueryId(queryId));
+    when(ksqlEngine.getPersistentQueries()).thenReturn(ImmutableList.of(persistentQuery));
+    when(ksqlEngine.getProcessingLogContext()).thenReturn(processingLogContext);
+    when(processingLogContext.getLoggerFactory()).thenReturn(processingLoggerFactory);
+  }
+
+  private MetricName processingErrorsMetricName(final String name, final String queryId) {
+    final Map<String, String> tags = new HashMap<>(CUSTOM_TAGS);
+    tags.put("query-id", queryId);
+    return engineMetrics.getMetrics()
+        .metricName(name, metricNamePrefix + METRIC_GROUP + "-query-stats", tags);
+  }
+
   private double getMetricValue(final String metricName) {
     final Metrics metrics = engineMetrics.getMetrics();
     return Double.valueOf(
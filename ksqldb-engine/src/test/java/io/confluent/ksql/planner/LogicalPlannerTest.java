@@ -22,6 +22,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
 
+import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.execution.expression.tree.ComparisonExpression;
 import io.confluent.ksql.execution.expression.tree.ComparisonExpression.Type;
 import io.confluent.ksql.execution.expression.tree.UnqualifiedColumnReferenceExp;
@@ -38,12 +39,14 @@ import io.confluent.ksql.planner.plan.JoinNode;
 import io.confluent.ksql.planner.plan.PlanNode;
 import io.confluent.ksql.planner.plan.ProjectNode;
 import io.confluent.ksql.planner.plan.RepartitionNode;
+import io.confluent.ksql.schema.ksql.Column;
 import io.confluent.ksql.schema.ksql.types.SqlTypes;
 import io.confluent.ksql.testutils.AnalysisTestUtil;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.MetaStoreFixture;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -351,6 +354,65 @@ public class LogicalPlannerTest {
     assertThat(source.getKeyField().ref(), is(Optional.of(ColumnName.of("NEW_KEY"))));
   }
 
+  @Test
+  public void shouldOnlyReadUsedSourceColumnsIfPruningEnabled() {
+    // Given:
+    givenSourcePruningEnabled();
+    final String simpleQuery = "SELECT col2 FROM test1 WHERE col3 > 10.0 EMIT CHANGES;";
+
+    // When:
+    final PlanNode logicalPlan = buildLogicalPlan(simpleQuery);
+
+    // Then:
+    final DataSourceNode source = (DataSourceNode) logicalPlan
+        .getSources().get(0).getSources().get(0).getSources().get(0);
+    assertThat(
+        source.getSourceSchema().value().stream().map(Column::name).collect(Collectors.toList()),
+        contains(ColumnName.of("COL0"), ColumnName.of("COL2"), ColumnName.of("COL3"))
+    );
+  }
+
+  @Test
+  public void shouldOnlyReadUsedJoinSourceColumnsIfPruningEnabled() {
+    // Given:
+    givenSourcePruningEnabled();
+    final String simpleQuery = "SELECT t1.col1, t2.col1 FROM test1 t1 JOIN test2 t2 ON t1.col0 = t2.col0 EMIT CHANGES;";
+
+    // When:
+    final PlanNode logicalPlan = buildLogicalPlan(simpleQuery);
+
+    // Then:
+    final JoinNode joinNode = (JoinNode) logicalPlan.getSources().get(0).getSources().get(0);
+    final ProjectNode left = (ProjectNode) joinNode.getSources().get(0);
+    assertThat(left.getSelectExpressions(), contains(
+        selectCol("COL0", "T1_COL0"),
+        selectCol("COL1", "T1_COL1"),
+        selectCol("ROWTIME", "T1_ROWTIME"),
+        selectCol("ROWKEY", "T1_ROWKEY")
+    ));
+  }
+
+  @Test
+  public void shouldReadAllSourceColumnsForSelectStarIfPruningEnabled() {
+    // Given:
+    givenSourcePruningEnabled();
+    final String simpleQuery = "SELECT * FROM test1 WHERE col3 > 10.0 EMIT CHANGES;";
+
+    // When:
+    final PlanNode logicalPlan = buildLogicalPlan(simpleQuery);
+
+    // Then:
+    final DataSourceNode source = (DataSourceNode) logicalPlan
+        .getSources().get(0).getSources().get(0).getSources().get(0);
+    assertThat(source.getSourceSchema(), is(source.getDataSource().getSchema()));
+  }
+
+  private void givenSourcePruningEnabled() {
+    ksqlConfig = new KsqlConfig(ImmutableMap.of(
+        KsqlConfig.KSQL_QUERY_SOURCE_PRUNING_ENABLED, true
+    ));
+  }
+
   private PlanNode buildLogicalPlan(final String query) {
     return AnalysisTestUtil.buildLogicalPlan(ksqlConfig, query, metaStore);
   }
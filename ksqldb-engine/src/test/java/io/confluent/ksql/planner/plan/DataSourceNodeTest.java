@@ -47,6 +47,7 @@ import io.confluent.ksql.model.WindowType;
 import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.name.SourceName;
 import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.schema.ksql.Column;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.types.SqlTypes;
 import io.confluent.ksql.serde.FormatFactory;
@@ -174,7 +175,7 @@ public class DataSourceNodeTest {
     when(dataSource.getKsqlTopic()).thenReturn(topic);
     when(dataSource.getDataSourceType()).thenReturn(DataSourceType.KTABLE);
 
-    when(schemaKStreamFactory.create(any(), any(), any(), any()))
+    when(schemaKStreamFactory.create(any(), any(), any(), any(), any()))
         .thenAnswer(inv -> inv.<DataSource>getArgument(1)
             .getDataSourceType() == DataSourceType.KSTREAM
             ? stream : table
@@ -292,7 +293,7 @@ public class DataSourceNodeTest {
     node.buildStream(ksqlStreamBuilder);
 
     // Then:
-    verify(schemaKStreamFactory).create(any(), any(), any(), any());
+    verify(schemaKStreamFactory).create(any(), any(), any(), any(), any());
   }
 
   // should this even be possible? if you are using a timestamp extractor then shouldn't the name
@@ -306,7 +307,7 @@ public class DataSourceNodeTest {
     node.buildStream(ksqlStreamBuilder);
 
     // Then:
-    verify(schemaKStreamFactory).create(any(), any(), any(), any());
+    verify(schemaKStreamFactory).create(any(), any(), any(), any(), any());
   }
 
   @Test
@@ -323,6 +324,7 @@ public class DataSourceNodeTest {
     verify(schemaKStreamFactory).create(
         same(ksqlStreamBuilder),
         same(dataSource),
+        same(REAL_SCHEMA),
         stackerCaptor.capture(),
         same(node.getKeyField())
     );
@@ -344,6 +346,7 @@ public class DataSourceNodeTest {
     verify(schemaKStreamFactory).create(
         same(ksqlStreamBuilder),
         same(dataSource),
+        same(REAL_SCHEMA),
         stackerCaptor.capture(),
         same(node.getKeyField())
     );
@@ -365,6 +368,68 @@ public class DataSourceNodeTest {
     assertThat(returned, is(table));
   }
 
+  @Test
+  public void shouldOnlyDeserializeRequiredColumns() {
+    // When:
+    node = new DataSourceNode(
+        PLAN_NODE_ID,
+        SOME_SOURCE,
+        SOME_SOURCE.getName(),
+        Optional.of(ImmutableSet.of(FIELD3))
+    );
+
+    // Then:
+    assertThat(
+        node.getSourceSchema().value().stream().map(Column::name).collect(Collectors.toList()),
+        contains(FIELD1, FIELD3, TIMESTAMP_FIELD)
+    );
+    assertThat(node.getSchema().findValueColumn(FIELD2), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldDeserializeAllColumnsIfRequiredColumnsUnknown() {
+    // When:
+    node = new DataSourceNode(
+        PLAN_NODE_ID,
+        SOME_SOURCE,
+        SOME_SOURCE.getName(),
+        Optional.empty()
+    );
+
+    // Then:
+    assertThat(node.getSourceSchema(), is(REAL_SCHEMA));
+  }
+
+  @Test
+  public void shouldDeserializeAllColumnsIfFormatDoesNotSupportFieldProjection() {
+    // Given:
+    final KsqlStream<String> delimited = new KsqlStream<>(
+        "sqlExpression",
+        SOURCE_NAME,
+        REAL_SCHEMA,
+        SerdeOption.none(),
+        KEY_FIELD,
+        Optional.empty(),
+        false,
+        new KsqlTopic(
+            "topic",
+            KeyFormat.nonWindowed(FormatInfo.of(FormatFactory.KAFKA.name())),
+            ValueFormat.of(FormatInfo.of(FormatFactory.DELIMITED.name()))
+        )
+    );
+
+    // When:
+    node = new DataSourceNode(
+        PLAN_NODE_ID,
+        delimited,
+        SOURCE_NAME,
+        Optional.of(ImmutableSet.of(FIELD3))
+    );
+
+    // Then:
+    assertThat(node.getSourceSchema(), is(REAL_SCHEMA));
+  }
+
   @Test
   public void shouldThrowOnResolveSelectStarIfWrongSourceName() {
     assertThrows(
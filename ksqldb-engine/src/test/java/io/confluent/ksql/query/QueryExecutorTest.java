@@ -8,6 +8,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -70,6 +71,7 @@ import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.StreamsConfig;
 import org.apache.kafka.streams.Topology;
 import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.processor.ProcessorSupplier;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -132,6 +134,10 @@ public class QueryExecutorTest {
   @Mock
   private Consumer<QueryMetadata> closeCallback;
   @Mock
+  private ScalablePushRegistry scalablePushRegistry;
+  @Mock
+  private ProcessorSupplier<Object, GenericRow> scalablePushPublisher;
+  @Mock
   private KafkaStreamsBuilder kafkaStreamsBuilder;
   @Mock
   private StreamsBuilder streamsBuilder;
@@ -192,6 +198,7 @@ public class QueryExecutorTest {
         serviceContext,
         functionRegistry,
         closeCallback,
+        scalablePushRegistry,
         kafkaStreamsBuilder,
         streamsBuilder,
         ksqlMaterializationFactory,
@@ -268,6 +275,26 @@ public class QueryExecutorTest {
     verify(kafkaStreams).start();
   }
 
+  @Test
+  public void shouldCloseProcessingLoggersOfQueryWhenClosed() {
+    // Given:
+    final PersistentQueryMetadata queryMetadata = queryBuilder.buildQuery(
+        STATEMENT_TEXT,
+        QUERY_ID,
+        sink,
+        SOURCES,
+        physicalPlan,
+        SUMMARY
+    );
+
+    // When:
+    queryMetadata.close();
+
+    // Then:
+    verify(processingLoggerFactory).closeLoggers(QUERY_ID.getId());
+    verify(closeCallback).accept(queryMetadata);
+  }
+
   @Test
   public void shouldBuildPersistentQueryWithCorrectMaterializationProvider() {
     // Given:
@@ -358,6 +385,67 @@ public class QueryExecutorTest {
     assertThat(result, is(Optional.empty()));
   }
 
+  @Test
+  public void shouldPublishStreamRowsForScalablePushQueriesIfEnabled() {
+    // Given:
+    when(ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PUSH_SCALABLE_ENABLED)).thenReturn(true);
+    when(scalablePushRegistry.register(QUERY_ID, SINK_NAME, SINK_SCHEMA))
+        .thenReturn(Optional.of(scalablePushPublisher));
+    givenTransientQuery();
+
+    // When:
+    queryBuilder.buildQuery(
+        STATEMENT_TEXT,
+        QUERY_ID,
+        sink,
+        SOURCES,
+        physicalPlan,
+        SUMMARY
+    );
+
+    // Then:
+    verify(kstream).process(scalablePushPublisher);
+  }
+
+  @Test
+  public void shouldNotPublishTableRowsForScalablePushQueries() {
+    // Given:
+    when(ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PUSH_SCALABLE_ENABLED)).thenReturn(true);
+
+    // When:
+    queryBuilder.buildQuery(
+        STATEMENT_TEXT,
+        QUERY_ID,
+        sink,
+        SOURCES,
+        physicalPlan,
+        SUMMARY
+    );
+
+    // Then:
+    verify(scalablePushRegistry, never()).register(any(), any(), any());
+  }
+
+  @Test
+  public void shouldNotPublishRowsForScalablePushQueriesByDefault() {
+    // Given:
+    givenTransientQuery();
+
+    // When:
+    queryBuilder.buildQuery(
+        STATEMENT_TEXT,
+        QUERY_ID,
+        sink,
+        SOURCES,
+        physicalPlan,
+        SUMMARY
+    );
+
+    // Then:
+    verify(scalablePushRegistry, never()).register(any(), any(), any());
+    verify(kstream, never()).process(any());
+  }
+
   @Test
   public void shouldCreateExpectedServiceId() {
     // When:
@@ -0,0 +1,345 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import static io.confluent.ksql.GenericRow.genericRow;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.transform.KsqlTransformer;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.util.SchemaUtil;
+import java.util.Optional;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.utils.MockTime;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.processor.Processor;
+import org.apache.kafka.streams.processor.ProcessorContext;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ScalablePushRegistryTest {
+
+  private static final QueryId PERSISTENT_ID = new QueryId("CSAS_1");
+  private static final QueryId OTHER_PERSISTENT_ID = new QueryId("CSAS_2");
+  private static final QueryId PUSH_ID = new QueryId("push_1");
+  private static final SourceName SOURCE = SourceName.of("S");
+
+  private static final LogicalSchema SCHEMA = LogicalSchema.builder()
+      .withRowTime()
+      .keyColumn(SchemaUtil.ROWKEY_NAME, SqlTypes.STRING)
+      .valueColumn(ColumnName.of("V0"), SqlTypes.BIGINT)
+      .build();
+
+  private static final LogicalSchema OTHER_SCHEMA = LogicalSchema.builder()
+      .withRowTime()
+      .keyColumn(SchemaUtil.ROWKEY_NAME, SqlTypes.STRING)
+      .valueColumn(ColumnName.of("V0"), SqlTypes.STRING)
+      .build();
+
+  private static final Struct KEY = new Struct(SCHEMA.keyConnectSchema())
+      .put(SchemaUtil.ROWKEY_NAME.text(), "k");
+
+  private static final long ROW_TIME = 1234L;
+
+  @Mock
+  private ScalablePushSubscriber subscriber;
+  @Mock
+  private ProcessorContext processorContext;
+
+  private final Metrics metrics = new Metrics();
+  private ScalablePushRegistry registry;
+  private Processor<Object, GenericRow> publisher;
+
+  @Before
+  public void setUp() {
+    when(subscriber.offer(any())).thenReturn(true);
+    when(processorContext.timestamp()).thenReturn(ROW_TIME);
+
+    registry = new ScalablePushRegistry(metrics, new MockTime());
+    publisher = registry.register(PERSISTENT_ID, SOURCE, SCHEMA).get().get();
+    publisher.init(processorContext);
+  }
+
+  @Test
+  public void shouldDeliverRowsWithTimestampAndKeyColumns() {
+    // Given:
+    subscribe((key, row, ctx) -> Optional.of(row)).start();
+
+    // When:
+    publisher.process(KEY, genericRow(10L));
+
+    // Then:
+    verify(subscriber).offer(genericRow(10L, ROW_TIME, "k"));
+  }
+
+  @Test
+  public void shouldApplyTransformer() {
+    // Given:
+    subscribe((key, row, ctx) -> Optional.of(genericRow(row.get(0), ctx.getRowTime()))).start();
+
+    // When:
+    publisher.process(KEY, genericRow(10L));
+
+    // Then:
+    verify(subscriber).offer(genericRow(10L, ROW_TIME));
+  }
+
+  @Test
+  public void shouldNotDeliverFilteredRows() {
+    // Given:
+    subscribe((key, row, ctx) -> Optional.empty()).start();
+
+    // When:
+    publisher.process(KEY, genericRow(10L));
+
+    // Then:
+    verify(subscriber, never()).offer(any());
+  }
+
+  @Test
+  public void shouldNotDeliverRowsBeforeStart() {
+    // Given:
+    subscribe((key, row, ctx) -> Optional.of(row));
+
+    // When:
+    publisher.process(KEY, genericRow(10L));
+
+    // Then:
+    verify(subscriber, never()).offer(any());
+  }
+
+  @Test
+  public void shouldNotDeliverRowsAfterClose() {
+    // Given:
+    final ScalablePushQuery query = subscribe((key, row, ctx) -> Optional.of(row));
+    query.start();
+    query.close();
+
+    // When:
+    publisher.process(KEY, genericRow(10L));
+
+    // Then:
+    verify(subscriber, never()).offer(any());
+    assertThat(query.isRunning(), is(false));
+  }
+
+  @Test
+  public void shouldCloseQueryThatFailsToProcessRow() {
+    // Given:
+    final ScalablePushQuery query = subscribe((key, row, ctx) -> {
+      throw new IllegalStateException("boom");
+    });
+    query.start();
+
+    // When:
+    publisher.process(KEY, genericRow(10L));
+
+    // Then:
+    assertThat(query.isRunning(), is(false));
+  }
+
+  @Test
+  public void shouldNotSubscribeWithoutProducer() {
+    // Given:
+    registry.unregister(PERSISTENT_ID);
+
+    // Then:
+    assertThat(
+        registry.subscribe(
+            PUSH_ID, SOURCE, SCHEMA, id -> true, SCHEMA, (key, row, ctx) -> Optional.of(row),
+            subscriber)
+            .isPresent(),
+        is(false));
+  }
+
+  @Test
+  public void shouldNotSubscribeWithDifferentSchema() {
+    assertThat(
+        registry.subscribe(
+            PUSH_ID, SOURCE, OTHER_SCHEMA, id -> true, SCHEMA, (key, row, ctx) -> Optional.of(row),
+            subscriber)
+            .isPresent(),
+        is(false));
+  }
+
+  @Test
+  public void shouldNotSubscribeIfAnyProducerRunsTasksOnOtherServers() {
+    // Given:
+    registry.register(OTHER_PERSISTENT_ID, SOURCE, SCHEMA);
+
+    // Then:
+    assertThat(
+        registry.subscribe(
+            PUSH_ID, SOURCE, SCHEMA, id -> !id.equals(OTHER_PERSISTENT_ID), SCHEMA,
+            (key, row, ctx) -> Optional.of(row), subscriber)
+            .isPresent(),
+        is(false));
+  }
+
+  @Test
+  public void shouldReportSubscriberCount() {
+    // Given:
+    final ScalablePushQuery query = subscribe((key, row, ctx) -> Optional.of(row));
+
+    // When:
+    query.start();
+
+    // Then:
+    assertThat(metricValue("subscriber-count"), is(1));
+    assertThat(metrics.metric(new MetricName(
+        "subscriber-count-total", "ksql-scalable-push-query", "", ImmutableMap.of()))
+        .metricValue(), is(1));
+  }
+
+  @Test
+  public void shouldRecordDroppedRows() {
+    // Given:
+    when(subscriber.offer(any())).thenReturn(false);
+    subscribe((key, row, ctx) -> Optional.of(row)).start();
+
+    // When:
+    publisher.process(KEY, genericRow(10L));
+    publisher.process(KEY, genericRow(11L));
+
+    // Then:
+    assertThat(metricValue("dropped-rows-total"), is(2.0));
+  }
+
+  @Test
+  public void shouldRemoveMetricsWhenSourceHasNoProducersOrSubscribers() {
+    // When:
+    registry.unregister(PERSISTENT_ID);
+
+    // Then:
+    assertThat(metrics.metric(metricName("subscriber-count")), is(nullValue()));
+  }
+
+  @Test
+  public void shouldCompleteSubscribersWhenLastProducerIsRemoved() {
+    // Given:
+    final ScalablePushQuery query = subscribe((key, row, ctx) -> Optional.of(row));
+    query.start();
+
+    // When:
+    registry.unregister(PERSISTENT_ID);
+
+    // Then:
+    verify(subscriber).onComplete();
+    assertThat(query.isRunning(), is(false));
+    assertThat(metrics.metric(metricName("subscriber-count")), is(nullValue()));
+  }
+
+  @Test
+  public void shouldNotCompleteSubscribersWhileOtherProducersRemain() {
+    // Given:
+    registry.register(OTHER_PERSISTENT_ID, SOURCE, SCHEMA);
+    final ScalablePushQuery query = subscribe((key, row, ctx) -> Optional.of(row));
+    query.start();
+
+    // When:
+    registry.unregister(PERSISTENT_ID);
+
+    // Then:
+    verify(subscriber, never()).onComplete();
+    assertThat(query.isRunning(), is(true));
+  }
+
+  @Test
+  public void shouldCompleteSubscribersWhenSinkSchemaChanges() {
+    // Given:
+    final ScalablePushQuery query = subscribe((key, row, ctx) -> Optional.of(row));
+    query.start();
+
+    // When:
+    registry.register(OTHER_PERSISTENT_ID, SOURCE, OTHER_SCHEMA);
+
+    // Then:
+    verify(subscriber).onComplete();
+    assertThat(query.isRunning(), is(false));
+  }
+
+  @Test
+  public void shouldCompleteSubscribersWhenProducerTaskIsClosed() {
+    // Given:
+    final ScalablePushQuery query = subscribe((key, row, ctx) -> Optional.of(row));
+    query.start();
+
+    // When:
+    publisher.close();
+
+    // Then:
+    verify(subscriber).onComplete();
+    assertThat(query.isRunning(), is(false));
+  }
+
+  @Test
+  public void shouldNotCompleteSubscriberOfClosedQuery() {
+    // Given:
+    final ScalablePushQuery query = subscribe((key, row, ctx) -> Optional.of(row));
+    query.start();
+    query.close();
+
+    // When:
+    registry.unregister(PERSISTENT_ID);
+
+    // Then:
+    verify(subscriber, never()).onComplete();
+  }
+
+  @Test
+  public void shouldNotPublishRowsOfDisabledRegistry() {
+    assertThat(
+        ScalablePushRegistry.disabled().register(PERSISTENT_ID, SOURCE, SCHEMA).isPresent(),
+        is(false));
+  }
+
+  private ScalablePushQuery subscribe(
+      final KsqlTransformer<Object, Optional<GenericRow>> transformer
+  ) {
+    return registry
+        .subscribe(PUSH_ID, SOURCE, SCHEMA, id -> true, SCHEMA, transformer, subscriber)
+        .get();
+  }
+
+  private Object metricValue(final String name) {
+    return metrics.metric(metricName(name)).metricValue();
+  }
+
+  private static MetricName metricName(final String name) {
+    return new MetricName(
+        name,
+        "ksql-scalable-push-query",
+        "",
+        ImmutableMap.of("source", SOURCE.text())
+    );
+  }
+}
@@ -23,6 +23,7 @@ import static org.mockito.Mockito.when;
 import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.execution.context.QueryContext;
 import io.confluent.ksql.execution.expression.tree.FunctionCall;
+import io.confluent.ksql.execution.expression.tree.IntegerLiteral;
 import io.confluent.ksql.execution.expression.tree.UnqualifiedColumnReferenceExp;
 import io.confluent.ksql.execution.plan.ExecutionStep;
 import io.confluent.ksql.execution.streams.ExecutionStepFactory;
@@ -195,4 +196,77 @@ public class SchemaKGroupedStreamTest {
         )
     );
   }
+
+  @Test
+  public void shouldUseCompactStateIfEnabled() {
+    // Given:
+    when(config.getBoolean(KsqlConfig.KSQL_AGGREGATE_COMPACT_STATE_ENABLED)).thenReturn(true);
+
+    // When:
+    final SchemaKTable result = schemaGroupedStream.aggregate(
+        NON_AGGREGATE_COLUMNS,
+        ImmutableList.of(AGG),
+        Optional.empty(),
+        valueFormat,
+        queryContext
+    );
+
+    // Then:
+    assertThat(
+        result.getSourceTableStep(),
+        equalTo(
+            ExecutionStepFactory.streamAggregate(
+                queryContext,
+                schemaGroupedStream.getSourceStep(),
+                io.confluent.ksql.execution.plan.Formats.of(
+                    keyFormat,
+                    valueFormat,
+                    SerdeOption.of(SerdeOption.COMPACT_STATE)
+                ),
+                NON_AGGREGATE_COLUMNS,
+                ImmutableList.of(AGG)
+            )
+        )
+    );
+  }
+
+  @Test
+  public void shouldNotUseCompactStateIfStateTypeNotSupported() {
+    // Given:
+    when(config.getBoolean(KsqlConfig.KSQL_AGGREGATE_COMPACT_STATE_ENABLED)).thenReturn(true);
+    final FunctionCall topK = new FunctionCall(
+        FunctionName.of("TOPK"),
+        ImmutableList.of(
+            new UnqualifiedColumnReferenceExp(ColumnName.of("IN0")),
+            new IntegerLiteral(2)
+        )
+    );
+
+    // When:
+    final SchemaKTable result = schemaGroupedStream.aggregate(
+        NON_AGGREGATE_COLUMNS,
+        ImmutableList.of(topK),
+        Optional.empty(),
+        valueFormat,
+        queryContext
+    );
+
+    // Then:
+    assertThat(
+        result.getSourceTableStep(),
+        equalTo(
+            ExecutionStepFactory.streamAggregate(
+                queryContext,
+                schemaGroupedStream.getSourceStep(),
+                io.confluent.ksql.execution.plan.Formats.of(
+                    keyFormat,
+                    valueFormat,
+                    SerdeOption.none()
+                ),
+                NON_AGGREGATE_COLUMNS,
+                ImmutableList.of(topK)
+            )
+        )
+    );
+  }
 }
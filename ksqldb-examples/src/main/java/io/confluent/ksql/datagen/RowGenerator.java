@@ -27,6 +27,7 @@ import io.confluent.ksql.schema.ksql.SchemaConverters.ConnectToSqlTypeConverter;
 import io.confluent.ksql.util.Pair;
 import io.confluent.ksql.util.SchemaUtil;
 import java.text.SimpleDateFormat;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -135,6 +136,10 @@ public class RowGenerator {
           final Record record = (Record) value;
           final Object ksqlValue = avroData.toConnectData(record.getSchema(), record).value();
           row.append(DataGenSchemaUtil.getOptionalValue(ksqlField.schema(), ksqlValue));
+        } else if (value instanceof Collection || value instanceof Map) {
+          final Field ksqlField = valueSchema.field(field.name());
+          final Object ksqlValue = avroData.toConnectData(field.schema(), value).value();
+          row.append(DataGenSchemaUtil.getOptionalValue(ksqlField.schema(), ksqlValue));
         } else {
           row.append(value);
         }
@@ -24,6 +24,7 @@ import io.confluent.ksql.execution.context.QueryLoggerUtil;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.metrics.StepMetricsSerde;
 import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.schema.ksql.PhysicalSchema;
@@ -31,6 +32,7 @@ import io.confluent.ksql.serde.FormatInfo;
 import io.confluent.ksql.serde.GenericKeySerDe;
 import io.confluent.ksql.serde.GenericRowSerDe;
 import io.confluent.ksql.serde.KeySerdeFactory;
+import io.confluent.ksql.serde.SerdeOption;
 import io.confluent.ksql.serde.ValueSerdeFactory;
 import io.confluent.ksql.serde.WindowInfo;
 import io.confluent.ksql.services.ServiceContext;
@@ -185,13 +187,33 @@ public final class KsqlQueryBuilder {
 
     track(loggerNamePrefix, schema.valueSchema());
 
-    return valueSerdeFactory.create(
-        format,
-        schema.valueSchema(),
-        ksqlConfig,
-        serviceContext.getSchemaRegistryClientFactory(),
-        loggerNamePrefix,
-        processingLogContext
+    final Serde<GenericRow> serde;
+    if (schema.serdeOptions().contains(SerdeOption.COMPACT_STATE)) {
+      serde = GenericRowSerDe.compact(
+          schema.valueSchema(),
+          loggerNamePrefix,
+          processingLogContext
+      );
+    } else {
+      serde = valueSerdeFactory.create(
+          format,
+          schema.valueSchema(),
+          ksqlConfig,
+          serviceContext.getSchemaRegistryClientFactory(),
+          loggerNamePrefix,
+          processingLogContext
+      );
+    }
+
+    if (!ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_STEP_METRICS_ENABLED)) {
+      return serde;
+    }
+
+    return StepMetricsSerde.wrap(
+        serde,
+        queryId.getId(),
+        queryContext.formatContext(),
+        ksqlConfig.getInt(KsqlConfig.KSQL_QUERY_STEP_METRICS_SAMPLE_INTERVAL)
     );
   }
 
@@ -17,6 +17,7 @@ package io.confluent.ksql.execution.codegen;
 
 import static java.util.Objects.requireNonNull;
 
+import io.confluent.ksql.execution.codegen.CompiledProjectionGenerator.CompiledExpression;
 import io.confluent.ksql.execution.expression.tree.CreateArrayExpression;
 import io.confluent.ksql.execution.expression.tree.CreateMapExpression;
 import io.confluent.ksql.execution.expression.tree.CreateStructExpression;
@@ -43,6 +44,7 @@ import io.confluent.ksql.util.KsqlException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.kafka.connect.data.Schema;
@@ -85,6 +87,10 @@ public class CodeGenRunner {
     this.expressionTypeManager = new ExpressionTypeManager(schema, functionRegistry);
   }
 
+  public boolean isFusedEnabled() {
+    return ksqlConfig.getBoolean(KsqlConfig.KSQL_CODEGEN_FUSED_ENABLED);
+  }
+
   public CodeGenSpec getCodeGenSpec(final Expression expression) {
     final Visitor visitor = new Visitor();
 
@@ -132,6 +138,62 @@ public class CodeGenRunner {
     }
   }
 
+  /**
+   * Compile the supplied {@code projection} and optional {@code predicate} into a single
+   * generated class.
+   *
+   * @param projection the expressions to project, in order.
+   * @param predicate the optional predicate, which must resolve to a boolean.
+   * @param type the type of expressions being compiled, used in error messages.
+   * @return the compiled projection.
+   */
+  public CompiledProjection buildCompiledProjection(
+      final List<Expression> projection,
+      final Optional<Expression> predicate,
+      final String type
+  ) {
+    try {
+      final List<CompiledExpression> compiled = projection.stream()
+          .map(this::toCompiledExpression)
+          .collect(Collectors.toList());
+
+      final Optional<CompiledExpression> compiledPredicate = predicate
+          .map(this::toCompiledExpression);
+
+      return CompiledProjectionGenerator.generate(compiled, compiledPredicate);
+    } catch (KsqlException | CompileException e) {
+      throw new KsqlException("Code generation failed for " + type
+          + ": " + e.getMessage()
+          + ". expressions:" + projection + ", predicate:" + predicate.orElse(null)
+          + ", schema:" + schema, e);
+    } catch (final Exception e) {
+      throw new RuntimeException("Unexpected error generating code for " + type
+          + ". expressions:" + projection + ", predicate:" + predicate.orElse(null), e);
+    }
+  }
+
+  public SqlType getExpressionType(final Expression expression) {
+    return expressionTypeManager.getExpressionSqlType(expression);
+  }
+
+  private CompiledExpression toCompiledExpression(final Expression expression) {
+    final CodeGenSpec spec = getCodeGenSpec(expression);
+    final String javaCode = SqlToJavaVisitor.of(
+        schema,
+        functionRegistry,
+        spec
+    ).process(expression);
+
+    final SqlType expressionType = expressionTypeManager
+        .getExpressionSqlType(expression);
+
+    return new CompiledExpression(
+        javaCode,
+        SQL_TO_JAVA_TYPE_CONVERTER.toJavaType(expressionType),
+        spec
+    );
+  }
+
   private final class Visitor extends TraversalExpressionVisitor<Void> {
 
     private final CodeGenSpec.Builder spec;
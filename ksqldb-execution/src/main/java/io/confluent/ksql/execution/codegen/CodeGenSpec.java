@@ -222,6 +222,10 @@ public final class CodeGenSpec {
       this.columnIndex = columnIndex;
     }
 
+    public int columnIndex() {
+      return columnIndex;
+    }
+
     @Override
     public Object resolve(final GenericRow value) {
       return value.get(columnIndex);
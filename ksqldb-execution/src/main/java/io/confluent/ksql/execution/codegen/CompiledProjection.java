@@ -0,0 +1,56 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.codegen;
+
+import io.confluent.ksql.GenericRow;
+
+/**
+ * A projection, and optional predicate, compiled into a single generated class.
+ *
+ * <p>Implementations read their inputs directly from the supplied row and call the compiled
+ * expressions directly, i.e. without reflection or per-expression argument arrays.
+ *
+ * @see CodeGenRunner#buildCompiledProjection
+ */
+public interface CompiledProjection {
+
+  /**
+   * Evaluate the predicate against the supplied {@code row}.
+   *
+   * @param row the row to test.
+   * @param errorHandler called if the predicate throws.
+   * @return {@code true} if the row passes the predicate or there is no predicate.
+   */
+  boolean test(GenericRow row, ErrorHandler errorHandler);
+
+  /**
+   * Evaluate each of the projection's expressions against the supplied {@code row}.
+   *
+   * <p>Any expression that throws results in a {@code null} value in the output row.
+   *
+   * @param row the row to project.
+   * @param errorHandler called for any expression that throws.
+   * @return a new row containing the result of each expression, in order.
+   */
+  GenericRow project(GenericRow row, ErrorHandler errorHandler);
+
+  interface ErrorHandler {
+
+    void onPredicateError(Exception e, GenericRow row);
+
+    void onProjectionError(int index, Exception e, GenericRow row);
+  }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.codegen;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.codegen.CodeGenSpec.ArgumentSpec;
+import io.confluent.ksql.execution.codegen.CodeGenSpec.SchemaArgumentSpec;
+import io.confluent.ksql.execution.codegen.CodeGenSpec.ValueArgumentSpec;
+import io.confluent.ksql.function.udf.Kudf;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.kafka.connect.data.Schema;
+import org.codehaus.commons.compiler.CompilerFactoryFactory;
+import org.codehaus.commons.compiler.ISimpleCompiler;
+
+/**
+ * Generates, and compiles, the source of a {@link CompiledProjection}.
+ *
+ * <p>Each expression is compiled into its own private method of the generated class. The method
+ * reads the columns it needs directly from the row, casting them to their Java types, and
+ * resolves the functions and schemas it needs from an array captured at construction time.
+ */
+final class CompiledProjectionGenerator {
+
+  private static final String CLASS_NAME_PREFIX = "CompiledProjection";
+  private static final String PACKAGE_NAME = CompiledProjection.class.getPackage().getName();
+
+  private static final String ERROR_HANDLER =
+      CompiledProjection.ErrorHandler.class.getCanonicalName();
+
+  private static final AtomicInteger CLASS_COUNTER = new AtomicInteger();
+
+  private CompiledProjectionGenerator() {
+  }
+
+  static final class CompiledExpression {
+
+    private final String javaCode;
+    private final Class<?> javaType;
+    private final CodeGenSpec spec;
+
+    CompiledExpression(final String javaCode, final Class<?> javaType, final CodeGenSpec spec) {
+      this.javaCode = javaCode;
+      this.javaType = javaType;
+      this.spec = spec;
+    }
+  }
+
+  static CompiledProjection generate(
+      final List<CompiledExpression> projection,
+      final Optional<CompiledExpression> predicate
+  ) throws Exception {
+    final String className = CLASS_NAME_PREFIX + CLASS_COUNTER.getAndIncrement();
+    final String source = generateSource(className, projection, predicate);
+
+    final ISimpleCompiler compiler =
+        CompilerFactoryFactory.getDefaultCompilerFactory().newSimpleCompiler();
+
+    compiler.cook(source);
+
+    final Class<?> clazz = compiler.getClassLoader().loadClass(PACKAGE_NAME + "." + className);
+
+    final Object[][] arguments = new Object[projection.size() + 1][];
+    for (int i = 0; i < projection.size(); i++) {
+      arguments[i] = resolveArguments(projection.get(i).spec);
+    }
+    arguments[projection.size()] = predicate
+        .map(p -> resolveArguments(p.spec))
+        .orElse(new Object[0]);
+
+    return (CompiledProjection) clazz
+        .getConstructor(Object[][].class)
+        .newInstance((Object) arguments);
+  }
+
+  static String generateSource(
+      final String className,
+      final List<CompiledExpression> projection,
+      final Optional<CompiledExpression> predicate
+  ) {
+    final StringBuilder src = new StringBuilder();
+    final int predicateIdx = projection.size();
+
+    src.append("package ").append(PACKAGE_NAME).append(";\n\n");
+
+    SqlToJavaVisitor.JAVA_IMPORTS.stream()
+        .distinct()
+        .forEach(imp -> src.append("import ").append(imp).append(";\n"));
+
+    src.append("\npublic final class ").append(className)
+        .append(" implements ").append(CompiledProjection.class.getCanonicalName())
+        .append(" {\n\n");
+
+    for (int i = 0; i <= predicateIdx; i++) {
+      src.append("  private final Object[] args").append(i).append(";\n");
+    }
+
+    src.append("\n  public ").append(className).append("(final Object[][] args) {\n");
+    for (int i = 0; i <= predicateIdx; i++) {
+      src.append("    this.args").append(i).append(" = args[").append(i).append("];\n");
+    }
+    src.append("  }\n\n");
+
+    // test:
+    src.append("  public boolean test(final ").append(GenericRow.class.getCanonicalName())
+        .append(" row, final " + ERROR_HANDLER + " errorHandler) {\n");
+    if (predicate.isPresent()) {
+      src.append("    try {\n")
+          .append("      final Boolean result = expr").append(predicateIdx).append("(row);\n")
+          .append("      return result != null && result.booleanValue();\n")
+          .append("    } catch (final Exception e) {\n")
+          .append("      errorHandler.onPredicateError(e, row);\n")
+          .append("      return false;\n")
+          .append("    }\n");
+    } else {
+      src.append("    return true;\n");
+    }
+    src.append("  }\n\n");
+
+    // project:
+    src.append("  public ").append(GenericRow.class.getCanonicalName())
+        .append(" project(final ").append(GenericRow.class.getCanonicalName())
+        .append(" row, final ").append(ERROR_HANDLER).append(" errorHandler) {\n")
+        .append("    final ").append(GenericRow.class.getCanonicalName())
+        .append(" out = new ").append(GenericRow.class.getCanonicalName())
+        .append("(").append(projection.size()).append(");\n");
+    for (int i = 0; i < projection.size(); i++) {
+      src.append("    try {\n")
+          .append("      out.append(expr").append(i).append("(row));\n")
+          .append("    } catch (final Exception e) {\n")
+          .append("      errorHandler.onProjectionError(").append(i).append(", e, row);\n")
+          .append("      out.append(null);\n")
+          .append("    }\n");
+    }
+    src.append("    return out;\n")
+        .append("  }\n");
+
+    for (int i = 0; i < projection.size(); i++) {
+      appendExpressionMethod(src, i, projection.get(i));
+    }
+    predicate.ifPresent(p -> appendExpressionMethod(src, predicateIdx, p));
+
+    src.append("}\n");
+    return src.toString();
+  }
+
+  private static void appendExpressionMethod(
+      final StringBuilder src,
+      final int idx,
+      final CompiledExpression expression
+  ) {
+    src.append("\n  private ").append(expression.javaType.getCanonicalName())
+        .append(" expr").append(idx)
+        .append("(final ").append(GenericRow.class.getCanonicalName()).append(" row) {\n");
+
+    final List<ArgumentSpec> arguments = expression.spec.arguments();
+    for (int argIdx = 0; argIdx < arguments.size(); argIdx++) {
+      final ArgumentSpec arg = arguments.get(argIdx);
+
+      final String type;
+      final String value;
+      if (arg instanceof ValueArgumentSpec) {
+        type = arg.type().getCanonicalName();
+        value = "row.get(" + ((ValueArgumentSpec) arg).columnIndex() + ")";
+      } else if (arg instanceof SchemaArgumentSpec) {
+        type = Schema.class.getCanonicalName();
+        value = "args" + idx + "[" + argIdx + "]";
+      } else {
+        type = Kudf.class.getCanonicalName();
+        value = "args" + idx + "[" + argIdx + "]";
+      }
+
+      src.append("    final ").append(type).append(" ").append(arg.name())
+          .append(" = (").append(type).append(") ").append(value).append(";\n");
+    }
+
+    src.append("    return ").append(expression.javaCode).append(";\n")
+        .append("  }\n");
+  }
+
+  private static Object[] resolveArguments(final CodeGenSpec spec) {
+    final List<ArgumentSpec> arguments = spec.arguments();
+    final Object[] resolved = new Object[arguments.size()];
+    for (int i = 0; i < arguments.size(); i++) {
+      final ArgumentSpec arg = arguments.get(i);
+      if (!(arg instanceof ValueArgumentSpec)) {
+        resolved[i] = arg.resolve(null);
+      }
+    }
+    return resolved;
+  }
+}
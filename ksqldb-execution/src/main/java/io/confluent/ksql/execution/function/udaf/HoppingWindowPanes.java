@@ -0,0 +1,135 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.function.udaf;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.math.LongMath;
+import com.google.errorprone.annotations.Immutable;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.testing.EffectivelyImmutable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import org.apache.kafka.streams.kstream.Initializer;
+import org.apache.kafka.streams.kstream.Merger;
+
+/**
+ * Composes the aggregates of hopping windows from the aggregates of non-overlapping panes.
+ *
+ * <p>Panes are the size of the greatest common divisor of the window's size and advance, so
+ * each window is made up of a whole number of panes and each record falls into a single pane.
+ * Aggregating each record into its pane, rather than into every window it falls into, means a
+ * record updates one aggregate, rather than {@code size / advance} aggregates.
+ *
+ * <p>Windows and panes are aligned to the epoch, in the same way as Kafka Streams' time windows.
+ *
+ * @param <K> the type of the key.
+ */
+@Immutable
+public final class HoppingWindowPanes<K> {
+
+  private final long windowSizeMs;
+  private final long advanceMs;
+  private final long paneSizeMs;
+  @EffectivelyImmutable
+  private final Initializer<GenericRow> initializer;
+  @EffectivelyImmutable
+  private final Merger<? super K, GenericRow> merger;
+
+  public HoppingWindowPanes(
+      final Duration windowSize,
+      final Duration advanceBy,
+      final Initializer<GenericRow> initializer,
+      final Merger<? super K, GenericRow> merger
+  ) {
+    this.windowSizeMs = requireNonNull(windowSize, "windowSize").toMillis();
+    this.advanceMs = requireNonNull(advanceBy, "advanceBy").toMillis();
+    this.initializer = requireNonNull(initializer, "initializer");
+    this.merger = requireNonNull(merger, "merger");
+
+    if (advanceMs <= 0 || advanceMs > windowSizeMs) {
+      throw new IllegalArgumentException("Window advance must be positive and no larger than the "
+          + "window size. size: " + windowSize + ", advance: " + advanceBy);
+    }
+
+    this.paneSizeMs = LongMath.gcd(windowSizeMs, advanceMs);
+  }
+
+  public long windowSizeMs() {
+    return windowSizeMs;
+  }
+
+  public long paneSizeMs() {
+    return paneSizeMs;
+  }
+
+  /**
+   * Get the start times of the windows that contain the pane starting at {@code paneStart},
+   * earliest first.
+   *
+   * @param paneStart the start of the pane.
+   * @return the start times of the windows containing the pane.
+   */
+  public List<Long> windowStartsContaining(final long paneStart) {
+    // Same calculation as Kafka Streams' TimeWindows.windowsFor:
+    final long firstWindowStart =
+        (Math.max(0, paneStart - windowSizeMs + advanceMs) / advanceMs) * advanceMs;
+
+    final List<Long> starts = new ArrayList<>((int) (windowSizeMs / advanceMs) + 1);
+    for (long start = firstWindowStart; start <= paneStart; start += advanceMs) {
+      starts.add(start);
+    }
+    return starts;
+  }
+
+  /**
+   * Get the start of the last pane in the window starting at {@code windowStart}.
+   *
+   * @param windowStart the start of the window.
+   * @return the start of the last pane in the window.
+   */
+  public long lastPaneStart(final long windowStart) {
+    return windowStart + windowSizeMs - paneSizeMs;
+  }
+
+  /**
+   * Compose the aggregate of a window from the aggregates of its panes.
+   *
+   * <p>Every merge starts from a freshly initialized aggregate, as UDAF merges may update their
+   * first argument in place. The pane aggregates are only ever passed as the second argument, so
+   * are not changed.
+   *
+   * @param key the key of the window.
+   * @param windowStart the start of the window.
+   * @param panes the pane aggregates, keyed by pane start time. Panes outside the window are
+   *              ignored.
+   * @return the aggregate of the window.
+   */
+  public GenericRow compose(
+      final K key,
+      final long windowStart,
+      final NavigableMap<Long, GenericRow> panes
+  ) {
+    GenericRow result = initializer.apply();
+    for (final GenericRow pane : panes.subMap(windowStart, true, windowStart + windowSizeMs, false)
+        .values()) {
+      result = merger.apply(key, result, pane);
+    }
+    return result;
+  }
+}
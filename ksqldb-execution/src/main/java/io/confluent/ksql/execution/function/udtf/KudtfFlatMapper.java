@@ -24,9 +24,9 @@ import io.confluent.ksql.execution.transform.KsqlProcessingContext;
 import io.confluent.ksql.execution.transform.KsqlTransformer;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.testing.EffectivelyImmutable;
-import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * Implements the actual flat-mapping logic - this is called by Kafka Streams
@@ -50,6 +50,11 @@ public class KudtfFlatMapper<K> implements KsqlTransformer<K, Iterable<GenericRo
   /*
   This function zips results from multiple table functions together as described in KLIP-9
   in the design-proposals directory.
+
+  The table functions are invoked eagerly, while the input row is current, but the output rows
+  are only built as Kafka Streams iterates the returned Iterable. This avoids materializing the
+  full results of functions that produce many values. Each output row is still an independent
+  copy of the input columns, as downstream steps may append to rows in place.
    */
 
   @Override
@@ -62,28 +67,67 @@ public class KudtfFlatMapper<K> implements KsqlTransformer<K, Iterable<GenericRo
       return null;
     }
 
-    final List<Iterator<?>> iters = new ArrayList<>(tableFunctionAppliers.size());
-    int maxLength = 0;
-    for (final TableFunctionApplier applier : tableFunctionAppliers) {
-      final List<?> exploded = applier.apply(value, processingLogger);
-      iters.add(exploded.iterator());
-      maxLength = Math.max(maxLength, exploded.size());
+    final Iterator<?>[] iters = new Iterator<?>[tableFunctionAppliers.size()];
+    for (int i = 0; i < iters.length; i++) {
+      iters[i] = tableFunctionAppliers.get(i).apply(value, processingLogger);
     }
 
-    final List<GenericRow> rows = new ArrayList<>(maxLength);
-    for (int i = 0; i < maxLength; i++) {
-      final GenericRow newRow = new GenericRow(value.values().size() + iters.size());
-      newRow.appendAll(value.values());
+    return new ZippedRows(value.values(), iters);
+  }
+
+  /**
+   * Builds output rows on demand by appending the next value from each table function to the
+   * input columns. Rows are produced until all table functions are exhausted.
+   *
+   * <p>The results of the table functions can only be consumed once, so this can only be
+   * iterated once.
+   */
+  private static final class ZippedRows implements Iterable<GenericRow>, Iterator<GenericRow> {
+
+    private final List<Object> columns;
+    private final Iterator<?>[] iters;
+    private boolean iterated;
+
+    ZippedRows(final List<Object> columns, final Iterator<?>[] iters) {
+      this.columns = columns;
+      this.iters = iters;
+    }
+
+    @Override
+    public Iterator<GenericRow> iterator() {
+      if (iterated) {
+        throw new IllegalStateException("Table function results can only be iterated once");
+      }
+      iterated = true;
+      return this;
+    }
 
+    @Override
+    public boolean hasNext() {
       for (final Iterator<?> iter : iters) {
         if (iter.hasNext()) {
-          newRow.append(iter.next());
-        } else {
-          newRow.append(null);
+          return true;
         }
       }
-      rows.add(newRow);
+      return false;
+    }
+
+    @Override
+    public GenericRow next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+
+      final int numColumns = columns.size();
+      final GenericRow row = new GenericRow(numColumns + iters.length);
+      for (int i = 0; i < numColumns; i++) {
+        row.append(columns.get(i));
+      }
+
+      for (final Iterator<?> iter : iters) {
+        row.append(iter.hasNext() ? iter.next() : null);
+      }
+      return row;
     }
-    return rows;
   }
 }
@@ -16,6 +16,7 @@ package io.confluent.ksql.execution.function.udtf;
 
 import static java.util.Objects.requireNonNull;
 
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
 import com.google.errorprone.annotations.Immutable;
 import io.confluent.ksql.GenericRow;
@@ -23,10 +24,15 @@ import io.confluent.ksql.execution.codegen.ExpressionMetadata;
 import io.confluent.ksql.function.KsqlTableFunction;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.logging.processing.RecordProcessingError;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 /**
- * Applies a table function on a row to get a list of values
+ * Applies a table function on a row to get the values it produces.
+ *
+ * <p>The values are returned as an iterator, so that table functions that produce their values
+ * on demand are never fully materialized.
  */
 @Immutable
 public class TableFunctionApplier {
@@ -47,7 +53,7 @@ public class TableFunctionApplier {
     this.exceptionMsg = "Table function " + tableFunction.name().text() + " threw an exception";
   }
 
-  List<?> apply(
+  Iterator<?> apply(
       final GenericRow row,
       final ProcessingLogger processingLogger
   ) {
@@ -58,15 +64,15 @@ public class TableFunctionApplier {
     }
 
     try {
-      final List<?> result = tableFunction.apply(args);
+      final Iterator<?> result = tableFunction.apply(args);
       if (result == null) {
         processingLogger.error(RecordProcessingError.recordProcessingError(nullMsg, row));
-        return ImmutableList.of();
+        return Collections.emptyIterator();
       }
-      return result;
+      return new GuardedIterator(result, row, processingLogger);
     } catch (final Exception e) {
       processingLogger.error(RecordProcessingError.recordProcessingError(exceptionMsg, e, row));
-      return ImmutableList.of();
+      return Collections.emptyIterator();
     }
   }
 
@@ -82,4 +88,35 @@ public class TableFunctionApplier {
         () -> "Failed to evaluate table function parameter " + idx
     );
   }
+
+  /**
+   * Logs any exception thrown while a table function is producing values and treats it as the
+   * end of the function's results, in the same way as an exception thrown from the call itself.
+   */
+  private final class GuardedIterator extends AbstractIterator<Object> {
+
+    private final Iterator<?> delegate;
+    private final GenericRow row;
+    private final ProcessingLogger processingLogger;
+
+    GuardedIterator(
+        final Iterator<?> delegate,
+        final GenericRow row,
+        final ProcessingLogger processingLogger
+    ) {
+      this.delegate = delegate;
+      this.row = row;
+      this.processingLogger = processingLogger;
+    }
+
+    @Override
+    protected Object computeNext() {
+      try {
+        return delegate.hasNext() ? delegate.next() : endOfData();
+      } catch (final Exception e) {
+        processingLogger.error(RecordProcessingError.recordProcessingError(exceptionMsg, e, row));
+        return endOfData();
+      }
+    }
+  }
 }
@@ -21,6 +21,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.errorprone.annotations.Immutable;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.context.QueryContext;
+import io.confluent.ksql.execution.function.udaf.HoppingWindowPanes;
 import io.confluent.ksql.execution.transform.KsqlTransformer;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
@@ -30,6 +31,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
+import org.apache.kafka.connect.data.Struct;
 
 /**
  * Pojo for passing around information about materialization of a query's state store
@@ -41,6 +43,7 @@ public final class MaterializationInfo {
   private final LogicalSchema stateStoreSchema;
   private final ImmutableList<TransformInfo> transforms;
   private final LogicalSchema schema;
+  private final Optional<HoppingWindowPanes<Struct>> windowPanes;
 
   public String stateStoreName() {
     return stateStoreName;
@@ -58,16 +61,26 @@ public final class MaterializationInfo {
     return transforms;
   }
 
+  /**
+   * @return if the state store holds the panes of hopping windows, rather than the windows
+   *         themselves, the info needed to compose the windows from their panes.
+   */
+  public Optional<HoppingWindowPanes<Struct>> getWindowPanes() {
+    return windowPanes;
+  }
+
   private MaterializationInfo(
       final String stateStoreName,
       final LogicalSchema stateStoreSchema,
       final List<TransformInfo> transforms,
-      final LogicalSchema schema
+      final LogicalSchema schema,
+      final Optional<HoppingWindowPanes<Struct>> windowPanes
   ) {
     this.stateStoreName = requireNonNull(stateStoreName, "stateStoreName");
     this.stateStoreSchema = requireNonNull(stateStoreSchema, "stateStoreSchema");
     this.transforms = ImmutableList.copyOf(requireNonNull(transforms, "transforms"));
     this.schema = requireNonNull(schema, "schema");
+    this.windowPanes = requireNonNull(windowPanes, "windowPanes");
   }
 
   /**
@@ -87,6 +100,7 @@ public final class MaterializationInfo {
     private final LogicalSchema stateStoreSchema;
     private final List<TransformInfo> transforms;
     private LogicalSchema schema;
+    private Optional<HoppingWindowPanes<Struct>> windowPanes = Optional.empty();
 
     private Builder(final String stateStoreName, final LogicalSchema stateStoreSchema) {
       this.stateStoreName = requireNonNull(stateStoreName, "stateStoreName");
@@ -95,6 +109,18 @@ public final class MaterializationInfo {
       this.schema = stateStoreSchema;
     }
 
+    /**
+     * Marks the state store as holding the panes of hopping windows, rather than the windows.
+     * Windows are composed from their panes before any transforms are applied.
+     *
+     * @param windowPanes the info needed to compose windows from their panes.
+     * @return A builder instance with the window panes set.
+     */
+    public Builder windowPanes(final HoppingWindowPanes<Struct> windowPanes) {
+      this.windowPanes = Optional.of(windowPanes);
+      return this;
+    }
+
     /**
      * Adds a transform that maps the (key, value) to a new value.
      *
@@ -134,7 +160,13 @@ public final class MaterializationInfo {
      * @return a MaterializationInfo instance.
      */
     public MaterializationInfo build() {
-      return new MaterializationInfo(stateStoreName, stateStoreSchema, transforms, schema);
+      return new MaterializationInfo(
+          stateStoreName,
+          stateStoreSchema,
+          transforms,
+          schema,
+          windowPanes
+      );
     }
   }
 
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.transform.select;
+
+import static java.util.Objects.requireNonNull;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.transform.KsqlProcessingContext;
+import io.confluent.ksql.execution.transform.KsqlTransformer;
+import java.util.Optional;
+
+/**
+ * Applies a filter and then a projection to a row in one step.
+ *
+ * <p>Used to evaluate a filter and the projection that follows it in a single processor,
+ * rather than forwarding each row that passes the filter on to a second processor.
+ *
+ * @param <K> the type of the key
+ */
+public final class FilterSelectTransformer<K> implements KsqlTransformer<K, Optional<GenericRow>> {
+
+  private final KsqlTransformer<K, Optional<GenericRow>> predicate;
+  private final KsqlTransformer<K, GenericRow> mapper;
+
+  public FilterSelectTransformer(
+      final KsqlTransformer<K, Optional<GenericRow>> predicate,
+      final KsqlTransformer<K, GenericRow> mapper
+  ) {
+    this.predicate = requireNonNull(predicate, "predicate");
+    this.mapper = requireNonNull(mapper, "mapper");
+  }
+
+  @Override
+  public Optional<GenericRow> transform(
+      final K readOnlyKey,
+      final GenericRow value,
+      final KsqlProcessingContext ctx
+  ) {
+    final Optional<GenericRow> filtered = predicate.transform(readOnlyKey, value, ctx);
+    if (!filtered.isPresent()) {
+      return filtered;
+    }
+
+    return Optional.of(mapper.transform(readOnlyKey, filtered.get(), ctx));
+  }
+}
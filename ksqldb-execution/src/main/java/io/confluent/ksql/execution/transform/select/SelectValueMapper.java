@@ -19,22 +19,36 @@ import static java.util.Objects.requireNonNull;
 
 import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.codegen.CompiledProjection;
 import io.confluent.ksql.execution.codegen.ExpressionMetadata;
+import io.confluent.ksql.execution.expression.tree.Expression;
 import io.confluent.ksql.execution.transform.KsqlProcessingContext;
 import io.confluent.ksql.execution.transform.KsqlTransformer;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.logging.processing.RecordProcessingError;
 import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.schema.ksql.FormatOptions;
+import io.confluent.ksql.schema.ksql.types.SqlType;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Supplier;
 
 public class SelectValueMapper<K> {
 
   private final ImmutableList<SelectInfo> selects;
+  private final Optional<CompiledProjection> compiled;
 
   SelectValueMapper(final List<SelectInfo> selects) {
+    this(selects, Optional.empty());
+  }
+
+  SelectValueMapper(
+      final List<SelectInfo> selects,
+      final Optional<CompiledProjection> compiled
+  ) {
     this.selects = ImmutableList.copyOf(requireNonNull(selects, "selects"));
+    this.compiled = requireNonNull(compiled, "compiled");
   }
 
   List<SelectInfo> getSelects() {
@@ -44,29 +58,73 @@ public class SelectValueMapper<K> {
   public KsqlTransformer<K, GenericRow> getTransformer(
       final ProcessingLogger processingLogger
   ) {
+    if (compiled.isPresent()) {
+      return new CompiledSelectMapper<>(selects, compiled.get(), processingLogger);
+    }
+
     return new SelectMapper<>(selects, processingLogger);
   }
 
   public static final class SelectInfo {
 
     final ColumnName fieldName;
-    final ExpressionMetadata evaluator;
+    final Optional<ExpressionMetadata> evaluator;
+    final Optional<Expression> expression;
+    final Optional<SqlType> expressionType;
 
     static SelectInfo of(final ColumnName fieldName, final ExpressionMetadata evaluator) {
-      return new SelectInfo(fieldName, evaluator);
+      return new SelectInfo(
+          fieldName,
+          Optional.of(evaluator),
+          Optional.empty(),
+          Optional.empty()
+      );
+    }
+
+    static SelectInfo of(
+        final ColumnName fieldName,
+        final Expression expression,
+        final SqlType expressionType
+    ) {
+      return new SelectInfo(
+          fieldName,
+          Optional.empty(),
+          Optional.of(expression),
+          Optional.of(expressionType)
+      );
     }
 
-    private SelectInfo(final ColumnName fieldName, final ExpressionMetadata evaluator) {
+    private SelectInfo(
+        final ColumnName fieldName,
+        final Optional<ExpressionMetadata> evaluator,
+        final Optional<Expression> expression,
+        final Optional<SqlType> expressionType
+    ) {
       this.fieldName = requireNonNull(fieldName, "fieldName");
       this.evaluator = requireNonNull(evaluator, "evaluator");
+      this.expression = requireNonNull(expression, "expression");
+      this.expressionType = requireNonNull(expressionType, "expressionType");
     }
 
     public ColumnName getFieldName() {
       return fieldName;
     }
 
+    public Expression getExpression() {
+      return evaluator.isPresent()
+          ? evaluator.get().getExpression()
+          : expression.get();
+    }
+
+    public SqlType getExpressionType() {
+      return evaluator.isPresent()
+          ? evaluator.get().getExpressionType()
+          : expressionType.get();
+    }
+
     ExpressionMetadata getEvaluator() {
-      return evaluator;
+      return evaluator
+          .orElseThrow(() -> new IllegalStateException("Select is compiled: " + expression));
     }
 
     @Override
@@ -79,12 +137,14 @@ public class SelectValueMapper<K> {
       }
       final SelectInfo that = (SelectInfo) o;
       return Objects.equals(fieldName, that.fieldName)
+          && Objects.equals(expression, that.expression)
+          && Objects.equals(expressionType, that.expressionType)
           && Objects.equals(evaluator, that.evaluator);
     }
 
     @Override
     public int hashCode() {
-      return Objects.hash(fieldName, evaluator);
+      return Objects.hash(fieldName, expression, expressionType, evaluator);
     }
   }
 
@@ -124,11 +184,58 @@ public class SelectValueMapper<K> {
       final SelectInfo select = selects.get(column);
 
       final Supplier<String> errorMsgSupplier = () ->
-          "Error computing expression " + select.evaluator.getExpression()
+          "Error computing expression " + select.getExpression()
               + " for column " + select.fieldName.toString(FormatOptions.noEscape())
               + " with index " + column;
 
-      return select.evaluator.evaluate(row, null, processingLogger, errorMsgSupplier);
+      return select.getEvaluator().evaluate(row, null, processingLogger, errorMsgSupplier);
+    }
+  }
+
+  private static final class CompiledSelectMapper<K>
+      implements KsqlTransformer<K, GenericRow>, CompiledProjection.ErrorHandler {
+
+    private final ImmutableList<SelectInfo> selects;
+    private final CompiledProjection projection;
+    private final ProcessingLogger processingLogger;
+
+    private CompiledSelectMapper(
+        final ImmutableList<SelectInfo> selects,
+        final CompiledProjection projection,
+        final ProcessingLogger processingLogger
+    ) {
+      this.selects = requireNonNull(selects, "selects");
+      this.projection = requireNonNull(projection, "projection");
+      this.processingLogger = requireNonNull(processingLogger, "processingLogger");
+    }
+
+    @Override
+    public GenericRow transform(
+        final K readOnlyKey,
+        final GenericRow value,
+        final KsqlProcessingContext ctx
+    ) {
+      if (value == null) {
+        return null;
+      }
+
+      return projection.project(value, this);
+    }
+
+    @Override
+    public void onPredicateError(final Exception e, final GenericRow row) {
+      throw new IllegalStateException("Select has no predicate", e);
+    }
+
+    @Override
+    public void onProjectionError(final int index, final Exception e, final GenericRow row) {
+      final SelectInfo select = selects.get(index);
+
+      final String errorMsg = "Error computing expression " + select.getExpression()
+          + " for column " + select.fieldName.toString(FormatOptions.noEscape())
+          + " with index " + index;
+
+      processingLogger.error(RecordProcessingError.recordProcessingError(errorMsg, e, row));
     }
   }
 }
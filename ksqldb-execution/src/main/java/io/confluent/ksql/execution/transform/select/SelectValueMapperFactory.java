@@ -19,6 +19,7 @@ import static java.util.Objects.requireNonNull;
 
 import com.google.common.annotations.VisibleForTesting;
 import io.confluent.ksql.execution.codegen.CodeGenRunner;
+import io.confluent.ksql.execution.codegen.CompiledProjection;
 import io.confluent.ksql.execution.codegen.ExpressionMetadata;
 import io.confluent.ksql.execution.plan.SelectExpression;
 import io.confluent.ksql.execution.transform.select.SelectValueMapper.SelectInfo;
@@ -26,6 +27,7 @@ import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.util.KsqlConfig;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -57,9 +59,35 @@ public final class SelectValueMapperFactory {
   <K> SelectValueMapper<K> create(
       final List<SelectExpression> selectExpressions
   ) {
+    if (codeGenerator.isFusedEnabled()) {
+      return createCompiled(selectExpressions);
+    }
+
     return new SelectValueMapper<>(buildSelects(selectExpressions));
   }
 
+  private <K> SelectValueMapper<K> createCompiled(
+      final List<SelectExpression> selectExpressions
+  ) {
+    final CompiledProjection compiled = codeGenerator.buildCompiledProjection(
+        selectExpressions.stream()
+            .map(SelectExpression::getExpression)
+            .collect(Collectors.toList()),
+        Optional.empty(),
+        EXP_TYPE
+    );
+
+    final List<SelectInfo> selects = selectExpressions.stream()
+        .map(select -> SelectInfo.of(
+            select.getAlias(),
+            select.getExpression(),
+            codeGenerator.getExpressionType(select.getExpression())
+        ))
+        .collect(Collectors.toList());
+
+    return new SelectValueMapper<>(selects, Optional.of(compiled));
+  }
+
   private List<SelectInfo> buildSelects(final List<SelectExpression> selectExpressions) {
     return selectExpressions.stream()
         .map(this::buildSelect)
@@ -18,25 +18,30 @@ package io.confluent.ksql.execution.transform.sqlpredicate;
 import static java.util.Objects.requireNonNull;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.Iterables;
+import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.codegen.CodeGenRunner;
+import io.confluent.ksql.execution.codegen.CompiledProjection;
 import io.confluent.ksql.execution.codegen.ExpressionMetadata;
 import io.confluent.ksql.execution.expression.tree.Expression;
 import io.confluent.ksql.execution.transform.KsqlProcessingContext;
 import io.confluent.ksql.execution.transform.KsqlTransformer;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.logging.processing.RecordProcessingError;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlType;
 import io.confluent.ksql.schema.ksql.types.SqlTypes;
 import io.confluent.ksql.util.KsqlConfig;
 import java.util.Optional;
-import java.util.stream.Stream;
 
 public final class SqlPredicate {
 
+  private static final String EXP_TYPE = "Predicate";
+
   private final Expression filterExpression;
-  private final ExpressionMetadata evaluator;
+  private final Optional<ExpressionMetadata> evaluator;
+  private final Optional<CompiledProjection> compiled;
 
   public SqlPredicate(
       final Expression filterExpression,
@@ -46,42 +51,70 @@ public final class SqlPredicate {
   ) {
     this(
         filterExpression,
-        Iterables.getOnlyElement(CodeGenRunner.compileExpressions(
-            Stream.of(filterExpression),
-            "Predicate",
-            schema,
-            ksqlConfig,
-            functionRegistry
-        ))
+        new CodeGenRunner(schema, ksqlConfig, functionRegistry)
     );
   }
 
+  private SqlPredicate(
+      final Expression filterExpression,
+      final CodeGenRunner codeGen
+  ) {
+    this.filterExpression = requireNonNull(filterExpression, "filterExpression");
+
+    if (codeGen.isFusedEnabled()) {
+      checkBoolean(filterExpression, codeGen.getExpressionType(filterExpression));
+      this.evaluator = Optional.empty();
+      this.compiled = Optional.of(codeGen.buildCompiledProjection(
+          ImmutableList.of(),
+          Optional.of(filterExpression),
+          EXP_TYPE
+      ));
+    } else {
+      final ExpressionMetadata metadata =
+          codeGen.buildCodeGenFromParseTree(filterExpression, EXP_TYPE);
+      checkBoolean(filterExpression, metadata.getExpressionType());
+      this.evaluator = Optional.of(metadata);
+      this.compiled = Optional.empty();
+    }
+  }
+
   @VisibleForTesting
   SqlPredicate(
       final Expression filterExpression,
       final ExpressionMetadata evaluator
   ) {
     this.filterExpression = requireNonNull(filterExpression, "filterExpression");
-    this.evaluator = requireNonNull(evaluator, "evaluator");
+    this.evaluator = Optional.of(requireNonNull(evaluator, "evaluator"));
+    this.compiled = Optional.empty();
 
-    if (!evaluator.getExpressionType().equals(SqlTypes.BOOLEAN)) {
-      throw new IllegalArgumentException(
-          "Filter expression must resolve to boolean: " + filterExpression);
-    }
+    checkBoolean(filterExpression, evaluator.getExpressionType());
   }
 
   public <K> KsqlTransformer<K, Optional<GenericRow>> getTransformer(
       final ProcessingLogger processingLogger
   ) {
-    return new Transformer<>(processingLogger);
+    if (compiled.isPresent()) {
+      return new CompiledTransformer<>(compiled.get(), processingLogger);
+    }
+
+    return new Transformer<>(evaluator.get(), processingLogger);
+  }
+
+  private static void checkBoolean(final Expression filterExpression, final SqlType type) {
+    if (!type.equals(SqlTypes.BOOLEAN)) {
+      throw new IllegalArgumentException(
+          "Filter expression must resolve to boolean: " + filterExpression);
+    }
   }
 
   private final class Transformer<K> implements KsqlTransformer<K, Optional<GenericRow>> {
 
+    private final ExpressionMetadata evaluator;
     private final ProcessingLogger processingLogger;
     private final String errorMsg;
 
-    Transformer(final ProcessingLogger processingLogger) {
+    Transformer(final ExpressionMetadata evaluator, final ProcessingLogger processingLogger) {
+      this.evaluator = requireNonNull(evaluator, "evaluator");
       this.processingLogger = requireNonNull(processingLogger, "processingLogger");
       this.errorMsg = "Error evaluating predicate " + filterExpression.toString();
     }
@@ -104,4 +137,46 @@ public final class SqlPredicate {
           : Optional.empty();
     }
   }
+
+  private final class CompiledTransformer<K>
+      implements KsqlTransformer<K, Optional<GenericRow>>, CompiledProjection.ErrorHandler {
+
+    private final CompiledProjection predicate;
+    private final ProcessingLogger processingLogger;
+    private final String errorMsg;
+
+    CompiledTransformer(
+        final CompiledProjection predicate,
+        final ProcessingLogger processingLogger
+    ) {
+      this.predicate = requireNonNull(predicate, "predicate");
+      this.processingLogger = requireNonNull(processingLogger, "processingLogger");
+      this.errorMsg = "Error evaluating predicate " + filterExpression.toString();
+    }
+
+    @Override
+    public Optional<GenericRow> transform(
+        final K readOnlyKey,
+        final GenericRow value,
+        final KsqlProcessingContext ctx
+    ) {
+      if (value == null) {
+        return Optional.empty();
+      }
+
+      return predicate.test(value, this)
+          ? Optional.of(value)
+          : Optional.empty();
+    }
+
+    @Override
+    public void onPredicateError(final Exception e, final GenericRow row) {
+      processingLogger.error(RecordProcessingError.recordProcessingError(errorMsg, e, row));
+    }
+
+    @Override
+    public void onProjectionError(final int index, final Exception e, final GenericRow row) {
+      throw new IllegalStateException("Predicate has no projection", e);
+    }
+  }
 }
@@ -19,6 +19,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -31,6 +32,8 @@ import io.confluent.ksql.execution.context.QueryContext.Stacker;
 import io.confluent.ksql.execution.context.QueryLoggerUtil;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.logging.processing.ProcessingLoggerFactory;
 import io.confluent.ksql.model.WindowType;
 import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.query.QueryId;
@@ -263,4 +266,28 @@ public class KsqlQueryBuilderTest {
     // Then:
     assertThat(ksqlQueryBuilder.getSchemas().toString(), is("fred.context = BOOLEAN"));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldBuildCompactValueSerdeForCompactState() {
+    // Given:
+    final ProcessingLoggerFactory loggerFactory = mock(ProcessingLoggerFactory.class);
+    when(loggerFactory.getLogger(any())).thenReturn(mock(ProcessingLogger.class));
+    when(processingLogContext.getLoggerFactory()).thenReturn(loggerFactory);
+    final PhysicalSchema schema = PhysicalSchema.from(
+        SOME_SCHEMA.logicalSchema(),
+        SerdeOption.of(SerdeOption.COMPACT_STATE)
+    );
+
+    // When:
+    final Serde<GenericRow> serde = ksqlQueryBuilder.buildValueSerde(
+        FORMAT_INFO,
+        schema,
+        queryContext
+    );
+
+    // Then:
+    verify(valueSerdeFactory, never()).create(any(), any(), any(), any(), any(), any());
+    final byte[] bytes = serde.serializer().serialize("t", GenericRow.genericRow(true));
+    assertThat(serde.deserializer().deserialize("t", bytes), is(GenericRow.genericRow(true)));
+  }
+}
@@ -0,0 +1,153 @@
+package io.confluent.ksql.execution.codegen;
+
+import static io.confluent.ksql.GenericRow.genericRow;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.expression.tree.ArithmeticBinaryExpression;
+import io.confluent.ksql.execution.expression.tree.ComparisonExpression;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.expression.tree.IntegerLiteral;
+import io.confluent.ksql.execution.expression.tree.UnqualifiedColumnReferenceExp;
+import io.confluent.ksql.function.FunctionRegistry;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.schema.Operator;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class CompiledProjectionTest {
+
+  private static final LogicalSchema SCHEMA = LogicalSchema.builder()
+      .valueColumn(ColumnName.of("A"), SqlTypes.INTEGER)
+      .valueColumn(ColumnName.of("B"), SqlTypes.INTEGER)
+      .valueColumn(ColumnName.of("C"), SqlTypes.STRING)
+      .build();
+
+  private static final Expression A = new UnqualifiedColumnReferenceExp(ColumnName.of("A"));
+  private static final Expression B = new UnqualifiedColumnReferenceExp(ColumnName.of("B"));
+  private static final Expression C = new UnqualifiedColumnReferenceExp(ColumnName.of("C"));
+
+  private static final Expression A_PLUS_B =
+      new ArithmeticBinaryExpression(Operator.ADD, A, B);
+
+  private static final Expression A_DIV_B =
+      new ArithmeticBinaryExpression(Operator.DIVIDE, A, B);
+
+  private static final Expression A_GT_10 = new ComparisonExpression(
+      ComparisonExpression.Type.GREATER_THAN, A, new IntegerLiteral(10));
+
+  @Mock
+  private FunctionRegistry functionRegistry;
+  @Mock
+  private CompiledProjection.ErrorHandler errorHandler;
+
+  @Rule
+  public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+  private CodeGenRunner codeGen;
+
+  @Before
+  public void setUp() {
+    codeGen = new CodeGenRunner(
+        SCHEMA,
+        new KsqlConfig(ImmutableMap.of(KsqlConfig.KSQL_CODEGEN_FUSED_ENABLED, true)),
+        functionRegistry
+    );
+  }
+
+  @Test
+  public void shouldProjectAllExpressions() {
+    // Given:
+    final CompiledProjection projection = codeGen.buildCompiledProjection(
+        ImmutableList.of(C, A_PLUS_B, A),
+        Optional.empty(),
+        "Select"
+    );
+
+    // When:
+    final GenericRow result = projection.project(genericRow(1, 2, "x"), errorHandler);
+
+    // Then:
+    assertThat(result, is(genericRow("x", 3, 1)));
+    verify(errorHandler, never()).onProjectionError(anyInt(), any(), any());
+  }
+
+  @Test
+  public void shouldReturnNullAndReportErrorIfExpressionThrows() {
+    // Given:
+    final CompiledProjection projection = codeGen.buildCompiledProjection(
+        ImmutableList.of(A, A_DIV_B),
+        Optional.empty(),
+        "Select"
+    );
+    final GenericRow row = genericRow(1, 0, "x");
+
+    // When:
+    final GenericRow result = projection.project(row, errorHandler);
+
+    // Then:
+    assertThat(result, is(genericRow(1, null)));
+    verify(errorHandler).onProjectionError(eq(1), any(ArithmeticException.class), eq(row));
+  }
+
+  @Test
+  public void shouldPassAllRowsIfNoPredicate() {
+    // Given:
+    final CompiledProjection projection = codeGen.buildCompiledProjection(
+        ImmutableList.of(A),
+        Optional.empty(),
+        "Select"
+    );
+
+    // Then:
+    assertThat(projection.test(genericRow(1, 2, "x"), errorHandler), is(true));
+  }
+
+  @Test
+  public void shouldEvaluatePredicate() {
+    // Given:
+    final CompiledProjection projection = codeGen.buildCompiledProjection(
+        ImmutableList.of(),
+        Optional.of(A_GT_10),
+        "Predicate"
+    );
+
+    // Then:
+    assertThat(projection.test(genericRow(11, 2, "x"), errorHandler), is(true));
+    assertThat(projection.test(genericRow(10, 2, "x"), errorHandler), is(false));
+  }
+
+  @Test
+  public void shouldNotPassRowAndReportErrorIfPredicateThrows() {
+    // Given:
+    final CompiledProjection projection = codeGen.buildCompiledProjection(
+        ImmutableList.of(),
+        Optional.of(A_GT_10),
+        "Predicate"
+    );
+    final GenericRow row = genericRow("not an int", 2, "x");
+
+    // When:
+    final boolean result = projection.test(row, errorHandler);
+
+    // Then:
+    assertThat(result, is(false));
+    verify(errorHandler).onPredicateError(any(ClassCastException.class), eq(row));
+  }
+}
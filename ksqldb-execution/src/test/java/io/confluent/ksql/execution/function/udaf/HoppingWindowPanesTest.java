@@ -0,0 +1,159 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.function.udaf;
+
+import static io.confluent.ksql.GenericRow.genericRow;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.GenericRow;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import org.apache.kafka.streams.kstream.Merger;
+import org.junit.Test;
+
+public class HoppingWindowPanesTest {
+
+  private static final String KEY = "k";
+
+  private static final Merger<String, GenericRow> CONCAT = (key, agg1, agg2) -> {
+    // Mutates its first argument, as some UDAF merges do:
+    @SuppressWarnings("unchecked")
+    final List<Object> values = (List<Object>) agg1.get(0);
+    values.addAll((List<?>) agg2.get(0));
+    return agg1;
+  };
+
+  @Test
+  public void shouldUseAdvanceAsPaneSizeIfSizeIsMultipleOfAdvance() {
+    // When:
+    final HoppingWindowPanes<String> panes = panes(60, 10);
+
+    // Then:
+    assertThat(panes.paneSizeMs(), is(10L));
+  }
+
+  @Test
+  public void shouldUseGreatestCommonDivisorAsPaneSize() {
+    // When:
+    final HoppingWindowPanes<String> panes = panes(10, 4);
+
+    // Then:
+    assertThat(panes.paneSizeMs(), is(2L));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowIfAdvanceLargerThanSize() {
+    panes(10, 11);
+  }
+
+  @Test
+  public void shouldGetWindowsContainingPane() {
+    // Given:
+    final HoppingWindowPanes<String> panes = panes(60, 10);
+
+    // Then:
+    assertThat(panes.windowStartsContaining(100),
+        contains(50L, 60L, 70L, 80L, 90L, 100L));
+  }
+
+  @Test
+  public void shouldGetWindowsContainingPaneIfAdvanceIsNotPaneSize() {
+    // Given:
+    final HoppingWindowPanes<String> panes = panes(10, 4);
+
+    // Then:
+    assertThat(panes.windowStartsContaining(12), contains(4L, 8L, 12L));
+    assertThat(panes.windowStartsContaining(14), contains(8L, 12L));
+  }
+
+  @Test
+  public void shouldNotGetWindowsBeforeEpoch() {
+    // Given:
+    final HoppingWindowPanes<String> panes = panes(60, 10);
+
+    // Then:
+    assertThat(panes.windowStartsContaining(20), contains(0L, 10L, 20L));
+  }
+
+  @Test
+  public void shouldGetLastPaneStart() {
+    // Given:
+    final HoppingWindowPanes<String> panes = panes(10, 4);
+
+    // Then:
+    assertThat(panes.lastPaneStart(8), is(16L));
+  }
+
+  @Test
+  public void shouldComposeWindowFromItsPanes() {
+    // Given:
+    final HoppingWindowPanes<String> panes = panes(30, 10);
+    final NavigableMap<Long, GenericRow> paneAggs = new TreeMap<>(ImmutableMap.of(
+        0L, pane("a"),
+        10L, pane("b"),
+        30L, pane("c"),
+        40L, pane("d")
+    ));
+
+    // When:
+    final GenericRow result = panes.compose(KEY, 10, paneAggs);
+
+    // Then:
+    assertThat(result, is(pane("b", "c")));
+  }
+
+  @Test
+  public void shouldNotChangePanesWhenComposing() {
+    // Given:
+    final HoppingWindowPanes<String> panes = panes(20, 10);
+    final NavigableMap<Long, GenericRow> paneAggs = new TreeMap<>(ImmutableMap.of(
+        0L, pane("a"),
+        10L, pane("b"),
+        20L, pane("c")
+    ));
+
+    // When:
+    panes.compose(KEY, 0, paneAggs);
+    final GenericRow result = panes.compose(KEY, 10, paneAggs);
+
+    // Then:
+    assertThat(result, is(pane("b", "c")));
+    assertThat(paneAggs.get(0L), is(pane("a")));
+  }
+
+  private static HoppingWindowPanes<String> panes(final long size, final long advance) {
+    return new HoppingWindowPanes<>(
+        Duration.ofMillis(size),
+        Duration.ofMillis(advance),
+        () -> genericRow(new ArrayList<>()),
+        CONCAT
+    );
+  }
+
+  private static GenericRow pane(final String... values) {
+    final List<Object> list = new ArrayList<>();
+    for (final String value : values) {
+      list.add(value);
+    }
+    return genericRow(list);
+  }
+}
@@ -27,8 +27,10 @@ import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.transform.KsqlProcessingContext;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -96,9 +98,75 @@ public class KudtfFlatMapperTest {
     verify(applier).apply(VALUE, processingLogger);
   }
 
+  @Test
+  public void shouldProduceRowsOnDemand() {
+    // Given:
+    final Iterator<Integer> unbounded = Stream.iterate(0, i -> i + 1).iterator();
+    final TableFunctionApplier applier = createApplier(unbounded);
+    final KudtfFlatMapper<String> flatMapper =
+        new KudtfFlatMapper<>(ImmutableList.of(applier), processingLogger);
+
+    // When:
+    final Iterable<GenericRow> iterable = flatMapper.transform(KEY, VALUE, ctx);
+
+    // Then:
+    final Iterator<GenericRow> iter = iterable.iterator();
+    assertThat(iter.next().values(), is(Arrays.asList(1, 2, 3, 0)));
+    assertThat(iter.next().values(), is(Arrays.asList(1, 2, 3, 1)));
+    assertThat(unbounded.next(), is(2));
+  }
+
+  @Test
+  public void shouldProduceIndependentRows() {
+    // Given:
+    final TableFunctionApplier applier = createApplier(Arrays.asList(10, 20));
+    final KudtfFlatMapper<String> flatMapper =
+        new KudtfFlatMapper<>(ImmutableList.of(applier), processingLogger);
+    final Iterator<GenericRow> iter = flatMapper.transform(KEY, VALUE, ctx).iterator();
+
+    // When:
+    iter.next().append(99);
+
+    // Then:
+    assertThat(iter.next().values(), is(Arrays.asList(1, 2, 3, 20)));
+    assertThat(VALUE.values(), is(Arrays.asList(1, 2, 3)));
+  }
+
+  @Test
+  public void shouldReturnNoRowsIfAllFunctionsReturnNothing() {
+    // Given:
+    final TableFunctionApplier applier1 = createApplier(Collections.emptyList());
+    final TableFunctionApplier applier2 = createApplier(Collections.emptyList());
+    final KudtfFlatMapper<String> flatMapper =
+        new KudtfFlatMapper<>(ImmutableList.of(applier1, applier2), processingLogger);
+
+    // When:
+    final Iterable<GenericRow> iterable = flatMapper.transform(KEY, VALUE, ctx);
+
+    // Then:
+    assertThat(iterable.iterator().hasNext(), is(false));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void shouldThrowIfIteratedTwice() {
+    // Given:
+    final TableFunctionApplier applier = createApplier(Arrays.asList(10, 10, 10));
+    final KudtfFlatMapper<String> flatMapper =
+        new KudtfFlatMapper<>(ImmutableList.of(applier), processingLogger);
+    final Iterable<GenericRow> iterable = flatMapper.transform(KEY, VALUE, ctx);
+    iterable.iterator();
+
+    // When:
+    iterable.iterator();
+  }
+
   private static TableFunctionApplier createApplier(final List<?> list) {
+    return createApplier(list.iterator());
+  }
+
+  private static TableFunctionApplier createApplier(final Iterator<?> iterator) {
     final TableFunctionApplier applier = mock(TableFunctionApplier.class);
-    doReturn(list).when(applier).apply(any(), any());
+    doReturn(iterator).when(applier).apply(any(), any());
     return applier;
   }
 }
\ No newline at end of file
@@ -1,7 +1,7 @@
 package io.confluent.ksql.execution.function.udtf;
 
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -10,13 +10,15 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.codegen.ExpressionMetadata;
 import io.confluent.ksql.function.KsqlTableFunction;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.logging.processing.RecordProcessingError;
 import io.confluent.ksql.name.FunctionName;
-import java.util.List;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.function.Supplier;
 import org.junit.Before;
 import org.junit.Test;
@@ -78,16 +80,16 @@ public class TableFunctionApplierTest {
   }
 
   @Test
-  public void shouldReturnEmptyListIfUdtfThrows() {
+  public void shouldReturnNothingIfUdtfThrows() {
     // Given:
     final RuntimeException e = new RuntimeException("Boom");
     when(tableFunction.apply(any())).thenThrow(e);
 
     // When:
-    final List<?> result = applier.apply(VALUE, processingLogger);
+    final Iterator<?> result = applier.apply(VALUE, processingLogger);
 
     // Then:
-    assertThat(result, is(empty()));
+    assertThat(result.hasNext(), is(false));
   }
 
   @Test
@@ -107,14 +109,60 @@ public class TableFunctionApplierTest {
   }
 
   @Test
-  public void shouldReturnEmptyListIfUdtfReturnsNull() {
+  public void shouldReturnNothingIfUdtfReturnsNull() {
     // Given:
     when(tableFunction.apply(any())).thenReturn(null);
 
     // When:
-    final List<?> result = applier.apply(VALUE, processingLogger);
+    final Iterator<?> result = applier.apply(VALUE, processingLogger);
 
     // Then:
-    assertThat(result, is(empty()));
+    assertThat(result.hasNext(), is(false));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldReturnValuesFromUdtf() {
+    // Given:
+    when(tableFunction.apply(any())).thenAnswer(inv -> Arrays.asList(1, null, 3).iterator());
+
+    // When:
+    final Iterator<?> result = applier.apply(VALUE, processingLogger);
+
+    // Then:
+    assertThat(Lists.newArrayList(result), contains(1, null, 3));
+  }
+
+  @Test
+  public void shouldLogProcessingErrorAndStopIfUdtfIteratorThrows() {
+    // Given:
+    final RuntimeException e = new RuntimeException("Boom");
+    final Iterator<Integer> failing = new Iterator<Integer>() {
+      private int count;
+
+      @Override
+      public boolean hasNext() {
+        return true;
+      }
+
+      @Override
+      public Integer next() {
+        if (count == 2) {
+          throw e;
+        }
+        return count++;
+      }
+    };
+    when(tableFunction.apply(any())).thenAnswer(inv -> failing);
+
+    // When:
+    final Iterator<?> result = applier.apply(VALUE, processingLogger);
+
+    // Then:
+    assertThat(Lists.newArrayList(result), contains(0, 1));
+    verify(processingLogger).error(RecordProcessingError.recordProcessingError(
+        "Table function SOME_FUNC threw an exception",
+        e,
+        VALUE
+    ));
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.transform.select;
+
+import static io.confluent.ksql.GenericRow.genericRow;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.transform.KsqlProcessingContext;
+import io.confluent.ksql.execution.transform.KsqlTransformer;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FilterSelectTransformerTest {
+
+  private static final String KEY = "key";
+  private static final GenericRow VALUE = genericRow(1, 2L, "three");
+  private static final GenericRow PROJECTED = genericRow("three");
+
+  @Mock
+  private KsqlTransformer<String, Optional<GenericRow>> predicate;
+  @Mock
+  private KsqlTransformer<String, GenericRow> mapper;
+  @Mock
+  private KsqlProcessingContext ctx;
+
+  private FilterSelectTransformer<String> transformer;
+
+  @Before
+  public void setup() {
+    transformer = new FilterSelectTransformer<>(predicate, mapper);
+  }
+
+  @Test
+  public void shouldProjectRowsThatPassFilter() {
+    // Given:
+    when(predicate.transform(KEY, VALUE, ctx)).thenReturn(Optional.of(VALUE));
+    when(mapper.transform(KEY, VALUE, ctx)).thenReturn(PROJECTED);
+
+    // When:
+    final Optional<GenericRow> result = transformer.transform(KEY, VALUE, ctx);
+
+    // Then:
+    assertThat(result, is(Optional.of(PROJECTED)));
+  }
+
+  @Test
+  public void shouldNotProjectRowsThatFailFilter() {
+    // Given:
+    when(predicate.transform(KEY, VALUE, ctx)).thenReturn(Optional.empty());
+
+    // When:
+    final Optional<GenericRow> result = transformer.transform(KEY, VALUE, ctx);
+
+    // Then:
+    assertThat(result, is(Optional.empty()));
+    verify(mapper, never()).transform(any(), any(), any());
+  }
+}
@@ -30,39 +30,49 @@ import io.confluent.ksql.schema.ksql.types.SqlType;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.KsqlReferentialIntegrityException;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.concurrent.ThreadSafe;
 
+/**
+ * Copy-on-write meta store.
+ *
+ * <p>Sources are held in a {@link PersistentMap} that is replaced, never modified, by each write.
+ * This makes {@link #copy()} cheap: the copy shares the current map. Writes are cheap too, as
+ * the new map shares all but the changed entries' paths with the old one. Sandboxes, which are
+ * created for every validated statement, therefore no longer scale with the size of the catalog.
+ */
 @ThreadSafe
 public final class MetaStoreImpl implements MutableMetaStore {
 
-  private final Map<SourceName, SourceInfo> dataSources = new ConcurrentHashMap<>();
-  private final Object referentialIntegrityLock = new Object();
+  private final Object writeLock = new Object();
   private final FunctionRegistry functionRegistry;
   private final TypeRegistry typeRegistry;
+  private volatile PersistentMap<SourceName, SourceInfo> dataSources;
 
   public MetaStoreImpl(final FunctionRegistry functionRegistry) {
     this.functionRegistry = Objects.requireNonNull(functionRegistry, "functionRegistry");
     this.typeRegistry = new TypeRegistryImpl();
+    this.dataSources = PersistentMap.empty();
   }
 
   private MetaStoreImpl(
-      final Map<SourceName, SourceInfo> dataSources,
+      final PersistentMap<SourceName, SourceInfo> dataSources,
       final FunctionRegistry functionRegistry,
       final TypeRegistry typeRegistry
   ) {
     this.functionRegistry = Objects.requireNonNull(functionRegistry, "functionRegistry");
     this.typeRegistry = new TypeRegistryImpl();
+    this.dataSources = Objects.requireNonNull(dataSources, "dataSources");
 
-    dataSources.forEach((name, info) -> this.dataSources.put(name, info.copy()));
     typeRegistry.types()
         .forEachRemaining(type -> this.typeRegistry.registerType(type.getName(), type.getType()));
   }
@@ -78,62 +88,64 @@ public final class MetaStoreImpl implements MutableMetaStore {
 
   @Override
   public void putSource(final DataSource dataSource) {
-    final SourceInfo existing = dataSources
-        .putIfAbsent(dataSource.getName(), new SourceInfo(dataSource));
-
-    if (existing != null) {
+    update(sources -> {
       final SourceName name = dataSource.getName();
-      final String newType = dataSource.getDataSourceType().getKsqlType().toLowerCase();
-      final String existingType = existing.source.getDataSourceType().getKsqlType().toLowerCase();
+      final SourceInfo existing = sources.get(name);
 
-      throw new KsqlException(String.format(
-          "Cannot add %s '%s': A %s with the same name already exists",
-          newType, name.text(), existingType));
-    }
+      if (existing != null) {
+        final String newType = dataSource.getDataSourceType().getKsqlType().toLowerCase();
+        final String existingType =
+            existing.source.getDataSourceType().getKsqlType().toLowerCase();
+
+        throw new KsqlException(String.format(
+            "Cannot add %s '%s': A %s with the same name already exists",
+            newType, name.text(), existingType));
+      }
+
+      return sources.put(name, new SourceInfo(dataSource));
+    });
   }
 
   @Override
   public void deleteSource(final SourceName sourceName) {
-    synchronized (referentialIntegrityLock) {
-      dataSources.compute(sourceName, (ignored, source) -> {
-        if (source == null) {
-          throw new KsqlException(String.format("No data source with name %s exists.",
-              sourceName.text()));
-        }
+    update(sources -> {
+      final SourceInfo source = sources.get(sourceName);
+      if (source == null) {
+        throw new KsqlException(String.format("No data source with name %s exists.",
+            sourceName.text()));
+      }
 
-        final String sourceForQueriesMessage = source.referentialIntegrity
-            .getSourceForQueries()
-            .stream()
-            .collect(Collectors.joining(", "));
-
-        final String sinkForQueriesMessage = source.referentialIntegrity
-            .getSinkForQueries()
-            .stream()
-            .collect(Collectors.joining(", "));
-
-        if (!sourceForQueriesMessage.isEmpty() || !sinkForQueriesMessage.isEmpty()) {
-          throw new KsqlReferentialIntegrityException(
-              String.format("Cannot drop %s.%n"
-                      + "The following queries read from this source: [%s].%n"
-                      + "The following queries write into this source: [%s].%n"
-                      + "You need to terminate them before dropping %s.",
-                  sourceName.toString(FormatOptions.noEscape()),
-                  sourceForQueriesMessage,
-                  sinkForQueriesMessage,
-                  sourceName.toString(FormatOptions.noEscape())));
-        }
+      final String sourceForQueriesMessage = source.referentialIntegrity
+          .getSourceForQueries()
+          .stream()
+          .collect(Collectors.joining(", "));
+
+      final String sinkForQueriesMessage = source.referentialIntegrity
+          .getSinkForQueries()
+          .stream()
+          .collect(Collectors.joining(", "));
+
+      if (!sourceForQueriesMessage.isEmpty() || !sinkForQueriesMessage.isEmpty()) {
+        throw new KsqlReferentialIntegrityException(
+            String.format("Cannot drop %s.%n"
+                    + "The following queries read from this source: [%s].%n"
+                    + "The following queries write into this source: [%s].%n"
+                    + "You need to terminate them before dropping %s.",
+                sourceName.toString(FormatOptions.noEscape()),
+                sourceForQueriesMessage,
+                sinkForQueriesMessage,
+                sourceName.toString(FormatOptions.noEscape())));
+      }
 
-        return null;
-      });
-    }
+      return sources.remove(sourceName);
+    });
   }
 
   @Override
   public Map<SourceName, DataSource> getAllDataSources() {
-    return dataSources
-        .entrySet()
-        .stream()
-        .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().source));
+    final Map<SourceName, DataSource> result = new HashMap<>();
+    dataSources.forEach((name, info) -> result.put(name, info.source));
+    return result;
   }
 
   @Override
@@ -142,14 +154,14 @@ public final class MetaStoreImpl implements MutableMetaStore {
       final Set<SourceName> sourceNames,
       final Set<SourceName> sinkNames
   ) {
-    synchronized (referentialIntegrityLock) {
-      final String sourceAlreadyRegistered = streamSources(sourceNames)
+    update(sources -> {
+      final String sourceAlreadyRegistered = streamSources(sources, sourceNames)
           .filter(source -> source.referentialIntegrity.getSourceForQueries().contains(queryId))
           .map(source -> source.source.getName())
           .map(Object::toString)
           .collect(Collectors.joining(","));
 
-      final String sinkAlreadyRegistered = streamSources(sinkNames)
+      final String sinkAlreadyRegistered = streamSources(sources, sinkNames)
           .filter(source -> source.referentialIntegrity.getSinkForQueries().contains(queryId))
           .map(source -> source.source.getName())
           .map(Object::toString)
@@ -162,20 +174,41 @@ public final class MetaStoreImpl implements MutableMetaStore {
             + ", registeredAgainstSink: " + sinkAlreadyRegistered);
       }
 
-      streamSources(sourceNames)
-          .forEach(source -> source.referentialIntegrity.addSourceForQueries(queryId));
-      streamSources(sinkNames)
-          .forEach(source -> source.referentialIntegrity.addSinkForQueries(queryId));
-    }
+      PersistentMap<SourceName, SourceInfo> updated = sources;
+      for (final SourceName name : sourceNames) {
+        final SourceInfo source = updated.get(name).copy();
+        source.referentialIntegrity.addSourceForQueries(queryId);
+        updated = updated.put(name, source);
+      }
+
+      for (final SourceName name : sinkNames) {
+        final SourceInfo source = updated.get(name).copy();
+        source.referentialIntegrity.addSinkForQueries(queryId);
+        updated = updated.put(name, source);
+      }
+      return updated;
+    });
   }
 
   @Override
   public void removePersistentQuery(final String queryId) {
-    synchronized (referentialIntegrityLock) {
-      for (final SourceInfo sourceInfo : dataSources.values()) {
-        sourceInfo.referentialIntegrity.removeQuery(queryId);
+    update(sources -> {
+      final Map<SourceName, SourceInfo> changed = new HashMap<>();
+      sources.forEach((name, source) -> {
+        if (source.referentialIntegrity.getSourceForQueries().contains(queryId)
+            || source.referentialIntegrity.getSinkForQueries().contains(queryId)) {
+          final SourceInfo updated = source.copy();
+          updated.referentialIntegrity.removeQuery(queryId);
+          changed.put(name, updated);
+        }
+      });
+
+      PersistentMap<SourceName, SourceInfo> updated = sources;
+      for (final Map.Entry<SourceName, SourceInfo> e : changed.entrySet()) {
+        updated = updated.put(e.getKey(), e.getValue());
       }
-    }
+      return updated;
+    });
   }
 
   @Override
@@ -198,9 +231,7 @@ public final class MetaStoreImpl implements MutableMetaStore {
 
   @Override
   public MutableMetaStore copy() {
-    synchronized (referentialIntegrityLock) {
-      return new MetaStoreImpl(dataSources, functionRegistry, typeRegistry);
-    }
+    return new MetaStoreImpl(dataSources, functionRegistry, typeRegistry);
   }
 
   @Override
@@ -256,10 +287,28 @@ public final class MetaStoreImpl implements MutableMetaStore {
     return functionRegistry.listTableFunctions();
   }
 
-  private Stream<SourceInfo> streamSources(final Set<SourceName> sourceNames) {
+  /**
+   * Applies {@code change} to the current sources and publishes the map it returns.
+   *
+   * <p>Writers are serialized, so no change is lost. If {@code change} throws, nothing is
+   * published. Readers always see either the old or the new map, never a partial change.
+   *
+   * <p>{@link SourceInfo} instances are shared between maps, and between a store and its
+   * copies, so {@code change} must replace an entry rather than modify it.
+   */
+  private void update(final UnaryOperator<PersistentMap<SourceName, SourceInfo>> change) {
+    synchronized (writeLock) {
+      dataSources = change.apply(dataSources);
+    }
+  }
+
+  private static Stream<SourceInfo> streamSources(
+      final PersistentMap<SourceName, SourceInfo> sources,
+      final Set<SourceName> sourceNames
+  ) {
     return sourceNames.stream()
         .map(sourceName -> {
-          final SourceInfo sourceInfo = dataSources.get(sourceName);
+          final SourceInfo sourceInfo = sources.get(sourceName);
           if (sourceInfo == null) {
             throw new KsqlException("Unknown source: " + sourceName.text());
           }
@@ -0,0 +1,379 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.metastore;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable hash map whose updates return a new map that shares all but the changed path
+ * with the original.
+ *
+ * <p>Entries are held in a hash array mapped trie, branching on five bits of the key's hash at
+ * each level. An update copies only the nodes between the root and the changed entry, so it
+ * costs O(log n) time and space, however many other entries the map holds.
+ *
+ * <p>Keys must be immutable and non-null. Values must be non-null.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ */
+final class PersistentMap<K, V> {
+
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+  private static final int MAX_SHIFT = 30;
+
+  private static final PersistentMap<?, ?> EMPTY =
+      new PersistentMap<>(new BitmapNode<>(0, new Object[0]), 0);
+
+  private final Node<K, V> root;
+  private final int size;
+
+  @SuppressWarnings("unchecked")
+  static <K, V> PersistentMap<K, V> empty() {
+    return (PersistentMap<K, V>) EMPTY;
+  }
+
+  private PersistentMap(final Node<K, V> root, final int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * @return the value of the key, or {@code null} if the map does not contain it.
+   */
+  V get(final K key) {
+    return root.get(key, hash(key), 0);
+  }
+
+  /**
+   * @return a map that also maps {@code key} to {@code value}, replacing any existing value.
+   */
+  PersistentMap<K, V> put(final K key, final V value) {
+    Objects.requireNonNull(value, "value");
+    final Entry<K, V> entry = new Entry<>(key, value, hash(key));
+    final Node<K, V> newRoot = root.put(entry, 0);
+    if (newRoot == root) {
+      return this;
+    }
+    return new PersistentMap<>(newRoot, root.contains(key, entry.hash, 0) ? size : size + 1);
+  }
+
+  /**
+   * @return a map without {@code key}.
+   */
+  PersistentMap<K, V> remove(final K key) {
+    final Node<K, V> newRoot = root.remove(key, hash(key), 0);
+    if (newRoot == root) {
+      return this;
+    }
+    return new PersistentMap<>(newRoot, size - 1);
+  }
+
+  void forEach(final BiConsumer<? super K, ? super V> action) {
+    root.forEach(action);
+  }
+
+  private static int hash(final Object key) {
+    final int h = key.hashCode();
+    // Spread the high bits, so keys that differ only in them don't share a long path:
+    return h ^ (h >>> 16);
+  }
+
+  private static int index(final int hash, final int shift) {
+    return (hash >>> shift) & MASK;
+  }
+
+  private static <K, V> Node<K, V> merge(
+      final Entry<K, V> a,
+      final Entry<K, V> b,
+      final int shift
+  ) {
+    if (shift > MAX_SHIFT) {
+      // All bits of the hash are used up:
+      return new CollisionNode<>(new Object[]{a, b});
+    }
+
+    final int indexA = index(a.hash, shift);
+    final int indexB = index(b.hash, shift);
+    if (indexA == indexB) {
+      return new BitmapNode<>(1 << indexA, new Object[]{merge(a, b, shift + BITS)});
+    }
+
+    return indexA < indexB
+        ? new BitmapNode<>((1 << indexA) | (1 << indexB), new Object[]{a, b})
+        : new BitmapNode<>((1 << indexA) | (1 << indexB), new Object[]{b, a});
+  }
+
+  private static final class Entry<K, V> {
+
+    private final K key;
+    private final V value;
+    private final int hash;
+
+    Entry(final K key, final V value, final int hash) {
+      this.key = Objects.requireNonNull(key, "key");
+      this.value = value;
+      this.hash = hash;
+    }
+  }
+
+  /**
+   * Nodes are never modified once built: each update returns a new node, or the same node if the
+   * update changes nothing.
+   */
+  private abstract static class Node<K, V> {
+
+    abstract V get(Object key, int hash, int shift);
+
+    abstract Node<K, V> put(Entry<K, V> entry, int shift);
+
+    /**
+     * @return the node without the key. A node left with no entries is returned as an empty
+     *     {@link BitmapNode}.
+     */
+    abstract Node<K, V> remove(Object key, int hash, int shift);
+
+    abstract void forEach(BiConsumer<? super K, ? super V> action);
+
+    /**
+     * @return the node's only entry, if it holds exactly one and no child nodes, else null.
+     */
+    abstract Entry<K, V> single();
+
+    abstract boolean isEmpty();
+
+    final boolean contains(final Object key, final int hash, final int shift) {
+      return get(key, hash, shift) != null;
+    }
+  }
+
+  /**
+   * A node holding, for each set bit of its bitmap, either an entry or a child node.
+   */
+  private static final class BitmapNode<K, V> extends Node<K, V> {
+
+    private final int bitmap;
+    private final Object[] slots;
+
+    BitmapNode(final int bitmap, final Object[] slots) {
+      this.bitmap = bitmap;
+      this.slots = slots;
+    }
+
+    @Override
+    V get(final Object key, final int hash, final int shift) {
+      final int bit = 1 << index(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return null;
+      }
+
+      final Object slot = slots[slot(bit)];
+      if (slot instanceof Entry) {
+        final Entry<K, V> entry = cast(slot);
+        return entry.key.equals(key) ? entry.value : null;
+      }
+      return child(slot).get(key, hash, shift + BITS);
+    }
+
+    @Override
+    Node<K, V> put(final Entry<K, V> entry, final int shift) {
+      final int bit = 1 << index(entry.hash, shift);
+      final int pos = slot(bit);
+
+      if ((bitmap & bit) == 0) {
+        final Object[] newSlots = new Object[slots.length + 1];
+        System.arraycopy(slots, 0, newSlots, 0, pos);
+        newSlots[pos] = entry;
+        System.arraycopy(slots, pos, newSlots, pos + 1, slots.length - pos);
+        return new BitmapNode<>(bitmap | bit, newSlots);
+      }
+
+      final Object slot = slots[pos];
+      if (slot instanceof Entry) {
+        final Entry<K, V> existing = cast(slot);
+        if (existing.key.equals(entry.key)) {
+          return existing.value == entry.value ? this : withSlot(pos, entry);
+        }
+        return withSlot(pos, merge(existing, entry, shift + BITS));
+      }
+
+      final Node<K, V> child = child(slot);
+      final Node<K, V> newChild = child.put(entry, shift + BITS);
+      return newChild == child ? this : withSlot(pos, newChild);
+    }
+
+    @Override
+    Node<K, V> remove(final Object key, final int hash, final int shift) {
+      final int bit = 1 << index(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+
+      final int pos = slot(bit);
+      final Object slot = slots[pos];
+      if (slot instanceof Entry) {
+        return ((Entry<?, ?>) slot).key.equals(key) ? withoutSlot(bit, pos) : this;
+      }
+
+      final Node<K, V> child = child(slot);
+      final Node<K, V> newChild = child.remove(key, hash, shift + BITS);
+      if (newChild == child) {
+        return this;
+      }
+      if (newChild.isEmpty()) {
+        return withoutSlot(bit, pos);
+      }
+
+      // Pull a lone entry up, so the trie is no deeper than needed:
+      final Entry<K, V> single = newChild.single();
+      return withSlot(pos, single != null ? single : newChild);
+    }
+
+    @Override
+    void forEach(final BiConsumer<? super K, ? super V> action) {
+      for (final Object slot : slots) {
+        if (slot instanceof Entry) {
+          final Entry<K, V> entry = cast(slot);
+          action.accept(entry.key, entry.value);
+        } else {
+          child(slot).forEach(action);
+        }
+      }
+    }
+
+    @Override
+    Entry<K, V> single() {
+      return slots.length == 1 && slots[0] instanceof Entry ? cast(slots[0]) : null;
+    }
+
+    @Override
+    boolean isEmpty() {
+      return slots.length == 0;
+    }
+
+    private int slot(final int bit) {
+      return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    private BitmapNode<K, V> withSlot(final int pos, final Object slot) {
+      final Object[] newSlots = slots.clone();
+      newSlots[pos] = slot;
+      return new BitmapNode<>(bitmap, newSlots);
+    }
+
+    private BitmapNode<K, V> withoutSlot(final int bit, final int pos) {
+      final Object[] newSlots = new Object[slots.length - 1];
+      System.arraycopy(slots, 0, newSlots, 0, pos);
+      System.arraycopy(slots, pos + 1, newSlots, pos, slots.length - pos - 1);
+      return new BitmapNode<>(bitmap & ~bit, newSlots);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Node<K, V> child(final Object slot) {
+      return (Node<K, V>) slot;
+    }
+  }
+
+  /**
+   * A node holding entries whose keys have the same hash.
+   */
+  private static final class CollisionNode<K, V> extends Node<K, V> {
+
+    private final Object[] entries;
+
+    CollisionNode(final Object[] entries) {
+      this.entries = entries;
+    }
+
+    @Override
+    V get(final Object key, final int hash, final int shift) {
+      final int pos = find(key);
+      return pos < 0 ? null : PersistentMap.<K, V>cast(entries[pos]).value;
+    }
+
+    @Override
+    Node<K, V> put(final Entry<K, V> entry, final int shift) {
+      final int pos = find(entry.key);
+      if (pos < 0) {
+        final Object[] newEntries = Arrays.copyOf(entries, entries.length + 1);
+        newEntries[entries.length] = entry;
+        return new CollisionNode<>(newEntries);
+      }
+
+      if (PersistentMap.<K, V>cast(entries[pos]).value == entry.value) {
+        return this;
+      }
+
+      final Object[] newEntries = entries.clone();
+      newEntries[pos] = entry;
+      return new CollisionNode<>(newEntries);
+    }
+
+    @Override
+    Node<K, V> remove(final Object key, final int hash, final int shift) {
+      final int pos = find(key);
+      if (pos < 0) {
+        return this;
+      }
+
+      final Object[] newEntries = new Object[entries.length - 1];
+      System.arraycopy(entries, 0, newEntries, 0, pos);
+      System.arraycopy(entries, pos + 1, newEntries, pos, entries.length - pos - 1);
+      return newEntries.length == 0
+          ? new BitmapNode<>(0, newEntries)
+          : new CollisionNode<>(newEntries);
+    }
+
+    @Override
+    void forEach(final BiConsumer<? super K, ? super V> action) {
+      for (final Object e : entries) {
+        final Entry<K, V> entry = cast(e);
+        action.accept(entry.key, entry.value);
+      }
+    }
+
+    @Override
+    Entry<K, V> single() {
+      return entries.length == 1 ? cast(entries[0]) : null;
+    }
+
+    @Override
+    boolean isEmpty() {
+      return entries.length == 0;
+    }
+
+    private int find(final Object key) {
+      for (int i = 0; i < entries.length; i++) {
+        if (((Entry<?, ?>) entries[i]).key.equals(key)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <K, V> Entry<K, V> cast(final Object entry) {
+    return (Entry<K, V>) entry;
+  }
+}
@@ -144,6 +144,25 @@ public class MetaStoreImplTest {
     assertThat(metaStore.getQueriesWithSink(dataSource.getName()), is(empty()));
   }
 
+  @Test
+  public void shouldNotSeeChangesMadeToCopy() {
+    // Given:
+    metaStore.putSource(dataSource);
+    final MutableMetaStore copy = metaStore.copy();
+
+    // When:
+    copy.putSource(dataSource1);
+    copy.updateForPersistentQuery(
+        "sandboxed query",
+        ImmutableSet.of(dataSource.getName()),
+        ImmutableSet.of(dataSource1.getName()));
+
+    // Then:
+    assertThat(metaStore.getAllDataSources().keySet(), contains(dataSource.getName()));
+    assertThat(metaStore.getQueriesWithSource(dataSource.getName()), is(empty()));
+    assertThat(copy.getQueriesWithSource(dataSource.getName()), contains("sandboxed query"));
+  }
+
   @Test
   public void shouldNotAllowModificationViaGetAllDataSources() {
     // Given:
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.metastore;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+public class PersistentMapTest {
+
+  @Test
+  public void shouldBeEmpty() {
+    // Given:
+    final PersistentMap<String, Integer> map = PersistentMap.empty();
+
+    // Then:
+    assertThat(map.size(), is(0));
+    assertThat(map.get("a"), is(nullValue()));
+  }
+
+  @Test
+  public void shouldPutAndGet() {
+    // When:
+    final PersistentMap<String, Integer> map = PersistentMap.<String, Integer>empty()
+        .put("a", 1)
+        .put("b", 2);
+
+    // Then:
+    assertThat(map.size(), is(2));
+    assertThat(map.get("a"), is(1));
+    assertThat(map.get("b"), is(2));
+  }
+
+  @Test
+  public void shouldReplaceValue() {
+    // When:
+    final PersistentMap<String, Integer> map = PersistentMap.<String, Integer>empty()
+        .put("a", 1)
+        .put("a", 2);
+
+    // Then:
+    assertThat(map.size(), is(1));
+    assertThat(map.get("a"), is(2));
+  }
+
+  @Test
+  public void shouldReturnSameMapIfNothingChanges() {
+    // Given:
+    final Integer value = 1;
+    final PersistentMap<String, Integer> map = PersistentMap.<String, Integer>empty()
+        .put("a", value);
+
+    // Then:
+    assertThat(map.put("a", value), is(sameInstance(map)));
+    assertThat(map.remove("b"), is(sameInstance(map)));
+  }
+
+  @Test
+  public void shouldRemove() {
+    // Given:
+    final PersistentMap<String, Integer> map = PersistentMap.<String, Integer>empty()
+        .put("a", 1)
+        .put("b", 2);
+
+    // When:
+    final PersistentMap<String, Integer> result = map.remove("a");
+
+    // Then:
+    assertThat(result.size(), is(1));
+    assertThat(result.get("a"), is(nullValue()));
+    assertThat(result.get("b"), is(2));
+  }
+
+  @Test
+  public void shouldNotChangeOriginalOnUpdate() {
+    // Given:
+    final PersistentMap<String, Integer> original = PersistentMap.<String, Integer>empty()
+        .put("a", 1)
+        .put("b", 2);
+
+    // When:
+    original.put("a", 3).put("c", 4).remove("b");
+
+    // Then:
+    assertThat(original.size(), is(2));
+    assertThat(original.get("a"), is(1));
+    assertThat(original.get("b"), is(2));
+    assertThat(original.get("c"), is(nullValue()));
+  }
+
+  @Test
+  public void shouldHandleKeysWithSameHash() {
+    // Given:
+    final Key a = new Key("a", 42);
+    final Key b = new Key("b", 42);
+    final Key c = new Key("c", 42);
+
+    // When:
+    final PersistentMap<Key, Integer> map = PersistentMap.<Key, Integer>empty()
+        .put(a, 1)
+        .put(b, 2)
+        .put(c, 3)
+        .remove(b);
+
+    // Then:
+    assertThat(map.size(), is(2));
+    assertThat(map.get(a), is(1));
+    assertThat(map.get(b), is(nullValue()));
+    assertThat(map.get(c), is(3));
+  }
+
+  @Test
+  public void shouldMatchHashMapOverRandomUpdates() {
+    // Given:
+    final Random random = new Random(7);
+    final Map<Key, Integer> expected = new HashMap<>();
+    PersistentMap<Key, Integer> map = PersistentMap.empty();
+
+    // When:
+    for (int i = 0; i < 20_000; i++) {
+      final int id = random.nextInt(2_000);
+      final Key key = new Key("k" + id, id % 97);
+      if (random.nextInt(3) == 0) {
+        expected.remove(key);
+        map = map.remove(key);
+      } else {
+        expected.put(key, i);
+        map = map.put(key, i);
+      }
+    }
+
+    // Then:
+    final Map<Key, Integer> actual = new HashMap<>();
+    map.forEach(actual::put);
+    assertThat(actual, is(expected));
+    assertThat(map.size(), is(expected.size()));
+  }
+
+  private static final class Key {
+
+    private final String name;
+    private final int hash;
+
+    Key(final String name, final int hash) {
+      this.name = name;
+      this.hash = hash;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      return o instanceof Key && ((Key) o).name.equals(name);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+}
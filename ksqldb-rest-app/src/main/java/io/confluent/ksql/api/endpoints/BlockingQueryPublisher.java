@@ -15,55 +15,98 @@
 
 package io.confluent.ksql.api.endpoints;
 
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.api.server.PushQueryHandle;
 import io.confluent.ksql.api.spi.QueryPublisher;
+import io.confluent.ksql.query.ScalablePushSubscriber;
 import io.confluent.ksql.reactive.BasePublisher;
+import io.confluent.ksql.reactive.BoundedRingBuffer;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.KsqlException;
 import io.vertx.core.Context;
 import io.vertx.core.WorkerExecutor;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.OptionalInt;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * A query publisher that uses an internal blocking queue to store rows for delivery. It's currently
- * necessary to use a blocking queue as Kafka Streams delivers message in a synchronous fashion with
- * no back pressure. If the queue was not blocking then if the subscriber was slow the messages
- * could build up on the queue eventually resulting in out of memory. The only mechanism we have to
- * slow streams down is to block the thread. Kafka Streams uses dedicated streams per topology so
- * this won't prevent the thread from doing useful work elsewhere but it does mean we can't have too
- * many push queries in the server at any one time as we can end up with a lot of threads.
+ * A query publisher that uses an internal bounded queue to store rows for delivery. Kafka Streams
+ * delivers message in a synchronous fashion with no back pressure, so if the subscriber is slow the
+ * queue fills up and the {@link OverflowPolicy} decides what happens to the next row: by default
+ * the streams thread is paused until there is space, which is the only mechanism we have to slow
+ * streams down. Kafka Streams uses dedicated streams per topology so this won't prevent the thread
+ * from doing useful work elsewhere but it does mean we can't have too many push queries in the
+ * server at any one time as we can end up with a lot of threads.
+ *
+ * <p>The queue itself is lock-free, so producing a row never contends with the event loop draining
+ * rows. At most one drain is scheduled on the event loop at a time, and each drain delivers a batch
+ * of rows.
+ *
+ * <p>Scalable push queries share the thread of the persistent query they subscribe to, so they
+ * deliver rows via {@link #offer(GenericRow)}, which never blocks and drops the row if the queue
+ * is full and the policy is to pause.
  */
 public class BlockingQueryPublisher extends BasePublisher<GenericRow>
-    implements QueryPublisher, Consumer<GenericRow> {
+    implements QueryPublisher, Consumer<GenericRow>, ScalablePushSubscriber {
 
   private static final Logger log = LoggerFactory.getLogger(BlockingQueryPublisher.class);
 
   public static final int SEND_MAX_BATCH_SIZE = 200;
-  public static final int BLOCKING_QUEUE_CAPACITY = 500;
+  public static final int BLOCKING_QUEUE_CAPACITY = 512;
+
+  private static final long MIN_PAUSE_NS = TimeUnit.MICROSECONDS.toNanos(10);
+  private static final long MAX_PAUSE_NS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  /**
+   * What to do with a row when the queue is full.
+   */
+  public enum OverflowPolicy {
+    PAUSE,
+    DROP_OLDEST,
+    ERROR;
 
-  private final BlockingQueue<GenericRow> queue = new LinkedBlockingQueue<>(
+    public static OverflowPolicy from(final KsqlConfig config) {
+      final String policy = config.getString(KsqlConfig.KSQL_QUERY_PUSH_OVERFLOW_POLICY);
+      return OverflowPolicy.valueOf(policy.toUpperCase(Locale.ROOT));
+    }
+  }
+
+  private final BoundedRingBuffer<GenericRow> queue = new BoundedRingBuffer<>(
       BLOCKING_QUEUE_CAPACITY);
+  private final AtomicBoolean sendScheduled = new AtomicBoolean();
+  private final AtomicInteger numAccepted = new AtomicInteger();
+  private final AtomicInteger numQueued = new AtomicInteger();
+  private final AtomicBoolean closed = new AtomicBoolean();
   private final WorkerExecutor workerExecutor;
+  private final OverflowPolicy overflowPolicy;
   private PushQueryHandle queryHandle;
+  private Optional<PushQueryQueueMetrics> metrics = Optional.empty();
   private List<String> columnNames;
   private List<String> columnTypes;
   private OptionalInt limit;
-  private int numAccepted;
-  private boolean complete;
-  private volatile boolean closed;
+  private boolean completeSent;
+  private volatile boolean complete;
 
   public BlockingQueryPublisher(final Context ctx,
       final WorkerExecutor workerExecutor) {
+    this(ctx, workerExecutor, OverflowPolicy.PAUSE);
+  }
+
+  public BlockingQueryPublisher(final Context ctx,
+      final WorkerExecutor workerExecutor,
+      final OverflowPolicy overflowPolicy) {
     super(ctx);
     this.workerExecutor = Objects.requireNonNull(workerExecutor);
+    this.overflowPolicy = Objects.requireNonNull(overflowPolicy);
   }
 
   public void setQueryHandle(final PushQueryHandle queryHandle) {
@@ -73,6 +116,10 @@ public class BlockingQueryPublisher extends BasePublisher<GenericRow>
     this.columnTypes = queryHandle.getColumnTypes();
   }
 
+  public void setMetrics(final PushQueryQueueMetrics metrics) {
+    this.metrics = Optional.of(metrics);
+  }
+
   @Override
   public List<String> getColumnNames() {
     return columnNames;
@@ -84,35 +131,30 @@ public class BlockingQueryPublisher extends BasePublisher<GenericRow>
   }
 
   public void close() {
-    if (closed) {
+    if (!closed.compareAndSet(false, true)) {
       return;
     }
-    closed = true;
     // Run async as it can block
     executeOnWorker(queryHandle::stop);
+    metrics.ifPresent(PushQueryQueueMetrics::close);
     super.close();
   }
 
   @Override
-  public synchronized void accept(final GenericRow row) {
-    Objects.requireNonNull(row);
+  public void accept(final GenericRow row) {
+    enqueue(row, true);
+  }
 
-    if (closed || complete || !hasReachedLimit()) {
-      return;
-    }
+  @Override
+  public boolean offer(final GenericRow row) {
+    return enqueue(row, false);
+  }
 
-    while (!closed) {
-      try {
-        // Don't block for more than a little while each time to allow close to work
-        if (queue.offer(row, 250, TimeUnit.MILLISECONDS)) {
-          numAccepted++;
-          maybeSend();
-          return;
-        }
-      } catch (InterruptedException ignore) {
-        return;
-      }
-    }
+  @Override
+  public void onComplete() {
+    // Set to complete after delivering any buffered rows
+    complete = true;
+    maybeSend();
   }
 
   public int queueSize() {
@@ -126,7 +168,9 @@ public class BlockingQueryPublisher extends BasePublisher<GenericRow>
 
   @Override
   protected void maybeSend() {
-    ctx.runOnContext(v -> doSend());
+    if (sendScheduled.compareAndSet(false, true)) {
+      ctx.runOnContext(v -> doSend());
+    }
   }
 
   @Override
@@ -143,40 +187,134 @@ public class BlockingQueryPublisher extends BasePublisher<GenericRow>
     });
   }
 
-  private boolean hasReachedLimit() {
-    if (limit.isPresent()) {
-      final int lim = limit.getAsInt();
-      if (numAccepted == lim) {
+  /**
+   * Add a row to the queue, applying the overflow policy if it is full.
+   *
+   * @param row the row to add.
+   * @param mayBlock whether the calling thread may be paused until there is space.
+   * @return {@code false} if the row was dropped.
+   */
+  private boolean enqueue(final GenericRow row, final boolean mayBlock) {
+    Objects.requireNonNull(row);
+
+    if (closed.get() || complete) {
+      return true;
+    }
+
+    // Reserve a place within the limit first, so a dropped row does not count towards it:
+    if (!reserve()) {
+      return true;
+    }
+
+    if (!queue.offer(row) && !handleOverflow(row, mayBlock)) {
+      numAccepted.decrementAndGet();
+      return false;
+    }
+
+    if (limit.isPresent() && numQueued.incrementAndGet() == limit.getAsInt()) {
+      // Set to complete after delivering any buffered rows
+      complete = true;
+    }
+    maybeSend();
+    return true;
+  }
+
+  private boolean reserve() {
+    if (!limit.isPresent()) {
+      return true;
+    }
+
+    final int lim = limit.getAsInt();
+    while (true) {
+      final int accepted = numAccepted.get();
+      if (accepted >= lim) {
         // Reached limit
         return false;
       }
-      if (numAccepted == lim - 1) {
-        // Set to complete after delivering any buffered rows
-        complete = true;
+      if (numAccepted.compareAndSet(accepted, accepted + 1)) {
+        return true;
       }
     }
-    return true;
   }
 
-  @SuppressFBWarnings(
-      value = "IS2_INCONSISTENT_SYNC",
-      justification = "Vert.x ensures this is executed on event loop only")
+  private boolean handleOverflow(final GenericRow row, final boolean mayBlock) {
+    switch (overflowPolicy) {
+      case DROP_OLDEST:
+        // Rows already dropped still count towards any limit:
+        do {
+          if (queue.poll() != null) {
+            metrics.ifPresent(PushQueryQueueMetrics::recordDroppedRow);
+          }
+        } while (!queue.offer(row));
+        return true;
+
+      case ERROR:
+        fail(new KsqlException("Push query failed as its client did not keep up with the rows "
+            + "it produced. Queue capacity: " + queue.capacity()));
+        return false;
+
+      default:
+        if (mayBlock && pauseUntilOffered(row)) {
+          return true;
+        }
+        metrics.ifPresent(PushQueryQueueMetrics::recordDroppedRow);
+        return false;
+    }
+  }
+
+  private boolean pauseUntilOffered(final GenericRow row) {
+    final long start = System.nanoTime();
+    long pauseNs = MIN_PAUSE_NS;
+    try {
+      while (!closed.get()) {
+        // Pause for a little while each time to allow close to work
+        LockSupport.parkNanos(pauseNs);
+        if (queue.offer(row)) {
+          return true;
+        }
+        if (Thread.currentThread().isInterrupted()) {
+          return false;
+        }
+        pauseNs = Math.min(pauseNs * 2, MAX_PAUSE_NS);
+      }
+      return false;
+    } finally {
+      final long blocked = System.nanoTime() - start;
+      metrics.ifPresent(m -> m.recordBlocked(blocked));
+    }
+  }
+
+  private void fail(final Exception e) {
+    if (!closed.compareAndSet(false, true)) {
+      return;
+    }
+    executeOnWorker(queryHandle::stop);
+    metrics.ifPresent(PushQueryQueueMetrics::close);
+    ctx.runOnContext(v -> sendError(e));
+  }
+
   private void doSend() {
     checkContext();
 
+    // Clear before draining, so rows queued from now on schedule another drain:
+    sendScheduled.set(false);
+
     int num = 0;
-    while (getDemand() > 0 && !queue.isEmpty()) {
-      if (num < SEND_MAX_BATCH_SIZE) {
-        doOnNext(queue.poll());
-        if (complete && queue.isEmpty()) {
-          ctx.runOnContext(v -> sendComplete());
-        }
-        num++;
-      } else {
-        // Schedule another batch async
-        ctx.runOnContext(v -> doSend());
+    while (!isCancelled() && getDemand() > 0 && num < SEND_MAX_BATCH_SIZE) {
+      final GenericRow row = queue.poll();
+      if (row == null) {
         break;
       }
+      doOnNext(row);
+      num++;
+    }
+
+    if (complete && !completeSent && getSubscriber() != null && queue.isEmpty()) {
+      completeSent = true;
+      sendComplete();
+    } else if (num == SEND_MAX_BATCH_SIZE && getDemand() > 0 && !queue.isEmpty()) {
+      // Schedule another batch async
+      maybeSend();
     }
   }
 
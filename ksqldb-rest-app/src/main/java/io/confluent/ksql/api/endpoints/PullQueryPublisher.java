@@ -18,22 +18,28 @@ package io.confluent.ksql.api.endpoints;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.api.spi.QueryPublisher;
 import io.confluent.ksql.reactive.BufferedPublisher;
+import io.confluent.ksql.rest.entity.KsqlWarning;
 import io.confluent.ksql.rest.entity.TableRowsEntity;
 import io.vertx.core.Context;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 public class PullQueryPublisher extends BufferedPublisher<GenericRow> implements QueryPublisher {
 
   private final List<String> columnNames;
   private final List<String> columnTypes;
+  private final List<String> warnings;
 
   public PullQueryPublisher(final Context ctx, final TableRowsEntity tableRows,
       final List<String> columnNames, final List<String> columnTypes) {
     super(ctx, toGenericRows(tableRows));
     this.columnNames = Objects.requireNonNull(columnNames);
     this.columnTypes = Objects.requireNonNull(columnTypes);
+    this.warnings = tableRows.getWarnings().stream()
+        .map(KsqlWarning::getMessage)
+        .collect(Collectors.toList());
   }
 
   @SuppressWarnings({"unchecked", "rawtypes"})
@@ -56,6 +62,11 @@ public class PullQueryPublisher extends BufferedPublisher<GenericRow> implements
     return columnTypes;
   }
 
+  @Override
+  public List<String> getWarnings() {
+    return warnings;
+  }
+
   @Override
   public boolean isPullQuery() {
     return true;
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.api.endpoints;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.metrics.MetricCollectors;
+import java.io.Closeable;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Gauge;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.CumulativeSum;
+
+/**
+ * Metrics for the buffer of rows a push query has produced but not yet written to its client.
+ */
+public class PushQueryQueueMetrics implements Closeable {
+
+  private static final String METRIC_GROUP = "ksql-push-query-queue";
+
+  private final Metrics metrics;
+  private final Map<String, String> tags;
+  private final MetricName queueDepth;
+  private final Sensor blockedTimeSensor;
+  private final Sensor droppedRowsSensor;
+
+  public PushQueryQueueMetrics(final String queryId, final Supplier<Integer> queueDepth) {
+    this(MetricCollectors.getMetrics(), queryId, queueDepth);
+  }
+
+  PushQueryQueueMetrics(
+      final Metrics metrics,
+      final String queryId,
+      final Supplier<Integer> queueDepth
+  ) {
+    this.metrics = Objects.requireNonNull(metrics, "metrics");
+    this.tags = ImmutableMap.of("query-id", Objects.requireNonNull(queryId, "queryId"));
+    Objects.requireNonNull(queueDepth, "queueDepth");
+
+    this.queueDepth = metrics.metricName(
+        "queue-depth",
+        METRIC_GROUP,
+        "The number of rows waiting to be written to the client",
+        tags
+    );
+    metrics.addMetric(this.queueDepth, (Gauge<Integer>) (config, now) -> queueDepth.get());
+
+    this.blockedTimeSensor = configureSumSensor(
+        "blocked-time-ms-total",
+        "The total time the query has spent blocked waiting for space in the queue"
+    );
+    this.droppedRowsSensor = configureSumSensor(
+        "dropped-rows-total",
+        "The total number of rows dropped because the queue was full"
+    );
+  }
+
+  public void recordBlocked(final long nanos) {
+    blockedTimeSensor.record(TimeUnit.NANOSECONDS.toMillis(nanos));
+  }
+
+  public void recordDroppedRow() {
+    droppedRowsSensor.record(1);
+  }
+
+  @Override
+  public void close() {
+    metrics.removeMetric(queueDepth);
+    metrics.removeSensor(blockedTimeSensor.name());
+    metrics.removeSensor(droppedRowsSensor.name());
+  }
+
+  private Sensor configureSumSensor(final String name, final String description) {
+    final Sensor sensor = metrics.sensor(METRIC_GROUP + "-" + tags.get("query-id") + "-" + name);
+    sensor.add(metrics.metricName(name, METRIC_GROUP, description, tags), new CumulativeSum());
+    return sensor;
+  }
+}
@@ -15,6 +15,7 @@
 
 package io.confluent.ksql.api.endpoints;
 
+import io.confluent.ksql.api.endpoints.BlockingQueryPublisher.OverflowPolicy;
 import io.confluent.ksql.api.server.PushQueryHandle;
 import io.confluent.ksql.api.spi.QueryPublisher;
 import io.confluent.ksql.engine.KsqlEngine;
@@ -22,6 +23,7 @@ import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
 import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.parser.tree.Query;
 import io.confluent.ksql.parser.tree.Statement;
+import io.confluent.ksql.query.ScalablePushQuery;
 import io.confluent.ksql.rest.entity.TableRowsEntity;
 import io.confluent.ksql.rest.server.execution.PullQueryExecutor;
 import io.confluent.ksql.schema.ksql.Column;
@@ -44,6 +46,8 @@ import java.util.OptionalInt;
 
 public class QueryStreamEndpoint {
 
+  private static final String AUTO_OFFSET_RESET = "auto.offset.reset";
+
   private final KsqlEngine ksqlEngine;
   private final KsqlConfig ksqlConfig;
   private final PullQueryExecutor pullQueryExecutor;
@@ -64,28 +68,48 @@ public class QueryStreamEndpoint {
     // Must be run on worker as all this stuff is slow
     VertxUtils.checkIsWorker();
 
-    properties.put("auto.offset.reset", "earliest");
+    // Scalable push queries only see rows published after they start:
+    final boolean fromLatest = "latest".equals(properties.getValue(AUTO_OFFSET_RESET));
+
+    properties.put(AUTO_OFFSET_RESET, "earliest");
 
     final ConfiguredStatement<Query> statement = createStatement(sql, properties.getMap());
 
     if (statement.getStatement().isPullQuery()) {
       return createPullQueryPublisher(context, serviceContext, statement);
     } else {
-      return createPushQueryPublisher(context, serviceContext, statement, workerExecutor);
+      return createPushQueryPublisher(
+          context, serviceContext, statement, workerExecutor, fromLatest);
     }
   }
 
   private QueryPublisher createPushQueryPublisher(final Context context,
       final ServiceContext serviceContext,
-      final ConfiguredStatement<Query> statement, final WorkerExecutor workerExecutor) {
+      final ConfiguredStatement<Query> statement, final WorkerExecutor workerExecutor,
+      final boolean fromLatest) {
 
     final BlockingQueryPublisher publisher = new BlockingQueryPublisher(context,
-        workerExecutor);
-    final QueryMetadata queryMetadata = ksqlEngine
-        .executeQuery(serviceContext, statement, publisher);
-    final KsqlQueryHandle queryHandle = new KsqlQueryHandle(queryMetadata,
-        statement.getStatement().getLimit());
+        workerExecutor, OverflowPolicy.from(statement.getConfig()
+            .cloneWithPropertyOverwrite(statement.getConfigOverrides())));
+    final OptionalInt limit = statement.getStatement().getLimit();
+
+    final Optional<ScalablePushQuery> scalablePushQuery = fromLatest
+        ? ksqlEngine.executeScalablePushQuery(serviceContext, statement, publisher)
+        : Optional.empty();
+
+    final PushQueryHandle queryHandle;
+    final String queryId;
+    if (scalablePushQuery.isPresent()) {
+      queryHandle = new ScalablePushQueryHandle(scalablePushQuery.get(), limit);
+      queryId = scalablePushQuery.get().getQueryId().toString();
+    } else {
+      final QueryMetadata queryMetadata = ksqlEngine
+          .executeQuery(serviceContext, statement, publisher);
+      queryHandle = new KsqlQueryHandle(queryMetadata, limit);
+      queryId = queryMetadata.getQueryApplicationId();
+    }
     publisher.setQueryHandle(queryHandle);
+    publisher.setMetrics(new PushQueryQueueMetrics(queryId, publisher::queueSize));
     return publisher;
   }
 
@@ -179,4 +203,40 @@ public class QueryStreamEndpoint {
     }
   }
 
+  private static class ScalablePushQueryHandle implements PushQueryHandle {
+
+    private final ScalablePushQuery query;
+    private final OptionalInt limit;
+
+    ScalablePushQueryHandle(final ScalablePushQuery query, final OptionalInt limit) {
+      this.query = query;
+      this.limit = limit;
+    }
+
+    @Override
+    public List<String> getColumnNames() {
+      return colNamesFromSchema(query.getLogicalSchema());
+    }
+
+    @Override
+    public List<String> getColumnTypes() {
+      return colTypesFromSchema(query.getLogicalSchema());
+    }
+
+    @Override
+    public OptionalInt getLimit() {
+      return limit;
+    }
+
+    @Override
+    public void start() {
+      query.start();
+    }
+
+    @Override
+    public void stop() {
+      query.close();
+    }
+  }
+
 }
@@ -19,6 +19,7 @@ import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.api.server.protocol.ErrorResponse;
 import io.confluent.ksql.api.server.protocol.PojoCodec;
 import io.confluent.ksql.api.server.protocol.QueryResponseMetadata;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpServerResponse;
 import java.util.Objects;
 
@@ -42,6 +43,7 @@ import java.util.Objects;
 public class DelimitedQueryStreamResponseWriter implements QueryStreamResponseWriter {
 
   private final HttpServerResponse response;
+  private Buffer pending = Buffer.buffer();
 
   public DelimitedQueryStreamResponseWriter(final HttpServerResponse response) {
     this.response = Objects.requireNonNull(response);
@@ -49,24 +51,35 @@ public class DelimitedQueryStreamResponseWriter implements QueryStreamResponseWr
 
   @Override
   public QueryStreamResponseWriter writeMetadata(final QueryResponseMetadata metaData) {
+    flush();
     response.write(metaData.toBuffer().appendString("\n"));
     return this;
   }
 
   @Override
   public QueryStreamResponseWriter writeRow(final GenericRow row) {
-    response.write(PojoCodec.serializeObject(row.values()).appendString("\n"));
+    pending.appendBuffer(PojoCodec.serializeObject(row.values())).appendString("\n");
     return this;
   }
 
   @Override
   public QueryStreamResponseWriter writeError(final ErrorResponse error) {
+    flush();
     response.write(error.toBuffer().appendString("\n"));
     return this;
   }
 
+  @Override
+  public void flush() {
+    if (pending.length() > 0) {
+      response.write(pending);
+      pending = Buffer.buffer();
+    }
+  }
+
   @Override
   public void end() {
+    flush();
     response.end();
   }
 }
@@ -44,6 +44,7 @@ import java.util.Objects;
 public class JsonQueryStreamResponseWriter implements QueryStreamResponseWriter {
 
   private final HttpServerResponse response;
+  private Buffer pending = Buffer.buffer();
 
   public JsonQueryStreamResponseWriter(final HttpServerResponse response) {
     this.response = Objects.requireNonNull(response);
@@ -51,6 +52,7 @@ public class JsonQueryStreamResponseWriter implements QueryStreamResponseWriter
 
   @Override
   public QueryStreamResponseWriter writeMetadata(final QueryResponseMetadata metaData) {
+    flush();
     final Buffer buff = Buffer.buffer().appendByte((byte) '[');
     buff.appendBuffer(metaData.toBuffer());
     response.write(buff);
@@ -59,24 +61,30 @@ public class JsonQueryStreamResponseWriter implements QueryStreamResponseWriter
 
   @Override
   public QueryStreamResponseWriter writeRow(final GenericRow row) {
-    writeBuffer(PojoCodec.serializeObject(row.values()));
+    pending.appendByte((byte) ',').appendBuffer(PojoCodec.serializeObject(row.values()));
     return this;
   }
 
   @Override
   public QueryStreamResponseWriter writeError(final ErrorResponse error) {
-    writeBuffer(error.toBuffer());
+    flush();
+    final Buffer buff = Buffer.buffer().appendByte((byte) ',');
+    buff.appendBuffer(error.toBuffer());
+    response.write(buff);
     return this;
   }
 
-  private void writeBuffer(final Buffer buffer) {
-    final Buffer buff = Buffer.buffer().appendByte((byte) ',');
-    buff.appendBuffer(buffer);
-    response.write(buff);
+  @Override
+  public void flush() {
+    if (pending.length() > 0) {
+      response.write(pending);
+      pending = Buffer.buffer();
+    }
   }
 
   @Override
   public void end() {
+    flush();
     response.write("]").end();
   }
 }
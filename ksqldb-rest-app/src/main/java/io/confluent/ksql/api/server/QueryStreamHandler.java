@@ -82,7 +82,8 @@ public class QueryStreamHandler implements Handler<RoutingContext> {
           if (queryPublisher.isPullQuery()) {
             metadata = new QueryResponseMetadata(
                 queryPublisher.getColumnNames(),
-                queryPublisher.getColumnTypes());
+                queryPublisher.getColumnTypes(),
+                queryPublisher.getWarnings());
           } else {
             final PushQueryHolder query = connectionQueryManager
                 .createApiQuery(queryPublisher, routingContext.request());
@@ -26,8 +26,17 @@ public interface QueryStreamResponseWriter {
 
   QueryStreamResponseWriter writeMetadata(QueryResponseMetadata metaData);
 
+  /**
+   * Rows may be buffered until the next {@link #flush}, so that a batch of rows is written to the
+   * response as a single buffer.
+   */
   QueryStreamResponseWriter writeRow(GenericRow row);
 
+  /**
+   * Write any buffered rows to the response.
+   */
+  void flush();
+
   QueryStreamResponseWriter writeError(ErrorResponse error);
 
   void end();
@@ -39,6 +39,7 @@ public class QuerySubscriber extends BaseSubscriber<GenericRow> {
   private final HttpServerResponse response;
   private final QueryStreamResponseWriter queryStreamResponseWriter;
   private int tokens;
+  private boolean flushScheduled;
 
   public QuerySubscriber(final Context context, final HttpServerResponse response,
       final QueryStreamResponseWriter queryStreamResponseWriter) {
@@ -56,6 +57,19 @@ public class QuerySubscriber extends BaseSubscriber<GenericRow> {
   public void handleValue(final GenericRow row) {
     queryStreamResponseWriter.writeRow(row);
     tokens--;
+    // Rows delivered in the same tick of the event loop are written as a single buffer:
+    if (!flushScheduled) {
+      flushScheduled = true;
+      context.runOnContext(v -> flush());
+    }
+  }
+
+  private void flush() {
+    flushScheduled = false;
+    if (response.ended()) {
+      return;
+    }
+    queryStreamResponseWriter.flush();
     if (response.writeQueueFull()) {
       response.drainHandler(v -> checkMakeRequest());
     } else {
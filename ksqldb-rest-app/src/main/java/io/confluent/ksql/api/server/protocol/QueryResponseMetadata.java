@@ -29,16 +29,24 @@ public class QueryResponseMetadata extends SerializableObject {
   public final String queryId;
   public final ImmutableList<String> columnNames;
   public final ImmutableList<String> columnTypes;
+  public final ImmutableList<String> warnings;
 
   public QueryResponseMetadata(final String queryId, final List<String> columnNames,
       final List<String> columnTypes) {
+    this(queryId, columnNames, columnTypes, ImmutableList.of());
+  }
+
+  public QueryResponseMetadata(final List<String> columnNames, final List<String> columnTypes,
+      final List<String> warnings) {
+    this(null, columnNames, columnTypes, warnings);
+  }
+
+  private QueryResponseMetadata(final String queryId, final List<String> columnNames,
+      final List<String> columnTypes, final List<String> warnings) {
     this.queryId = queryId;
     this.columnNames = ImmutableList.copyOf(Objects.requireNonNull(columnNames));
     this.columnTypes = ImmutableList.copyOf(Objects.requireNonNull(columnTypes));
-  }
-
-  public QueryResponseMetadata(final List<String> columnNames, final List<String> columnTypes) {
-    this(null, columnNames, columnTypes);
+    this.warnings = ImmutableList.copyOf(Objects.requireNonNull(warnings));
   }
 
 }
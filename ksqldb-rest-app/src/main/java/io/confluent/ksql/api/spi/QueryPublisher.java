@@ -15,6 +15,7 @@
 
 package io.confluent.ksql.api.spi;
 
+import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.GenericRow;
 import java.util.List;
 import org.reactivestreams.Publisher;
@@ -36,6 +37,14 @@ public interface QueryPublisher extends Publisher<GenericRow> {
    */
   List<String> getColumnTypes();
 
+  /**
+   * @return List of the warnings raised while executing the query, e.g. when some of the results
+   *     of a pull query could not be retrieved
+   */
+  default List<String> getWarnings() {
+    return ImmutableList.of();
+  }
+
   /**
    * Close the publisher
    */
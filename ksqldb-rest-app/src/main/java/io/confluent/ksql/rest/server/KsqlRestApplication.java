@@ -60,6 +60,7 @@ import io.confluent.ksql.rest.entity.SourceInfo;
 import io.confluent.ksql.rest.entity.StreamsList;
 import io.confluent.ksql.rest.server.HeartbeatAgent.Builder;
 import io.confluent.ksql.rest.server.computation.CommandRunner;
+import io.confluent.ksql.rest.server.computation.CommandSnapshotStore;
 import io.confluent.ksql.rest.server.computation.CommandStore;
 import io.confluent.ksql.rest.server.computation.InteractiveStatementExecutor;
 import io.confluent.ksql.rest.server.context.KsqlSecurityContextBinder;
@@ -72,6 +73,7 @@ import io.confluent.ksql.rest.server.resources.KsqlConfigurable;
 import io.confluent.ksql.rest.server.resources.KsqlExceptionMapper;
 import io.confluent.ksql.rest.server.resources.KsqlResource;
 import io.confluent.ksql.rest.server.resources.LagReportingResource;
+import io.confluent.ksql.rest.server.resources.QueryMetricsResource;
 import io.confluent.ksql.rest.server.resources.RootDocument;
 import io.confluent.ksql.rest.server.resources.ServerInfoResource;
 import io.confluent.ksql.rest.server.resources.ServerMetadataResource;
@@ -325,6 +327,7 @@ public final class KsqlRestApplication extends ExecutableApplication<KsqlRestCon
     config.register(statusResource);
     config.register(ksqlResource);
     config.register(streamedQueryResource);
+    config.register(new QueryMetricsResource(ksqlEngine));
     config.register(HealthCheckResource.create(
         ksqlResource,
         serviceContext,
@@ -499,6 +502,11 @@ public final class KsqlRestApplication extends ExecutableApplication<KsqlRestCon
     } catch (final Exception e) {
       log.error("Exception while waiting for pull query metrics to close", e);
     }
+    try {
+      pullQueryExecutor.close();
+    } catch (final Exception e) {
+      log.error("Exception while closing pull query executor", e);
+    }
     try {
       ksqlEngine.close();
     } catch (final Exception e) {
@@ -807,7 +815,10 @@ public final class KsqlRestApplication extends ExecutableApplication<KsqlRestCon
         ksqlConfig.getString(KsqlConfig.KSQL_SERVICE_ID_CONFIG),
         Duration.ofMillis(restConfig.getLong(
             KsqlRestConfig.KSQL_COMMAND_RUNNER_BLOCKED_THRESHHOLD_ERROR_MS)),
-        metricsPrefix
+        metricsPrefix,
+        commandSnapshotStore(restConfig, commandTopicName),
+        restConfig.getInt(KsqlRestConfig.KSQL_COMMAND_SNAPSHOT_INTERVAL_CONFIG),
+        restConfig.getInt(KsqlRestConfig.KSQL_RESTORE_QUERY_THREADS_CONFIG)
     );
 
     final List<KsqlServerPrecondition> preconditions = restConfig.getConfiguredInstances(
@@ -851,6 +862,18 @@ public final class KsqlRestApplication extends ExecutableApplication<KsqlRestCon
     );
   }
 
+  private static Optional<CommandSnapshotStore> commandSnapshotStore(
+      final KsqlRestConfig restConfig,
+      final String commandTopicName
+  ) {
+    final String snapshotDir =
+        restConfig.getString(KsqlRestConfig.KSQL_COMMAND_SNAPSHOT_DIR_CONFIG);
+    if (snapshotDir.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(CommandSnapshotStore.create(snapshotDir, commandTopicName));
+  }
+
   private static Optional<HeartbeatAgent> initializeHeartbeatAgent(
       final KsqlRestConfig restConfig,
       final KsqlEngine ksqlEngine,
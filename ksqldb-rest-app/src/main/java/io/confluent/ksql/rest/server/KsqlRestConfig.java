@@ -114,6 +114,27 @@ public class KsqlRestConfig extends RestConfig {
   private static final String KSQL_COMMAND_RUNNER_BLOCKED_THRESHHOLD_ERROR_MS_DOC =
       "How long to wait for the command runner to process a command from the command topic "
           + "before reporting an error metric.";
+
+  public static final String KSQL_COMMAND_SNAPSHOT_DIR_CONFIG =
+      KSQL_CONFIG_PREFIX + "server.command.snapshot.dir";
+  private static final String KSQL_COMMAND_SNAPSHOT_DIR_DOC =
+      "Local directory in which the server keeps a snapshot of the commands on the command topic "
+          + "that are still live. On restart, the server restores the snapshot and only replays "
+          + "the commands written after it. Snapshots are disabled if this is empty, "
+          + "which is the default.";
+
+  public static final String KSQL_COMMAND_SNAPSHOT_INTERVAL_CONFIG =
+      KSQL_CONFIG_PREFIX + "server.command.snapshot.interval.commands";
+  private static final String KSQL_COMMAND_SNAPSHOT_INTERVAL_DOC =
+      "The number of commands the server executes from the command topic between snapshots. "
+          + "Only used if " + KSQL_COMMAND_SNAPSHOT_DIR_CONFIG + " is set.";
+
+  public static final String KSQL_RESTORE_QUERY_THREADS_CONFIG =
+      KSQL_CONFIG_PREFIX + "server.restore.query.threads";
+  private static final String KSQL_RESTORE_QUERY_THREADS_DOC =
+      "The number of threads the server uses on start up to build the persistent queries "
+          + "restored from a command snapshot, and to start all restored persistent queries.";
+
   public static final String KSQL_HEARTBEAT_ENABLE_CONFIG =
       KSQL_CONFIG_PREFIX + "heartbeat.enable";
   private static final String KSQL_HEARTBEAT_ENABLE_DOC =
@@ -217,6 +238,26 @@ public class KsqlRestConfig extends RestConfig {
         15000L,
         Importance.LOW,
         KSQL_COMMAND_RUNNER_BLOCKED_THRESHHOLD_ERROR_MS_DOC
+    ).define(
+        KSQL_COMMAND_SNAPSHOT_DIR_CONFIG,
+        Type.STRING,
+        "",
+        Importance.LOW,
+        KSQL_COMMAND_SNAPSHOT_DIR_DOC
+    ).define(
+        KSQL_COMMAND_SNAPSHOT_INTERVAL_CONFIG,
+        Type.INT,
+        100,
+        ConfigValidators.oneOrMore(),
+        Importance.LOW,
+        KSQL_COMMAND_SNAPSHOT_INTERVAL_DOC
+    ).define(
+        KSQL_RESTORE_QUERY_THREADS_CONFIG,
+        Type.INT,
+        4,
+        ConfigValidators.oneOrMore(),
+        Importance.LOW,
+        KSQL_RESTORE_QUERY_THREADS_DOC
     ).define(
         KSQL_SERVER_ERROR_MESSAGES,
         Type.CLASS,
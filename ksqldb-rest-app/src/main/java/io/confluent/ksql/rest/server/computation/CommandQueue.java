@@ -16,6 +16,7 @@
 package io.confluent.ksql.rest.server.computation;
 
 import io.confluent.ksql.rest.entity.CommandId;
+import io.confluent.ksql.util.Pair;
 import java.io.Closeable;
 import java.time.Duration;
 import java.util.List;
@@ -46,6 +47,23 @@ public interface CommandQueue extends Closeable {
       Command command,
       Producer<CommandId, Command> transactionalProducer
   );
+
+  /**
+   * Enqueues several commands onto the command topic, in order. After this method returns,
+   * it is guaranteed that all of the commands have been persisted.
+   *
+   * <p>Unlike repeated calls to {@link #enqueueCommand}, the commands are sent without waiting
+   * for each to be acknowledged in turn.
+   *
+   * @param commands               The ids of the commands, and the commands, to be distributed.
+   *                               Each id must be unique.
+   * @param transactionalProducer  The transactional producer used to for enqueue the commands
+   * @return an asynchronous tracker for each command, in order
+   */
+  List<QueuedCommandStatus> enqueueCommands(
+      List<Pair<CommandId, Command>> commands,
+      Producer<CommandId, Command> transactionalProducer
+  );
   
   /**
    * Polls the Queue for any commands that have been enqueued since the last
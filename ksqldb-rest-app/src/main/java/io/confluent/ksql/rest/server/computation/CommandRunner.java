@@ -16,10 +16,15 @@
 package io.confluent.ksql.rest.server.computation;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.confluent.ksql.rest.entity.ClusterTerminateRequest;
+import io.confluent.ksql.rest.server.computation.CommandRunnerRestoreMetrics.RestoreMetric;
 import io.confluent.ksql.rest.server.state.ServerState;
 import io.confluent.ksql.rest.util.ClusterTerminator;
 import io.confluent.ksql.rest.util.TerminateCluster;
+import io.confluent.ksql.util.KsqlServerException;
 import io.confluent.ksql.util.Pair;
 import io.confluent.ksql.util.PersistentQueryMetadata;
 import io.confluent.ksql.util.RetryUtil;
@@ -31,10 +36,14 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 import org.apache.kafka.common.errors.WakeupException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -63,6 +72,11 @@ public class CommandRunner implements Closeable {
   private final ServerState serverState;
 
   private final CommandRunnerStatusMetric commandRunnerStatusMetric;
+  private final CommandRunnerRestoreMetrics commandRunnerRestoreMetrics;
+  private final Optional<CommandSnapshotStore> snapshotStore;
+  private final int snapshotInterval;
+  private final int restoreThreads;
+  private int commandsSinceSnapshot;
   private final AtomicReference<Pair<QueuedCommand, Instant>> currentCommandRef;
   private final AtomicReference<Instant> lastPollTime;
   private final Duration commandRunnerHealthTimeout;
@@ -81,7 +95,10 @@ public class CommandRunner implements Closeable {
       final ServerState serverState,
       final String ksqlServiceId,
       final Duration commandRunnerHealthTimeout,
-      final String metricsGroupPrefix
+      final String metricsGroupPrefix,
+      final Optional<CommandSnapshotStore> snapshotStore,
+      final int snapshotInterval,
+      final int restoreThreads
   ) {
     this(
         statementExecutor,
@@ -93,7 +110,10 @@ public class CommandRunner implements Closeable {
         ksqlServiceId,
         commandRunnerHealthTimeout,
         metricsGroupPrefix,
-        Clock.systemUTC()
+        Clock.systemUTC(),
+        snapshotStore,
+        snapshotInterval,
+        restoreThreads
     );
   }
 
@@ -108,7 +128,10 @@ public class CommandRunner implements Closeable {
       final String ksqlServiceId,
       final Duration commandRunnerHealthTimeout,
       final String metricsGroupPrefix,
-      final Clock clock
+      final Clock clock,
+      final Optional<CommandSnapshotStore> snapshotStore,
+      final int snapshotInterval,
+      final int restoreThreads
   ) {
     this.statementExecutor = Objects.requireNonNull(statementExecutor, "statementExecutor");
     this.commandStore = Objects.requireNonNull(commandStore, "commandStore");
@@ -122,7 +145,12 @@ public class CommandRunner implements Closeable {
     this.lastPollTime = new AtomicReference<>(null);
     this.commandRunnerStatusMetric =
         new CommandRunnerStatusMetric(ksqlServiceId, this, metricsGroupPrefix);
+    this.commandRunnerRestoreMetrics =
+        new CommandRunnerRestoreMetrics(ksqlServiceId, metricsGroupPrefix);
     this.clock = clock;
+    this.snapshotStore = Objects.requireNonNull(snapshotStore, "snapshotStore");
+    this.snapshotInterval = snapshotInterval;
+    this.restoreThreads = restoreThreads;
   }
 
   /**
@@ -147,13 +175,29 @@ public class CommandRunner implements Closeable {
       Thread.currentThread().interrupt();
     }
     commandRunnerStatusMetric.close();
+    commandRunnerRestoreMetrics.close();
   }
 
   /**
-   * Read and execute all commands on the command topic, starting at the earliest offset.
+   * Restore the state of the engine from the command topic.
+   *
+   * <p>If a snapshot of the command topic is available, its commands are executed first, and only
+   * the commands written after it are replayed. Otherwise, all commands on the command topic are
+   * replayed, starting at the earliest offset.
+   *
+   * <p>The persistent queries of the snapshot are built concurrently, and all restored persistent
+   * queries are started concurrently, using up to {@code restoreThreads} threads.
    */
   public void processPriorCommands() {
+    final ExecutorService restoreExecutor = Executors.newFixedThreadPool(
+        restoreThreads,
+        new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat("CommandRunner-restore-%d")
+            .build()
+    );
     try {
+      final long restoreStart = System.nanoTime();
       final List<QueuedCommand> restoreCommands = commandStore.getRestoreCommands();
 
       LOG.info("Restoring previous state from {} commands.", restoreCommands.size());
@@ -165,19 +209,16 @@ public class CommandRunner implements Closeable {
         return;
       }
 
-      restoreCommands.forEach(
-          command -> {
-            currentCommandRef.set(new Pair<>(command, clock.instant()));
-            RetryUtil.retryWithBackoff(
-                maxRetries,
-                STATEMENT_RETRY_MS,
-                MAX_STATEMENT_RETRY_MS,
-                () -> statementExecutor.handleRestore(command),
-                WakeupException.class
-            );
-            currentCommandRef.set(null);
-          }
-      );
+      final List<QueuedCommand> replayCommands =
+          restoreSnapshot(restoreCommands, restoreExecutor);
+
+      LOG.info("Replaying {} commands.", replayCommands.size());
+
+      final long replayStart = System.nanoTime();
+      replayCommands.forEach(this::restoreCommand);
+      recordRestoreTime(RestoreMetric.REPLAY_TIME, replayStart);
+      commandRunnerRestoreMetrics.record(
+          RestoreMetric.REPLAYED_COMMANDS, replayCommands.size());
 
       final List<PersistentQueryMetadata> queries = statementExecutor
           .getKsqlEngine()
@@ -185,13 +226,127 @@ public class CommandRunner implements Closeable {
 
       LOG.info("Restarting {} queries.", queries.size());
 
-      queries.forEach(PersistentQueryMetadata::start);
+      final long queryStart = System.nanoTime();
+      startQueries(queries, restoreExecutor);
+      recordRestoreTime(RestoreMetric.QUERY_START_TIME, queryStart);
+      recordRestoreTime(RestoreMetric.TOTAL_TIME, restoreStart);
 
       LOG.info("Restore complete");
 
+      if (!replayCommands.isEmpty()) {
+        takeSnapshot(Iterables.getLast(replayCommands));
+      }
     } catch (final Exception e) {
       LOG.error("Error during restore", e);
       throw e;
+    } finally {
+      restoreExecutor.shutdownNow();
+    }
+  }
+
+  /**
+   * Restore the latest snapshot, if there is one and it matches the command topic.
+   *
+   * @return the commands written to the command topic after the snapshot.
+   */
+  private List<QueuedCommand> restoreSnapshot(
+      final List<QueuedCommand> restoreCommands,
+      final Executor restoreExecutor
+  ) {
+    if (!snapshotStore.isPresent()) {
+      return restoreCommands;
+    }
+
+    final long loadStart = System.nanoTime();
+    final Optional<CommandSnapshot> snapshot = snapshotStore.get().load();
+    final Optional<Integer> position = snapshot.flatMap(s -> s.findIn(restoreCommands));
+    recordRestoreTime(RestoreMetric.SNAPSHOT_LOAD_TIME, loadStart);
+
+    if (!snapshot.isPresent()) {
+      return restoreCommands;
+    }
+
+    if (!position.isPresent()) {
+      LOG.warn("Ignoring command snapshot at offset {} as it does not match the command topic.",
+          snapshot.get().getOffset());
+      return restoreCommands;
+    }
+
+    final List<QueuedCommand> snapshotCommands = snapshot.get().getQueuedCommands();
+
+    LOG.info("Restoring {} commands from snapshot at offset {}.",
+        snapshotCommands.size(), snapshot.get().getOffset());
+
+    final long applyStart = System.nanoTime();
+    statementExecutor.handleRestoreAll(snapshotCommands, restoreExecutor);
+    statementExecutor.onSnapshotRestored(snapshot.get());
+    recordRestoreTime(RestoreMetric.SNAPSHOT_APPLY_TIME, applyStart);
+    commandRunnerRestoreMetrics.record(
+        RestoreMetric.SNAPSHOT_COMMANDS, snapshotCommands.size());
+
+    return restoreCommands.subList(position.get() + 1, restoreCommands.size());
+  }
+
+  private void startQueries(
+      final List<PersistentQueryMetadata> queries,
+      final Executor restoreExecutor
+  ) {
+    final List<CompletableFuture<Void>> started = queries.stream()
+        .map(query -> CompletableFuture.runAsync(() -> {
+          final long start = System.nanoTime();
+          query.start();
+          commandRunnerRestoreMetrics.recordQueryStartup(
+              TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }, restoreExecutor))
+        .collect(Collectors.toList());
+
+    try {
+      CompletableFuture.allOf(started.toArray(new CompletableFuture<?>[0])).join();
+    } catch (final CompletionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new KsqlServerException("Failed to start restored queries", e.getCause());
+    }
+  }
+
+  private void restoreCommand(final QueuedCommand command) {
+    currentCommandRef.set(new Pair<>(command, clock.instant()));
+    RetryUtil.retryWithBackoff(
+        maxRetries,
+        STATEMENT_RETRY_MS,
+        MAX_STATEMENT_RETRY_MS,
+        () -> statementExecutor.handleRestore(command),
+        WakeupException.class
+    );
+    currentCommandRef.set(null);
+  }
+
+  private void recordRestoreTime(final RestoreMetric metric, final long startNanos) {
+    commandRunnerRestoreMetrics.record(
+        metric, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+  }
+
+  private void maybeTakeSnapshot(final QueuedCommand lastCommand) {
+    if (!snapshotStore.isPresent()) {
+      return;
+    }
+
+    if (++commandsSinceSnapshot >= snapshotInterval) {
+      takeSnapshot(lastCommand);
+    }
+  }
+
+  private void takeSnapshot(final QueuedCommand lastCommand) {
+    if (!snapshotStore.isPresent()) {
+      return;
+    }
+
+    commandsSinceSnapshot = 0;
+    try {
+      snapshotStore.get().save(
+          statementExecutor.snapshot(lastCommand.getOffset(), lastCommand.getCommandId()));
+    } catch (final Exception e) {
+      // A missing snapshot only slows down the next restart:
+      LOG.warn("Failed to take command snapshot at offset " + lastCommand.getOffset(), e);
     }
   }
 
@@ -215,6 +370,7 @@ public class CommandRunner implements Closeable {
       }
 
       executeStatement(command);
+      maybeTakeSnapshot(command);
     }
   }
 
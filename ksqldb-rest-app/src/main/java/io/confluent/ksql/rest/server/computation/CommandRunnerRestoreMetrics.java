@@ -0,0 +1,182 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.computation;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.confluent.ksql.metrics.MetricCollectors;
+import io.confluent.ksql.util.ReservedInternalTopics;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Gauge;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.Avg;
+import org.apache.kafka.common.metrics.stats.Max;
+import org.apache.kafka.common.metrics.stats.Percentile;
+import org.apache.kafka.common.metrics.stats.Percentiles;
+import org.apache.kafka.common.metrics.stats.Percentiles.BucketSizing;
+
+/**
+ * Emits JMX metrics describing the last restore of the command topic at server start up.
+ */
+public class CommandRunnerRestoreMetrics implements Closeable {
+
+  private static final String DEFAULT_METRIC_GROUP_PREFIX = "ksql-rest-app";
+  private static final String METRIC_GROUP_POST_FIX = "-command-runner";
+  private static final String QUERY_STARTUP_TIME = "restore-query-startup-time-ms";
+  private static final int QUERY_STARTUP_TIME_MAX_MS = 10_000;
+
+  enum RestoreMetric {
+    SNAPSHOT_LOAD_TIME("restore-snapshot-load-time-ms",
+        "The time taken to load the latest command snapshot."),
+    SNAPSHOT_APPLY_TIME("restore-snapshot-apply-time-ms",
+        "The time taken to execute the commands of the latest command snapshot."),
+    REPLAY_TIME("restore-replay-time-ms",
+        "The time taken to replay the commands written after the latest command snapshot."),
+    QUERY_START_TIME("restore-query-start-time-ms",
+        "The time taken to start the restored persistent queries."),
+    TOTAL_TIME("restore-total-time-ms",
+        "The total time taken to restore the command topic."),
+    SNAPSHOT_COMMANDS("restore-snapshot-commands",
+        "The number of commands restored from the latest command snapshot."),
+    REPLAYED_COMMANDS("restore-replayed-commands",
+        "The number of commands replayed from the command topic.");
+
+    private final String metricName;
+    private final String description;
+
+    RestoreMetric(final String metricName, final String description) {
+      this.metricName = metricName;
+      this.description = description;
+    }
+  }
+
+  private final Metrics metrics;
+  private final List<MetricName> metricNames = new ArrayList<>();
+  private final Map<RestoreMetric, AtomicLong> values = new EnumMap<>(RestoreMetric.class);
+  private final Sensor queryStartupTime;
+
+  CommandRunnerRestoreMetrics(
+      final String ksqlServiceId,
+      final String metricGroupPrefix
+  ) {
+    this(
+        MetricCollectors.getMetrics(),
+        ksqlServiceId,
+        metricGroupPrefix.isEmpty() ? DEFAULT_METRIC_GROUP_PREFIX : metricGroupPrefix
+    );
+  }
+
+  @VisibleForTesting
+  CommandRunnerRestoreMetrics(
+      final Metrics metrics,
+      final String ksqlServiceId,
+      final String metricsGroupPrefix
+  ) {
+    this.metrics = Objects.requireNonNull(metrics, "metrics");
+    final String metricGroupName = ReservedInternalTopics.KSQL_INTERNAL_TOPIC_PREFIX
+        + ksqlServiceId + metricsGroupPrefix + METRIC_GROUP_POST_FIX;
+
+    for (final RestoreMetric metric : RestoreMetric.values()) {
+      final AtomicLong value = new AtomicLong();
+      values.put(metric, value);
+
+      final MetricName metricName = metrics.metricName(
+          metric.metricName,
+          metricGroupName,
+          metric.description,
+          Collections.emptyMap()
+      );
+      metricNames.add(metricName);
+      metrics.addMetric(metricName, (Gauge<Long>) (config, now) -> value.get());
+    }
+
+    this.queryStartupTime = configureQueryStartupTime(metrics, metricGroupName);
+  }
+
+  void record(final RestoreMetric metric, final long value) {
+    values.get(metric).set(value);
+  }
+
+  void recordQueryStartup(final long millis) {
+    queryStartupTime.record(millis);
+  }
+
+  /**
+   * Close the metrics
+   */
+  @Override
+  public void close() {
+    metricNames.forEach(metrics::removeMetric);
+    metrics.removeSensor(queryStartupTime.name());
+  }
+
+  private static Sensor configureQueryStartupTime(
+      final Metrics metrics,
+      final String metricGroupName
+  ) {
+    final Sensor sensor = metrics.sensor(metricGroupName + "-" + QUERY_STARTUP_TIME);
+    sensor.add(
+        metrics.metricName(
+            QUERY_STARTUP_TIME + "-avg",
+            metricGroupName,
+            "The average time taken to start a persistent query during the last restore."
+        ),
+        new Avg()
+    );
+    sensor.add(
+        metrics.metricName(
+            QUERY_STARTUP_TIME + "-max",
+            metricGroupName,
+            "The max time taken to start a persistent query during the last restore."
+        ),
+        new Max()
+    );
+    sensor.add(new Percentiles(
+        1000,
+        0,
+        QUERY_STARTUP_TIME_MAX_MS,
+        BucketSizing.CONSTANT,
+        percentile(metrics, metricGroupName, 50.0),
+        percentile(metrics, metricGroupName, 75.0),
+        percentile(metrics, metricGroupName, 90.0),
+        percentile(metrics, metricGroupName, 99.0)
+    ));
+    return sensor;
+  }
+
+  private static Percentile percentile(
+      final Metrics metrics,
+      final String metricGroupName,
+      final double percentile
+  ) {
+    return new Percentile(
+        metrics.metricName(
+            QUERY_STARTUP_TIME + "-distribution-" + (int) percentile,
+            metricGroupName,
+            "The distribution of the time taken to start a persistent query during restore."
+        ),
+        percentile
+    );
+  }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.computation;
+
+import static java.util.Objects.requireNonNull;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.rest.entity.CommandId;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * A compacted copy of the command topic, up to and including a specific command.
+ *
+ * <p>The snapshot holds only the commands that contribute to the current state of the engine,
+ * i.e. those that created sources, types and persistent queries that still exist, in the order
+ * they were originally executed. Each command carries its {@link io.confluent.ksql.engine.KsqlPlan
+ * plan}, so restoring it requires no parsing, analysis or planning.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class CommandSnapshot {
+
+  static final int CURRENT_VERSION = 1;
+
+  private final int version;
+  private final long offset;
+  private final CommandId commandId;
+  private final long nextQueryId;
+  private final ImmutableList<Entry> commands;
+
+  @JsonCreator
+  public CommandSnapshot(
+      @JsonProperty(value = "version", required = true) final int version,
+      @JsonProperty(value = "offset", required = true) final long offset,
+      @JsonProperty(value = "commandId", required = true) final CommandId commandId,
+      @JsonProperty(value = "nextQueryId", required = true) final long nextQueryId,
+      @JsonProperty(value = "commands", required = true) final List<Entry> commands
+  ) {
+    this.version = version;
+    this.offset = offset;
+    this.commandId = requireNonNull(commandId, "commandId");
+    this.nextQueryId = nextQueryId;
+    this.commands = ImmutableList.copyOf(requireNonNull(commands, "commands"));
+  }
+
+  public int getVersion() {
+    return version;
+  }
+
+  /**
+   * @return the offset of the last command covered by the snapshot.
+   */
+  public long getOffset() {
+    return offset;
+  }
+
+  /**
+   * @return the id of the last command covered by the snapshot.
+   */
+  public CommandId getCommandId() {
+    return commandId;
+  }
+
+  public long getNextQueryId() {
+    return nextQueryId;
+  }
+
+  public List<Entry> getCommands() {
+    return commands;
+  }
+
+  /**
+   * Finds the position of the last command covered by this snapshot within the supplied commands,
+   * as read from the command topic.
+   *
+   * @return the index of the command, or empty if the snapshot does not belong to these commands,
+   *     e.g. because the command topic was recreated since it was taken.
+   */
+  Optional<Integer> findIn(final List<QueuedCommand> restoreCommands) {
+    for (int i = restoreCommands.size() - 1; i >= 0; i--) {
+      final QueuedCommand command = restoreCommands.get(i);
+      if (command.getOffset() == offset) {
+        return command.getCommandId().equals(commandId)
+            ? Optional.of(i)
+            : Optional.empty();
+      }
+    }
+    return Optional.empty();
+  }
+
+  @JsonIgnore
+  List<QueuedCommand> getQueuedCommands() {
+    return commands.stream()
+        .map(entry -> new QueuedCommand(
+            entry.commandId,
+            entry.command,
+            Optional.empty(),
+            entry.offset
+        ))
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final CommandSnapshot that = (CommandSnapshot) o;
+    return version == that.version
+        && offset == that.offset
+        && nextQueryId == that.nextQueryId
+        && Objects.equals(commandId, that.commandId)
+        && Objects.equals(commands, that.commands);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(version, offset, commandId, nextQueryId, commands);
+  }
+
+  @JsonIgnoreProperties(ignoreUnknown = true)
+  public static final class Entry {
+
+    private final CommandId commandId;
+    private final long offset;
+    private final Command command;
+
+    @JsonCreator
+    public Entry(
+        @JsonProperty(value = "commandId", required = true) final CommandId commandId,
+        @JsonProperty(value = "offset", required = true) final long offset,
+        @JsonProperty(value = "command", required = true) final Command command
+    ) {
+      this.commandId = requireNonNull(commandId, "commandId");
+      this.offset = offset;
+      this.command = requireNonNull(command, "command");
+    }
+
+    public CommandId getCommandId() {
+      return commandId;
+    }
+
+    public long getOffset() {
+      return offset;
+    }
+
+    public Command getCommand() {
+      return command;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Entry that = (Entry) o;
+      return offset == that.offset
+          && Objects.equals(commandId, that.commandId)
+          && Objects.equals(command, that.command);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(commandId, offset, command);
+    }
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.computation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.confluent.ksql.execution.json.PlanJsonMapper;
+import io.confluent.ksql.util.KsqlServerException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persists the latest {@link CommandSnapshot} of a command topic to local disk.
+ */
+public final class CommandSnapshotStore {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CommandSnapshotStore.class);
+
+  private static final ObjectMapper MAPPER = PlanJsonMapper.create();
+  private static final String SUFFIX = ".snapshot.json";
+
+  private final Path file;
+
+  public static CommandSnapshotStore create(
+      final String snapshotDir,
+      final String commandTopicName
+  ) {
+    return new CommandSnapshotStore(Paths.get(snapshotDir).resolve(commandTopicName + SUFFIX));
+  }
+
+  CommandSnapshotStore(final Path file) {
+    this.file = Objects.requireNonNull(file, "file");
+  }
+
+  /**
+   * @return the latest snapshot, or empty if there is none or it can not be read.
+   */
+  public Optional<CommandSnapshot> load() {
+    if (!Files.exists(file)) {
+      return Optional.empty();
+    }
+
+    try {
+      final CommandSnapshot snapshot = MAPPER.readValue(file.toFile(), CommandSnapshot.class);
+      if (snapshot.getVersion() != CommandSnapshot.CURRENT_VERSION) {
+        LOG.warn("Ignoring command snapshot {} with unsupported version {}",
+            file, snapshot.getVersion());
+        return Optional.empty();
+      }
+      return Optional.of(snapshot);
+    } catch (final IOException e) {
+      LOG.warn("Ignoring unreadable command snapshot " + file, e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Replace the latest snapshot.
+   *
+   * <p>The snapshot is written to a temporary file first and then moved into place, so a crash
+   * part way through never leaves a partial snapshot behind.
+   */
+  public void save(final CommandSnapshot snapshot) {
+    final Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+    try {
+      Files.createDirectories(file.toAbsolutePath().getParent());
+      MAPPER.writeValue(tmp.toFile(), snapshot);
+      Files.move(
+          tmp,
+          file,
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE
+      );
+    } catch (final IOException e) {
+      throw new KsqlServerException("Failed to write command snapshot to " + file, e);
+    }
+  }
+}
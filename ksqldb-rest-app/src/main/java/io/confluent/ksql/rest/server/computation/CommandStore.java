@@ -21,8 +21,10 @@ import io.confluent.ksql.rest.entity.CommandId;
 import io.confluent.ksql.rest.server.CommandTopic;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.KsqlServerException;
+import io.confluent.ksql.util.Pair;
 import java.io.Closeable;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
@@ -31,6 +33,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import org.apache.kafka.clients.consumer.Consumer;
@@ -147,29 +150,10 @@ public class CommandStore implements CommandQueue, Closeable {
       final Command command,
       final Producer<CommandId, Command> transactionalProducer
   ) {
-    final CommandStatusFuture statusFuture = commandStatusMap.compute(
-        commandId,
-        (k, v) -> {
-          if (v == null) {
-            return new CommandStatusFuture(commandId);
-          }
-          // We should fail registration if a future is already registered, to prevent
-          // a caller from receiving a future for a different statement.
-          throw new IllegalStateException(
-              String.format(
-                  "Another command with the same id (%s) is being executed.",
-                  commandId)
-          );
-        }
-    );
+    final CommandStatusFuture statusFuture = registerCommand(commandId);
     try {
-      final ProducerRecord<CommandId, Command> producerRecord = new ProducerRecord<>(
-          commandTopicName,
-          COMMAND_TOPIC_PARTITION,
-          commandId,
-          command);
       final RecordMetadata recordMetadata =
-          transactionalProducer.send(producerRecord).get();
+          transactionalProducer.send(buildRecord(commandId, command)).get();
       return new QueuedCommandStatus(recordMetadata.offset(), statusFuture);
     } catch (final Exception e) {
       commandStatusMap.remove(commandId);
@@ -184,6 +168,73 @@ public class CommandStore implements CommandQueue, Closeable {
     }
   }
 
+  @Override
+  public List<QueuedCommandStatus> enqueueCommands(
+      final List<Pair<CommandId, Command>> commands,
+      final Producer<CommandId, Command> transactionalProducer
+  ) {
+    final List<CommandStatusFuture> statusFutures = new ArrayList<>(commands.size());
+    try {
+      for (final Pair<CommandId, Command> command : commands) {
+        statusFutures.add(registerCommand(command.getLeft()));
+      }
+    } catch (final IllegalStateException e) {
+      statusFutures.forEach(future -> commandStatusMap.remove(future.getCommandId()));
+      throw e;
+    }
+
+    try {
+      final List<Future<RecordMetadata>> sent = new ArrayList<>(commands.size());
+      for (final Pair<CommandId, Command> command : commands) {
+        sent.add(transactionalProducer.send(buildRecord(command.getLeft(), command.getRight())));
+      }
+
+      final List<QueuedCommandStatus> queued = new ArrayList<>(commands.size());
+      for (int i = 0; i < commands.size(); i++) {
+        queued.add(new QueuedCommandStatus(sent.get(i).get().offset(), statusFutures.get(i)));
+      }
+      return queued;
+    } catch (final Exception e) {
+      statusFutures.forEach(future -> commandStatusMap.remove(future.getCommandId()));
+      throw new KsqlException(
+          String.format(
+              "Could not write the %d statements into the command topic.",
+              commands.size()
+          ),
+          e
+      );
+    }
+  }
+
+  private CommandStatusFuture registerCommand(final CommandId commandId) {
+    return commandStatusMap.compute(
+        commandId,
+        (k, v) -> {
+          if (v == null) {
+            return new CommandStatusFuture(commandId);
+          }
+          // We should fail registration if a future is already registered, to prevent
+          // a caller from receiving a future for a different statement.
+          throw new IllegalStateException(
+              String.format(
+                  "Another command with the same id (%s) is being executed.",
+                  commandId)
+          );
+        }
+    );
+  }
+
+  private ProducerRecord<CommandId, Command> buildRecord(
+      final CommandId commandId,
+      final Command command
+  ) {
+    return new ProducerRecord<>(
+        commandTopicName,
+        COMMAND_TOPIC_PARTITION,
+        commandId,
+        command);
+  }
+
   @Override
   public List<QueuedCommand> getNewCommands(final Duration timeout) {
     completeSatisfiedSequenceNumberFutures();
@@ -14,9 +14,12 @@
 
 package io.confluent.ksql.rest.server.computation;
 
+import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.KsqlExecutionContext;
 import io.confluent.ksql.metastore.MetaStore;
 import io.confluent.ksql.metastore.model.DataSource;
+import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
+import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.parser.tree.InsertInto;
 import io.confluent.ksql.parser.tree.Statement;
 import io.confluent.ksql.rest.Errors;
@@ -32,16 +35,25 @@ import io.confluent.ksql.statement.Injector;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.KsqlServerException;
+import io.confluent.ksql.util.KsqlStatementException;
+import io.confluent.ksql.util.Pair;
 import io.confluent.ksql.util.ReservedInternalTopics;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.common.errors.AuthorizationException;
 import org.apache.kafka.common.errors.OutOfOrderSequenceException;
 import org.apache.kafka.common.errors.ProducerFencedException;
 import org.apache.kafka.common.errors.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * A {@code StatementExecutor} that encapsulates a command queue and will
@@ -50,6 +62,9 @@ import org.apache.kafka.common.errors.TimeoutException;
  * {@code distributedCmdResponseTimeout}.
  */
 public class DistributingExecutor {
+
+  private static final Logger LOG = LoggerFactory.getLogger(DistributingExecutor.class);
+
   private final CommandQueue commandQueue;
   private final Duration distributedCmdResponseTimeout;
   private final BiFunction<KsqlExecutionContext, ServiceContext, Injector> injectorFactory;
@@ -110,7 +125,12 @@ public class DistributingExecutor {
       );
     }
 
-    checkAuthorization(injected, securityContext, executionContext);
+    checkAuthorization(
+        injected,
+        securityContext,
+        executionContext.getMetaStore(),
+        executionContext.getServiceContext()
+    );
 
     final Producer<CommandId, Command> transactionalProducer =
         commandQueue.createTransactionalProducer();
@@ -166,13 +186,157 @@ public class DistributingExecutor {
     }
   }
 
+  /**
+   * Distribute several statements as one batch. The protocol is that of {@link #execute}, except
+   * that the producer is initialized once, all statements are validated against a single
+   * sandbox, all commands are enqueued in a single transaction, and the command runner is
+   * awaited once, for the last of them.
+   *
+   * <p>Statements are prepared against the sandbox, so each may depend on the ones before it.
+   * Either all of the distributed statements are enqueued, or none are.
+   *
+   * @param statements the statements to distribute, in order.
+   * @param configurer configures each prepared statement for distribution, or returns empty if
+   *                   the statement only affects the request's session, e.g. {@code SET}.
+   * @param executionContext the primary execution context.
+   * @param securityContext the security context of the user making the request.
+   * @return the status of each distributed statement, in order.
+   */
+  public List<KsqlEntity> executeBatch(
+      final List<ParsedStatement> statements,
+      final Function<PreparedStatement<?>, Optional<ConfiguredStatement<?>>> configurer,
+      final KsqlExecutionContext executionContext,
+      final KsqlSecurityContext securityContext
+  ) {
+    if (statements.isEmpty()) {
+      return ImmutableList.of();
+    }
+
+    final String batchText = statements.size() == 1
+        ? statements.get(0).getStatementText()
+        : statements.size() + " statements starting with " + statements.get(0).getStatementText();
+
+    final Producer<CommandId, Command> transactionalProducer =
+        commandQueue.createTransactionalProducer();
+
+    try {
+      transactionalProducer.initTransactions();
+    } catch (final TimeoutException e) {
+      throw new KsqlServerException(errorHandler.transactionInitTimeoutErrorMessage(e), e);
+    } catch (final Exception e) {
+      throw new KsqlServerException(String.format(
+          "Could not write the statement '%s' into the command topic: " + e.getMessage(),
+          batchText), e);
+    }
+
+    final List<ConfiguredStatement<?>> distributed = new ArrayList<>();
+    final List<QueuedCommandStatus> queued;
+    try {
+      transactionalProducer.beginTransaction();
+      commandQueue.waitForCommandConsumer();
+
+      final KsqlExecutionContext sandbox =
+          executionContext.createSandbox(executionContext.getServiceContext());
+      final Injector injector =
+          injectorFactory.apply(sandbox, securityContext.getServiceContext());
+
+      final List<Pair<CommandId, Command>> commands = new ArrayList<>();
+      final Set<CommandId> commandIds = new HashSet<>();
+      for (final ParsedStatement parsed : statements) {
+        final Optional<ConfiguredStatement<?>> statement =
+            configurer.apply(sandbox.prepare(parsed));
+        if (!statement.isPresent()) {
+          continue;
+        }
+
+        final ConfiguredStatement<?> injected = injector.inject(statement.get());
+        if (injected.getStatement() instanceof InsertInto) {
+          throwIfInsertOnReadOnlyTopic(
+              sandbox.getMetaStore(),
+              (InsertInto) injected.getStatement()
+          );
+        }
+
+        checkAuthorization(
+            injected,
+            securityContext,
+            sandbox.getMetaStore(),
+            executionContext.getServiceContext()
+        );
+
+        final CommandId commandId = commandIdAssigner.getCommandId(statement.get().getStatement());
+        if (!commandIds.add(commandId)) {
+          throw new KsqlStatementException(
+              "A batch can not contain more than one statement with the command id " + commandId
+                  + ". Submit the statement in a separate request.",
+              injected.getStatementText()
+          );
+        }
+
+        commands.add(Pair.of(commandId, validatedCommandFactory.create(injected, sandbox)));
+        distributed.add(injected);
+      }
+
+      queued = commandQueue.enqueueCommands(commands, transactionalProducer);
+      transactionalProducer.commitTransaction();
+    } catch (final ProducerFencedException
+        | OutOfOrderSequenceException
+        | AuthorizationException e
+    ) {
+      // We can't recover from these exceptions, so our only option is close producer and exit.
+      // This catch doesn't abortTransaction() since doing that would throw another exception.
+      throw new KsqlServerException(String.format(
+          "Could not write the statement '%s' into the command topic.", batchText), e);
+    } catch (final KsqlStatementException e) {
+      transactionalProducer.abortTransaction();
+      throw e;
+    } catch (final Exception e) {
+      transactionalProducer.abortTransaction();
+      throw new KsqlServerException(String.format(
+          "Could not write the statement '%s' into the command topic.", batchText), e);
+    } finally {
+      transactionalProducer.close();
+    }
+
+    waitForBatch(queued);
+
+    final ImmutableList.Builder<KsqlEntity> entities = ImmutableList.builder();
+    for (int i = 0; i < queued.size(); i++) {
+      final QueuedCommandStatus queuedCommandStatus = queued.get(i);
+      entities.add(new CommandStatusEntity(
+          distributed.get(i).getStatementText(),
+          queuedCommandStatus.getCommandId(),
+          queuedCommandStatus.getStatus(),
+          queuedCommandStatus.getCommandSequenceNumber()
+      ));
+    }
+    return entities.build();
+  }
+
+  private void waitForBatch(final List<QueuedCommandStatus> queued) {
+    if (queued.isEmpty()) {
+      return;
+    }
+
+    final long lastSequenceNumber =
+        queued.get(queued.size() - 1).getCommandSequenceNumber();
+    try {
+      commandQueue.ensureConsumedPast(lastSequenceNumber, distributedCmdResponseTimeout);
+    } catch (final java.util.concurrent.TimeoutException e) {
+      // As for a single statement, the statuses at the time of the timeout are returned:
+      LOG.info("Timed out waiting for command sequence number {}", lastSequenceNumber);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
   private void checkAuthorization(
       final ConfiguredStatement<?> configured,
       final KsqlSecurityContext userSecurityContext,
-      final KsqlExecutionContext serverExecutionContext
+      final MetaStore metaStore,
+      final ServiceContext serverServiceContext
   ) {
     final Statement statement = configured.getStatement();
-    final MetaStore metaStore = serverExecutionContext.getMetaStore();
 
     // Check the User will be permitted to execute this statement
     authorizationValidator.ifPresent(
@@ -183,7 +347,7 @@ public class DistributingExecutor {
       // Check the KSQL service principal will be permitted too
       authorizationValidator.ifPresent(
           validator -> validator.checkAuthorization(
-              new KsqlSecurityContext(Optional.empty(), serverExecutionContext.getServiceContext()),
+              new KsqlSecurityContext(Optional.empty(), serverServiceContext),
               metaStore,
               statement));
     } catch (final Exception e) {
@@ -18,6 +18,7 @@ package io.confluent.ksql.rest.server.computation;
 import com.google.common.annotations.VisibleForTesting;
 import io.confluent.ksql.KsqlExecutionContext.ExecuteResult;
 import io.confluent.ksql.engine.KsqlEngine;
+import io.confluent.ksql.engine.KsqlEngine.PlanResult;
 import io.confluent.ksql.engine.KsqlPlan;
 import io.confluent.ksql.exception.ExceptionUtil;
 import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
@@ -39,11 +40,14 @@ import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.PersistentQueryMetadata;
 import io.confluent.ksql.util.QueryMetadata;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import org.apache.kafka.streams.StreamsConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -61,6 +65,7 @@ public class InteractiveStatementExecutor implements KsqlConfigurable {
   private final StatementParser statementParser;
   private final SpecificQueryIdGenerator queryIdGenerator;
   private final Map<CommandId, CommandStatus> statusStore;
+  private final LiveCommandTracker liveCommands;
   private KsqlConfig ksqlConfig;
 
   private enum Mode {
@@ -93,6 +98,7 @@ public class InteractiveStatementExecutor implements KsqlConfigurable {
     this.statementParser = Objects.requireNonNull(statementParser, "statementParser");
     this.queryIdGenerator = Objects.requireNonNull(queryIdGenerator, "queryIdGenerator");
     this.statusStore = new ConcurrentHashMap<>();
+    this.liveCommands = new LiveCommandTracker();
   }
 
   @Override
@@ -137,6 +143,96 @@ public class InteractiveStatementExecutor implements KsqlConfigurable {
     );
   }
 
+  /**
+   * Restore several independent commands at once, e.g. the live commands of a snapshot.
+   *
+   * <p>Unlike {@link #handleRestore}, the persistent queries the commands start are built
+   * concurrently on the supplied executor, once the DDL of every command has been executed. A
+   * command that fails is set to ERROR without stopping the restore of the others.
+   *
+   * @param queuedCommands the commands to restore, in order. Each must have a plan.
+   * @param executor the executor on which to build persistent queries.
+   */
+  void handleRestoreAll(final List<QueuedCommand> queuedCommands, final Executor executor) {
+    throwIfNotConfigured();
+
+    final List<ConfiguredKsqlPlan> plans = new ArrayList<>(queuedCommands.size());
+    for (final QueuedCommand queuedCommand : queuedCommands) {
+      final Command command = queuedCommand.getCommand();
+      final KsqlPlan plan = command.getPlan()
+          .orElseThrow(() -> new IllegalArgumentException("command must have a plan"));
+
+      plans.add(ConfiguredKsqlPlan.of(
+          plan,
+          command.getOverwriteProperties(),
+          buildMergedConfig(command)
+      ));
+      putStatus(
+          queuedCommand.getCommandId(),
+          queuedCommand.getStatus(),
+          new CommandStatus(CommandStatus.Status.EXECUTING, "Executing statement")
+      );
+    }
+
+    final List<PlanResult> results = ksqlEngine.executeAll(serviceContext, plans, executor);
+
+    for (int i = 0; i < queuedCommands.size(); i++) {
+      final QueuedCommand queuedCommand = queuedCommands.get(i);
+      final PlanResult planResult = results.get(i);
+      if (planResult.getFailure().isPresent()) {
+        final RuntimeException exception = planResult.getFailure().get();
+        log.error("Failed to handle: " + queuedCommand.getCommand(), exception);
+
+        putStatus(
+            queuedCommand.getCommandId(),
+            queuedCommand.getStatus(),
+            new CommandStatus(
+                CommandStatus.Status.ERROR,
+                ExceptionUtil.stackTraceToString(exception)
+            )
+        );
+        continue;
+      }
+
+      final ExecuteResult result = planResult.getResult().get();
+      if (result.getQuery().isPresent()) {
+        queryIdGenerator.setNextId(queuedCommand.getOffset() + 1);
+      }
+      liveCommands.onExecuted(
+          queuedCommand.getCommandId(),
+          queuedCommand.getOffset(),
+          queuedCommand.getCommand()
+      );
+      putFinalStatus(
+          queuedCommand.getCommandId(),
+          queuedCommand.getStatus(),
+          new CommandStatus(CommandStatus.Status.SUCCESS, getSuccessMessage(result))
+      );
+    }
+  }
+
+  /**
+   * Take a snapshot of the commands handled thus far that still contribute to the engine's state.
+   *
+   * @param offset the offset of the last command handled.
+   * @param commandId the id of the last command handled.
+   * @return the snapshot.
+   */
+  CommandSnapshot snapshot(final long offset, final CommandId commandId) {
+    return liveCommands.snapshot(offset, commandId);
+  }
+
+  /**
+   * Complete the restore of a snapshot, once all of its commands have been handled.
+   *
+   * @param snapshot the restored snapshot.
+   */
+  void onSnapshotRestored(final CommandSnapshot snapshot) {
+    // Commands that were compacted away may have created later queries:
+    queryIdGenerator.setNextId(snapshot.getNextQueryId());
+    liveCommands.setNextQueryId(snapshot.getNextQueryId());
+  }
+
   /**
    * Get details on the statuses of all the statements handled thus far.
    *
@@ -245,6 +341,7 @@ public class InteractiveStatementExecutor implements KsqlConfigurable {
         result.getQuery().get().start();
       }
     }
+    liveCommands.onExecuted(commandId, offset, command);
     final String successMessage = getSuccessMessage(result);
     final CommandStatus successStatus =
         new CommandStatus(CommandStatus.Status.SUCCESS, successMessage);
@@ -270,15 +367,17 @@ public class InteractiveStatementExecutor implements KsqlConfigurable {
   ) {
     String successMessage = "";
     if (statement.getStatement() instanceof ExecutableDdlStatement) {
-      successMessage = executeDdlStatement(statement, command);
+      successMessage = executeDdlStatement(statement, command, commandId, offset);
     } else if (statement.getStatement() instanceof CreateAsSelect) {
-      final PersistentQueryMetadata query = startQuery(statement, command, mode, offset);
+      final PersistentQueryMetadata query =
+          startQuery(statement, command, commandId, mode, offset);
       final String name = ((CreateAsSelect)statement.getStatement()).getName().text();
       successMessage = statement.getStatement() instanceof CreateTableAsSelect
           ? "Table " + name + " created and running" : "Stream " + name + " created and running";
       successMessage += ". Created by query with query ID: " + query.getQueryId();
     } else if (statement.getStatement() instanceof InsertInto) {
-      final PersistentQueryMetadata query = startQuery(statement, command, mode, offset);
+      final PersistentQueryMetadata query =
+          startQuery(statement, command, commandId, mode, offset);
       successMessage = "Insert Into query is running with query ID: " + query.getQueryId();
     } else if (statement.getStatement() instanceof TerminateQuery) {
       terminateQuery((PreparedStatement<TerminateQuery>) statement);
@@ -296,23 +395,32 @@ public class InteractiveStatementExecutor implements KsqlConfigurable {
     putFinalStatus(commandId, commandStatusFuture, successStatus);
   }
 
-  private String executeDdlStatement(final PreparedStatement<?> statement, final Command command) {
+  private String executeDdlStatement(
+      final PreparedStatement<?> statement,
+      final Command command,
+      final CommandId commandId,
+      final long offset
+  ) {
     final KsqlConfig mergedConfig = buildMergedConfig(command);
     final ConfiguredStatement<?> configured =
         ConfiguredStatement.of(statement, command.getOverwriteProperties(), mergedConfig);
 
     final KsqlPlan plan = ksqlEngine.plan(serviceContext, configured);
-    return ksqlEngine
+    final String result = ksqlEngine
         .execute(
             serviceContext,
             ConfiguredKsqlPlan.of(plan, command.getOverwriteProperties(), mergedConfig))
         .getCommandResult()
         .get();
+
+    liveCommands.onExecuted(commandId, offset, withPlan(command, plan));
+    return result;
   }
 
   private PersistentQueryMetadata startQuery(
       final PreparedStatement<?> statement,
       final Command command,
+      final CommandId commandId,
       final Mode mode,
       final long offset
   ) {
@@ -344,9 +452,20 @@ public class InteractiveStatementExecutor implements KsqlConfigurable {
     if (mode == Mode.EXECUTE) {
       persistentQueryMd.start();
     }
+
+    liveCommands.onExecuted(commandId, offset, withPlan(command, plan));
     return persistentQueryMd;
   }
 
+  private static Command withPlan(final Command command, final KsqlPlan plan) {
+    return new Command(
+        command.getStatement(),
+        command.getOverwriteProperties(),
+        command.getOriginalProperties(),
+        Optional.of(plan)
+    );
+  }
+
   private KsqlConfig buildMergedConfig(final Command command) {
     return ksqlConfig.overrideBreakingConfigsWithOriginalValues(command.getOriginalProperties());
   }
@@ -354,6 +473,8 @@ public class InteractiveStatementExecutor implements KsqlConfigurable {
   private void terminateQuery(final PreparedStatement<TerminateQuery> terminateQuery) {
     final Optional<QueryId> queryId = terminateQuery.getStatement().getQueryId();
 
+    liveCommands.onTerminated(queryId);
+
     if (!queryId.isPresent()) {
       ksqlEngine.getPersistentQueries().forEach(PersistentQueryMetadata::close);
       return;
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.computation;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.engine.KsqlPlan;
+import io.confluent.ksql.engine.QueryPlan;
+import io.confluent.ksql.execution.ddl.commands.CreateSourceCommand;
+import io.confluent.ksql.execution.ddl.commands.DdlCommand;
+import io.confluent.ksql.execution.ddl.commands.DropSourceCommand;
+import io.confluent.ksql.execution.ddl.commands.DropTypeCommand;
+import io.confluent.ksql.execution.ddl.commands.RegisterTypeCommand;
+import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.rest.entity.CommandId;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Tracks which of the executed commands still contribute to the state of the engine, so that a
+ * {@link CommandSnapshot} can be taken at any point.
+ *
+ * <p>A command stays live while the source, type or persistent query it created exists. Dropping
+ * a source or type, or terminating a query, releases the part of the command that created it.
+ * Where a command created both a source and a query, e.g. {@code CREATE STREAM AS SELECT}, and
+ * only one of them is released, the command's plan is trimmed to the part that is still live.
+ *
+ * <p>Live commands are kept in execution order. Since commands are only ever removed or appended,
+ * this order respects any dependencies between them.
+ *
+ * <p>Not thread-safe: only the thread executing commands should use it.
+ */
+final class LiveCommandTracker {
+
+  private final Map<Long, CommandSnapshot.Entry> live = new LinkedHashMap<>();
+  private final Map<SourceName, Long> sources = new HashMap<>();
+  private final Map<String, Long> types = new HashMap<>();
+  private final Map<QueryId, Long> queries = new HashMap<>();
+  private long nextQueryId;
+
+  /**
+   * Record a successfully executed command.
+   *
+   * @param commandId the id of the command.
+   * @param offset the offset of the command in the command topic.
+   * @param command the command, which must have a plan.
+   */
+  void onExecuted(final CommandId commandId, final long offset, final Command command) {
+    final KsqlPlan plan = command.getPlan()
+        .orElseThrow(() -> new IllegalArgumentException("command must have a plan"));
+
+    boolean isLive = false;
+
+    final Optional<DdlCommand> ddl = plan.getDdlCommand();
+    if (ddl.isPresent()) {
+      isLive = onDdl(ddl.get(), offset);
+    }
+
+    final Optional<QueryPlan> queryPlan = plan.getQueryPlan();
+    if (queryPlan.isPresent()) {
+      queries.put(queryPlan.get().getQueryId(), offset);
+      nextQueryId = offset + 1;
+      isLive = true;
+    }
+
+    if (isLive) {
+      live.remove(offset);
+      live.put(offset, new CommandSnapshot.Entry(commandId, offset, command));
+    }
+  }
+
+  /**
+   * Record the termination of a persistent query.
+   *
+   * @param queryId the id of the terminated query, or empty if all queries were terminated.
+   */
+  void onTerminated(final Optional<QueryId> queryId) {
+    if (!queryId.isPresent()) {
+      ImmutableList.copyOf(queries.keySet()).forEach(id -> onTerminated(Optional.of(id)));
+      return;
+    }
+
+    final Long offset = queries.remove(queryId.get());
+    if (offset != null) {
+      releaseQuery(offset);
+    }
+  }
+
+  void setNextQueryId(final long nextQueryId) {
+    this.nextQueryId = nextQueryId;
+  }
+
+  CommandSnapshot snapshot(final long offset, final CommandId commandId) {
+    return new CommandSnapshot(
+        CommandSnapshot.CURRENT_VERSION,
+        offset,
+        commandId,
+        nextQueryId,
+        ImmutableList.copyOf(live.values())
+    );
+  }
+
+  private boolean onDdl(final DdlCommand ddl, final long offset) {
+    if (ddl instanceof CreateSourceCommand) {
+      final SourceName name = ((CreateSourceCommand) ddl).getSourceName();
+      releaseDdl(sources.put(name, offset));
+      return true;
+    }
+
+    if (ddl instanceof RegisterTypeCommand) {
+      final String name = ((RegisterTypeCommand) ddl).getTypeName();
+      releaseDdl(types.put(name, offset));
+      return true;
+    }
+
+    if (ddl instanceof DropSourceCommand) {
+      releaseDdl(sources.remove(((DropSourceCommand) ddl).getSourceName()));
+    } else if (ddl instanceof DropTypeCommand) {
+      releaseDdl(types.remove(((DropTypeCommand) ddl).getTypeName()));
+    }
+    return false;
+  }
+
+  private void releaseDdl(final Long offset) {
+    if (offset == null) {
+      return;
+    }
+
+    final CommandSnapshot.Entry entry = live.get(offset);
+    if (entry == null) {
+      return;
+    }
+
+    final KsqlPlan plan = entry.getCommand().getPlan().get();
+    final Optional<QueryPlan> queryPlan = plan.getQueryPlan()
+        .filter(query -> Long.valueOf(offset).equals(queries.get(query.getQueryId())));
+
+    if (!queryPlan.isPresent()) {
+      live.remove(offset);
+      return;
+    }
+
+    replacePlan(entry, KsqlPlan.queryPlanCurrent(
+        plan.getStatementText(), Optional.empty(), queryPlan.get()));
+  }
+
+  private void releaseQuery(final long offset) {
+    final CommandSnapshot.Entry entry = live.get(offset);
+    if (entry == null) {
+      return;
+    }
+
+    final KsqlPlan plan = entry.getCommand().getPlan().get();
+    final Optional<DdlCommand> ddl = plan.getDdlCommand()
+        .filter(cmd -> isLiveDdl(cmd, offset));
+
+    if (!ddl.isPresent()) {
+      live.remove(offset);
+      return;
+    }
+
+    replacePlan(entry, KsqlPlan.ddlPlanCurrent(plan.getStatementText(), ddl.get()));
+  }
+
+  private boolean isLiveDdl(final DdlCommand ddl, final long offset) {
+    if (ddl instanceof CreateSourceCommand) {
+      return Long.valueOf(offset).equals(sources.get(((CreateSourceCommand) ddl).getSourceName()));
+    }
+    if (ddl instanceof RegisterTypeCommand) {
+      return Long.valueOf(offset).equals(types.get(((RegisterTypeCommand) ddl).getTypeName()));
+    }
+    return false;
+  }
+
+  private void replacePlan(final CommandSnapshot.Entry entry, final KsqlPlan plan) {
+    final Command command = entry.getCommand();
+    live.put(entry.getOffset(), new CommandSnapshot.Entry(
+        entry.getCommandId(),
+        entry.getOffset(),
+        new Command(
+            command.getStatement(),
+            command.getOverwriteProperties(),
+            command.getOriginalProperties(),
+            Optional.of(plan)
+        )
+    ));
+  }
+}
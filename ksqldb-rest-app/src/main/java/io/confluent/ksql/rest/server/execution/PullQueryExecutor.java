@@ -16,6 +16,12 @@
 package io.confluent.ksql.rest.server.execution;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
 import com.google.common.collect.BoundType;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -25,23 +31,29 @@ import com.google.common.collect.Range;
 import com.google.common.collect.Sets;
 import com.google.common.collect.Sets.SetView;
 import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.KsqlExecutionContext;
 import io.confluent.ksql.analyzer.ImmutableAnalysis;
 import io.confluent.ksql.analyzer.PullQueryValidator;
 import io.confluent.ksql.analyzer.QueryAnalyzer;
 import io.confluent.ksql.analyzer.RewrittenAnalysis;
+import io.confluent.ksql.engine.rewrite.ExpressionTreeRewriter;
 import io.confluent.ksql.engine.rewrite.ExpressionTreeRewriter.Context;
 import io.confluent.ksql.execution.context.QueryContext;
 import io.confluent.ksql.execution.context.QueryContext.Stacker;
 import io.confluent.ksql.execution.context.QueryLoggerUtil;
+import io.confluent.ksql.execution.expression.tree.BetweenPredicate;
 import io.confluent.ksql.execution.expression.tree.ComparisonExpression;
 import io.confluent.ksql.execution.expression.tree.ComparisonExpression.Type;
 import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.expression.tree.InListExpression;
+import io.confluent.ksql.execution.expression.tree.InPredicate;
 import io.confluent.ksql.execution.expression.tree.IntegerLiteral;
 import io.confluent.ksql.execution.expression.tree.Literal;
 import io.confluent.ksql.execution.expression.tree.LogicalBinaryExpression;
 import io.confluent.ksql.execution.expression.tree.LongLiteral;
+import io.confluent.ksql.execution.expression.tree.NullLiteral;
 import io.confluent.ksql.execution.expression.tree.QualifiedColumnReferenceExp;
 import io.confluent.ksql.execution.expression.tree.StringLiteral;
 import io.confluent.ksql.execution.expression.tree.UnqualifiedColumnReferenceExp;
@@ -53,7 +65,10 @@ import io.confluent.ksql.execution.streams.materialization.Locator;
 import io.confluent.ksql.execution.streams.materialization.Locator.KsqlNode;
 import io.confluent.ksql.execution.streams.materialization.Materialization;
 import io.confluent.ksql.execution.streams.materialization.MaterializationException;
+import io.confluent.ksql.execution.streams.materialization.MaterializedTable;
 import io.confluent.ksql.execution.streams.materialization.PullProcessingContext;
+import io.confluent.ksql.execution.streams.materialization.Row;
+import io.confluent.ksql.execution.streams.materialization.RowIterator;
 import io.confluent.ksql.execution.streams.materialization.TableRow;
 import io.confluent.ksql.execution.transform.KsqlTransformer;
 import io.confluent.ksql.execution.transform.select.SelectValueMapper;
@@ -65,6 +80,7 @@ import io.confluent.ksql.metastore.model.DataSource;
 import io.confluent.ksql.model.WindowType;
 import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.parser.SqlFormatter;
 import io.confluent.ksql.parser.tree.AllColumns;
 import io.confluent.ksql.parser.tree.Query;
 import io.confluent.ksql.parser.tree.Select;
@@ -72,7 +88,9 @@ import io.confluent.ksql.parser.tree.SingleColumn;
 import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.rest.Errors;
 import io.confluent.ksql.rest.SessionProperties;
+import io.confluent.ksql.rest.client.KsqlRestClientException;
 import io.confluent.ksql.rest.client.RestResponse;
+import io.confluent.ksql.rest.entity.KsqlWarning;
 import io.confluent.ksql.rest.entity.StreamedRow;
 import io.confluent.ksql.rest.entity.StreamedRow.Header;
 import io.confluent.ksql.rest.entity.TableRowsEntity;
@@ -84,6 +102,7 @@ import io.confluent.ksql.schema.ksql.FormatOptions;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.LogicalSchema.Builder;
 import io.confluent.ksql.schema.ksql.PhysicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlBaseType;
 import io.confluent.ksql.schema.ksql.types.SqlType;
 import io.confluent.ksql.serde.SerdeOption;
 import io.confluent.ksql.services.ServiceContext;
@@ -97,13 +116,23 @@ import io.confluent.ksql.util.KsqlStatementException;
 import io.confluent.ksql.util.PersistentQueryMetadata;
 import io.confluent.ksql.util.SchemaUtil;
 import io.confluent.ksql.util.timestamp.PartialStringToTimestampParser;
+import java.net.URI;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -132,6 +161,9 @@ public final class PullQueryExecutor {
   private final KsqlExecutionContext executionContext;
   private final RoutingFilterFactory routingFilterFactory;
   private final RateLimiter rateLimiter;
+  private final Optional<Cache<PlanKey, PullQueryPlan>> planCache;
+  private final AtomicLong planCacheEvictions = new AtomicLong();
+  private final ExecutorService fanOutExecutor;
 
   public PullQueryExecutor(
       final KsqlExecutionContext executionContext,
@@ -143,6 +175,31 @@ public final class PullQueryExecutor {
         Objects.requireNonNull(routingFilterFactory, "routingFilterFactory");
     this.rateLimiter = RateLimiter.create(ksqlConfig.getInt(
         KsqlConfig.KSQL_QUERY_PULL_MAX_QPS_CONFIG));
+
+    final int planCacheSize =
+        ksqlConfig.getInt(KsqlConfig.KSQL_QUERY_PULL_PLAN_CACHE_SIZE_CONFIG);
+    this.planCache = planCacheSize <= 0
+        ? Optional.empty()
+        : Optional.of(CacheBuilder.newBuilder()
+            .maximumSize(planCacheSize)
+            .removalListener((RemovalListener<PlanKey, PullQueryPlan>) notification -> {
+              if (notification.wasEvicted()) {
+                planCacheEvictions.incrementAndGet();
+              }
+            })
+            .build());
+
+    this.fanOutExecutor = Executors.newFixedThreadPool(
+        ksqlConfig.getInt(KsqlConfig.KSQL_QUERY_PULL_FANOUT_THREADS_CONFIG),
+        new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat("pull-query-fanout-thread-%d")
+            .build()
+    );
+  }
+
+  public void close() {
+    fanOutExecutor.shutdownNow();
   }
 
   @SuppressWarnings("unused") // Needs to match validator API.
@@ -174,7 +231,7 @@ public final class PullQueryExecutor {
     }
 
     try {
-      final RoutingOptions routingOptions = new ConfigRoutingOptions(
+      final ConfigRoutingOptions routingOptions = new ConfigRoutingOptions(
           statement.getConfig(), statement.getConfigOverrides(), statement.getRequestProperties());
       final boolean isAlreadyForwarded = routingOptions.skipForwardRequest();
 
@@ -183,30 +240,28 @@ public final class PullQueryExecutor {
         checkRateLimit();
       }
 
-      final ImmutableAnalysis analysis = new RewrittenAnalysis(
-          analyze(statement, executionContext),
-          new ColumnReferenceRewriter()::process
-      );
-
-      final PersistentQueryMetadata query = findMaterializingQuery(executionContext, analysis);
+      final PullQueryPlan plan = getPlan(statement, pullQueryMetrics);
 
-      final WhereInfo whereInfo = extractWhereInfo(analysis, query);
+      final WhereInfo whereInfo = extractWhereInfo(
+          rewriteColumnReferences(statement.getStatement().getWhere()),
+          statement.getStatement().getLimit(),
+          plan.query
+      );
 
       final QueryId queryId = uniqueQueryId();
 
       final QueryContext.Stacker contextStacker = new Stacker();
 
-      final Materialization mat = query
-          .getMaterialization(queryId, contextStacker)
-          .orElseThrow(() -> notMaterializedException(getSourceName(analysis)));
-
-      final Struct key = asKeyStruct(whereInfo.keyBound, query.getPhysicalSchema());
+      final Map<Struct, Literal> keys = new LinkedHashMap<>();
+      whereInfo.keyBounds.forEach((keyBound, literal) ->
+          keys.put(asKeyStruct(keyBound, plan.query.getPhysicalSchema()), literal));
 
       final PullQueryContext pullQueryContext = new PullQueryContext(
-          key,
-          mat,
-          analysis,
+          keys,
+          plan,
           whereInfo,
+          statement.getStatement().getLimit(),
+          routingOptions.getMaxRowsScanned(),
           queryId,
           contextStacker,
           pullQueryMetrics);
@@ -243,10 +298,33 @@ public final class PullQueryExecutor {
       final PullQueryContext pullQueryContext,
       final RoutingOptions routingOptions
   ) {
+    if (pullQueryContext.whereInfo.keyRange.isPresent()) {
+      return handleScanPullQuery(
+          statement, executionContext, serviceContext, pullQueryContext, routingOptions);
+    }
+
+    if (pullQueryContext.keys.size() == 1) {
+      return handleSingleKeyPullQuery(
+          statement, executionContext, serviceContext, pullQueryContext, routingOptions);
+    }
+
+    return handleMultiKeyPullQuery(
+        statement, executionContext, serviceContext, pullQueryContext, routingOptions);
+  }
+
+  private TableRowsEntity handleSingleKeyPullQuery(
+      final ConfiguredStatement<Query> statement,
+      final KsqlExecutionContext executionContext,
+      final ServiceContext serviceContext,
+      final PullQueryContext pullQueryContext,
+      final RoutingOptions routingOptions
+  ) {
+    final Struct key = Iterables.getOnlyElement(pullQueryContext.keys.keySet());
+
     // Get active and standby nodes for this key
     final Locator locator = pullQueryContext.mat.locator();
     final List<KsqlNode> filteredAndOrderedNodes = locator.locate(
-        pullQueryContext.key,
+        key,
         routingOptions,
         routingFilterFactory
     );
@@ -259,7 +337,14 @@ public final class PullQueryExecutor {
     // increasing order of lag.
     for (KsqlNode node : filteredAndOrderedNodes) {
       try {
-        return routeQuery(node, statement, executionContext, serviceContext, pullQueryContext);
+        return routeQuery(
+            node,
+            pullQueryContext.keys.keySet(),
+            statement,
+            executionContext,
+            serviceContext,
+            pullQueryContext
+        );
       } catch (Exception t) {
         LOG.debug("Error routing query {} to host {} at timestamp {}",
                  statement.getStatementText(), node, System.currentTimeMillis());
@@ -269,8 +354,244 @@ public final class PullQueryExecutor {
         "Unable to execute pull query: %s", statement.getStatementText()));
   }
 
+  /**
+   * Looks up several keys at once, e.g. {@code WHERE ROWKEY IN (...)}.
+   *
+   * <p>Keys are grouped by the node preferred to serve them, and each node is sent a single
+   * sub-request for its group. Remote groups are forwarded in parallel while the local group, if
+   * any, is served by the calling thread. Should a group fail, each of its keys falls back to its
+   * remaining nodes individually. Keys that cannot be served by any node are reported as
+   * warnings on the result, rather than failing the whole query, unless no key could be served.
+   */
+  private TableRowsEntity handleMultiKeyPullQuery(
+      final ConfiguredStatement<Query> statement,
+      final KsqlExecutionContext executionContext,
+      final ServiceContext serviceContext,
+      final PullQueryContext pullQueryContext,
+      final RoutingOptions routingOptions
+  ) {
+    final Locator locator = pullQueryContext.mat.locator();
+
+    final List<KsqlWarning> failures = new ArrayList<>();
+    final Map<Struct, List<KsqlNode>> nodesByKey = new LinkedHashMap<>();
+    final Map<URI, KeyGroup> groups = new LinkedHashMap<>();
+
+    for (final Struct key : pullQueryContext.keys.keySet()) {
+      final List<KsqlNode> nodes = locator.locate(key, routingOptions, routingFilterFactory);
+      if (nodes.isEmpty()) {
+        failures.add(keyFailure(pullQueryContext, key,
+            "All nodes are dead or exceed max allowed lag."));
+        continue;
+      }
+
+      nodesByKey.put(key, nodes);
+      groups.computeIfAbsent(nodes.get(0).location(), location -> new KeyGroup(nodes.get(0)))
+          .keys.add(key);
+    }
+
+    final List<CompletableFuture<GroupResult>> remote = new ArrayList<>();
+    KeyGroup local = null;
+    for (final KeyGroup group : groups.values()) {
+      if (group.node.isLocal()) {
+        local = group;
+      } else {
+        remote.add(CompletableFuture.supplyAsync(() -> executeGroup(
+            group, nodesByKey, statement, executionContext, serviceContext, pullQueryContext
+        ), fanOutExecutor));
+      }
+    }
+
+    final List<GroupResult> results = new ArrayList<>(groups.size());
+    if (local != null) {
+      results.add(executeGroup(
+          local, nodesByKey, statement, executionContext, serviceContext, pullQueryContext));
+    }
+    remote.forEach(future -> results.add(future.join()));
+
+    return mergeResults(statement, pullQueryContext, results, failures);
+  }
+
+  /**
+   * Scans a range of keys, or all keys, of a non-windowed table, e.g.
+   * {@code WHERE ROWKEY BETWEEN a AND b} or {@code LIMIT n} with no {@code WHERE} clause.
+   *
+   * <p>Every node that is active for some partitions of the table is sent a sub-request, and
+   * scans only those partitions, so that each row is returned once. As with multi-key lookups,
+   * remote nodes are scanned in parallel while the local node, if any, is scanned by the calling
+   * thread. Nodes that cannot be reached are reported as warnings on the result, unless none can.
+   * Any other failure, e.g. a node reading more than {@code ksql.query.pull.max.scan.rows} rows,
+   * fails the whole query, as its result would otherwise silently lack that node's rows.
+   *
+   * <p>The rows of all nodes are collected into a single result before it is returned, so the
+   * memory a scan uses is bounded by {@code ksql.query.pull.max.scan.rows} times the number of
+   * nodes, or by the {@code LIMIT}, if lower.
+   */
+  private TableRowsEntity handleScanPullQuery(
+      final ConfiguredStatement<Query> statement,
+      final KsqlExecutionContext executionContext,
+      final ServiceContext serviceContext,
+      final PullQueryContext pullQueryContext,
+      final RoutingOptions routingOptions
+  ) {
+    final List<KsqlNode> nodes = pullQueryContext.mat.locator().locateActive(routingOptions);
+
+    final List<CompletableFuture<GroupResult>> remote = new ArrayList<>();
+    KsqlNode local = null;
+    for (final KsqlNode node : nodes) {
+      if (node.isLocal()) {
+        local = node;
+      } else {
+        remote.add(CompletableFuture.supplyAsync(() -> executeScan(
+            node, statement, executionContext, serviceContext, pullQueryContext
+        ), fanOutExecutor));
+      }
+    }
+
+    final List<GroupResult> results = new ArrayList<>(nodes.size());
+    if (local != null) {
+      results.add(executeScan(
+          local, statement, executionContext, serviceContext, pullQueryContext));
+    }
+    for (final CompletableFuture<GroupResult> future : remote) {
+      try {
+        results.add(future.join());
+      } catch (final CompletionException e) {
+        Throwables.throwIfUnchecked(e.getCause());
+        throw new KsqlServerException("Failed to scan materialized table", e.getCause());
+      }
+    }
+
+    return mergeResults(statement, pullQueryContext, results, new ArrayList<>());
+  }
+
+  private static GroupResult executeScan(
+      final KsqlNode node,
+      final ConfiguredStatement<Query> statement,
+      final KsqlExecutionContext executionContext,
+      final ServiceContext serviceContext,
+      final PullQueryContext pullQueryContext
+  ) {
+    final GroupResult result = new GroupResult();
+    try {
+      result.entities.add(routeQuery(
+          node, ImmutableList.of(), statement, executionContext, serviceContext, pullQueryContext));
+    } catch (final KsqlRestClientException e) {
+      // Only a node that could not be reached is skipped. Should a node fail its scan, e.g. by
+      // exceeding ksql.query.pull.max.scan.rows, the exception fails the whole query.
+      LOG.debug("Error routing scan {} to host {} at timestamp {}",
+          statement.getStatementText(), node, System.currentTimeMillis(), e);
+
+      result.failures.add(new KsqlWarning("Failed to scan the partitions of "
+          + node.location() + ": " + (e.getMessage() == null ? "Server Error" : e.getMessage())));
+    }
+    return result;
+  }
+
+  /**
+   * Merges the results of the sub-requests of a pull query, applying any {@code LIMIT} to the
+   * merged rows.
+   */
+  private static TableRowsEntity mergeResults(
+      final ConfiguredStatement<Query> statement,
+      final PullQueryContext pullQueryContext,
+      final List<GroupResult> results,
+      final List<KsqlWarning> failures
+  ) {
+    final int limit = pullQueryContext.limit.orElse(Integer.MAX_VALUE);
+
+    final List<List<?>> rows = new ArrayList<>();
+    LogicalSchema schema = null;
+    for (final GroupResult result : results) {
+      for (final TableRowsEntity entity : result.entities) {
+        if (schema == null) {
+          schema = entity.getSchema();
+        }
+        final List<List<?>> entityRows = entity.getRows();
+        rows.addAll(entityRows.subList(0, Math.min(entityRows.size(), limit - rows.size())));
+        failures.addAll(entity.getWarnings());
+      }
+      failures.addAll(result.failures);
+    }
+
+    if (schema == null) {
+      throw new MaterializationException(String.format(
+          "Unable to execute pull query: %s. %s",
+          statement.getStatementText(),
+          failures.stream().map(KsqlWarning::getMessage).collect(Collectors.joining(" "))
+      ));
+    }
+
+    return new TableRowsEntity(
+        statement.getStatementText(),
+        pullQueryContext.queryId,
+        schema,
+        rows,
+        failures
+    );
+  }
+
+  private static GroupResult executeGroup(
+      final KeyGroup group,
+      final Map<Struct, List<KsqlNode>> nodesByKey,
+      final ConfiguredStatement<Query> statement,
+      final KsqlExecutionContext executionContext,
+      final ServiceContext serviceContext,
+      final PullQueryContext pullQueryContext
+  ) {
+    final GroupResult result = new GroupResult();
+    try {
+      result.entities.add(routeQuery(
+          group.node, group.keys, statement, executionContext, serviceContext, pullQueryContext));
+      return result;
+    } catch (final Exception e) {
+      LOG.debug("Error routing query {} for {} keys to host {} at timestamp {}",
+          statement.getStatementText(), group.keys.size(), group.node,
+          System.currentTimeMillis(), e);
+    }
+
+    // Fall back to the remaining nodes of each key:
+    for (final Struct key : group.keys) {
+      final List<KsqlNode> nodes = nodesByKey.get(key);
+      String error = "No other nodes available.";
+      boolean served = false;
+      for (final KsqlNode node : nodes.subList(1, nodes.size())) {
+        try {
+          result.entities.add(routeQuery(
+              node,
+              ImmutableList.of(key),
+              statement,
+              executionContext,
+              serviceContext,
+              pullQueryContext
+          ));
+          served = true;
+          break;
+        } catch (final Exception e) {
+          error = e.getMessage() == null ? "Server Error" : e.getMessage();
+          LOG.debug("Error routing query {} to host {} at timestamp {}",
+              statement.getStatementText(), node, System.currentTimeMillis());
+        }
+      }
+
+      if (!served) {
+        result.failures.add(keyFailure(pullQueryContext, key, error));
+      }
+    }
+    return result;
+  }
+
+  private static KsqlWarning keyFailure(
+      final PullQueryContext pullQueryContext,
+      final Struct key,
+      final String reason
+  ) {
+    return new KsqlWarning(
+        "Failed to look up key " + pullQueryContext.keys.get(key) + ": " + reason);
+  }
+
   private static TableRowsEntity routeQuery(
       final KsqlNode node,
+      final Collection<Struct> keys,
       final ConfiguredStatement<Query> statement,
       final KsqlExecutionContext executionContext,
       final ServiceContext serviceContext,
@@ -284,62 +605,103 @@ public final class PullQueryExecutor {
       return queryRowsLocally(
           statement,
           executionContext,
-          pullQueryContext);
+          pullQueryContext,
+          keys);
     } else {
       LOG.debug("Query {} routed to host {} at timestamp {}.",
                 statement.getStatementText(), node.location(), System.currentTimeMillis());
       pullQueryContext.pullQueryMetrics
           .ifPresent(queryExecutorMetrics -> queryExecutorMetrics.recordRemoteRequests(1));
-      return forwardTo(node, statement, serviceContext);
+
+      final String statementText = keys.size() == pullQueryContext.keys.size()
+          ? statement.getStatementText()
+          : restrictKeys(statement.getStatement(), keys.stream()
+              .map(pullQueryContext.keys::get)
+              .collect(Collectors.toList()));
+
+      return forwardTo(node, statementText, statement.getConfigOverrides(), serviceContext);
     }
   }
 
+  /**
+   * Builds the text of a pull query that looks up only the supplied subset of the keys in the
+   * {@code IN} list of the supplied query. Any other bounds, e.g. on {@code WINDOWSTART}, are
+   * retained.
+   */
+  private static String restrictKeys(final Query query, final List<Literal> keys) {
+    final Optional<Expression> where = query.getWhere()
+        .map(exp -> ExpressionTreeRewriter.<Void, Expression>rewriteWith(
+            (e, ctx) -> e instanceof InPredicate
+                ? Optional.of(new InPredicate(
+                    e.getLocation(),
+                    ((InPredicate) e).getValue(),
+                    new InListExpression(ImmutableList.copyOf(keys))))
+                : Optional.empty(),
+            exp
+        ));
+
+    final Query restricted = new Query(
+        query.getLocation(),
+        query.getSelect(),
+        query.getFrom(),
+        query.getWindow(),
+        where,
+        query.getGroupBy(),
+        query.getPartitionBy(),
+        query.getHaving(),
+        query.getResultMaterialization(),
+        query.isPullQuery(),
+        query.getLimit()
+    );
+
+    return SqlFormatter.formatSql(restricted) + ";";
+  }
+
   private static TableRowsEntity queryRowsLocally(
       final ConfiguredStatement<Query> statement,
       final KsqlExecutionContext executionContext,
-      final PullQueryContext pullQueryContext
+      final PullQueryContext pullQueryContext,
+      final Collection<Struct> keys
   ) {
-    final Result result;
-    if (pullQueryContext.whereInfo.windowStartBounds.isPresent()) {
+    final ImmutableList.Builder<TableRow> found = ImmutableList.builder();
+    if (pullQueryContext.whereInfo.keyRange.isPresent()) {
+      scanRowsLocally(pullQueryContext, found);
+    } else if (pullQueryContext.whereInfo.windowStartBounds.isPresent()) {
       final Range<Instant> windowStart = pullQueryContext.whereInfo.windowStartBounds.get();
 
-      final List<? extends TableRow> rows = pullQueryContext.mat.windowed()
-          .get(pullQueryContext.key, windowStart);
-
-      result = new Result(pullQueryContext.mat.schema(), rows);
+      for (final Struct key : keys) {
+        found.addAll(pullQueryContext.mat.windowed().get(key, windowStart));
+      }
     } else {
-      final List<? extends TableRow> rows = pullQueryContext.mat.nonWindowed()
-          .get(pullQueryContext.key)
-          .map(ImmutableList::of)
-          .orElse(ImmutableList.of());
-
-      result = new Result(pullQueryContext.mat.schema(), rows);
+      for (final Struct key : keys) {
+        pullQueryContext.mat.nonWindowed()
+            .get(key)
+            .ifPresent(found::add);
+      }
     }
 
+    final List<TableRow> rowsFound = found.build();
+    final Result result = new Result(
+        pullQueryContext.mat.schema(),
+        rowsFound.subList(0, Math.min(
+            rowsFound.size(), pullQueryContext.limit.orElse(Integer.MAX_VALUE)))
+    );
+
     final LogicalSchema outputSchema;
     final List<List<?>> rows;
-    if (isSelectStar(statement.getStatement().getSelect())) {
+    if (pullQueryContext.plan.selectStar) {
       outputSchema = TableRowsEntityFactory.buildSchema(
           result.schema, pullQueryContext.mat.windowType().isPresent());
       rows = TableRowsEntityFactory.createRows(result.rows);
     } else {
-      final List<SelectExpression> projection = pullQueryContext.analysis.getSelectItems().stream()
-          .map(SingleColumn.class::cast)
-          .map(si -> SelectExpression
-              .of(si.getAlias().orElseThrow(IllegalStateException::new), si.getExpression()))
-          .collect(Collectors.toList());
+      final PullProjection projection = pullQueryContext.plan.projection.get();
 
-      outputSchema = selectOutputSchema(
-          result, executionContext, projection, pullQueryContext.mat.windowType());
+      outputSchema = projection.outputSchema;
 
       rows = handleSelects(
           result,
-          statement,
           executionContext,
-          pullQueryContext.analysis,
-          outputSchema,
           projection,
-          pullQueryContext.mat.windowType(),
           pullQueryContext.queryId,
           pullQueryContext.contextStacker
       );
@@ -352,9 +714,67 @@ public final class PullQueryExecutor {
     );
   }
 
+  /**
+   * Scans the partitions of the table for which this node is active, stopping once any
+   * {@code LIMIT} is reached.
+   *
+   * <p>Rows are read from the store one at a time, and those outside the key range are skipped.
+   * The store is scanned in the order of its serialized keys, i.e. by the unsigned bytes of their
+   * UTF-8 encoding for {@code STRING} keys, whereas the key range is compared with
+   * {@link String#compareTo}, i.e. by UTF-16 code unit. The two orders differ when a character
+   * from U+E000 to U+FFFF is compared with a supplementary character, so the scan is only
+   * restricted to the key range of a {@code STRING} key if both bounds are made up only of
+   * characters below U+D800. Any key is then ordered the same way against each bound in both
+   * orders. Otherwise, as for other key types, the whole store is scanned and filtered.
+   */
+  private static void scanRowsLocally(
+      final PullQueryContext pullQueryContext,
+      final ImmutableList.Builder<TableRow> found
+  ) {
+    final Range<Comparable<?>> keyRange = pullQueryContext.whereInfo.keyRange.get();
+    final int limit = pullQueryContext.limit.orElse(Integer.MAX_VALUE);
+    final MaterializedTable table = pullQueryContext.mat.nonWindowed();
+    final PersistentQueryMetadata query = pullQueryContext.plan.query;
+
+    final boolean stringKey = Iterables.getOnlyElement(query.getLogicalSchema().key())
+        .type().baseType() == SqlBaseType.STRING;
+
+    final boolean rangeScan = stringKey
+        && keyRange.hasLowerBound()
+        && keyRange.hasUpperBound()
+        && isOrderedAsUtf8(keyRange.lowerEndpoint())
+        && isOrderedAsUtf8(keyRange.upperEndpoint());
+
+    int count = 0;
+    try (RowIterator rows = rangeScan
+        ? table.scan(
+            asKeyStruct(keyRange.lowerEndpoint(), query.getPhysicalSchema()),
+            asKeyStruct(keyRange.upperEndpoint(), query.getPhysicalSchema()),
+            pullQueryContext.maxRowsScanned)
+        : table.scan(pullQueryContext.maxRowsScanned)
+    ) {
+      while (count < limit && rows.hasNext()) {
+        final Row row = rows.next();
+        final Struct key = row.key();
+        final Comparable<?> keyValue =
+            (Comparable<?>) key.get(Iterables.getOnlyElement(key.schema().fields()));
+
+        if (keyRange.contains(keyValue)) {
+          found.add(row);
+          count++;
+        }
+      }
+    }
+  }
+
+  private static boolean isOrderedAsUtf8(final Comparable<?> bound) {
+    return ((String) bound).chars().allMatch(c -> c < Character.MIN_SURROGATE);
+  }
+
   private static TableRowsEntity forwardTo(
       final KsqlNode owner,
-      final ConfiguredStatement<Query> statement,
+      final String statementText,
+      final Map<String, Object> configOverrides,
       final ServiceContext serviceContext
   ) {
     // Add skip forward flag to properties
@@ -364,8 +784,8 @@ public final class PullQueryExecutor {
         .getKsqlClient()
         .makeQueryRequest(
             owner.location(),
-            statement.getStatementText(),
-            statement.getConfigOverrides(),
+            statementText,
+            configOverrides,
             requestProperties
         );
 
@@ -384,15 +804,22 @@ public final class PullQueryExecutor {
         .orElseThrow(() -> new KsqlServerException("Expected header in first row"));
 
     final ImmutableList.Builder<List<?>> rows = ImmutableList.builder();
+    final ImmutableList.Builder<KsqlWarning> warnings = ImmutableList.builder();
 
     for (final StreamedRow row : streamedRows.subList(1, streamedRows.size())) {
       if (row.getErrorMessage().isPresent()) {
         throw new KsqlStatementException(
             row.getErrorMessage().get().getMessage(),
-            statement.getStatementText()
+            statementText
         );
       }
 
+      if (row.getFinalMessage().isPresent()) {
+        // Keys of a multi-key lookup the remote node failed to serve:
+        warnings.add(new KsqlWarning(row.getFinalMessage().get()));
+        continue;
+      }
+
       if (!row.getRow().isPresent()) {
         throw new KsqlServerException("Unexpected forwarding response");
       }
@@ -401,10 +828,11 @@ public final class PullQueryExecutor {
     }
 
     return new TableRowsEntity(
-        statement.getStatementText(),
+        statementText,
         header.getQueryId(),
         header.getSchema(),
-        rows.build()
+        rows.build(),
+        warnings.build()
     );
   }
 
@@ -425,38 +853,241 @@ public final class PullQueryExecutor {
     return queryAnalyzer.analyze(statement.getStatement(), Optional.empty());
   }
 
+  private PullQueryPlan getPlan(
+      final ConfiguredStatement<Query> statement,
+      final Optional<PullQueryExecutorMetrics> pullQueryMetrics
+  ) {
+    if (!planCache.isPresent()) {
+      return buildPlan(statement, executionContext);
+    }
+
+    final Cache<PlanKey, PullQueryPlan> cache = planCache.get();
+    final PlanKey planKey = PlanKey.of(statement);
+
+    final PullQueryPlan cached = cache.getIfPresent(planKey);
+    if (cached != null && cached.isCurrent(executionContext)) {
+      pullQueryMetrics.ifPresent(PullQueryExecutorMetrics::recordPlanCacheHit);
+      return cached;
+    }
+
+    pullQueryMetrics.ifPresent(PullQueryExecutorMetrics::recordPlanCacheMiss);
+
+    if (cached != null) {
+      // Materializing query or source has changed since the plan was built:
+      cache.invalidate(planKey);
+    }
+
+    final PullQueryPlan plan = buildPlan(statement, executionContext);
+    cache.put(planKey, plan);
+
+    final long evicted = planCacheEvictions.getAndSet(0);
+    if (evicted > 0) {
+      pullQueryMetrics.ifPresent(metrics -> metrics.recordPlanCacheEvictions(evicted));
+    }
+    return plan;
+  }
+
+  private static PullQueryPlan buildPlan(
+      final ConfiguredStatement<Query> statement,
+      final KsqlExecutionContext executionContext
+  ) {
+    final ImmutableAnalysis analysis = new RewrittenAnalysis(
+        analyze(statement, executionContext),
+        new ColumnReferenceRewriter()::process
+    );
+
+    final DataSource source = analysis.getFromDataSources().get(0).getDataSource();
+
+    final PersistentQueryMetadata query = findMaterializingQuery(executionContext, analysis);
+
+    final Materialization mat = query
+        .getMaterialization(uniqueQueryId(), new Stacker())
+        .orElseThrow(() -> notMaterializedException(getSourceName(analysis)));
+
+    final boolean selectStar = isSelectStar(statement.getStatement().getSelect());
+
+    final Supplier<PullProjection> projection = Suppliers.memoize(
+        () -> buildProjection(statement, executionContext, analysis, mat));
+
+    return new PullQueryPlan(analysis, source, query, mat, selectStar, projection);
+  }
+
+  private static Optional<Expression> rewriteColumnReferences(
+      final Optional<Expression> expression
+  ) {
+    return expression.map(exp -> ExpressionTreeRewriter.rewriteWith(
+        new ColumnReferenceRewriter()::process,
+        exp
+    ));
+  }
+
+  /**
+   * Identifies the shape of a pull query, i.e. the statement with the literals in its WHERE
+   * clause lifted out, so that lookups of different keys or window bounds share a plan.
+   */
+  private static final class PlanKey {
+
+    private final Query shape;
+    private final Map<String, Object> configOverrides;
+
+    private PlanKey(final Query shape, final Map<String, Object> configOverrides) {
+      this.shape = Objects.requireNonNull(shape, "shape");
+      this.configOverrides = Objects.requireNonNull(configOverrides, "configOverrides");
+    }
+
+    static PlanKey of(final ConfiguredStatement<Query> statement) {
+      final Query query = statement.getStatement();
+
+      final Optional<Expression> whereShape = query.getWhere()
+          .map(where -> ExpressionTreeRewriter.<Void, Expression>rewriteWith(
+              (exp, ctx) -> {
+                if (exp instanceof Literal) {
+                  return Optional.of(new NullLiteral());
+                }
+                if (exp instanceof InListExpression) {
+                  // Lookups of any number of keys share a plan:
+                  return Optional.of(
+                      new InListExpression(ImmutableList.of(new NullLiteral())));
+                }
+                return Optional.empty();
+              },
+              where
+          ));
+
+      final Query shape = new Query(
+          Optional.empty(),
+          query.getSelect(),
+          query.getFrom(),
+          query.getWindow(),
+          whereShape,
+          query.getGroupBy(),
+          query.getPartitionBy(),
+          query.getHaving(),
+          query.getResultMaterialization(),
+          query.isPullQuery(),
+          query.getLimit()
+      );
+
+      return new PlanKey(shape, statement.getConfigOverrides());
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final PlanKey that = (PlanKey) o;
+      return Objects.equals(shape, that.shape)
+          && Objects.equals(configOverrides, that.configOverrides);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(shape, configOverrides);
+    }
+  }
+
+  /**
+   * The parts of a pull query that do not depend on the key or window bounds being looked up.
+   */
+  private static final class PullQueryPlan {
+
+    private final ImmutableAnalysis analysis;
+    private final DataSource source;
+    private final PersistentQueryMetadata query;
+    private final Materialization mat;
+    private final boolean selectStar;
+    private final Supplier<PullProjection> projection;
+
+    private PullQueryPlan(
+        final ImmutableAnalysis analysis,
+        final DataSource source,
+        final PersistentQueryMetadata query,
+        final Materialization mat,
+        final boolean selectStar,
+        final Supplier<PullProjection> projection
+    ) {
+      this.analysis = Objects.requireNonNull(analysis, "analysis");
+      this.source = Objects.requireNonNull(source, "source");
+      this.query = Objects.requireNonNull(query, "query");
+      this.mat = Objects.requireNonNull(mat, "mat");
+      this.selectStar = selectStar;
+      this.projection = Objects.requireNonNull(projection, "projection");
+    }
+
+    boolean isCurrent(final KsqlExecutionContext executionContext) {
+      final MetaStore metaStore = executionContext.getMetaStore();
+      final SourceName sourceName = source.getName();
+
+      return metaStore.getSource(sourceName) == source
+          && metaStore.getQueriesWithSink(sourceName).size() == 1
+          && executionContext.getPersistentQuery(query.getQueryId())
+              .map(current -> current == query)
+              .orElse(false);
+    }
+  }
+
+  private static final class PullProjection {
+
+    private final LogicalSchema outputSchema;
+    private final Function<TableRow, GenericRow> preSelectTransform;
+    private final SelectValueMapper<Object> select;
+
+    private PullProjection(
+        final LogicalSchema outputSchema,
+        final Function<TableRow, GenericRow> preSelectTransform,
+        final SelectValueMapper<Object> select
+    ) {
+      this.outputSchema = Objects.requireNonNull(outputSchema, "outputSchema");
+      this.preSelectTransform =
+          Objects.requireNonNull(preSelectTransform, "preSelectTransform");
+      this.select = Objects.requireNonNull(select, "select");
+    }
+  }
+
   private static final class PullQueryContext {
 
-    private final Struct key;
+    private final Map<Struct, Literal> keys;
     private final Materialization mat;
     private final ImmutableAnalysis analysis;
     private final WhereInfo whereInfo;
+    private final OptionalInt limit;
+    private final long maxRowsScanned;
     private final QueryId queryId;
     private final QueryContext.Stacker contextStacker;
     private final Optional<PullQueryExecutorMetrics> pullQueryMetrics;
 
+    private final PullQueryPlan plan;
+
     private PullQueryContext(
-        final Struct key,
-        final Materialization mat,
-        final ImmutableAnalysis analysis,
+        final Map<Struct, Literal> keys,
+        final PullQueryPlan plan,
         final WhereInfo whereInfo,
+        final OptionalInt limit,
+        final long maxRowsScanned,
         final QueryId queryId,
         final QueryContext.Stacker contextStacker,
         final Optional<PullQueryExecutorMetrics> pullQueryMetrics
 
     ) {
-      this.key = Objects.requireNonNull(key, "key");
-      this.mat = Objects.requireNonNull(mat, "materialization");
-      this.analysis = Objects.requireNonNull(analysis, "analysis");
+      this.keys = ImmutableMap.copyOf(Objects.requireNonNull(keys, "keys"));
+      this.plan = Objects.requireNonNull(plan, "plan");
+      this.mat = plan.mat;
+      this.analysis = plan.analysis;
       this.whereInfo = Objects.requireNonNull(whereInfo, "whereInfo");
+      this.limit = Objects.requireNonNull(limit, "limit");
+      this.maxRowsScanned = maxRowsScanned;
       this.queryId = Objects.requireNonNull(queryId, "queryId");
       this.contextStacker = Objects.requireNonNull(contextStacker, "contextStacker");
       this.pullQueryMetrics = Objects.requireNonNull(
           pullQueryMetrics, "pullQueryExecutorMetrics");
     }
 
-    public Struct getKey() {
-      return key;
+    public Map<Struct, Literal> getKeys() {
+      return keys;
     }
 
     public Materialization getMat() {
@@ -482,18 +1113,45 @@ public final class PullQueryExecutor {
 
   private static final class WhereInfo {
 
-    private final Object keyBound;
+    private final Map<Object, Literal> keyBounds;
     private final Optional<Range<Instant>> windowStartBounds;
+    private final Optional<Range<Comparable<?>>> keyRange;
 
     private WhereInfo(
-        final Object keyBound,
+        final Map<Object, Literal> keyBounds,
         final Optional<Range<Instant>> windowStartBounds
     ) {
-      this.keyBound = keyBound;
+      this.keyBounds = keyBounds;
       this.windowStartBounds = windowStartBounds;
+      this.keyRange = Optional.empty();
+    }
+
+    private WhereInfo(final Range<Comparable<?>> keyRange) {
+      this.keyBounds = ImmutableMap.of();
+      this.windowStartBounds = Optional.empty();
+      this.keyRange = Optional.of(keyRange);
+    }
+  }
+
+  /**
+   * The keys of a multi-key pull query that are preferably served by the same node.
+   */
+  private static final class KeyGroup {
+
+    private final KsqlNode node;
+    private final List<Struct> keys = new ArrayList<>();
+
+    private KeyGroup(final KsqlNode node) {
+      this.node = Objects.requireNonNull(node, "node");
     }
   }
 
+  private static final class GroupResult {
+
+    private final List<TableRowsEntity> entities = new ArrayList<>();
+    private final List<KsqlWarning> failures = new ArrayList<>();
+  }
+
   private static final class Result {
 
     private final LogicalSchema schema;
@@ -509,23 +1167,37 @@ public final class PullQueryExecutor {
   }
 
   private static WhereInfo extractWhereInfo(
-      final ImmutableAnalysis analysis,
+      final Optional<Expression> whereExpression,
+      final OptionalInt limit,
       final PersistentQueryMetadata query
   ) {
     final boolean windowed = query.getResultTopic().getKeyFormat().isWindowed();
 
-    final Expression where = analysis.getWhereExpression()
+    if (!whereExpression.isPresent() && !windowed && limit.isPresent()) {
+      // Bounded full scan:
+      return new WhereInfo(Range.all());
+    }
+
+    final Expression where = whereExpression
         .orElseThrow(() -> invalidWhereClauseException("Missing WHERE clause", windowed));
 
-    final Map<ComparisonTarget, List<ComparisonExpression>> comparisons =
+    final Map<ComparisonTarget, List<Expression>> comparisons =
         extractComparisons(where, query);
 
-    final List<ComparisonExpression> keyComparison = comparisons.get(ComparisonTarget.KEYCOL);
+    final List<Expression> keyComparison = comparisons.get(ComparisonTarget.KEYCOL);
     if (keyComparison == null) {
       throw invalidWhereClauseException("WHERE clause missing key column", windowed);
     }
 
-    final Object key = extractKeyWhereClause(
+    if (!windowed && keyComparison.stream().allMatch(PullQueryExecutor::isKeyRangeBound)) {
+      if (comparisons.size() > 1) {
+        throw invalidWhereClauseException("Unsupported WHERE clause", false);
+      }
+
+      return new WhereInfo(extractKeyRange(keyComparison, query.getLogicalSchema()));
+    }
+
+    final Map<Object, Literal> keys = extractKeyWhereClause(
         keyComparison,
         windowed,
         query.getLogicalSchema()
@@ -536,19 +1208,20 @@ public final class PullQueryExecutor {
         throw invalidWhereClauseException("Unsupported WHERE clause", false);
       }
 
-      return new WhereInfo(key, Optional.empty());
+      return new WhereInfo(keys, Optional.empty());
     }
 
     final Optional<List<ComparisonExpression>> windowBoundsComparison =
-        Optional.ofNullable(comparisons.get(ComparisonTarget.WINDOWSTART));
+        Optional.ofNullable(comparisons.get(ComparisonTarget.WINDOWSTART))
+            .map(PullQueryExecutor::asWindowBoundComparisons);
 
     final Range<Instant> windowStart = extractWhereClauseWindowBounds(windowBoundsComparison);
 
-    return new WhereInfo(key, Optional.of(windowStart));
+    return new WhereInfo(keys, Optional.of(windowStart));
   }
 
-  private static Object extractKeyWhereClause(
-      final List<ComparisonExpression> comparisons,
+  private static Map<Object, Literal> extractKeyWhereClause(
+      final List<Expression> comparisons,
       final boolean windowed,
       final LogicalSchema schema
   ) {
@@ -556,17 +1229,144 @@ public final class PullQueryExecutor {
       throw invalidWhereClauseException("Multiple bounds on key column", windowed);
     }
 
-    final ComparisonExpression comparison = comparisons.get(0);
-    if (comparison.getType() != Type.EQUAL) {
+    final Expression comparison = comparisons.get(0);
+    if (comparison instanceof InPredicate) {
+      return extractKeysInList((InPredicate) comparison, windowed, schema);
+    }
+
+    final ComparisonExpression equals = (ComparisonExpression) comparison;
+    if (equals.getType() != Type.EQUAL) {
       final ColumnName keyColumn = Iterables.getOnlyElement(schema.key()).name();
       throw invalidWhereClauseException("Bound on '" + keyColumn.text()
           + "' must currently be '='", windowed);
     }
 
-    final Expression other = getNonColumnRefSide(comparison);
-    final Object right = ((Literal) other).getValue();
+    final Literal other = (Literal) getNonColumnRefSide(equals);
+    final Object right = other.getValue();
+
+    return ImmutableMap.of(coerceKey(schema, right, windowed), other);
+  }
+
+  private static boolean isKeyRangeBound(final Expression comparison) {
+    if (comparison instanceof BetweenPredicate) {
+      return true;
+    }
+
+    if (!(comparison instanceof ComparisonExpression)) {
+      return false;
+    }
+
+    final Type type = getSimplifiedBoundType((ComparisonExpression) comparison);
+    return type == Type.GREATER_THAN || type == Type.LESS_THAN;
+  }
+
+  /**
+   * Extracts the range of keys bound by {@code BETWEEN}, {@code <}, {@code <=}, {@code >} and
+   * {@code >=} comparisons on the key column, of which there can be at most one lower and one
+   * upper bound.
+   */
+  private static Range<Comparable<?>> extractKeyRange(
+      final List<Expression> comparisons,
+      final LogicalSchema schema
+  ) {
+    Optional<Comparable<?>> lower = Optional.empty();
+    BoundType lowerType = BoundType.CLOSED;
+    Optional<Comparable<?>> upper = Optional.empty();
+    BoundType upperType = BoundType.CLOSED;
+
+    for (final Expression comparison : comparisons) {
+      if (comparison instanceof BetweenPredicate) {
+        final BetweenPredicate between = (BetweenPredicate) comparison;
+        if (lower.isPresent() || upper.isPresent()) {
+          throw invalidWhereClauseException("Multiple bounds on key column", false);
+        }
+
+        lower = Optional.of(keyRangeBound(between.getMin(), between, schema));
+        upper = Optional.of(keyRangeBound(between.getMax(), between, schema));
+        continue;
+      }
+
+      final ComparisonExpression bound = (ComparisonExpression) comparison;
+      final Comparable<?> value = keyRangeBound(getNonColumnRefSide(bound), bound, schema);
+
+      if (getSimplifiedBoundType(bound) == Type.GREATER_THAN) {
+        if (lower.isPresent()) {
+          throw invalidWhereClauseException("Multiple lower bounds on key column", false);
+        }
+        lower = Optional.of(value);
+        lowerType = getRangeBoundType(bound);
+      } else {
+        if (upper.isPresent()) {
+          throw invalidWhereClauseException("Multiple upper bounds on key column", false);
+        }
+        upper = Optional.of(value);
+        upperType = getRangeBoundType(bound);
+      }
+    }
+
+    if (!lower.isPresent()) {
+      return Range.upTo(upper.get(), upperType);
+    }
+
+    if (!upper.isPresent()) {
+      return Range.downTo(lower.get(), lowerType);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    final int compared = ((Comparable) lower.get()).compareTo(upper.get());
+    if (compared > 0 || (compared == 0 && (lowerType == BoundType.OPEN
+        || upperType == BoundType.OPEN))) {
+      // No key is within the bounds:
+      return Range.closedOpen(lower.get(), lower.get());
+    }
+
+    return Range.range(lower.get(), lowerType, upper.get(), upperType);
+  }
+
+  private static Comparable<?> keyRangeBound(
+      final Expression bound,
+      final Expression comparison,
+      final LogicalSchema schema
+  ) {
+    if (!(bound instanceof Literal) || bound instanceof NullLiteral) {
+      throw invalidWhereClauseException(
+          "Bounds on key column must be literals: " + comparison, false);
+    }
+
+    return (Comparable<?>) coerceKey(schema, ((Literal) bound).getValue(), false);
+  }
+
+  private static Map<Object, Literal> extractKeysInList(
+      final InPredicate inPredicate,
+      final boolean windowed,
+      final LogicalSchema schema
+  ) {
+    // Keyed by the coerced key, so that the same key listed twice is only looked up once:
+    final Map<Object, Literal> keys = new LinkedHashMap<>();
+    for (final Expression value : inPredicate.getValueList().getValues()) {
+      if (!(value instanceof Literal) || value instanceof NullLiteral) {
+        throw invalidWhereClauseException(
+            "IN list on key column must only contain literals: " + inPredicate, windowed);
+      }
 
-    return coerceKey(schema, right, windowed);
+      final Literal literal = (Literal) value;
+      keys.putIfAbsent(coerceKey(schema, literal.getValue(), windowed), literal);
+    }
+    return keys;
+  }
+
+  private static List<ComparisonExpression> asWindowBoundComparisons(
+      final List<Expression> expressions
+  ) {
+    return expressions.stream()
+        .map(exp -> {
+          if (!(exp instanceof ComparisonExpression)) {
+            throw invalidWhereClauseException(
+                "Unsupported " + ComparisonTarget.WINDOWSTART + " bounds: " + exp, true);
+          }
+          return (ComparisonExpression) exp;
+        })
+        .collect(Collectors.toList());
   }
 
   private static Object coerceKey(
@@ -734,32 +1534,47 @@ public final class PullQueryExecutor {
     WINDOWSTART
   }
 
-  private static Map<ComparisonTarget, List<ComparisonExpression>> extractComparisons(
+  private static Map<ComparisonTarget, List<Expression>> extractComparisons(
       final Expression exp,
       final PersistentQueryMetadata query
   ) {
     if (exp instanceof ComparisonExpression) {
       final ComparisonExpression comparison = (ComparisonExpression) exp;
-      final ComparisonTarget target = extractWhereClauseTarget(comparison, query);
+      final ComparisonTarget target = extractWhereClauseTarget(
+          comparison, comparison.getLeft(), comparison.getRight(), query);
       return ImmutableMap.of(target, ImmutableList.of(comparison));
     }
 
+    if (exp instanceof BetweenPredicate) {
+      final BetweenPredicate between = (BetweenPredicate) exp;
+      final ComparisonTarget target = extractWhereClauseTarget(
+          between, between.getValue(), between.getMin(), query);
+      return ImmutableMap.of(target, ImmutableList.of(between));
+    }
+
+    if (exp instanceof InPredicate) {
+      final InPredicate inPredicate = (InPredicate) exp;
+      final ComparisonTarget target = extractWhereClauseTarget(
+          inPredicate, inPredicate.getValue(), inPredicate.getValueList(), query);
+      return ImmutableMap.of(target, ImmutableList.of(inPredicate));
+    }
+
     if (exp instanceof LogicalBinaryExpression) {
       final LogicalBinaryExpression binary = (LogicalBinaryExpression) exp;
       if (binary.getType() != LogicalBinaryExpression.Type.AND) {
         throw invalidWhereClauseException("Only AND expressions are supported: " + exp, false);
       }
 
-      final Map<ComparisonTarget, List<ComparisonExpression>> left =
+      final Map<ComparisonTarget, List<Expression>> left =
           extractComparisons(binary.getLeft(), query);
 
-      final Map<ComparisonTarget, List<ComparisonExpression>> right =
+      final Map<ComparisonTarget, List<Expression>> right =
           extractComparisons(binary.getRight(), query);
 
       return Stream
           .concat(left.entrySet().stream(), right.entrySet().stream())
           .collect(Collectors.toMap(Entry::getKey, Entry::getValue, (l, r) ->
-              ImmutableList.<ComparisonExpression>builder().addAll(l).addAll(r).build()
+              ImmutableList.<Expression>builder().addAll(l).addAll(r).build()
           ));
     }
 
@@ -767,14 +1582,16 @@ public final class PullQueryExecutor {
   }
 
   private static ComparisonTarget extractWhereClauseTarget(
-      final ComparisonExpression comparison,
+      final Expression comparison,
+      final Expression left,
+      final Expression right,
       final PersistentQueryMetadata query
   ) {
     final UnqualifiedColumnReferenceExp column;
-    if (comparison.getRight() instanceof UnqualifiedColumnReferenceExp) {
-      column = (UnqualifiedColumnReferenceExp) comparison.getRight();
-    } else if (comparison.getLeft() instanceof UnqualifiedColumnReferenceExp) {
-      column = (UnqualifiedColumnReferenceExp) comparison.getLeft();
+    if (right instanceof UnqualifiedColumnReferenceExp) {
+      column = (UnqualifiedColumnReferenceExp) right;
+    } else if (left instanceof UnqualifiedColumnReferenceExp) {
+      column = (UnqualifiedColumnReferenceExp) left;
     } else {
       throw invalidWhereClauseException("Invalid WHERE clause: " + comparison, false);
     }
@@ -807,33 +1624,40 @@ public final class PullQueryExecutor {
     return someStars;
   }
 
-  private static List<List<?>> handleSelects(
-      final Result input,
+  private static PullProjection buildProjection(
       final ConfiguredStatement<Query> statement,
       final KsqlExecutionContext executionContext,
       final ImmutableAnalysis analysis,
-      final LogicalSchema outputSchema,
-      final List<SelectExpression> projection,
-      final Optional<WindowType> windowType,
-      final QueryId queryId,
-      final Stacker contextStacker
+      final Materialization mat
   ) {
+    final LogicalSchema inputSchema = mat.schema();
+    final Optional<WindowType> windowType = mat.windowType();
+
+    final List<SelectExpression> projection = analysis.getSelectItems().stream()
+        .map(SingleColumn.class::cast)
+        .map(si -> SelectExpression
+            .of(si.getAlias().orElseThrow(IllegalStateException::new), si.getExpression()))
+        .collect(Collectors.toList());
+
+    final LogicalSchema outputSchema = selectOutputSchema(
+        inputSchema, executionContext, projection, windowType);
+
     final boolean noSystemColumns = analysis.getSelectColumnNames().stream()
         .noneMatch(SchemaUtil::isSystemColumn);
 
     final boolean noKeyColumns = analysis.getSelectColumnNames().stream()
-        .noneMatch(input.schema::isKeyColumn);
+        .noneMatch(inputSchema::isKeyColumn);
 
     final LogicalSchema intermediateSchema;
     final Function<TableRow, GenericRow> preSelectTransform;
     if (noSystemColumns && noKeyColumns) {
-      intermediateSchema = input.schema;
+      intermediateSchema = inputSchema;
       preSelectTransform = TableRow::value;
     } else {
       // SelectValueMapper requires the rowTime & key fields in the value schema :(
       final boolean windowed = windowType.isPresent();
 
-      intermediateSchema = input.schema
+      intermediateSchema = inputSchema
           .withMetaAndKeyColsInValue(windowed);
 
       preSelectTransform = row -> {
@@ -872,6 +1696,16 @@ public final class PullQueryExecutor {
         executionContext.getMetaStore()
     );
 
+    return new PullProjection(outputSchema, preSelectTransform, select);
+  }
+
+  private static List<List<?>> handleSelects(
+      final Result input,
+      final KsqlExecutionContext executionContext,
+      final PullProjection projection,
+      final QueryId queryId,
+      final Stacker contextStacker
+  ) {
     final ProcessingLogger logger = executionContext
         .getProcessingLogContext()
         .getLoggerFactory()
@@ -880,19 +1714,19 @@ public final class PullQueryExecutor {
                 .queryLoggerName(queryId, contextStacker.push("PROJECT").getQueryContext())
         );
 
-    final KsqlTransformer<Object, GenericRow> transformer = select
+    final KsqlTransformer<Object, GenericRow> transformer = projection.select
         .getTransformer(logger);
 
     final ImmutableList.Builder<List<?>> output = ImmutableList.builder();
     input.rows.forEach(r -> {
-      final GenericRow intermediate = preSelectTransform.apply(r);
+      final GenericRow intermediate = projection.preSelectTransform.apply(r);
 
       final GenericRow mapped = transformer.transform(
           r.key(),
           intermediate,
           new PullProcessingContext(r.rowTime())
       );
-      validateProjection(mapped, outputSchema);
+      validateProjection(mapped, projection.outputSchema);
       output.add(mapped.values());
     });
 
@@ -914,7 +1748,7 @@ public final class PullQueryExecutor {
   }
 
   private static LogicalSchema selectOutputSchema(
-      final Result input,
+      final LogicalSchema inputSchema,
       final KsqlExecutionContext executionContext,
       final List<SelectExpression> selectExpressions,
       final Optional<WindowType> windowType
@@ -922,7 +1756,7 @@ public final class PullQueryExecutor {
     final Builder schemaBuilder = LogicalSchema.builder();
 
     // Copy meta & key columns into the value schema as SelectValueMapper expects it:
-    final LogicalSchema schema = input.schema
+    final LogicalSchema schema = inputSchema
         .withMetaAndKeyColsInValue(windowType.isPresent());
 
     final ExpressionTypeManager expressionTypeManager =
@@ -931,7 +1765,7 @@ public final class PullQueryExecutor {
     for (final SelectExpression select : selectExpressions) {
       final SqlType type = expressionTypeManager.getExpressionSqlType(select.getExpression());
 
-      if (input.schema.isKeyColumn(select.getAlias())
+      if (inputSchema.isKeyColumn(select.getAlias())
           || select.getAlias().equals(SchemaUtil.WINDOWSTART_NAME)
           || select.getAlias().equals(SchemaUtil.WINDOWEND_NAME)
       ) {
@@ -990,7 +1824,13 @@ public final class PullQueryExecutor {
       final boolean windowed
   ) {
     final String additional = !windowed
-        ? ""
+        ? System.lineSeparator()
+            + " - limits the query to a range of keys, e.g. "
+            + "`SELECT * FROM X WHERE <key-column> BETWEEN Y AND Z;` or "
+            + "`SELECT * FROM X WHERE Y <= <key-column> AND <key-column> < Z;`."
+            + System.lineSeparator()
+            + "A table that is not windowed can also be scanned without a WHERE clause if the "
+            + "query has a LIMIT clause, e.g. `SELECT * FROM X LIMIT 10;`."
         : System.lineSeparator()
             + " - limits the time bounds of the windowed table. This can be: "
             + System.lineSeparator()
@@ -1009,7 +1849,8 @@ public final class PullQueryExecutor {
         + System.lineSeparator()
         + "Pull queries require a WHERE clause that:"
         + System.lineSeparator()
-        + " - limits the query to a single key, e.g. `SELECT * FROM X WHERE <key-column>>=Y;`."
+        + " - limits the query to a single key, e.g. `SELECT * FROM X WHERE <key-column>>=Y;`,"
+        + " or a list of keys, e.g. `SELECT * FROM X WHERE <key-column> IN (Y, Z);`."
         + additional
     );
   }
@@ -1069,6 +1910,10 @@ public final class PullQueryExecutor {
       return KsqlRequestConfig.KSQL_REQUEST_QUERY_PULL_SKIP_FORWARDING_DEFAULT;
     }
 
+    long getMaxRowsScanned() {
+      return getLong(KsqlConfig.KSQL_QUERY_PULL_MAX_SCAN_ROWS_CONFIG);
+    }
+
     @Override
     public long getOffsetLagAllowed() {
       return getLong(KsqlConfig.KSQL_QUERY_PULL_MAX_ALLOWED_OFFSET_LAG_CONFIG);
@@ -25,6 +25,7 @@ import java.util.Objects;
 import org.apache.kafka.common.metrics.Metrics;
 import org.apache.kafka.common.metrics.Sensor;
 import org.apache.kafka.common.metrics.stats.Avg;
+import org.apache.kafka.common.metrics.stats.CumulativeSum;
 import org.apache.kafka.common.metrics.stats.Max;
 import org.apache.kafka.common.metrics.stats.Min;
 import org.apache.kafka.common.metrics.stats.Percentile;
@@ -37,6 +38,7 @@ public class PullQueryExecutorMetrics implements Closeable {
 
   private static final String PULL_QUERY_METRIC_GROUP = "pull-query";
   private static final String PULL_REQUESTS = "pull-query-requests";
+  private static final String PLAN_CACHE = "pull-query-plan-cache";
 
   private final List<Sensor> sensors;
   private final Sensor localRequestsSensor;
@@ -44,6 +46,9 @@ public class PullQueryExecutorMetrics implements Closeable {
   private final Sensor latencySensor;
   private final Sensor requestRateSensor;
   private final Sensor errorRateSensor;
+  private final Sensor planCacheHitSensor;
+  private final Sensor planCacheMissSensor;
+  private final Sensor planCacheEvictionSensor;
   private final Metrics metrics;
   private final Map<String, String> customMetricsTags;
   private final String ksqlServiceId;
@@ -63,6 +68,9 @@ public class PullQueryExecutorMetrics implements Closeable {
     this.latencySensor = configureRequestSensor();
     this.requestRateSensor = configureRateSensor();
     this.errorRateSensor = configureErrorRateSensor();
+    this.planCacheHitSensor = configurePlanCacheSensor("hit", "hits");
+    this.planCacheMissSensor = configurePlanCacheSensor("miss", "misses");
+    this.planCacheEvictionSensor = configurePlanCacheSensor("eviction", "evictions");
   }
 
   @Override
@@ -90,6 +98,18 @@ public class PullQueryExecutorMetrics implements Closeable {
     this.errorRateSensor.record(value);
   }
 
+  public void recordPlanCacheHit() {
+    this.planCacheHitSensor.record(1);
+  }
+
+  public void recordPlanCacheMiss() {
+    this.planCacheMissSensor.record(1);
+  }
+
+  public void recordPlanCacheEvictions(final double value) {
+    this.planCacheEvictionSensor.record(value);
+  }
+
   List<Sensor> getSensors() {
     return sensors;
   }
@@ -190,6 +210,31 @@ public class PullQueryExecutorMetrics implements Closeable {
     return sensor;
   }
 
+  private Sensor configurePlanCacheSensor(final String name, final String description) {
+    final Sensor sensor = metrics.sensor(
+        PULL_QUERY_METRIC_GROUP + "-" + PLAN_CACHE + "-" + name);
+    sensor.add(
+        metrics.metricName(
+            PLAN_CACHE + "-" + name + "-total",
+            ksqlServiceId + PULL_QUERY_METRIC_GROUP,
+            "Total number of pull query plan cache " + description,
+            customMetricsTags
+        ),
+        new CumulativeSum()
+    );
+    sensor.add(
+        metrics.metricName(
+            PLAN_CACHE + "-" + name + "-rate",
+            ksqlServiceId + PULL_QUERY_METRIC_GROUP,
+            "Rate of pull query plan cache " + description,
+            customMetricsTags
+        ),
+        new Rate()
+    );
+    sensors.add(sensor);
+    return sensor;
+  }
+
   private Sensor configureRequestSensor() {
     final Sensor sensor = metrics.sensor(
         PULL_QUERY_METRIC_GROUP + "-" + PULL_REQUESTS + "-latency");
@@ -15,10 +15,13 @@
 
 package io.confluent.ksql.rest.server.execution;
 
+import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.engine.KsqlEngine;
 import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
 import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
+import io.confluent.ksql.parser.tree.SetProperty;
 import io.confluent.ksql.parser.tree.Statement;
+import io.confluent.ksql.parser.tree.UnsetProperty;
 import io.confluent.ksql.rest.SessionProperties;
 import io.confluent.ksql.rest.entity.KsqlEntity;
 import io.confluent.ksql.rest.entity.KsqlEntityList;
@@ -26,10 +29,12 @@ import io.confluent.ksql.rest.server.computation.DistributingExecutor;
 import io.confluent.ksql.security.KsqlSecurityContext;
 import io.confluent.ksql.statement.ConfiguredStatement;
 import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.KsqlStatementException;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Handles prepared statements, resolving side-effects and delegates to any
@@ -37,6 +42,9 @@ import java.util.Optional;
  */
 public class RequestHandler {
 
+  private static final Set<Class<? extends Statement>> SESSION_STATEMENTS =
+      ImmutableSet.of(SetProperty.class, UnsetProperty.class);
+
   private final Map<Class<? extends Statement>, StatementExecutor<?>> customExecutors;
   private final KsqlEngine ksqlEngine;
   private final KsqlConfig ksqlConfig;
@@ -87,6 +95,51 @@ public class RequestHandler {
     return entities;
   }
 
+  /**
+   * Execute the statements as a single batch: every statement that is distributed through the
+   * command topic is enqueued in one transaction. See {@link DistributingExecutor#executeBatch}.
+   *
+   * <p>Besides distributed statements, a batch may only contain statements that change the
+   * request's session, i.e. {@code SET} and {@code UNSET}.
+   */
+  public KsqlEntityList executeBatch(
+      final KsqlSecurityContext securityContext,
+      final List<ParsedStatement> statements,
+      final SessionProperties sessionProperties
+  ) {
+    return new KsqlEntityList(distributor.executeBatch(
+        statements,
+        prepared -> configureForBatch(securityContext, prepared, sessionProperties),
+        ksqlEngine,
+        securityContext
+    ));
+  }
+
+  private Optional<ConfiguredStatement<?>> configureForBatch(
+      final KsqlSecurityContext securityContext,
+      final PreparedStatement<?> prepared,
+      final SessionProperties sessionProperties
+  ) {
+    final ConfiguredStatement<?> configured = ConfiguredStatement.of(
+        prepared, sessionProperties.getMutableScopedProperties(), ksqlConfig);
+
+    final Class<? extends Statement> statementClass = prepared.getStatement().getClass();
+    if (!customExecutors.containsKey(statementClass)) {
+      return Optional.of(configured);
+    }
+
+    if (!SESSION_STATEMENTS.contains(statementClass)) {
+      throw new KsqlStatementException(
+          "Only statements that are distributed through the command topic, SET and UNSET "
+              + "can be executed as a batch.",
+          prepared.getStatementText()
+      );
+    }
+
+    executeStatement(securityContext, configured, sessionProperties, new KsqlEntityList());
+    return Optional.empty();
+  }
+
   @SuppressWarnings("unchecked")
   private <T extends Statement> Optional<KsqlEntity> executeStatement(
       final KsqlSecurityContext securityContext,
@@ -262,16 +262,16 @@ public class KsqlResource implements KsqlConfigurable {
           request.getKsql()
       );
 
-      final KsqlEntityList entities = handler.execute(
-          securityContext,
-          statements,
-          new SessionProperties(
-              request.getConfigOverrides(),
-              localHost,
-              localUrl,
-              requestConfig.getBoolean(KsqlRequestConfig.KSQL_REQUEST_INTERNAL_REQUEST)
-          )
+      final SessionProperties sessionProperties = new SessionProperties(
+          request.getConfigOverrides(),
+          localHost,
+          localUrl,
+          requestConfig.getBoolean(KsqlRequestConfig.KSQL_REQUEST_INTERNAL_REQUEST)
       );
+      final KsqlEntityList entities =
+          requestConfig.getBoolean(KsqlRequestConfig.KSQL_REQUEST_STATEMENTS_BATCH)
+              ? handler.executeBatch(securityContext, statements, sessionProperties)
+              : handler.execute(securityContext, statements, sessionProperties);
       return Response.ok(entities).build();
     } catch (final KsqlRestException e) {
       throw e;
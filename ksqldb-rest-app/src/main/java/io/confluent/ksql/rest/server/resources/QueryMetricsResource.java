@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.resources;
+
+import static java.util.Objects.requireNonNull;
+
+import io.confluent.ksql.engine.KsqlEngine;
+import io.confluent.ksql.metrics.StepMetrics;
+import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.rest.Errors;
+import io.confluent.ksql.rest.entity.QueryMetricsResponse;
+import io.confluent.ksql.rest.entity.Versions;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+/**
+ * Endpoint that reports the metrics of each step of a persistent query.
+ * Steps are only measured if ksql.query.step.metrics.enabled was set when the query started.
+ */
+@Path("/queryMetrics")
+@Produces({Versions.KSQL_V1_JSON, MediaType.APPLICATION_JSON})
+public class QueryMetricsResource {
+
+  private final KsqlEngine engine;
+
+  public QueryMetricsResource(final KsqlEngine engine) {
+    this.engine = requireNonNull(engine, "engine");
+  }
+
+  @GET
+  @Path("/{queryId}")
+  public Response getQueryMetrics(@PathParam("queryId") final String queryId) {
+    final QueryId id = new QueryId(queryId);
+    if (!engine.getPersistentQuery(id).isPresent()) {
+      return Errors.notFound("Unknown query: " + queryId);
+    }
+
+    return Response.ok(new QueryMetricsResponse(
+        id.getId(),
+        StepMetrics.snapshot(id.getId())
+    )).build();
+  }
+}
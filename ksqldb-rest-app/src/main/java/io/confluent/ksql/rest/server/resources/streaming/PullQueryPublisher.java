@@ -94,6 +94,10 @@ class PullQueryPublisher implements Flow.Publisher<Collection<StreamedRow>> {
             .map(StreamedRow::row)
             .collect(Collectors.toList());
 
+        entity.getWarnings().stream()
+            .map(warning -> StreamedRow.finalMessage(warning.getMessage()))
+            .forEach(rows::add);
+
         subscriber.onNext(rows);
         subscriber.onComplete();
       } catch (final Exception e) {
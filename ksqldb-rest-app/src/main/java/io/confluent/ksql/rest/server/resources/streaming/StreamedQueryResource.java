@@ -280,6 +280,11 @@ public class StreamedQueryResource implements KsqlConfigurable {
 
     rows.add(0, header);
 
+    // Keys of a multi-key lookup that could not be served by any node:
+    entity.getWarnings().stream()
+        .map(warning -> StreamedRow.finalMessage(warning.getMessage()))
+        .forEach(rows::add);
+
     final String data = rows.stream()
         .map(this::writeValueAsString)
         .collect(Collectors.joining("," + System.lineSeparator(), "[", "]"));
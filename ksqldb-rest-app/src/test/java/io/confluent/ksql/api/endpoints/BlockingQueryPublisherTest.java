@@ -0,0 +1,186 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.api.endpoints;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.api.endpoints.BlockingQueryPublisher.OverflowPolicy;
+import io.confluent.ksql.api.server.PushQueryHandle;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+import java.util.OptionalInt;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BlockingQueryPublisherTest {
+
+  private static final int CAPACITY = BlockingQueryPublisher.BLOCKING_QUEUE_CAPACITY;
+
+  @Mock
+  private WorkerExecutor workerExecutor;
+  @Mock
+  private PushQueryHandle queryHandle;
+  @Mock
+  private PushQueryQueueMetrics metrics;
+
+  private Vertx vertx;
+  private OptionalInt limit = OptionalInt.empty();
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+  }
+
+  @After
+  public void tearDown() {
+    vertx.close();
+  }
+
+  @Test
+  public void shouldDropNewRowOnOfferWhenFullAndPausing() {
+    // Given:
+    final BlockingQueryPublisher publisher = givenFullPublisher(OverflowPolicy.PAUSE);
+
+    // When:
+    final boolean result = publisher.offer(row(-1));
+
+    // Then:
+    assertThat(result, is(false));
+    assertThat(publisher.queueSize(), is(CAPACITY));
+    verify(metrics).recordDroppedRow();
+  }
+
+  @Test
+  public void shouldDropOldestRowWhenFull() {
+    // Given:
+    final BlockingQueryPublisher publisher = givenFullPublisher(OverflowPolicy.DROP_OLDEST);
+
+    // When:
+    publisher.accept(row(-1));
+    final boolean result = publisher.offer(row(-2));
+
+    // Then:
+    assertThat(result, is(true));
+    assertThat(publisher.queueSize(), is(CAPACITY));
+    verify(metrics, times(2)).recordDroppedRow();
+    verify(metrics, never()).recordBlocked(anyLong());
+  }
+
+  @Test
+  public void shouldFailQueryWhenFullAndPolicyIsError() {
+    // Given:
+    final BlockingQueryPublisher publisher = givenFullPublisher(OverflowPolicy.ERROR);
+
+    // When:
+    final boolean result = publisher.offer(row(-1));
+
+    // Then:
+    assertThat(result, is(false));
+    verify(metrics).close();
+  }
+
+  @Test
+  public void shouldIgnoreRowsOnceFailed() {
+    // Given:
+    final BlockingQueryPublisher publisher = givenFullPublisher(OverflowPolicy.ERROR);
+    publisher.offer(row(-1));
+
+    // When:
+    final boolean result = publisher.offer(row(-2));
+
+    // Then:
+    assertThat(result, is(true));
+    assertThat(publisher.queueSize(), is(CAPACITY));
+  }
+
+  @Test
+  public void shouldTearDownOnceIfClosedAfterFailing() {
+    // Given:
+    final BlockingQueryPublisher publisher = givenFullPublisher(OverflowPolicy.ERROR);
+    publisher.offer(row(-1));
+
+    // When:
+    publisher.close();
+
+    // Then:
+    verify(metrics).close();
+    verify(workerExecutor).executeBlocking(any(), anyBoolean(), any());
+  }
+
+  @Test
+  public void shouldNotQueueRowsBeyondLimit() {
+    // Given:
+    limit = OptionalInt.of(2);
+    final BlockingQueryPublisher publisher = givenPublisher(OverflowPolicy.PAUSE);
+
+    // When:
+    publisher.accept(row(1));
+    publisher.accept(row(2));
+    publisher.accept(row(3));
+
+    // Then:
+    assertThat(publisher.queueSize(), is(2));
+  }
+
+  @Test
+  public void shouldIgnoreRowsOnceComplete() {
+    // Given:
+    final BlockingQueryPublisher publisher = givenPublisher(OverflowPolicy.PAUSE);
+    publisher.accept(row(1));
+
+    // When:
+    publisher.onComplete();
+    publisher.accept(row(2));
+
+    // Then:
+    assertThat(publisher.queueSize(), is(1));
+  }
+
+  private BlockingQueryPublisher givenPublisher(final OverflowPolicy policy) {
+    when(queryHandle.getLimit()).thenReturn(limit);
+    final BlockingQueryPublisher publisher = new BlockingQueryPublisher(
+        vertx.getOrCreateContext(), workerExecutor, policy);
+    publisher.setQueryHandle(queryHandle);
+    publisher.setMetrics(metrics);
+    return publisher;
+  }
+
+  private BlockingQueryPublisher givenFullPublisher(final OverflowPolicy policy) {
+    final BlockingQueryPublisher publisher = givenPublisher(policy);
+    for (int i = 0; i < CAPACITY; i++) {
+      publisher.accept(row(i));
+    }
+    return publisher;
+  }
+
+  private static GenericRow row(final int i) {
+    return GenericRow.genericRow(i);
+  }
+}
@@ -184,6 +184,10 @@ public class TemporaryEngine extends ExternalResource {
     return engine;
   }
 
+  public MutableMetaStore getMetaStore() {
+    return metaStore;
+  }
+
   public ServiceContext getServiceContext() {
     return serviceContext;
   }
@@ -32,15 +32,18 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.hamcrest.MockitoHamcrest.argThat;
 
+import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.engine.KsqlEngine;
 import io.confluent.ksql.metrics.MetricCollectors;
 import io.confluent.ksql.rest.server.state.ServerState;
 import io.confluent.ksql.rest.util.ClusterTerminator;
 import io.confluent.ksql.rest.util.TerminateCluster;
+import io.confluent.ksql.util.PersistentQueryMetadata;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicReference;
@@ -87,6 +90,10 @@ public class CommandRunnerTest {
   private QueuedCommand queuedCommand3;
   @Mock
   private ExecutorService executor;
+  @Mock
+  private PersistentQueryMetadata query1;
+  @Mock
+  private PersistentQueryMetadata query2;
   @Captor
   private ArgumentCaptor<Runnable> threadTaskCaptor;
   private CommandRunner commandRunner;
@@ -116,7 +123,10 @@ public class CommandRunnerTest {
         "ksql-service-id",
         Duration.ofMillis(COMMAND_RUNNER_HEALTH_TIMEOUT),
         "",
-        clock
+        clock,
+        Optional.empty(),
+        1,
+        2
     );
   }
 
@@ -135,6 +145,35 @@ public class CommandRunnerTest {
     inOrder.verify(statementExecutor).handleRestore(eq(queuedCommand3));
   }
 
+  @Test
+  public void shouldStartAllRestoredQueries() {
+    // Given:
+    givenQueuedCommands(queuedCommand1);
+    when(ksqlEngine.getPersistentQueries()).thenReturn(ImmutableList.of(query1, query2));
+
+    // When:
+    commandRunner.processPriorCommands();
+
+    // Then:
+    verify(query1).start();
+    verify(query2).start();
+  }
+
+  @Test
+  public void shouldThrowIfRestoredQueryFailsToStart() {
+    // Given:
+    givenQueuedCommands(queuedCommand1);
+    when(ksqlEngine.getPersistentQueries()).thenReturn(ImmutableList.of(query1, query2));
+    doThrow(new IllegalStateException("boom")).when(query2).start();
+
+    // Then:
+    expectedException.expect(IllegalStateException.class);
+    expectedException.expectMessage("boom");
+
+    // When:
+    commandRunner.processPriorCommands();
+  }
+
   @Test
   public void shouldRunThePriorCommandsWithTerminateCorrectly() {
     // Given:
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.computation;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.rest.entity.CommandId;
+import io.confluent.ksql.util.KsqlServerException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+public class CommandSnapshotStoreTest {
+
+  private static final String COMMAND_TOPIC = "_confluent-ksql-default__command_topic";
+  private static final String SNAPSHOT_FILE = COMMAND_TOPIC + ".snapshot.json";
+  private static final CommandId COMMAND_ID_1 =
+      new CommandId(CommandId.Type.STREAM, "foo", CommandId.Action.CREATE);
+  private static final CommandId COMMAND_ID_2 =
+      new CommandId(CommandId.Type.TABLE, "bar", CommandId.Action.CREATE);
+  private static final Command COMMAND = new Command(
+      "CREATE STREAM foo (id INT) WITH (kafka_topic='foo', value_format='JSON');",
+      ImmutableMap.of(),
+      ImmutableMap.of(),
+      Optional.empty()
+  );
+
+  @Rule
+  public final TemporaryFolder tmp = new TemporaryFolder();
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  private File snapshotDir;
+  private CommandSnapshotStore store;
+
+  @Before
+  public void setUp() throws IOException {
+    snapshotDir = tmp.newFolder();
+    store = CommandSnapshotStore.create(snapshotDir.getPath(), COMMAND_TOPIC);
+  }
+
+  @Test
+  public void shouldLoadNothingIfNoSnapshotSaved() {
+    assertThat(store.load(), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldLoadSavedSnapshot() {
+    // Given:
+    final CommandSnapshot snapshot = snapshot(CommandSnapshot.CURRENT_VERSION, 1, COMMAND_ID_1);
+
+    // When:
+    store.save(snapshot);
+
+    // Then:
+    assertThat(store.load(), is(Optional.of(snapshot)));
+  }
+
+  @Test
+  public void shouldReplaceSavedSnapshot() {
+    // Given:
+    store.save(snapshot(CommandSnapshot.CURRENT_VERSION, 1, COMMAND_ID_1));
+    final CommandSnapshot latest = snapshot(CommandSnapshot.CURRENT_VERSION, 2, COMMAND_ID_2);
+
+    // When:
+    store.save(latest);
+
+    // Then:
+    assertThat(store.load(), is(Optional.of(latest)));
+  }
+
+  @Test
+  public void shouldMoveSnapshotIntoPlaceOnceWritten() {
+    // When:
+    store.save(snapshot(CommandSnapshot.CURRENT_VERSION, 1, COMMAND_ID_1));
+
+    // Then:
+    assertThat(snapshotDir.list(), is(new String[]{SNAPSHOT_FILE}));
+  }
+
+  @Test
+  public void shouldIgnorePartialSnapshotLeftByFailedSave() throws IOException {
+    // Given:
+    final CommandSnapshot snapshot = snapshot(CommandSnapshot.CURRENT_VERSION, 1, COMMAND_ID_1);
+    store.save(snapshot);
+    givenFile(SNAPSHOT_FILE + ".tmp", "{\"version\": 1, \"offs");
+
+    // Then:
+    assertThat(store.load(), is(Optional.of(snapshot)));
+  }
+
+  @Test
+  public void shouldOverwritePartialSnapshotLeftByFailedSave() throws IOException {
+    // Given:
+    givenFile(SNAPSHOT_FILE + ".tmp", "{\"version\": 1, \"offs");
+    final CommandSnapshot snapshot = snapshot(CommandSnapshot.CURRENT_VERSION, 1, COMMAND_ID_1);
+
+    // When:
+    store.save(snapshot);
+
+    // Then:
+    assertThat(store.load(), is(Optional.of(snapshot)));
+    assertThat(snapshotDir.list(), is(new String[]{SNAPSHOT_FILE}));
+  }
+
+  @Test
+  public void shouldLoadNothingIfSnapshotIsCorrupt() throws IOException {
+    // Given:
+    givenFile(SNAPSHOT_FILE, "{\"version\": 1, \"offs");
+
+    // Then:
+    assertThat(store.load(), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldLoadNothingIfSnapshotVersionIsUnsupported() {
+    // Given:
+    store.save(snapshot(CommandSnapshot.CURRENT_VERSION + 1, 1, COMMAND_ID_1));
+
+    // Then:
+    assertThat(store.load(), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldCreateSnapshotDirectoryOnSave() {
+    // Given:
+    final File dir = new File(snapshotDir, "nested");
+    store = CommandSnapshotStore.create(dir.getPath(), COMMAND_TOPIC);
+
+    // When:
+    store.save(snapshot(CommandSnapshot.CURRENT_VERSION, 1, COMMAND_ID_1));
+
+    // Then:
+    assertThat(dir.list(), is(new String[]{SNAPSHOT_FILE}));
+  }
+
+  @Test
+  public void shouldThrowIfSnapshotCannotBeWritten() throws IOException {
+    // Given:
+    final File notADir = tmp.newFile();
+    store = CommandSnapshotStore.create(notADir.getPath(), COMMAND_TOPIC);
+
+    // Then:
+    expectedException.expect(KsqlServerException.class);
+    expectedException.expectMessage("Failed to write command snapshot");
+
+    // When:
+    store.save(snapshot(CommandSnapshot.CURRENT_VERSION, 1, COMMAND_ID_1));
+  }
+
+  @Test
+  public void shouldKeepSnapshotsOfCommandTopicsApart() {
+    // Given:
+    final CommandSnapshotStore other =
+        CommandSnapshotStore.create(snapshotDir.getPath(), "other_command_topic");
+
+    // When:
+    store.save(snapshot(CommandSnapshot.CURRENT_VERSION, 1, COMMAND_ID_1));
+    other.save(snapshot(CommandSnapshot.CURRENT_VERSION, 2, COMMAND_ID_2));
+
+    // Then:
+    assertThat(snapshotDir.list(), containsInAnyOrder(
+        SNAPSHOT_FILE, "other_command_topic.snapshot.json"));
+    assertThat(store.load().map(CommandSnapshot::getOffset), is(Optional.of(1L)));
+  }
+
+  private void givenFile(final String name, final String content) throws IOException {
+    final Path file = snapshotDir.toPath().resolve(name);
+    Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static CommandSnapshot snapshot(
+      final int version,
+      final long offset,
+      final CommandId commandId
+  ) {
+    return new CommandSnapshot(
+        version,
+        offset,
+        commandId,
+        offset + 1,
+        ImmutableList.of(new CommandSnapshot.Entry(commandId, offset, COMMAND))
+    );
+  }
+}
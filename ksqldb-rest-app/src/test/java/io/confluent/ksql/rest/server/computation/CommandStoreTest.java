@@ -26,10 +26,12 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.parser.tree.Statement;
 import io.confluent.ksql.rest.entity.CommandId;
@@ -38,6 +40,7 @@ import io.confluent.ksql.rest.server.CommandTopic;
 import io.confluent.ksql.statement.ConfiguredStatement;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.Pair;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -252,6 +255,56 @@ public class CommandStoreTest {
     assertThat(commandStatus.getCommandSequenceNumber(), equalTo(recordMetadata.offset()));
   }
 
+  @Test
+  public void shouldEnqueueEachCommandInBatch() {
+    // Given:
+    final CommandId otherId =
+        new CommandId(CommandId.Type.STREAM, "bar", CommandId.Action.CREATE);
+
+    // When:
+    final List<QueuedCommandStatus> statuses = commandStore.enqueueCommands(
+        ImmutableList.of(Pair.of(commandId, command), Pair.of(otherId, command)),
+        transactionalProducer
+    );
+
+    // Then:
+    final InOrder inOrder = inOrder(transactionalProducer);
+    inOrder.verify(transactionalProducer).send(new ProducerRecord<>(
+        COMMAND_TOPIC_NAME, COMMAND_TOPIC_PARTITION.partition(), commandId, command));
+    inOrder.verify(transactionalProducer).send(new ProducerRecord<>(
+        COMMAND_TOPIC_NAME, COMMAND_TOPIC_PARTITION.partition(), otherId, command));
+    assertThat(statuses, hasSize(2));
+  }
+
+  @Test
+  public void shouldCleanupEveryCommandInBatchOnSendError() {
+    // Given:
+    final CommandId otherId =
+        new CommandId(CommandId.Type.STREAM, "bar", CommandId.Action.CREATE);
+    when(transactionalProducer.send(any(ProducerRecord.class)))
+        .thenReturn(testFuture)
+        .thenThrow(new RuntimeException("oops"));
+
+    try {
+      commandStore.enqueueCommands(
+          ImmutableList.of(Pair.of(commandId, command), Pair.of(otherId, command)),
+          transactionalProducer
+      );
+    } catch (final KsqlException e) {
+      // expected
+    }
+    doReturn(testFuture).when(transactionalProducer).send(any(ProducerRecord.class));
+
+    // When:
+    commandStore.enqueueCommands(
+        ImmutableList.of(Pair.of(commandId, command), Pair.of(otherId, command)),
+        transactionalProducer
+    );
+
+    // Then:
+    // no exception thrown
+  }
+
   @Test
   public void shouldWaitOnSequenceNumberFuture() throws Exception {
     // When:
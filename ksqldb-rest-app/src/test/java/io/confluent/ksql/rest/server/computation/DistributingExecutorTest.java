@@ -15,6 +15,8 @@
 package io.confluent.ksql.rest.server.computation;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
@@ -24,10 +26,12 @@ import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.KsqlExecutionContext;
 import io.confluent.ksql.exception.KsqlTopicAuthorizationException;
@@ -35,7 +39,9 @@ import io.confluent.ksql.execution.expression.tree.StringLiteral;
 import io.confluent.ksql.metastore.MetaStore;
 import io.confluent.ksql.metastore.model.DataSource;
 import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
 import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
+import io.confluent.ksql.parser.SqlBaseParser.SingleStatementContext;
 import io.confluent.ksql.parser.properties.with.CreateSourceProperties;
 import io.confluent.ksql.parser.tree.CreateStream;
 import io.confluent.ksql.parser.tree.InsertInto;
@@ -51,6 +57,7 @@ import io.confluent.ksql.rest.entity.CommandId.Type;
 import io.confluent.ksql.rest.entity.CommandStatus;
 import io.confluent.ksql.rest.entity.CommandStatus.Status;
 import io.confluent.ksql.rest.entity.CommandStatusEntity;
+import io.confluent.ksql.rest.entity.KsqlEntity;
 import io.confluent.ksql.security.KsqlAuthorizationValidator;
 import io.confluent.ksql.security.KsqlSecurityContext;
 import io.confluent.ksql.services.SandboxedServiceContext;
@@ -62,8 +69,11 @@ import io.confluent.ksql.statement.InjectorChain;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.KsqlServerException;
+import io.confluent.ksql.util.KsqlStatementException;
+import io.confluent.ksql.util.Pair;
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicLong;
 import org.apache.kafka.clients.producer.Producer;
@@ -362,4 +372,177 @@ public class DistributingExecutorTest {
     // When:
     distributor.execute(configured, executionContext, mock(KsqlSecurityContext.class));
   }
+
+  @Test
+  public void shouldEnqueueBatchInSingleTransaction() throws Exception {
+    // Given:
+    final ConfiguredStatement<Statement> other = givenCreateStream("OTHER");
+    final List<ParsedStatement> parsed = givenPrepared(CONFIGURED_STATEMENT, other);
+    when(queue.enqueueCommands(any(), any())).thenReturn(ImmutableList.of(
+        givenQueued(CS_COMMAND, 1L),
+        givenQueued(CS_COMMAND, 2L)
+    ));
+
+    // When:
+    distributor.executeBatch(
+        parsed,
+        prepared -> Optional.of(prepared.getStatement() == STATEMENT
+            ? CONFIGURED_STATEMENT
+            : other),
+        executionContext,
+        securityContext
+    );
+
+    // Then:
+    final InOrder inOrder = Mockito.inOrder(transactionalProducer, queue, validatedCommandFactory);
+    inOrder.verify(transactionalProducer).initTransactions();
+    inOrder.verify(transactionalProducer).beginTransaction();
+    inOrder.verify(queue).waitForCommandConsumer();
+    inOrder.verify(validatedCommandFactory).create(CONFIGURED_STATEMENT, sandboxContext);
+    inOrder.verify(validatedCommandFactory).create(other, sandboxContext);
+    inOrder.verify(queue).enqueueCommands(
+        ImmutableList.of(
+            Pair.of(IDGEN.getCommandId(STATEMENT), command),
+            Pair.of(IDGEN.getCommandId(other.getStatement()), command)
+        ),
+        transactionalProducer
+    );
+    inOrder.verify(transactionalProducer).commitTransaction();
+    inOrder.verify(transactionalProducer).close();
+    inOrder.verify(queue).ensureConsumedPast(2L, DURATION_10_MS);
+    verify(executionContext, times(1)).createSandbox(any());
+  }
+
+  @Test
+  public void shouldReturnStatusOfEachStatementInBatch() {
+    // Given:
+    final ConfiguredStatement<Statement> other = givenCreateStream("OTHER");
+    final List<ParsedStatement> parsed = givenPrepared(CONFIGURED_STATEMENT, other);
+    final CommandId otherId = IDGEN.getCommandId(other.getStatement());
+    when(queue.enqueueCommands(any(), any())).thenReturn(ImmutableList.of(
+        givenQueued(CS_COMMAND, 1L),
+        givenQueued(otherId, 2L)
+    ));
+
+    // When:
+    final List<KsqlEntity> entities = distributor.executeBatch(
+        parsed,
+        prepared -> Optional.of(prepared.getStatement() == STATEMENT
+            ? CONFIGURED_STATEMENT
+            : other),
+        executionContext,
+        securityContext
+    );
+
+    // Then:
+    assertThat(entities, contains(
+        new CommandStatusEntity("statement", CS_COMMAND, SUCCESS_STATUS, 1L),
+        new CommandStatusEntity("OTHER", otherId, SUCCESS_STATUS, 2L)
+    ));
+  }
+
+  @Test
+  public void shouldNotDistributeStatementsTheConfigurerHandled() {
+    // Given:
+    final List<ParsedStatement> parsed = givenPrepared(CONFIGURED_STATEMENT);
+    when(queue.enqueueCommands(any(), any())).thenReturn(ImmutableList.of());
+
+    // When:
+    final List<KsqlEntity> entities = distributor.executeBatch(
+        parsed,
+        prepared -> Optional.empty(),
+        executionContext,
+        securityContext
+    );
+
+    // Then:
+    assertThat(entities, is(empty()));
+    verify(queue).enqueueCommands(ImmutableList.of(), transactionalProducer);
+    verify(validatedCommandFactory, never()).create(any(), any());
+  }
+
+  @Test
+  public void shouldAbortBatchIfAnyStatementFailsValidation() {
+    // Given:
+    final ConfiguredStatement<Statement> other = givenCreateStream("OTHER");
+    final List<ParsedStatement> parsed = givenPrepared(CONFIGURED_STATEMENT, other);
+    final KsqlStatementException cause = new KsqlStatementException("fail", "OTHER");
+    when(validatedCommandFactory.create(eq(other), any())).thenThrow(cause);
+
+    // Expect:
+    expectedException.expect(is(cause));
+
+    // When:
+    try {
+      distributor.executeBatch(
+          parsed,
+          prepared -> Optional.of(prepared.getStatement() == STATEMENT
+              ? CONFIGURED_STATEMENT
+              : other),
+          executionContext,
+          securityContext
+      );
+    } finally {
+      verify(transactionalProducer).abortTransaction();
+      verify(queue, never()).enqueueCommands(any(), any());
+    }
+  }
+
+  @Test
+  public void shouldRejectBatchWithDuplicateCommandIds() {
+    // Given:
+    final List<ParsedStatement> parsed = givenPrepared(CONFIGURED_STATEMENT, CONFIGURED_STATEMENT);
+
+    // Expect:
+    expectedException.expect(KsqlStatementException.class);
+    expectedException.expectMessage(
+        "A batch can not contain more than one statement with the command id " + CS_COMMAND);
+
+    // When:
+    distributor.executeBatch(
+        parsed,
+        prepared -> Optional.of(CONFIGURED_STATEMENT),
+        executionContext,
+        securityContext
+    );
+  }
+
+  private static ConfiguredStatement<Statement> givenCreateStream(final String name) {
+    final Statement statement = new CreateStream(
+        SourceName.of(name),
+        TableElements.of(),
+        false,
+        CreateSourceProperties.from(ImmutableMap.of(
+            CommonCreateConfigs.KAFKA_TOPIC_NAME_PROPERTY, new StringLiteral("topic"),
+            CommonCreateConfigs.VALUE_FORMAT_PROPERTY, new StringLiteral("json")
+        ))
+    );
+    return ConfiguredStatement.of(
+        PreparedStatement.of(name, statement),
+        ImmutableMap.of(),
+        KSQL_CONFIG
+    );
+  }
+
+  private static QueuedCommandStatus givenQueued(final CommandId commandId, final long seqNum) {
+    final QueuedCommandStatus queued = mock(QueuedCommandStatus.class);
+    when(queued.getCommandId()).thenReturn(commandId);
+    when(queued.getStatus()).thenReturn(SUCCESS_STATUS);
+    when(queued.getCommandSequenceNumber()).thenReturn(seqNum);
+    return queued;
+  }
+
+  private List<ParsedStatement> givenPrepared(final ConfiguredStatement<?>... statements) {
+    final ImmutableList.Builder<ParsedStatement> parsed = ImmutableList.builder();
+    for (final ConfiguredStatement<?> statement : statements) {
+      final ParsedStatement parsedStatement = ParsedStatement.of(
+          statement.getStatementText(),
+          mock(SingleStatementContext.class)
+      );
+      doReturn(PreparedStatement.of(statement.getStatementText(), statement.getStatement()))
+          .when(sandboxContext).prepare(parsedStatement);
+      parsed.add(parsedStatement);
+    }
+    return parsed.build();
+  }
 }
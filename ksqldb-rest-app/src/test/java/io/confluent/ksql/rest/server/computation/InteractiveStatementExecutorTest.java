@@ -38,6 +38,7 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.confluent.ksql.KsqlConfigTestUtil;
 import io.confluent.ksql.KsqlExecutionContext.ExecuteResult;
 import io.confluent.ksql.engine.KsqlEngine;
+import io.confluent.ksql.engine.KsqlEngine.PlanResult;
 import io.confluent.ksql.engine.KsqlEngineTestUtil;
 import io.confluent.ksql.engine.KsqlPlan;
 import io.confluent.ksql.function.InternalFunctionRegistry;
@@ -67,6 +68,7 @@ import io.confluent.ksql.services.TestServiceContext;
 import io.confluent.ksql.statement.ConfiguredStatement;
 import io.confluent.ksql.test.util.EmbeddedSingleNodeKafkaCluster;
 import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.KsqlStatementException;
 import io.confluent.ksql.util.Pair;
 import io.confluent.ksql.util.PersistentQueryMetadata;
@@ -602,6 +604,36 @@ public class InteractiveStatementExecutorTest {
     verify(mockQueryIdGenerator).setNextId(3L);
   }
 
+  @Test
+  public void shouldOnlySetFailedCommandsToErrorWhenRestoringAll() {
+    // Given:
+    final CommandId failedId = new CommandId(Type.STREAM, "bar", Action.CREATE);
+    when(mockQueryMetadata.getQueryId()).thenReturn(QUERY_ID);
+    when(mockEngine.executeAll(eq(serviceContext), any(), any())).thenReturn(ImmutableList.of(
+        PlanResult.success(ExecuteResult.of(mockQueryMetadata)),
+        PlanResult.failure(new KsqlException("missing UDF"))
+    ));
+
+    // When:
+    statementExecutorWithMocks.handleRestoreAll(
+        ImmutableList.of(
+            new QueuedCommand(COMMAND_ID, plannedCommand, Optional.empty(), 2L),
+            new QueuedCommand(failedId, plannedCommand, Optional.empty(), 3L)
+        ),
+        Runnable::run
+    );
+
+    // Then:
+    verify(mockQueryIdGenerator).setNextId(3L);
+    verify(mockQueryIdGenerator, times(0)).setNextId(4L);
+    assertThat(statementExecutorWithMocks.getStatus(COMMAND_ID).get().getStatus(),
+        is(Status.SUCCESS));
+    assertThat(statementExecutorWithMocks.getStatus(failedId).get().getStatus(),
+        is(Status.ERROR));
+    assertThat(statementExecutorWithMocks.getStatus(failedId).get().getMessage(),
+        containsString("missing UDF"));
+  }
+
   @Test
   public void shouldSkipStartWhenReplayingLog() {
     // Given:
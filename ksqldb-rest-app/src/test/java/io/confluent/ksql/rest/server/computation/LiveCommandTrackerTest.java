@@ -0,0 +1,281 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.computation;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.confluent.ksql.engine.KsqlPlan;
+import io.confluent.ksql.engine.QueryPlan;
+import io.confluent.ksql.execution.ddl.commands.CreateStreamCommand;
+import io.confluent.ksql.execution.ddl.commands.DdlCommand;
+import io.confluent.ksql.execution.ddl.commands.DropSourceCommand;
+import io.confluent.ksql.execution.ddl.commands.DropTypeCommand;
+import io.confluent.ksql.execution.ddl.commands.RegisterTypeCommand;
+import io.confluent.ksql.execution.plan.ExecutionStep;
+import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.rest.entity.CommandId;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class LiveCommandTrackerTest {
+
+  private static final SourceName FOO = SourceName.of("FOO");
+  private static final SourceName BAR = SourceName.of("BAR");
+  private static final QueryId QUERY_ID = new QueryId("CSAS_BAR_1");
+  private static final CommandId COMMAND_ID =
+      new CommandId(CommandId.Type.STREAM, "foo", CommandId.Action.CREATE);
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  private LiveCommandTracker tracker;
+
+  @Before
+  public void setUp() {
+    tracker = new LiveCommandTracker();
+  }
+
+  @Test
+  public void shouldKeepCommandsThatCreateSourcesAndTypesInOrder() {
+    // When:
+    tracker.onExecuted(COMMAND_ID, 0, ddl(createStream(FOO)));
+    tracker.onExecuted(COMMAND_ID, 1, ddl(registerType("ADDRESS")));
+    tracker.onExecuted(COMMAND_ID, 2, ddl(createStream(BAR)));
+
+    // Then:
+    assertThat(liveOffsets(), contains(0L, 1L, 2L));
+  }
+
+  @Test
+  public void shouldReleaseCommandThatCreatedDroppedSource() {
+    // Given:
+    tracker.onExecuted(COMMAND_ID, 0, ddl(createStream(FOO)));
+    tracker.onExecuted(COMMAND_ID, 1, ddl(createStream(BAR)));
+
+    // When:
+    tracker.onExecuted(COMMAND_ID, 2, ddl(new DropSourceCommand(FOO)));
+
+    // Then:
+    assertThat(liveOffsets(), contains(1L));
+  }
+
+  @Test
+  public void shouldReleaseCommandThatCreatedDroppedType() {
+    // Given:
+    tracker.onExecuted(COMMAND_ID, 0, ddl(registerType("ADDRESS")));
+
+    // When:
+    tracker.onExecuted(COMMAND_ID, 1, ddl(new DropTypeCommand("ADDRESS")));
+
+    // Then:
+    assertThat(liveOffsets(), is(empty()));
+  }
+
+  @Test
+  public void shouldReleaseCommandThatCreatedReplacedSource() {
+    // Given:
+    tracker.onExecuted(COMMAND_ID, 0, ddl(createStream(FOO)));
+    tracker.onExecuted(COMMAND_ID, 1, ddl(createStream(BAR)));
+
+    // When:
+    tracker.onExecuted(COMMAND_ID, 2, ddl(createStream(FOO)));
+
+    // Then:
+    assertThat(liveOffsets(), contains(1L, 2L));
+  }
+
+  @Test
+  public void shouldIgnoreDropOfUnknownSource() {
+    // Given:
+    tracker.onExecuted(COMMAND_ID, 0, ddl(createStream(FOO)));
+
+    // When:
+    tracker.onExecuted(COMMAND_ID, 1, ddl(new DropSourceCommand(BAR)));
+
+    // Then:
+    assertThat(liveOffsets(), contains(0L));
+  }
+
+  @Test
+  public void shouldKeepCommandThatCreatedSourceAndQuery() {
+    // When:
+    tracker.onExecuted(COMMAND_ID, 0, ddl(createStream(FOO)));
+    tracker.onExecuted(COMMAND_ID, 1, query(Optional.of(createStream(BAR)), QUERY_ID));
+
+    // Then:
+    assertThat(liveOffsets(), contains(0L, 1L));
+    assertThat(livePlans().get(1).getDdlCommand().isPresent(), is(true));
+    assertThat(livePlans().get(1).getQueryPlan().isPresent(), is(true));
+  }
+
+  @Test
+  public void shouldTrimQueryFromCommandOnTerminate() {
+    // Given:
+    final DdlCommand createBar = createStream(BAR);
+    tracker.onExecuted(COMMAND_ID, 0, query(Optional.of(createBar), QUERY_ID));
+
+    // When:
+    tracker.onTerminated(Optional.of(QUERY_ID));
+
+    // Then:
+    assertThat(liveOffsets(), contains(0L));
+    assertThat(livePlans().get(0).getDdlCommand(), is(Optional.of(createBar)));
+    assertThat(livePlans().get(0).getQueryPlan(), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldTrimSourceFromCommandOnDrop() {
+    // Given:
+    tracker.onExecuted(COMMAND_ID, 0, query(Optional.of(createStream(BAR)), QUERY_ID));
+
+    // When:
+    tracker.onExecuted(COMMAND_ID, 1, ddl(new DropSourceCommand(BAR)));
+
+    // Then:
+    assertThat(liveOffsets(), contains(0L));
+    assertThat(livePlans().get(0).getDdlCommand(), is(Optional.empty()));
+    assertThat(livePlans().get(0).getQueryPlan().map(QueryPlan::getQueryId),
+        is(Optional.of(QUERY_ID)));
+  }
+
+  @Test
+  public void shouldReleaseCommandOnceSourceDroppedAndQueryTerminated() {
+    // Given:
+    tracker.onExecuted(COMMAND_ID, 0, query(Optional.of(createStream(BAR)), QUERY_ID));
+
+    // When:
+    tracker.onTerminated(Optional.of(QUERY_ID));
+    tracker.onExecuted(COMMAND_ID, 1, ddl(new DropSourceCommand(BAR)));
+
+    // Then:
+    assertThat(liveOffsets(), is(empty()));
+  }
+
+  @Test
+  public void shouldReleaseInsertIntoOnTerminate() {
+    // Given:
+    tracker.onExecuted(COMMAND_ID, 0, ddl(createStream(BAR)));
+    tracker.onExecuted(COMMAND_ID, 1, query(Optional.empty(), QUERY_ID));
+
+    // When:
+    tracker.onTerminated(Optional.of(QUERY_ID));
+
+    // Then:
+    assertThat(liveOffsets(), contains(0L));
+  }
+
+  @Test
+  public void shouldTerminateAllQueries() {
+    // Given:
+    final QueryId other = new QueryId("INSERTQUERY_2");
+    tracker.onExecuted(COMMAND_ID, 0, ddl(createStream(FOO)));
+    tracker.onExecuted(COMMAND_ID, 1, query(Optional.empty(), QUERY_ID));
+    tracker.onExecuted(COMMAND_ID, 2, query(Optional.empty(), other));
+
+    // When:
+    tracker.onTerminated(Optional.empty());
+
+    // Then:
+    assertThat(liveOffsets(), contains(0L));
+  }
+
+  @Test
+  public void shouldIgnoreTerminateOfUnknownQuery() {
+    // Given:
+    tracker.onExecuted(COMMAND_ID, 0, query(Optional.empty(), QUERY_ID));
+
+    // When:
+    tracker.onTerminated(Optional.of(new QueryId("CSAS_OTHER_7")));
+
+    // Then:
+    assertThat(liveOffsets(), contains(0L));
+  }
+
+  @Test
+  public void shouldSnapshotNextQueryIdAfterLastQuery() {
+    // Given:
+    tracker.onExecuted(COMMAND_ID, 4, query(Optional.empty(), QUERY_ID));
+    tracker.onExecuted(COMMAND_ID, 5, ddl(createStream(FOO)));
+
+    // When:
+    final CommandSnapshot snapshot = tracker.snapshot(5, COMMAND_ID);
+
+    // Then:
+    assertThat(snapshot.getNextQueryId(), is(5L));
+    assertThat(snapshot.getOffset(), is(5L));
+    assertThat(snapshot.getCommandId(), is(COMMAND_ID));
+  }
+
+  @Test
+  public void shouldThrowOnCommandWithoutPlan() {
+    // Then:
+    expectedException.expect(IllegalArgumentException.class);
+    expectedException.expectMessage("command must have a plan");
+
+    // When:
+    tracker.onExecuted(COMMAND_ID, 0, command(Optional.empty()));
+  }
+
+  private List<Long> liveOffsets() {
+    return tracker.snapshot(0, COMMAND_ID).getCommands().stream()
+        .map(CommandSnapshot.Entry::getOffset)
+        .collect(Collectors.toList());
+  }
+
+  private List<KsqlPlan> livePlans() {
+    return tracker.snapshot(0, COMMAND_ID).getCommands().stream()
+        .map(entry -> entry.getCommand().getPlan().get())
+        .collect(Collectors.toList());
+  }
+
+  private static DdlCommand createStream(final SourceName name) {
+    final CreateStreamCommand command = mock(CreateStreamCommand.class);
+    when(command.getSourceName()).thenReturn(name);
+    return command;
+  }
+
+  private static DdlCommand registerType(final String name) {
+    return new RegisterTypeCommand(SqlTypes.STRING, name);
+  }
+
+  private static Command ddl(final DdlCommand ddl) {
+    return command(Optional.of(KsqlPlan.ddlPlanCurrent("ddl", ddl)));
+  }
+
+  private static Command query(final Optional<DdlCommand> ddl, final QueryId queryId) {
+    final QueryPlan queryPlan =
+        new QueryPlan(ImmutableSet.of(FOO), BAR, mock(ExecutionStep.class), queryId);
+    return command(Optional.of(KsqlPlan.queryPlanCurrent("query", ddl, queryPlan)));
+  }
+
+  private static Command command(final Optional<KsqlPlan> plan) {
+    return new Command("statement", ImmutableMap.of(), ImmutableMap.of(), plan);
+  }
+}
@@ -19,6 +19,7 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.mockito.Mockito.mock;
 
@@ -54,6 +55,8 @@ import io.confluent.ksql.services.FakeKafkaTopicClient;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.services.TestServiceContext;
 import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.KsqlRequestConfig;
+import io.confluent.ksql.util.Pair;
 import io.confluent.ksql.util.PersistentQueryMetadata;
 import java.time.Duration;
 import java.util.Arrays;
@@ -74,11 +77,16 @@ import org.hamcrest.Matcher;
 import org.hamcrest.TypeSafeDiagnosingMatcher;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.Mock;
 
 public class RecoveryTest {
 
+  @Rule
+  public final TemporaryFolder tmp = new TemporaryFolder();
+
   private final KsqlConfig ksqlConfig = KsqlConfigTestUtil.create(
       "0.0.0.0",
       ImmutableMap.of(StreamsConfig.APPLICATION_SERVER_CONFIG, "http://localhost:23")
@@ -146,6 +154,16 @@ public class RecoveryTest {
       return new QueuedCommandStatus(commandSequenceNumber, new CommandStatusFuture(commandId));
     }
 
+    @Override
+    public List<QueuedCommandStatus> enqueueCommands(
+        final List<Pair<CommandId, Command>> commands,
+        final Producer<CommandId, Command> transactionalProducer
+    ) {
+      return commands.stream()
+          .map(c -> enqueueCommand(c.getLeft(), c.getRight(), transactionalProducer))
+          .collect(Collectors.toList());
+    }
+
     @Override
     public List<QueuedCommand> getNewCommands(final Duration timeout) {
       final List<QueuedCommand> commands = commandLog.subList(offset, commandLog.size());
@@ -196,6 +214,14 @@ public class RecoveryTest {
     final ServerState serverState;
 
     KsqlServer(final List<QueuedCommand> commandLog) {
+      this(commandLog, Optional.empty(), 1);
+    }
+
+    KsqlServer(
+        final List<QueuedCommand> commandLog,
+        final Optional<CommandSnapshotStore> snapshotStore,
+        final int snapshotInterval
+    ) {
       final SpecificQueryIdGenerator queryIdGenerator = new SpecificQueryIdGenerator();
       this.ksqlEngine = createKsqlEngine(queryIdGenerator);
       this.fakeCommandQueue = new FakeCommandQueue(commandLog, transactionalProducer);
@@ -217,7 +243,10 @@ public class RecoveryTest {
           serverState,
           "ksql-service-id",
           Duration.ofMillis(2000),
-          ""
+          "",
+          snapshotStore,
+          snapshotInterval,
+          2
       );
 
       this.ksqlResource = new KsqlResource(
@@ -250,6 +279,18 @@ public class RecoveryTest {
       }
     }
 
+    void submitBatch(final String statements) {
+      final Response response = ksqlResource.handleKsqlStatements(securityContext,
+          new KsqlRequest(
+              statements,
+              Collections.emptyMap(),
+              ImmutableMap.of(KsqlRequestConfig.KSQL_REQUEST_STATEMENTS_BATCH, true),
+              null
+          ));
+      assertThat(response.getStatus(), equalTo(200));
+      executeCommands();
+    }
+
     void close() {
       ksqlEngine.close();
     }
@@ -528,13 +569,20 @@ public class RecoveryTest {
   }
 
   private void shouldRecover(final List<QueuedCommand> commands) {
+    shouldRecover(commands, Optional.empty());
+  }
+
+  private void shouldRecover(
+      final List<QueuedCommand> commands,
+      final Optional<CommandSnapshotStore> snapshotStore
+  ) {
     // Given:
     final KsqlServer executeServer = new KsqlServer(commands);
     executeServer.executeCommands();
     final KsqlEngine engine = executeServer.ksqlEngine;
 
     // When:
-    final KsqlServer recoverServer = new KsqlServer(commands);
+    final KsqlServer recoverServer = new KsqlServer(commands, snapshotStore, 1);
     recoverServer.recover();
     final KsqlEngine recovered = recoverServer.ksqlEngine;
 
@@ -679,4 +727,82 @@ public class RecoveryTest {
     assertThat(queryIdNames, contains(new QueryId("CSAS_C_0")));
   }
 
+  @Test
+  public void shouldRecoverBatch() {
+    // When:
+    server1.submitBatch(
+        "CREATE STREAM A (COLUMN STRING) WITH (KAFKA_TOPIC='A', VALUE_FORMAT='JSON');"
+            + "CREATE STREAM B AS SELECT * FROM A;"
+            + "CREATE STREAM C AS SELECT * FROM B;"
+    );
+
+    // Then:
+    assertThat(commands.size(), is(3));
+    assertThat(server1.ksqlEngine.getPersistentQueries().size(), is(2));
+    shouldRecover(commands);
+  }
+
+  @Test
+  public void shouldRecoverFromSnapshot() {
+    // Given:
+    final CommandSnapshotStore snapshotStore = givenSnapshotStore();
+    final KsqlServer server = new KsqlServer(commands, Optional.of(snapshotStore), 4);
+    server.submitCommands(
+        "CREATE STREAM A (C1 STRING, C2 INT) WITH (KAFKA_TOPIC='A', VALUE_FORMAT='JSON');",
+        "CREATE STREAM B AS SELECT C1 FROM A;",
+        "TERMINATE CSAS_B_0;",
+        "DROP STREAM B;",
+        "CREATE STREAM B AS SELECT C2 FROM A;",
+        "CREATE STREAM C AS SELECT C1 FROM A;"
+    );
+    final CommandSnapshot snapshot = snapshotStore.load().get();
+    assertThat(snapshot.getOffset(), is(3L));
+    assertThat(snapshot.getCommands().size(), is(1));
+
+    // When/Then:
+    shouldRecover(commands, Optional.of(snapshotStore));
+  }
+
+  @Test
+  public void shouldRecoverQueryIdsFromSnapshot() {
+    // Given:
+    final CommandSnapshotStore snapshotStore = givenSnapshotStore();
+    final KsqlServer server = new KsqlServer(commands, Optional.of(snapshotStore), 3);
+    server.submitCommands(
+        "CREATE STREAM A (C1 STRING, C2 INT) WITH (KAFKA_TOPIC='A', VALUE_FORMAT='JSON');",
+        "CREATE STREAM B AS SELECT C1 FROM A;",
+        "TERMINATE CSAS_B_0;"
+    );
+
+    // When:
+    final KsqlServer recoverServer = new KsqlServer(commands, Optional.of(snapshotStore), 3);
+    recoverServer.recover();
+    recoverServer.submitCommands("CREATE STREAM C AS SELECT C1 FROM A;");
+
+    // Then:
+    assertThat(
+        queriesById(recoverServer.ksqlEngine.getPersistentQueries()).keySet(),
+        contains(new QueryId("CSAS_C_2"))
+    );
+  }
+
+  @Test
+  public void shouldIgnoreSnapshotThatDoesNotMatchCommandTopic() {
+    // Given:
+    final CommandSnapshotStore snapshotStore = givenSnapshotStore();
+    final KsqlServer server = new KsqlServer(commands, Optional.of(snapshotStore), 2);
+    server.submitCommands(
+        "CREATE STREAM A (C1 STRING, C2 INT) WITH (KAFKA_TOPIC='A', VALUE_FORMAT='JSON');",
+        "CREATE STREAM B AS SELECT C1 FROM A;"
+    );
+    commands.remove(1);
+
+    // When/Then:
+    shouldRecover(commands, Optional.of(snapshotStore));
+  }
+
+  private CommandSnapshotStore givenSnapshotStore() {
+    return CommandSnapshotStore.create(tmp.getRoot().getPath(), "command_topic");
+  }
+
 }
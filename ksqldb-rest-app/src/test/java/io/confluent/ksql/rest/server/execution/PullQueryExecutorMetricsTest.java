@@ -142,13 +142,48 @@ public class PullQueryExecutorMetricsTest {
     assertThat(total, is(1.0));
   }
 
+  @Test
+  public void shouldRecordPlanCacheHitsAndMisses() {
+    // Given:
+    pullMetrics.recordPlanCacheHit();
+    pullMetrics.recordPlanCacheHit();
+    pullMetrics.recordPlanCacheMiss();
+
+    // When:
+    final double hits = getPlanCacheMetricValue("-hit-total");
+    final double misses = getPlanCacheMetricValue("-miss-total");
+
+    // Then:
+    assertThat(hits, is(2.0));
+    assertThat(misses, is(1.0));
+  }
+
+  @Test
+  public void shouldRecordPlanCacheEvictions() {
+    // Given:
+    pullMetrics.recordPlanCacheEvictions(3);
+
+    // When:
+    final double evictions = getPlanCacheMetricValue("-eviction-total");
+
+    // Then:
+    assertThat(evictions, is(3.0));
+  }
 
   private double getMetricValue(final String metricName) {
+    return getMetricValueWithPrefix("pull-query-requests", metricName);
+  }
+
+  private double getPlanCacheMetricValue(final String metricName) {
+    return getMetricValueWithPrefix("pull-query-plan-cache", metricName);
+  }
+
+  private double getMetricValueWithPrefix(final String prefix, final String metricName) {
     final Metrics metrics = pullMetrics.getMetrics();
     return Double.valueOf(
         metrics.metric(
             metrics.metricName(
-                "pull-query-requests" + metricName,
+                prefix + metricName,
                 "_confluent-ksql-" + ksqlEngine.getServiceId()+ "pull-query",
                 CUSTOM_TAGS)
         ).metricValue().toString()
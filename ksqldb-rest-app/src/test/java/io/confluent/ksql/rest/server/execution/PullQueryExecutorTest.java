@@ -19,33 +19,86 @@ import static io.confluent.ksql.rest.entity.KsqlErrorMessageMatchers.errorMessag
 import static io.confluent.ksql.rest.entity.KsqlStatementErrorMessageMatchers.statement;
 import static io.confluent.ksql.rest.server.resources.KsqlRestExceptionMatchers.exceptionStatementErrorMessage;
 import static io.confluent.ksql.rest.server.resources.KsqlRestExceptionMatchers.exceptionStatusCode;
+import static io.confluent.ksql.GenericRow.genericRow;
 import static junit.framework.TestCase.fail;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import io.confluent.ksql.KsqlExecutionContext;
 import io.confluent.ksql.execution.streams.RoutingFilter.RoutingFilterFactory;
 import io.confluent.ksql.execution.streams.RoutingFilters;
+import io.confluent.ksql.execution.streams.materialization.Locator;
+import io.confluent.ksql.execution.streams.materialization.Locator.KsqlNode;
+import io.confluent.ksql.execution.streams.materialization.Materialization;
+import io.confluent.ksql.execution.streams.materialization.MaterializationException;
+import io.confluent.ksql.execution.streams.materialization.MaterializedTable;
+import io.confluent.ksql.execution.streams.materialization.Row;
+import io.confluent.ksql.execution.streams.materialization.RowIterator;
+import io.confluent.ksql.metastore.model.DataSource;
+import io.confluent.ksql.metastore.model.DataSource.DataSourceType;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.name.SourceName;
 import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.parser.tree.Query;
+import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.rest.SessionProperties;
+import io.confluent.ksql.rest.client.KsqlRestClientException;
+import io.confluent.ksql.rest.client.RestResponse;
+import io.confluent.ksql.rest.entity.StreamedRow;
+import io.confluent.ksql.rest.entity.TableRowsEntity;
+import io.confluent.ksql.rest.entity.TableRowsEntityFactory;
 import io.confluent.ksql.rest.server.TemporaryEngine;
 import io.confluent.ksql.rest.server.resources.KsqlRestException;
 import io.confluent.ksql.rest.server.validation.CustomValidators;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.PhysicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.serde.SerdeOption;
+import io.confluent.ksql.services.ServiceContext;
+import io.confluent.ksql.services.SimpleKsqlClient;
 import io.confluent.ksql.statement.ConfiguredStatement;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.KsqlStatementException;
+import io.confluent.ksql.util.PersistentQueryMetadata;
+import io.confluent.ksql.util.SchemaUtil;
+import java.net.URI;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
 import org.eclipse.jetty.http.HttpStatus.Code;
+import org.junit.After;
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 @RunWith(Enclosed.class)
@@ -138,4 +191,525 @@ public class PullQueryExecutorTest {
       Assert.assertThrows(KsqlException.class, pullQueryExecutor::checkRateLimit);
     }
   }
+
+  @RunWith(MockitoJUnitRunner.class)
+  public static class Routing {
+
+    private static final QueryId QUERY_ID = new QueryId("CTAS_TEST_TABLE_0");
+    private static final SourceName TABLE = SourceName.of("TEST_TABLE");
+    private static final LogicalSchema MAT_SCHEMA = LogicalSchema.builder()
+        .withRowTime()
+        .keyColumn(SchemaUtil.ROWKEY_NAME, SqlTypes.STRING)
+        .valueColumn(ColumnName.of("COUNT"), SqlTypes.BIGINT)
+        .build();
+    private static final PhysicalSchema PHYSICAL_SCHEMA =
+        PhysicalSchema.from(TemporaryEngine.SCHEMA, SerdeOption.none());
+    private static final URI LOCAL_URI = URI.create("http://local:8088");
+    private static final URI REMOTE_URI_1 = URI.create("http://remote1:8088");
+    private static final URI REMOTE_URI_2 = URI.create("http://remote2:8088");
+
+    @Rule
+    public final TemporaryEngine engine = new TemporaryEngine();
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Mock
+    private KsqlExecutionContext executionContext;
+    @Mock
+    private ServiceContext serviceContext;
+    @Mock
+    private SimpleKsqlClient ksqlClient;
+    @Mock
+    private PersistentQueryMetadata query;
+    @Mock
+    private PersistentQueryMetadata restartedQuery;
+    @Mock
+    private Materialization mat;
+    @Mock
+    private Locator locator;
+    @Mock
+    private MaterializedTable table;
+    @Mock
+    private KsqlNode local;
+    @Mock
+    private KsqlNode remote1;
+    @Mock
+    private KsqlNode remote2;
+    @Mock
+    private PullQueryExecutorMetrics pullQueryMetrics;
+    @Captor
+    private ArgumentCaptor<String> sqlCaptor;
+
+    private DataSource source;
+    private PullQueryExecutor pullQueryExecutor;
+
+    @Before
+    public void setUp() {
+      givenMaterializedTable();
+
+      when(executionContext.getMetaStore()).thenReturn(engine.getMetaStore());
+      givenMaterializingQuery(query);
+      when(mat.locator()).thenReturn(locator);
+      when(mat.nonWindowed()).thenReturn(table);
+      when(mat.schema()).thenReturn(MAT_SCHEMA);
+      when(mat.windowType()).thenReturn(Optional.empty());
+      when(serviceContext.getKsqlClient()).thenReturn(ksqlClient);
+      when(local.isLocal()).thenReturn(true);
+      when(local.location()).thenReturn(LOCAL_URI);
+      when(remote1.location()).thenReturn(REMOTE_URI_1);
+      when(remote2.location()).thenReturn(REMOTE_URI_2);
+
+      pullQueryExecutor = new PullQueryExecutor(
+          executionContext, ROUTING_FILTER_FACTORY, engine.getKsqlConfig());
+    }
+
+    @After
+    public void tearDown() {
+      pullQueryExecutor.close();
+    }
+
+    @Test
+    public void shouldFailScanIfRemoteNodeExceedsMaxRowsScanned() {
+      // Given:
+      when(locator.locateActive(any())).thenReturn(ImmutableList.of(local, remote1));
+      when(table.scan(anyLong())).thenReturn(rows(row("a", 1L)));
+      when(ksqlClient.makeQueryRequest(eq(REMOTE_URI_1), any(), any(), any()))
+          .thenReturn(RestResponse.erroneous(Code.BAD_REQUEST,
+              "Scan of materialized table exceeded the maximum of 1 rows."));
+
+      // Then:
+      expectedException.expect(KsqlStatementException.class);
+      expectedException.expectMessage("exceeded the maximum of 1 rows");
+
+      // When:
+      execute("SELECT * FROM TEST_TABLE LIMIT 10;");
+    }
+
+    @Test
+    public void shouldFailScanIfLocalNodeExceedsMaxRowsScanned() {
+      // Given:
+      when(locator.locateActive(any())).thenReturn(ImmutableList.of(local));
+      when(table.scan(anyLong())).thenReturn(overBudget());
+
+      // Then:
+      expectedException.expect(KsqlStatementException.class);
+      expectedException.expectMessage("exceeded the maximum of 1 rows");
+
+      // When:
+      execute("SELECT * FROM TEST_TABLE LIMIT 10;");
+    }
+
+    @Test
+    public void shouldReturnWarningIfNodeToScanCannotBeReached() {
+      // Given:
+      when(locator.locateActive(any())).thenReturn(ImmutableList.of(local, remote1));
+      when(table.scan(anyLong())).thenReturn(rows(row("a", 1L)));
+      when(ksqlClient.makeQueryRequest(eq(REMOTE_URI_1), any(), any(), any()))
+          .thenThrow(new KsqlRestClientException("Error issuing POST to KSQL server"));
+
+      // When:
+      final TableRowsEntity result = execute("SELECT * FROM TEST_TABLE LIMIT 10;");
+
+      // Then:
+      assertThat(result.getRows(), is(expectedRows(ImmutableList.of("a", 10L, 1L))));
+      assertThat(result.getWarnings(), hasSize(1));
+      assertThat(result.getWarnings().get(0).getMessage(),
+          containsString("Failed to scan the partitions of " + REMOTE_URI_1));
+    }
+
+    @Test
+    public void shouldMergeScansOfAllNodesUpToLimit() {
+      // Given:
+      when(locator.locateActive(any())).thenReturn(ImmutableList.of(local, remote1));
+      when(table.scan(anyLong())).thenReturn(rows(row("a", 1L), row("c", 3L)));
+      when(ksqlClient.makeQueryRequest(eq(REMOTE_URI_1), any(), any(), any()))
+          .thenReturn(remoteRows("b", 2L));
+
+      // When:
+      final TableRowsEntity result = execute("SELECT * FROM TEST_TABLE LIMIT 2;");
+
+      // Then:
+      assertThat(result.getRows(), is(expectedRows(
+          ImmutableList.of("a", 10L, 1L),
+          ImmutableList.of("c", 10L, 3L)
+      )));
+      assertThat(result.getWarnings(), is(empty()));
+    }
+
+    @Test
+    public void shouldScanOnlyKeyRangeOfStore() {
+      // Given:
+      when(locator.locateActive(any())).thenReturn(ImmutableList.of(local));
+      when(table.scan(eq(key("a")), eq(key("c")), anyLong()))
+          .thenReturn(rows(row("a", 1L), row("b", 2L), row("c", 3L)));
+
+      // When:
+      final TableRowsEntity result =
+          execute("SELECT * FROM TEST_TABLE WHERE ROWKEY >= 'a' AND ROWKEY < 'c';");
+
+      // Then:
+      assertThat(result.getRows(), is(expectedRows(
+          ImmutableList.of("a", 10L, 1L),
+          ImmutableList.of("b", 10L, 2L)
+      )));
+    }
+
+    @Test
+    public void shouldScanWholeStoreIfKeyRangeBoundIsNotOrderedAsUtf8() {
+      // Given:
+      final String supplementary = new String(Character.toChars(0x1F600));
+      when(locator.locateActive(any())).thenReturn(ImmutableList.of(local));
+      when(table.scan(anyLong()))
+          .thenReturn(rows(row("a", 1L), row(supplementary, 2L), row("\uFFFD", 3L)));
+
+      // When:
+      final TableRowsEntity result = execute(
+          "SELECT * FROM TEST_TABLE WHERE ROWKEY BETWEEN 'b' AND '" + supplementary + "';");
+
+      // Then:
+      assertThat(result.getRows(), is(expectedRows(
+          ImmutableList.of(supplementary, 10L, 2L)
+      )));
+    }
+
+    @Test
+    public void shouldSendOneRequestPerNodeForTheKeysItServes() {
+      // Given:
+      givenKeyLocations("a", remote1);
+      givenKeyLocations("b", local);
+      givenKeyLocations("c", remote1);
+      when(table.get(key("b"))).thenReturn(Optional.of(row("b", 2L)));
+      when(ksqlClient.makeQueryRequest(eq(REMOTE_URI_1), any(), any(), any()))
+          .thenReturn(remoteRows("a", 1L, "c", 3L));
+
+      // When:
+      final TableRowsEntity result =
+          execute("SELECT * FROM TEST_TABLE WHERE ROWKEY IN ('a', 'b', 'c');");
+
+      // Then:
+      verify(ksqlClient).makeQueryRequest(eq(REMOTE_URI_1), any(), any(), any());
+      assertThat(result.getRows(), is(expectedRows(
+          ImmutableList.of("b", 10L, 2L),
+          ImmutableList.of("a", 10L, 1L),
+          ImmutableList.of("c", 10L, 3L)
+      )));
+      assertThat(result.getWarnings(), is(empty()));
+    }
+
+    @Test
+    public void shouldRestrictForwardedRequestToTheKeysOfTheNode() {
+      // Given:
+      givenKeyLocations("a", remote1);
+      givenKeyLocations("b", local);
+      givenKeyLocations("c", remote1);
+      when(ksqlClient.makeQueryRequest(eq(REMOTE_URI_1), any(), any(), any()))
+          .thenReturn(remoteRows());
+
+      // When:
+      execute("SELECT * FROM TEST_TABLE WHERE ROWKEY IN ('a', 'b', 'c');");
+
+      // Then:
+      verify(ksqlClient).makeQueryRequest(eq(REMOTE_URI_1), sqlCaptor.capture(), any(), any());
+      assertThat(sqlCaptor.getValue(), containsString("IN ('a', 'c')"));
+      assertThat(sqlCaptor.getValue(), not(containsString("'b'")));
+    }
+
+    @Test
+    public void shouldForwardToRemoteNodesInParallel() {
+      // Given:
+      givenKeyLocations("a", remote1);
+      givenKeyLocations("b", remote2);
+      final CountDownLatch bothForwarded = new CountDownLatch(2);
+      when(ksqlClient.makeQueryRequest(eq(REMOTE_URI_1), any(), any(), any()))
+          .thenAnswer(inv -> awaitOther(bothForwarded, remoteRows("a", 1L)));
+      when(ksqlClient.makeQueryRequest(eq(REMOTE_URI_2), any(), any(), any()))
+          .thenAnswer(inv -> awaitOther(bothForwarded, remoteRows("b", 2L)));
+
+      // When:
+      final TableRowsEntity result =
+          execute("SELECT * FROM TEST_TABLE WHERE ROWKEY IN ('a', 'b');");
+
+      // Then:
+      assertThat(result.getRows(), is(expectedRows(
+          ImmutableList.of("a", 10L, 1L),
+          ImmutableList.of("b", 10L, 2L)
+      )));
+      assertThat(result.getWarnings(), is(empty()));
+    }
+
+    @Test
+    public void shouldFallBackToTheStandbysOfEachKeyIfNodeFails() {
+      // Given:
+      givenKeyLocations("a", remote1, remote2);
+      givenKeyLocations("c", remote1, local);
+      when(ksqlClient.makeQueryRequest(eq(REMOTE_URI_1), any(), any(), any()))
+          .thenThrow(new KsqlRestClientException("Error issuing POST to KSQL server"));
+      when(ksqlClient.makeQueryRequest(eq(REMOTE_URI_2), any(), any(), any()))
+          .thenReturn(remoteRows("a", 1L));
+      when(table.get(key("c"))).thenReturn(Optional.of(row("c", 3L)));
+
+      // When:
+      final TableRowsEntity result =
+          execute("SELECT * FROM TEST_TABLE WHERE ROWKEY IN ('a', 'c');");
+
+      // Then:
+      verify(ksqlClient).makeQueryRequest(eq(REMOTE_URI_2), sqlCaptor.capture(), any(), any());
+      assertThat(sqlCaptor.getValue(), containsString("IN ('a')"));
+      assertThat(result.getRows(), is(expectedRows(
+          ImmutableList.of("a", 10L, 1L),
+          ImmutableList.of("c", 10L, 3L)
+      )));
+      assertThat(result.getWarnings(), is(empty()));
+    }
+
+    @Test
+    public void shouldReturnWarningForKeysNoNodeCanServe() {
+      // Given:
+      givenKeyLocations("a", local);
+      givenKeyLocations("b", remote1);
+      givenKeyLocations("c");
+      when(table.get(key("a"))).thenReturn(Optional.of(row("a", 1L)));
+      when(ksqlClient.makeQueryRequest(eq(REMOTE_URI_1), any(), any(), any()))
+          .thenThrow(new KsqlRestClientException("Error issuing POST to KSQL server"));
+
+      // When:
+      final TableRowsEntity result =
+          execute("SELECT * FROM TEST_TABLE WHERE ROWKEY IN ('a', 'b', 'c');");
+
+      // Then:
+      assertThat(result.getRows(), is(expectedRows(ImmutableList.of("a", 10L, 1L))));
+      assertThat(result.getWarnings(), hasSize(2));
+      assertThat(result.getWarnings().get(0).getMessage(), is(
+          "Failed to look up key 'c': All nodes are dead or exceed max allowed lag."));
+      assertThat(result.getWarnings().get(1).getMessage(), is(
+          "Failed to look up key 'b': No other nodes available."));
+    }
+
+    @Test
+    public void shouldFailMultiKeyLookupIfNoKeyCanBeServed() {
+      // Given:
+      givenKeyLocations("a", remote1);
+      givenKeyLocations("b");
+      when(ksqlClient.makeQueryRequest(eq(REMOTE_URI_1), any(), any(), any()))
+          .thenThrow(new KsqlRestClientException("Error issuing POST to KSQL server"));
+
+      // Then:
+      expectedException.expect(KsqlStatementException.class);
+      expectedException.expectMessage("Failed to look up key 'a'");
+
+      // When:
+      execute("SELECT * FROM TEST_TABLE WHERE ROWKEY IN ('a', 'b');");
+    }
+
+    @Test
+    public void shouldReusePlanOfQueryWithSameShape() {
+      // Given:
+      givenKeyLocations("a", local);
+      givenKeyLocations("b", local);
+      when(table.get(key("a"))).thenReturn(Optional.of(row("a", 1L)));
+      when(table.get(key("b"))).thenReturn(Optional.of(row("b", 2L)));
+      execute("SELECT * FROM TEST_TABLE WHERE ROWKEY = 'a';");
+
+      // When:
+      final TableRowsEntity result = execute("SELECT * FROM TEST_TABLE WHERE ROWKEY = 'b';");
+
+      // Then:
+      assertThat(result.getRows(), is(expectedRows(ImmutableList.of("b", 10L, 2L))));
+      verify(query, times(1)).getMaterialization(any(), any());
+      verify(pullQueryMetrics, times(1)).recordPlanCacheMiss();
+      verify(pullQueryMetrics, times(1)).recordPlanCacheHit();
+    }
+
+    @Test
+    public void shouldBuildNewPlanForQueryWithOtherShape() {
+      // Given:
+      givenKeyLocations("a", local);
+      givenKeyLocations("b", local);
+      when(table.get(key("a"))).thenReturn(Optional.of(row("a", 1L)));
+      when(table.get(key("b"))).thenReturn(Optional.of(row("b", 2L)));
+      execute("SELECT * FROM TEST_TABLE WHERE ROWKEY = 'a';");
+
+      // When:
+      final TableRowsEntity result =
+          execute("SELECT * FROM TEST_TABLE WHERE ROWKEY IN ('a', 'b');");
+
+      // Then:
+      assertThat(result.getRows(), is(expectedRows(
+          ImmutableList.of("a", 10L, 1L),
+          ImmutableList.of("b", 10L, 2L)
+      )));
+      verify(query, times(2)).getMaterialization(any(), any());
+      verify(pullQueryMetrics, times(2)).recordPlanCacheMiss();
+      verify(pullQueryMetrics, never()).recordPlanCacheHit();
+    }
+
+    @Test
+    public void shouldRebuildPlanIfTableIsRecreated() {
+      // Given:
+      givenKeyLocations("a", local);
+      when(table.get(key("a"))).thenReturn(Optional.of(row("a", 1L)));
+      execute("SELECT * FROM TEST_TABLE WHERE ROWKEY = 'a';");
+
+      engine.getMetaStore().removePersistentQuery(QUERY_ID.getId());
+      engine.getMetaStore().deleteSource(TABLE);
+      givenMaterializedTable();
+
+      // When:
+      execute("SELECT * FROM TEST_TABLE WHERE ROWKEY = 'a';");
+
+      // Then:
+      verify(query, times(2)).getMaterialization(any(), any());
+      verify(pullQueryMetrics, times(2)).recordPlanCacheMiss();
+      verify(pullQueryMetrics, never()).recordPlanCacheHit();
+    }
+
+    @Test
+    public void shouldRebuildPlanIfMaterializingQueryIsRestarted() {
+      // Given:
+      givenKeyLocations("a", local);
+      when(table.get(key("a"))).thenReturn(Optional.of(row("a", 1L)));
+      execute("SELECT * FROM TEST_TABLE WHERE ROWKEY = 'a';");
+
+      givenMaterializingQuery(restartedQuery);
+
+      // When:
+      execute("SELECT * FROM TEST_TABLE WHERE ROWKEY = 'a';");
+
+      // Then:
+      verify(query, times(1)).getMaterialization(any(), any());
+      verify(restartedQuery, times(1)).getMaterialization(any(), any());
+      verify(pullQueryMetrics, times(2)).recordPlanCacheMiss();
+      verify(pullQueryMetrics, never()).recordPlanCacheHit();
+    }
+
+    @Test
+    public void shouldEvictLeastRecentPlanOnceCacheIsFull() {
+      // Given:
+      pullQueryExecutor.close();
+      pullQueryExecutor = new PullQueryExecutor(
+          executionContext,
+          ROUTING_FILTER_FACTORY,
+          engine.getKsqlConfig().cloneWithPropertyOverwrite(
+              ImmutableMap.of(KsqlConfig.KSQL_QUERY_PULL_PLAN_CACHE_SIZE_CONFIG, 1))
+      );
+      givenKeyLocations("a", local);
+      givenKeyLocations("b", local);
+      when(table.get(key("a"))).thenReturn(Optional.of(row("a", 1L)));
+      when(table.get(key("b"))).thenReturn(Optional.of(row("b", 2L)));
+      execute("SELECT * FROM TEST_TABLE WHERE ROWKEY = 'a';");
+      execute("SELECT * FROM TEST_TABLE WHERE ROWKEY IN ('a', 'b');");
+
+      // When:
+      execute("SELECT * FROM TEST_TABLE WHERE ROWKEY = 'a';");
+
+      // Then:
+      verify(query, times(3)).getMaterialization(any(), any());
+      verify(pullQueryMetrics, times(3)).recordPlanCacheMiss();
+      verify(pullQueryMetrics, never()).recordPlanCacheHit();
+      verify(pullQueryMetrics, times(2)).recordPlanCacheEvictions(1.0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private TableRowsEntity execute(final String sql) {
+      return pullQueryExecutor.execute(
+          (ConfiguredStatement<Query>) engine.configure(sql),
+          serviceContext,
+          Optional.of(pullQueryMetrics)
+      );
+    }
+
+    private void givenMaterializedTable() {
+      source = engine.givenSource(DataSourceType.KTABLE, TABLE.text());
+      engine.getMetaStore().updateForPersistentQuery(
+          QUERY_ID.getId(), ImmutableSet.of(), ImmutableSet.of(TABLE));
+    }
+
+    private void givenMaterializingQuery(final PersistentQueryMetadata materializing) {
+      when(executionContext.getPersistentQuery(QUERY_ID)).thenReturn(Optional.of(materializing));
+      when(materializing.getQueryId()).thenReturn(QUERY_ID);
+      when(materializing.getMaterialization(any(), any())).thenReturn(Optional.of(mat));
+      when(materializing.getResultTopic()).thenReturn(source.getKsqlTopic());
+      when(materializing.getLogicalSchema()).thenReturn(TemporaryEngine.SCHEMA);
+      when(materializing.getPhysicalSchema()).thenReturn(PHYSICAL_SCHEMA);
+    }
+
+    private void givenKeyLocations(final String key, final KsqlNode... nodes) {
+      when(locator.locate(eq(key(key)), any(), any())).thenReturn(ImmutableList.copyOf(nodes));
+    }
+
+    private static RestResponse<List<StreamedRow>> awaitOther(
+        final CountDownLatch bothForwarded,
+        final RestResponse<List<StreamedRow>> response
+    ) throws InterruptedException {
+      bothForwarded.countDown();
+      if (!bothForwarded.await(30, TimeUnit.SECONDS)) {
+        return RestResponse.erroneous(Code.INTERNAL_SERVER_ERROR, "Not forwarded in parallel");
+      }
+      return response;
+    }
+
+    private static Struct key(final String value) {
+      final Schema keySchema = PHYSICAL_SCHEMA.keySchema().ksqlSchema();
+      final Struct key = new Struct(keySchema);
+      key.put(Iterables.getOnlyElement(keySchema.fields()), value);
+      return key;
+    }
+
+    private static Row row(final String key, final long count) {
+      return Row.of(MAT_SCHEMA, key(key), genericRow(count), 10L);
+    }
+
+    private static RowIterator rows(final Row... rows) {
+      final Iterator<Row> it = ImmutableList.copyOf(rows).iterator();
+      return new RowIterator() {
+        @Override
+        public boolean hasNext() {
+          return it.hasNext();
+        }
+
+        @Override
+        public Row next() {
+          return it.next();
+        }
+
+        @Override
+        public void close() {
+        }
+      };
+    }
+
+    private static RowIterator overBudget() {
+      return new RowIterator() {
+        @Override
+        public boolean hasNext() {
+          throw new MaterializationException(
+              "Scan of materialized table exceeded the maximum of 1 rows.");
+        }
+
+        @Override
+        public Row next() {
+          throw new NoSuchElementException();
+        }
+
+        @Override
+        public void close() {
+        }
+      };
+    }
+
+    private static List<List<?>> expectedRows(final List<?>... rows) {
+      return ImmutableList.copyOf(rows);
+    }
+
+    private static RestResponse<List<StreamedRow>> remoteRows(final Object... keysAndCounts) {
+      final ImmutableList.Builder<StreamedRow> rows = ImmutableList.builder();
+      rows.add(StreamedRow.header(
+          new QueryId("remote"), TableRowsEntityFactory.buildSchema(MAT_SCHEMA, false)));
+      for (int i = 0; i < keysAndCounts.length; i += 2) {
+        rows.add(StreamedRow.row(genericRow(keysAndCounts[i], 10L, keysAndCounts[i + 1])));
+      }
+      return RestResponse.successful(Code.OK, rows.build());
+    }
+  }
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.resources;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+
+import io.confluent.ksql.engine.KsqlEngine;
+import io.confluent.ksql.metrics.MetricCollectors;
+import io.confluent.ksql.metrics.StepMetrics;
+import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.rest.entity.QueryMetricsResponse;
+import io.confluent.ksql.util.PersistentQueryMetadata;
+import java.util.Optional;
+import javax.ws.rs.core.Response;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class QueryMetricsResourceTest {
+
+  private static final QueryId QUERY_ID = new QueryId("CSAS_TEST_0");
+  private static final String APPLICATION_ID = "app-id";
+
+  @Mock
+  private KsqlEngine engine;
+  @Mock
+  private PersistentQueryMetadata query;
+
+  private QueryMetricsResource resource;
+
+  @Before
+  public void setUp() {
+    MetricCollectors.initialize();
+    resource = new QueryMetricsResource(engine);
+  }
+
+  @After
+  public void tearDown() {
+    StepMetrics.notifyApplicationClose(APPLICATION_ID);
+    MetricCollectors.cleanUp();
+  }
+
+  @Test
+  public void shouldReturnStepMetricsOfQuery() {
+    // Given:
+    when(engine.getPersistentQuery(QUERY_ID)).thenReturn(Optional.of(query));
+    StepMetrics.registerApplication(APPLICATION_ID, QUERY_ID.getId());
+    StepMetrics.of(QUERY_ID.getId(), "Project").recordProcessingTime(2_000);
+
+    // When:
+    final Response response = resource.getQueryMetrics(QUERY_ID.getId());
+
+    // Then:
+    assertThat(response.getStatus(), is(200));
+    assertThat(response.getEntity(), instanceOf(QueryMetricsResponse.class));
+    final QueryMetricsResponse metrics = (QueryMetricsResponse) response.getEntity();
+    assertThat(metrics.getQueryId(), is(QUERY_ID.getId()));
+    assertThat(metrics.getSteps().get("Project").get("processing-time-max-us"), is(2.0));
+  }
+
+  @Test
+  public void shouldReturnNotFoundForUnknownQuery() {
+    // Given:
+    when(engine.getPersistentQuery(QUERY_ID)).thenReturn(Optional.empty());
+
+    // When:
+    final Response response = resource.getQueryMetrics(QUERY_ID.getId());
+
+    // Then:
+    assertThat(response.getStatus(), is(404));
+  }
+}
@@ -26,6 +26,7 @@ import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.engine.KsqlEngine;
 import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.parser.tree.Query;
+import io.confluent.ksql.rest.entity.KsqlWarning;
 import io.confluent.ksql.rest.entity.StreamedRow;
 import io.confluent.ksql.rest.entity.TableRowsEntity;
 import io.confluent.ksql.rest.server.execution.PullQueryExecutor;
@@ -181,6 +182,28 @@ public class PullQueryPublisherTest {
     ));
   }
 
+  @Test
+  public void shouldAppendWarningsAfterRows() {
+    // Given:
+    givenSubscribed();
+
+    when(entity.getRows()).thenReturn(ImmutableList.of(
+        ImmutableList.of("a", 1, 2L, 3.0f)
+    ));
+    when(entity.getWarnings()).thenReturn(ImmutableList.of(
+        new KsqlWarning("Failed to look up key")
+    ));
+
+    // When:
+    subscription.request(1);
+
+    // Then:
+    verify(subscriber).onNext(ImmutableList.of(
+        StreamedRow.row(GenericRow.genericRow("a", 1, 2L, 3.0f)),
+        StreamedRow.finalMessage("Failed to look up key")
+    ));
+  }
+
   private Answer<Void> callRequestAgain() {
     return inv -> {
       subscription.request(1);
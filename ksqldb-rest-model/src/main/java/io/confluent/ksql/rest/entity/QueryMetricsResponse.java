@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.entity;
+
+import static java.util.Objects.requireNonNull;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableMap;
+import com.google.errorprone.annotations.Immutable;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The metrics of each step of a query, keyed by the step's query context.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@Immutable
+public final class QueryMetricsResponse {
+
+  private final String queryId;
+  private final ImmutableMap<String, ImmutableMap<String, Double>> steps;
+
+  @JsonCreator
+  public QueryMetricsResponse(
+      @JsonProperty("queryId") final String queryId,
+      @JsonProperty("steps") final Map<String, Map<String, Double>> steps
+  ) {
+    this.queryId = requireNonNull(queryId, "queryId");
+    this.steps = requireNonNull(steps, "steps").entrySet().stream()
+        .collect(ImmutableMap.toImmutableMap(
+            Map.Entry::getKey,
+            e -> ImmutableMap.copyOf(e.getValue())
+        ));
+  }
+
+  public String getQueryId() {
+    return queryId;
+  }
+
+  public Map<String, ImmutableMap<String, Double>> getSteps() {
+    return steps;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    final QueryMetricsResponse that = (QueryMetricsResponse) o;
+    return Objects.equals(queryId, that.queryId)
+        && Objects.equals(steps, that.steps);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(queryId, steps);
+  }
+
+  @Override
+  public String toString() {
+    return "QueryMetricsResponse{"
+        + "queryId='" + queryId + '\''
+        + ", steps=" + steps
+        + '}';
+  }
+}
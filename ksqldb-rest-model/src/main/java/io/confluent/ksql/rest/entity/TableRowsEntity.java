@@ -17,6 +17,7 @@ package io.confluent.ksql.rest.entity;
 
 import static java.util.Objects.requireNonNull;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableList;
@@ -35,13 +36,24 @@ public class TableRowsEntity extends KsqlEntity {
   private final QueryId queryId;
   private final ImmutableList<List<?>> rows;
 
+  public TableRowsEntity(
+      final String statementText,
+      final QueryId queryId,
+      final LogicalSchema schema,
+      final List<List<?>> rows
+  ) {
+    this(statementText, queryId, schema, rows, Collections.emptyList());
+  }
+
+  @JsonCreator
   public TableRowsEntity(
       @JsonProperty("statementText") final String statementText,
       @JsonProperty("queryId") final QueryId queryId,
       @JsonProperty("schema") final LogicalSchema schema,
-      @JsonProperty("rows") final List<List<?>> rows
+      @JsonProperty("rows") final List<List<?>> rows,
+      @JsonProperty("warnings") final List<KsqlWarning> warnings
   ) {
-    super(statementText);
+    super(statementText, warnings);
     this.schema = requireNonNull(schema, "schema");
     this.queryId = requireNonNull(queryId, "queryId");
     this.rows = deepCopy(requireNonNull(rows, "rows"));
@@ -73,6 +73,18 @@ public interface Format {
     return false;
   }
 
+  /**
+   * Indicates whether or not this format matches the fields of a serialized value to columns by
+   * name. If so, a value can be deserialized using a schema that contains only some of the columns
+   * of the source, and the fields of any other columns will be ignored. Formats that match fields
+   * by position, for example, must return {@code false}.
+   *
+   * @return {@code true} if values can be deserialized with a subset of the source's columns
+   */
+  default boolean supportsFieldProjection() {
+    return false;
+  }
+
   /**
    * Converts the {@link ParsedSchema} returned by Confluent Schema Registry into a list of columns,
    * which ksqlDB can use to infer the stream or table schema.
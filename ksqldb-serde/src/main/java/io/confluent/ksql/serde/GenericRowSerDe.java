@@ -26,12 +26,14 @@ import io.confluent.ksql.logging.processing.LoggingDeserializer;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import io.confluent.ksql.serde.compact.CompactRowSerde;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.SchemaUtil;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Supplier;
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.serialization.Deserializer;
@@ -61,7 +63,7 @@ public final class GenericRowSerDe implements ValueSerdeFactory {
    * </ol>
    *
    */
-  private static final int ADDITIONAL_CAPACITY = 4;
+  public static final int ADDITIONAL_CAPACITY = 4;
 
   private final SerdeFactories serdeFactories;
 
@@ -112,6 +114,26 @@ public final class GenericRowSerDe implements ValueSerdeFactory {
     );
   }
 
+  /**
+   * Create a serde for rows held in internal state stores, which uses the compact layout of
+   * {@link CompactRowSerde}, regardless of the value format.
+   */
+  public static Serde<GenericRow> compact(
+      final PersistenceSchema schema,
+      final String loggerNamePrefix,
+      final ProcessingLogContext processingLogContext
+  ) {
+    final ProcessingLogger processingLogger = processingLogContext.getLoggerFactory()
+        .getLogger(join(loggerNamePrefix, GenericKeySerDe.DESERIALIZER_LOGGER_NAME));
+
+    final Serde<GenericRow> compactSerde = CompactRowSerde.create(schema);
+
+    return Serdes.serdeFrom(
+        compactSerde.serializer(),
+        new LoggingDeserializer<>(compactSerde.deserializer(), processingLogger)
+    );
+  }
+
   private <T> Serde<GenericRow> from(
       final FormatInfo format,
       final PersistenceSchema schema,
@@ -135,15 +157,22 @@ public final class GenericRowSerDe implements ValueSerdeFactory {
       );
     }
 
-    final Serde<T> serde = serdeFactories
-        .create(format, schema, ksqlConfig, schemaRegistryClientFactory, targetType);
-
     final ProcessingLogger processingLogger = processingLogContext.getLoggerFactory()
         .getLogger(join(loggerNamePrefix, GenericKeySerDe.DESERIALIZER_LOGGER_NAME));
 
-    final Serde<GenericRow> genericRowSerde = schema.isUnwrapped()
+    final Serde<GenericRow> genericRowSerde = createRowSerde(
+        format,
+        schema,
+        ksqlConfig,
+        schemaRegistryClientFactory
+    ).orElseGet(() -> {
+      final Serde<T> serde = serdeFactories
+          .create(format, schema, ksqlConfig, schemaRegistryClientFactory, targetType);
+
+      return schema.isUnwrapped()
           ? unwrapped(serde)
           : wrapped(serde, schema, targetType);
+    });
 
     final Serde<GenericRow> result = Serdes.serdeFrom(
         genericRowSerde.serializer(),
@@ -155,6 +184,21 @@ public final class GenericRowSerDe implements ValueSerdeFactory {
     return result;
   }
 
+  private Optional<Serde<GenericRow>> createRowSerde(
+      final FormatInfo format,
+      final PersistenceSchema schema,
+      final KsqlConfig ksqlConfig,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory
+  ) {
+    if (schema.isUnwrapped()
+        || !ksqlConfig.getBoolean(KsqlConfig.KSQL_SERDE_NATIVE_ROW_ENABLED)) {
+      return Optional.empty();
+    }
+
+    return serdeFactories
+        .createRowSerde(format, schema, ksqlConfig, schemaRegistryClientFactory);
+  }
+
   private static Class<?> getTargetType(final PersistenceSchema schema) {
     return SchemaUtil.getJavaType(schema.serializedSchema());
   }
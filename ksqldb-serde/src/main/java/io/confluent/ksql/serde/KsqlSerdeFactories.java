@@ -17,9 +17,11 @@ package io.confluent.ksql.serde;
 
 import com.google.common.annotations.VisibleForTesting;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.util.KsqlConfig;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import org.apache.kafka.common.serialization.Serde;
@@ -57,6 +59,20 @@ final class KsqlSerdeFactories implements SerdeFactories {
     return ksqlSerdeFactory.createSerde(schema, ksqlConfig, schemaRegistryClientFactory, type);
   }
 
+  @Override
+  public Optional<Serde<GenericRow>> createRowSerde(
+      final FormatInfo format,
+      final PersistenceSchema schema,
+      final KsqlConfig ksqlConfig,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory
+  ) {
+    final KsqlSerdeFactory ksqlSerdeFactory = factoryMethod.apply(format);
+
+    ksqlSerdeFactory.validate(schema);
+
+    return ksqlSerdeFactory.createRowSerde(schema, ksqlConfig, schemaRegistryClientFactory);
+  }
+
   @VisibleForTesting
   static KsqlSerdeFactory create(final FormatInfo format) {
     return FormatFactory.of(format).getSerdeFactory(format);
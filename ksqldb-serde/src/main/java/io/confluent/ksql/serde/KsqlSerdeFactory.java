@@ -17,9 +17,11 @@ package io.confluent.ksql.serde;
 
 import com.google.errorprone.annotations.Immutable;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.SchemaUtil;
+import java.util.Optional;
 import java.util.function.Supplier;
 import org.apache.kafka.common.serialization.Serde;
 
@@ -65,4 +67,23 @@ public interface KsqlSerdeFactory {
 
     return (Serde) createSerde(schema, ksqlConfig, schemaRegistryClientFactory);
   }
+
+  /**
+   * Create a serde that reads and writes {@link GenericRow}s directly, without first converting
+   * to, or from, a Connect {@code Struct}.
+   *
+   * <p>The fields of the row are in the same order as the fields of the {@code schema}.
+   *
+   * @param schema the persistence schema, i.e. the physical schema of the data on-disk.
+   * @param ksqlConfig the config to use.
+   * @param schemaRegistryClientFactory the schema registry client to use.
+   * @return the serde, or empty if the format does not support reading rows directly.
+   */
+  default Optional<Serde<GenericRow>> createRowSerde(
+      final PersistenceSchema schema,
+      final KsqlConfig ksqlConfig,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory
+  ) {
+    return Optional.empty();
+  }
 }
@@ -16,8 +16,10 @@
 package io.confluent.ksql.serde;
 
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.util.KsqlConfig;
+import java.util.Optional;
 import java.util.function.Supplier;
 import org.apache.kafka.common.serialization.Serde;
 
@@ -51,4 +53,20 @@ interface SerdeFactories {
       Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
       Class<T> type
   );
+
+  /**
+   * Create a {@link Serde} that reads and writes rows directly, if the format supports it.
+   *
+   * @param format required format.
+   * @param schema persitence schema, which must be wrapped.
+   * @param ksqlConfig system config.
+   * @param schemaRegistryClientFactory the sr client factory.
+   * @return the serde, or empty if the format does not support it.
+   */
+  Optional<Serde<GenericRow>> createRowSerde(
+      FormatInfo format,
+      PersistenceSchema schema,
+      KsqlConfig ksqlConfig,
+      Supplier<SchemaRegistryClient> schemaRegistryClientFactory
+  );
 }
@@ -0,0 +1,422 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.avro;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.serde.GenericRowSerDe;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.avro.JsonProperties;
+import org.apache.avro.LogicalType;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.io.Decoder;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+
+/**
+ * Decodes Avro binary data written with one writer schema directly into a {@link GenericRow}.
+ *
+ * <p>The decoder is compiled once per writer schema. It gives the same result as converting the
+ * data to a Connect {@code Struct} with {@code AvroData} and translating that to the KSQL schema:
+ * struct fields are matched by name, ignoring case, writer fields with no matching column are
+ * skipped, and columns with no matching writer field are null.
+ *
+ * <p>Writer schemas whose translation needs more than this, e.g. unions of several types or type
+ * mismatches, which should fail with the usual error, are not supported: {@link #create} returns
+ * empty for these, and callers should fall back to the Connect path.
+ */
+final class AvroRowDecoder {
+
+  private static final String CONNECT_INTERNAL_TYPE = "connect.internal.type";
+  private static final String MAP_ENTRY_TYPE = "MapEntry";
+  private static final String MAP_KEY_FIELD = "key";
+  private static final String MAP_VALUE_FIELD = "value";
+
+  private final int columnCount;
+  private final RecordReader reader;
+
+  /**
+   * @param writerSchema the schema the data was written with.
+   * @param ksqlSchema the KSQL schema of the row.
+   * @param compatibleSchema the Avro compatible version of the KSQL schema, whose field names
+   *                         are matched against the writer's.
+   * @return the decoder, or empty if the writer schema is not supported.
+   */
+  static Optional<AvroRowDecoder> create(
+      final org.apache.avro.Schema writerSchema,
+      final Schema ksqlSchema,
+      final Schema compatibleSchema
+  ) {
+    if (writerSchema.getType() != org.apache.avro.Schema.Type.RECORD) {
+      return Optional.empty();
+    }
+
+    try {
+      return Optional.of(new AvroRowDecoder(
+          ksqlSchema.fields().size(),
+          compileRecord(writerSchema, ksqlSchema, compatibleSchema)
+      ));
+    } catch (final NotSupportedException e) {
+      return Optional.empty();
+    }
+  }
+
+  private AvroRowDecoder(final int columnCount, final RecordReader reader) {
+    this.columnCount = columnCount;
+    this.reader = reader;
+  }
+
+  GenericRow decode(final Decoder in) throws IOException {
+    final GenericRow row = new GenericRow(columnCount + GenericRowSerDe.ADDITIONAL_CAPACITY);
+    for (int i = 0; i < columnCount; i++) {
+      row.append(null);
+    }
+
+    reader.readRow(in, row);
+    return row;
+  }
+
+  @FunctionalInterface
+  private interface ValueReader {
+    Object read(Decoder in) throws IOException;
+  }
+
+  private static final class RecordReader {
+
+    private final org.apache.avro.Schema[] writerSchemas;
+    private final Field[] targets;
+    private final ValueReader[] readers;
+
+    RecordReader(
+        final org.apache.avro.Schema[] writerSchemas,
+        final Field[] targets,
+        final ValueReader[] readers
+    ) {
+      this.writerSchemas = writerSchemas;
+      this.targets = targets;
+      this.readers = readers;
+    }
+
+    void readRow(final Decoder in, final GenericRow row) throws IOException {
+      for (int i = 0; i < targets.length; i++) {
+        if (targets[i] == null) {
+          GenericDatumReader.skip(writerSchemas[i], in);
+        } else {
+          row.set(targets[i].index(), readers[i].read(in));
+        }
+      }
+    }
+
+    Struct readStruct(final Decoder in, final Schema schema) throws IOException {
+      final Struct struct = new Struct(schema);
+      for (int i = 0; i < targets.length; i++) {
+        if (targets[i] == null) {
+          GenericDatumReader.skip(writerSchemas[i], in);
+        } else {
+          struct.put(targets[i], readers[i].read(in));
+        }
+      }
+      return struct;
+    }
+  }
+
+  private static RecordReader compileRecord(
+      final org.apache.avro.Schema writerSchema,
+      final Schema ksqlSchema,
+      final Schema compatibleSchema
+  ) {
+    final List<org.apache.avro.Schema.Field> writerFields = writerSchema.getFields();
+
+    final Map<String, org.apache.avro.Schema.Field> caseInsensitiveFieldMap = new HashMap<>();
+    writerFields.forEach(field -> caseInsensitiveFieldMap.put(field.name().toUpperCase(), field));
+
+    final org.apache.avro.Schema[] writerSchemas = new org.apache.avro.Schema[writerFields.size()];
+    final Field[] targets = new Field[writerFields.size()];
+    final ValueReader[] readers = new ValueReader[writerFields.size()];
+
+    for (final org.apache.avro.Schema.Field writerField : writerFields) {
+      writerSchemas[writerField.pos()] = writerField.schema();
+    }
+
+    for (int i = 0; i < ksqlSchema.fields().size(); i++) {
+      final Field ksqlField = ksqlSchema.fields().get(i);
+      final Field compatibleField = compatibleSchema.fields().get(i);
+
+      final org.apache.avro.Schema.Field writerField =
+          caseInsensitiveFieldMap.get(compatibleField.name().toUpperCase());
+
+      if (writerField == null) {
+        continue;
+      }
+
+      if (targets[writerField.pos()] != null) {
+        // Two columns read the same field:
+        throw new NotSupportedException();
+      }
+
+      if (writerField.schema().getType() == org.apache.avro.Schema.Type.UNION
+          && writerField.defaultVal() != null
+          && writerField.defaultVal() != JsonProperties.NULL_VALUE) {
+        // Connect returns the default in place of null values:
+        throw new NotSupportedException();
+      }
+
+      targets[writerField.pos()] = ksqlField;
+      readers[writerField.pos()] = compile(
+          writerField.schema(),
+          ksqlField.schema(),
+          compatibleField.schema()
+      );
+    }
+
+    return new RecordReader(writerSchemas, targets, readers);
+  }
+
+  // CHECKSTYLE_RULES.OFF: CyclomaticComplexity
+  private static ValueReader compile(
+      final org.apache.avro.Schema writerSchema,
+      final Schema ksqlSchema,
+      final Schema compatibleSchema
+  ) {
+    // CHECKSTYLE_RULES.ON: CyclomaticComplexity
+    final org.apache.avro.Schema.Type writerType = writerSchema.getType();
+    if (writerType == org.apache.avro.Schema.Type.UNION) {
+      return compileOptional(writerSchema, ksqlSchema, compatibleSchema);
+    }
+
+    switch (ksqlSchema.type()) {
+      case BOOLEAN:
+        if (writerType == org.apache.avro.Schema.Type.BOOLEAN) {
+          return Decoder::readBoolean;
+        }
+        break;
+      case INT32:
+        if (writerType == org.apache.avro.Schema.Type.INT) {
+          return Decoder::readInt;
+        }
+        break;
+      case INT64:
+        if (writerType == org.apache.avro.Schema.Type.INT) {
+          return in -> (long) in.readInt();
+        }
+        if (writerType == org.apache.avro.Schema.Type.LONG) {
+          return Decoder::readLong;
+        }
+        break;
+      case FLOAT64:
+        if (writerType == org.apache.avro.Schema.Type.FLOAT) {
+          return in -> (double) in.readFloat();
+        }
+        if (writerType == org.apache.avro.Schema.Type.DOUBLE) {
+          return Decoder::readDouble;
+        }
+        break;
+      case STRING:
+        return compileString(writerSchema);
+      case BYTES:
+        return compileDecimal(writerSchema);
+      case ARRAY:
+        if (writerType == org.apache.avro.Schema.Type.ARRAY) {
+          return compileArray(writerSchema, ksqlSchema, compatibleSchema);
+        }
+        break;
+      case MAP:
+        return compileMap(writerSchema, ksqlSchema, compatibleSchema);
+      case STRUCT:
+        if (writerType == org.apache.avro.Schema.Type.RECORD) {
+          final RecordReader record = compileRecord(writerSchema, ksqlSchema, compatibleSchema);
+          return in -> record.readStruct(in, ksqlSchema);
+        }
+        break;
+      default:
+        break;
+    }
+
+    throw new NotSupportedException();
+  }
+
+  private static ValueReader compileOptional(
+      final org.apache.avro.Schema writerSchema,
+      final Schema ksqlSchema,
+      final Schema compatibleSchema
+  ) {
+    final List<org.apache.avro.Schema> types = writerSchema.getTypes();
+    if (types.size() != 2) {
+      throw new NotSupportedException();
+    }
+
+    final int nullIndex = types.get(0).getType() == org.apache.avro.Schema.Type.NULL ? 0 : 1;
+    final org.apache.avro.Schema valueSchema = types.get(1 - nullIndex);
+    if (types.get(nullIndex).getType() != org.apache.avro.Schema.Type.NULL
+        || valueSchema.getType() == org.apache.avro.Schema.Type.NULL) {
+      throw new NotSupportedException();
+    }
+
+    final ValueReader value = compile(valueSchema, ksqlSchema, compatibleSchema);
+    return in -> in.readIndex() == nullIndex ? null : value.read(in);
+  }
+
+  private static ValueReader compileString(final org.apache.avro.Schema writerSchema) {
+    // Matches String.valueOf of the value Connect would return:
+    switch (writerSchema.getType()) {
+      case STRING:
+        return Decoder::readString;
+      case ENUM:
+        final List<String> symbols = writerSchema.getEnumSymbols();
+        return in -> symbols.get(in.readEnum());
+      case BOOLEAN:
+        return in -> String.valueOf(in.readBoolean());
+      case INT:
+        return in -> String.valueOf(in.readInt());
+      case LONG:
+        return in -> String.valueOf(in.readLong());
+      case FLOAT:
+        return in -> String.valueOf(in.readFloat());
+      case DOUBLE:
+        return in -> String.valueOf(in.readDouble());
+      default:
+        throw new NotSupportedException();
+    }
+  }
+
+  private static ValueReader compileDecimal(final org.apache.avro.Schema writerSchema) {
+    final LogicalType logicalType = writerSchema.getLogicalType();
+    if (writerSchema.getType() != org.apache.avro.Schema.Type.BYTES
+        || !(logicalType instanceof LogicalTypes.Decimal)) {
+      throw new NotSupportedException();
+    }
+
+    final int scale = ((LogicalTypes.Decimal) logicalType).getScale();
+    return in -> {
+      final ByteBuffer buffer = in.readBytes(null);
+      final byte[] unscaled = new byte[buffer.remaining()];
+      buffer.get(unscaled);
+      return new BigDecimal(new BigInteger(unscaled), scale);
+    };
+  }
+
+  private static ValueReader compileArray(
+      final org.apache.avro.Schema writerSchema,
+      final Schema ksqlSchema,
+      final Schema compatibleSchema
+  ) {
+    final ValueReader element = compile(
+        writerSchema.getElementType(),
+        ksqlSchema.valueSchema(),
+        compatibleSchema.valueSchema()
+    );
+
+    return in -> {
+      long count = in.readArrayStart();
+      final List<Object> array = new ArrayList<>((int) Math.min(count, Integer.MAX_VALUE));
+      while (count != 0) {
+        for (long i = 0; i < count; i++) {
+          array.add(element.read(in));
+        }
+        count = in.arrayNext();
+      }
+      return array;
+    };
+  }
+
+  private static ValueReader compileMap(
+      final org.apache.avro.Schema writerSchema,
+      final Schema ksqlSchema,
+      final Schema compatibleSchema
+  ) {
+    if (writerSchema.getType() == org.apache.avro.Schema.Type.ARRAY) {
+      return compileMapEntries(writerSchema, ksqlSchema, compatibleSchema);
+    }
+
+    if (writerSchema.getType() != org.apache.avro.Schema.Type.MAP
+        || ksqlSchema.keySchema().type() != Schema.Type.STRING) {
+      throw new NotSupportedException();
+    }
+
+    final ValueReader value = compile(
+        writerSchema.getValueType(),
+        ksqlSchema.valueSchema(),
+        compatibleSchema.valueSchema()
+    );
+
+    return in -> {
+      final Map<Object, Object> map = new HashMap<>();
+      for (long count = in.readMapStart(); count != 0; count = in.mapNext()) {
+        for (long i = 0; i < count; i++) {
+          final String key = in.readString();
+          map.put(key, value.read(in));
+        }
+      }
+      return map;
+    };
+  }
+
+  private static ValueReader compileMapEntries(
+      final org.apache.avro.Schema writerSchema,
+      final Schema ksqlSchema,
+      final Schema compatibleSchema
+  ) {
+    // Connect writes maps with optional keys as arrays of key-value records:
+    final org.apache.avro.Schema entrySchema = writerSchema.getElementType();
+    if (entrySchema.getType() != org.apache.avro.Schema.Type.RECORD
+        || !MAP_ENTRY_TYPE.equals(entrySchema.getProp(CONNECT_INTERNAL_TYPE))
+        || entrySchema.getFields().size() != 2
+        || entrySchema.getField(MAP_KEY_FIELD) == null
+        || entrySchema.getField(MAP_VALUE_FIELD) == null) {
+      throw new NotSupportedException();
+    }
+
+    final boolean keyFirst = entrySchema.getField(MAP_KEY_FIELD).pos() == 0;
+    final ValueReader key = compile(
+        entrySchema.getField(MAP_KEY_FIELD).schema(),
+        ksqlSchema.keySchema(),
+        compatibleSchema.keySchema()
+    );
+    final ValueReader value = compile(
+        entrySchema.getField(MAP_VALUE_FIELD).schema(),
+        ksqlSchema.valueSchema(),
+        compatibleSchema.valueSchema()
+    );
+
+    return in -> {
+      final Map<Object, Object> map = new HashMap<>();
+      for (long count = in.readArrayStart(); count != 0; count = in.arrayNext()) {
+        for (long i = 0; i < count; i++) {
+          if (keyFirst) {
+            final Object k = key.read(in);
+            map.put(k, value.read(in));
+          } else {
+            final Object v = value.read(in);
+            map.put(key.read(in), v);
+          }
+        }
+      }
+      return map;
+    };
+  }
+
+  private static final class NotSupportedException extends RuntimeException {
+  }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.avro;
+
+import io.confluent.ksql.GenericRow;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.avro.io.Encoder;
+import org.apache.kafka.connect.data.Decimal;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+
+/**
+ * Encodes a {@link GenericRow} directly as Avro binary data.
+ *
+ * <p>The encoder is compiled once from the KSQL schema and the Avro schema Connect derives from
+ * it, and writes the same binary data as converting the row to a Connect {@code Struct} and
+ * writing that with {@code AvroData}.
+ *
+ * <p>{@link #create} returns empty for any Avro schema whose encoding is not handled, in which
+ * case callers should fall back to the Connect path.
+ */
+final class AvroRowEncoder {
+
+  private final ValueWriter[] writers;
+
+  /**
+   * @param ksqlSchema the KSQL schema of the row.
+   * @param avroSchema the Avro schema Connect derives from the KSQL schema.
+   * @return the encoder, or empty if the Avro schema is not supported.
+   */
+  static Optional<AvroRowEncoder> create(
+      final Schema ksqlSchema,
+      final org.apache.avro.Schema avroSchema
+  ) {
+    if (avroSchema.getType() != org.apache.avro.Schema.Type.RECORD) {
+      return Optional.empty();
+    }
+
+    try {
+      return Optional.of(new AvroRowEncoder(compileFields(ksqlSchema, avroSchema)));
+    } catch (final NotSupportedException e) {
+      return Optional.empty();
+    }
+  }
+
+  private AvroRowEncoder(final ValueWriter[] writers) {
+    this.writers = writers;
+  }
+
+  void encode(final GenericRow row, final Encoder out) throws IOException {
+    for (int i = 0; i < writers.length; i++) {
+      writers[i].write(row.get(i), out);
+    }
+  }
+
+  @FunctionalInterface
+  private interface ValueWriter {
+    void write(Object value, Encoder out) throws IOException;
+  }
+
+  private static ValueWriter[] compileFields(
+      final Schema ksqlSchema,
+      final org.apache.avro.Schema avroSchema
+  ) {
+    final List<Field> fields = ksqlSchema.fields();
+    final List<org.apache.avro.Schema.Field> avroFields = avroSchema.getFields();
+    if (fields.size() != avroFields.size()) {
+      throw new NotSupportedException();
+    }
+
+    final ValueWriter[] writers = new ValueWriter[fields.size()];
+    for (int i = 0; i < fields.size(); i++) {
+      writers[i] = compile(fields.get(i).schema(), avroFields.get(i).schema());
+    }
+    return writers;
+  }
+
+  // CHECKSTYLE_RULES.OFF: CyclomaticComplexity
+  private static ValueWriter compile(
+      final Schema ksqlSchema,
+      final org.apache.avro.Schema avroSchema
+  ) {
+    // CHECKSTYLE_RULES.ON: CyclomaticComplexity
+    final org.apache.avro.Schema.Type avroType = avroSchema.getType();
+    if (avroType == org.apache.avro.Schema.Type.UNION) {
+      return compileOptional(ksqlSchema, avroSchema);
+    }
+
+    switch (ksqlSchema.type()) {
+      case BOOLEAN:
+        if (avroType == org.apache.avro.Schema.Type.BOOLEAN) {
+          return (value, out) -> out.writeBoolean((Boolean) value);
+        }
+        break;
+      case INT32:
+        if (avroType == org.apache.avro.Schema.Type.INT) {
+          return (value, out) -> out.writeInt((Integer) value);
+        }
+        break;
+      case INT64:
+        if (avroType == org.apache.avro.Schema.Type.LONG) {
+          return (value, out) -> out.writeLong((Long) value);
+        }
+        break;
+      case FLOAT64:
+        if (avroType == org.apache.avro.Schema.Type.DOUBLE) {
+          return (value, out) -> out.writeDouble((Double) value);
+        }
+        break;
+      case STRING:
+        if (avroType == org.apache.avro.Schema.Type.STRING) {
+          return (value, out) -> out.writeString((String) value);
+        }
+        break;
+      case BYTES:
+        if (avroType == org.apache.avro.Schema.Type.BYTES) {
+          return (value, out) ->
+              out.writeBytes(Decimal.fromLogical(ksqlSchema, (BigDecimal) value));
+        }
+        break;
+      case ARRAY:
+        if (avroType == org.apache.avro.Schema.Type.ARRAY) {
+          return compileArray(ksqlSchema, avroSchema);
+        }
+        break;
+      case MAP:
+        if (avroType == org.apache.avro.Schema.Type.MAP) {
+          return compileMap(ksqlSchema, avroSchema);
+        }
+        if (avroType == org.apache.avro.Schema.Type.ARRAY) {
+          return compileMapEntries(ksqlSchema, avroSchema);
+        }
+        break;
+      case STRUCT:
+        if (avroType == org.apache.avro.Schema.Type.RECORD) {
+          return compileStruct(ksqlSchema, avroSchema);
+        }
+        break;
+      default:
+        break;
+    }
+
+    throw new NotSupportedException();
+  }
+
+  private static ValueWriter compileOptional(
+      final Schema ksqlSchema,
+      final org.apache.avro.Schema avroSchema
+  ) {
+    final List<org.apache.avro.Schema> types = avroSchema.getTypes();
+    if (types.size() != 2) {
+      throw new NotSupportedException();
+    }
+
+    final int nullIndex = types.get(0).getType() == org.apache.avro.Schema.Type.NULL ? 0 : 1;
+    final int valueIndex = 1 - nullIndex;
+    if (types.get(nullIndex).getType() != org.apache.avro.Schema.Type.NULL) {
+      throw new NotSupportedException();
+    }
+
+    final ValueWriter writer = compile(ksqlSchema, types.get(valueIndex));
+    return (value, out) -> {
+      if (value == null) {
+        out.writeIndex(nullIndex);
+      } else {
+        out.writeIndex(valueIndex);
+        writer.write(value, out);
+      }
+    };
+  }
+
+  private static ValueWriter compileArray(
+      final Schema ksqlSchema,
+      final org.apache.avro.Schema avroSchema
+  ) {
+    final ValueWriter element = compile(ksqlSchema.valueSchema(), avroSchema.getElementType());
+
+    return (value, out) -> {
+      final List<?> array = (List<?>) value;
+      out.writeArrayStart();
+      out.setItemCount(array.size());
+      for (final Object item : array) {
+        out.startItem();
+        element.write(item, out);
+      }
+      out.writeArrayEnd();
+    };
+  }
+
+  private static ValueWriter compileMap(
+      final Schema ksqlSchema,
+      final org.apache.avro.Schema avroSchema
+  ) {
+    if (ksqlSchema.keySchema().type() != Schema.Type.STRING) {
+      throw new NotSupportedException();
+    }
+
+    final ValueWriter val = compile(ksqlSchema.valueSchema(), avroSchema.getValueType());
+
+    return (value, out) -> {
+      final Map<?, ?> map = (Map<?, ?>) value;
+      out.writeMapStart();
+      out.setItemCount(map.size());
+      for (final Map.Entry<?, ?> e : map.entrySet()) {
+        out.startItem();
+        out.writeString((String) e.getKey());
+        val.write(e.getValue(), out);
+      }
+      out.writeMapEnd();
+    };
+  }
+
+  private static ValueWriter compileMapEntries(
+      final Schema ksqlSchema,
+      final org.apache.avro.Schema avroSchema
+  ) {
+    // Connect writes maps with optional keys as arrays of key-value records:
+    final org.apache.avro.Schema entrySchema = avroSchema.getElementType();
+    if (entrySchema.getType() != org.apache.avro.Schema.Type.RECORD
+        || entrySchema.getFields().size() != 2) {
+      throw new NotSupportedException();
+    }
+
+    final ValueWriter key = compile(
+        ksqlSchema.keySchema(),
+        entrySchema.getFields().get(0).schema()
+    );
+    final ValueWriter val = compile(
+        ksqlSchema.valueSchema(),
+        entrySchema.getFields().get(1).schema()
+    );
+
+    return (value, out) -> {
+      final Map<?, ?> map = (Map<?, ?>) value;
+      out.writeArrayStart();
+      out.setItemCount(map.size());
+      for (final Map.Entry<?, ?> e : map.entrySet()) {
+        out.startItem();
+        key.write(e.getKey(), out);
+        val.write(e.getValue(), out);
+      }
+      out.writeArrayEnd();
+    };
+  }
+
+  private static ValueWriter compileStruct(
+      final Schema ksqlSchema,
+      final org.apache.avro.Schema avroSchema
+  ) {
+    final Field[] fields = ksqlSchema.fields().toArray(new Field[0]);
+    final ValueWriter[] writers = compileFields(ksqlSchema, avroSchema);
+
+    return (value, out) -> {
+      final Struct struct = (Struct) value;
+      for (int i = 0; i < fields.length; i++) {
+        writers[i].write(struct.get(fields[i]), out);
+      }
+    };
+  }
+
+  private static final class NotSupportedException extends RuntimeException {
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.avro;
+
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.serde.GenericRowSerDe;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+
+/**
+ * Deserializes Avro values directly into a {@link GenericRow}, in schema field order.
+ *
+ * <p>The writer schema is looked up once per schema id, and compiled into an
+ * {@link AvroRowDecoder}. Data written with a schema the decoder does not support, or not in the
+ * schema registry wire format, is deserialized via Connect, as by {@link KsqlAvroSerdeFactory}.
+ *
+ * <p>Not thread safe.
+ */
+class KsqlAvroRowDeserializer implements Deserializer<GenericRow> {
+
+  private static final byte MAGIC_BYTE = 0x0;
+  private static final int HEADER_SIZE = 5;
+
+  private final Schema ksqlSchema;
+  private final Schema compatibleSchema;
+  private final SchemaRegistryClient schemaRegistryClient;
+  private final Deserializer<Object> connectDeserializer;
+  private final Map<Integer, Optional<AvroRowDecoder>> decoders = new HashMap<>();
+  private BinaryDecoder binaryDecoder;
+
+  KsqlAvroRowDeserializer(
+      final Schema ksqlSchema,
+      final Schema compatibleSchema,
+      final SchemaRegistryClient schemaRegistryClient,
+      final Deserializer<Object> connectDeserializer
+  ) {
+    this.ksqlSchema = Objects.requireNonNull(ksqlSchema, "ksqlSchema");
+    this.compatibleSchema = Objects.requireNonNull(compatibleSchema, "compatibleSchema");
+    this.schemaRegistryClient =
+        Objects.requireNonNull(schemaRegistryClient, "schemaRegistryClient");
+    this.connectDeserializer = Objects.requireNonNull(connectDeserializer, "connectDeserializer");
+  }
+
+  @Override
+  public void configure(final Map<String, ?> map, final boolean isKey) {
+  }
+
+  @Override
+  public GenericRow deserialize(final String topic, final byte[] bytes) {
+    if (bytes == null) {
+      return null;
+    }
+
+    if (bytes.length < HEADER_SIZE || bytes[0] != MAGIC_BYTE) {
+      return deserializeViaConnect(topic, bytes);
+    }
+
+    try {
+      final Optional<AvroRowDecoder> decoder = getDecoder(readSchemaId(bytes));
+      if (decoder.isPresent()) {
+        binaryDecoder = DecoderFactory.get()
+            .binaryDecoder(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE, binaryDecoder);
+
+        return decoder.get().decode(binaryDecoder);
+      }
+    } catch (final Exception e) {
+      throw new SerializationException(
+          "Error deserializing message from topic: " + topic, e);
+    }
+
+    return deserializeViaConnect(topic, bytes);
+  }
+
+  @Override
+  public void close() {
+    connectDeserializer.close();
+  }
+
+  private Optional<AvroRowDecoder> getDecoder(final int schemaId) throws Exception {
+    final Optional<AvroRowDecoder> cached = decoders.get(schemaId);
+    if (cached != null) {
+      return cached;
+    }
+
+    final ParsedSchema writerSchema = schemaRegistryClient.getSchemaById(schemaId);
+    final Optional<AvroRowDecoder> decoder = writerSchema instanceof AvroSchema
+        ? AvroRowDecoder.create(
+            ((AvroSchema) writerSchema).rawSchema(),
+            ksqlSchema,
+            compatibleSchema
+        )
+        : Optional.empty();
+
+    decoders.put(schemaId, decoder);
+    return decoder;
+  }
+
+  private GenericRow deserializeViaConnect(final String topic, final byte[] bytes) {
+    final Struct struct = (Struct) connectDeserializer.deserialize(topic, bytes);
+    if (struct == null) {
+      return null;
+    }
+
+    final List<Field> fields = struct.schema().fields();
+    final GenericRow row = new GenericRow(fields.size() + GenericRowSerDe.ADDITIONAL_CAPACITY);
+    for (final Field field : fields) {
+      row.append(struct.get(field));
+    }
+    return row;
+  }
+
+  private static int readSchemaId(final byte[] bytes) {
+    return ((bytes[1] & 0xFF) << 24)
+        | ((bytes[2] & 0xFF) << 16)
+        | ((bytes[3] & 0xFF) << 8)
+        | (bytes[4] & 0xFF);
+  }
+}
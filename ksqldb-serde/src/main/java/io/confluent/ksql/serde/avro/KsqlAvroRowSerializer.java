@@ -0,0 +1,127 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.avro;
+
+import io.confluent.ksql.GenericRow;
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+
+/**
+ * Serializes a {@link GenericRow} directly as Avro, in the schema registry wire format.
+ *
+ * <p>The first row written to each topic is serialized via Connect, as by
+ * {@link KsqlAvroSerdeFactory}, which registers, or looks up, the schema as usual. Later rows
+ * are encoded by an {@link AvroRowEncoder} using the schema id from the first row, giving the
+ * same bytes without building a Connect {@code Struct}.
+ *
+ * <p>Not thread safe.
+ */
+class KsqlAvroRowSerializer implements Serializer<GenericRow> {
+
+  private static final byte MAGIC_BYTE = 0x0;
+  private static final int HEADER_SIZE = 5;
+
+  private final Schema ksqlSchema;
+  private final Optional<AvroRowEncoder> encoder;
+  private final Serializer<Object> connectSerializer;
+  private final Map<String, Integer> schemaIds = new HashMap<>();
+  private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+  private BinaryEncoder binaryEncoder;
+
+  KsqlAvroRowSerializer(
+      final Schema ksqlSchema,
+      final org.apache.avro.Schema avroSchema,
+      final Serializer<Object> connectSerializer
+  ) {
+    this.ksqlSchema = Objects.requireNonNull(ksqlSchema, "ksqlSchema");
+    this.encoder = AvroRowEncoder.create(ksqlSchema, Objects.requireNonNull(avroSchema, "avro"));
+    this.connectSerializer = Objects.requireNonNull(connectSerializer, "connectSerializer");
+  }
+
+  @Override
+  public void configure(final Map<String, ?> map, final boolean isKey) {
+  }
+
+  @Override
+  public byte[] serialize(final String topic, final GenericRow data) {
+    if (data == null) {
+      return connectSerializer.serialize(topic, null);
+    }
+
+    if (data.size() != ksqlSchema.fields().size()) {
+      throw new SerializationException("Field count mismatch."
+          + " expected: " + ksqlSchema.fields().size()
+          + ", got: " + data.size()
+      );
+    }
+
+    final Integer schemaId = schemaIds.get(topic);
+    if (!encoder.isPresent() || schemaId == null) {
+      return serializeViaConnect(topic, data);
+    }
+
+    try {
+      buffer.reset();
+      buffer.write(MAGIC_BYTE);
+      buffer.write(schemaId >>> 24);
+      buffer.write(schemaId >>> 16);
+      buffer.write(schemaId >>> 8);
+      buffer.write(schemaId);
+
+      binaryEncoder = EncoderFactory.get().binaryEncoder(buffer, binaryEncoder);
+      encoder.get().encode(data, binaryEncoder);
+      binaryEncoder.flush();
+
+      return buffer.toByteArray();
+    } catch (final Exception e) {
+      throw new SerializationException(
+          "Error serializing message to topic: " + topic, e);
+    }
+  }
+
+  @Override
+  public void close() {
+    connectSerializer.close();
+  }
+
+  private byte[] serializeViaConnect(final String topic, final GenericRow data) {
+    final Struct struct = new Struct(ksqlSchema);
+    for (int i = 0; i < data.size(); i++) {
+      struct.put(ksqlSchema.fields().get(i), data.get(i));
+    }
+
+    final byte[] bytes = connectSerializer.serialize(topic, struct);
+
+    if (encoder.isPresent() && bytes != null && bytes.length >= HEADER_SIZE
+        && bytes[0] == MAGIC_BYTE) {
+      schemaIds.put(topic, ((bytes[1] & 0xFF) << 24)
+          | ((bytes[2] & 0xFF) << 16)
+          | ((bytes[3] & 0xFF) << 8)
+          | (bytes[4] & 0xFF));
+    }
+
+    return bytes;
+  }
+}
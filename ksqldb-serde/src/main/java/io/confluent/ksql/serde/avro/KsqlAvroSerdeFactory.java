@@ -20,6 +20,7 @@ import io.confluent.connect.avro.AvroConverter;
 import io.confluent.connect.avro.AvroDataConfig;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.kafka.serializers.AbstractKafkaSchemaSerDeConfig;
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.serde.KsqlSerdeFactory;
 import io.confluent.ksql.serde.connect.KsqlConnectDeserializer;
@@ -29,6 +30,7 @@ import io.confluent.ksql.serde.tls.ThreadLocalSerializer;
 import io.confluent.ksql.util.KsqlConfig;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Supplier;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serde;
@@ -79,6 +81,36 @@ public class KsqlAvroSerdeFactory implements KsqlSerdeFactory {
     );
   }
 
+  @Override
+  public Optional<Serde<GenericRow>> createRowSerde(
+      final PersistenceSchema schema,
+      final KsqlConfig ksqlConfig,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory
+  ) {
+    final Supplier<Serializer<GenericRow>> serializerSupplier = () -> new KsqlAvroRowSerializer(
+        schema.serializedSchema(),
+        AvroSchemas.getAvroSchema(schema, fullSchemaName),
+        createConnectSerializer(schema, ksqlConfig, schemaRegistryClientFactory)
+    );
+
+    final Supplier<Deserializer<GenericRow>> deserializerSupplier =
+        () -> new KsqlAvroRowDeserializer(
+            schema.serializedSchema(),
+            AvroSchemas.getAvroCompatibleConnectSchema(schema.serializedSchema(), fullSchemaName),
+            schemaRegistryClientFactory.get(),
+            createConnectDeserializer(schema, ksqlConfig, schemaRegistryClientFactory)
+        );
+
+    // Sanity check:
+    serializerSupplier.get();
+    deserializerSupplier.get();
+
+    return Optional.of(Serdes.serdeFrom(
+        new ThreadLocalSerializer<>(serializerSupplier),
+        new ThreadLocalDeserializer<>(deserializerSupplier)
+    ));
+  }
+
   @Override
   public boolean equals(final Object o) {
     if (this == o) {
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.compact;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.serde.GenericRowSerDe;
+import io.confluent.ksql.util.IntArrayList;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+
+/**
+ * Deserializes a {@link GenericRow} from the compact layout described in {@link CompactRowSerde}.
+ */
+class CompactRowDeserializer implements Deserializer<GenericRow> {
+
+  private final Schema[] fieldSchemas;
+
+  CompactRowDeserializer(final Schema schema) {
+    this.fieldSchemas = CompactRowSerde.fieldSchemas(schema);
+  }
+
+  @Override
+  public void configure(final Map<String, ?> configs, final boolean isKey) {
+  }
+
+  @Override
+  public GenericRow deserialize(final String topic, final byte[] bytes) {
+    if (bytes == null) {
+      return null;
+    }
+
+    try {
+      final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      final byte version = buffer.get();
+      if (version != CompactRowSerde.VERSION) {
+        throw new SerializationException("Unknown compact row version: " + version);
+      }
+
+      final GenericRow row =
+          new GenericRow(fieldSchemas.length + GenericRowSerDe.ADDITIONAL_CAPACITY);
+
+      final byte[] nulls = readNulls(buffer, fieldSchemas.length);
+      for (int i = 0; i < fieldSchemas.length; i++) {
+        row.append(isNull(nulls, i) ? null : readValue(buffer, fieldSchemas[i]));
+      }
+
+      if (buffer.hasRemaining()) {
+        throw new SerializationException("Unexpected trailing bytes: " + buffer.remaining());
+      }
+
+      return row;
+    } catch (final Exception e) {
+      throw new SerializationException("Error deserializing compact row", e);
+    }
+  }
+
+  @Override
+  public void close() {
+  }
+
+  private static byte[] readNulls(final ByteBuffer buffer, final int fieldCount) {
+    final byte[] nulls = new byte[CompactRowSerde.bitmapLength(fieldCount)];
+    buffer.get(nulls);
+    return nulls;
+  }
+
+  private static boolean isNull(final byte[] nulls, final int index) {
+    return (nulls[index / 8] & (1 << (index % 8))) != 0;
+  }
+
+  private static Object readValue(final ByteBuffer buffer, final Schema schema) {
+    switch (schema.type()) {
+      case BOOLEAN:
+        return buffer.get() != 0;
+      case INT32:
+        return buffer.getInt();
+      case INT64:
+        return buffer.getLong();
+      case FLOAT64:
+        return buffer.getDouble();
+      case STRING:
+        final int length = buffer.getInt();
+        final String value =
+            new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+      case STRUCT:
+        return readStruct(buffer, schema);
+      case ARRAY:
+        return readIntArray(buffer);
+      default:
+        throw new IllegalArgumentException("Unsupported type: " + schema.type());
+    }
+  }
+
+  private static Struct readStruct(final ByteBuffer buffer, final Schema schema) {
+    final List<Field> fields = schema.fields();
+    final Struct struct = new Struct(schema);
+    final byte[] nulls = readNulls(buffer, fields.size());
+    for (int i = 0; i < fields.size(); i++) {
+      if (!isNull(nulls, i)) {
+        struct.put(fields.get(i), readValue(buffer, fields.get(i).schema()));
+      }
+    }
+    return struct;
+  }
+
+  private static IntArrayList readIntArray(final ByteBuffer buffer) {
+    final int size = buffer.getInt();
+    final boolean hasNulls = buffer.get() != 0;
+
+    if (!hasNulls) {
+      final int[] values = new int[size];
+      buffer.asIntBuffer().get(values);
+      buffer.position(buffer.position() + size * Integer.BYTES);
+      return IntArrayList.wrap(values);
+    }
+
+    final byte[] nulls = readNulls(buffer, size);
+    final IntArrayList list = new IntArrayList(size);
+    for (int i = 0; i < size; i++) {
+      list.add(isNull(nulls, i) ? null : buffer.getInt());
+    }
+    return list;
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.compact;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import java.util.List;
+import java.util.Objects;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.connect.data.ConnectSchema;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+
+/**
+ * Serde for rows held in internal state stores, e.g. aggregation state.
+ *
+ * <p>Rows are written as a version byte followed by a null bitmap and then each non-null field in
+ * schema order: {@code BOOLEAN} as one byte, {@code INT} as four bytes, {@code BIGINT} and
+ * {@code DOUBLE} as eight bytes, {@code STRING} as a length prefixed UTF-8 array and
+ * {@code STRUCT} recursively, with its own null bitmap. There is no field metadata or schema id
+ * in the serialized form, so the schema used to read a row must match the one used to write it.
+ *
+ * <p>An {@code ARRAY<INT>} is written as its length and a flag saying if it has null elements,
+ * followed by a null bitmap if it does, and then its non-null elements packed four bytes each.
+ * It is read back into an {@link io.confluent.ksql.util.IntArrayList}, so aggregate functions
+ * such as {@code COUNT_DISTINCT} can update their state in place, rather than copying a list of
+ * boxed integers on every update.
+ *
+ * <p>Only schemas made up of the above types are supported. See {@link #supports(Schema)}.
+ */
+public final class CompactRowSerde {
+
+  static final byte VERSION = 0;
+
+  private CompactRowSerde() {
+  }
+
+  /**
+   * @param schema the value schema of the row.
+   * @return {@code true} if rows with the supplied schema can be serialized by this serde.
+   */
+  public static boolean supports(final Schema schema) {
+    if (schema.type() != Schema.Type.STRUCT) {
+      return false;
+    }
+
+    return schema.fields().stream()
+        .map(Field::schema)
+        .allMatch(CompactRowSerde::supportsField);
+  }
+
+  public static Serde<GenericRow> create(final PersistenceSchema schema) {
+    final ConnectSchema connectSchema = Objects.requireNonNull(schema, "schema")
+        .serializedSchema();
+
+    if (schema.isUnwrapped() || !supports(connectSchema)) {
+      throw new IllegalArgumentException("Schema not supported by compact row serde: " + schema);
+    }
+
+    return Serdes.serdeFrom(
+        new CompactRowSerializer(connectSchema),
+        new CompactRowDeserializer(connectSchema)
+    );
+  }
+
+  static Schema[] fieldSchemas(final Schema schema) {
+    final List<Field> fields = schema.fields();
+    final Schema[] schemas = new Schema[fields.size()];
+    for (int i = 0; i < schemas.length; i++) {
+      schemas[i] = fields.get(i).schema();
+    }
+    return schemas;
+  }
+
+  static int bitmapLength(final int fieldCount) {
+    return (fieldCount + 7) / 8;
+  }
+
+  private static boolean supportsField(final Schema schema) {
+    if (schema.name() != null && schema.type() != Schema.Type.STRUCT) {
+      // Logical types, e.g. DECIMAL:
+      return false;
+    }
+
+    switch (schema.type()) {
+      case BOOLEAN:
+      case INT32:
+      case INT64:
+      case FLOAT64:
+      case STRING:
+        return true;
+      case STRUCT:
+        return supports(schema);
+      case ARRAY:
+        return schema.valueSchema().type() == Schema.Type.INT32
+            && schema.valueSchema().name() == null;
+      default:
+        return false;
+    }
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.compact;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.util.IntArrayList;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+
+/**
+ * Serializes a {@link GenericRow} in the compact layout described in {@link CompactRowSerde}.
+ */
+class CompactRowSerializer implements Serializer<GenericRow> {
+
+  private static final int INITIAL_BUFFER_SIZE = 64;
+
+  private final Schema[] fieldSchemas;
+
+  CompactRowSerializer(final Schema schema) {
+    this.fieldSchemas = CompactRowSerde.fieldSchemas(schema);
+  }
+
+  @Override
+  public void configure(final Map<String, ?> configs, final boolean isKey) {
+  }
+
+  @Override
+  public byte[] serialize(final String topic, final GenericRow data) {
+    if (data == null) {
+      return null;
+    }
+
+    if (data.size() != fieldSchemas.length) {
+      throw new SerializationException("Field count mismatch."
+          + " expected: " + fieldSchemas.length
+          + ", got: " + data.size());
+    }
+
+    try {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+      final DataOutputStream out = new DataOutputStream(bytes);
+      out.writeByte(CompactRowSerde.VERSION);
+      writeFields(out, fieldSchemas, data::get);
+      return bytes.toByteArray();
+    } catch (final Exception e) {
+      throw new SerializationException("Error serializing compact row", e);
+    }
+  }
+
+  @Override
+  public void close() {
+  }
+
+  private static void writeFields(
+      final DataOutputStream out,
+      final Schema[] schemas,
+      final IntFunction<Object> values
+  ) throws IOException {
+    final byte[] nulls = new byte[CompactRowSerde.bitmapLength(schemas.length)];
+    for (int i = 0; i < schemas.length; i++) {
+      if (values.apply(i) == null) {
+        nulls[i / 8] |= 1 << (i % 8);
+      }
+    }
+    out.write(nulls);
+
+    for (int i = 0; i < schemas.length; i++) {
+      final Object value = values.apply(i);
+      if (value != null) {
+        writeValue(out, schemas[i], value);
+      }
+    }
+  }
+
+  private static void writeValue(
+      final DataOutputStream out,
+      final Schema schema,
+      final Object value
+  ) throws IOException {
+    switch (schema.type()) {
+      case BOOLEAN:
+        out.writeBoolean((Boolean) value);
+        break;
+      case INT32:
+        out.writeInt((Integer) value);
+        break;
+      case INT64:
+        out.writeLong((Long) value);
+        break;
+      case FLOAT64:
+        out.writeDouble((Double) value);
+        break;
+      case STRING:
+        final byte[] utf8 = ((String) value).getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+        break;
+      case STRUCT:
+        final Struct struct = (Struct) value;
+        final Schema[] fieldSchemas = CompactRowSerde.fieldSchemas(schema);
+        writeFields(out, fieldSchemas, i -> struct.get(schema.fields().get(i)));
+        break;
+      case ARRAY:
+        writeIntArray(out, (List<?>) value);
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported type: " + schema.type());
+    }
+  }
+
+  private static void writeIntArray(
+      final DataOutputStream out,
+      final List<?> list
+  ) throws IOException {
+    final int size = list.size();
+    out.writeInt(size);
+
+    if (list instanceof IntArrayList && !((IntArrayList) list).hasNulls()) {
+      // Aggregate state read by the deserializer, written without boxing:
+      final IntArrayList ints = (IntArrayList) list;
+      final ByteBuffer packed = ByteBuffer.allocate(size * Integer.BYTES);
+      for (int i = 0; i < size; i++) {
+        packed.putInt(ints.getInt(i));
+      }
+      out.writeBoolean(false);
+      out.write(packed.array());
+      return;
+    }
+
+    final boolean hasNulls = list.contains(null);
+    out.writeBoolean(hasNulls);
+    if (hasNulls) {
+      final byte[] nulls = new byte[CompactRowSerde.bitmapLength(size)];
+      for (int i = 0; i < size; i++) {
+        if (list.get(i) == null) {
+          nulls[i / 8] |= 1 << (i % 8);
+        }
+      }
+      out.write(nulls);
+    }
+
+    final ByteBuffer packed = ByteBuffer.allocate(size * Integer.BYTES);
+    for (final Object element : list) {
+      if (element != null) {
+        packed.putInt((Integer) element);
+      }
+    }
+    out.write(packed.array(), 0, packed.position());
+  }
+}
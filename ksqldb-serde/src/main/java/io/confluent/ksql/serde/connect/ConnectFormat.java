@@ -57,6 +57,11 @@ public abstract class ConnectFormat implements Format {
     return true;
   }
 
+  @Override
+  public boolean supportsFieldProjection() {
+    return true;
+  }
+
   @Override
   public List<SimpleColumn> toColumns(final ParsedSchema schema) {
     final Schema connectSchema = toKsqlTransformer.apply(toConnectSchema(schema));
@@ -0,0 +1,375 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.connect;
+
+import com.google.common.collect.Maps;
+import io.confluent.ksql.util.DecimalUtil;
+import io.confluent.ksql.util.KsqlException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import org.apache.kafka.connect.data.Date;
+import org.apache.kafka.connect.data.Decimal;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Time;
+import org.apache.kafka.connect.data.Timestamp;
+import org.apache.kafka.connect.errors.DataException;
+
+/**
+ * A translation of values of one Connect schema to the KSQL schema, compiled once.
+ *
+ * <p>Compiling validates the Connect types against the KSQL types, matches struct fields by name,
+ * ignoring case, and builds the paths used in error messages. Translating a value then only
+ * allocates the translated value.
+ */
+final class ConnectTranslationPlan {
+
+  private static final String PATH_SEPARATOR = "->";
+
+  private final Schema connectSchema;
+  private final Coercer coercer;
+
+  static ConnectTranslationPlan compile(final Schema schema, final Schema connectSchema) {
+    return new ConnectTranslationPlan(
+        connectSchema,
+        compile(
+            Objects.requireNonNull(schema, "schema"),
+            Objects.requireNonNull(connectSchema, "connectSchema"),
+            ""
+        )
+    );
+  }
+
+  private ConnectTranslationPlan(final Schema connectSchema, final Coercer coercer) {
+    this.connectSchema = connectSchema;
+    this.coercer = coercer;
+  }
+
+  Schema getConnectSchema() {
+    return connectSchema;
+  }
+
+  Object translate(final Object connectValue) {
+    return coercer.coerce(connectValue);
+  }
+
+  @FunctionalInterface
+  private interface Coercer {
+    Object coerce(Object connectValue);
+  }
+
+  private static Coercer compile(
+      final Schema schema,
+      final Schema connectSchema,
+      final String pathStr
+  ) {
+    if (connectSchema == null) {
+      return value -> null;
+    }
+
+    try {
+      validateSchema(pathStr, schema, connectSchema);
+    } catch (final RuntimeException e) {
+      // Fail when a value is translated, not when compiling, so that types that never carry
+      // a value, e.g. the elements of an empty array, are not rejected:
+      return value -> {
+        validateSchema(pathStr, schema, connectSchema);
+        return null;
+      };
+    }
+
+    final Coercer typeCoercer = compileType(schema, connectSchema, pathStr);
+    final Coercer logicalCoercer = compileLogicalType(connectSchema);
+    if (logicalCoercer == null) {
+      return value -> value == null ? null : typeCoercer.coerce(value);
+    }
+
+    return value -> value == null
+        ? null
+        : typeCoercer.coerce(logicalCoercer.coerce(value));
+  }
+
+  private static Coercer compileLogicalType(final Schema connectSchema) {
+    if (connectSchema.name() == null) {
+      return null;
+    }
+    switch (connectSchema.name()) {
+      case Date.LOGICAL_NAME:
+        return value -> Date.fromLogical(connectSchema, (java.util.Date) value);
+      case Time.LOGICAL_NAME:
+        return value -> Time.fromLogical(connectSchema, (java.util.Date) value);
+      case Timestamp.LOGICAL_NAME:
+        return value -> Timestamp.fromLogical(connectSchema, (java.util.Date) value);
+      default:
+        return null;
+    }
+  }
+
+  private static Coercer compileType(
+      final Schema schema,
+      final Schema connectSchema,
+      final String pathStr
+  ) {
+    switch (schema.type()) {
+      case INT64:
+        return value -> ((Number) value).longValue();
+      case INT32:
+        return value -> ((Number) value).intValue();
+      case FLOAT64:
+        return value -> ((Number) value).doubleValue();
+      case BYTES:
+        return compileBytes(connectSchema);
+      case ARRAY:
+        return compileArray(schema, connectSchema, pathStr);
+      case MAP:
+        return compileMap(schema, connectSchema, pathStr);
+      case STRUCT:
+        return compileStruct(schema, connectSchema, pathStr);
+      case STRING:
+        // use String.valueOf to convert various int types and Boolean to string
+        return String::valueOf;
+      default:
+        return value -> value;
+    }
+  }
+
+  private static Coercer compileBytes(final Schema connectSchema) {
+    final boolean decimal = DecimalUtil.isDecimal(connectSchema);
+    return value -> {
+      if (!decimal) {
+        throw new KsqlException("BYTES type must be DECIMAL");
+      }
+      if (!(value instanceof BigDecimal)) {
+        throw new KsqlException(
+            "must serialize decimal type as BigDecimal. Got: " + value.getClass());
+      }
+      return value;
+    };
+  }
+
+  private static Coercer compileArray(
+      final Schema schema,
+      final Schema connectSchema,
+      final String pathStr
+  ) {
+    final Coercer element = compile(
+        schema.valueSchema(),
+        connectSchema.valueSchema(),
+        pathStr + PATH_SEPARATOR + "ARRAY"
+    );
+
+    return value -> {
+      final List<?> connectArray = (List<?>) value;
+      final List<Object> ksqlArray = new ArrayList<>(connectArray.size());
+      for (final Object item : connectArray) {
+        ksqlArray.add(element.coerce(item));
+      }
+      return ksqlArray;
+    };
+  }
+
+  private static Coercer compileMap(
+      final Schema schema,
+      final Schema connectSchema,
+      final String pathStr
+  ) {
+    final Coercer key = compile(
+        schema.keySchema(),
+        connectSchema.keySchema(),
+        pathStr + PATH_SEPARATOR + "MAP_KEY"
+    );
+    final Coercer val = compile(
+        schema.valueSchema(),
+        connectSchema.valueSchema(),
+        pathStr + PATH_SEPARATOR + "MAP_VAL"
+    );
+
+    return value -> {
+      final Map<?, ?> connectMap = (Map<?, ?>) value;
+      final Map<Object, Object> ksqlMap = Maps.newHashMapWithExpectedSize(connectMap.size());
+      // streams are expensive, so we don't use them from serdes.
+      connectMap.forEach((k, v) -> ksqlMap.put(key.coerce(k), val.coerce(v)));
+      return ksqlMap;
+    };
+  }
+
+  private static Coercer compileStruct(
+      final Schema schema,
+      final Schema connectSchema,
+      final String pathStr
+  ) {
+    final Map<String, Field> caseInsensitiveFieldMap = getCaseInsensitiveFieldMap(connectSchema);
+
+    final List<Field> ksqlFields = new ArrayList<>(schema.fields().size());
+    final List<Field> connectFields = new ArrayList<>(schema.fields().size());
+    final List<Coercer> fieldCoercers = new ArrayList<>(schema.fields().size());
+
+    for (final Field field : schema.fields()) {
+      final Field connectField = caseInsensitiveFieldMap.get(field.name().toUpperCase());
+      if (connectField == null) {
+        continue;
+      }
+
+      ksqlFields.add(field);
+      connectFields.add(connectField);
+      fieldCoercers.add(compile(
+          field.schema(),
+          connectField.schema(),
+          pathStr + PATH_SEPARATOR + field.name()
+      ));
+    }
+
+    final Field[] ksqlFieldArray = ksqlFields.toArray(new Field[0]);
+    final Field[] connectFieldArray = connectFields.toArray(new Field[0]);
+    final Coercer[] coercerArray = fieldCoercers.toArray(new Coercer[0]);
+
+    return value -> {
+      final Struct connectStruct = (Struct) value;
+      final Struct ksqlStruct = new Struct(schema);
+      for (int i = 0; i < ksqlFieldArray.length; i++) {
+        // make sure to get/put the field using the Field object to avoid a lookup in Struct
+        final Object fieldValue = connectStruct.get(connectFieldArray[i]);
+        ksqlStruct.put(ksqlFieldArray[i], coercerArray[i].coerce(fieldValue));
+      }
+      return ksqlStruct;
+    };
+  }
+
+  private static Map<String, Field> getCaseInsensitiveFieldMap(final Schema schema) {
+    final Map<String, Field> fieldsByName = new HashMap<>();
+    schema.fields().forEach(
+        field -> fieldsByName.put(field.name().toUpperCase(), field)
+    );
+    return fieldsByName;
+  }
+
+  private static void throwTypeMismatchException(
+      final String pathStr,
+      final Schema schema,
+      final Schema connectSchema
+  ) {
+    throw new DataException(
+        String.format(
+            "Cannot deserialize type %s as type %s for path: %s",
+            connectSchema.type().getName(),
+            schema.type().getName(),
+            pathStr));
+  }
+
+  private static void validateType(
+      final String pathStr,
+      final Schema schema,
+      final Schema connectSchema,
+      final Schema.Type[] validTypes
+  ) {
+    for (final Schema.Type type : validTypes) {
+      if (connectSchema.type().equals(type)) {
+        return;
+      }
+    }
+    throwTypeMismatchException(pathStr, schema, connectSchema);
+  }
+
+  private static void validateType(
+      final String pathStr,
+      final Schema schema,
+      final Schema connectSchema,
+      final Predicate<Schema> requirement
+  ) {
+    if (requirement.test(connectSchema)) {
+      return;
+    }
+    throwTypeMismatchException(pathStr, schema, connectSchema);
+  }
+
+  private static void validateType(
+      final String pathStr,
+      final Schema schema,
+      final Schema connectSchema
+  ) {
+    if (!connectSchema.type().equals(schema.type())) {
+      throwTypeMismatchException(pathStr, schema, connectSchema);
+    }
+  }
+
+  private static final Schema.Type[] INT64_ACCEPTABLE_TYPES = {
+      Schema.Type.INT64,
+      Schema.Type.INT32,
+      Schema.Type.INT16,
+      Schema.Type.INT8
+  };
+
+  private static final Schema.Type[] INT32_ACCEPTABLE_TYPES = {
+      Schema.Type.INT32,
+      Schema.Type.INT16,
+      Schema.Type.INT8
+  };
+
+  private static final Schema.Type[] FLOAT64_ACCEPTABLE_TYPES = {
+      Schema.Type.FLOAT32,
+      Schema.Type.FLOAT64
+  };
+
+  private static final Schema.Type[] STRING_ACCEPTABLE_TYPES = {
+      Schema.Type.INT8,
+      Schema.Type.INT16,
+      Schema.Type.INT32,
+      Schema.Type.INT64,
+      Schema.Type.FLOAT32,
+      Schema.Type.FLOAT64,
+      Schema.Type.BOOLEAN,
+      Schema.Type.STRING
+  };
+
+  private static void validateSchema(
+      final String pathStr,
+      final Schema schema,
+      final Schema connectSchema
+  ) {
+    switch (schema.type()) {
+      case BOOLEAN:
+      case ARRAY:
+      case MAP:
+      case STRUCT:
+        validateType(pathStr, schema, connectSchema);
+        break;
+      case STRING:
+        validateType(pathStr, schema, connectSchema, STRING_ACCEPTABLE_TYPES);
+        break;
+      case INT64:
+        validateType(pathStr, schema, connectSchema, INT64_ACCEPTABLE_TYPES);
+        break;
+      case INT32:
+        validateType(pathStr, schema, connectSchema, INT32_ACCEPTABLE_TYPES);
+        break;
+      case FLOAT64:
+        validateType(pathStr, schema, connectSchema, FLOAT64_ACCEPTABLE_TYPES);
+        break;
+      case BYTES:
+        validateType(pathStr, schema, connectSchema, s -> Decimal.LOGICAL_NAME.equals(s.name()));
+        break;
+      default:
+        throw new RuntimeException(
+            "Unexpected data type seen in schema: " + schema.type().getName());
+    }
+  }
+}
@@ -19,6 +19,7 @@ import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.util.DecimalUtil;
 import io.confluent.ksql.util.KsqlException;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
@@ -70,28 +71,7 @@ public class KsqlDelimitedDeserializer implements Deserializer<Object> {
     }
 
     try {
-      final String recordCsvString = new String(bytes, StandardCharsets.UTF_8);
-      final List<CSVRecord> csvRecords = CSVParser.parse(recordCsvString, csvFormat)
-          .getRecords();
-
-      if (csvRecords.isEmpty()) {
-        throw new KsqlException("No fields in record");
-      }
-
-      final CSVRecord csvRecord = csvRecords.get(0);
-      if (csvRecord == null || csvRecord.size() == 0) {
-        throw new KsqlException("No fields in record.");
-      }
-
-      if (csvRecord.size() != schema.fields().size()) {
-        throw new KsqlException(
-            String.format(
-                "Unexpected field count, csvFields:%d schemaFields:%d",
-              csvRecord.size(),
-                schema.fields().size()
-          )
-        );
-      }
+      final CSVRecord csvRecord = parseRecord(bytes, csvFormat, schema.fields().size());
 
       final Struct struct = new Struct(schema);
 
@@ -117,7 +97,38 @@ public class KsqlDelimitedDeserializer implements Deserializer<Object> {
   public void close() {
   }
 
-  private static Object enforceFieldType(
+  static CSVRecord parseRecord(
+      final byte[] bytes,
+      final CSVFormat csvFormat,
+      final int fieldCount
+  ) throws IOException {
+    final String recordCsvString = new String(bytes, StandardCharsets.UTF_8);
+    final List<CSVRecord> csvRecords = CSVParser.parse(recordCsvString, csvFormat)
+        .getRecords();
+
+    if (csvRecords.isEmpty()) {
+      throw new KsqlException("No fields in record");
+    }
+
+    final CSVRecord csvRecord = csvRecords.get(0);
+    if (csvRecord == null || csvRecord.size() == 0) {
+      throw new KsqlException("No fields in record.");
+    }
+
+    if (csvRecord.size() != fieldCount) {
+      throw new KsqlException(
+          String.format(
+              "Unexpected field count, csvFields:%d schemaFields:%d",
+            csvRecord.size(),
+              fieldCount
+        )
+      );
+    }
+
+    return csvRecord;
+  }
+
+  static Object enforceFieldType(
       final Schema fieldSchema,
       final String delimitedField
   ) {
@@ -137,7 +148,7 @@ public class KsqlDelimitedDeserializer implements Deserializer<Object> {
     return parser.apply(delimitedField);
   }
 
-  private static void throwOnUnsupported(final Schema schema) {
+  static void throwOnUnsupported(final Schema schema) {
     if (schema.type() != Type.STRUCT) {
       throw new IllegalArgumentException("DELIMITED expects all top level schemas to be STRUCTs");
     }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.delimited;
+
+import static io.confluent.ksql.serde.delimited.KsqlDelimitedDeserializer.enforceFieldType;
+import static io.confluent.ksql.serde.delimited.KsqlDelimitedDeserializer.parseRecord;
+import static io.confluent.ksql.serde.delimited.KsqlDelimitedDeserializer.throwOnUnsupported;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import io.confluent.ksql.serde.GenericRowSerDe;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.connect.data.ConnectSchema;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+
+/**
+ * Deserializes delimited values directly into a {@link GenericRow}, in schema field order.
+ */
+class KsqlDelimitedRowDeserializer implements Deserializer<GenericRow> {
+
+  private final Schema[] fieldSchemas;
+  private final CSVFormat csvFormat;
+
+  KsqlDelimitedRowDeserializer(
+      final PersistenceSchema schema,
+      final CSVFormat csvFormat
+  ) {
+    final ConnectSchema connectSchema = Objects.requireNonNull(schema, "schema")
+        .serializedSchema();
+    throwOnUnsupported(connectSchema);
+    this.fieldSchemas = connectSchema.fields().stream()
+        .map(Field::schema)
+        .toArray(Schema[]::new);
+    this.csvFormat = Objects.requireNonNull(csvFormat, "csvFormat");
+  }
+
+  @Override
+  public void configure(final Map<String, ?> map, final boolean b) {
+  }
+
+  @Override
+  public GenericRow deserialize(final String topic, final byte[] bytes) {
+    if (bytes == null) {
+      return null;
+    }
+
+    try {
+      final CSVRecord csvRecord = parseRecord(bytes, csvFormat, fieldSchemas.length);
+
+      final GenericRow row =
+          new GenericRow(fieldSchemas.length + GenericRowSerDe.ADDITIONAL_CAPACITY);
+
+      for (int i = 0; i < fieldSchemas.length; i++) {
+        final String value = csvRecord.get(i);
+        row.append(value == null ? null : enforceFieldType(fieldSchemas[i], value));
+      }
+      return row;
+    } catch (final Exception e) {
+      throw new SerializationException("Error deserializing delimited row", e);
+    }
+  }
+
+  @Override
+  public void close() {
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.delimited;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.connect.data.Field;
+
+/**
+ * Serializes a {@link GenericRow} directly to delimited text, in schema field order.
+ */
+class KsqlDelimitedRowSerializer implements Serializer<GenericRow> {
+
+  private final List<Field> fields;
+  private final CSVFormat csvFormat;
+
+  KsqlDelimitedRowSerializer(
+      final PersistenceSchema schema,
+      final CSVFormat csvFormat
+  ) {
+    this.fields = Objects.requireNonNull(schema, "schema").serializedSchema().fields();
+    this.csvFormat = Objects.requireNonNull(csvFormat, "csvFormat");
+  }
+
+  @Override
+  public void configure(final Map<String, ?> map, final boolean b) {
+  }
+
+  @Override
+  public byte[] serialize(final String topic, final GenericRow data) {
+    if (data == null) {
+      return null;
+    }
+
+    if (data.size() != fields.size()) {
+      throw new SerializationException("Field count mismatch."
+          + " expected: " + fields.size()
+          + ", got: " + data.size()
+      );
+    }
+
+    try {
+      return KsqlDelimitedSerializer.print(csvFormat, fields, data::get);
+    } catch (final Exception e) {
+      throw new SerializationException("Error serializing CSV message", e);
+    }
+  }
+
+  @Override
+  public void close() {
+  }
+}
@@ -17,6 +17,7 @@ package io.confluent.ksql.serde.delimited;
 
 import com.google.errorprone.annotations.Immutable;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.schema.connect.SchemaWalker;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.serde.Delimiter;
@@ -73,6 +74,20 @@ public class KsqlDelimitedSerdeFactory implements KsqlSerdeFactory {
     );
   }
 
+  @Override
+  public Optional<Serde<GenericRow>> createRowSerde(
+      final PersistenceSchema schema,
+      final KsqlConfig ksqlConfig,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory
+  ) {
+    validate(schema);
+
+    return Optional.of(Serdes.serdeFrom(
+        new KsqlDelimitedRowSerializer(schema, csvFormat),
+        new KsqlDelimitedRowDeserializer(schema, csvFormat)
+    ));
+  }
+
   private static class SchemaValidator implements SchemaWalker.Visitor<Void, Void> {
 
     public Void visitPrimitive(final Schema schema) {
@@ -17,12 +17,16 @@ package io.confluent.ksql.serde.delimited;
 
 import io.confluent.ksql.util.DecimalUtil;
 import io.confluent.ksql.util.KsqlException;
+import java.io.IOException;
 import java.io.StringWriter;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.function.IntFunction;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 import org.apache.kafka.common.errors.SerializationException;
@@ -55,47 +59,62 @@ public class KsqlDelimitedSerializer implements Serializer<Object> {
         throw new SerializationException("DELIMITED does not support anonymous fields");
       }
 
-      final StringWriter stringWriter = new StringWriter();
-      final CSVPrinter csvPrinter = new CSVPrinter(stringWriter, csvFormat);
-      csvPrinter.printRecord(() -> new FieldIterator((Struct)data));
-      final String result = stringWriter.toString();
-      return result.substring(0, result.length() - 2).getBytes(StandardCharsets.UTF_8);
+      final Struct struct = (Struct) data;
+      final List<Field> fields = struct.schema().fields();
+      return print(csvFormat, fields, i -> struct.get(fields.get(i)));
     } catch (final Exception e) {
       throw new SerializationException("Error serializing CSV message", e);
     }
   }
 
+  static byte[] print(
+      final CSVFormat csvFormat,
+      final List<Field> fields,
+      final IntFunction<Object> values
+  ) throws IOException {
+    final StringWriter stringWriter = new StringWriter();
+    final CSVPrinter csvPrinter = new CSVPrinter(stringWriter, csvFormat);
+    csvPrinter.printRecord(() -> new FieldIterator(fields, values));
+    final String result = stringWriter.toString();
+    return result.substring(0, result.length() - 2).getBytes(StandardCharsets.UTF_8);
+  }
+
   @Override
   public void close() {
   }
 
   private static class FieldIterator implements Iterator<Object> {
 
-    private final Struct data;
-    private final Iterator<Field> fieldIt;
+    private final List<Field> fields;
+    private final IntFunction<Object> values;
+    private int idx;
 
-    FieldIterator(final Struct data) {
-      this.data = Objects.requireNonNull(data, "data");
-      this.fieldIt = data.schema().fields().iterator();
+    FieldIterator(final List<Field> fields, final IntFunction<Object> values) {
+      this.fields = Objects.requireNonNull(fields, "fields");
+      this.values = Objects.requireNonNull(values, "values");
     }
 
     @Override
     public boolean hasNext() {
-      return fieldIt.hasNext();
+      return idx < fields.size();
     }
 
     @Override
     public Object next() {
-      final Field field = fieldIt.next();
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+
+      final Field field = fields.get(idx);
+      final Object value = values.apply(idx++);
       throwOnUnsupportedType(field.schema());
       if (DecimalUtil.isDecimal(field.schema())) {
-        return getDecimal(field);
+        return getDecimal(field, (BigDecimal) value);
       }
-      return data.get(field);
+      return value;
     }
 
-    private String getDecimal(final Field field) {
-      final BigDecimal value = (BigDecimal) data.get(field);
+    private static String getDecimal(final Field field, final BigDecimal value) {
       final int precision = DecimalUtil.precision(field.schema());
       final int scale = DecimalUtil.scale(field.schema());
 
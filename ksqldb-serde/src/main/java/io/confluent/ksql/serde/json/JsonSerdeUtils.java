@@ -15,6 +15,8 @@
 
 package io.confluent.ksql.serde.json;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.BooleanNode;
@@ -56,13 +58,7 @@ public final class JsonSerdeUtils {
       final ObjectMapper mapper,
       final Class<? extends T> clazz
   ) throws IOException {
-    if (!hasMagicByte(jsonWithMagic)) {
-      // don't log contents of jsonWithMagic to avoid leaking data into the logs
-      throw new KsqlException(
-          "Got unexpected JSON serialization format that did not start with the magic byte. If "
-              + "this stream was not serialized using the JsonSchemaConverter, then make sure "
-              + "the stream is declared with JSON format (not JSON_SR).");
-    }
+    throwOnMissingMagicByte(jsonWithMagic);
 
     return mapper.readValue(
         jsonWithMagic,
@@ -72,6 +68,38 @@ public final class JsonSerdeUtils {
     );
   }
 
+  /**
+   * Creates a streaming parser over the standard JSON encoding within {@code jsonWithMagic}.
+   *
+   * @param jsonWithMagic the serialized JSON
+   * @param factory the factory to create the parser with
+   * @return the parser, positioned before the first token
+   * @throws io.confluent.ksql.util.KsqlException If the input is not encoded
+   *         using the schema registry format.
+   */
+  static JsonParser createJsonSRParser(
+      @Nonnull final byte[] jsonWithMagic,
+      final JsonFactory factory
+  ) throws IOException {
+    throwOnMissingMagicByte(jsonWithMagic);
+
+    return factory.createParser(
+        jsonWithMagic,
+        SIZE_OF_SR_PREFIX,
+        jsonWithMagic.length - SIZE_OF_SR_PREFIX
+    );
+  }
+
+  private static void throwOnMissingMagicByte(final byte[] jsonWithMagic) {
+    if (!hasMagicByte(jsonWithMagic)) {
+      // don't log contents of jsonWithMagic to avoid leaking data into the logs
+      throw new KsqlException(
+          "Got unexpected JSON serialization format that did not start with the magic byte. If "
+              + "this stream was not serialized using the JsonSchemaConverter, then make sure "
+              + "the stream is declared with JSON format (not JSON_SR).");
+    }
+  }
+
   /**
    * @param json the serialized JSON
    * @return whether or not this JSON contains the magic schema registry byte
@@ -158,9 +186,16 @@ public final class JsonSerdeUtils {
   static IllegalArgumentException invalidConversionException(
       final Object object,
       final String sqlType
+  ) {
+    return invalidSourceTypeException(object.getClass().getSimpleName(), sqlType);
+  }
+
+  static IllegalArgumentException invalidSourceTypeException(
+      final String sourceType,
+      final String sqlType
   ) {
     return new IllegalArgumentException("Can't convert type."
-        + " sourceType: " + object.getClass().getSimpleName()
+        + " sourceType: " + sourceType
         + ", requiredType: " + sqlType);
   }
 
@@ -171,7 +206,7 @@ public final class JsonSerdeUtils {
     return invalidConversionException(object, sqlType.toString());
   }
 
-  private static IllegalArgumentException failedStringCoercionException(final SqlBaseType sqlType) {
+  static IllegalArgumentException failedStringCoercionException(final SqlBaseType sqlType) {
     return new IllegalArgumentException("Can't coerce string to type. targetType: " + sqlType);
   }
 }
@@ -0,0 +1,575 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.schema.connect.SqlSchemaFormatter;
+import io.confluent.ksql.schema.ksql.SqlBaseType;
+import io.confluent.ksql.serde.GenericRowSerDe;
+import io.confluent.ksql.util.DecimalUtil;
+import io.confluent.ksql.util.KsqlException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+
+/**
+ * Schema driven reader of JSON values, built on the streaming {@link JsonParser} API.
+ *
+ * <p>Readers are built once per schema. Reading a value never builds an intermediate tree:
+ * object fields not in the schema are skipped without being materialized, and error paths are
+ * only built as an error propagates.
+ *
+ * <p>Coercion rules, and error messages, match those of the tree based model this replaced,
+ * e.g. source types in error messages are named after the Jackson node type of the value.
+ */
+// CHECKSTYLE_RULES.OFF: ClassDataAbstractionCoupling
+abstract class JsonValueReader {
+  // CHECKSTYLE_RULES.ON: ClassDataAbstractionCoupling
+
+  private static final SqlSchemaFormatter FORMATTER = new SqlSchemaFormatter(word -> false);
+
+  final Schema schema;
+
+  private JsonValueReader(final Schema schema) {
+    this.schema = Objects.requireNonNull(schema, "schema");
+  }
+
+  /**
+   * Create a reader for the supplied {@code schema}.
+   */
+  // CHECKSTYLE_RULES.OFF: CyclomaticComplexity
+  static JsonValueReader create(final Schema schema) {
+    // CHECKSTYLE_RULES.ON: CyclomaticComplexity
+    switch (schema.type()) {
+      case BOOLEAN:
+        return new BooleanReader(schema);
+      case INT32:
+        return new IntReader(schema);
+      case INT64:
+        return new LongReader(schema);
+      case FLOAT64:
+        return new DoubleReader(schema);
+      case STRING:
+        return new StringReader(schema);
+      case BYTES:
+        return new DecimalReader(schema);
+      case ARRAY:
+        return new ArrayReader(schema);
+      case MAP:
+        return new MapReader(schema);
+      case STRUCT:
+        return new StructReader(schema);
+      default:
+        return new UnsupportedReader(schema);
+    }
+  }
+
+  /**
+   * Create a reader that reads a JSON object with the supplied struct {@code schema} directly
+   * into a {@link GenericRow}, with the fields in schema order.
+   */
+  static JsonValueReader createRowReader(final Schema schema) {
+    return new RowReader(schema);
+  }
+
+  /**
+   * Read the value of the parser's current token.
+   *
+   * <p>On return, the parser is positioned on the last token of the value.
+   *
+   * @param parser the parser.
+   * @param pathPart the path of the value, used only if the value can not be read.
+   * @return the value, which may be {@code null}.
+   */
+  final Object read(final JsonParser parser, final String pathPart) {
+    try {
+      return read(parser);
+    } catch (final Exception e) {
+      throw CoercionException.withPath(e, pathPart);
+    }
+  }
+
+  final Object read(final JsonParser parser) throws IOException {
+    final JsonToken token = parser.getCurrentToken();
+    if (token == null || token == JsonToken.VALUE_NULL) {
+      return null;
+    }
+
+    return readValue(parser, token);
+  }
+
+  abstract Object readValue(JsonParser parser, JsonToken token) throws IOException;
+
+  final IllegalArgumentException invalidConversion(
+      final JsonParser parser,
+      final JsonToken token
+  ) throws IOException {
+    return JsonSerdeUtils
+        .invalidSourceTypeException(sourceType(parser, token), FORMATTER.format(schema));
+  }
+
+  static IllegalArgumentException invalidConversion(
+      final JsonParser parser,
+      final JsonToken token,
+      final SqlBaseType sqlType
+  ) throws IOException {
+    return JsonSerdeUtils
+        .invalidSourceTypeException(sourceType(parser, token), sqlType.toString());
+  }
+
+  /**
+   * @return the name of the Jackson node type the tree model would have used for the value.
+   */
+  // CHECKSTYLE_RULES.OFF: CyclomaticComplexity
+  private static String sourceType(
+      final JsonParser parser,
+      final JsonToken token
+  ) throws IOException {
+    // CHECKSTYLE_RULES.ON: CyclomaticComplexity
+    switch (token) {
+      case VALUE_TRUE:
+      case VALUE_FALSE:
+        return "BooleanNode";
+      case VALUE_STRING:
+        return "TextNode";
+      case VALUE_NUMBER_INT:
+        switch (parser.getNumberType()) {
+          case INT:
+            return "IntNode";
+          case LONG:
+            return "LongNode";
+          default:
+            return "BigIntegerNode";
+        }
+      case VALUE_NUMBER_FLOAT:
+        return "DecimalNode";
+      case START_OBJECT:
+        return "ObjectNode";
+      case START_ARRAY:
+        return "ArrayNode";
+      default:
+        return token.name();
+    }
+  }
+
+  private static final class BooleanReader extends JsonValueReader {
+
+    BooleanReader(final Schema schema) {
+      super(schema);
+    }
+
+    @Override
+    Object readValue(final JsonParser parser, final JsonToken token) throws IOException {
+      if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+        return parser.getBooleanValue();
+      }
+      throw invalidConversion(parser, token, SqlBaseType.BOOLEAN);
+    }
+  }
+
+  private static final class IntReader extends JsonValueReader {
+
+    IntReader(final Schema schema) {
+      super(schema);
+    }
+
+    @Override
+    Object readValue(final JsonParser parser, final JsonToken token) throws IOException {
+      switch (token) {
+        case VALUE_NUMBER_INT:
+          return parser.getNumberValue().intValue();
+        case VALUE_NUMBER_FLOAT:
+          return parser.getDecimalValue().intValue();
+        case VALUE_STRING:
+          try {
+            return Integer.parseInt(parser.getText());
+          } catch (final NumberFormatException e) {
+            throw JsonSerdeUtils.failedStringCoercionException(SqlBaseType.INTEGER);
+          }
+        default:
+          throw invalidConversion(parser, token, SqlBaseType.INTEGER);
+      }
+    }
+  }
+
+  private static final class LongReader extends JsonValueReader {
+
+    LongReader(final Schema schema) {
+      super(schema);
+    }
+
+    @Override
+    Object readValue(final JsonParser parser, final JsonToken token) throws IOException {
+      switch (token) {
+        case VALUE_NUMBER_INT:
+          return parser.getNumberValue().longValue();
+        case VALUE_NUMBER_FLOAT:
+          return parser.getDecimalValue().longValue();
+        case VALUE_STRING:
+          try {
+            return Long.parseLong(parser.getText());
+          } catch (final NumberFormatException e) {
+            throw JsonSerdeUtils.failedStringCoercionException(SqlBaseType.BIGINT);
+          }
+        default:
+          throw invalidConversion(parser, token, SqlBaseType.BIGINT);
+      }
+    }
+  }
+
+  private static final class DoubleReader extends JsonValueReader {
+
+    DoubleReader(final Schema schema) {
+      super(schema);
+    }
+
+    @Override
+    Object readValue(final JsonParser parser, final JsonToken token) throws IOException {
+      switch (token) {
+        case VALUE_NUMBER_INT:
+        case VALUE_NUMBER_FLOAT:
+          return parser.getDoubleValue();
+        case VALUE_STRING:
+          try {
+            return Double.parseDouble(parser.getText());
+          } catch (final NumberFormatException e) {
+            throw JsonSerdeUtils.failedStringCoercionException(SqlBaseType.DOUBLE);
+          }
+        default:
+          throw invalidConversion(parser, token, SqlBaseType.DOUBLE);
+      }
+    }
+  }
+
+  private static final class StringReader extends JsonValueReader {
+
+    StringReader(final Schema schema) {
+      super(schema);
+    }
+
+    @Override
+    Object readValue(final JsonParser parser, final JsonToken token) throws IOException {
+      switch (token) {
+        case START_OBJECT:
+          return readObject(parser);
+        case START_ARRAY:
+          return readArray(parser);
+        case VALUE_NUMBER_INT:
+          return parser.getNumberValue().toString();
+        case VALUE_NUMBER_FLOAT:
+          return parser.getDecimalValue().toString();
+        default:
+          return parser.getText();
+      }
+    }
+
+    private static String readObject(final JsonParser parser) throws IOException {
+      // Parsers are created by the deserializer's mapper, which is required to ensure decimals
+      // are read exactly:
+      final ObjectMapper mapper = (ObjectMapper) parser.getCodec();
+      final JsonNode tree = mapper.readTree(parser);
+      return mapper.writeValueAsString(mapper.treeToValue(tree, Object.class));
+    }
+
+    private String readArray(final JsonParser parser) throws IOException {
+      final StringBuilder sb = new StringBuilder("[");
+      int idx = 0;
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        if (idx != 0) {
+          sb.append(", ");
+        }
+
+        try {
+          sb.append(read(parser));
+        } catch (final Exception e) {
+          throw CoercionException.withPath(e, "[" + idx + "]");
+        }
+        idx++;
+      }
+      return sb.append("]").toString();
+    }
+  }
+
+  private static final class DecimalReader extends JsonValueReader {
+
+    private final boolean isDecimal;
+
+    DecimalReader(final Schema schema) {
+      super(schema);
+      this.isDecimal = DecimalUtil.isDecimal(schema);
+    }
+
+    @Override
+    Object readValue(final JsonParser parser, final JsonToken token) throws IOException {
+      final BigDecimal decimal;
+      if (isDecimal && token.isNumeric()) {
+        decimal = parser.getDecimalValue();
+      } else if (isDecimal && token == JsonToken.VALUE_STRING) {
+        decimal = new BigDecimal(parser.getText());
+      } else {
+        throw invalidConversion(parser, token);
+      }
+
+      DecimalUtil.ensureFit(decimal, schema);
+      return decimal;
+    }
+  }
+
+  private static final class ArrayReader extends JsonValueReader {
+
+    private final JsonValueReader elementReader;
+
+    ArrayReader(final Schema schema) {
+      super(schema);
+      this.elementReader = create(schema.valueSchema());
+    }
+
+    @Override
+    Object readValue(final JsonParser parser, final JsonToken token) throws IOException {
+      if (token != JsonToken.START_ARRAY) {
+        throw invalidConversion(parser, token);
+      }
+
+      final List<Object> array = new ArrayList<>();
+      int idx = 0;
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        try {
+          array.add(elementReader.read(parser));
+        } catch (final Exception e) {
+          throw CoercionException.withPath(e, "[" + idx + "]");
+        }
+        idx++;
+      }
+      return array;
+    }
+  }
+
+  private static final class MapReader extends JsonValueReader {
+
+    private final JsonValueReader valueReader;
+
+    MapReader(final Schema schema) {
+      super(schema);
+      this.valueReader = create(schema.valueSchema());
+    }
+
+    @Override
+    Object readValue(final JsonParser parser, final JsonToken token) throws IOException {
+      if (token != JsonToken.START_OBJECT) {
+        throw invalidConversion(parser, token);
+      }
+
+      final Map<String, Object> map = new HashMap<>();
+      while (parser.nextToken() != JsonToken.END_OBJECT) {
+        final String key = parser.getCurrentName();
+        parser.nextToken();
+
+        try {
+          map.put(key, valueReader.read(parser));
+        } catch (final Exception e) {
+          throw CoercionException.withPath(e, "." + key + ".value");
+        }
+      }
+      return map;
+    }
+  }
+
+  /**
+   * Base for readers of JSON objects with a known set of fields.
+   *
+   * <p>The "case insensitive" strategy leverages that all KSQL fields are internally case
+   * sensitive - if they were specified without quotes, then they are upper-cased during parsing.
+   * A JSON field is matched to the KSQL field with the same name or, failing that, to the KSQL
+   * field matching its upper-cased name. An exact match always takes precedence.
+   *
+   * @param <T> the type the fields are read into.
+   */
+  private abstract static class FieldsReader<T> extends JsonValueReader {
+
+    final List<Field> fields;
+    private final JsonValueReader[] readers;
+    private final Map<String, Integer> exactFields;
+    private final Map<String, Integer> upperCaseFields;
+    private final boolean[] isUpperCase;
+
+    FieldsReader(final Schema schema) {
+      super(schema);
+      this.fields = schema.fields();
+      this.readers = new JsonValueReader[fields.size()];
+      this.exactFields = new HashMap<>(fields.size() * 2);
+      this.upperCaseFields = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+      this.isUpperCase = new boolean[fields.size()];
+
+      for (final Field field : fields) {
+        readers[field.index()] = create(field.schema());
+        exactFields.put(field.name(), field.index());
+        if (field.name().equals(field.name().toUpperCase())) {
+          upperCaseFields.put(field.name(), field.index());
+          isUpperCase[field.index()] = true;
+        }
+      }
+    }
+
+    abstract T newValue();
+
+    abstract void set(T value, int index, Object fieldValue);
+
+    @Override
+    T readValue(final JsonParser parser, final JsonToken token) throws IOException {
+      if (token != JsonToken.START_OBJECT) {
+        throw invalidConversion(parser, token);
+      }
+
+      final T value = newValue();
+      boolean[] exactMatches = null;
+
+      while (parser.nextToken() != JsonToken.END_OBJECT) {
+        final String name = parser.getCurrentName();
+        parser.nextToken();
+
+        final Integer exact = exactFields.get(name);
+        final int index;
+        if (exact != null) {
+          index = exact;
+          if (isUpperCase[index]) {
+            if (exactMatches == null) {
+              exactMatches = new boolean[fields.size()];
+            }
+            exactMatches[index] = true;
+          }
+        } else {
+          final Integer upper = findUpperCaseField(name);
+          if (upper == null || (exactMatches != null && exactMatches[upper])) {
+            parser.skipChildren();
+            continue;
+          }
+          index = upper;
+        }
+
+        final Object fieldValue;
+        try {
+          fieldValue = readers[index].read(parser);
+        } catch (final Exception e) {
+          throw CoercionException.withPath(e, "." + fields.get(index).name());
+        }
+
+        set(value, index, fieldValue);
+      }
+
+      return value;
+    }
+
+    private Integer findUpperCaseField(final String name) {
+      if (isAscii(name)) {
+        // Case-insensitive comparison and upper-casing only differ outside of ASCII:
+        return upperCaseFields.get(name);
+      }
+
+      return exactFields.get(name.toUpperCase());
+    }
+
+    private static boolean isAscii(final String name) {
+      for (int i = 0; i < name.length(); i++) {
+        if (name.charAt(i) > 127) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  private static final class StructReader extends FieldsReader<Struct> {
+
+    StructReader(final Schema schema) {
+      super(schema);
+    }
+
+    @Override
+    Struct newValue() {
+      return new Struct(schema);
+    }
+
+    @Override
+    void set(final Struct value, final int index, final Object fieldValue) {
+      value.put(fields.get(index), fieldValue);
+    }
+  }
+
+  private static final class RowReader extends FieldsReader<GenericRow> {
+
+    RowReader(final Schema schema) {
+      super(schema);
+    }
+
+    @Override
+    GenericRow newValue() {
+      final GenericRow row = new GenericRow(fields.size() + GenericRowSerDe.ADDITIONAL_CAPACITY);
+      for (int i = 0; i < fields.size(); i++) {
+        row.append(null);
+      }
+      return row;
+    }
+
+    @Override
+    void set(final GenericRow value, final int index, final Object fieldValue) {
+      value.set(index, fieldValue);
+    }
+  }
+
+  private static final class UnsupportedReader extends JsonValueReader {
+
+    UnsupportedReader(final Schema schema) {
+      super(schema);
+    }
+
+    @Override
+    Object readValue(final JsonParser parser, final JsonToken token) {
+      throw new KsqlException("Type is not supported: " + schema.type());
+    }
+  }
+
+  static final class CoercionException extends RuntimeException {
+
+    private final String path;
+    private final String message;
+
+    private CoercionException(final String message, final String path, final Throwable cause) {
+      super(message + ", path: " + path, cause);
+      this.message = Objects.requireNonNull(message, "message");
+      this.path = Objects.requireNonNull(path, "path");
+    }
+
+    static CoercionException withPath(final Exception e, final String pathPart) {
+      if (e instanceof CoercionException) {
+        final CoercionException ce = (CoercionException) e;
+        return new CoercionException(ce.message, pathPart + ce.path, ce);
+      }
+      return new CoercionException(String.valueOf(e.getMessage()), pathPart, e);
+    }
+  }
+}
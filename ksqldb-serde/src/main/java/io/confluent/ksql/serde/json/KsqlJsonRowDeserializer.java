@@ -0,0 +1,67 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.json;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Deserializes a JSON object directly into a {@link GenericRow}, in schema field order.
+ *
+ * <p>Field matching and type coercion are the same as {@link KsqlJsonDeserializer}. Only the
+ * top level {@code Struct} is skipped: nested structs are still returned as Connect structs.
+ */
+class KsqlJsonRowDeserializer implements Deserializer<GenericRow> {
+
+  private final JsonValueReader reader;
+  private final boolean isJsonSchema;
+
+  KsqlJsonRowDeserializer(
+      final PersistenceSchema physicalSchema,
+      final boolean isJsonSchema
+  ) {
+    this.reader = JsonValueReader.createRowReader(JsonSerdeUtils.validateSchema(
+        Objects.requireNonNull(physicalSchema, "physicalSchema")
+    ).serializedSchema());
+    this.isJsonSchema = isJsonSchema;
+  }
+
+  @Override
+  public void configure(final Map<String, ?> map, final boolean isKey) {
+  }
+
+  @Override
+  public GenericRow deserialize(final String topic, final byte[] bytes) {
+    try {
+      if (bytes == null) {
+        return null;
+      }
+
+      return (GenericRow) KsqlJsonDeserializer.read(bytes, isJsonSchema, reader);
+    } catch (final Exception e) {
+      throw new SerializationException(
+          "Failed to deserialize value from topic: " + topic, e);
+    }
+  }
+
+  @Override
+  public void close() {
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.json;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import io.confluent.ksql.util.DecimalUtil;
+import io.confluent.ksql.util.KsqlException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+
+/**
+ * Serializes a {@link GenericRow} directly to a JSON object, in schema field order.
+ *
+ * <p>The output matches that of the Connect {@code JsonConverter}, with schemas disabled and
+ * decimals written in numeric form, as used by {@link KsqlJsonSerdeFactory}.
+ */
+class KsqlJsonRowSerializer implements Serializer<GenericRow> {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private final List<Field> fields;
+
+  KsqlJsonRowSerializer(final PersistenceSchema physicalSchema) {
+    this.fields = JsonSerdeUtils.validateSchema(
+        Objects.requireNonNull(physicalSchema, "physicalSchema")
+    ).serializedSchema().fields();
+  }
+
+  @Override
+  public void configure(final Map<String, ?> map, final boolean isKey) {
+  }
+
+  @Override
+  public byte[] serialize(final String topic, final GenericRow data) {
+    if (data == null) {
+      return null;
+    }
+
+    if (data.size() != fields.size()) {
+      throw new SerializationException("Field count mismatch."
+          + " expected: " + fields.size()
+          + ", got: " + data.size()
+      );
+    }
+
+    try {
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try (JsonGenerator gen = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+        gen.writeStartObject();
+        for (int i = 0; i < fields.size(); i++) {
+          final Field field = fields.get(i);
+          gen.writeFieldName(field.name());
+          writeValue(gen, field.schema(), data.get(i));
+        }
+        gen.writeEndObject();
+      }
+      return out.toByteArray();
+    } catch (final Exception e) {
+      throw new SerializationException("Error serializing JSON message for topic: " + topic, e);
+    }
+  }
+
+  @Override
+  public void close() {
+  }
+
+  private static void writeValue(
+      final JsonGenerator gen,
+      final Schema schema,
+      final Object value
+  ) throws IOException {
+    if (value == null) {
+      gen.writeNull();
+      return;
+    }
+
+    switch (schema.type()) {
+      case BOOLEAN:
+        gen.writeBoolean((Boolean) value);
+        break;
+      case INT32:
+        gen.writeNumber((Integer) value);
+        break;
+      case INT64:
+        gen.writeNumber((Long) value);
+        break;
+      case FLOAT64:
+        gen.writeNumber((Double) value);
+        break;
+      case STRING:
+        gen.writeString((String) value);
+        break;
+      case BYTES:
+        writeBytes(gen, schema, value);
+        break;
+      case ARRAY:
+        gen.writeStartArray();
+        for (final Object element : (List<?>) value) {
+          writeValue(gen, schema.valueSchema(), element);
+        }
+        gen.writeEndArray();
+        break;
+      case MAP:
+        gen.writeStartObject();
+        for (final Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+          gen.writeFieldName((String) e.getKey());
+          writeValue(gen, schema.valueSchema(), e.getValue());
+        }
+        gen.writeEndObject();
+        break;
+      case STRUCT:
+        final Struct struct = (Struct) value;
+        gen.writeStartObject();
+        for (final Field field : schema.fields()) {
+          gen.writeFieldName(field.name());
+          writeValue(gen, field.schema(), struct.get(field.name()));
+        }
+        gen.writeEndObject();
+        break;
+      default:
+        throw new KsqlException("Type is not supported: " + schema.type());
+    }
+  }
+
+  private static void writeBytes(
+      final JsonGenerator gen,
+      final Schema schema,
+      final Object value
+  ) throws IOException {
+    if (DecimalUtil.isDecimal(schema)) {
+      gen.writeNumber((BigDecimal) value);
+      return;
+    }
+
+    if (value instanceof ByteBuffer) {
+      final ByteBuffer buffer = ((ByteBuffer) value).duplicate();
+      final byte[] bytes = new byte[buffer.remaining()];
+      buffer.get(bytes);
+      gen.writeBinary(bytes);
+      return;
+    }
+
+    gen.writeBinary((byte[]) value);
+  }
+}
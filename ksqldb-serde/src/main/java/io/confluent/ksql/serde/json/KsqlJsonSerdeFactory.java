@@ -20,6 +20,7 @@ import com.google.errorprone.annotations.Immutable;
 import io.confluent.connect.json.JsonSchemaConverter;
 import io.confluent.connect.json.JsonSchemaConverterConfig;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.serde.KsqlSerdeFactory;
 import io.confluent.ksql.serde.connect.ConnectDataTranslator;
@@ -27,6 +28,7 @@ import io.confluent.ksql.serde.connect.KsqlConnectSerializer;
 import io.confluent.ksql.serde.tls.ThreadLocalSerializer;
 import io.confluent.ksql.util.KsqlConfig;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Supplier;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.serialization.Serdes;
@@ -75,6 +77,23 @@ public class KsqlJsonSerdeFactory implements KsqlSerdeFactory {
     );
   }
 
+  @Override
+  public Optional<Serde<GenericRow>> createRowSerde(
+      final PersistenceSchema schema,
+      final KsqlConfig ksqlConfig,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory
+  ) {
+    if (useSchemaRegistryFormat) {
+      // Serializing requires the schema registry converter, which only accepts structs:
+      return Optional.empty();
+    }
+
+    return Optional.of(Serdes.serdeFrom(
+        new KsqlJsonRowSerializer(schema),
+        new KsqlJsonRowDeserializer(schema, false)
+    ));
+  }
+
   private KsqlConnectSerializer createSerializer(
       final PersistenceSchema schema,
       final KsqlConfig ksqlConfig,
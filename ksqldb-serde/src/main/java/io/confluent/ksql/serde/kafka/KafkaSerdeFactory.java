@@ -19,16 +19,19 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableMap;
 import com.google.errorprone.annotations.Immutable;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.schema.connect.SqlSchemaFormatter;
 import io.confluent.ksql.schema.connect.SqlSchemaFormatter.Option;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.serde.FormatFactory;
+import io.confluent.ksql.serde.GenericRowSerDe;
 import io.confluent.ksql.serde.KsqlSerdeFactory;
 import io.confluent.ksql.util.DecimalUtil;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Supplier;
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.serialization.Deserializer;
@@ -77,6 +80,20 @@ public class KafkaSerdeFactory implements KsqlSerdeFactory {
     return Serdes.serdeFrom(serializer, deserializer);
   }
 
+  @Override
+  public Optional<Serde<GenericRow>> createRowSerde(
+      final PersistenceSchema schema,
+      final KsqlConfig ksqlConfig,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory
+  ) {
+    final Serde<Object> primitiveSerde = getPrimitiveSerde(schema.serializedSchema());
+
+    return Optional.of(Serdes.serdeFrom(
+        new GenericRowSerializer(primitiveSerde.serializer()),
+        new GenericRowDeserializer(primitiveSerde.deserializer())
+    ));
+  }
+
   @VisibleForTesting
   @SuppressWarnings({"unchecked", "rawtypes"})
   public static Serde<Object> getPrimitiveSerde(final ConnectSchema schema) {
@@ -153,4 +170,55 @@ public class KafkaSerdeFactory implements KsqlSerdeFactory {
       }
     }
   }
+
+  private static final class GenericRowSerializer implements Serializer<GenericRow> {
+
+    private final Serializer<Object> delegate;
+
+    GenericRowSerializer(final Serializer<Object> delegate) {
+      this.delegate = Objects.requireNonNull(delegate, "delegate");
+    }
+
+    @Override
+    public byte[] serialize(final String topic, final GenericRow row) {
+      if (row == null) {
+        return delegate.serialize(topic, null);
+      }
+
+      if (row.size() != 1) {
+        throw new SerializationException("Field count mismatch."
+            + " expected: 1"
+            + ", got: " + row.size()
+        );
+      }
+
+      return delegate.serialize(topic, row.get(0));
+    }
+  }
+
+  private static final class GenericRowDeserializer implements Deserializer<GenericRow> {
+
+    private final Deserializer<Object> delegate;
+
+    GenericRowDeserializer(final Deserializer<Object> delegate) {
+      this.delegate = Objects.requireNonNull(delegate, "delegate");
+    }
+
+    @Override
+    public GenericRow deserialize(final String topic, final byte[] bytes) {
+      try {
+        final Object primitive = delegate.deserialize(topic, bytes);
+        if (primitive == null) {
+          return null;
+        }
+
+        final GenericRow row = new GenericRow(1 + GenericRowSerDe.ADDITIONAL_CAPACITY);
+        row.append(primitive);
+        return row;
+      } catch (final Exception e) {
+        throw new SerializationException(
+            "Error deserializing KAFKA message from topic: " + topic, e);
+      }
+    }
+  }
 }
@@ -21,6 +21,7 @@ import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -35,6 +36,7 @@ import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.util.KsqlConfig;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Supplier;
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.serialization.Deserializer;
@@ -105,6 +107,10 @@ public class GenericRowSerDeTest {
   private Deserializer<Object> delegateDeserializer;
   @Mock
   private SerdeFactories serdesFactories;
+  @Mock
+  private Serde<GenericRow> rowSerde;
+  @Mock
+  private Serializer<GenericRow> rowSerializer;
 
   private ValueSerdeFactory valueSerde;
 
@@ -523,6 +529,73 @@ public class GenericRowSerDeTest {
     assertThat(row, is(nullValue()));
   }
 
+  @Test
+  public void shouldUseRowSerdeIfEnabledAndSupportedByFormat() {
+    // Given:
+    givenNativeRowSerdeEnabled();
+    when(serdesFactories.createRowSerde(any(), any(), any(), any()))
+        .thenReturn(Optional.of(rowSerde));
+    when(rowSerde.serializer()).thenReturn(rowSerializer);
+    when(rowSerializer.serialize(any(), any())).thenReturn(SOME_BYTES);
+
+    final GenericRow row = GenericRow.genericRow("str", 10);
+
+    // When:
+    final byte[] bytes = givenSerdeForSchema(MUTLI_FIELD_SCHEMA)
+        .serializer()
+        .serialize(SOME_TOPIC, row);
+
+    // Then:
+    verify(rowSerializer).serialize(SOME_TOPIC, row);
+    verify(serdesFactories, never()).create(any(), any(), any(), any(), any());
+    assertThat(bytes, is(SOME_BYTES));
+  }
+
+  @Test
+  public void shouldFallBackToStructSerdeIfRowSerdeNotSupportedByFormat() {
+    // Given:
+    givenNativeRowSerdeEnabled();
+    when(serdesFactories.createRowSerde(any(), any(), any(), any()))
+        .thenReturn(Optional.empty());
+
+    // When:
+    givenSerdeForSchema(MUTLI_FIELD_SCHEMA);
+
+    // Then:
+    verify(serdesFactories).create(
+        FORMAT,
+        MUTLI_FIELD_SCHEMA,
+        ksqlConfig,
+        srClientFactory,
+        Struct.class
+    );
+  }
+
+  @Test
+  public void shouldNotUseRowSerdeForUnwrappedSchema() {
+    // Given:
+    givenNativeRowSerdeEnabled();
+
+    // When:
+    givenSerdeForSchema(UNWRAPPED_SINGLE_FIELD_SCHEMA);
+
+    // Then:
+    verify(serdesFactories, never()).createRowSerde(any(), any(), any(), any());
+  }
+
+  @Test
+  public void shouldNotUseRowSerdeIfDisabled() {
+    // When:
+    givenSerdeForSchema(MUTLI_FIELD_SCHEMA);
+
+    // Then:
+    verify(serdesFactories, never()).createRowSerde(any(), any(), any(), any());
+  }
+
+  private void givenNativeRowSerdeEnabled() {
+    when(ksqlConfig.getBoolean(KsqlConfig.KSQL_SERDE_NATIVE_ROW_ENABLED)).thenReturn(true);
+  }
+
   private Serde<GenericRow> givenSerdeForSchema(final PersistenceSchema schema) {
     return valueSerde.create(
         FORMAT,
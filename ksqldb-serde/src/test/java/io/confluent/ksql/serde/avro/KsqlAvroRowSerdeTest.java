@@ -0,0 +1,302 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.avro;
+
+import static io.confluent.ksql.GenericRow.genericRow;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.AbstractKafkaSchemaSerDeConfig;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import io.confluent.ksql.util.DecimalUtil;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.KsqlConstants;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.avro.generic.GenericData;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.connect.data.ConnectSchema;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class KsqlAvroRowSerdeTest {
+
+  private static final String SOME_TOPIC = "bob";
+
+  private static final KsqlConfig KSQL_CONFIG = new KsqlConfig(Collections.singletonMap(
+      KsqlConfig.SCHEMA_REGISTRY_URL_PROPERTY, "fake-schema-registry-url"));
+
+  private static final Schema ADDRESS_SCHEMA = SchemaBuilder.struct()
+      .field("NUMBER", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("STREET", Schema.OPTIONAL_STRING_SCHEMA)
+      .optional()
+      .build();
+
+  private static final Schema ORDER_SCHEMA = SchemaBuilder.struct()
+      .field("ORDERTIME", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("ITEMID", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("UNITS", Schema.OPTIONAL_INT32_SCHEMA)
+      .field("PRICE", Schema.OPTIONAL_FLOAT64_SCHEMA)
+      .field("COST", DecimalUtil.builder(4, 2).optional().build())
+      .field("PAID", Schema.OPTIONAL_BOOLEAN_SCHEMA)
+      .field("TAGS", SchemaBuilder.array(Schema.OPTIONAL_STRING_SCHEMA).optional().build())
+      .field("COUNTS", SchemaBuilder
+          .map(Schema.STRING_SCHEMA, Schema.OPTIONAL_INT64_SCHEMA).optional().build())
+      .field("NOTES", SchemaBuilder
+          .map(Schema.OPTIONAL_STRING_SCHEMA, Schema.OPTIONAL_STRING_SCHEMA).optional().build())
+      .field("ADDRESS", ADDRESS_SCHEMA)
+      .build();
+
+  private static final org.apache.avro.Schema WRITER_SCHEMA = parseAvroSchema("{"
+      + "\"type\": \"record\","
+      + "\"name\": \"orders\","
+      + "\"fields\": ["
+      + " {\"name\": \"orderTime\", \"type\": \"int\"},"
+      + " {\"name\": \"unknown\", \"type\": {\"type\": \"array\", \"items\": \"string\"}},"
+      + " {\"name\": \"itemId\", \"type\": [\"null\", \"long\"]},"
+      + " {\"name\": \"price\", \"type\": [\"float\", \"null\"]},"
+      + " {\"name\": \"address\", \"type\": [\"null\", {"
+      + "   \"type\": \"record\","
+      + "   \"name\": \"address\","
+      + "   \"fields\": ["
+      + "    {\"name\": \"street\", \"type\": {\"type\": \"enum\", \"name\": \"streets\", "
+      + "       \"symbols\": [\"HIGH\", \"MAIN\"]}},"
+      + "    {\"name\": \"zip\", \"type\": \"string\"}"
+      + "   ]"
+      + " }]},"
+      + " {\"name\": \"counts\", \"type\": {\"type\": \"map\", \"values\": \"int\"}}"
+      + "]}");
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  private SchemaRegistryClient schemaRegistryClient;
+  private KafkaAvroSerializer avroSerializer;
+
+  @Before
+  public void setUp() {
+    schemaRegistryClient = new MockSchemaRegistryClient();
+
+    avroSerializer = new KafkaAvroSerializer(schemaRegistryClient, ImmutableMap.of(
+        AbstractKafkaSchemaSerDeConfig.AUTO_REGISTER_SCHEMAS, true,
+        AbstractKafkaSchemaSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG, ""
+    ));
+  }
+
+  @Test
+  public void shouldSerializeSameBytesAsConnect() {
+    // Given:
+    final Serde<GenericRow> rowSerde = givenRowSerde(ORDER_SCHEMA);
+    final Serde<Object> connectSerde = givenConnectSerde(ORDER_SCHEMA);
+    final GenericRow row = anOrder();
+
+    // When:
+    final byte[] first = rowSerde.serializer().serialize(SOME_TOPIC, row);
+    final byte[] second = rowSerde.serializer().serialize(SOME_TOPIC, row);
+
+    // Then:
+    final byte[] expected = connectSerde.serializer().serialize(SOME_TOPIC, toStruct(row));
+    assertThat(first, is(expected));
+    assertThat(second, is(expected));
+  }
+
+  @Test
+  public void shouldSerializeNulls() {
+    // Given:
+    final Serde<GenericRow> rowSerde = givenRowSerde(ORDER_SCHEMA);
+    final Serde<Object> connectSerde = givenConnectSerde(ORDER_SCHEMA);
+    final GenericRow row = genericRow(null, null, null, null, null, null, null, null, null, null);
+
+    // When:
+    rowSerde.serializer().serialize(SOME_TOPIC, row);
+    final byte[] bytes = rowSerde.serializer().serialize(SOME_TOPIC, row);
+
+    // Then:
+    assertThat(bytes, is(connectSerde.serializer().serialize(SOME_TOPIC, toStruct(row))));
+  }
+
+  @Test
+  public void shouldRoundTrip() {
+    // Given:
+    final Serde<GenericRow> rowSerde = givenRowSerde(ORDER_SCHEMA);
+    final GenericRow row = anOrder();
+    rowSerde.serializer().serialize(SOME_TOPIC, row);
+
+    // When:
+    final byte[] bytes = rowSerde.serializer().serialize(SOME_TOPIC, row);
+    final GenericRow result = rowSerde.deserializer().deserialize(SOME_TOPIC, bytes);
+
+    // Then:
+    assertThat(result, is(row));
+  }
+
+  @Test
+  public void shouldDeserializeSameRowAsConnect() {
+    // Given:
+    final Serde<GenericRow> rowSerde = givenRowSerde(ORDER_SCHEMA);
+    final Serde<Object> connectSerde = givenConnectSerde(ORDER_SCHEMA);
+
+    final GenericData.Record address = new GenericData.Record(
+        WRITER_SCHEMA.getField("address").schema().getTypes().get(1));
+    address.put("street", new GenericData.EnumSymbol(
+        address.getSchema().getField("street").schema(), "MAIN"));
+    address.put("zip", "94043");
+
+    final GenericData.Record record = new GenericData.Record(WRITER_SCHEMA);
+    record.put("orderTime", 100);
+    record.put("unknown", ImmutableList.of("a", "b"));
+    record.put("itemId", 10L);
+    record.put("price", 1.1f);
+    record.put("address", address);
+    record.put("counts", ImmutableMap.of("x", 1, "y", 2));
+
+    final byte[] bytes = avroSerializer.serialize(SOME_TOPIC, record);
+
+    // When:
+    final GenericRow result = rowSerde.deserializer().deserialize(SOME_TOPIC, bytes);
+
+    // Then:
+    final Struct expected = (Struct) connectSerde.deserializer().deserialize(SOME_TOPIC, bytes);
+    assertThat(result, is(toRow(expected)));
+    assertThat(result.get(0), is(100L));
+    assertThat(result.get(1), is("10"));
+    assertThat(result.get(3), is((double) 1.1f));
+    assertThat(((Struct) result.get(9)).get("STREET"), is("MAIN"));
+    assertThat(((Struct) result.get(9)).get("NUMBER"), is(nullValue()));
+  }
+
+  @Test
+  public void shouldFallBackToConnectForUnsupportedWriterSchema() {
+    // Given:
+    final Schema schema = SchemaBuilder.struct()
+        .field("a", Schema.OPTIONAL_INT32_SCHEMA)
+        .field("A", Schema.OPTIONAL_INT32_SCHEMA)
+        .build();
+
+    final org.apache.avro.Schema writerSchema = parseAvroSchema("{"
+        + "\"type\": \"record\","
+        + "\"name\": \"r\","
+        + "\"fields\": [{\"name\": \"a\", \"type\": \"int\"}]"
+        + "}");
+
+    final GenericData.Record record = new GenericData.Record(writerSchema);
+    record.put("a", 5);
+
+    final byte[] bytes = avroSerializer.serialize(SOME_TOPIC, record);
+
+    // When:
+    final GenericRow result = givenRowSerde(schema).deserializer()
+        .deserialize(SOME_TOPIC, bytes);
+
+    // Then:
+    assertThat(result, is(genericRow(5, 5)));
+  }
+
+  @Test
+  public void shouldDeserializeNull() {
+    // When:
+    final GenericRow result = givenRowSerde(ORDER_SCHEMA).deserializer()
+        .deserialize(SOME_TOPIC, null);
+
+    // Then:
+    assertThat(result, is(nullValue()));
+  }
+
+  @Test
+  public void shouldThrowOnFieldCountMismatch() {
+    // Given:
+    final Serde<GenericRow> rowSerde = givenRowSerde(ORDER_SCHEMA);
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectMessage("Field count mismatch. expected: 10, got: 1");
+
+    // When:
+    rowSerde.serializer().serialize(SOME_TOPIC, genericRow(1L));
+  }
+
+  private Serde<GenericRow> givenRowSerde(final Schema schema) {
+    return new KsqlAvroSerdeFactory(KsqlConstants.DEFAULT_AVRO_SCHEMA_FULL_NAME)
+        .createRowSerde(
+            PersistenceSchema.from((ConnectSchema) schema, false),
+            KSQL_CONFIG,
+            () -> schemaRegistryClient
+        )
+        .orElseThrow(AssertionError::new);
+  }
+
+  private Serde<Object> givenConnectSerde(final Schema schema) {
+    return new KsqlAvroSerdeFactory(KsqlConstants.DEFAULT_AVRO_SCHEMA_FULL_NAME)
+        .createSerde(
+            PersistenceSchema.from((ConnectSchema) schema, false),
+            KSQL_CONFIG,
+            () -> schemaRegistryClient
+        );
+  }
+
+  private static GenericRow anOrder() {
+    final Struct address = new Struct(ADDRESS_SCHEMA)
+        .put("NUMBER", 101L)
+        .put("STREET", "Main Street");
+
+    return genericRow(
+        1511897796092L,
+        "Item_1",
+        10,
+        2.5,
+        new BigDecimal("12.34"),
+        true,
+        ImmutableList.of("a", "b"),
+        ImmutableMap.of("k", 1L),
+        Collections.singletonMap("n", "note"),
+        address
+    );
+  }
+
+  private static Struct toStruct(final GenericRow row) {
+    final Struct struct = new Struct(ORDER_SCHEMA);
+    for (int i = 0; i < row.size(); i++) {
+      struct.put(ORDER_SCHEMA.fields().get(i), row.get(i));
+    }
+    return struct;
+  }
+
+  private static GenericRow toRow(final Struct struct) {
+    final List<Object> values = struct.schema().fields().stream()
+        .map(struct::get)
+        .collect(Collectors.toList());
+    return GenericRow.fromList(values);
+  }
+
+  private static org.apache.avro.Schema parseAvroSchema(final String avroSchema) {
+    return new org.apache.avro.Schema.Parser().parse(avroSchema);
+  }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.compact;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import io.confluent.ksql.util.DecimalUtil;
+import io.confluent.ksql.util.IntArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.connect.data.ConnectSchema;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class CompactRowSerdeTest {
+
+  private static final Schema AVG_SCHEMA = SchemaBuilder.struct().optional()
+      .field("SUM", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("COUNT", Schema.OPTIONAL_INT64_SCHEMA)
+      .build();
+
+  private static final ConnectSchema STATE_SCHEMA = (ConnectSchema) SchemaBuilder.struct()
+      .field("GROUP", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("COUNT", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("SUM", Schema.OPTIONAL_INT32_SCHEMA)
+      .field("MAX", Schema.OPTIONAL_FLOAT64_SCHEMA)
+      .field("FLAG", Schema.OPTIONAL_BOOLEAN_SCHEMA)
+      .field("AVG", AVG_SCHEMA)
+      .build();
+
+  private static final Serde<GenericRow> SERDE =
+      CompactRowSerde.create(PersistenceSchema.from(STATE_SCHEMA, false));
+
+  private static final ConnectSchema INT_ARRAY_SCHEMA = (ConnectSchema) SchemaBuilder.struct()
+      .field("GROUP", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("REGISTERS", SchemaBuilder.array(Schema.OPTIONAL_INT32_SCHEMA).optional().build())
+      .build();
+
+  private static final Serde<GenericRow> INT_ARRAY_SERDE =
+      CompactRowSerde.create(PersistenceSchema.from(INT_ARRAY_SCHEMA, false));
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  @Test
+  public void shouldRoundTripRow() {
+    // Given:
+    final GenericRow row = GenericRow.genericRow(
+        "group-\u00e9", 10L, 3, 1.5, true, new Struct(AVG_SCHEMA).put("SUM", 20L).put("COUNT", 4L));
+
+    // When:
+    final GenericRow result = roundTrip(row);
+
+    // Then:
+    assertThat(result, is(row));
+  }
+
+  @Test
+  public void shouldRoundTripNulls() {
+    // Given:
+    final GenericRow row = GenericRow.genericRow(
+        null, 10L, null, null, false, new Struct(AVG_SCHEMA).put("SUM", 20L));
+
+    // When:
+    final GenericRow result = roundTrip(row);
+
+    // Then:
+    assertThat(result, is(row));
+  }
+
+  @Test
+  public void shouldSerializeFixedWidthFieldsCompactly() {
+    // Given:
+    final GenericRow row = GenericRow.genericRow(
+        null, 10L, 3, 1.5, true, null);
+
+    // When:
+    final byte[] bytes = SERDE.serializer().serialize("t", row);
+
+    // Then: version + null bitmap + BIGINT + INT + DOUBLE + BOOLEAN
+    assertThat(bytes.length, is(1 + 1 + 8 + 4 + 8 + 1));
+  }
+
+  @Test
+  public void shouldHandleNullRow() {
+    assertThat(SERDE.serializer().serialize("t", null), is(nullValue()));
+    assertThat(SERDE.deserializer().deserialize("t", null), is(nullValue()));
+  }
+
+  @Test
+  public void shouldThrowOnFieldCountMismatch() {
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectMessage("Field count mismatch");
+
+    // When:
+    SERDE.serializer().serialize("t", GenericRow.genericRow("too few"));
+  }
+
+  @Test
+  public void shouldThrowOnTruncatedData() {
+    // Given:
+    final byte[] bytes = SERDE.serializer().serialize("t", GenericRow.genericRow(
+        "a", 10L, 3, 1.5, true, null));
+
+    final byte[] truncated = new byte[bytes.length - 1];
+    System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectMessage("Error deserializing compact row");
+
+    // When:
+    SERDE.deserializer().deserialize("t", truncated);
+  }
+
+  @Test
+  public void shouldThrowOnUnknownVersion() {
+    // Given:
+    final byte[] bytes = SERDE.serializer().serialize("t", GenericRow.genericRow(
+        "a", 10L, 3, 1.5, true, null));
+    bytes[0] = 1;
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectCause(hasMessage(is("Unknown compact row version: 1")));
+
+    // When:
+    SERDE.deserializer().deserialize("t", bytes);
+  }
+
+  @Test
+  public void shouldNotSupportDecimals() {
+    // Given:
+    final Schema schema = SchemaBuilder.struct()
+        .field("COST", DecimalUtil.builder(4, 2).build())
+        .build();
+
+    // Then:
+    assertThat(CompactRowSerde.supports(schema), is(false));
+  }
+
+  @Test
+  public void shouldNotSupportArraysOfOtherTypes() {
+    // Given:
+    final Schema schema = SchemaBuilder.struct()
+        .field("TOPK", SchemaBuilder.array(Schema.OPTIONAL_INT64_SCHEMA).optional().build())
+        .build();
+
+    // Then:
+    assertThat(CompactRowSerde.supports(schema), is(false));
+  }
+
+  @Test
+  public void shouldSupportIntArrays() {
+    assertThat(CompactRowSerde.supports(INT_ARRAY_SCHEMA), is(true));
+  }
+
+  @Test
+  public void shouldRoundTripIntArrayIntoIntArrayList() {
+    // Given:
+    final GenericRow row = GenericRow.genericRow("a", Arrays.asList(1, -2, 3));
+
+    // When:
+    final GenericRow result = INT_ARRAY_SERDE.deserializer()
+        .deserialize("t", INT_ARRAY_SERDE.serializer().serialize("t", row));
+
+    // Then:
+    assertThat(result, is(row));
+    assertThat(result.get(1), is(instanceOf(IntArrayList.class)));
+  }
+
+  @Test
+  public void shouldRoundTripIntArrayWithNulls() {
+    // Given:
+    final GenericRow row = GenericRow.genericRow("a", Arrays.asList(1, null, 3));
+
+    // When:
+    final GenericRow result = INT_ARRAY_SERDE.deserializer()
+        .deserialize("t", INT_ARRAY_SERDE.serializer().serialize("t", row));
+
+    // Then:
+    assertThat(result, is(row));
+  }
+
+  @Test
+  public void shouldPackIntArray() {
+    // Given:
+    final GenericRow row = GenericRow.genericRow(null, IntArrayList.wrap(new int[]{1, 2, 3}));
+
+    // When:
+    final byte[] bytes = INT_ARRAY_SERDE.serializer().serialize("t", row);
+
+    // Then: version + null bitmap + length + nulls flag + elements
+    assertThat(bytes.length, is(1 + 1 + 4 + 1 + 3 * 4));
+  }
+
+  @Test
+  public void shouldAllowDeserializedIntArrayToBeUpdatedInPlace() {
+    // Given:
+    final GenericRow row = INT_ARRAY_SERDE.deserializer().deserialize(
+        "t",
+        INT_ARRAY_SERDE.serializer().serialize("t", GenericRow.genericRow("a", Arrays.asList(1, 2)))
+    );
+
+    // When:
+    @SuppressWarnings("unchecked")
+    final List<Integer> ints = (List<Integer>) row.get(1);
+    IntArrayList.toIntArray(ints)[0] = 5;
+    ints.add(6);
+
+    // Then:
+    assertThat(ints, is(Arrays.asList(5, 2, 6)));
+  }
+
+  @Test
+  public void shouldSupportNestedStructs() {
+    assertThat(CompactRowSerde.supports(STATE_SCHEMA), is(true));
+  }
+
+  private static GenericRow roundTrip(final GenericRow row) {
+    final byte[] bytes = SERDE.serializer().serialize("t", row);
+    return SERDE.deserializer().deserialize("t", bytes);
+  }
+}
@@ -23,6 +23,7 @@ import static org.hamcrest.Matchers.nullValue;
 
 import com.google.common.collect.ImmutableMap;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import org.apache.kafka.connect.data.Schema;
@@ -314,4 +315,100 @@ public class ConnectDataTranslatorTest {
     assertThat(row.schema(), is(rowSchema));
     assertThat(row.get("STRUCT"), is(nullValue()));
   }
+
+  @Test
+  public void shouldTranslateDataWrittenWithDifferentSchemas() {
+    // Given:
+    final Schema rowSchema = SchemaBuilder.struct()
+        .field("A", SchemaBuilder.OPTIONAL_INT64_SCHEMA)
+        .field("B", SchemaBuilder.OPTIONAL_STRING_SCHEMA)
+        .optional()
+        .build();
+
+    final Schema writerSchema1 = SchemaBuilder.struct()
+        .field("a", SchemaBuilder.OPTIONAL_INT32_SCHEMA)
+        .field("b", SchemaBuilder.OPTIONAL_STRING_SCHEMA)
+        .optional()
+        .build();
+
+    final Schema writerSchema2 = SchemaBuilder.struct()
+        .field("b", SchemaBuilder.OPTIONAL_STRING_SCHEMA)
+        .field("c", SchemaBuilder.OPTIONAL_BOOLEAN_SCHEMA)
+        .field("a", SchemaBuilder.OPTIONAL_INT64_SCHEMA)
+        .optional()
+        .build();
+
+    final Struct data1 = new Struct(writerSchema1);
+    data1.put("a", 1);
+    data1.put("b", "one");
+
+    final Struct data2 = new Struct(writerSchema2);
+    data2.put("a", 2L);
+    data2.put("b", "two");
+    data2.put("c", true);
+
+    final ConnectDataTranslator connectToKsqlTranslator = new ConnectDataTranslator(rowSchema);
+
+    for (int i = 0; i < 2; i++) {
+      // When:
+      final Struct row1 = (Struct) connectToKsqlTranslator.toKsqlRow(writerSchema1, data1);
+      final Struct row2 = (Struct) connectToKsqlTranslator.toKsqlRow(writerSchema2, data2);
+
+      // Then:
+      assertThat(row1.schema(), is(rowSchema));
+      assertThat(row1.get("A"), is(1L));
+      assertThat(row1.get("B"), is("one"));
+      assertThat(row2.schema(), is(rowSchema));
+      assertThat(row2.get("A"), is(2L));
+      assertThat(row2.get("B"), is("two"));
+    }
+  }
+
+  @Test
+  public void shouldThrowOnTypeMismatchOfNullValue() {
+    // Given:
+    final Schema schema = SchemaBuilder.struct()
+        .field("FIELD", SchemaBuilder.OPTIONAL_INT32_SCHEMA)
+        .optional()
+        .build();
+
+    final Schema badSchema = SchemaBuilder.struct()
+        .field("FIELD", SchemaBuilder.OPTIONAL_STRING_SCHEMA)
+        .optional()
+        .build();
+
+    final ConnectDataTranslator connectToKsqlTranslator = new ConnectDataTranslator(schema);
+
+    // Then:
+    expectedException.expect(DataException.class);
+    expectedException.expectMessage("FIELD");
+
+    // When:
+    connectToKsqlTranslator.toKsqlRow(badSchema, new Struct(badSchema));
+  }
+
+  @Test
+  public void shouldNotValidateElementsOfEmptyArray() {
+    // Given:
+    final Schema rowSchema = SchemaBuilder.struct()
+        .field("ARRAY", SchemaBuilder.array(Schema.OPTIONAL_INT32_SCHEMA).optional().build())
+        .optional()
+        .build();
+
+    final Schema dataRowSchema = SchemaBuilder.struct()
+        .field("ARRAY", SchemaBuilder.array(Schema.OPTIONAL_STRING_SCHEMA).optional().build())
+        .optional()
+        .build();
+
+    final Struct connectStruct = new Struct(dataRowSchema);
+    connectStruct.put("ARRAY", Collections.emptyList());
+
+    final ConnectDataTranslator connectToKsqlTranslator = new ConnectDataTranslator(rowSchema);
+
+    // When:
+    final Struct row = (Struct) connectToKsqlTranslator.toKsqlRow(dataRowSchema, connectStruct);
+
+    // Then:
+    assertThat(row.get("ARRAY"), is(Collections.emptyList()));
+  }
 }
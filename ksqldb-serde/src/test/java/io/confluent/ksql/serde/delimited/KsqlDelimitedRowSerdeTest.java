@@ -0,0 +1,159 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.delimited;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import io.confluent.ksql.util.DecimalUtil;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.connect.data.ConnectSchema;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class KsqlDelimitedRowSerdeTest {
+
+  private static final PersistenceSchema ORDER_SCHEMA = PersistenceSchema.from(
+      (ConnectSchema) SchemaBuilder.struct()
+          .field("ORDERTIME", Schema.OPTIONAL_INT64_SCHEMA)
+          .field("ORDERID", Schema.OPTIONAL_INT64_SCHEMA)
+          .field("ITEMID", Schema.OPTIONAL_STRING_SCHEMA)
+          .field("ORDERUNITS", Schema.OPTIONAL_FLOAT64_SCHEMA)
+          .field("COST", DecimalUtil.builder(4, 2).build())
+          .build(),
+      false
+  );
+
+  private static final CSVFormat CSV_FORMAT = CSVFormat.DEFAULT.withDelimiter(',');
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  private KsqlDelimitedRowSerializer serializer;
+  private KsqlDelimitedRowDeserializer deserializer;
+
+  @Before
+  public void setUp() {
+    serializer = new KsqlDelimitedRowSerializer(ORDER_SCHEMA, CSV_FORMAT);
+    deserializer = new KsqlDelimitedRowDeserializer(ORDER_SCHEMA, CSV_FORMAT);
+  }
+
+  @Test
+  public void shouldDeserializeDelimitedCorrectly() {
+    // Given:
+    final byte[] bytes = "1511897796092,1,item_1,10.0,10.10\r\n".getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final GenericRow row = deserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(row, is(GenericRow.genericRow(
+        1511897796092L, 1L, "item_1", 10.0, new BigDecimal("10.10"))));
+  }
+
+  @Test
+  public void shouldDeserializeEmptyFieldsAsNull() {
+    // Given:
+    final byte[] bytes = "1511897796092,1,item_1,,\r\n".getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final GenericRow row = deserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(row, is(GenericRow.genericRow(1511897796092L, 1L, "item_1", null, null)));
+  }
+
+  @Test
+  public void shouldDeserializeNullAsNull() {
+    assertThat(deserializer.deserialize("", null), is(nullValue()));
+  }
+
+  @Test
+  public void shouldThrowIfRowHasTooFewColumns() {
+    // Given:
+    final byte[] bytes = "1511897796092,1,item_1,\r\n".getBytes(StandardCharsets.UTF_8);
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException
+        .expectCause(hasMessage(is("Unexpected field count, csvFields:4 schemaFields:5")));
+
+    // When:
+    deserializer.deserialize("", bytes);
+  }
+
+  @Test
+  public void shouldSerializeToSameBytesAsStruct() {
+    // Given:
+    final Struct struct = new Struct(ORDER_SCHEMA.serializedSchema())
+        .put("ORDERTIME", 1511897796092L)
+        .put("ORDERID", 1L)
+        .put("ITEMID", "item, 1")
+        .put("ORDERUNITS", null)
+        .put("COST", new BigDecimal("1.10"));
+
+    final GenericRow row = GenericRow.genericRow(
+        1511897796092L, 1L, "item, 1", null, new BigDecimal("1.10"));
+
+    // When:
+    final byte[] bytes = serializer.serialize("", row);
+
+    // Then:
+    final byte[] expected = new KsqlDelimitedSerializer(CSV_FORMAT).serialize("", struct);
+    assertThat(new String(bytes, StandardCharsets.UTF_8),
+        is(new String(expected, StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  public void shouldRoundTrip() {
+    // Given:
+    final GenericRow row = GenericRow.genericRow(
+        1511897796092L, 1L, "item_1", 10.5, new BigDecimal("10.10"));
+
+    // When:
+    final GenericRow result = deserializer.deserialize("", serializer.serialize("", row));
+
+    // Then:
+    assertThat(result, is(row));
+  }
+
+  @Test
+  public void shouldSerializeNullAsNull() {
+    assertThat(serializer.serialize("", null), is(nullValue()));
+  }
+
+  @Test
+  public void shouldThrowOnSerializingRowWithWrongFieldCount() {
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectMessage("Field count mismatch. expected: 5, got: 1");
+
+    // When:
+    serializer.serialize("", GenericRow.genericRow(1L));
+  }
+}
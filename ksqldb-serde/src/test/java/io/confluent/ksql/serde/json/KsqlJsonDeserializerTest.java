@@ -164,6 +164,64 @@ public class KsqlJsonDeserializerTest {
   }
 
 
+  @Test
+  public void shouldPreferExactFieldNameMatchOverCaseInsensitiveMatch() {
+    // Given:
+    givenDeserializerForSchema(SchemaBuilder.struct()
+        .field("F0", Schema.OPTIONAL_INT64_SCHEMA)
+        .build()
+    );
+
+    final byte[] before = addMagic("{\"F0\": 1, \"f0\": 2}".getBytes(UTF_8));
+    final byte[] after = addMagic("{\"f0\": 2, \"F0\": 1}".getBytes(UTF_8));
+
+    // When:
+    final Struct resultBefore = (Struct) deserializer.deserialize(SOME_TOPIC, before);
+    final Struct resultAfter = (Struct) deserializer.deserialize(SOME_TOPIC, after);
+
+    // Then:
+    assertThat(resultBefore.get("F0"), is(1L));
+    assertThat(resultAfter.get("F0"), is(1L));
+  }
+
+  @Test
+  public void shouldSkipNestedValuesOfUnknownFields() {
+    // Given:
+    final byte[] bytes = addMagic(("{"
+        + "\"unknown\": {\"a\": [1, {\"b\": true}, [null]], \"itemid\": \"wrong\"},"
+        + "\"itemid\": \"Item_1\","
+        + "\"other\": [{\"itemid\": \"wrong\"}]"
+        + "}").getBytes(UTF_8));
+
+    // When:
+    final Struct result = (Struct) deserializer.deserialize(SOME_TOPIC, bytes);
+
+    // Then:
+    assertThat(result, is(new Struct(ORDER_SCHEMA).put(ITEMID, "Item_1")));
+  }
+
+  @Test
+  public void shouldIncludePathForErrorsInNestedStructFields() {
+    // Given:
+    givenDeserializerForSchema(SchemaBuilder.struct()
+        .field("OUTER", SchemaBuilder.struct()
+            .field("INNER", SchemaBuilder.array(Schema.OPTIONAL_INT32_SCHEMA).optional().build())
+            .optional()
+            .build())
+        .build()
+    );
+
+    final byte[] bytes = addMagic("{\"outer\": {\"inner\": [1, true]}}".getBytes(UTF_8));
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectCause(hasMessage(is("Can't convert type. sourceType: BooleanNode, "
+        + "requiredType: INTEGER, path: $.OUTER.INNER[1]")));
+
+    // When:
+    deserializer.deserialize(SOME_TOPIC, bytes);
+  }
+
   @Test
   public void shouldCoerceFieldValues() {
     // Given:
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.json;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import io.confluent.ksql.util.DecimalUtil;
+import io.confluent.ksql.util.KsqlConfig;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.stream.Collectors;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.connect.data.ConnectSchema;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class KsqlJsonRowSerdeTest {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private static final Schema ADDRESS_SCHEMA = SchemaBuilder.struct()
+      .field("NUMBER", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("STREET", Schema.OPTIONAL_STRING_SCHEMA)
+      .optional()
+      .build();
+
+  private static final PersistenceSchema ORDER_SCHEMA = PersistenceSchema.from(
+      (ConnectSchema) SchemaBuilder.struct()
+          .field("ORDERTIME", Schema.OPTIONAL_INT64_SCHEMA)
+          .field("ITEMID", Schema.OPTIONAL_STRING_SCHEMA)
+          .field("ORDERUNITS", Schema.OPTIONAL_INT32_SCHEMA)
+          .field("PRICE", Schema.OPTIONAL_FLOAT64_SCHEMA)
+          .field("ARRAYCOL", SchemaBuilder
+              .array(Schema.OPTIONAL_FLOAT64_SCHEMA)
+              .optional()
+              .build())
+          .field("MAPCOL", SchemaBuilder
+              .map(Schema.OPTIONAL_STRING_SCHEMA, Schema.OPTIONAL_BOOLEAN_SCHEMA)
+              .optional()
+              .build())
+          .field("COST", DecimalUtil.builder(4, 2).optional().build())
+          .field("ADDRESS", ADDRESS_SCHEMA)
+          .build(),
+      false
+  );
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  private Serde<GenericRow> rowSerde;
+  private Serde<Object> structSerde;
+
+  @Before
+  public void setUp() {
+    final KsqlJsonSerdeFactory factory = new KsqlJsonSerdeFactory(false);
+    final KsqlConfig config = new KsqlConfig(Collections.emptyMap());
+    final SchemaRegistryClient srClient = null;
+
+    rowSerde = factory.createRowSerde(ORDER_SCHEMA, config, () -> srClient).get();
+    structSerde = factory.createSerde(ORDER_SCHEMA, config, () -> srClient);
+  }
+
+  @Test
+  public void shouldNotSupportRowSerdeForSchemaRegistryFormat() {
+    // When:
+    final boolean supported = new KsqlJsonSerdeFactory(true)
+        .createRowSerde(ORDER_SCHEMA, new KsqlConfig(Collections.emptyMap()), () -> null)
+        .isPresent();
+
+    // Then:
+    assertThat(supported, is(false));
+  }
+
+  @Test
+  public void shouldDeserializeToSameValuesAsStruct() {
+    // Given:
+    final byte[] bytes = ("{"
+        + "\"ordertime\": 1511897796092,"
+        + "\"ITEMID\": \"item_1\","
+        + "\"OrderUnits\": \"10\","
+        + "\"PRICE\": 1,"
+        + "\"ARRAYCOL\": [1.5, null],"
+        + "\"MAPCOL\": {\"a\": true},"
+        + "\"COST\": 1.1,"
+        + "\"ADDRESS\": {\"number\": 10, \"STREET\": \"main\"},"
+        + "\"UNKNOWN\": {\"ignored\": [1, 2, 3]}"
+        + "}").getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final GenericRow row = rowSerde.deserializer().deserialize("topic", bytes);
+
+    // Then:
+    final Struct struct = (Struct) structSerde.deserializer().deserialize("topic", bytes);
+    assertThat(row.values(), is(ORDER_SCHEMA.serializedSchema().fields().stream()
+        .map(struct::get)
+        .collect(Collectors.toList())));
+  }
+
+  @Test
+  public void shouldDeserializeMissingFieldsAsNull() {
+    // Given:
+    final byte[] bytes = "{\"ITEMID\": \"item_1\"}".getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final GenericRow row = rowSerde.deserializer().deserialize("topic", bytes);
+
+    // Then:
+    assertThat(row, is(GenericRow.genericRow(
+        null, "item_1", null, null, null, null, null, null)));
+  }
+
+  @Test
+  public void shouldDeserializeNullAsNull() {
+    assertThat(rowSerde.deserializer().deserialize("topic", null), is(nullValue()));
+    assertThat(rowSerde.deserializer().deserialize("topic",
+        "null".getBytes(StandardCharsets.UTF_8)), is(nullValue()));
+  }
+
+  @Test
+  public void shouldIncludePathInCoercionError() {
+    // Given:
+    final byte[] bytes = "{\"ORDERUNITS\": \"ten\"}".getBytes(StandardCharsets.UTF_8);
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectCause(hasMessage(is(
+        "Can't coerce string to type. targetType: INTEGER, path: $.ORDERUNITS")));
+
+    // When:
+    rowSerde.deserializer().deserialize("topic", bytes);
+  }
+
+  @Test
+  public void shouldSerializeToSameJsonAsStruct() throws Exception {
+    // Given:
+    final Struct address = new Struct(ADDRESS_SCHEMA)
+        .put("NUMBER", 10L)
+        .put("STREET", "main");
+
+    final GenericRow row = GenericRow.genericRow(
+        1511897796092L,
+        "item_1",
+        10,
+        1.5,
+        ImmutableList.of(1.5, 2.0),
+        ImmutableMap.of("a", true),
+        new BigDecimal("1.10"),
+        address
+    );
+
+    final Struct struct = new Struct(ORDER_SCHEMA.serializedSchema());
+    for (int i = 0; i < row.size(); i++) {
+      struct.put(ORDER_SCHEMA.serializedSchema().fields().get(i), row.get(i));
+    }
+
+    // When:
+    final byte[] bytes = rowSerde.serializer().serialize("topic", row);
+
+    // Then:
+    final byte[] expected = structSerde.serializer().serialize("topic", struct);
+    assertThat(OBJECT_MAPPER.readTree(bytes), is(OBJECT_MAPPER.readTree(expected)));
+  }
+
+  @Test
+  public void shouldSerializeNullFields() throws Exception {
+    // Given:
+    final GenericRow row = GenericRow.genericRow(
+        null, null, null, null, null, null, null, null);
+
+    // When:
+    final byte[] bytes = rowSerde.serializer().serialize("topic", row);
+
+    // Then:
+    assertThat(OBJECT_MAPPER.readTree(bytes).get("ITEMID").isNull(), is(true));
+    assertThat(OBJECT_MAPPER.readTree(bytes).size(), is(8));
+  }
+
+  @Test
+  public void shouldRoundTrip() {
+    // Given:
+    final GenericRow row = GenericRow.genericRow(
+        1L,
+        "item_1",
+        10,
+        1.5,
+        ImmutableList.of(1.5, 2.0),
+        ImmutableMap.of("a", true),
+        new BigDecimal("1.10"),
+        null
+    );
+
+    // When:
+    final GenericRow result = rowSerde.deserializer()
+        .deserialize("topic", rowSerde.serializer().serialize("topic", row));
+
+    // Then:
+    assertThat(result, is(row));
+  }
+
+  @Test
+  public void shouldThrowOnSerializingRowWithWrongFieldCount() {
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectMessage("Field count mismatch. expected: 8, got: 1");
+
+    // When:
+    rowSerde.serializer().serialize("topic", GenericRow.genericRow(1L));
+  }
+}
@@ -20,6 +20,7 @@ import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
 
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
@@ -31,6 +32,7 @@ import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.SchemaUtil;
 import java.util.function.Supplier;
+import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.connect.data.Struct;
 import org.junit.Before;
@@ -204,6 +206,101 @@ public class KafkaSerdeFactoryTest {
     shouldHandle(SqlTypes.STRING, "Yo!");
   }
 
+  @Test
+  public void shouldSerializeNullRowAsNull() {
+    // Given:
+    final PersistenceSchema schema = schemaWithFieldOfType(SqlTypes.INTEGER);
+
+    final Serde<GenericRow> serde = factory
+        .createRowSerde(schema, ksqlConfig, srClientFactory)
+        .get();
+
+    // When:
+    final byte[] result = serde.serializer().serialize("topic", null);
+
+    // Then:
+    assertThat(result, is(nullValue()));
+  }
+
+  @Test
+  public void shouldDeserializeNullRowAsNull() {
+    // Given:
+    final PersistenceSchema schema = schemaWithFieldOfType(SqlTypes.INTEGER);
+
+    final Serde<GenericRow> serde = factory
+        .createRowSerde(schema, ksqlConfig, srClientFactory)
+        .get();
+
+    // When:
+    final GenericRow result = serde.deserializer().deserialize("topic", null);
+
+    // Then:
+    assertThat(result, is(nullValue()));
+  }
+
+  @Test
+  public void shouldSerializeRowToSameBytesAsStruct() {
+    // Given:
+    final PersistenceSchema schema = schemaWithFieldOfType(SqlTypes.BIGINT);
+
+    final Serde<Object> structSerde = factory.createSerde(schema, ksqlConfig, srClientFactory);
+    final Serde<GenericRow> rowSerde = factory
+        .createRowSerde(schema, ksqlConfig, srClientFactory)
+        .get();
+
+    final Struct struct = new Struct(schema.serializedSchema());
+    struct.put("f0", 10L);
+
+    // When:
+    final byte[] bytes = rowSerde.serializer().serialize("topic", GenericRow.genericRow(10L));
+
+    // Then:
+    assertThat(bytes, is(structSerde.serializer().serialize("topic", struct)));
+  }
+
+  @Test
+  public void shouldHandleRows() {
+    shouldHandleRow(SqlTypes.INTEGER, Integer.MIN_VALUE);
+    shouldHandleRow(SqlTypes.BIGINT, Long.MAX_VALUE);
+    shouldHandleRow(SqlTypes.DOUBLE, Double.MIN_NORMAL);
+    shouldHandleRow(SqlTypes.STRING, "Yo!");
+  }
+
+  @Test
+  public void shouldThrowOnSerializingRowWithTooManyFields() {
+    // Given:
+    final PersistenceSchema schema = schemaWithFieldOfType(SqlTypes.INTEGER);
+
+    final Serde<GenericRow> serde = factory
+        .createRowSerde(schema, ksqlConfig, srClientFactory)
+        .get();
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectMessage("Field count mismatch. expected: 1, got: 2");
+
+    // When:
+    serde.serializer().serialize("topic", GenericRow.genericRow(1, 2));
+  }
+
+  private void shouldHandleRow(final SqlType fieldSchema, final Object value) {
+    // Given:
+    final PersistenceSchema schema = schemaWithFieldOfType(fieldSchema);
+
+    final Serde<GenericRow> serde = factory
+        .createRowSerde(schema, ksqlConfig, srClientFactory)
+        .get();
+
+    final GenericRow row = GenericRow.genericRow(value);
+
+    // When:
+    final byte[] bytes = serde.serializer().serialize("topic", row);
+    final GenericRow result = serde.deserializer().deserialize("topic", bytes);
+
+    // Then:
+    assertThat(result, is(row));
+  }
+
   private void shouldHandle(final SqlType fieldSchema, final Object value) {
     // Given:
     final PersistenceSchema schema = schemaWithFieldOfType(fieldSchema);
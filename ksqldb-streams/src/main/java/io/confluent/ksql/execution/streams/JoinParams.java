@@ -15,14 +15,19 @@
 
 package io.confluent.ksql.execution.streams;
 
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import java.util.Objects;
+import org.apache.kafka.streams.kstream.ValueJoiner;
 
 public class JoinParams {
-  private final KsqlValueJoiner joiner;
+  private final ValueJoiner<GenericRow, GenericRow, GenericRow> joiner;
   private final LogicalSchema schema;
 
-  JoinParams(final KsqlValueJoiner joiner, final LogicalSchema schema) {
+  JoinParams(
+      final ValueJoiner<GenericRow, GenericRow, GenericRow> joiner,
+      final LogicalSchema schema
+  ) {
     this.joiner = Objects.requireNonNull(joiner, "joiner");
     this.schema = Objects.requireNonNull(schema, "schema");
   }
@@ -31,7 +36,7 @@ public class JoinParams {
     return schema;
   }
 
-  public KsqlValueJoiner getJoiner() {
+  public ValueJoiner<GenericRow, GenericRow, GenericRow> getJoiner() {
     return joiner;
   }
 }
@@ -15,8 +15,13 @@
 
 package io.confluent.ksql.execution.streams;
 
+import io.confluent.ksql.execution.plan.SelectExpression;
+import io.confluent.ksql.execution.transform.select.Selection;
+import io.confluent.ksql.function.FunctionRegistry;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.schema.ksql.Column;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import java.util.List;
 
@@ -33,6 +38,38 @@ public final class JoinParamsFactory {
     );
   }
 
+  /**
+   * Create the params of a join whose rows are projected by the supplied select expressions, as
+   * part of the join.
+   *
+   * @return params whose schema is that of the projection.
+   */
+  public static JoinParams createWithProjection(
+      final LogicalSchema leftSchema,
+      final LogicalSchema rightSchema,
+      final List<SelectExpression> selectExpressions,
+      final KsqlConfig ksqlConfig,
+      final FunctionRegistry functionRegistry,
+      final ProcessingLogger processingLogger
+  ) {
+    final JoinParams joinParams = create(leftSchema, rightSchema);
+
+    final Selection<Object> selection = Selection.of(
+        joinParams.getSchema(),
+        selectExpressions,
+        ksqlConfig,
+        functionRegistry
+    );
+
+    return new JoinParams(
+        new KsqlProjectingValueJoiner(
+            joinParams.getJoiner(),
+            selection.getMapper().getTransformer(processingLogger)
+        ),
+        selection.getSchema()
+    );
+  }
+
   public static LogicalSchema createSchema(
       final LogicalSchema leftSchema,
       final LogicalSchema rightSchema
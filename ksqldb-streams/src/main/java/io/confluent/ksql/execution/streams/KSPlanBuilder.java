@@ -16,6 +16,7 @@
 package io.confluent.ksql.execution.streams;
 
 import io.confluent.ksql.execution.builder.KsqlQueryBuilder;
+import io.confluent.ksql.execution.plan.ExecutionStep;
 import io.confluent.ksql.execution.plan.KGroupedStreamHolder;
 import io.confluent.ksql.execution.plan.KGroupedTableHolder;
 import io.confluent.ksql.execution.plan.KStreamHolder;
@@ -44,7 +45,9 @@ import io.confluent.ksql.execution.plan.TableTableJoin;
 import io.confluent.ksql.execution.plan.WindowedStreamSource;
 import io.confluent.ksql.execution.plan.WindowedTableSource;
 import io.confluent.ksql.execution.transform.sqlpredicate.SqlPredicate;
+import io.confluent.ksql.util.KsqlConfig;
 import java.util.Objects;
+import java.util.Optional;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.streams.kstream.Windowed;
 
@@ -57,13 +60,15 @@ public final class KSPlanBuilder implements PlanBuilder {
   private final SqlPredicateFactory sqlPredicateFactory;
   private final AggregateParamsFactory aggregateParamFactory;
   private final StreamsFactories streamsFactories;
+  private final Optional<StepMetricsInstrumenter> stepMetrics;
 
   public KSPlanBuilder(final KsqlQueryBuilder queryBuilder) {
     this(
         queryBuilder,
         SqlPredicate::new,
         new AggregateParamsFactory(),
-        StreamsFactories.create(queryBuilder.getKsqlConfig())
+        StreamsFactories.create(queryBuilder.getKsqlConfig()),
+        StepMetricsInstrumenter.create(queryBuilder)
     );
   }
 
@@ -72,22 +77,38 @@ public final class KSPlanBuilder implements PlanBuilder {
       final SqlPredicateFactory sqlPredicateFactory,
       final AggregateParamsFactory aggregateParamFactory,
       final StreamsFactories streamsFactories) {
+    this(
+        queryBuilder,
+        sqlPredicateFactory,
+        aggregateParamFactory,
+        streamsFactories,
+        Optional.empty()
+    );
+  }
+
+  KSPlanBuilder(
+      final KsqlQueryBuilder queryBuilder,
+      final SqlPredicateFactory sqlPredicateFactory,
+      final AggregateParamsFactory aggregateParamFactory,
+      final StreamsFactories streamsFactories,
+      final Optional<StepMetricsInstrumenter> stepMetrics) {
     this.queryBuilder = Objects.requireNonNull(queryBuilder, "queryBuilder");
     this.sqlPredicateFactory = Objects.requireNonNull(sqlPredicateFactory, "sqlPredicateFactory");
     this.aggregateParamFactory =
         Objects.requireNonNull(aggregateParamFactory, "aggregateParamsFactory");
     this.streamsFactories = Objects.requireNonNull(streamsFactories, "streamsFactories");
+    this.stepMetrics = Objects.requireNonNull(stepMetrics, "stepMetrics");
   }
 
   public <K> KStreamHolder<K> visitStreamFilter(final StreamFilter<K> streamFilter) {
-    final KStreamHolder<K> source = streamFilter.getSource().build(this);
+    final KStreamHolder<K> source = build(streamFilter.getSource());
     return StreamFilterBuilder.build(source, streamFilter, queryBuilder, sqlPredicateFactory);
   }
 
   @Override
   public <K> KGroupedStreamHolder visitStreamGroupBy(
       final StreamGroupBy<K> streamGroupBy) {
-    final KStreamHolder<K> source = streamGroupBy.getSource().build(this);
+    final KStreamHolder<K> source = build(streamGroupBy.getSource());
     return StreamGroupByBuilder.build(
         source,
         streamGroupBy,
@@ -99,7 +120,7 @@ public final class KSPlanBuilder implements PlanBuilder {
   @Override
   public KGroupedStreamHolder visitStreamGroupByKey(
       final StreamGroupByKey streamGroupByKey) {
-    final KStreamHolder<Struct> source = streamGroupByKey.getSource().build(this);
+    final KStreamHolder<Struct> source = build(streamGroupByKey.getSource());
     return StreamGroupByBuilder.build(
         source,
         streamGroupByKey,
@@ -111,7 +132,7 @@ public final class KSPlanBuilder implements PlanBuilder {
   @Override
   public KTableHolder<Struct> visitStreamAggregate(
       final StreamAggregate streamAggregate) {
-    final KGroupedStreamHolder source = streamAggregate.getSource().build(this);
+    final KGroupedStreamHolder source = build(streamAggregate.getSource());
     return StreamAggregateBuilder.build(
         source,
         streamAggregate,
@@ -124,13 +145,66 @@ public final class KSPlanBuilder implements PlanBuilder {
   @Override
   public <K> KStreamHolder<K> visitStreamSelect(
       final StreamSelect<K> streamSelect) {
-    final KStreamHolder<K> source = streamSelect.getSource().build(this);
+    if (queryBuilder.getKsqlConfig().getBoolean(KsqlConfig.KSQL_QUERY_STATELESS_FUSION_ENABLED)) {
+      final Optional<KStreamHolder<K>> fused = buildFusedSelect(streamSelect);
+      if (fused.isPresent()) {
+        return fused.get();
+      }
+    }
+
+    final KStreamHolder<K> source = build(streamSelect.getSource());
     return StreamSelectBuilder.build(source, streamSelect, queryBuilder);
   }
 
+  @SuppressWarnings("unchecked")
+  private <K> Optional<KStreamHolder<K>> buildFusedSelect(final StreamSelect<K> streamSelect) {
+    final ExecutionStep<KStreamHolder<K>> source = streamSelect.getSource();
+
+    if (source instanceof StreamFilter) {
+      final StreamFilter<K> streamFilter = (StreamFilter<K>) source;
+      return Optional.of(StreamSelectBuilder.build(
+          build(streamFilter.getSource()),
+          streamFilter,
+          streamSelect,
+          queryBuilder,
+          sqlPredicateFactory
+      ));
+    }
+
+    if (source instanceof StreamStreamJoin) {
+      final StreamStreamJoin<K> join = (StreamStreamJoin<K>) source;
+      final KStreamHolder<K> left = build(join.getLeftSource());
+      final KStreamHolder<K> right = build(join.getRightSource());
+      return Optional.of(StreamStreamJoinBuilder.build(
+          left,
+          right,
+          join,
+          streamSelect,
+          queryBuilder,
+          streamsFactories.getStreamJoinedFactory()
+      ));
+    }
+
+    if (source instanceof StreamTableJoin) {
+      final StreamTableJoin<K> join = (StreamTableJoin<K>) source;
+      final KTableHolder<K> right = build(join.getRightSource());
+      final KStreamHolder<K> left = build(join.getLeftSource());
+      return Optional.of(StreamTableJoinBuilder.build(
+          left,
+          right,
+          join,
+          streamSelect,
+          queryBuilder,
+          streamsFactories.getJoinedFactory()
+      ));
+    }
+
+    return Optional.empty();
+  }
+
   @Override
   public <K> KStreamHolder<K> visitFlatMap(final StreamFlatMap<K> streamFlatMap) {
-    final KStreamHolder<K> source = streamFlatMap.getSource().build(this);
+    final KStreamHolder<K> source = build(streamFlatMap.getSource());
     return StreamFlatMapBuilder.build(source, streamFlatMap, queryBuilder);
   }
 
@@ -138,7 +212,7 @@ public final class KSPlanBuilder implements PlanBuilder {
   public KStreamHolder<Struct> visitStreamSelectKey(
       final StreamSelectKeyV1 streamSelectKey
   ) {
-    final KStreamHolder<?> source = streamSelectKey.getSource().build(this);
+    final KStreamHolder<?> source = build(streamSelectKey.getSource());
     return StreamSelectKeyBuilderV1.build(source, streamSelectKey, queryBuilder);
   }
 
@@ -146,15 +220,15 @@ public final class KSPlanBuilder implements PlanBuilder {
   public KStreamHolder<Struct> visitStreamSelectKey(
       final StreamSelectKey streamSelectKey
   ) {
-    final KStreamHolder<?> source = streamSelectKey.getSource().build(this);
+    final KStreamHolder<?> source = build(streamSelectKey.getSource());
     return StreamSelectKeyBuilder.build(source, streamSelectKey, queryBuilder);
   }
 
   @Override
   public <K> KStreamHolder<K> visitStreamSink(final StreamSink<K> streamSink) {
-    final KStreamHolder<K> source = streamSink.getSource().build(this);
+    final KStreamHolder<K> source = build(streamSink.getSource());
     StreamSinkBuilder.build(source, streamSink, queryBuilder);
-    return null;
+    return source;
   }
 
   @Override
@@ -178,8 +252,8 @@ public final class KSPlanBuilder implements PlanBuilder {
 
   @Override
   public <K> KStreamHolder<K> visitStreamStreamJoin(final StreamStreamJoin<K> join) {
-    final KStreamHolder<K> left = join.getLeftSource().build(this);
-    final KStreamHolder<K> right = join.getRightSource().build(this);
+    final KStreamHolder<K> left = build(join.getLeftSource());
+    final KStreamHolder<K> right = build(join.getRightSource());
     return StreamStreamJoinBuilder.build(
         left,
         right,
@@ -191,8 +265,8 @@ public final class KSPlanBuilder implements PlanBuilder {
 
   @Override
   public <K> KStreamHolder<K> visitStreamTableJoin(final StreamTableJoin<K> join) {
-    final KTableHolder<K> right = join.getRightSource().build(this);
-    final KStreamHolder<K> left = join.getLeftSource().build(this);
+    final KTableHolder<K> right = build(join.getRightSource());
+    final KStreamHolder<K> left = build(join.getLeftSource());
     return StreamTableJoinBuilder.build(
         left,
         right,
@@ -227,7 +301,7 @@ public final class KSPlanBuilder implements PlanBuilder {
   @Override
   public KTableHolder<Windowed<Struct>> visitStreamWindowedAggregate(
       final StreamWindowedAggregate aggregate) {
-    final KGroupedStreamHolder source = aggregate.getSource().build(this);
+    final KGroupedStreamHolder source = build(aggregate.getSource());
     return StreamAggregateBuilder.build(
         source,
         aggregate,
@@ -239,7 +313,7 @@ public final class KSPlanBuilder implements PlanBuilder {
 
   @Override
   public KTableHolder<Struct> visitTableAggregate(final TableAggregate aggregate) {
-    final KGroupedTableHolder source = aggregate.getSource().build(this);
+    final KGroupedTableHolder source = build(aggregate.getSource());
     return TableAggregateBuilder.build(
         source,
         aggregate,
@@ -251,14 +325,14 @@ public final class KSPlanBuilder implements PlanBuilder {
 
   @Override
   public <K> KTableHolder<K> visitTableFilter(final TableFilter<K> tableFilter) {
-    final KTableHolder<K> source = tableFilter.getSource().build(this);
+    final KTableHolder<K> source = build(tableFilter.getSource());
     return TableFilterBuilder.build(source, tableFilter, queryBuilder, sqlPredicateFactory);
   }
 
   @Override
   public <K> KGroupedTableHolder visitTableGroupBy(
       final TableGroupBy<K> tableGroupBy) {
-    final KTableHolder<K> source = tableGroupBy.getSource().build(this);
+    final KTableHolder<K> source = build(tableGroupBy.getSource());
     return TableGroupByBuilder.build(
         source,
         tableGroupBy,
@@ -270,13 +344,13 @@ public final class KSPlanBuilder implements PlanBuilder {
   @Override
   public <K> KTableHolder<K> visitTableSelect(
       final TableSelect<K> tableSelect) {
-    final KTableHolder<K> source = tableSelect.getSource().build(this);
+    final KTableHolder<K> source = build(tableSelect.getSource());
     return TableSelectBuilder.build(source, tableSelect, queryBuilder);
   }
 
   @Override
   public <K> KTableHolder<K> visitTableSink(final TableSink<K> tableSink) {
-    final KTableHolder<K> source = tableSink.getSource().build(this);
+    final KTableHolder<K> source = build(tableSink.getSource());
     TableSinkBuilder.build(source, tableSink, queryBuilder);
     return source;
   }
@@ -284,8 +358,17 @@ public final class KSPlanBuilder implements PlanBuilder {
   @Override
   public <K> KTableHolder<K> visitTableTableJoin(
       final TableTableJoin<K> tableTableJoin) {
-    final KTableHolder<K> left = tableTableJoin.getLeftSource().build(this);
-    final KTableHolder<K> right = tableTableJoin.getRightSource().build(this);
+    final KTableHolder<K> left = build(tableTableJoin.getLeftSource());
+    final KTableHolder<K> right = build(tableTableJoin.getRightSource());
     return TableTableJoinBuilder.build(left, right, tableTableJoin);
   }
+
+  /**
+   * Builds a source step, instrumenting it if step metrics are enabled.
+   */
+  private <T> T build(final ExecutionStep<T> step) {
+    final T built = step.build(this);
+    stepMetrics.ifPresent(metrics -> metrics.instrument(step, built));
+    return built;
+  }
 }
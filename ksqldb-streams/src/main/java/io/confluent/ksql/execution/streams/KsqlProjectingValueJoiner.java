@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.streams;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.transform.KsqlTransformer;
+import java.util.Objects;
+import org.apache.kafka.streams.kstream.ValueJoiner;
+
+/**
+ * A value joiner that applies the projection that follows the join to each joined row.
+ *
+ * <p>The joined row is only used as the input to the projection, so the join emits rows in the
+ * layout of the projection without forwarding them through a separate select processor.
+ *
+ * <p>Value joiners have no access to the key or the processing context, so the projection is
+ * invoked without them. Select mappers read all columns from the value.
+ */
+public final class KsqlProjectingValueJoiner
+    implements ValueJoiner<GenericRow, GenericRow, GenericRow> {
+
+  private final ValueJoiner<GenericRow, GenericRow, GenericRow> joiner;
+  private final KsqlTransformer<Object, GenericRow> projection;
+
+  KsqlProjectingValueJoiner(
+      final ValueJoiner<GenericRow, GenericRow, GenericRow> joiner,
+      final KsqlTransformer<Object, GenericRow> projection
+  ) {
+    this.joiner = Objects.requireNonNull(joiner, "joiner");
+    this.projection = Objects.requireNonNull(projection, "projection");
+  }
+
+  @Override
+  public GenericRow apply(final GenericRow left, final GenericRow right) {
+    return projection.transform(null, joiner.apply(left, right), null);
+  }
+}
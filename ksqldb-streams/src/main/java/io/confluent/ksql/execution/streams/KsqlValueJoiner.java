@@ -23,36 +23,36 @@ import org.apache.kafka.streams.kstream.ValueJoiner;
 public final class KsqlValueJoiner implements ValueJoiner<GenericRow, GenericRow, GenericRow> {
   private final LogicalSchema leftSchema;
   private final LogicalSchema rightSchema;
+  private final int leftCount;
+  private final int rightCount;
 
   KsqlValueJoiner(final LogicalSchema leftSchema, final LogicalSchema rightSchema) {
     this.leftSchema = Objects.requireNonNull(leftSchema, "leftSchema");
     this.rightSchema = Objects.requireNonNull(rightSchema, "rightSchema");
+    this.leftCount = leftSchema.value().size();
+    this.rightCount = rightSchema.value().size();
   }
 
   @Override
   public GenericRow apply(final GenericRow left, final GenericRow right) {
-    final GenericRow row = new GenericRow(
-        leftSchema.value().size() + rightSchema.value().size()
-    );
-
-    if (left != null) {
-      row.appendAll(left.values());
-    } else {
-      fillWithNulls(row, leftSchema.value().size());
-    }
-
-    if (right != null) {
-      row.appendAll(right.values());
-    } else {
-      fillWithNulls(row, rightSchema.value().size());
-    }
-
+    final GenericRow row = new GenericRow(leftCount + rightCount);
+    append(row, left, leftCount);
+    append(row, right, rightCount);
     return row;
   }
 
-  private static void fillWithNulls(final GenericRow row, final int numToFill) {
-    for (int i = 0; i < numToFill; ++i) {
-      row.append(null);
+  private static void append(final GenericRow row, final GenericRow side, final int width) {
+    // Copy element by element, as appendAll copies the values to an array first.
+    // A missing side is padded with nulls to the width of its schema:
+    if (side != null) {
+      final int size = side.size();
+      for (int i = 0; i < size; ++i) {
+        row.append(side.get(i));
+      }
+    } else {
+      for (int i = 0; i < width; ++i) {
+        row.append(null);
+      }
     }
   }
 
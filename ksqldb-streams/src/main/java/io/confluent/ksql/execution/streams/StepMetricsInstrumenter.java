@@ -0,0 +1,223 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.streams;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.collect.ImmutableSet;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.builder.KsqlQueryBuilder;
+import io.confluent.ksql.execution.context.QueryContext;
+import io.confluent.ksql.execution.plan.ExecutionStep;
+import io.confluent.ksql.execution.plan.KStreamHolder;
+import io.confluent.ksql.execution.plan.KTableHolder;
+import io.confluent.ksql.metrics.StepMetrics;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Named;
+import org.apache.kafka.streams.kstream.ValueTransformerWithKey;
+import org.apache.kafka.streams.kstream.ValueTransformerWithKeySupplier;
+import org.apache.kafka.streams.processor.ProcessorContext;
+
+/**
+ * Adds a processor after each step of a query that records the step's {@link StepMetrics}.
+ *
+ * <p>Each processor is added as a separate branch, so the step's output reaches the rest of the
+ * topology unchanged. The processors are explicitly named, so adding them does not change the
+ * generated names of other processors, state stores or internal topics.
+ *
+ * <p>Kafka Streams processes each input record depth-first on a single thread, and a processor
+ * forwards to its children in the order they were added. As the metrics branch is added as soon
+ * as a step is built, the time a step takes is the time between its input reaching the metrics
+ * processor of its source step and its output reaching its own. Only records whose offset is a
+ * multiple of the sample interval are timed. Records are matched by topic, partition and offset,
+ * so output emitted later, e.g. when an aggregate's cache is flushed, is counted but not timed.
+ *
+ * <p>Grouped streams and tables are not instrumented: their time is included in the aggregate.
+ */
+final class StepMetricsInstrumenter {
+
+  private static final String PROCESSOR_PREFIX = "StepMetrics-";
+
+  private final String queryId;
+  private final int sampleInterval;
+  private final Map<ExecutionStep<?>, String> instrumented = new IdentityHashMap<>();
+  private final Set<String> processorNames = new HashSet<>();
+
+  static Optional<StepMetricsInstrumenter> create(final KsqlQueryBuilder queryBuilder) {
+    final KsqlConfig ksqlConfig = queryBuilder.getKsqlConfig();
+    if (!ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_STEP_METRICS_ENABLED)) {
+      return Optional.empty();
+    }
+
+    return Optional.of(new StepMetricsInstrumenter(
+        queryBuilder.getQueryId().getId(),
+        ksqlConfig.getInt(KsqlConfig.KSQL_QUERY_STEP_METRICS_SAMPLE_INTERVAL)
+    ));
+  }
+
+  StepMetricsInstrumenter(final String queryId, final int sampleInterval) {
+    this.queryId = requireNonNull(queryId, "queryId");
+    this.sampleInterval = sampleInterval;
+  }
+
+  void instrument(final ExecutionStep<?> step, final Object built) {
+    if (!(built instanceof KStreamHolder) && !(built instanceof KTableHolder)) {
+      return;
+    }
+
+    final QueryContext queryContext = step.getProperties().getQueryContext();
+    final String stepName = queryContext.formatContext();
+    final String processorName = processorName(queryContext);
+
+    final KStream<?, GenericRow> stream = built instanceof KStreamHolder
+        ? ((KStreamHolder<?>) built).getStream()
+        : ((KTableHolder<?>) built).getTable().toStream(Named.as(processorName + "-ToStream"));
+
+    final Set<String> parents = ImmutableSet.copyOf(parentsOf(step));
+
+    final ValueTransformerWithKeySupplier<Object, GenericRow, GenericRow> supplier =
+        () -> new StepMetricsTransformer(queryId, stepName, parents, sampleInterval);
+
+    stream.transformValues(supplier, Named.as(processorName));
+
+    instrumented.put(step, stepName);
+  }
+
+  /**
+   * The names of the nearest instrumented steps that feed the supplied step.
+   */
+  private Set<String> parentsOf(final ExecutionStep<?> step) {
+    final Set<String> parents = new HashSet<>();
+    for (final ExecutionStep<?> source : step.getSources()) {
+      final String name = instrumented.get(source);
+      if (name != null) {
+        parents.add(name);
+      } else {
+        parents.addAll(parentsOf(source));
+      }
+    }
+    return parents;
+  }
+
+  private String processorName(final QueryContext queryContext) {
+    final String base = PROCESSOR_PREFIX + String.join("-", queryContext.getContext());
+    if (processorNames.add(base)) {
+      return base;
+    }
+
+    String name;
+    int i = 1;
+    do {
+      name = base + "-" + i++;
+    } while (!processorNames.add(name));
+    return name;
+  }
+
+  private static final class StepMetricsTransformer
+      implements ValueTransformerWithKey<Object, GenericRow, GenericRow> {
+
+    private static final ThreadLocal<LastSample> LAST_SAMPLE =
+        ThreadLocal.withInitial(LastSample::new);
+
+    private final String queryId;
+    private final String step;
+    private final Set<String> parents;
+    private final int sampleInterval;
+    private ProcessorContext context;
+    private StepMetrics metrics;
+    private long unrecorded;
+
+    StepMetricsTransformer(
+        final String queryId,
+        final String step,
+        final Set<String> parents,
+        final int sampleInterval
+    ) {
+      this.queryId = queryId;
+      this.step = step;
+      this.parents = parents;
+      this.sampleInterval = sampleInterval;
+    }
+
+    @Override
+    public void init(final ProcessorContext context) {
+      this.context = requireNonNull(context, "context");
+      StepMetrics.registerApplication(context.applicationId(), queryId);
+      this.metrics = StepMetrics.of(queryId, step);
+    }
+
+    @Override
+    public GenericRow transform(final Object key, final GenericRow value) {
+      unrecorded++;
+
+      final long offset = context.offset();
+      if (offset < 0 || offset % sampleInterval != 0) {
+        return value;
+      }
+
+      final long now = System.nanoTime();
+      final LastSample last = LAST_SAMPLE.get();
+      if (last.isSameRecord(context) && parents.contains(last.step)) {
+        metrics.recordProcessingTime(now - last.nanos);
+      }
+      last.set(step, now, context);
+
+      metrics.recordProcessed(unrecorded);
+      unrecorded = 0;
+      return value;
+    }
+
+    @Override
+    public void close() {
+      if (unrecorded > 0) {
+        metrics.recordProcessed(unrecorded);
+      }
+    }
+  }
+
+  /**
+   * The last sampled record to reach a metrics processor on this thread.
+   */
+  private static final class LastSample {
+
+    private String step;
+    private long nanos;
+    private String topic;
+    private int partition;
+    private long offset;
+
+    boolean isSameRecord(final ProcessorContext context) {
+      return offset == context.offset()
+          && partition == context.partition()
+          && topic != null
+          && topic.equals(context.topic());
+    }
+
+    void set(final String step, final long nanos, final ProcessorContext context) {
+      this.step = step;
+      this.nanos = nanos;
+      this.topic = context.topic();
+      this.partition = context.partition();
+      this.offset = context.offset();
+    }
+  }
+}
@@ -18,6 +18,7 @@ package io.confluent.ksql.execution.streams;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.builder.KsqlQueryBuilder;
 import io.confluent.ksql.execution.context.QueryContext;
+import io.confluent.ksql.execution.function.udaf.HoppingWindowPanes;
 import io.confluent.ksql.execution.function.udaf.KudafAggregator;
 import io.confluent.ksql.execution.materialization.MaterializationInfo;
 import io.confluent.ksql.execution.plan.Formats;
@@ -38,20 +39,39 @@ import io.confluent.ksql.execution.windows.WindowVisitor;
 import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.PhysicalSchema;
+import io.confluent.ksql.util.KsqlConfig;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.NavigableMap;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.utils.Bytes;
 import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.kstream.Aggregator;
+import org.apache.kafka.streams.kstream.Initializer;
 import org.apache.kafka.streams.kstream.KGroupedStream;
 import org.apache.kafka.streams.kstream.KTable;
 import org.apache.kafka.streams.kstream.Materialized;
 import org.apache.kafka.streams.kstream.Named;
 import org.apache.kafka.streams.kstream.SessionWindows;
 import org.apache.kafka.streams.kstream.TimeWindows;
+import org.apache.kafka.streams.kstream.Transformer;
 import org.apache.kafka.streams.kstream.Window;
 import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.kstream.internals.TimeWindow;
+import org.apache.kafka.streams.processor.ProcessorContext;
 import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.TimestampedWindowStore;
+import org.apache.kafka.streams.state.ValueAndTimestamp;
+import org.apache.kafka.streams.state.WindowStore;
+import org.apache.kafka.streams.state.WindowStoreIterator;
 
 public final class StreamAggregateBuilder {
   private StreamAggregateBuilder() {
@@ -163,6 +183,8 @@ public final class StreamAggregateBuilder {
     final LogicalSchema aggregateSchema = aggregateParams.getAggregateSchema();
     final LogicalSchema resultSchema = aggregateParams.getSchema();
     final KsqlWindowExpression ksqlWindowExpression = aggregate.getWindowExpression();
+    final Optional<HoppingWindowPanes<Struct>> windowPanes =
+        windowPanes(ksqlWindowExpression, aggregateParams, queryBuilder.getKsqlConfig());
     final KTable<Windowed<Struct>, GenericRow> aggregated = ksqlWindowExpression.accept(
         new WindowedAggregator(
             groupedStream.getGroupedStream(),
@@ -170,7 +192,8 @@ public final class StreamAggregateBuilder {
             aggregateSchema,
             queryBuilder,
             materializedFactory,
-            aggregateParams
+            aggregateParams,
+            windowPanes
         ),
         null
     );
@@ -190,6 +213,8 @@ public final class StreamAggregateBuilder {
             resultSchema
         );
 
+    windowPanes.ifPresent(materializationBuilder::windowPanes);
+
     reduced = reduced.transformValues(
         () -> new KsTransformer<>(new WindowBoundsPopulator()),
         Named.as(StreamsUtil.buildOpName(
@@ -211,6 +236,72 @@ public final class StreamAggregateBuilder {
     );
   }
 
+  private static Optional<HoppingWindowPanes<Struct>> windowPanes(
+      final KsqlWindowExpression windowExpression,
+      final AggregateParams aggregateParams,
+      final KsqlConfig ksqlConfig
+  ) {
+    if (!(windowExpression instanceof HoppingWindowExpression)
+        || !ksqlConfig.getBoolean(KsqlConfig.KSQL_AGGREGATE_HOPPING_PANES_ENABLED)) {
+      return Optional.empty();
+    }
+
+    final HoppingWindowExpression window = (HoppingWindowExpression) windowExpression;
+    return Optional.of(new HoppingWindowPanes<>(
+        window.getSize().toDuration(),
+        window.getAdvanceBy().toDuration(),
+        aggregateParams.getInitializer(),
+        aggregateParams.getAggregator().getMerger()
+    ));
+  }
+
+  /**
+   * Aggregates a hopping window aggregation into non-overlapping panes, rather than into each of
+   * the overlapping windows, and composes the windows from their panes as the panes change.
+   *
+   * <p>Each record updates only its pane. Each change to a pane is expanded into the windows
+   * that contain the pane. Each window is merged from the panes in the pane store. Windows that
+   * have closed are not output, in the same way as Kafka Streams drops records for closed
+   * windows. The panes accept records for the grace period of the last window containing them.
+   *
+   * @param groupedStream the stream to aggregate.
+   * @param panes the panes of the hopping window.
+   * @param windowGrace the grace period of the hopping window.
+   * @param initializer the aggregation's initializer.
+   * @param aggregator the aggregation's aggregator.
+   * @param materialized the materialization of the pane store.
+   * @param paneStoreName the name of the pane store.
+   * @param opName the base name for the processors added to the topology.
+   * @param <K> the type of the key.
+   * @return the table of windows.
+   */
+  public static <K> KTable<Windowed<K>, GenericRow> aggregateInPanes(
+      final KGroupedStream<K, GenericRow> groupedStream,
+      final HoppingWindowPanes<K> panes,
+      final Duration windowGrace,
+      final Initializer<GenericRow> initializer,
+      final Aggregator<K, GenericRow, GenericRow> aggregator,
+      final Materialized<K, GenericRow, WindowStore<Bytes, byte[]>> materialized,
+      final String paneStoreName,
+      final String opName
+  ) {
+    final Duration paneSize = Duration.ofMillis(panes.paneSizeMs());
+    final Duration paneGrace = windowGrace
+        .plusMillis(panes.windowSizeMs())
+        .minus(paneSize);
+
+    return groupedStream
+        .windowedBy(TimeWindows.of(paneSize).grace(paneGrace))
+        .aggregate(initializer, aggregator, materialized)
+        .toStream(Named.as(opName + "-Panes"))
+        .<Windowed<K>, GenericRow>flatTransform(
+            () -> new WindowComposer<>(panes, windowGrace.toMillis(), paneStoreName),
+            Named.as(opName + "-ComposeWindows"),
+            paneStoreName
+        )
+        .toTable(Named.as(opName + "-Windows"));
+  }
+
   private static class WindowedAggregator
       implements WindowVisitor<KTable<Windowed<Struct>, GenericRow>, Void> {
     final QueryContext queryContext;
@@ -221,6 +312,7 @@ public final class StreamAggregateBuilder {
     final Serde<Struct> keySerde;
     final Serde<GenericRow> valueSerde;
     final AggregateParams aggregateParams;
+    final Optional<HoppingWindowPanes<Struct>> windowPanes;
 
     WindowedAggregator(
         final KGroupedStream<Struct, GenericRow> groupedStream,
@@ -228,12 +320,14 @@ public final class StreamAggregateBuilder {
         final LogicalSchema aggregateSchema,
         final KsqlQueryBuilder queryBuilder,
         final MaterializedFactory materializedFactory,
-        final AggregateParams aggregateParams) {
+        final AggregateParams aggregateParams,
+        final Optional<HoppingWindowPanes<Struct>> windowPanes) {
       Objects.requireNonNull(aggregate, "aggregate");
       this.groupedStream = Objects.requireNonNull(groupedStream, "groupedStream");
       this.queryBuilder = Objects.requireNonNull(queryBuilder, "queryBuilder");
       this.materializedFactory = Objects.requireNonNull(materializedFactory, "materializedFactory");
       this.aggregateParams = Objects.requireNonNull(aggregateParams, "aggregateParams");
+      this.windowPanes = Objects.requireNonNull(windowPanes, "windowPanes");
       this.queryContext = AggregateBuilderUtils.materializeContext(aggregate);
       this.formats = aggregate.getInternalFormats();
       final PhysicalSchema physicalSchema = PhysicalSchema.from(
@@ -264,6 +358,23 @@ public final class StreamAggregateBuilder {
           .map(windows::grace)
           .orElse(windows);
 
+      if (windowPanes.isPresent()) {
+        final String storeName = StreamsUtil.buildOpName(queryContext);
+        return aggregateInPanes(
+            groupedStream,
+            windowPanes.get(),
+            Duration.ofMillis(windows.gracePeriodMs()),
+            aggregateParams.getInitializer(),
+            aggregateParams.getAggregator(),
+            materializedFactory.create(keySerde,
+                valueSerde,
+                storeName,
+                window.getRetention().map(WindowTimeClause::toDuration)),
+            storeName,
+            storeName
+        );
+      }
+
       return groupedStream
           .windowedBy(windows)
           .aggregate(
@@ -339,4 +450,103 @@ public final class StreamAggregateBuilder {
       return value;
     }
   }
+
+  /**
+   * Expands each change to a pane into the windows that contain the pane, merging each window
+   * from the panes in the pane store.
+   */
+  private static final class WindowComposer<K> implements
+      Transformer<Windowed<K>, GenericRow, Iterable<KeyValue<Windowed<K>, GenericRow>>> {
+
+    private final HoppingWindowPanes<K> panes;
+    private final long graceMs;
+    private final String paneStoreName;
+    private ProcessorContext context;
+    private TimestampedWindowStore<K, GenericRow> paneStore;
+    private long observedStreamTime = ConsumerRecord.NO_TIMESTAMP;
+
+    WindowComposer(
+        final HoppingWindowPanes<K> panes,
+        final long graceMs,
+        final String paneStoreName
+    ) {
+      this.panes = Objects.requireNonNull(panes, "panes");
+      this.graceMs = graceMs;
+      this.paneStoreName = Objects.requireNonNull(paneStoreName, "paneStoreName");
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void init(final ProcessorContext context) {
+      this.context = context;
+      this.paneStore = (TimestampedWindowStore<K, GenericRow>) context
+          .getStateStore(paneStoreName);
+    }
+
+    @Override
+    public Iterable<KeyValue<Windowed<K>, GenericRow>> transform(
+        final Windowed<K> pane,
+        final GenericRow value
+    ) {
+      if (value == null) {
+        return Collections.emptyList();
+      }
+
+      observedStreamTime = Math.max(observedStreamTime, context.timestamp());
+      final long closeTime = observedStreamTime - graceMs;
+
+      final List<Long> windowStarts = new ArrayList<>();
+      for (final long windowStart : panes.windowStartsContaining(pane.window().start())) {
+        if (windowStart + panes.windowSizeMs() > closeTime) {
+          windowStarts.add(windowStart);
+        }
+      }
+
+      if (windowStarts.isEmpty()) {
+        return Collections.emptyList();
+      }
+
+      final K key = pane.key();
+      final NavigableMap<Long, GenericRow> paneAggregates = fetchPanes(
+          key,
+          windowStarts.get(0),
+          panes.lastPaneStart(windowStarts.get(windowStarts.size() - 1))
+      );
+
+      final List<KeyValue<Windowed<K>, GenericRow>> windows = new ArrayList<>(windowStarts.size());
+      for (final long windowStart : windowStarts) {
+        final TimeWindow window =
+            new TimeWindow(windowStart, windowStart + panes.windowSizeMs());
+
+        windows.add(KeyValue.pair(
+            new Windowed<>(key, window),
+            panes.compose(key, windowStart, paneAggregates)
+        ));
+      }
+      return windows;
+    }
+
+    private NavigableMap<Long, GenericRow> fetchPanes(
+        final K key,
+        final long firstPaneStart,
+        final long lastPaneStart
+    ) {
+      final NavigableMap<Long, GenericRow> paneAggregates = new TreeMap<>();
+      try (WindowStoreIterator<ValueAndTimestamp<GenericRow>> it = paneStore.fetch(
+          key,
+          Instant.ofEpochMilli(firstPaneStart),
+          Instant.ofEpochMilli(lastPaneStart)
+      )) {
+        while (it.hasNext()) {
+          final KeyValue<Long, ValueAndTimestamp<GenericRow>> next = it.next();
+          paneAggregates.put(next.key, next.value.value());
+        }
+      }
+      return paneAggregates;
+    }
+
+    @Override
+    public void close() {
+    }
+  }
 }
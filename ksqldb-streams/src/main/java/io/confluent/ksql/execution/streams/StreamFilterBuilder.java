@@ -69,7 +69,10 @@ public final class StreamFilterBuilder {
     );
   }
 
-  private static <K> ValueTransformerWithKey<
+  /**
+   * Adapts a transformer that may drop a row to a Kafka Streams flat-map transformer.
+   */
+  public static <K> ValueTransformerWithKey<
       K,
       GenericRow,
       Iterable<GenericRow>
@@ -18,10 +18,13 @@ package io.confluent.ksql.execution.streams;
 import io.confluent.ksql.execution.builder.KsqlQueryBuilder;
 import io.confluent.ksql.execution.context.QueryContext;
 import io.confluent.ksql.execution.plan.KStreamHolder;
+import io.confluent.ksql.execution.plan.StreamFilter;
 import io.confluent.ksql.execution.plan.StreamSelect;
 import io.confluent.ksql.execution.streams.transform.KsTransformer;
+import io.confluent.ksql.execution.transform.select.FilterSelectTransformer;
 import io.confluent.ksql.execution.transform.select.SelectValueMapper;
 import io.confluent.ksql.execution.transform.select.Selection;
+import io.confluent.ksql.execution.transform.sqlpredicate.SqlPredicate;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import org.apache.kafka.streams.kstream.Named;
@@ -61,4 +64,52 @@ public final class StreamSelectBuilder {
         selection.getSchema()
     );
   }
+
+  /**
+   * Builds a select and the filter it reads from as a single processor.
+   *
+   * <p>Rows that pass the filter are projected in the same processor, rather than being forwarded
+   * to a separate select processor. The processor takes the name of the select step.
+   */
+  public static <K> KStreamHolder<K> build(
+      final KStreamHolder<K> stream,
+      final StreamFilter<K> filterStep,
+      final StreamSelect<K> selectStep,
+      final KsqlQueryBuilder queryBuilder,
+      final SqlPredicateFactory predicateFactory
+  ) {
+    final SqlPredicate predicate = predicateFactory.create(
+        filterStep.getFilterExpression(),
+        stream.getSchema(),
+        queryBuilder.getKsqlConfig(),
+        queryBuilder.getFunctionRegistry()
+    );
+
+    final ProcessingLogger filterLogger = queryBuilder
+        .getProcessingLogger(filterStep.getProperties().getQueryContext());
+
+    final QueryContext queryContext = selectStep.getProperties().getQueryContext();
+
+    final Selection<K> selection = Selection.of(
+        stream.getSchema(),
+        selectStep.getSelectExpressions(),
+        queryBuilder.getKsqlConfig(),
+        queryBuilder.getFunctionRegistry()
+    );
+
+    final SelectValueMapper<K> selectMapper = selection.getMapper();
+
+    final ProcessingLogger selectLogger = queryBuilder.getProcessingLogger(queryContext);
+
+    return stream.withStream(
+        stream.getStream().flatTransformValues(
+            () -> StreamFilterBuilder.toFlatMapTransformer(new FilterSelectTransformer<>(
+                predicate.getTransformer(filterLogger),
+                selectMapper.getTransformer(selectLogger)
+            )),
+            Named.as(StreamsUtil.buildOpName(queryContext))
+        ),
+        selection.getSchema()
+    );
+  }
 }
@@ -20,6 +20,7 @@ import io.confluent.ksql.execution.builder.KsqlQueryBuilder;
 import io.confluent.ksql.execution.context.QueryContext;
 import io.confluent.ksql.execution.plan.Formats;
 import io.confluent.ksql.execution.plan.KStreamHolder;
+import io.confluent.ksql.execution.plan.StreamSelect;
 import io.confluent.ksql.execution.plan.StreamStreamJoin;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.PhysicalSchema;
@@ -41,6 +42,51 @@ public final class StreamStreamJoinBuilder {
       final StreamStreamJoin<K> join,
       final KsqlQueryBuilder queryBuilder,
       final StreamJoinedFactory streamJoinedFactory) {
+    return build(
+        left,
+        right,
+        join,
+        JoinParamsFactory.create(left.getSchema(), right.getSchema()),
+        queryBuilder,
+        streamJoinedFactory
+    );
+  }
+
+  /**
+   * Builds a join and the select that follows it, with the select applied by the join's value
+   * joiner rather than by a separate processor.
+   */
+  public static <K> KStreamHolder<K> build(
+      final KStreamHolder<K> left,
+      final KStreamHolder<K> right,
+      final StreamStreamJoin<K> join,
+      final StreamSelect<K> select,
+      final KsqlQueryBuilder queryBuilder,
+      final StreamJoinedFactory streamJoinedFactory) {
+    return build(
+        left,
+        right,
+        join,
+        JoinParamsFactory.createWithProjection(
+            left.getSchema(),
+            right.getSchema(),
+            select.getSelectExpressions(),
+            queryBuilder.getKsqlConfig(),
+            queryBuilder.getFunctionRegistry(),
+            queryBuilder.getProcessingLogger(select.getProperties().getQueryContext())
+        ),
+        queryBuilder,
+        streamJoinedFactory
+    );
+  }
+
+  private static <K> KStreamHolder<K> build(
+      final KStreamHolder<K> left,
+      final KStreamHolder<K> right,
+      final StreamStreamJoin<K> join,
+      final JoinParams joinParams,
+      final KsqlQueryBuilder queryBuilder,
+      final StreamJoinedFactory streamJoinedFactory) {
     final Formats leftFormats = join.getLeftInternalFormats();
     final QueryContext queryContext = join.getProperties().getQueryContext();
     final QueryContext.Stacker stacker = QueryContext.Stacker.of(queryContext);
@@ -77,7 +123,6 @@ public final class StreamStreamJoinBuilder {
         StreamsUtil.buildOpName(queryContext),
         StreamsUtil.buildOpName(queryContext)
     );
-    final JoinParams joinParams = JoinParamsFactory.create(leftSchema, rightSchema);
     final JoinWindows joinWindows =
         JoinWindows.of(join.getBeforeMillis()).after(join.getAfterMillis());
     final KStream<K, GenericRow> result;
@@ -21,6 +21,7 @@ import io.confluent.ksql.execution.context.QueryContext;
 import io.confluent.ksql.execution.plan.Formats;
 import io.confluent.ksql.execution.plan.KStreamHolder;
 import io.confluent.ksql.execution.plan.KTableHolder;
+import io.confluent.ksql.execution.plan.StreamSelect;
 import io.confluent.ksql.execution.plan.StreamTableJoin;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.PhysicalSchema;
@@ -40,6 +41,51 @@ public final class StreamTableJoinBuilder {
       final StreamTableJoin<K> join,
       final KsqlQueryBuilder queryBuilder,
       final JoinedFactory joinedFactory) {
+    return build(
+        left,
+        right,
+        join,
+        JoinParamsFactory.create(left.getSchema(), right.getSchema()),
+        queryBuilder,
+        joinedFactory
+    );
+  }
+
+  /**
+   * Builds a join and the select that follows it, with the select applied by the join's value
+   * joiner rather than by a separate processor.
+   */
+  public static <K> KStreamHolder<K> build(
+      final KStreamHolder<K> left,
+      final KTableHolder<K> right,
+      final StreamTableJoin<K> join,
+      final StreamSelect<K> select,
+      final KsqlQueryBuilder queryBuilder,
+      final JoinedFactory joinedFactory) {
+    return build(
+        left,
+        right,
+        join,
+        JoinParamsFactory.createWithProjection(
+            left.getSchema(),
+            right.getSchema(),
+            select.getSelectExpressions(),
+            queryBuilder.getKsqlConfig(),
+            queryBuilder.getFunctionRegistry(),
+            queryBuilder.getProcessingLogger(select.getProperties().getQueryContext())
+        ),
+        queryBuilder,
+        joinedFactory
+    );
+  }
+
+  private static <K> KStreamHolder<K> build(
+      final KStreamHolder<K> left,
+      final KTableHolder<K> right,
+      final StreamTableJoin<K> join,
+      final JoinParams joinParams,
+      final KsqlQueryBuilder queryBuilder,
+      final JoinedFactory joinedFactory) {
     final Formats leftFormats = join.getInternalFormats();
     final QueryContext queryContext = join.getProperties().getQueryContext();
     final QueryContext.Stacker stacker = QueryContext.Stacker.of(queryContext);
@@ -64,8 +110,6 @@ public final class StreamTableJoinBuilder {
         null,
         StreamsUtil.buildOpName(queryContext)
     );
-    final LogicalSchema rightSchema = right.getSchema();
-    final JoinParams joinParams = JoinParamsFactory.create(leftSchema, rightSchema);
     final KStream<K, GenericRow> result;
     switch (join.getJoinType()) {
       case LEFT:
@@ -17,6 +17,7 @@ package io.confluent.ksql.execution.streams.materialization;
 
 import static java.util.Objects.requireNonNull;
 
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableList.Builder;
 import com.google.common.collect.Range;
@@ -140,6 +141,47 @@ class KsqlMaterialization implements Materialization {
               .map(v -> row.withValue(v, schema()))
           );
     }
+
+    @Override
+    public RowIterator scan(final long maxRowsScanned) {
+      return new KsqlRowIterator(table.scan(maxRowsScanned));
+    }
+
+    @Override
+    public RowIterator scan(final Struct from, final Struct to, final long maxRowsScanned) {
+      return new KsqlRowIterator(table.scan(from, to, maxRowsScanned));
+    }
+  }
+
+  /**
+   * Applies the transforms to the rows of a scan, skipping any that are filtered out.
+   */
+  private final class KsqlRowIterator extends AbstractIterator<Row> implements RowIterator {
+
+    private final RowIterator rows;
+
+    KsqlRowIterator(final RowIterator rows) {
+      this.rows = requireNonNull(rows, "rows");
+    }
+
+    @Override
+    protected Row computeNext() {
+      while (rows.hasNext()) {
+        final Row row = rows.next();
+        final Optional<GenericRow> value =
+            filterAndTransform(row.key(), row.value(), row.rowTime());
+
+        if (value.isPresent()) {
+          return row.withValue(value.get(), schema());
+        }
+      }
+      return endOfData();
+    }
+
+    @Override
+    public void close() {
+      rows.close();
+    }
   }
 
   final class KsqlMaterializedWindowedTable implements MaterializedWindowedTable {
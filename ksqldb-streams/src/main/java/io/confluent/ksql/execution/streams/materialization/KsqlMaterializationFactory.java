@@ -74,8 +74,12 @@ public final class KsqlMaterializationFactory {
         .map(xform -> xform.visit(transformVisitor))
         .collect(Collectors.toList());
 
+    final Materialization inner = info.getWindowPanes()
+        .<Materialization>map(panes -> new WindowPaneMaterialization(delegate, panes))
+        .orElse(delegate);
+
     return materializationFactory.create(
-        delegate,
+        inner,
         info.getSchema(),
         transforms
     );
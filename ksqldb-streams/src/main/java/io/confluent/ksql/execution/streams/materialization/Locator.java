@@ -45,6 +45,17 @@ public interface Locator {
       RoutingFilterFactory routingFilterFactory
   );
 
+  /**
+   * Locate the KSQL nodes that are active for at least one partition of the materialized data.
+   *
+   * <p>Between them, the nodes are active for every partition, and each partition has a single
+   * active node, so scanning the active partitions of each node scans every row once.
+   *
+   * @param routingOptions the routing options. Forwarded requests are located on this node only.
+   * @return the list of nodes.
+   */
+  List<KsqlNode> locateActive(RoutingOptions routingOptions);
+
   interface KsqlNode {
 
     /**
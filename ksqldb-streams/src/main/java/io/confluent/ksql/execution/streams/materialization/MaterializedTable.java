@@ -30,4 +30,31 @@ public interface MaterializedTable {
    * @return the value, if one is exists.
    */
   Optional<Row> get(Struct key);
+
+  /**
+   * Scan all the rows of the table.
+   *
+   * <p>Only the partitions of the table for which this instance is active are scanned, so that
+   * scanning every instance returns each row once.
+   *
+   * @param maxRowsScanned the maximum number of rows to read from the store. The iterator throws
+   *     a {@link MaterializationException} rather than read any more.
+   * @return the rows, in the order of their serialized keys.
+   */
+  RowIterator scan(long maxRowsScanned);
+
+  /**
+   * Scan the rows of the table whose serialized keys are between the serialized {@code from}
+   * and {@code to} keys, inclusive.
+   *
+   * <p>The order of the serialized keys is not necessarily the order of the keys. Only the
+   * partitions of the table for which this instance is active are scanned.
+   *
+   * @param from the first key to return.
+   * @param to the last key to return.
+   * @param maxRowsScanned the maximum number of rows to read from the store. The iterator throws
+   *     a {@link MaterializationException} rather than read any more.
+   * @return the rows, in the order of their serialized keys.
+   */
+  RowIterator scan(Struct from, Struct to, long maxRowsScanned);
 }
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.streams.materialization;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * Iterator over the rows of a scan of a {@link MaterializedTable}.
+ *
+ * <p>The iterator holds resources of the underlying state store, and must be closed once done
+ * with.
+ */
+public interface RowIterator extends Iterator<Row>, Closeable {
+
+  @Override
+  void close();
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.streams.materialization;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Range;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.function.udaf.HoppingWindowPanes;
+import io.confluent.ksql.model.WindowType;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import java.time.Instant;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.kstream.internals.TimeWindow;
+
+/**
+ * {@link Materialization} of a hopping window aggregation whose state store holds the aggregates
+ * of the non-overlapping panes that make up the windows, rather than of the windows themselves.
+ *
+ * <p>Each window is composed from its panes when it is read.
+ */
+class WindowPaneMaterialization implements Materialization {
+
+  private final Materialization inner;
+  private final HoppingWindowPanes<Struct> panes;
+
+  /**
+   * @param inner the inner materialization, which returns the panes as if they were windows.
+   * @param panes the info needed to compose windows from their panes.
+   */
+  WindowPaneMaterialization(
+      final Materialization inner,
+      final HoppingWindowPanes<Struct> panes
+  ) {
+    this.inner = requireNonNull(inner, "inner");
+    this.panes = requireNonNull(panes, "panes");
+  }
+
+  @Override
+  public LogicalSchema schema() {
+    return inner.schema();
+  }
+
+  @Override
+  public Locator locator() {
+    return inner.locator();
+  }
+
+  @Override
+  public Optional<WindowType> windowType() {
+    return inner.windowType();
+  }
+
+  @Override
+  public MaterializedTable nonWindowed() {
+    return inner.nonWindowed();
+  }
+
+  @Override
+  public MaterializedWindowedTable windowed() {
+    return new WindowPaneTable(inner.windowed());
+  }
+
+  final class WindowPaneTable implements MaterializedWindowedTable {
+
+    private final MaterializedWindowedTable table;
+
+    WindowPaneTable(final MaterializedWindowedTable table) {
+      this.table = requireNonNull(table, "table");
+    }
+
+    @Override
+    public List<WindowedRow> get(final Struct key, final Range<Instant> windowStart) {
+      final List<WindowedRow> paneRows = table.get(key, paneStartBounds(windowStart));
+      if (paneRows.isEmpty()) {
+        return ImmutableList.of();
+      }
+
+      final NavigableMap<Long, GenericRow> paneAggregates = new TreeMap<>();
+      final NavigableMap<Long, Long> paneRowTimes = new TreeMap<>();
+      final NavigableSet<Long> windowStarts = new TreeSet<>();
+
+      for (final WindowedRow paneRow : paneRows) {
+        final long paneStart = paneRow.windowedKey().window().start();
+        paneAggregates.put(paneStart, paneRow.value());
+        paneRowTimes.put(paneStart, paneRow.rowTime());
+
+        for (final long start : panes.windowStartsContaining(paneStart)) {
+          if (windowStart.contains(Instant.ofEpochMilli(start))) {
+            windowStarts.add(start);
+          }
+        }
+      }
+
+      final LogicalSchema schema = paneRows.get(0).schema();
+      final ImmutableList.Builder<WindowedRow> builder = ImmutableList.builder();
+
+      for (final long start : windowStarts) {
+        final long end = start + panes.windowSizeMs();
+
+        final long rowTime = paneRowTimes.subMap(start, true, end, false).values().stream()
+            .mapToLong(Long::longValue)
+            .max()
+            .orElseThrow(IllegalStateException::new);
+
+        builder.add(WindowedRow.of(
+            schema,
+            new Windowed<>(key, new TimeWindow(start, end)),
+            panes.compose(key, start, paneAggregates),
+            rowTime
+        ));
+      }
+
+      return builder.build();
+    }
+
+    /**
+     * The panes of the windows that start within {@code windowStart} start within the same
+     * bounds, except that the upper bound is extended to the start of the last pane of the last
+     * window.
+     */
+    private Range<Instant> paneStartBounds(final Range<Instant> windowStart) {
+      if (!windowStart.hasUpperBound()) {
+        return windowStart;
+      }
+
+      final Instant upper = Instant.ofEpochMilli(
+          panes.lastPaneStart(windowStart.upperEndpoint().toEpochMilli()));
+
+      return windowStart.hasLowerBound()
+          ? Range.range(
+              windowStart.lowerEndpoint(),
+              windowStart.lowerBoundType(),
+              upper,
+              windowStart.upperBoundType())
+          : Range.upTo(upper, windowStart.upperBoundType());
+    }
+  }
+}
@@ -28,6 +28,7 @@ import io.confluent.ksql.execution.streams.materialization.MaterializationExcept
 import io.confluent.ksql.util.KsqlHostInfo;
 import java.net.URI;
 import java.net.URL;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -38,6 +39,7 @@ import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.streams.KafkaStreams;
 import org.apache.kafka.streams.KeyQueryMetadata;
 import org.apache.kafka.streams.state.HostInfo;
+import org.apache.kafka.streams.state.StreamsMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -115,6 +117,33 @@ final class KsLocator implements Locator {
     return filteredHosts;
   }
 
+  @Override
+  public List<KsqlNode> locateActive(final RoutingOptions routingOptions) {
+    // A forwarded request is only served by this node:
+    if (routingOptions.skipForwardRequest()) {
+      return ImmutableList.of(asNode(new KsqlHostInfo(localHost.getHost(), localHost.getPort())));
+    }
+
+    final Collection<StreamsMetadata> metadata =
+        kafkaStreams.allMetadataForStore(stateStoreName);
+
+    final List<KsqlNode> activeHosts = metadata.stream()
+        .filter(m -> m.stateStoreNames().contains(stateStoreName))
+        .map(m -> asNode(asKsqlHost(m.hostInfo())))
+        .distinct()
+        .collect(Collectors.toList());
+
+    // Fail fast if Streams not ready. Let client handle it
+    if (activeHosts.isEmpty()) {
+      LOG.debug("StreamsMetadata not available for state store {}", stateStoreName);
+      throw new MaterializationException(String.format(
+          "StreamsMetadata not available for state store %s", stateStoreName));
+    }
+
+    LOG.debug("Active hosts: {}", activeHosts);
+    return activeHosts;
+  }
+
   @VisibleForTesting
   KsqlHostInfo asKsqlHost(final HostInfo hostInfo) {
     return new KsqlHostInfo(hostInfo.host(), hostInfo.port());
@@ -19,9 +19,14 @@ import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.streams.materialization.MaterializationException;
 import io.confluent.ksql.execution.streams.materialization.MaterializedTable;
 import io.confluent.ksql.execution.streams.materialization.Row;
+import io.confluent.ksql.execution.streams.materialization.RowIterator;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.state.KeyValueIterator;
 import org.apache.kafka.streams.state.QueryableStoreTypes;
 import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
 import org.apache.kafka.streams.state.ValueAndTimestamp;
@@ -51,4 +56,69 @@ class KsMaterializedTable implements MaterializedTable {
       throw new MaterializationException("Failed to get value from materialized table", e);
     }
   }
+
+  @Override
+  public RowIterator scan(final long maxRowsScanned) {
+    try {
+      final ReadOnlyKeyValueStore<Struct, ValueAndTimestamp<GenericRow>> store = stateStore
+          .activeStore(QueryableStoreTypes.timestampedKeyValueStore());
+
+      return new StoreRowIterator(store.all(), maxRowsScanned);
+    } catch (final Exception e) {
+      throw new MaterializationException("Failed to scan materialized table", e);
+    }
+  }
+
+  @Override
+  public RowIterator scan(final Struct from, final Struct to, final long maxRowsScanned) {
+    try {
+      final ReadOnlyKeyValueStore<Struct, ValueAndTimestamp<GenericRow>> store = stateStore
+          .activeStore(QueryableStoreTypes.timestampedKeyValueStore());
+
+      return new StoreRowIterator(store.range(from, to), maxRowsScanned);
+    } catch (final Exception e) {
+      throw new MaterializationException("Failed to scan materialized table", e);
+    }
+  }
+
+  private final class StoreRowIterator implements RowIterator {
+
+    private final KeyValueIterator<Struct, ValueAndTimestamp<GenericRow>> it;
+    private final long maxRowsScanned;
+    private long rowsScanned;
+
+    StoreRowIterator(
+        final KeyValueIterator<Struct, ValueAndTimestamp<GenericRow>> it,
+        final long maxRowsScanned
+    ) {
+      this.it = Objects.requireNonNull(it, "it");
+      this.maxRowsScanned = maxRowsScanned;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return it.hasNext();
+    }
+
+    @Override
+    public Row next() {
+      if (!it.hasNext()) {
+        throw new NoSuchElementException();
+      }
+
+      if (++rowsScanned > maxRowsScanned) {
+        throw new MaterializationException("Scan of materialized table exceeded the maximum of "
+            + maxRowsScanned + " rows. Narrow the range of keys, add a LIMIT clause, or increase "
+            + KsqlConfig.KSQL_QUERY_PULL_MAX_SCAN_ROWS_CONFIG + ".");
+      }
+
+      final KeyValue<Struct, ValueAndTimestamp<GenericRow>> next = it.next();
+      return Row.of(stateStore.schema(), next.key, next.value.value(), next.value.timestamp());
+    }
+
+    @Override
+    public void close() {
+      it.close();
+    }
+  }
 }
@@ -55,17 +55,32 @@ class KsStateStore {
   }
 
   <T> T store(final QueryableStoreType<T> queryableStoreType) {
+    // Standby reads allow queries on standby and replica state stores
+    return store(
+        queryableStoreType,
+        ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PULL_ENABLE_STANDBY_READS)
+    );
+  }
+
+  /**
+   * Get the store of only the partitions for which this instance is active, regardless of
+   * whether standby reads are enabled, e.g. for scans that must see each partition once.
+   */
+  <T> T activeStore(final QueryableStoreType<T> queryableStoreType) {
+    return store(queryableStoreType, false);
+  }
+
+  private <T> T store(
+      final QueryableStoreType<T> queryableStoreType,
+      final boolean enableStaleStores
+  ) {
     try {
-      if (ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PULL_ENABLE_STANDBY_READS)) {
-        // True flag allows queries on standby and replica state stores
-        return kafkaStreams.store(
-            StoreQueryParameters.fromNameAndType(stateStoreName, queryableStoreType)
-                .enableStaleStores());
-      } else {
-        // False flag allows queries only on active state store
-        return kafkaStreams.store(
-            StoreQueryParameters.fromNameAndType(stateStoreName, queryableStoreType));
-      }
+      final StoreQueryParameters<T> parameters =
+          StoreQueryParameters.fromNameAndType(stateStoreName, queryableStoreType);
+
+      return kafkaStreams.store(enableStaleStores
+          ? parameters.enableStaleStores()
+          : parameters);
     } catch (final Exception e) {
       final State state = kafkaStreams.state();
       if (state != State.RUNNING) {
@@ -4,10 +4,19 @@ import static io.confluent.ksql.schema.ksql.ColumnMatchers.keyColumn;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.contains;
 import static org.junit.Assert.assertThat;
-
+import static org.mockito.Mockito.mock;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.expression.tree.UnqualifiedColumnReferenceExp;
+import io.confluent.ksql.execution.plan.SelectExpression;
+import io.confluent.ksql.function.FunctionRegistry;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import org.junit.Rule;
 import org.junit.Test;
@@ -88,4 +97,65 @@ public class JoinParamsFactoryTest {
         keyColumn(ColumnName.of("BOB"), SqlTypes.BIGINT)
     ));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldBuildProjectedSchema() {
+    // When:
+    joinParams = givenProjectedJoin();
+
+    // Then:
+    assertThat(joinParams.getSchema(), is(LogicalSchema.builder()
+        .withRowTime()
+        .keyColumn(ColumnName.of("LK"), SqlTypes.STRING)
+        .valueColumn(ColumnName.of("R"), SqlTypes.BIGINT)
+        .valueColumn(ColumnName.of("B"), SqlTypes.STRING)
+        .build())
+    );
+  }
+
+  @Test
+  public void shouldProjectJoinedRows() {
+    // Given:
+    joinParams = givenProjectedJoin();
+
+    // When:
+    final GenericRow result = joinParams.getJoiner()
+        .apply(GenericRow.genericRow("blue", 1), GenericRow.genericRow(10L, 2.0));
+
+    // Then:
+    assertThat(result, is(GenericRow.genericRow(10L, "blue")));
+  }
+
+  @Test
+  public void shouldProjectJoinedRowsWithMissingSide() {
+    // Given:
+    joinParams = givenProjectedJoin();
+
+    // When:
+    final GenericRow result = joinParams.getJoiner()
+        .apply(GenericRow.genericRow("blue", 1), null);
+
+    // Then:
+    assertThat(result, is(GenericRow.genericRow(null, "blue")));
+  }
+
+  private static JoinParams givenProjectedJoin() {
+    return JoinParamsFactory.createWithProjection(
+        LEFT_SCHEMA,
+        RIGHT_SCHEMA,
+        ImmutableList.of(
+            SelectExpression.of(
+                ColumnName.of("R"),
+                new UnqualifiedColumnReferenceExp(ColumnName.of("RED"))
+            ),
+            SelectExpression.of(
+                ColumnName.of("B"),
+                new UnqualifiedColumnReferenceExp(ColumnName.of("BLUE"))
+            )
+        ),
+        new KsqlConfig(ImmutableMap.of()),
+        mock(FunctionRegistry.class),
+        mock(ProcessingLogger.class)
+    );
+  }
+}
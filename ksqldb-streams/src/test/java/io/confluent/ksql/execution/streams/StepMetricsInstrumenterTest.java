@@ -0,0 +1,231 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.streams;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.context.QueryContext;
+import io.confluent.ksql.execution.plan.ExecutionStep;
+import io.confluent.ksql.execution.plan.ExecutionStepPropertiesV1;
+import io.confluent.ksql.execution.plan.KGroupedStreamHolder;
+import io.confluent.ksql.execution.plan.KStreamHolder;
+import io.confluent.ksql.execution.plan.KTableHolder;
+import io.confluent.ksql.execution.plan.KeySerdeFactory;
+import io.confluent.ksql.metrics.MetricCollectors;
+import io.confluent.ksql.metrics.StepMetrics;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import java.util.Map;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.kstream.KGroupedStream;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.KTable;
+import org.apache.kafka.streams.kstream.Named;
+import org.apache.kafka.streams.kstream.ValueTransformerWithKey;
+import org.apache.kafka.streams.kstream.ValueTransformerWithKeySupplier;
+import org.apache.kafka.streams.processor.ProcessorContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class StepMetricsInstrumenterTest {
+
+  private static final String QUERY_ID = "CSAS_TEST_0";
+  private static final String APPLICATION_ID = "app-id";
+  private static final int SAMPLE_INTERVAL = 2;
+
+  @Mock
+  private ExecutionStep sourceStep;
+  @Mock
+  private ExecutionStep step;
+  @Mock
+  private KStream<Struct, GenericRow> sourceStream;
+  @Mock
+  private KStream<Struct, GenericRow> stream;
+  @Mock
+  private KTable<Struct, GenericRow> table;
+  @Mock
+  private KGroupedStream<Struct, GenericRow> groupedStream;
+  @Mock
+  private LogicalSchema schema;
+  @Mock
+  private KeySerdeFactory<Struct> keySerdeFactory;
+  @Mock
+  private ProcessorContext context;
+  @Mock
+  private GenericRow row;
+
+  @Rule
+  public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+  private StepMetricsInstrumenter instrumenter;
+
+  @Before
+  public void init() {
+    MetricCollectors.initialize();
+
+    when(sourceStep.getProperties())
+        .thenReturn(new ExecutionStepPropertiesV1(queryContext("KsqlTopic", "Source")));
+    when(sourceStep.getSources()).thenReturn(ImmutableList.of());
+    when(step.getProperties()).thenReturn(new ExecutionStepPropertiesV1(queryContext("Project")));
+    when(step.getSources()).thenReturn(ImmutableList.of(sourceStep));
+
+    when(context.applicationId()).thenReturn(APPLICATION_ID);
+    when(context.topic()).thenReturn("topic");
+    when(context.partition()).thenReturn(0);
+
+    instrumenter = new StepMetricsInstrumenter(QUERY_ID, SAMPLE_INTERVAL);
+  }
+
+  @After
+  public void tearDown() {
+    StepMetrics.notifyApplicationClose(APPLICATION_ID);
+    MetricCollectors.cleanUp();
+  }
+
+  @Test
+  public void shouldAddMetricsBranchToStream() {
+    // When:
+    instrumenter.instrument(step, new KStreamHolder<>(stream, schema, keySerdeFactory));
+
+    // Then:
+    verify(stream).transformValues(any(ValueTransformerWithKeySupplier.class), any(Named.class));
+  }
+
+  @Test
+  public void shouldAddMetricsBranchToTable() {
+    // Given:
+    when(table.toStream(any(Named.class))).thenReturn(stream);
+
+    // When:
+    instrumenter.instrument(step, KTableHolder.unmaterialized(table, schema, keySerdeFactory));
+
+    // Then:
+    verify(stream).transformValues(any(ValueTransformerWithKeySupplier.class), any(Named.class));
+  }
+
+  @Test
+  public void shouldNotInstrumentGroupedStreams() {
+    // When:
+    instrumenter.instrument(step, KGroupedStreamHolder.of(groupedStream, schema));
+
+    // Then:
+    verifyZeroInteractions(groupedStream);
+  }
+
+  @Test
+  public void shouldRecordProcessedRecordsOnSampledRecord() {
+    // Given:
+    final ValueTransformerWithKey<Object, GenericRow, GenericRow> transformer =
+        instrument(step, stream);
+
+    // When:
+    process(transformer, 1);
+    process(transformer, 2);
+
+    // Then:
+    assertThat(StepMetrics.snapshot(QUERY_ID).get("Project"), hasKey("records-per-sec"));
+  }
+
+  @Test
+  public void shouldNotRecordBeforeSampledRecord() {
+    // Given:
+    final ValueTransformerWithKey<Object, GenericRow, GenericRow> transformer =
+        instrument(step, stream);
+
+    // When:
+    process(transformer, 1);
+
+    // Then:
+    assertThat(StepMetrics.snapshot(QUERY_ID), not(hasKey("Project")));
+  }
+
+  @Test
+  public void shouldRecordProcessingTimeSinceSourceStep() {
+    // Given:
+    final ValueTransformerWithKey<Object, GenericRow, GenericRow> source =
+        instrument(sourceStep, sourceStream);
+    final ValueTransformerWithKey<Object, GenericRow, GenericRow> transformer =
+        instrument(step, stream);
+
+    // When:
+    process(source, 2);
+    process(transformer, 2);
+
+    // Then:
+    final Map<String, Map<String, Double>> snapshot = StepMetrics.snapshot(QUERY_ID);
+    assertThat(snapshot.get("Project"), hasKey("processing-time-max-us"));
+    assertThat(snapshot.get("KsqlTopic/Source"), not(hasKey("processing-time-max-us")));
+  }
+
+  @Test
+  public void shouldNotRecordProcessingTimeForDifferentRecord() {
+    // Given:
+    final ValueTransformerWithKey<Object, GenericRow, GenericRow> source =
+        instrument(sourceStep, sourceStream);
+    final ValueTransformerWithKey<Object, GenericRow, GenericRow> transformer =
+        instrument(step, stream);
+
+    // When:
+    process(source, 2);
+    process(transformer, 4);
+
+    // Then:
+    assertThat(StepMetrics.snapshot(QUERY_ID).get("Project"),
+        not(hasKey("processing-time-max-us")));
+  }
+
+  private ValueTransformerWithKey<Object, GenericRow, GenericRow> instrument(
+      final ExecutionStep<?> step,
+      final KStream<Struct, GenericRow> stream
+  ) {
+    instrumenter.instrument(step, new KStreamHolder<>(stream, schema, keySerdeFactory));
+
+    final ArgumentCaptor<ValueTransformerWithKeySupplier> captor =
+        ArgumentCaptor.forClass(ValueTransformerWithKeySupplier.class);
+    verify(stream).transformValues(captor.capture(), any(Named.class));
+
+    final ValueTransformerWithKey<Object, GenericRow, GenericRow> transformer =
+        captor.getValue().get();
+    transformer.init(context);
+    return transformer;
+  }
+
+  private void process(
+      final ValueTransformerWithKey<Object, GenericRow, GenericRow> transformer,
+      final long offset
+  ) {
+    when(context.offset()).thenReturn(offset);
+    transformer.transform(null, row);
+  }
+
+  private static QueryContext queryContext(final String... context) {
+    return new QueryContext.Stacker().push(context).getQueryContext();
+  }
+}
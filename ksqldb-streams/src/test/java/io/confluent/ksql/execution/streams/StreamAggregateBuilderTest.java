@@ -30,6 +30,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.builder.KsqlQueryBuilder;
 import io.confluent.ksql.execution.context.QueryContext;
@@ -62,6 +63,7 @@ import io.confluent.ksql.schema.ksql.types.SqlTypes;
 import io.confluent.ksql.serde.FormatFactory;
 import io.confluent.ksql.serde.FormatInfo;
 import io.confluent.ksql.serde.SerdeOption;
+import io.confluent.ksql.util.KsqlConfig;
 import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
@@ -70,6 +72,7 @@ import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.utils.Bytes;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.streams.kstream.KGroupedStream;
+import org.apache.kafka.streams.kstream.KStream;
 import org.apache.kafka.streams.kstream.KTable;
 import org.apache.kafka.streams.kstream.Materialized;
 import org.apache.kafka.streams.kstream.Merger;
@@ -153,6 +156,12 @@ public class StreamAggregateBuilderTest {
   @Mock
   private KTable<Windowed<Struct>, GenericRow> windowed;
   @Mock
+  private KStream<Windowed<Struct>, GenericRow> panes;
+  @Mock
+  private KStream<Windowed<Struct>, GenericRow> composedWindows;
+  @Mock
+  private KTable<Windowed<Struct>, GenericRow> composed;
+  @Mock
   private KTable<Windowed<Struct>, GenericRow> windowedWithResults;
   @Mock
   private KTable<Windowed<Struct>, GenericRow> windowedWithWindowBounds;
@@ -275,6 +284,31 @@ public class StreamAggregateBuilderTest {
 
   private void givenHoppingWindowedAggregate() {
     givenTimeWindowedAggregate();
+    givenHoppingWindowExpression(new KsqlConfig(ImmutableMap.of()));
+  }
+
+  @SuppressWarnings("unchecked")
+  private void givenHoppingPaneAggregate() {
+    when(materializedFactory.<Struct, WindowStore<Bytes, byte[]>>create(any(), any(), any(), any()))
+        .thenReturn(timeWindowMaterialized);
+    when(groupedStream.windowedBy(any(Windows.class))).thenReturn(timeWindowedStream);
+    when(timeWindowedStream.aggregate(any(), any(), any(Materialized.class)))
+        .thenReturn(windowed);
+    when(windowed.toStream(any(Named.class))).thenReturn(panes);
+    when(panes.flatTransform(any(), any(Named.class), eq("agg-regate-Materialize")))
+        .thenReturn((KStream) composedWindows);
+    when(composedWindows.toTable(any(Named.class))).thenReturn(composed);
+    when(composed.transformValues(any(), any(Named.class)))
+        .thenReturn((KTable) windowedWithResults);
+    when(windowedWithResults.transformValues(any(), any(Named.class)))
+        .thenReturn((KTable) windowedWithWindowBounds);
+    givenHoppingWindowExpression(new KsqlConfig(ImmutableMap.of(
+        KsqlConfig.KSQL_AGGREGATE_HOPPING_PANES_ENABLED, true
+    )));
+  }
+
+  private void givenHoppingWindowExpression(final KsqlConfig ksqlConfig) {
+    when(queryBuilder.getKsqlConfig()).thenReturn(ksqlConfig);
     windowedAggregate = new StreamWindowedAggregate(
         new ExecutionStepPropertiesV1(CTX),
         sourceStep,
@@ -487,6 +521,65 @@ public class StreamAggregateBuilderTest {
     assertThat(result.getTable(), is(windowedWithWindowBounds));
   }
 
+  @Test
+  public void shouldBuildHoppingWindowedAggregateInPanesIfEnabled() {
+    // Given:
+    givenHoppingPaneAggregate();
+
+    // When:
+    final KTableHolder<Windowed<Struct>> result = windowedAggregate.build(planBuilder);
+
+    // Then:
+    assertThat(result.getTable(), is(windowedWithWindowBounds));
+    final InOrder inOrder = Mockito.inOrder(
+        groupedStream,
+        timeWindowedStream,
+        windowed,
+        panes,
+        composedWindows,
+        composed,
+        windowedWithResults,
+        windowedWithWindowBounds
+    );
+
+    inOrder.verify(groupedStream).windowedBy(TimeWindows.of(HOP)
+        .grace(gracePeriodClause.toDuration().plus(WINDOW).minus(HOP)));
+    inOrder.verify(timeWindowedStream).aggregate(initializer, aggregator, timeWindowMaterialized);
+    inOrder.verify(windowed).toStream(any(Named.class));
+    inOrder.verify(panes).flatTransform(any(), any(Named.class), eq("agg-regate-Materialize"));
+    inOrder.verify(composedWindows).toTable(any(Named.class));
+    inOrder.verify(composed).transformValues(any(), any(Named.class));
+    inOrder.verify(windowedWithResults).transformValues(any(), any(Named.class));
+    inOrder.verifyNoMoreInteractions();
+  }
+
+  @Test
+  public void shouldBuildMaterializationWithPanesForHoppingPaneAggregate() {
+    // Given:
+    givenHoppingPaneAggregate();
+
+    // When:
+    final KTableHolder<?> result = windowedAggregate.build(planBuilder);
+
+    // Then:
+    final MaterializationInfo info = result.getMaterializationBuilder().get().build();
+    assertThat(info.getWindowPanes().isPresent(), is(true));
+    assertThat(info.getWindowPanes().get().paneSizeMs(), is(HOP.toMillis()));
+  }
+
+  @Test
+  public void shouldNotBuildMaterializationWithPanesByDefault() {
+    // Given:
+    givenHoppingWindowedAggregate();
+
+    // When:
+    final KTableHolder<?> result = windowedAggregate.build(planBuilder);
+
+    // Then:
+    final MaterializationInfo info = result.getMaterializationBuilder().get().build();
+    assertThat(info.getWindowPanes().isPresent(), is(false));
+  }
+
   @Test
   public void shouldBuildSessionWindowedAggregateCorrectly() {
     // Given:
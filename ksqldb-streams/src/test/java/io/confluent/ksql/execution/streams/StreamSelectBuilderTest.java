@@ -19,6 +19,7 @@ import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -35,7 +36,9 @@ import io.confluent.ksql.execution.plan.KStreamHolder;
 import io.confluent.ksql.execution.plan.KeySerdeFactory;
 import io.confluent.ksql.execution.plan.PlanBuilder;
 import io.confluent.ksql.execution.plan.SelectExpression;
+import io.confluent.ksql.execution.plan.StreamFilter;
 import io.confluent.ksql.execution.plan.StreamSelect;
+import io.confluent.ksql.execution.transform.sqlpredicate.SqlPredicate;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.name.ColumnName;
@@ -78,6 +81,8 @@ public class StreamSelectBuilderTest {
       SelectExpression.of(ColumnName.of("expr2"), EXPRESSION2)
   );
 
+  private static final Expression FILTER_EXPRESSION = new StringLiteral("filter");
+
   private static final String SELECT_STEP_NAME = "foo-bar";
 
   @Mock
@@ -98,6 +103,12 @@ public class StreamSelectBuilderTest {
   private KeySerdeFactory<Struct> keySerdeFactory;
   @Mock
   private ProcessingLogger processingLogger;
+  @Mock
+  private SqlPredicateFactory predicateFactory;
+  @Mock
+  private SqlPredicate sqlPredicate;
+  @Mock
+  private ExecutionStepPropertiesV1 filterProperties;
   @Captor
   private ArgumentCaptor<Named> nameCaptor;
 
@@ -121,6 +132,12 @@ public class StreamSelectBuilderTest {
     when(
         sourceKStream.transformValues(any(ValueTransformerWithKeySupplier.class), any(Named.class)))
         .thenReturn(resultKStream);
+    when(sourceKStream
+        .flatTransformValues(any(ValueTransformerWithKeySupplier.class), any(Named.class)))
+        .thenReturn(resultKStream);
+    when(filterProperties.getQueryContext())
+        .thenReturn(new QueryContext.Stacker().push("foo").push("filter").getQueryContext());
+    when(predicateFactory.create(any(), any(), any(), any())).thenReturn(sqlPredicate);
     final KStreamHolder<Struct> sourceStream
         = new KStreamHolder<>(sourceKStream, SCHEMA, keySerdeFactory);
     when(sourceStep.build(any())).thenReturn(sourceStream);
@@ -131,7 +148,7 @@ public class StreamSelectBuilderTest {
     );
     planBuilder = new KSPlanBuilder(
         queryBuilder,
-        mock(SqlPredicateFactory.class),
+        predicateFactory,
         mock(AggregateParamsFactory.class),
         mock(StreamsFactories.class)
     );
@@ -186,4 +203,73 @@ public class StreamSelectBuilderTest {
     // Then:
     verify(queryBuilder).getProcessingLogger(context);
   }
+
+  @Test
+  public void shouldNotFuseFilterAndSelectByDefault() {
+    // Given:
+    when(resultKStream
+        .transformValues(any(ValueTransformerWithKeySupplier.class), any(Named.class)))
+        .thenReturn(resultKStream);
+    final StreamSelect<Struct> select = givenSelectOfFilter();
+
+    // When:
+    select.build(planBuilder);
+
+    // Then:
+    verify(sourceKStream).flatTransformValues(
+        any(ValueTransformerWithKeySupplier.class),
+        nameCaptor.capture()
+    );
+    assertThat(NamedTestAccessor.getName(nameCaptor.getValue()), is("foo-filter"));
+    verify(resultKStream)
+        .transformValues(any(ValueTransformerWithKeySupplier.class), any(Named.class));
+  }
+
+  @Test
+  public void shouldFuseFilterAndSelectIfEnabled() {
+    // Given:
+    when(ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_STATELESS_FUSION_ENABLED)).thenReturn(true);
+    final StreamSelect<Struct> select = givenSelectOfFilter();
+
+    // When:
+    final KStreamHolder<Struct> result = select.build(planBuilder);
+
+    // Then:
+    verify(sourceKStream).flatTransformValues(
+        any(ValueTransformerWithKeySupplier.class),
+        nameCaptor.capture()
+    );
+    assertThat(NamedTestAccessor.getName(nameCaptor.getValue()), is(SELECT_STEP_NAME));
+    verify(sourceKStream, never())
+        .transformValues(any(ValueTransformerWithKeySupplier.class), any(Named.class));
+    assertThat(result.getStream(), is(resultKStream));
+    assertThat(result.getSchema(), is(step.build(planBuilder).getSchema()));
+  }
+
+  @Test
+  public void shouldBuildFusedPredicateAgainstFilterSource() {
+    // Given:
+    when(ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_STATELESS_FUSION_ENABLED)).thenReturn(true);
+
+    // When:
+    givenSelectOfFilter().build(planBuilder);
+
+    // Then:
+    verify(predicateFactory).create(
+        FILTER_EXPRESSION,
+        SCHEMA,
+        ksqlConfig,
+        queryBuilder.getFunctionRegistry()
+    );
+    verify(queryBuilder).getProcessingLogger(filterProperties.getQueryContext());
+    verify(queryBuilder).getProcessingLogger(context);
+  }
+
+  private StreamSelect<Struct> givenSelectOfFilter() {
+    return new StreamSelect<>(
+        properties,
+        new StreamFilter<>(filterProperties, sourceStep, FILTER_EXPRESSION),
+        SELECT_EXPRESSIONS
+    );
+  }
 }
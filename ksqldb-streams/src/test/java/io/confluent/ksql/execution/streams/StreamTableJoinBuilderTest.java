@@ -10,9 +10,12 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.builder.KsqlQueryBuilder;
 import io.confluent.ksql.execution.context.QueryContext;
+import io.confluent.ksql.execution.expression.tree.UnqualifiedColumnReferenceExp;
 import io.confluent.ksql.execution.plan.ExecutionStep;
 import io.confluent.ksql.execution.plan.ExecutionStepPropertiesV1;
 import io.confluent.ksql.execution.plan.JoinType;
@@ -20,7 +23,11 @@ import io.confluent.ksql.execution.plan.KStreamHolder;
 import io.confluent.ksql.execution.plan.KTableHolder;
 import io.confluent.ksql.execution.plan.KeySerdeFactory;
 import io.confluent.ksql.execution.plan.PlanBuilder;
+import io.confluent.ksql.execution.plan.SelectExpression;
+import io.confluent.ksql.execution.plan.StreamSelect;
 import io.confluent.ksql.execution.plan.StreamTableJoin;
+import io.confluent.ksql.function.FunctionRegistry;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.PhysicalSchema;
@@ -28,6 +35,7 @@ import io.confluent.ksql.schema.ksql.types.SqlTypes;
 import io.confluent.ksql.serde.FormatFactory;
 import io.confluent.ksql.serde.FormatInfo;
 import io.confluent.ksql.serde.SerdeOption;
+import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.SchemaUtil;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.connect.data.Struct;
@@ -260,4 +268,40 @@ public class StreamTableJoinBuilderTest {
     final QueryContext leftCtx = QueryContext.Stacker.of(CTX).push("Left").getQueryContext();
     verify(queryBuilder).buildValueSerde(FormatInfo.of(FormatFactory.JSON.name()), LEFT_PHYSICAL, leftCtx);
   }
+
+  @Test
+  public void shouldFuseFollowingSelectIntoJoinerIfEnabled() {
+    // Given:
+    givenInnerJoin();
+    when(queryBuilder.getKsqlConfig()).thenReturn(new KsqlConfig(ImmutableMap.of(
+        KsqlConfig.KSQL_QUERY_STATELESS_FUSION_ENABLED, true
+    )));
+    when(queryBuilder.getFunctionRegistry()).thenReturn(mock(FunctionRegistry.class));
+    when(queryBuilder.getProcessingLogger(any())).thenReturn(mock(ProcessingLogger.class));
+    final StreamSelect<Struct> select = new StreamSelect<>(
+        new ExecutionStepPropertiesV1(CTX),
+        join,
+        ImmutableList.of(SelectExpression.of(
+            ColumnName.of("R"),
+            new UnqualifiedColumnReferenceExp(ColumnName.of("RED"))
+        ))
+    );
+
+    // When:
+    final KStreamHolder<Struct> result = select.build(planBuilder);
+
+    // Then:
+    verify(leftKStream).join(
+        same(rightKTable),
+        any(KsqlProjectingValueJoiner.class),
+        same(joined)
+    );
+    verifyNoMoreInteractions(leftKStream, rightKTable, resultStream);
+    assertThat(result.getStream(), is(resultStream));
+    assertThat(result.getSchema(), is(LogicalSchema.builder()
+        .withRowTime()
+        .keyColumn(SchemaUtil.ROWKEY_NAME, SqlTypes.STRING)
+        .valueColumn(ColumnName.of("R"), SqlTypes.BIGINT)
+        .build()));
+  }
 }
@@ -29,6 +29,7 @@ import com.google.common.testing.NullPointerTester.Visibility;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.context.QueryContext;
 import io.confluent.ksql.execution.context.QueryContext.Stacker;
+import io.confluent.ksql.execution.function.udaf.HoppingWindowPanes;
 import io.confluent.ksql.execution.materialization.MaterializationInfo;
 import io.confluent.ksql.execution.materialization.MaterializationInfo.MapperInfo;
 import io.confluent.ksql.execution.materialization.MaterializationInfo.PredicateInfo;
@@ -98,6 +99,8 @@ public class KsqlMaterializationFactoryTest {
   private KsqlProcessingContext ctx;
   @Captor
   private ArgumentCaptor<Function<QueryContext, ProcessingLogger>> loggerCaptor;
+  @Mock
+  private HoppingWindowPanes<Struct> windowPanes;
 
   private final QueryId queryId = new QueryId("start");
   private final Stacker contextStacker = new Stacker();
@@ -173,6 +176,22 @@ public class KsqlMaterializationFactoryTest {
     );
   }
 
+  @Test
+  public void shouldComposeWindowsFromPanesIfStoreHoldsPanes() {
+    // Given:
+    when(info.getWindowPanes()).thenReturn(Optional.of(windowPanes));
+
+    // When:
+    factory.create(materialization, info, queryId, contextStacker);
+
+    // Then:
+    verify(materializationFactory).create(
+        any(WindowPaneMaterialization.class),
+        eq(TABLE_SCHEMA),
+        any()
+    );
+  }
+
   @Test
   public void shouldBuildMaterializationWithMapTransform() {
     // Given:
@@ -425,6 +425,66 @@ public class KsqlMaterializationTest {
     assertThat(result.get(2).windowedKey().window(), is(window3));
   }
 
+  @Test
+  public void shouldScanInnerNonWindowed() {
+    // Given:
+    final MaterializedTable table = materialization.nonWindowed();
+
+    // When:
+    table.scan(10);
+
+    // Then:
+    verify(innerNonWindowed).scan(10);
+  }
+
+  @Test
+  public void shouldScanRangeOfInnerNonWindowed() {
+    // Given:
+    final MaterializedTable table = materialization.nonWindowed();
+
+    // When:
+    table.scan(A_KEY, A_KEY, 10);
+
+    // Then:
+    verify(innerNonWindowed).scan(A_KEY, A_KEY, 10);
+  }
+
+  @Test
+  public void shouldFilterAndTransformScannedRows() {
+    // Given:
+    final MaterializedTable table = materialization.nonWindowed();
+    final RowIterator scanned = mock(RowIterator.class);
+    when(innerNonWindowed.scan(10)).thenReturn(scanned);
+    when(scanned.hasNext()).thenReturn(true, true, false);
+    when(scanned.next()).thenReturn(ROW);
+    givenNoopProject();
+    when(filter.apply(any(), any(), any()))
+        .thenReturn(Optional.empty())
+        .thenReturn(Optional.of(TRANSFORMED));
+
+    // When:
+    final RowIterator result = table.scan(10);
+
+    // Then:
+    assertThat(result.hasNext(), is(true));
+    assertThat(result.next().value(), is(TRANSFORMED));
+    assertThat(result.hasNext(), is(false));
+  }
+
+  @Test
+  public void shouldCloseInnerScan() {
+    // Given:
+    final MaterializedTable table = materialization.nonWindowed();
+    final RowIterator scanned = mock(RowIterator.class);
+    when(innerNonWindowed.scan(10)).thenReturn(scanned);
+
+    // When:
+    table.scan(10).close();
+
+    // Then:
+    verify(scanned).close();
+  }
+
   private void givenNoopFilter() {
     when(filter.apply(any(), any(), any()))
         .thenAnswer(inv -> Optional.of(inv.getArgument(1)));
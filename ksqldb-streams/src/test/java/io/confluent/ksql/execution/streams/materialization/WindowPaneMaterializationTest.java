@@ -0,0 +1,177 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.streams.materialization;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Range;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.function.udaf.HoppingWindowPanes;
+import io.confluent.ksql.execution.util.StructKeyUtil;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.kstream.internals.TimeWindow;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class WindowPaneMaterializationTest {
+
+  private static final LogicalSchema SCHEMA = LogicalSchema.builder()
+      .withRowTime()
+      .keyColumn(ColumnName.of("k0"), SqlTypes.STRING)
+      .valueColumn(ColumnName.of("v0"), SqlTypes.BIGINT)
+      .build();
+
+  private static final Struct A_KEY = StructKeyUtil
+      .keyBuilder(ColumnName.of("k0"), SqlTypes.STRING).build("k");
+
+  private static final HoppingWindowPanes<Struct> PANES = new HoppingWindowPanes<>(
+      Duration.ofMillis(20),
+      Duration.ofMillis(10),
+      () -> GenericRow.genericRow(0L),
+      (key, agg1, agg2) -> GenericRow.genericRow((Long) agg1.get(0) + (Long) agg2.get(0))
+  );
+
+  @Mock
+  private Materialization inner;
+  @Mock
+  private MaterializedWindowedTable innerWindowed;
+
+  private MaterializedWindowedTable table;
+
+  @Before
+  public void setUp() {
+    when(inner.windowed()).thenReturn(innerWindowed);
+
+    table = new WindowPaneMaterialization(inner, PANES).windowed();
+  }
+
+  @Test
+  public void shouldGetPanesOfAllWindowsInBounds() {
+    // When:
+    table.get(A_KEY, Range.closedOpen(Instant.ofEpochMilli(10), Instant.ofEpochMilli(30)));
+
+    // Then:
+    verify(innerWindowed).get(
+        A_KEY,
+        Range.closedOpen(Instant.ofEpochMilli(10), Instant.ofEpochMilli(40))
+    );
+  }
+
+  @Test
+  public void shouldGetPanesIfUpperBoundUnbounded() {
+    // When:
+    table.get(A_KEY, Range.atLeast(Instant.ofEpochMilli(10)));
+
+    // Then:
+    verify(innerWindowed).get(A_KEY, Range.atLeast(Instant.ofEpochMilli(10)));
+  }
+
+  @Test
+  public void shouldGetPanesIfLowerBoundUnbounded() {
+    // When:
+    table.get(A_KEY, Range.atMost(Instant.ofEpochMilli(10)));
+
+    // Then:
+    verify(innerWindowed).get(A_KEY, Range.atMost(Instant.ofEpochMilli(20)));
+  }
+
+  @Test
+  public void shouldReturnNothingIfNoPanes() {
+    // Given:
+    when(innerWindowed.get(any(), any())).thenReturn(ImmutableList.of());
+
+    // When:
+    final List<WindowedRow> result = table.get(A_KEY, Range.all());
+
+    // Then:
+    assertThat(result, is(empty()));
+  }
+
+  @Test
+  public void shouldComposeWindowsInBoundsFromPanes() {
+    // Given:
+    when(innerWindowed.get(any(), any())).thenReturn(ImmutableList.of(
+        pane(0, 1L, 100),
+        pane(10, 2L, 200),
+        pane(20, 4L, 150)
+    ));
+
+    // When:
+    final List<WindowedRow> result =
+        table.get(A_KEY, Range.closed(Instant.ofEpochMilli(0), Instant.ofEpochMilli(10)));
+
+    // Then:
+    assertThat(result, contains(
+        window(0, 3L, 200),
+        window(10, 6L, 200)
+    ));
+  }
+
+  @Test
+  public void shouldComposeWindowsWithMissingPanes() {
+    // Given:
+    when(innerWindowed.get(any(), any())).thenReturn(ImmutableList.of(
+        pane(0, 1L, 100),
+        pane(40, 4L, 400)
+    ));
+
+    // When:
+    final List<WindowedRow> result = table.get(A_KEY, Range.all());
+
+    // Then:
+    assertThat(result, contains(
+        window(0, 1L, 100),
+        window(30, 4L, 400),
+        window(40, 4L, 400)
+    ));
+  }
+
+  private static WindowedRow pane(final long start, final long value, final long rowTime) {
+    return WindowedRow.of(
+        SCHEMA,
+        new Windowed<>(A_KEY, new TimeWindow(start, start + PANES.paneSizeMs())),
+        GenericRow.genericRow(value),
+        rowTime
+    );
+  }
+
+  private static WindowedRow window(final long start, final long value, final long rowTime) {
+    return WindowedRow.of(
+        SCHEMA,
+        new Windowed<>(A_KEY, new TimeWindow(start, start + PANES.windowSizeMs())),
+        GenericRow.genericRow(value),
+        rowTime
+    );
+  }
+}
@@ -16,10 +16,15 @@
 package io.confluent.ksql.execution.streams.materialization.ks;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
@@ -46,6 +51,7 @@ import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.streams.KafkaStreams;
 import org.apache.kafka.streams.KeyQueryMetadata;
 import org.apache.kafka.streams.state.HostInfo;
+import org.apache.kafka.streams.state.StreamsMetadata;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -335,6 +341,60 @@ public class KsLocatorTest {
     assertThat(result.stream().findFirst().get(), is(standByNode2));
   }
 
+  @Test
+  public void shouldLocateNodesWithActiveStore() {
+    // Given:
+    when(kafkaStreams.allMetadataForStore(STORE_NAME)).thenReturn(ImmutableList.of(
+        streamsMetadata(activeHostInfo, STORE_NAME),
+        streamsMetadata(standByHostInfo1, "otherStore"),
+        streamsMetadata(standByHostInfo2, STORE_NAME)
+    ));
+
+    // When:
+    final List<KsqlNode> result = locator.locateActive(routingOptions);
+
+    // Then:
+    assertThat(result, contains(activeNode, standByNode2));
+  }
+
+  @Test
+  public void shouldLocateOnlyLocalNodeIfForwarded() {
+    // Given:
+    when(routingOptions.skipForwardRequest()).thenReturn(true);
+
+    // When:
+    final List<KsqlNode> result = locator.locateActive(routingOptions);
+
+    // Then:
+    assertThat(result, hasSize(1));
+    assertThat(result.get(0).isLocal(), is(true));
+    verify(kafkaStreams, never()).allMetadataForStore(any());
+  }
+
+  @Test
+  public void shouldThrowIfNoNodesWithActiveStore() {
+    // Given:
+    when(kafkaStreams.allMetadataForStore(STORE_NAME)).thenReturn(ImmutableList.of());
+
+    // Expect:
+    expectedException.expect(MaterializationException.class);
+    expectedException.expectMessage(
+        "StreamsMetadata not available for state store someStoreName");
+
+    // When:
+    locator.locateActive(routingOptions);
+  }
+
+  private static StreamsMetadata streamsMetadata(
+      final HostInfo hostInfo,
+      final String storeName
+  ) {
+    final StreamsMetadata metadata = mock(StreamsMetadata.class);
+    when(metadata.hostInfo()).thenReturn(hostInfo);
+    when(metadata.stateStoreNames()).thenReturn(ImmutableSet.of(storeName));
+    return metadata;
+  }
+
   @SuppressWarnings("unchecked")
   private void getEmtpyMetadata() {
     when(kafkaStreams.queryMetadataForKey(any(), any(), any(Serializer.class)))
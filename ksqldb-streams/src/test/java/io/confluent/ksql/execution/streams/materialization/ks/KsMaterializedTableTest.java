@@ -19,6 +19,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -28,12 +29,15 @@ import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.streams.materialization.MaterializationException;
 import io.confluent.ksql.execution.streams.materialization.MaterializationTimeOutException;
 import io.confluent.ksql.execution.streams.materialization.Row;
+import io.confluent.ksql.execution.streams.materialization.RowIterator;
 import io.confluent.ksql.execution.util.StructKeyUtil;
 import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.types.SqlTypes;
 import java.util.Optional;
 import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.state.KeyValueIterator;
 import org.apache.kafka.streams.state.QueryableStoreType;
 import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
 import org.apache.kafka.streams.state.ValueAndTimestamp;
@@ -59,6 +63,9 @@ public class KsMaterializedTableTest {
   private static final Struct A_KEY = StructKeyUtil
       .keyBuilder(ColumnName.of("K0"), SqlTypes.STRING).build("x");
 
+  private static final Struct B_KEY = StructKeyUtil
+      .keyBuilder(ColumnName.of("K0"), SqlTypes.STRING).build("y");
+
   @Rule
   public final ExpectedException expectedException = ExpectedException.none();
 
@@ -66,6 +73,8 @@ public class KsMaterializedTableTest {
   private KsStateStore stateStore;
   @Mock
   private ReadOnlyKeyValueStore<Struct, ValueAndTimestamp<GenericRow>> tableStore;
+  @Mock
+  private KeyValueIterator<Struct, ValueAndTimestamp<GenericRow>> storeIterator;
   @Captor
   private ArgumentCaptor<QueryableStoreType<?>> storeTypeCaptor;
 
@@ -156,4 +165,98 @@ public class KsMaterializedTableTest {
     // Then:
     assertThat(result, is(Optional.of(Row.of(SCHEMA, A_KEY, value, rowTime))));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldScanActiveStore() {
+    // Given:
+    when(stateStore.activeStore(any())).thenReturn(tableStore);
+    when(tableStore.all()).thenReturn(storeIterator);
+
+    // When:
+    table.scan(10);
+
+    // Then:
+    verify(stateStore).activeStore(storeTypeCaptor.capture());
+    assertThat(storeTypeCaptor.getValue().getClass().getSimpleName(), is("TimestampedKeyValueStoreType"));
+    verify(stateStore, never()).store(any());
+  }
+
+  @Test
+  public void shouldScanRangeOfActiveStore() {
+    // Given:
+    when(stateStore.activeStore(any())).thenReturn(tableStore);
+    when(tableStore.range(any(), any())).thenReturn(storeIterator);
+
+    // When:
+    table.scan(A_KEY, B_KEY, 10);
+
+    // Then:
+    verify(tableStore).range(A_KEY, B_KEY);
+  }
+
+  @Test
+  public void shouldReturnScannedRows() {
+    // Given:
+    final GenericRow value = GenericRow.genericRow("col0");
+    when(stateStore.activeStore(any())).thenReturn(tableStore);
+    when(tableStore.all()).thenReturn(storeIterator);
+    when(storeIterator.hasNext()).thenReturn(true, false);
+    when(storeIterator.next()).thenReturn(KeyValue.pair(A_KEY, ValueAndTimestamp.make(value, 1L)));
+
+    // When:
+    final RowIterator result = table.scan(10);
+
+    // Then:
+    assertThat(result.hasNext(), is(true));
+    assertThat(result.next(), is(Row.of(SCHEMA, A_KEY, value, 1L)));
+    assertThat(result.hasNext(), is(false));
+  }
+
+  @Test
+  public void shouldThrowIfScanReadsMoreThanMaxRows() {
+    // Given:
+    final KeyValue<Struct, ValueAndTimestamp<GenericRow>> row =
+        KeyValue.pair(A_KEY, ValueAndTimestamp.make(GenericRow.genericRow("col0"), 1L));
+    when(stateStore.activeStore(any())).thenReturn(tableStore);
+    when(tableStore.all()).thenReturn(storeIterator);
+    when(storeIterator.hasNext()).thenReturn(true);
+    when(storeIterator.next()).thenReturn(row);
+
+    final RowIterator result = table.scan(1);
+    result.next();
+
+    // Then:
+    expectedException.expect(MaterializationException.class);
+    expectedException.expectMessage("Scan of materialized table exceeded the maximum of 1 rows");
+
+    // When:
+    result.next();
+  }
+
+  @Test
+  public void shouldCloseStoreIteratorOnClose() {
+    // Given:
+    when(stateStore.activeStore(any())).thenReturn(tableStore);
+    when(tableStore.all()).thenReturn(storeIterator);
+
+    // When:
+    table.scan(10).close();
+
+    // Then:
+    verify(storeIterator).close();
+  }
+
+  @Test
+  public void shouldThrowIfScanningStateStoreFails() {
+    // Given:
+    when(stateStore.activeStore(any())).thenThrow(new MaterializationTimeOutException("Boom"));
+
+    // Then:
+    expectedException.expect(MaterializationException.class);
+    expectedException.expectMessage("Failed to scan materialized table");
+    expectedException.expectCause(instanceOf(MaterializationTimeOutException.class));
+
+    // When:
+    table.scan(10);
+  }
+}
@@ -138,6 +138,35 @@ public class KsStateStoreTest {
     verify(kafkaStreams).store(StoreQueryParameters.fromNameAndType(STORE_NAME, storeType));
   }
 
+  @Test
+  public void shouldRequestStaleStoreIfStandbyReadsEnabled() {
+    // Given:
+    when(ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PULL_ENABLE_STANDBY_READS)).thenReturn(true);
+    final QueryableStoreType<ReadOnlyWindowStore<Integer, Long>> storeType =
+        QueryableStoreTypes.windowStore();
+
+    // When:
+    store.store(storeType);
+
+    // Then:
+    verify(kafkaStreams).store(
+        StoreQueryParameters.fromNameAndType(STORE_NAME, storeType).enableStaleStores());
+  }
+
+  @Test
+  public void shouldRequestActiveStoreEvenIfStandbyReadsEnabled() {
+    // Given:
+    final QueryableStoreType<ReadOnlyWindowStore<Integer, Long>> storeType =
+        QueryableStoreTypes.windowStore();
+
+    // When:
+    store.activeStore(storeType);
+
+    // Then:
+    verify(kafkaStreams).store(StoreQueryParameters.fromNameAndType(STORE_NAME, storeType));
+    verify(ksqlConfig, never()).getBoolean(KsqlConfig.KSQL_QUERY_PULL_ENABLE_STANDBY_READS);
+  }
+
   @Test
   public void shouldThrowIfStoreNotAvailableWhenRequested() {
     // Given: